@@ -23,6 +23,7 @@ import org.optaplanner.core.api.domain.autodiscover.AutoDiscoverMemberType;
 import org.optaplanner.core.api.domain.constraintweight.ConstraintConfigurationProvider;
 import org.optaplanner.core.api.domain.lookup.LookUpStrategyType;
 import org.optaplanner.core.api.domain.solution.cloner.SolutionCloner;
+import org.optaplanner.core.api.domain.solution.cloner.SolutionClonerType;
 import org.optaplanner.core.api.domain.solution.drools.ProblemFactCollectionProperty;
 import org.optaplanner.core.api.domain.solution.drools.ProblemFactProperty;
 
@@ -79,6 +80,14 @@ public @interface PlanningSolution {
     /** Workaround for annotation limitation in {@link #solutionCloner()}. */
     interface NullSolutionCloner extends SolutionCloner {}
 
+    /**
+     * Selects the default {@link SolutionCloner} implementation.
+     * <p>
+     * Ignored if the {@link #solutionCloner()} is specified.
+     * @return never null
+     */
+    SolutionClonerType solutionClonerType() default SolutionClonerType.FIELD_ACCESSING;
+
     /**
      * @return never null
      */
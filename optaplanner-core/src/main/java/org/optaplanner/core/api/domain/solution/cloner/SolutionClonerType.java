@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.api.domain.solution.cloner;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+
+/**
+ * Determines which default {@link SolutionCloner} is used
+ * if no custom {@link PlanningSolution#solutionCloner()} is specified.
+ * Both types honor {@link DeepPlanningClone} in the same way.
+ */
+public enum SolutionClonerType {
+    /**
+     * Walks the fields of every instance reflectively and decides per field value if it needs to be deep cloned.
+     * <p>
+     * This is the default.
+     */
+    FIELD_ACCESSING,
+    /**
+     * Builds a cloning plan per {@link PlanningSolution} and planning entity class
+     * when the solution descriptor is built,
+     * so every field's copy strategy (primitive, shallow or deep) is decided only once.
+     * Faster for big datasets, because the best solution is cloned often.
+     */
+    PRECOMPILED;
+
+}
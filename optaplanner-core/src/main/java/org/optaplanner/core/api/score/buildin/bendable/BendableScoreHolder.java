@@ -299,4 +299,26 @@ public class BendableScoreHolder extends AbstractScoreHolder<BendableScore> {
                 Arrays.copyOf(softScores, softScores.length));
     }
 
+    @Override
+    public int compareToScore(int initScore, BendableScore other) {
+        if (hardScores.length != other.getHardLevelsSize() || softScores.length != other.getSoftLevelsSize()) {
+            // Fails fast with the same exception message as Score.compareTo()
+            return extractScore(initScore).compareTo(other);
+        }
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        }
+        for (int i = 0; i < hardScores.length; i++) {
+            if (hardScores[i] != other.getHardScore(i)) {
+                return hardScores[i] < other.getHardScore(i) ? -1 : 1;
+            }
+        }
+        for (int i = 0; i < softScores.length; i++) {
+            if (softScores[i] != other.getSoftScore(i)) {
+                return softScores[i] < other.getSoftScore(i) ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
 }
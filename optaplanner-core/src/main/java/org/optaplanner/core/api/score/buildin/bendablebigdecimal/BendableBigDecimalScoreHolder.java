@@ -306,4 +306,28 @@ public class BendableBigDecimalScoreHolder extends AbstractScoreHolder<BendableB
                 Arrays.copyOf(softScores, softScores.length));
     }
 
+    @Override
+    public int compareToScore(int initScore, BendableBigDecimalScore other) {
+        if (hardScores.length != other.getHardLevelsSize() || softScores.length != other.getSoftLevelsSize()) {
+            // Fails fast with the same exception message as Score.compareTo()
+            return extractScore(initScore).compareTo(other);
+        }
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        }
+        for (int i = 0; i < hardScores.length; i++) {
+            int hardScoreComparison = hardScores[i].compareTo(other.getHardScore(i));
+            if (hardScoreComparison != 0) {
+                return hardScoreComparison;
+            }
+        }
+        for (int i = 0; i < softScores.length; i++) {
+            int softScoreComparison = softScores[i].compareTo(other.getSoftScore(i));
+            if (softScoreComparison != 0) {
+                return softScoreComparison;
+            }
+        }
+        return 0;
+    }
+
 }
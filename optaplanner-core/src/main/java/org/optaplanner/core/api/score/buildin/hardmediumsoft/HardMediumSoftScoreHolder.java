@@ -226,4 +226,17 @@ public class HardMediumSoftScoreHolder extends AbstractScoreHolder<HardMediumSof
         return HardMediumSoftScore.ofUninitialized(initScore, hardScore, mediumScore, softScore);
     }
 
+    @Override
+    public int compareToScore(int initScore, HardMediumSoftScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        } else if (hardScore != other.getHardScore()) {
+            return hardScore < other.getHardScore() ? -1 : 1;
+        } else if (mediumScore != other.getMediumScore()) {
+            return mediumScore < other.getMediumScore() ? -1 : 1;
+        } else {
+            return Integer.compare(softScore, other.getSoftScore());
+        }
+    }
+
 }
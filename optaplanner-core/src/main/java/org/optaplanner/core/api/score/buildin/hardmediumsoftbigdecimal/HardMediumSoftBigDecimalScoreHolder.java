@@ -239,4 +239,20 @@ public class HardMediumSoftBigDecimalScoreHolder extends AbstractScoreHolder<Har
         return HardMediumSoftBigDecimalScore.ofUninitialized(initScore, hardScore, mediumScore, softScore);
     }
 
+    @Override
+    public int compareToScore(int initScore, HardMediumSoftBigDecimalScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        }
+        int hardScoreComparison = hardScore.compareTo(other.getHardScore());
+        int mediumScoreComparison = mediumScore.compareTo(other.getMediumScore());
+        if (hardScoreComparison != 0) {
+            return hardScoreComparison;
+        } else if (mediumScoreComparison != 0) {
+            return mediumScoreComparison;
+        } else {
+            return softScore.compareTo(other.getSoftScore());
+        }
+    }
+
 }
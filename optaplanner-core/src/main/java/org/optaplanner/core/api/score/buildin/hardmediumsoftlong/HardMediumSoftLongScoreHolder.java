@@ -227,4 +227,17 @@ public class HardMediumSoftLongScoreHolder extends AbstractScoreHolder<HardMediu
         return HardMediumSoftLongScore.ofUninitialized(initScore, hardScore, mediumScore, softScore);
     }
 
+    @Override
+    public int compareToScore(int initScore, HardMediumSoftLongScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        } else if (hardScore != other.getHardScore()) {
+            return hardScore < other.getHardScore() ? -1 : 1;
+        } else if (mediumScore != other.getMediumScore()) {
+            return mediumScore < other.getMediumScore() ? -1 : 1;
+        } else {
+            return Long.compare(softScore, other.getSoftScore());
+        }
+    }
+
 }
@@ -217,6 +217,20 @@ public final class HardSoftScore extends AbstractScore<HardSoftScore> implements
 
     @Override
     public int compareTo(HardSoftScore other) {
+        return compare(initScore, hardScore, softScore, other);
+    }
+
+    /**
+     * Equal to {@code HardSoftScore.ofUninitialized(initScore, hardScore, softScore).compareTo(other)},
+     * but without creating a {@link HardSoftScore} instance.
+     * @param initScore see {@link #getInitScore()}
+     * @param hardScore see {@link #getHardScore()}
+     * @param softScore see {@link #getSoftScore()}
+     * @param other never null
+     * @return negative, zero or positive, as defined by {@link Comparable#compareTo(Object)}
+     * @see org.optaplanner.core.api.score.holder.ScoreAccumulator#compareToScore(int, Score)
+     */
+    public static int compare(int initScore, int hardScore, int softScore, HardSoftScore other) {
         // A direct implementation (instead of CompareToBuilder) to avoid dependencies
         if (initScore != other.getInitScore()) {
             return initScore < other.getInitScore() ? -1 : 1;
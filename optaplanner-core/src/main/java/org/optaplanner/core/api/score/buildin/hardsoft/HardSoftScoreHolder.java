@@ -200,4 +200,9 @@ public class HardSoftScoreHolder extends AbstractScoreHolder<HardSoftScore> {
         return HardSoftScore.ofUninitialized(initScore, hardScore, softScore);
     }
 
+    @Override
+    public int compareToScore(int initScore, HardSoftScore other) {
+        return HardSoftScore.compare(initScore, hardScore, softScore, other);
+    }
+
 }
@@ -201,4 +201,17 @@ public class HardSoftBigDecimalScoreHolder extends AbstractScoreHolder<HardSoftB
         return HardSoftBigDecimalScore.ofUninitialized(initScore, hardScore, softScore);
     }
 
+    @Override
+    public int compareToScore(int initScore, HardSoftBigDecimalScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        }
+        int hardScoreComparison = hardScore.compareTo(other.getHardScore());
+        if (hardScoreComparison != 0) {
+            return hardScoreComparison;
+        } else {
+            return softScore.compareTo(other.getSoftScore());
+        }
+    }
+
 }
@@ -203,4 +203,15 @@ public class HardSoftDoubleScoreHolder extends AbstractScoreHolder<HardSoftDoubl
         return HardSoftDoubleScore.ofUninitialized(initScore, hardScore, softScore);
     }
 
+    @Override
+    public int compareToScore(int initScore, HardSoftDoubleScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        } else if (hardScore != other.getHardScore()) {
+            return hardScore < other.getHardScore() ? -1 : 1;
+        } else {
+            return Double.compare(softScore, other.getSoftScore());
+        }
+    }
+
 }
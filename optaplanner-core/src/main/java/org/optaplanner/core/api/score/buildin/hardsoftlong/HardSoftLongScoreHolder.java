@@ -199,4 +199,15 @@ public class HardSoftLongScoreHolder extends AbstractScoreHolder<HardSoftLongSco
         return HardSoftLongScore.ofUninitialized(initScore, hardScore, softScore);
     }
 
+    @Override
+    public int compareToScore(int initScore, HardSoftLongScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        } else if (hardScore != other.getHardScore()) {
+            return hardScore < other.getHardScore() ? -1 : 1;
+        } else {
+            return Long.compare(softScore, other.getSoftScore());
+        }
+    }
+
 }
@@ -125,4 +125,13 @@ public class SimpleScoreHolder extends AbstractScoreHolder<SimpleScore> {
         return SimpleScore.ofUninitialized(initScore, score);
     }
 
+    @Override
+    public int compareToScore(int initScore, SimpleScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        } else {
+            return Integer.compare(score, other.getScore());
+        }
+    }
+
 }
@@ -126,4 +126,13 @@ public class SimpleBigDecimalScoreHolder extends AbstractScoreHolder<SimpleBigDe
         return SimpleBigDecimalScore.ofUninitialized(initScore, score);
     }
 
+    @Override
+    public int compareToScore(int initScore, SimpleBigDecimalScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        } else {
+            return score.compareTo(other.getScore());
+        }
+    }
+
 }
@@ -127,4 +127,13 @@ public class SimpleDoubleScoreHolder extends AbstractScoreHolder<SimpleDoubleSco
         return SimpleDoubleScore.ofUninitialized(initScore, score);
     }
 
+    @Override
+    public int compareToScore(int initScore, SimpleDoubleScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        } else {
+            return Double.compare(score, other.getScore());
+        }
+    }
+
 }
@@ -125,4 +125,13 @@ public class SimpleLongScoreHolder extends AbstractScoreHolder<SimpleLongScore>
         return SimpleLongScore.ofUninitialized(initScore, score);
     }
 
+    @Override
+    public int compareToScore(int initScore, SimpleLongScore other) {
+        if (initScore != other.getInitScore()) {
+            return initScore < other.getInitScore() ? -1 : 1;
+        } else {
+            return Long.compare(score, other.getScore());
+        }
+    }
+
 }
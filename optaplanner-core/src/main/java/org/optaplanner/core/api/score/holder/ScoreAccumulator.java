@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.api.score.holder;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.impl.score.director.incremental.IncrementalScoreCalculator;
+
+/**
+ * A mutable {@link Score} that is updated incrementally,
+ * for example by adding and subtracting constraint weights to primitive fields.
+ * <p>
+ * During Local Search, most evaluated moves are discarded.
+ * If the score calculation implements this interface,
+ * the acceptors and foragers compare the accumulated score without creating a {@link Score} instance
+ * and only call {@link #extractScore(int)} for the moves they keep.
+ * <p>
+ * This is only used if {@link ScoreDirectorFactoryConfig#setScoreAccumulatorEnabled(Boolean)} is true.
+ * <p>
+ * Every {@link ScoreHolder} implements this interface.
+ * An {@link IncrementalScoreCalculator} can implement it too,
+ * but then {@link IncrementalScoreCalculator#calculateScore()} is not called for the moves
+ * that are compared through this interface: the accumulated state must be up to date
+ * after the {@code after*()} notifications of a move, instead of being computed lazily in {@code calculateScore()}.
+ * @param <Score_> the {@link Score} type
+ */
+public interface ScoreAccumulator<Score_ extends Score<Score_>> {
+
+    /**
+     * Creates an immutable {@link Score} of the current accumulated state.
+     * @param initScore {@code <= 0}, managed by OptaPlanner, needed as a parameter in the {@link Score}'s creation
+     * method, see {@link Score#getInitScore()}
+     * @return never null, the {@link Score} of the working {@link PlanningSolution}
+     */
+    Score_ extractScore(int initScore);
+
+    /**
+     * Compares the current accumulated state to a {@link Score}, as if by
+     * {@code extractScore(initScore).compareTo(score)}, but preferably without creating a {@link Score} instance.
+     * @param initScore {@code <= 0}, see {@link #extractScore(int)}
+     * @param score never null
+     * @return negative, zero or positive, as defined by {@link Comparable#compareTo(Object)}
+     */
+    default int compareToScore(int initScore, Score_ score) {
+        return extractScore(initScore).compareTo(score);
+    }
+
+}
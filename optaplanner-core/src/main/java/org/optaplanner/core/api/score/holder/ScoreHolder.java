@@ -39,7 +39,7 @@ import org.optaplanner.core.impl.score.director.drools.DroolsScoreDirector;
  * @param <Score_> the {@link Score} type
  * @see AbstractScoreHolder
  */
-public interface ScoreHolder<Score_ extends Score<Score_>> {
+public interface ScoreHolder<Score_ extends Score<Score_>> extends ScoreAccumulator<Score_> {
 
     /**
      * Extracts the {@link Score}, calculated by the {@link KieSession} for {@link DroolsScoreDirector}.
@@ -49,6 +49,7 @@ public interface ScoreHolder<Score_ extends Score<Score_>> {
      * method, see {@link Score#getInitScore()}
      * @return never null, the {@link Score} of the working {@link PlanningSolution}
      */
+    @Override
     Score_ extractScore(int initScore);
 
     /**
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.api.solver;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+
+/**
+ * Represents a {@link PlanningSolution problem} that has been submitted to the {@link SolverManager}.
+ * <p>
+ * All methods are thread-safe.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ * @param <ProblemId_> the ID type of a submitted problem, such as {@link Long} or {@link java.util.UUID}
+ */
+public interface SolverJob<Solution_, ProblemId_> {
+
+    /**
+     * @return never null, a value given to {@link SolverManager#solve(Object, Object)}
+     */
+    ProblemId_ getProblemId();
+
+    /**
+     * @return the priority given to {@link SolverManager#solve(Object, Object, int)}, higher solves sooner
+     */
+    int getPriority();
+
+    /**
+     * @return never null
+     */
+    SolverStatus getSolverStatus();
+
+    /**
+     * Terminates the solver or cancels the solver job if it hasn't started yet.
+     * Does nothing if the solver already terminated.
+     * <p>
+     * Does not wait for the solver to terminate, use {@link #getFinalBestSolution()} for that.
+     */
+    void terminateEarly();
+
+    /**
+     * @return true if {@link #terminateEarly()} has been called
+     */
+    boolean isTerminatedEarly();
+
+    /**
+     * Waits until the solving ends and returns the final best solution.
+     * @return never null, but it can be uninitialized or infeasible
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws ExecutionException if the solver threw an exception
+     * @throws java.util.concurrent.CancellationException if {@link #terminateEarly()} was called
+     * before the solving started
+     */
+    Solution_ getFinalBestSolution() throws InterruptedException, ExecutionException;
+
+    /**
+     * Unlike {@link #getFinalBestSolution()}, this doesn't block the calling thread.
+     * Dependent stages run on the solver thread, unless they use an async method with their own executor.
+     * @return never null, completes with the final best solution,
+     * completes exceptionally if the solver threw an exception or is cancelled by {@link #terminateEarly()}
+     * before the solving started
+     */
+    CompletableFuture<Solution_> getFinalBestSolutionFuture();
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.api.solver;
+
+import java.util.function.Consumer;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.SolverManagerConfig;
+import org.optaplanner.core.impl.solver.DefaultSolverManager;
+
+/**
+ * A SolverManager solves multiple planning problems of the same domain,
+ * asynchronously without blocking the calling thread.
+ * <p>
+ * Unlike a {@link Solver} built by {@link SolverFactory#buildSolver()}, which creates its own move threads
+ * and part threads, all solvers of a SolverManager share 1 thread pool
+ * and they never keep more threads runnable together than the {@link SolverManagerConfig#getThreadBudget()}.
+ * If the thread budget is used up, submitted problems wait in a queue, ordered by their priority.
+ * <p>
+ * To learn about a {@link SolverJob}'s progress, use {@link #solveAndListen(Object, Object, Consumer)}.
+ * <p>
+ * All methods are thread-safe.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ * @param <ProblemId_> the ID type of a submitted problem, such as {@link Long} or {@link java.util.UUID}
+ */
+public interface SolverManager<Solution_, ProblemId_> extends AutoCloseable {
+
+    /**
+     * Uses a {@link SolverManagerConfig} with the default thread budget.
+     * @param solverFactory never null, built from a {@link SolverConfig}
+     * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+     * @param <ProblemId_> the ID type of a submitted problem, such as {@link Long} or {@link java.util.UUID}
+     * @return never null
+     */
+    static <Solution_, ProblemId_> SolverManager<Solution_, ProblemId_> create(
+            SolverFactory<Solution_> solverFactory) {
+        return create(solverFactory, new SolverManagerConfig());
+    }
+
+    /**
+     * @param solverFactory never null, built from a {@link SolverConfig}
+     * @param solverManagerConfig never null
+     * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+     * @param <ProblemId_> the ID type of a submitted problem, such as {@link Long} or {@link java.util.UUID}
+     * @return never null
+     */
+    static <Solution_, ProblemId_> SolverManager<Solution_, ProblemId_> create(
+            SolverFactory<Solution_> solverFactory, SolverManagerConfig solverManagerConfig) {
+        return new DefaultSolverManager<>(solverFactory, solverManagerConfig);
+    }
+
+    // ************************************************************************
+    // Interface methods
+    // ************************************************************************
+
+    /**
+     * Submits a planning problem to solve with the default priority ({@code 0}) and returns immediately.
+     * @param problemId never null, a ID for each planning problem. This must be unique among the problems
+     * that haven't ended solving yet.
+     * @param problem never null, a {@link PlanningSolution} usually with uninitialized planning variables
+     * @return never null
+     * @throws IllegalStateException if the problemId is already submitted and hasn't ended solving yet
+     */
+    default SolverJob<Solution_, ProblemId_> solve(ProblemId_ problemId, Solution_ problem) {
+        return solve(problemId, problem, 0);
+    }
+
+    /**
+     * As defined by {@link #solve(Object, Object)}.
+     * @param problemId never null
+     * @param problem never null
+     * @param priority if the thread budget is used up, problems with a higher priority start solving sooner.
+     * Problems with the same priority start in the order they are submitted.
+     * Doesn't affect problems that are already solving.
+     * @return never null
+     */
+    default SolverJob<Solution_, ProblemId_> solve(ProblemId_ problemId, Solution_ problem, int priority) {
+        return solveAndListen(problemId, problem, priority, null);
+    }
+
+    /**
+     * As defined by {@link #solve(Object, Object)},
+     * but also calls the bestSolutionConsumer for every new best solution
+     * for which all {@link Solver#addProblemFactChange(org.optaplanner.core.impl.solver.ProblemFactChange)
+     * problem fact changes} are processed
+     * (see {@link BestSolutionChangedEvent#isEveryProblemFactChangeProcessed()}).
+     * <p>
+     * The bestSolutionConsumer is called on the solver thread, so it must return quickly:
+     * it delays the solver while it runs.
+     * @param problemId never null
+     * @param problem never null
+     * @param bestSolutionConsumer never null
+     * @return never null
+     */
+    default SolverJob<Solution_, ProblemId_> solveAndListen(ProblemId_ problemId, Solution_ problem,
+            Consumer<? super Solution_> bestSolutionConsumer) {
+        return solveAndListen(problemId, problem, 0, bestSolutionConsumer);
+    }
+
+    /**
+     * As defined by {@link #solveAndListen(Object, Object, Consumer)} and {@link #solve(Object, Object, int)}.
+     * @param problemId never null
+     * @param problem never null
+     * @param priority higher solves sooner
+     * @param bestSolutionConsumer sometimes null
+     * @return never null
+     */
+    SolverJob<Solution_, ProblemId_> solveAndListen(ProblemId_ problemId, Solution_ problem, int priority,
+            Consumer<? super Solution_> bestSolutionConsumer);
+
+    /**
+     * @param problemId never null
+     * @return never null, {@link SolverStatus#NOT_SOLVING} if the problemId is unknown or has ended solving
+     */
+    SolverStatus getSolverStatus(ProblemId_ problemId);
+
+    /**
+     * Terminates the solver or cancels the solver job if it hasn't started yet.
+     * Does nothing if the problemId is unknown or has ended solving.
+     * @param problemId never null
+     * @see SolverJob#terminateEarly()
+     */
+    void terminateEarly(ProblemId_ problemId);
+
+    /**
+     * @return {@code >= 1}, the maximum number of threads that all solver jobs together use
+     */
+    int getThreadBudget();
+
+    /**
+     * Terminates all solvers, cancels all solver jobs that haven't started yet and shuts down the thread pool.
+     * <p>
+     * Every call after the first one is ignored.
+     * Solving a problem after this call throws an {@link IllegalStateException}.
+     */
+    @Override
+    void close();
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.api.solver;
+
+/**
+ * The status of the {@link SolverJob} of a problem submitted to the {@link SolverManager}.
+ */
+public enum SolverStatus {
+    /**
+     * No solver thread is solving the problem yet, because the thread budget of the {@link SolverManager} is used up.
+     * <p>
+     * Jobs with a higher priority leave this state first.
+     */
+    SOLVING_SCHEDULED,
+    /**
+     * A solver thread is solving the problem.
+     */
+    SOLVING_ACTIVE,
+    /**
+     * The problem isn't solving: it is solved, it failed, it was terminated early or it was never submitted.
+     */
+    NOT_SOLVING;
+}
@@ -17,11 +17,13 @@
 package org.optaplanner.core.api.solver.event;
 
 import java.util.EventObject;
+import java.util.function.Supplier;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.score.FeasibilityScore;
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.config.solver.recaller.BestSolutionSnapshotMode;
 import org.optaplanner.core.impl.solver.ProblemFactChange;
 
 /**
@@ -33,7 +35,11 @@ public class BestSolutionChangedEvent<Solution_> extends EventObject {
 
     private final Solver<Solution_> solver;
     private final long timeMillisSpent;
-    private final Solution_ newBestSolution;
+    private final transient Supplier<Solution_> newBestSolutionSupplier;
+    /**
+     * Volatile because {@link #getNewBestSolution()} can create it lazily in a thread other than the solver thread.
+     */
+    private volatile Solution_ newBestSolution;
     private final Score newBestScore;
 
     /**
@@ -46,10 +52,27 @@ public class BestSolutionChangedEvent<Solution_> extends EventObject {
         super(solver);
         this.solver = solver;
         this.timeMillisSpent = timeMillisSpent;
+        this.newBestSolutionSupplier = null;
         this.newBestSolution = newBestSolution;
         this.newBestScore = newBestScore;
     }
 
+    /**
+     * Creates the {@link #getNewBestSolution()} lazily, only if it's requested.
+     * @param solver never null
+     * @param timeMillisSpent {@code >= 0L}
+     * @param newBestSolutionSupplier never null
+     */
+    public BestSolutionChangedEvent(Solver<Solution_> solver, long timeMillisSpent,
+            Supplier<Solution_> newBestSolutionSupplier, Score newBestScore) {
+        super(solver);
+        this.solver = solver;
+        this.timeMillisSpent = timeMillisSpent;
+        this.newBestSolutionSupplier = newBestSolutionSupplier;
+        this.newBestSolution = null;
+        this.newBestScore = newBestScore;
+    }
+
     /**
      * @return {@code >= 0}, the amount of millis spent since the {@link Solver} started
      * until {@link #getNewBestSolution()} was found
@@ -65,11 +88,24 @@ public class BestSolutionChangedEvent<Solution_> extends EventObject {
      *     check {@link #isEveryProblemFactChangeProcessed()}.</li>
      *     <li>this {@link PlanningSolution} might be uninitialized: check {@link Score#isSolutionInitialized()}.</li>
      *     <li>this {@link PlanningSolution} might be infeasible: check {@link FeasibilityScore#isFeasible()}.</li>
+     *     <li>with {@link BestSolutionSnapshotMode#VARIABLE_JOURNAL}, the {@link PlanningSolution} is only
+     *     planning cloned when this method is first called. Call it during
+     *     {@link SolverEventListener#bestSolutionChanged(BestSolutionChangedEvent)}:
+     *     called afterwards or from another thread, it only returns the solution if it's already planning cloned
+     *     and fails fast otherwise. It never waits for the solver thread.</li>
      * </ul>
-     * @return never null
+     * @return never null, always the best solution that this event was fired for
+     * @throws IllegalStateException with {@link BestSolutionSnapshotMode#VARIABLE_JOURNAL},
+     * if the solution isn't planning cloned yet and this isn't called during the event
      */
     public Solution_ getNewBestSolution() {
-        return newBestSolution;
+        Solution_ newBestSolution_ = newBestSolution;
+        if (newBestSolution_ == null) {
+            // Concurrent callers might both call the thread-safe supplier, but it returns the same solution to both
+            newBestSolution_ = newBestSolutionSupplier.get();
+            newBestSolution = newBestSolution_;
+        }
+        return newBestSolution_;
     }
 
     /**
@@ -18,7 +18,6 @@ package org.optaplanner.core.config.constructionheuristic;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ThreadFactory;
 
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 import com.thoughtworks.xstream.annotations.XStreamImplicit;
@@ -34,6 +33,7 @@ import org.optaplanner.core.config.heuristic.selector.move.composite.CartesianPr
 import org.optaplanner.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
 import org.optaplanner.core.config.heuristic.selector.value.ValueSorterManner;
 import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.AdaptiveMoveThreadConfig;
 import org.optaplanner.core.config.solver.EnvironmentMode;
 import org.optaplanner.core.config.util.ConfigUtils;
 import org.optaplanner.core.impl.constructionheuristic.ConstructionHeuristicPhase;
@@ -42,9 +42,12 @@ import org.optaplanner.core.impl.constructionheuristic.decider.ConstructionHeuri
 import org.optaplanner.core.impl.constructionheuristic.decider.MultiThreadedConstructionHeuristicDecider;
 import org.optaplanner.core.impl.constructionheuristic.decider.forager.ConstructionHeuristicForager;
 import org.optaplanner.core.impl.constructionheuristic.placer.EntityPlacer;
+import org.optaplanner.core.impl.heuristic.move.MoveScoreDeltaCache;
+import org.optaplanner.core.impl.score.director.MoveLocalScoreCalculator;
 import org.optaplanner.core.impl.solver.ChildThreadType;
 import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
 import org.optaplanner.core.impl.solver.termination.Termination;
+import org.optaplanner.core.impl.solver.thread.ChildThreadExecutorFactory;
 
 import static org.apache.commons.lang3.ObjectUtils.*;
 
@@ -69,6 +72,9 @@ public class ConstructionHeuristicPhaseConfig extends PhaseConfig<ConstructionHe
     @XStreamAlias("forager")
     protected ConstructionHeuristicForagerConfig foragerConfig = null;
 
+    protected Boolean moveScoreDeltaCacheEnabled = null;
+    protected Integer moveScoreDeltaCacheCapacity = null;
+
     // ************************************************************************
     // Constructors and simple getters/setters
     // ************************************************************************
@@ -121,6 +127,36 @@ public class ConstructionHeuristicPhaseConfig extends PhaseConfig<ConstructionHe
         this.foragerConfig = foragerConfig;
     }
 
+    /**
+     * Lazy cheapest insertion: reuse the score difference of a move evaluated during an earlier step,
+     * unless a step since then touched one of its planning entities or planning values.
+     * Mainly useful for {@link ConstructionHeuristicType#CHEAPEST_INSERTION},
+     * which evaluates mostly the same moves every step.
+     * <p>
+     * Requires a score calculator that implements {@link MoveLocalScoreCalculator}.
+     * @return sometimes null, defaults to false
+     */
+    public Boolean getMoveScoreDeltaCacheEnabled() {
+        return moveScoreDeltaCacheEnabled;
+    }
+
+    public void setMoveScoreDeltaCacheEnabled(Boolean moveScoreDeltaCacheEnabled) {
+        this.moveScoreDeltaCacheEnabled = moveScoreDeltaCacheEnabled;
+    }
+
+    /**
+     * The maximum number of cached move score differences.
+     * When full, the least recently used one is evicted.
+     * @return sometimes null, defaults to {@link MoveScoreDeltaCache#DEFAULT_CAPACITY}
+     */
+    public Integer getMoveScoreDeltaCacheCapacity() {
+        return moveScoreDeltaCacheCapacity;
+    }
+
+    public void setMoveScoreDeltaCacheCapacity(Integer moveScoreDeltaCacheCapacity) {
+        this.moveScoreDeltaCacheCapacity = moveScoreDeltaCacheCapacity;
+    }
+
     // ************************************************************************
     // With methods
     // ************************************************************************
@@ -155,6 +191,16 @@ public class ConstructionHeuristicPhaseConfig extends PhaseConfig<ConstructionHe
         return this;
     }
 
+    public ConstructionHeuristicPhaseConfig withMoveScoreDeltaCacheEnabled(Boolean moveScoreDeltaCacheEnabled) {
+        this.moveScoreDeltaCacheEnabled = moveScoreDeltaCacheEnabled;
+        return this;
+    }
+
+    public ConstructionHeuristicPhaseConfig withMoveScoreDeltaCacheCapacity(Integer moveScoreDeltaCacheCapacity) {
+        this.moveScoreDeltaCacheCapacity = moveScoreDeltaCacheCapacity;
+        return this;
+    }
+
     // ************************************************************************
     // Builder methods
     // ************************************************************************
@@ -228,11 +274,17 @@ public class ConstructionHeuristicPhaseConfig extends PhaseConfig<ConstructionHe
                 // If it's too high, more moves are selected that aren't foraged
                 moveThreadBufferSize = 10;
             }
-            ThreadFactory threadFactory = configPolicy.buildThreadFactory(ChildThreadType.MOVE_THREAD);
+            ChildThreadExecutorFactory childThreadExecutorFactory
+                    = configPolicy.buildChildThreadExecutorFactory(ChildThreadType.MOVE_THREAD);
             int selectedMoveBufferSize = moveThreadCount * moveThreadBufferSize;
             MultiThreadedConstructionHeuristicDecider multiThreadedDecider = new MultiThreadedConstructionHeuristicDecider(
                     configPolicy.getLogIndentation(), termination, forager,
-                    threadFactory, moveThreadCount, selectedMoveBufferSize);
+                    childThreadExecutorFactory, moveThreadCount, selectedMoveBufferSize);
+            AdaptiveMoveThreadConfig adaptiveMoveThreadConfig = configPolicy.getAdaptiveMoveThreadConfig();
+            if (adaptiveMoveThreadConfig != null) {
+                multiThreadedDecider.setMoveThreadController(adaptiveMoveThreadConfig.buildMoveThreadController(
+                        configPolicy.getLogIndentation(), moveThreadCount, moveThreadBufferSize));
+            }
             if (environmentMode.isNonIntrusiveFullAsserted()) {
                 multiThreadedDecider.setAssertStepScoreFromScratch(true);
             }
@@ -242,11 +294,26 @@ public class ConstructionHeuristicPhaseConfig extends PhaseConfig<ConstructionHe
             }
             decider = multiThreadedDecider;
         }
+        if (defaultIfNull(moveScoreDeltaCacheEnabled, false)) {
+            if (moveThreadCount != null) {
+                throw new IllegalArgumentException("The moveScoreDeltaCacheEnabled (" + moveScoreDeltaCacheEnabled
+                        + ") is not supported with a moveThreadCount (" + moveThreadCount + ").");
+            }
+            decider.setMoveScoreDeltaCacheEnabled(true);
+            if (moveScoreDeltaCacheCapacity != null) {
+                if (moveScoreDeltaCacheCapacity < 1) {
+                    throw new IllegalArgumentException("The moveScoreDeltaCacheCapacity ("
+                            + moveScoreDeltaCacheCapacity + ") must be at least 1.");
+                }
+                decider.setMoveScoreDeltaCacheCapacity(moveScoreDeltaCacheCapacity);
+            }
+        }
         if (environmentMode.isNonIntrusiveFullAsserted()) {
             decider.setAssertMoveScoreFromScratch(true);
         }
         if (environmentMode.isIntrusiveFastAsserted()) {
             decider.setAssertExpectedUndoMoveScore(true);
+            decider.setAssertMoveScoreDeltaCacheHits(true);
         }
         return decider;
     }
@@ -309,6 +376,10 @@ public class ConstructionHeuristicPhaseConfig extends PhaseConfig<ConstructionHe
         moveSelectorConfigList = ConfigUtils.inheritMergeableListConfig(
                 moveSelectorConfigList, inheritedConfig.getMoveSelectorConfigList());
         foragerConfig = ConfigUtils.inheritConfig(foragerConfig, inheritedConfig.getForagerConfig());
+        moveScoreDeltaCacheEnabled = ConfigUtils.inheritOverwritableProperty(moveScoreDeltaCacheEnabled,
+                inheritedConfig.getMoveScoreDeltaCacheEnabled());
+        moveScoreDeltaCacheCapacity = ConfigUtils.inheritOverwritableProperty(moveScoreDeltaCacheCapacity,
+                inheritedConfig.getMoveScoreDeltaCacheCapacity());
     }
 
 }
@@ -39,20 +39,31 @@ import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
 import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
 import org.optaplanner.core.impl.exhaustivesearch.DefaultExhaustiveSearchPhase;
 import org.optaplanner.core.impl.exhaustivesearch.ExhaustiveSearchPhase;
+import org.optaplanner.core.impl.exhaustivesearch.MultiThreadedExhaustiveSearchPhase;
 import org.optaplanner.core.impl.exhaustivesearch.decider.ExhaustiveSearchDecider;
+import org.optaplanner.core.impl.exhaustivesearch.node.SymmetryClassFactory;
+import org.optaplanner.core.impl.exhaustivesearch.node.TranspositionTable;
 import org.optaplanner.core.impl.exhaustivesearch.node.bounder.ScoreBounder;
 import org.optaplanner.core.impl.exhaustivesearch.node.bounder.TrendBasedScoreBounder;
 import org.optaplanner.core.impl.heuristic.selector.entity.EntitySelector;
 import org.optaplanner.core.impl.heuristic.selector.entity.mimic.ManualEntityMimicRecorder;
 import org.optaplanner.core.impl.heuristic.selector.move.MoveSelector;
+import org.optaplanner.core.impl.solver.ChildThreadType;
 import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
 import org.optaplanner.core.impl.solver.termination.Termination;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static org.apache.commons.lang3.ObjectUtils.*;
 
 @XStreamAlias("exhaustiveSearch")
 public class ExhaustiveSearchPhaseConfig extends PhaseConfig<ExhaustiveSearchPhaseConfig> {
 
+    public static final String WORKER_THREAD_COUNT_NONE = "NONE";
+    public static final String WORKER_THREAD_COUNT_AUTO = "AUTO";
+
+    private static final Logger logger = LoggerFactory.getLogger(ExhaustiveSearchPhaseConfig.class);
+
     // Warning: all fields are null (and not defaulted) because they can be inherited
     // and also because the input config file should match the output config file
 
@@ -66,6 +77,14 @@ public class ExhaustiveSearchPhaseConfig extends PhaseConfig<ExhaustiveSearchPha
     @XStreamAlias("moveSelector")
     protected MoveSelectorConfig moveSelectorConfig = null;
 
+    protected Integer nodeQueueSizeLimit = null;
+    protected Integer transpositionTableCapacity = null;
+    protected Class<? extends SymmetryClassFactory> entitySymmetryClassFactoryClass = null;
+    protected Class<? extends SymmetryClassFactory> valueSymmetryClassFactoryClass = null;
+
+    protected String workerThreadCount = null;
+    protected Boolean deterministicWorkerThreads = null;
+
     public ExhaustiveSearchType getExhaustiveSearchType() {
         return exhaustiveSearchType;
     }
@@ -114,6 +133,139 @@ public class ExhaustiveSearchPhaseConfig extends PhaseConfig<ExhaustiveSearchPha
         this.moveSelectorConfig = moveSelectorConfig;
     }
 
+    /**
+     * Once this many nodes are waiting to be expanded, new nodes are explored depth-first
+     * (regardless of the {@link NodeExplorationType}) until those are exhausted, to avoid running out of memory.
+     * <p>
+     * Defaults to no limit.
+     * @return sometimes null
+     */
+    public Integer getNodeQueueSizeLimit() {
+        return nodeQueueSizeLimit;
+    }
+
+    public void setNodeQueueSizeLimit(Integer nodeQueueSizeLimit) {
+        this.nodeQueueSizeLimit = nodeQueueSizeLimit;
+    }
+
+    /**
+     * If set, a node that reaches an assignment which is equivalent to the one of an earlier node isn't expanded,
+     * as long as that earlier assignment is one of the last {@code transpositionTableCapacity} remembered assignments.
+     * Assignments are only equivalent if they swap interchangeable entities or values,
+     * so this requires an {@link #getEntitySymmetryClassFactoryClass()}
+     * and/or a {@link #getValueSymmetryClassFactoryClass()}.
+     * <p>
+     * Defaults to no transposition table.
+     * @return sometimes null
+     * @see TranspositionTable
+     */
+    public Integer getTranspositionTableCapacity() {
+        return transpositionTableCapacity;
+    }
+
+    public void setTranspositionTableCapacity(Integer transpositionTableCapacity) {
+        this.transpositionTableCapacity = transpositionTableCapacity;
+    }
+
+    /**
+     * Groups interchangeable entities for the transposition table.
+     * <p>
+     * Defaults to no interchangeable entities.
+     * @return sometimes null
+     * @see SymmetryClassFactory
+     */
+    public Class<? extends SymmetryClassFactory> getEntitySymmetryClassFactoryClass() {
+        return entitySymmetryClassFactoryClass;
+    }
+
+    public void setEntitySymmetryClassFactoryClass(Class<? extends SymmetryClassFactory> entitySymmetryClassFactoryClass) {
+        this.entitySymmetryClassFactoryClass = entitySymmetryClassFactoryClass;
+    }
+
+    /**
+     * Groups interchangeable planning values for the transposition table.
+     * <p>
+     * Defaults to no interchangeable values.
+     * @return sometimes null
+     * @see SymmetryClassFactory
+     */
+    public Class<? extends SymmetryClassFactory> getValueSymmetryClassFactoryClass() {
+        return valueSymmetryClassFactoryClass;
+    }
+
+    public void setValueSymmetryClassFactoryClass(Class<? extends SymmetryClassFactory> valueSymmetryClassFactoryClass) {
+        this.valueSymmetryClassFactoryClass = valueSymmetryClassFactoryClass;
+    }
+
+    /**
+     * The number of worker threads that expand nodes of the search tree in parallel.
+     * Each worker thread has its own child score director, so the solver thread only merges their results.
+     * <p>
+     * Defaults to {@value #WORKER_THREAD_COUNT_NONE}, which expands all nodes on the solver thread.
+     * @return null, a number, {@value #WORKER_THREAD_COUNT_NONE}, {@value #WORKER_THREAD_COUNT_AUTO}
+     * or a JavaScript calculation using {@value org.optaplanner.core.config.util.ConfigUtils#AVAILABLE_PROCESSOR_COUNT}.
+     */
+    public String getWorkerThreadCount() {
+        return workerThreadCount;
+    }
+
+    public void setWorkerThreadCount(String workerThreadCount) {
+        this.workerThreadCount = workerThreadCount;
+    }
+
+    /**
+     * If true, the worker threads expand nodes in rounds and their results are merged in a fixed order,
+     * so the explored tree and the best solution don't depend on thread scheduling.
+     * If false, each worker thread takes the next best node as soon as it's idle
+     * and prunes against the latest best pessimistic bound of all worker threads.
+     * <p>
+     * Defaults to {@link EnvironmentMode#isReproducible()}.
+     * @return sometimes null
+     */
+    public Boolean getDeterministicWorkerThreads() {
+        return deterministicWorkerThreads;
+    }
+
+    public void setDeterministicWorkerThreads(Boolean deterministicWorkerThreads) {
+        this.deterministicWorkerThreads = deterministicWorkerThreads;
+    }
+
+    // ************************************************************************
+    // With methods
+    // ************************************************************************
+
+    public ExhaustiveSearchPhaseConfig withNodeQueueSizeLimit(Integer nodeQueueSizeLimit) {
+        this.nodeQueueSizeLimit = nodeQueueSizeLimit;
+        return this;
+    }
+
+    public ExhaustiveSearchPhaseConfig withTranspositionTableCapacity(Integer transpositionTableCapacity) {
+        this.transpositionTableCapacity = transpositionTableCapacity;
+        return this;
+    }
+
+    public ExhaustiveSearchPhaseConfig withEntitySymmetryClassFactoryClass(
+            Class<? extends SymmetryClassFactory> entitySymmetryClassFactoryClass) {
+        this.entitySymmetryClassFactoryClass = entitySymmetryClassFactoryClass;
+        return this;
+    }
+
+    public ExhaustiveSearchPhaseConfig withValueSymmetryClassFactoryClass(
+            Class<? extends SymmetryClassFactory> valueSymmetryClassFactoryClass) {
+        this.valueSymmetryClassFactoryClass = valueSymmetryClassFactoryClass;
+        return this;
+    }
+
+    public ExhaustiveSearchPhaseConfig withWorkerThreadCount(String workerThreadCount) {
+        this.workerThreadCount = workerThreadCount;
+        return this;
+    }
+
+    public ExhaustiveSearchPhaseConfig withDeterministicWorkerThreads(Boolean deterministicWorkerThreads) {
+        this.deterministicWorkerThreads = deterministicWorkerThreads;
+        return this;
+    }
+
     // ************************************************************************
     // Builder methods
     // ************************************************************************
@@ -130,9 +282,27 @@ public class ExhaustiveSearchPhaseConfig extends PhaseConfig<ExhaustiveSearchPha
                 : exhaustiveSearchType_.getDefaultEntitySorterManner());
         phaseConfigPolicy.setValueSorterManner(valueSorterManner != null ? valueSorterManner
                 : exhaustiveSearchType_.getDefaultValueSorterManner());
-        DefaultExhaustiveSearchPhase phase = new DefaultExhaustiveSearchPhase(
-                phaseIndex, solverConfigPolicy.getLogIndentation(), bestSolutionRecaller,
-                buildPhaseTermination(phaseConfigPolicy, solverTermination));
+        Integer resolvedWorkerThreadCount = resolveWorkerThreadCount();
+        if (transpositionTableCapacity != null && resolvedWorkerThreadCount != null) {
+            throw new IllegalArgumentException("The phaseConfig (" + this
+                    + ") has a transpositionTableCapacity (" + transpositionTableCapacity
+                    + ") and a workerThreadCount (" + workerThreadCount + "), which is not supported.\n"
+                    + "Maybe remove the transpositionTableCapacity or the workerThreadCount.");
+        }
+        DefaultExhaustiveSearchPhase phase;
+        if (resolvedWorkerThreadCount == null) {
+            phase = new DefaultExhaustiveSearchPhase(
+                    phaseIndex, solverConfigPolicy.getLogIndentation(), bestSolutionRecaller,
+                    buildPhaseTermination(phaseConfigPolicy, solverTermination));
+        } else {
+            boolean deterministic = deterministicWorkerThreads != null ? deterministicWorkerThreads
+                    : phaseConfigPolicy.getEnvironmentMode().isReproducible();
+            phase = new MultiThreadedExhaustiveSearchPhase(
+                    phaseIndex, solverConfigPolicy.getLogIndentation(), bestSolutionRecaller,
+                    buildPhaseTermination(phaseConfigPolicy, solverTermination),
+                    phaseConfigPolicy.buildChildThreadExecutorFactory(ChildThreadType.MOVE_THREAD),
+                    resolvedWorkerThreadCount, deterministic);
+        }
         boolean scoreBounderEnabled = exhaustiveSearchType_.isScoreBounderEnabled();
         NodeExplorationType nodeExplorationType_;
         if (exhaustiveSearchType_ == ExhaustiveSearchType.BRUTE_FORCE) {
@@ -147,12 +317,34 @@ public class ExhaustiveSearchPhaseConfig extends PhaseConfig<ExhaustiveSearchPha
             nodeExplorationType_ = defaultIfNull(nodeExplorationType, NodeExplorationType.DEPTH_FIRST);
         }
         phase.setNodeComparator(nodeExplorationType_.buildNodeComparator(scoreBounderEnabled));
+        if (nodeQueueSizeLimit != null) {
+            if (nodeQueueSizeLimit < 1) {
+                throw new IllegalArgumentException("The phaseConfig (" + this
+                        + ") has a nodeQueueSizeLimit (" + nodeQueueSizeLimit + ") which is lower than 1.");
+            }
+            phase.setNodeQueueSizeLimit(nodeQueueSizeLimit);
+        }
         EntitySelectorConfig entitySelectorConfig_ = buildEntitySelectorConfig(phaseConfigPolicy);
         EntitySelector entitySelector = entitySelectorConfig_.buildEntitySelector(phaseConfigPolicy,
                 SelectionCacheType.PHASE, SelectionOrder.ORIGINAL);
         phase.setEntitySelector(entitySelector);
         phase.setDecider(buildDecider(phaseConfigPolicy, entitySelector, bestSolutionRecaller, phase.getTermination(),
                 scoreBounderEnabled));
+        if (phase instanceof MultiThreadedExhaustiveSearchPhase) {
+            List<ExhaustiveSearchDecider> workerDeciderList = new ArrayList<>(resolvedWorkerThreadCount);
+            for (int i = 0; i < resolvedWorkerThreadCount; i++) {
+                // Each worker thread needs its own selectors, so it needs its own entity mimic recorders too
+                HeuristicConfigPolicy workerConfigPolicy = phaseConfigPolicy.createChildThreadConfigPolicy(
+                        ChildThreadType.MOVE_THREAD);
+                workerConfigPolicy.setReinitializeVariableFilterEnabled(true);
+                workerConfigPolicy.setInitializedChainedValueFilterEnabled(true);
+                workerConfigPolicy.setEntitySorterManner(phaseConfigPolicy.getEntitySorterManner());
+                workerConfigPolicy.setValueSorterManner(phaseConfigPolicy.getValueSorterManner());
+                workerDeciderList.add(buildDecider(workerConfigPolicy, entitySelector, bestSolutionRecaller,
+                        phase.getTermination(), scoreBounderEnabled));
+            }
+            ((MultiThreadedExhaustiveSearchPhase) phase).setWorkerDeciderList(workerDeciderList);
+        }
         EnvironmentMode environmentMode = phaseConfigPolicy.getEnvironmentMode();
         if (environmentMode.isNonIntrusiveFullAsserted()) {
             phase.setAssertWorkingSolutionScoreFromScratch(true);
@@ -166,6 +358,39 @@ public class ExhaustiveSearchPhaseConfig extends PhaseConfig<ExhaustiveSearchPha
         return phase;
     }
 
+    /**
+     * @return null if {@link #WORKER_THREAD_COUNT_NONE}, otherwise at least 1
+     */
+    protected Integer resolveWorkerThreadCount() {
+        int availableProcessorCount = Runtime.getRuntime().availableProcessors();
+        Integer resolvedWorkerThreadCount;
+        if (workerThreadCount == null || workerThreadCount.equals(WORKER_THREAD_COUNT_NONE)) {
+            return null;
+        } else if (workerThreadCount.equals(WORKER_THREAD_COUNT_AUTO)) {
+            // Leave one for the Operating System and 1 for the solver thread, take the rest
+            resolvedWorkerThreadCount = (availableProcessorCount - 2);
+            if (resolvedWorkerThreadCount <= 1) {
+                // Fall back to single threaded solving with no worker threads.
+                // To deliberately enforce 1 workerThread, set the workerThreadCount explicitly to 1.
+                return null;
+            }
+        } else {
+            resolvedWorkerThreadCount = ConfigUtils.resolveThreadPoolSizeScript(
+                    "workerThreadCount", workerThreadCount, WORKER_THREAD_COUNT_NONE, WORKER_THREAD_COUNT_AUTO);
+        }
+        if (resolvedWorkerThreadCount < 1) {
+            throw new IllegalArgumentException("The workerThreadCount (" + workerThreadCount
+                    + ") resulted in a resolvedWorkerThreadCount (" + resolvedWorkerThreadCount
+                    + ") that is lower than 1.");
+        }
+        if (resolvedWorkerThreadCount > availableProcessorCount) {
+            logger.warn("The resolvedWorkerThreadCount ({}) is higher "
+                    + "than the availableProcessorCount ({}), which is counter-efficient.",
+                    resolvedWorkerThreadCount, availableProcessorCount);
+        }
+        return resolvedWorkerThreadCount;
+    }
+
     private EntitySelectorConfig buildEntitySelectorConfig(HeuristicConfigPolicy configPolicy) {
         EntitySelectorConfig entitySelectorConfig_;
         if (entitySelectorConfig == null) {
@@ -217,6 +442,35 @@ public class ExhaustiveSearchPhaseConfig extends PhaseConfig<ExhaustiveSearchPha
         ExhaustiveSearchDecider decider = new ExhaustiveSearchDecider(configPolicy.getLogIndentation(),
                 bestSolutionRecaller, termination,
                 manualEntityMimicRecorder, moveSelector, scoreBounderEnabled, scoreBounder);
+        if (transpositionTableCapacity != null) {
+            if (transpositionTableCapacity < 1) {
+                throw new IllegalArgumentException("The phaseConfig (" + this
+                        + ") has a transpositionTableCapacity (" + transpositionTableCapacity
+                        + ") which is lower than 1.");
+            }
+            if (entitySymmetryClassFactoryClass == null && valueSymmetryClassFactoryClass == null) {
+                throw new IllegalArgumentException("The phaseConfig (" + this
+                        + ") has a transpositionTableCapacity (" + transpositionTableCapacity
+                        + ") but no entitySymmetryClassFactoryClass and no valueSymmetryClassFactoryClass.\n"
+                        + "Each layer assigns a fixed entity, so without symmetry"
+                        + " 2 different nodes never reach an equivalent assignment.\n"
+                        + "Maybe configure the interchangeable entities or values, or remove the transpositionTableCapacity.");
+            }
+            decider.setTranspositionTableCapacity(transpositionTableCapacity);
+            if (entitySymmetryClassFactoryClass != null) {
+                decider.setEntitySymmetryClassFactory(ConfigUtils.newInstance(this,
+                        "entitySymmetryClassFactoryClass", entitySymmetryClassFactoryClass));
+            }
+            if (valueSymmetryClassFactoryClass != null) {
+                decider.setValueSymmetryClassFactory(ConfigUtils.newInstance(this,
+                        "valueSymmetryClassFactoryClass", valueSymmetryClassFactoryClass));
+            }
+        } else if (entitySymmetryClassFactoryClass != null || valueSymmetryClassFactoryClass != null) {
+            throw new IllegalArgumentException("The phaseConfig (" + this
+                    + ") has an entitySymmetryClassFactoryClass (" + entitySymmetryClassFactoryClass
+                    + ") or a valueSymmetryClassFactoryClass (" + valueSymmetryClassFactoryClass
+                    + ") but no transpositionTableCapacity.");
+        }
         EnvironmentMode environmentMode = configPolicy.getEnvironmentMode();
         if (environmentMode.isNonIntrusiveFullAsserted()) {
             decider.setAssertMoveScoreFromScratch(true);
@@ -280,6 +534,18 @@ public class ExhaustiveSearchPhaseConfig extends PhaseConfig<ExhaustiveSearchPha
                 inheritedConfig.getValueSorterManner());
         entitySelectorConfig = ConfigUtils.inheritConfig(entitySelectorConfig, inheritedConfig.getEntitySelectorConfig());
         moveSelectorConfig = ConfigUtils.<MoveSelectorConfig>inheritConfig(moveSelectorConfig, inheritedConfig.getMoveSelectorConfig());
+        nodeQueueSizeLimit = ConfigUtils.inheritOverwritableProperty(nodeQueueSizeLimit,
+                inheritedConfig.getNodeQueueSizeLimit());
+        transpositionTableCapacity = ConfigUtils.inheritOverwritableProperty(transpositionTableCapacity,
+                inheritedConfig.getTranspositionTableCapacity());
+        entitySymmetryClassFactoryClass = ConfigUtils.inheritOverwritableProperty(entitySymmetryClassFactoryClass,
+                inheritedConfig.getEntitySymmetryClassFactoryClass());
+        valueSymmetryClassFactoryClass = ConfigUtils.inheritOverwritableProperty(valueSymmetryClassFactoryClass,
+                inheritedConfig.getValueSymmetryClassFactoryClass());
+        workerThreadCount = ConfigUtils.inheritOverwritableProperty(workerThreadCount,
+                inheritedConfig.getWorkerThreadCount());
+        deterministicWorkerThreads = ConfigUtils.inheritOverwritableProperty(deterministicWorkerThreads,
+                inheritedConfig.getDeterministicWorkerThreads());
     }
 
 }
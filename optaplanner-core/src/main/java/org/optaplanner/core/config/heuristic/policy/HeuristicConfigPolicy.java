@@ -18,10 +18,12 @@ package org.optaplanner.core.config.heuristic.policy;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 
 import org.optaplanner.core.config.heuristic.selector.entity.EntitySorterManner;
 import org.optaplanner.core.config.heuristic.selector.value.ValueSorterManner;
+import org.optaplanner.core.config.solver.AdaptiveMoveThreadConfig;
 import org.optaplanner.core.config.solver.EnvironmentMode;
 import org.optaplanner.core.config.util.ConfigUtils;
 import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
@@ -32,7 +34,10 @@ import org.optaplanner.core.impl.heuristic.selector.value.mimic.ValueMimicRecord
 import org.optaplanner.core.impl.score.definition.ScoreDefinition;
 import org.optaplanner.core.impl.score.director.InnerScoreDirectorFactory;
 import org.optaplanner.core.impl.solver.ChildThreadType;
+import org.optaplanner.core.impl.solver.thread.ChildThreadExecutorFactory;
 import org.optaplanner.core.impl.solver.thread.DefaultSolverThreadFactory;
+import org.optaplanner.core.impl.solver.thread.SharedChildThreadExecutorFactory;
+import org.optaplanner.core.impl.solver.thread.ThreadPoolChildThreadExecutorFactory;
 
 public class HeuristicConfigPolicy {
 
@@ -41,8 +46,10 @@ public class HeuristicConfigPolicy {
     private final Integer moveThreadCount;
     private final Integer moveThreadBufferSize;
     private final Class<? extends ThreadFactory> threadFactoryClass;
+    private final ExecutorService sharedExecutor;
     private final InnerScoreDirectorFactory scoreDirectorFactory;
 
+    private AdaptiveMoveThreadConfig adaptiveMoveThreadConfig = null;
     private EntitySorterManner entitySorterManner = EntitySorterManner.NONE;
     private ValueSorterManner valueSorterManner = ValueSorterManner.NONE;
     private boolean reinitializeVariableFilterEnabled = false;
@@ -62,11 +69,24 @@ public class HeuristicConfigPolicy {
     public HeuristicConfigPolicy(EnvironmentMode environmentMode, String logIndentation,
             Integer moveThreadCount, Integer moveThreadBufferSize,
             Class<? extends ThreadFactory> threadFactoryClass, InnerScoreDirectorFactory scoreDirectorFactory) {
+        this(environmentMode, logIndentation, moveThreadCount, moveThreadBufferSize, threadFactoryClass, null,
+                scoreDirectorFactory);
+    }
+
+    /**
+     * @param sharedExecutor sometimes null, if not null the child threads run on it
+     * instead of on a thread pool per phase
+     */
+    public HeuristicConfigPolicy(EnvironmentMode environmentMode, String logIndentation,
+            Integer moveThreadCount, Integer moveThreadBufferSize,
+            Class<? extends ThreadFactory> threadFactoryClass, ExecutorService sharedExecutor,
+            InnerScoreDirectorFactory scoreDirectorFactory) {
         this.environmentMode = environmentMode;
         this.logIndentation = logIndentation;
         this.moveThreadCount = moveThreadCount;
         this.moveThreadBufferSize = moveThreadBufferSize;
         this.threadFactoryClass = threadFactoryClass;
+        this.sharedExecutor = sharedExecutor;
         this.scoreDirectorFactory = scoreDirectorFactory;
     }
 
@@ -90,6 +110,10 @@ public class HeuristicConfigPolicy {
         return moveThreadBufferSize;
     }
 
+    public ExecutorService getSharedExecutor() {
+        return sharedExecutor;
+    }
+
     public SolutionDescriptor getSolutionDescriptor() {
         return scoreDirectorFactory.getSolutionDescriptor();
     }
@@ -102,6 +126,17 @@ public class HeuristicConfigPolicy {
         return scoreDirectorFactory;
     }
 
+    public AdaptiveMoveThreadConfig getAdaptiveMoveThreadConfig() {
+        return adaptiveMoveThreadConfig;
+    }
+
+    /**
+     * @param adaptiveMoveThreadConfig null to keep the moveThreadCount and moveThreadBufferSize fixed
+     */
+    public void setAdaptiveMoveThreadConfig(AdaptiveMoveThreadConfig adaptiveMoveThreadConfig) {
+        this.adaptiveMoveThreadConfig = adaptiveMoveThreadConfig;
+    }
+
     public EntitySorterManner getEntitySorterManner() {
         return entitySorterManner;
     }
@@ -155,15 +190,20 @@ public class HeuristicConfigPolicy {
     // ************************************************************************
 
     public HeuristicConfigPolicy createPhaseConfigPolicy() {
-        return new HeuristicConfigPolicy(environmentMode, logIndentation,
-                moveThreadCount, moveThreadBufferSize, threadFactoryClass,
+        HeuristicConfigPolicy phaseConfigPolicy = new HeuristicConfigPolicy(environmentMode, logIndentation,
+                moveThreadCount, moveThreadBufferSize, threadFactoryClass, sharedExecutor,
                 scoreDirectorFactory);
+        phaseConfigPolicy.setAdaptiveMoveThreadConfig(adaptiveMoveThreadConfig);
+        return phaseConfigPolicy;
     }
 
     public HeuristicConfigPolicy createChildThreadConfigPolicy(ChildThreadType childThreadType) {
-        return new HeuristicConfigPolicy(environmentMode, logIndentation + "        ",
-                moveThreadCount, moveThreadBufferSize, threadFactoryClass,
+        HeuristicConfigPolicy childThreadConfigPolicy = new HeuristicConfigPolicy(environmentMode,
+                logIndentation + "        ",
+                moveThreadCount, moveThreadBufferSize, threadFactoryClass, sharedExecutor,
                 scoreDirectorFactory);
+        childThreadConfigPolicy.setAdaptiveMoveThreadConfig(adaptiveMoveThreadConfig);
+        return childThreadConfigPolicy;
     }
 
     // ************************************************************************
@@ -206,6 +246,9 @@ public class HeuristicConfigPolicy {
                 case PART_THREAD:
                     threadPrefix = "PartThread";
                     break;
+                case NEARBY_DISTANCE_MATRIX_THREAD:
+                    threadPrefix = "NearbyDistanceMatrixThread";
+                    break;
                 default:
                     throw new IllegalStateException("Unsupported childThreadType (" + childThreadType + ").");
             }
@@ -213,6 +256,13 @@ public class HeuristicConfigPolicy {
         }
     }
 
+    public ChildThreadExecutorFactory buildChildThreadExecutorFactory(ChildThreadType childThreadType) {
+        if (sharedExecutor != null) {
+            return new SharedChildThreadExecutorFactory(sharedExecutor);
+        }
+        return new ThreadPoolChildThreadExecutorFactory(buildThreadFactory(childThreadType));
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "(" + environmentMode + ")";
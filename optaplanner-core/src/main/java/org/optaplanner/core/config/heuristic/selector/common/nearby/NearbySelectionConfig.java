@@ -16,6 +16,9 @@
 
 package org.optaplanner.core.config.heuristic.selector.common.nearby;
 
+import java.io.File;
+import java.util.concurrent.ThreadFactory;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 import org.optaplanner.core.config.heuristic.policy.HeuristicConfigPolicy;
 import org.optaplanner.core.config.heuristic.selector.SelectorConfig;
@@ -33,6 +36,7 @@ import org.optaplanner.core.impl.heuristic.selector.entity.EntitySelector;
 import org.optaplanner.core.impl.heuristic.selector.entity.nearby.NearEntityNearbyEntitySelector;
 import org.optaplanner.core.impl.heuristic.selector.value.ValueSelector;
 import org.optaplanner.core.impl.heuristic.selector.value.nearby.NearEntityNearbyValueSelector;
+import org.optaplanner.core.impl.solver.ChildThreadType;
 
 import static org.apache.commons.lang3.ObjectUtils.*;
 
@@ -57,6 +61,9 @@ public class NearbySelectionConfig extends SelectorConfig<NearbySelectionConfig>
     protected Double betaDistributionAlpha = null;
     protected Double betaDistributionBeta = null;
 
+    protected Integer nearbyDistanceMatrixThreadCount = null;
+    protected File nearbyDistanceMatrixCacheDirectory = null;
+
     public EntitySelectorConfig getOriginEntitySelectorConfig() {
         return originEntitySelectorConfig;
     }
@@ -145,6 +152,33 @@ public class NearbySelectionConfig extends SelectorConfig<NearbySelectionConfig>
         this.betaDistributionBeta = betaDistributionBeta;
     }
 
+    /**
+     * The number of threads that calculate the nearby distance matrix before the first step.
+     * If higher than 1, the {@link NearbyDistanceMeter} must be thread-safe.
+     * <p>
+     * Defaults to 1.
+     * @return sometimes null
+     */
+    public Integer getNearbyDistanceMatrixThreadCount() {
+        return nearbyDistanceMatrixThreadCount;
+    }
+
+    public void setNearbyDistanceMatrixThreadCount(Integer nearbyDistanceMatrixThreadCount) {
+        this.nearbyDistanceMatrixThreadCount = nearbyDistanceMatrixThreadCount;
+    }
+
+    public File getNearbyDistanceMatrixCacheDirectory() {
+        return nearbyDistanceMatrixCacheDirectory;
+    }
+
+    public void setNearbyDistanceMatrixCacheDirectory(File nearbyDistanceMatrixCacheDirectory) {
+        this.nearbyDistanceMatrixCacheDirectory = nearbyDistanceMatrixCacheDirectory;
+    }
+
+    // ************************************************************************
+    // Builder methods
+    // ************************************************************************
+
     public void validateNearby(SelectionCacheType resolvedCacheType, SelectionOrder resolvedSelectionOrder) {
         if (originEntitySelectorConfig == null) {
             throw new IllegalArgumentException("The nearbySelectorConfig (" + this
@@ -189,8 +223,11 @@ public class NearbySelectionConfig extends SelectorConfig<NearbySelectionConfig>
                 "nearbyDistanceMeterClass", nearbyDistanceMeterClass);
         // TODO Check nearbyDistanceMeterClass.getGenericInterfaces() to confirm generic type S is an entityClass
         NearbyRandom nearbyRandom = buildNearbyRandom(randomSelection);
+        int distanceMatrixThreadCount = resolveDistanceMatrixThreadCount(configPolicy);
         return new NearEntityNearbyEntitySelector(entitySelector, originEntitySelector,
-                nearbyDistanceMeter, nearbyRandom, randomSelection);
+                nearbyDistanceMeter, nearbyRandom, randomSelection,
+                distanceMatrixThreadCount, buildDistanceMatrixThreadFactory(configPolicy, distanceMatrixThreadCount),
+                nearbyDistanceMatrixCacheDirectory);
     }
 
     public ValueSelector applyNearbyValueSelector(HeuristicConfigPolicy configPolicy,
@@ -203,8 +240,35 @@ public class NearbySelectionConfig extends SelectorConfig<NearbySelectionConfig>
                 "nearbyDistanceMeterClass", nearbyDistanceMeterClass);
         // TODO Check nearbyDistanceMeterClass.getGenericInterfaces() to confirm generic type S is an entityClass
         NearbyRandom nearbyRandom = buildNearbyRandom(randomSelection);
+        int distanceMatrixThreadCount = resolveDistanceMatrixThreadCount(configPolicy);
         return new NearEntityNearbyValueSelector(valueSelector, originEntitySelector,
-                nearbyDistanceMeter, nearbyRandom, randomSelection);
+                nearbyDistanceMeter, nearbyRandom, randomSelection,
+                distanceMatrixThreadCount, buildDistanceMatrixThreadFactory(configPolicy, distanceMatrixThreadCount),
+                nearbyDistanceMatrixCacheDirectory);
+    }
+
+    /**
+     * @param configPolicy never null
+     * @return at least 1
+     */
+    protected int resolveDistanceMatrixThreadCount(HeuristicConfigPolicy configPolicy) {
+        if (nearbyDistanceMatrixThreadCount == null) {
+            return 1;
+        }
+        if (nearbyDistanceMatrixThreadCount < 1) {
+            throw new IllegalArgumentException("The nearbySelectorConfig (" + this
+                    + ") has a nearbyDistanceMatrixThreadCount (" + nearbyDistanceMatrixThreadCount
+                    + ") which is lower than 1.");
+        }
+        return nearbyDistanceMatrixThreadCount;
+    }
+
+    protected ThreadFactory buildDistanceMatrixThreadFactory(HeuristicConfigPolicy configPolicy,
+            int distanceMatrixThreadCount) {
+        if (distanceMatrixThreadCount <= 1) {
+            return null;
+        }
+        return configPolicy.buildThreadFactory(ChildThreadType.NEARBY_DISTANCE_MATRIX_THREAD);
     }
 
     protected NearbyRandom buildNearbyRandom(boolean randomSelection) {
@@ -298,6 +362,10 @@ public class NearbySelectionConfig extends SelectorConfig<NearbySelectionConfig>
                 inheritedConfig.getBetaDistributionAlpha());
         betaDistributionBeta = ConfigUtils.inheritOverwritableProperty(betaDistributionBeta,
                 inheritedConfig.getBetaDistributionBeta());
+        nearbyDistanceMatrixThreadCount = ConfigUtils.inheritOverwritableProperty(nearbyDistanceMatrixThreadCount,
+                inheritedConfig.getNearbyDistanceMatrixThreadCount());
+        nearbyDistanceMatrixCacheDirectory = ConfigUtils.inheritOverwritableProperty(nearbyDistanceMatrixCacheDirectory,
+                inheritedConfig.getNearbyDistanceMatrixCacheDirectory());
     }
 
 }
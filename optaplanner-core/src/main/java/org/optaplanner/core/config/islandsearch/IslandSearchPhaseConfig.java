@@ -0,0 +1,259 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.config.islandsearch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.thoughtworks.xstream.annotations.XStreamAlias;
+import com.thoughtworks.xstream.annotations.XStreamImplicit;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.heuristic.policy.HeuristicConfigPolicy;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.AcceptorConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.AcceptorType;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.islandsearch.DefaultIslandSearchPhase;
+import org.optaplanner.core.impl.islandsearch.IslandSearchPhase;
+import org.optaplanner.core.impl.solver.ChildThreadType;
+import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
+import org.optaplanner.core.impl.solver.termination.Termination;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@XStreamAlias("islandSearch")
+public class IslandSearchPhaseConfig extends PhaseConfig<IslandSearchPhaseConfig> {
+
+    public static final String ISLAND_COUNT_AUTO = "AUTO";
+
+    private static final Logger logger = LoggerFactory.getLogger(IslandSearchPhaseConfig.class);
+
+    // Warning: all fields are null (and not defaulted) because they can be inherited
+    // and also because the input config file should match the output config file
+
+    protected String islandCount = null;
+    protected Integer migrationIntervalStepCount = null;
+
+    @XStreamImplicit(itemFieldName = "islandAcceptor")
+    protected List<AcceptorConfig> islandAcceptorConfigList = null;
+    @XStreamAlias("parallelTempering")
+    protected ParallelTemperingConfig parallelTemperingConfig = null;
+
+    @XStreamImplicit()
+    protected List<PhaseConfig> phaseConfigList = null;
+
+    // ************************************************************************
+    // Constructors and simple getters/setters
+    // ************************************************************************
+
+    /**
+     * The number of islands, each of which solves the whole planning problem on its own {@link Thread}.
+     * <p>
+     * Defaults to {@value #ISLAND_COUNT_AUTO} which consumes the majority
+     * but not all of the CPU cores on multi-core machines, to prevent a livelock that hangs other processes
+     * (such as your IDE, REST servlets threads or SSH connections) on the machine.
+     * @return null, a number, {@value #ISLAND_COUNT_AUTO}
+     * or a JavaScript calculation using {@value org.optaplanner.core.config.util.ConfigUtils#AVAILABLE_PROCESSOR_COUNT}.
+     */
+    public String getIslandCount() {
+        return islandCount;
+    }
+
+    public void setIslandCount(String islandCount) {
+        this.islandCount = islandCount;
+    }
+
+    /**
+     * Every this many steps, an island whose best score is worse than the best score of all islands
+     * continues from that best solution instead.
+     * Ignored with {@link #getParallelTemperingConfig() parallel tempering}.
+     * <p>
+     * Defaults to 1000.
+     * @return sometimes null
+     */
+    public Integer getMigrationIntervalStepCount() {
+        return migrationIntervalStepCount;
+    }
+
+    public void setMigrationIntervalStepCount(Integer migrationIntervalStepCount) {
+        this.migrationIntervalStepCount = migrationIntervalStepCount;
+    }
+
+    /**
+     * Overwrites the acceptor of every {@link LocalSearchPhaseConfig} of an island,
+     * so different islands can use a different acceptor (or the same one with different parameters).
+     * Island {@code i} uses element {@code i % size}.
+     * <p>
+     * Defaults to the acceptor of the phase configs on every island.
+     * @return sometimes null
+     */
+    public List<AcceptorConfig> getIslandAcceptorConfigList() {
+        return islandAcceptorConfigList;
+    }
+
+    public void setIslandAcceptorConfigList(List<AcceptorConfig> islandAcceptorConfigList) {
+        this.islandAcceptorConfigList = islandAcceptorConfigList;
+    }
+
+    /**
+     * Turns the islands into the replicas of parallel tempering:
+     * every {@link LocalSearchPhaseConfig} of an island uses {@link AcceptorType#PARALLEL_TEMPERING}
+     * at the island's own temperature and islands exchange temperatures instead of migrating solutions.
+     * <p>
+     * Defaults to no parallel tempering. Cannot be combined with {@link #getIslandAcceptorConfigList()}.
+     * @return sometimes null
+     */
+    public ParallelTemperingConfig getParallelTemperingConfig() {
+        return parallelTemperingConfig;
+    }
+
+    public void setParallelTemperingConfig(ParallelTemperingConfig parallelTemperingConfig) {
+        this.parallelTemperingConfig = parallelTemperingConfig;
+    }
+
+    public List<PhaseConfig> getPhaseConfigList() {
+        return phaseConfigList;
+    }
+
+    public void setPhaseConfigList(List<PhaseConfig> phaseConfigList) {
+        this.phaseConfigList = phaseConfigList;
+    }
+
+    // ************************************************************************
+    // With methods
+    // ************************************************************************
+
+    public IslandSearchPhaseConfig withIslandCount(String islandCount) {
+        this.islandCount = islandCount;
+        return this;
+    }
+
+    public IslandSearchPhaseConfig withMigrationIntervalStepCount(Integer migrationIntervalStepCount) {
+        this.migrationIntervalStepCount = migrationIntervalStepCount;
+        return this;
+    }
+
+    public IslandSearchPhaseConfig withIslandAcceptorConfigList(List<AcceptorConfig> islandAcceptorConfigList) {
+        this.islandAcceptorConfigList = islandAcceptorConfigList;
+        return this;
+    }
+
+    public IslandSearchPhaseConfig withParallelTemperingConfig(ParallelTemperingConfig parallelTemperingConfig) {
+        this.parallelTemperingConfig = parallelTemperingConfig;
+        return this;
+    }
+
+    public IslandSearchPhaseConfig withPhaseConfigList(List<PhaseConfig> phaseConfigList) {
+        this.phaseConfigList = phaseConfigList;
+        return this;
+    }
+
+    // ************************************************************************
+    // Builder methods
+    // ************************************************************************
+
+    @Override
+    public IslandSearchPhase buildPhase(int phaseIndex, HeuristicConfigPolicy solverConfigPolicy,
+            BestSolutionRecaller bestSolutionRecaller, Termination solverTermination) {
+        HeuristicConfigPolicy phaseConfigPolicy = solverConfigPolicy.createPhaseConfigPolicy();
+        int migrationIntervalStepCount_ = migrationIntervalStepCount == null ? 1000 : migrationIntervalStepCount;
+        if (migrationIntervalStepCount_ < 1) {
+            throw new IllegalArgumentException("The migrationIntervalStepCount (" + migrationIntervalStepCount
+                    + ") cannot be lower than 1.");
+        }
+        int islandCount_ = resolveIslandCount();
+        DefaultIslandSearchPhase phase = new DefaultIslandSearchPhase(
+                phaseIndex, solverConfigPolicy.getLogIndentation(), bestSolutionRecaller,
+                buildPhaseTermination(phaseConfigPolicy, solverTermination),
+                solverConfigPolicy.buildChildThreadExecutorFactory(ChildThreadType.PART_THREAD),
+                islandCount_, migrationIntervalStepCount_);
+        List<PhaseConfig> phaseConfigList_ = phaseConfigList;
+        if (ConfigUtils.isEmptyCollection(phaseConfigList_)) {
+            phaseConfigList_ = Arrays.asList(
+                    new ConstructionHeuristicPhaseConfig(),
+                    new LocalSearchPhaseConfig());
+        }
+        phase.setPhaseConfigList(phaseConfigList_);
+        if (parallelTemperingConfig != null) {
+            if (!ConfigUtils.isEmptyCollection(islandAcceptorConfigList)) {
+                throw new IllegalArgumentException("The islandSearch with a parallelTempering ("
+                        + parallelTemperingConfig + ") cannot also have an islandAcceptorConfigList ("
+                        + islandAcceptorConfigList + ").");
+            }
+            phase.setIslandAcceptorConfigList(Collections.singletonList(new AcceptorConfig()
+                    .withAcceptorTypeList(Collections.singletonList(AcceptorType.PARALLEL_TEMPERING))));
+            phase.setReplicaExchangeLadder(
+                    parallelTemperingConfig.buildReplicaExchangeLadder(phaseConfigPolicy, islandCount_));
+        } else {
+            phase.setIslandAcceptorConfigList(islandAcceptorConfigList);
+        }
+        phase.setConfigPolicy(phaseConfigPolicy.createChildThreadConfigPolicy(ChildThreadType.PART_THREAD));
+        EnvironmentMode environmentMode = phaseConfigPolicy.getEnvironmentMode();
+        if (environmentMode.isNonIntrusiveFullAsserted()) {
+            phase.setAssertStepScoreFromScratch(true);
+        }
+        if (environmentMode.isIntrusiveFastAsserted()) {
+            phase.setAssertExpectedStepScore(true);
+            phase.setAssertShadowVariablesAreNotStaleAfterStep(true);
+        }
+        return phase;
+    }
+
+    /**
+     * @return at least 1
+     */
+    public int resolveIslandCount() {
+        int availableProcessorCount = Runtime.getRuntime().availableProcessors();
+        int resolvedIslandCount;
+        if (islandCount == null || islandCount.equals(ISLAND_COUNT_AUTO)) {
+            // Leave one for the Operating System and 1 for the solver thread, take the rest
+            resolvedIslandCount = Math.max(1, availableProcessorCount - 2);
+        } else {
+            resolvedIslandCount = ConfigUtils.resolveThreadPoolSizeScript(
+                    "islandCount", islandCount, ISLAND_COUNT_AUTO);
+            if (resolvedIslandCount < 1) {
+                throw new IllegalArgumentException("The islandCount (" + islandCount
+                        + ") resulted in a resolvedIslandCount (" + resolvedIslandCount
+                        + ") that is lower than 1.");
+            }
+            if (resolvedIslandCount > availableProcessorCount) {
+                logger.debug("The resolvedIslandCount ({}) is higher than "
+                        + "the availableProcessorCount ({}), so the JVM will "
+                        + "round-robin the CPU instead.", resolvedIslandCount, availableProcessorCount);
+            }
+        }
+        return resolvedIslandCount;
+    }
+
+    @Override
+    public void inherit(IslandSearchPhaseConfig inheritedConfig) {
+        super.inherit(inheritedConfig);
+        islandCount = ConfigUtils.inheritOverwritableProperty(islandCount, inheritedConfig.getIslandCount());
+        migrationIntervalStepCount = ConfigUtils.inheritOverwritableProperty(migrationIntervalStepCount,
+                inheritedConfig.getMigrationIntervalStepCount());
+        islandAcceptorConfigList = ConfigUtils.inheritMergeableListConfig(
+                islandAcceptorConfigList, inheritedConfig.getIslandAcceptorConfigList());
+        parallelTemperingConfig = ConfigUtils.inheritConfig(parallelTemperingConfig,
+                inheritedConfig.getParallelTemperingConfig());
+        phaseConfigList = ConfigUtils.inheritMergeableListConfig(
+                phaseConfigList, inheritedConfig.getPhaseConfigList());
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.config.islandsearch;
+
+import com.thoughtworks.xstream.annotations.XStreamAlias;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.config.AbstractConfig;
+import org.optaplanner.core.config.heuristic.policy.HeuristicConfigPolicy;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.paralleltempering.ReplicaExchangeLadder;
+
+@XStreamAlias("parallelTempering")
+public class ParallelTemperingConfig extends AbstractConfig<ParallelTemperingConfig> {
+
+    // Warning: all fields are null (and not defaulted) because they can be inherited
+    // and also because the input config file should match the output config file
+
+    protected String minimumTemperature = null;
+    protected String maximumTemperature = null;
+    protected Integer exchangeIntervalStepCount = null;
+
+    // ************************************************************************
+    // Constructors and simple getters/setters
+    // ************************************************************************
+
+    /**
+     * The temperature of the coldest island, for example {@code "0hard/2soft"}.
+     * The temperatures of the other islands are geometrically spaced up to the {@link #getMaximumTemperature()}.
+     * Every level must be higher than 0.
+     * @return sometimes null
+     */
+    public String getMinimumTemperature() {
+        return minimumTemperature;
+    }
+
+    public void setMinimumTemperature(String minimumTemperature) {
+        this.minimumTemperature = minimumTemperature;
+    }
+
+    /**
+     * The temperature of the hottest island, for example {@code "0hard/200soft"}.
+     * Defaults to the {@link #getMinimumTemperature()}.
+     * @return sometimes null
+     */
+    public String getMaximumTemperature() {
+        return maximumTemperature;
+    }
+
+    public void setMaximumTemperature(String maximumTemperature) {
+        this.maximumTemperature = maximumTemperature;
+    }
+
+    /**
+     * Every this many steps, an island tries to exchange its temperature with an island at an adjacent temperature.
+     * <p>
+     * Defaults to 100.
+     * @return sometimes null
+     */
+    public Integer getExchangeIntervalStepCount() {
+        return exchangeIntervalStepCount;
+    }
+
+    public void setExchangeIntervalStepCount(Integer exchangeIntervalStepCount) {
+        this.exchangeIntervalStepCount = exchangeIntervalStepCount;
+    }
+
+    // ************************************************************************
+    // With methods
+    // ************************************************************************
+
+    public ParallelTemperingConfig withMinimumTemperature(String minimumTemperature) {
+        this.minimumTemperature = minimumTemperature;
+        return this;
+    }
+
+    public ParallelTemperingConfig withMaximumTemperature(String maximumTemperature) {
+        this.maximumTemperature = maximumTemperature;
+        return this;
+    }
+
+    public ParallelTemperingConfig withExchangeIntervalStepCount(Integer exchangeIntervalStepCount) {
+        this.exchangeIntervalStepCount = exchangeIntervalStepCount;
+        return this;
+    }
+
+    // ************************************************************************
+    // Builder methods
+    // ************************************************************************
+
+    public ReplicaExchangeLadder buildReplicaExchangeLadder(HeuristicConfigPolicy configPolicy, int replicaCount) {
+        if (minimumTemperature == null) {
+            throw new IllegalArgumentException("The parallelTempering requires a minimumTemperature ("
+                    + minimumTemperature + ").");
+        }
+        Score minimumTemperature_ = configPolicy.getScoreDefinition().parseScore(minimumTemperature);
+        Score maximumTemperature_ = maximumTemperature == null ? minimumTemperature_
+                : configPolicy.getScoreDefinition().parseScore(maximumTemperature);
+        int exchangeIntervalStepCount_ = exchangeIntervalStepCount == null ? 100 : exchangeIntervalStepCount;
+        return new ReplicaExchangeLadder(minimumTemperature_, maximumTemperature_, replicaCount,
+                exchangeIntervalStepCount_);
+    }
+
+    @Override
+    public void inherit(ParallelTemperingConfig inheritedConfig) {
+        minimumTemperature = ConfigUtils.inheritOverwritableProperty(minimumTemperature,
+                inheritedConfig.getMinimumTemperature());
+        maximumTemperature = ConfigUtils.inheritOverwritableProperty(maximumTemperature,
+                inheritedConfig.getMaximumTemperature());
+        exchangeIntervalStepCount = ConfigUtils.inheritOverwritableProperty(exchangeIntervalStepCount,
+                inheritedConfig.getExchangeIntervalStepCount());
+    }
+
+}
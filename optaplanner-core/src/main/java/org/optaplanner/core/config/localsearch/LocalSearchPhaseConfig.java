@@ -19,7 +19,6 @@ package org.optaplanner.core.config.localsearch;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ThreadFactory;
 
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 import com.thoughtworks.xstream.annotations.XStreamImplicit;
@@ -36,8 +35,10 @@ import org.optaplanner.core.config.localsearch.decider.acceptor.AcceptorType;
 import org.optaplanner.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
 import org.optaplanner.core.config.localsearch.decider.forager.LocalSearchPickEarlyType;
 import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.AdaptiveMoveThreadConfig;
 import org.optaplanner.core.config.solver.EnvironmentMode;
 import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.heuristic.move.MoveScoreDeltaCache;
 import org.optaplanner.core.impl.heuristic.selector.move.MoveSelector;
 import org.optaplanner.core.impl.localsearch.DefaultLocalSearchPhase;
 import org.optaplanner.core.impl.localsearch.LocalSearchPhase;
@@ -45,9 +46,11 @@ import org.optaplanner.core.impl.localsearch.decider.LocalSearchDecider;
 import org.optaplanner.core.impl.localsearch.decider.MultiThreadedLocalSearchDecider;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.Acceptor;
 import org.optaplanner.core.impl.localsearch.decider.forager.LocalSearchForager;
+import org.optaplanner.core.impl.score.director.MoveLocalScoreCalculator;
 import org.optaplanner.core.impl.solver.ChildThreadType;
 import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
 import org.optaplanner.core.impl.solver.termination.Termination;
+import org.optaplanner.core.impl.solver.thread.ChildThreadExecutorFactory;
 
 import static org.apache.commons.lang3.ObjectUtils.*;
 
@@ -67,6 +70,9 @@ public class LocalSearchPhaseConfig extends PhaseConfig<LocalSearchPhaseConfig>
     @XStreamAlias("forager")
     private LocalSearchForagerConfig foragerConfig = null;
 
+    protected Boolean moveScoreDeltaCacheEnabled = null;
+    protected Integer moveScoreDeltaCacheCapacity = null;
+
     // ************************************************************************
     // Constructors and simple getters/setters
     // ************************************************************************
@@ -103,6 +109,31 @@ public class LocalSearchPhaseConfig extends PhaseConfig<LocalSearchPhaseConfig>
         this.foragerConfig = foragerConfig;
     }
 
+    /**
+     * Requires a score calculator that implements {@link MoveLocalScoreCalculator}.
+     * @return sometimes null, defaults to false
+     */
+    public Boolean getMoveScoreDeltaCacheEnabled() {
+        return moveScoreDeltaCacheEnabled;
+    }
+
+    public void setMoveScoreDeltaCacheEnabled(Boolean moveScoreDeltaCacheEnabled) {
+        this.moveScoreDeltaCacheEnabled = moveScoreDeltaCacheEnabled;
+    }
+
+    /**
+     * The maximum number of cached move score differences.
+     * When full, the least recently used one is evicted.
+     * @return sometimes null, defaults to {@link MoveScoreDeltaCache#DEFAULT_CAPACITY}
+     */
+    public Integer getMoveScoreDeltaCacheCapacity() {
+        return moveScoreDeltaCacheCapacity;
+    }
+
+    public void setMoveScoreDeltaCacheCapacity(Integer moveScoreDeltaCacheCapacity) {
+        this.moveScoreDeltaCacheCapacity = moveScoreDeltaCacheCapacity;
+    }
+
     // ************************************************************************
     // With methods
     // ************************************************************************
@@ -127,6 +158,16 @@ public class LocalSearchPhaseConfig extends PhaseConfig<LocalSearchPhaseConfig>
         return this;
     }
 
+    public LocalSearchPhaseConfig withMoveScoreDeltaCacheEnabled(Boolean moveScoreDeltaCacheEnabled) {
+        this.moveScoreDeltaCacheEnabled = moveScoreDeltaCacheEnabled;
+        return this;
+    }
+
+    public LocalSearchPhaseConfig withMoveScoreDeltaCacheCapacity(Integer moveScoreDeltaCacheCapacity) {
+        this.moveScoreDeltaCacheCapacity = moveScoreDeltaCacheCapacity;
+        return this;
+    }
+
     // ************************************************************************
     // Builder methods
     // ************************************************************************
@@ -176,11 +217,17 @@ public class LocalSearchPhaseConfig extends PhaseConfig<LocalSearchPhaseConfig>
                 // If it's too high, more moves are selected that aren't foraged
                 moveThreadBufferSize = 10;
             }
-            ThreadFactory threadFactory = configPolicy.buildThreadFactory(ChildThreadType.MOVE_THREAD);
+            ChildThreadExecutorFactory childThreadExecutorFactory
+                    = configPolicy.buildChildThreadExecutorFactory(ChildThreadType.MOVE_THREAD);
             int selectedMoveBufferSize = moveThreadCount * moveThreadBufferSize;
             MultiThreadedLocalSearchDecider multiThreadedDecider = new MultiThreadedLocalSearchDecider(
                     configPolicy.getLogIndentation(), termination, moveSelector, acceptor, forager,
-                    threadFactory, moveThreadCount, selectedMoveBufferSize);
+                    childThreadExecutorFactory, moveThreadCount, selectedMoveBufferSize);
+            AdaptiveMoveThreadConfig adaptiveMoveThreadConfig = configPolicy.getAdaptiveMoveThreadConfig();
+            if (adaptiveMoveThreadConfig != null) {
+                multiThreadedDecider.setMoveThreadController(adaptiveMoveThreadConfig.buildMoveThreadController(
+                        configPolicy.getLogIndentation(), moveThreadCount, moveThreadBufferSize));
+            }
             if (environmentMode.isNonIntrusiveFullAsserted()) {
                 multiThreadedDecider.setAssertStepScoreFromScratch(true);
             }
@@ -190,11 +237,26 @@ public class LocalSearchPhaseConfig extends PhaseConfig<LocalSearchPhaseConfig>
             }
             decider = multiThreadedDecider;
         }
+        if (defaultIfNull(moveScoreDeltaCacheEnabled, false)) {
+            if (moveThreadCount != null) {
+                throw new IllegalArgumentException("The moveScoreDeltaCacheEnabled (" + moveScoreDeltaCacheEnabled
+                        + ") is not supported with a moveThreadCount (" + moveThreadCount + ").");
+            }
+            decider.setMoveScoreDeltaCacheEnabled(true);
+            if (moveScoreDeltaCacheCapacity != null) {
+                if (moveScoreDeltaCacheCapacity < 1) {
+                    throw new IllegalArgumentException("The moveScoreDeltaCacheCapacity ("
+                            + moveScoreDeltaCacheCapacity + ") must be at least 1.");
+                }
+                decider.setMoveScoreDeltaCacheCapacity(moveScoreDeltaCacheCapacity);
+            }
+        }
         if (environmentMode.isNonIntrusiveFullAsserted()) {
             decider.setAssertMoveScoreFromScratch(true);
         }
         if (environmentMode.isIntrusiveFastAsserted()) {
             decider.setAssertExpectedUndoMoveScore(true);
+            decider.setAssertMoveScoreDeltaCacheHits(true);
         }
         return decider;
     }
@@ -307,6 +369,10 @@ public class LocalSearchPhaseConfig extends PhaseConfig<LocalSearchPhaseConfig>
                 getMoveSelectorConfig(), inheritedConfig.getMoveSelectorConfig()));
         acceptorConfig = ConfigUtils.inheritConfig(acceptorConfig, inheritedConfig.getAcceptorConfig());
         foragerConfig = ConfigUtils.inheritConfig(foragerConfig, inheritedConfig.getForagerConfig());
+        moveScoreDeltaCacheEnabled = ConfigUtils.inheritOverwritableProperty(moveScoreDeltaCacheEnabled,
+                inheritedConfig.getMoveScoreDeltaCacheEnabled());
+        moveScoreDeltaCacheCapacity = ConfigUtils.inheritOverwritableProperty(moveScoreDeltaCacheCapacity,
+                inheritedConfig.getMoveScoreDeltaCacheCapacity());
     }
 
 }
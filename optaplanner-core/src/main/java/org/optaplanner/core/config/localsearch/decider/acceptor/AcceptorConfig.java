@@ -24,12 +24,14 @@ import com.thoughtworks.xstream.annotations.XStreamImplicit;
 import org.optaplanner.core.config.AbstractConfig;
 import org.optaplanner.core.config.heuristic.policy.HeuristicConfigPolicy;
 import org.optaplanner.core.config.localsearch.decider.acceptor.stepcountinghillclimbing.StepCountingHillClimbingType;
+import org.optaplanner.core.config.localsearch.decider.acceptor.tabu.TabuStoreType;
 import org.optaplanner.core.config.solver.EnvironmentMode;
 import org.optaplanner.core.config.util.ConfigUtils;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.Acceptor;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.CompositeAcceptor;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.hillclimbing.HillClimbingAcceptor;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.lateacceptance.LateAcceptanceAcceptor;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.paralleltempering.ParallelTemperingAcceptor;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.simulatedannealing.SimulatedAnnealingAcceptor;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.stepcountinghillclimbing.StepCountingHillClimbingAcceptor;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.EntityTabuAcceptor;
@@ -66,6 +68,7 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
     protected Integer fadingUndoMoveTabuSize = null;
     protected Integer solutionTabuSize = null;
     protected Integer fadingSolutionTabuSize = null;
+    protected TabuStoreType tabuStoreType = null;
 
     protected String simulatedAnnealingStartingTemperature = null;
 
@@ -204,6 +207,14 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
         this.fadingSolutionTabuSize = fadingSolutionTabuSize;
     }
 
+    public TabuStoreType getTabuStoreType() {
+        return tabuStoreType;
+    }
+
+    public void setTabuStoreType(TabuStoreType tabuStoreType) {
+        this.tabuStoreType = tabuStoreType;
+    }
+
     public String getSimulatedAnnealingStartingTemperature() {
         return simulatedAnnealingStartingTemperature;
     }
@@ -321,6 +332,11 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
         return this;
     }
 
+    public AcceptorConfig withTabuStoreType(TabuStoreType tabuStoreType) {
+        this.tabuStoreType = tabuStoreType;
+        return this;
+    }
+
     public AcceptorConfig withSimulatedAnnealingStartingTemperature(String simulatedAnnealingStartingTemperature) {
         this.simulatedAnnealingStartingTemperature = simulatedAnnealingStartingTemperature;
         return this;
@@ -348,6 +364,7 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
     public Acceptor buildAcceptor(HeuristicConfigPolicy configPolicy) {
         EnvironmentMode environmentMode = configPolicy.getEnvironmentMode();
         List<Acceptor> acceptorList = new ArrayList<>();
+        TabuStoreType tabuStoreType_ = defaultIfNull(tabuStoreType, TabuStoreType.HASH_MAP);
         if (acceptorClassList != null) {
             for (Class<? extends Acceptor> acceptorClass : acceptorClassList) {
                 Acceptor acceptor = ConfigUtils.newInstance(this, "acceptorClass", acceptorClass);
@@ -383,6 +400,7 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
             } else if (fadingEntityTabuRatio != null) {
                 acceptor.setFadingTabuSizeStrategy(new EntityRatioTabuSizeStrategy(fadingEntityTabuRatio));
             }
+            acceptor.setTabuStoreType(tabuStoreType_);
             if (environmentMode.isNonIntrusiveFullAsserted()) {
                 acceptor.setAssertTabuHashCodeCorrectness(true);
             }
@@ -418,6 +436,7 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
             if (fadingValueTabuSize != null) {
                 acceptor.setFadingTabuSizeStrategy(new FixedTabuSizeStrategy(fadingValueTabuSize));
             }
+            acceptor.setTabuStoreType(tabuStoreType_);
             if (environmentMode.isNonIntrusiveFullAsserted()) {
                 acceptor.setAssertTabuHashCodeCorrectness(true);
             }
@@ -433,6 +452,7 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
             if (fadingMoveTabuSize != null) {
                 acceptor.setFadingTabuSizeStrategy(new FixedTabuSizeStrategy(fadingMoveTabuSize));
             }
+            acceptor.setTabuStoreType(tabuStoreType_);
             if (environmentMode.isNonIntrusiveFullAsserted()) {
                 acceptor.setAssertTabuHashCodeCorrectness(true);
             }
@@ -448,6 +468,7 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
             if (fadingUndoMoveTabuSize != null) {
                 acceptor.setFadingTabuSizeStrategy(new FixedTabuSizeStrategy(fadingUndoMoveTabuSize));
             }
+            acceptor.setTabuStoreType(tabuStoreType_);
             if (environmentMode.isNonIntrusiveFullAsserted()) {
                 acceptor.setAssertTabuHashCodeCorrectness(true);
             }
@@ -495,6 +516,10 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
                     stepCountingHillClimbingSize_, stepCountingHillClimbingType_);
             acceptorList.add(acceptor);
         }
+        if (acceptorTypeList != null && acceptorTypeList.contains(AcceptorType.PARALLEL_TEMPERING)) {
+            // The temperature ladder is set by the islandSearch phase
+            acceptorList.add(new ParallelTemperingAcceptor());
+        }
         if (acceptorList.size() == 1) {
             return acceptorList.get(0);
         } else if (acceptorList.size() > 1) {
@@ -546,6 +571,8 @@ public class AcceptorConfig extends AbstractConfig<AcceptorConfig> {
                 inheritedConfig.getSolutionTabuSize());
         fadingSolutionTabuSize = ConfigUtils.inheritOverwritableProperty(fadingSolutionTabuSize,
                 inheritedConfig.getFadingSolutionTabuSize());
+        tabuStoreType = ConfigUtils.inheritOverwritableProperty(tabuStoreType,
+                inheritedConfig.getTabuStoreType());
         simulatedAnnealingStartingTemperature = ConfigUtils.inheritOverwritableProperty(
                 simulatedAnnealingStartingTemperature, inheritedConfig.getSimulatedAnnealingStartingTemperature());
         lateAcceptanceSize = ConfigUtils.inheritOverwritableProperty(lateAcceptanceSize,
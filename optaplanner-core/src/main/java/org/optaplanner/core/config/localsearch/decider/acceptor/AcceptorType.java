@@ -25,5 +25,10 @@ public enum AcceptorType {
     SOLUTION_TABU,
     SIMULATED_ANNEALING,
     LATE_ACCEPTANCE,
-    STEP_COUNTING_HILL_CLIMBING;
+    STEP_COUNTING_HILL_CLIMBING,
+    /**
+     * Only works inside an islandSearch phase with a parallelTempering configuration,
+     * which gives every island its own temperature.
+     */
+    PARALLEL_TEMPERING;
 }
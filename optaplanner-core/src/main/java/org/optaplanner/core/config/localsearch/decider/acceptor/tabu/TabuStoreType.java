@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.config.localsearch.decider.acceptor.tabu;
+
+/**
+ * Determines how entity, value and move tabu search remember which tabus are tabu since which step.
+ */
+public enum TabuStoreType {
+    /**
+     * A {@link java.util.HashMap} with a {@link java.util.Deque} of the tabus in insertion order.
+     * <p>
+     * This is the default.
+     */
+    HASH_MAP,
+    /**
+     * An open addressing hash table with primitive step indexes, combined with a ring buffer to expire tabus,
+     * so it doesn't allocate or box during solving.
+     * <p>
+     * Entity tabus are compared by identity (so their {@link Object#hashCode()} is ignored).
+     * Value and move tabus are compared by {@link Object#equals(Object)},
+     * because planning values such as {@link Integer}s aren't always the same instance.
+     */
+    OPEN_ADDRESSING;
+}
@@ -35,11 +35,14 @@ import org.optaplanner.core.config.util.ConfigUtils;
 import org.optaplanner.core.config.util.KeyAsElementMapConverter;
 import org.optaplanner.core.impl.partitionedsearch.DefaultPartitionedSearchPhase;
 import org.optaplanner.core.impl.partitionedsearch.PartitionedSearchPhase;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.GraphSolutionPartitioner;
 import org.optaplanner.core.impl.partitionedsearch.partitioner.SolutionPartitioner;
 import org.optaplanner.core.impl.score.director.ScoreDirector;
 import org.optaplanner.core.impl.solver.ChildThreadType;
 import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
 import org.optaplanner.core.impl.solver.termination.Termination;
+import org.optaplanner.core.impl.solver.thread.ChildThreadExecutorFactory;
+import org.optaplanner.core.impl.solver.thread.ThreadPoolChildThreadExecutorFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,6 +65,7 @@ public class PartitionedSearchPhaseConfig extends PhaseConfig<PartitionedSearchP
     @Deprecated // TODO remove in 8.0
     protected Class<? extends ThreadFactory> threadFactoryClass = null;
     protected String runnablePartThreadLimit = null;
+    protected Long partMillisecondsSpentLimit = null;
 
     @XStreamImplicit()
     protected List<PhaseConfig> phaseConfigList = null;
@@ -130,6 +134,31 @@ public class PartitionedSearchPhaseConfig extends PhaseConfig<PartitionedSearchP
         this.runnablePartThreadLimit = runnablePartThreadLimit;
     }
 
+    /**
+     * If set, every part is solved at most this long, after which it yields its thread to the next part.
+     * Once every part of the working solution has been solved,
+     * the working solution is split again (see {@link SolutionPartitioner#splitWorkingSolution(ScoreDirector, Integer, int)}),
+     * so planning entities near the old borders of the parts can move between parts.
+     * This repeats until the phase terminates or a round doesn't improve the best score.
+     * If the {@link SolutionPartitioner} doesn't {@link SolutionPartitioner#isRepartitioningSupported() support}
+     * repartitioning, every part is solved only once.
+     * <p>
+     * Instead of a {@link Thread} per part, the parts are then solved on a pool of
+     * {@link #getRunnablePartThreadLimit() runnablePartThreadLimit} threads,
+     * so a thread whose part finishes early continues with another part.
+     * That allows more, smaller parts than threads.
+     * <p>
+     * Defaults to solving every part only once, until the phase terminates.
+     * @return sometimes null
+     */
+    public Long getPartMillisecondsSpentLimit() {
+        return partMillisecondsSpentLimit;
+    }
+
+    public void setPartMillisecondsSpentLimit(Long partMillisecondsSpentLimit) {
+        this.partMillisecondsSpentLimit = partMillisecondsSpentLimit;
+    }
+
     public List<PhaseConfig> getPhaseConfigList() {
         return phaseConfigList;
     }
@@ -146,22 +175,38 @@ public class PartitionedSearchPhaseConfig extends PhaseConfig<PartitionedSearchP
     public PartitionedSearchPhase buildPhase(int phaseIndex, HeuristicConfigPolicy solverConfigPolicy,
             BestSolutionRecaller bestSolutionRecaller, Termination solverTermination) {
         HeuristicConfigPolicy phaseConfigPolicy = solverConfigPolicy.createPhaseConfigPolicy();
-        ThreadFactory threadFactory;
+        ChildThreadExecutorFactory childThreadExecutorFactory;
         if (threadFactoryClass != null) {
-            threadFactory = ConfigUtils.newInstance(this, "threadFactoryClass", threadFactoryClass);
+            ThreadFactory threadFactory = ConfigUtils.newInstance(this, "threadFactoryClass", threadFactoryClass);
+            childThreadExecutorFactory = new ThreadPoolChildThreadExecutorFactory(threadFactory);
         } else {
-            threadFactory = solverConfigPolicy.buildThreadFactory(ChildThreadType.PART_THREAD);
+            childThreadExecutorFactory = solverConfigPolicy.buildChildThreadExecutorFactory(ChildThreadType.PART_THREAD);
         }
+        SolutionPartitioner solutionPartitioner = buildSolutionPartitioner();
         DefaultPartitionedSearchPhase phase = new DefaultPartitionedSearchPhase(
                 phaseIndex, solverConfigPolicy.getLogIndentation(), bestSolutionRecaller,
                 buildPhaseTermination(phaseConfigPolicy, solverTermination),
-                buildSolutionPartitioner(), threadFactory, resolvedActiveThreadCount());
+                solutionPartitioner, childThreadExecutorFactory, resolvedActiveThreadCount());
         List<PhaseConfig> phaseConfigList_ = phaseConfigList;
         if (ConfigUtils.isEmptyCollection(phaseConfigList_)) {
             phaseConfigList_ = Arrays.asList(
                     new ConstructionHeuristicPhaseConfig(),
                     new LocalSearchPhaseConfig());
         }
+        if (partMillisecondsSpentLimit != null) {
+            if (partMillisecondsSpentLimit < 1L) {
+                throw new IllegalArgumentException("The partMillisecondsSpentLimit (" + partMillisecondsSpentLimit
+                        + ") cannot be lower than 1.");
+            }
+            if (!solutionPartitioner.isRepartitioningSupported()) {
+                logger.warn("The partMillisecondsSpentLimit ({}) is set, but the solutionPartitionerClass ({})"
+                        + " doesn't support repartitioning, so every part is solved only once.\n"
+                        + "Maybe override its isRepartitioningSupported() and its splitWorkingSolution()"
+                        + " with a roundIndex parameter.",
+                        partMillisecondsSpentLimit, solutionPartitioner.getClass().getSimpleName());
+            }
+            phase.setPartTimeMillisSpentLimit(partMillisecondsSpentLimit);
+        }
         phase.setPhaseConfigList(phaseConfigList_);
         phase.setConfigPolicy(phaseConfigPolicy.createChildThreadConfigPolicy(ChildThreadType.PART_THREAD));
         EnvironmentMode environmentMode = phaseConfigPolicy.getEnvironmentMode();
@@ -176,24 +221,22 @@ public class PartitionedSearchPhaseConfig extends PhaseConfig<PartitionedSearchP
     }
 
     private SolutionPartitioner buildSolutionPartitioner() {
+        SolutionPartitioner<?> solutionPartitioner;
         if (solutionPartitionerClass != null) {
-            SolutionPartitioner<?> solutionPartitioner = ConfigUtils.newInstance(this,
+            solutionPartitioner = ConfigUtils.newInstance(this,
                     "solutionPartitionerClass", solutionPartitionerClass);
-            ConfigUtils.applyCustomProperties(solutionPartitioner, "solutionPartitionerClass",
-                    solutionPartitionerCustomProperties, "solutionPartitionerCustomProperties");
-            return solutionPartitioner;
         } else {
-            if (solutionPartitionerCustomProperties != null) {
-                throw new IllegalStateException("If there is no solutionPartitionerClass (" + solutionPartitionerClass
-                        + "), then there can be no solutionPartitionerCustomProperties ("
-                        + solutionPartitionerCustomProperties + ") either.");
-            }
-            // TODO Implement generic partitioner
-            throw new UnsupportedOperationException();
+            solutionPartitioner = new GraphSolutionPartitioner<>();
         }
+        ConfigUtils.applyCustomProperties(solutionPartitioner, "solutionPartitionerClass",
+                solutionPartitionerCustomProperties, "solutionPartitionerCustomProperties");
+        return solutionPartitioner;
     }
 
-    private Integer resolvedActiveThreadCount() {
+    /**
+     * @return null if {@link #ACTIVE_THREAD_COUNT_UNLIMITED}, otherwise at least 1
+     */
+    public Integer resolvedActiveThreadCount() {
         int availableProcessorCount = Runtime.getRuntime().availableProcessors();
         Integer resolvedActiveThreadCount;
         if (runnablePartThreadLimit == null || runnablePartThreadLimit.equals(ACTIVE_THREAD_COUNT_AUTO)) {
@@ -229,6 +272,8 @@ public class PartitionedSearchPhaseConfig extends PhaseConfig<PartitionedSearchP
                 inheritedConfig.getThreadFactoryClass());
         runnablePartThreadLimit = ConfigUtils.inheritOverwritableProperty(runnablePartThreadLimit,
                 inheritedConfig.getRunnablePartThreadLimit());
+        partMillisecondsSpentLimit = ConfigUtils.inheritOverwritableProperty(partMillisecondsSpentLimit,
+                inheritedConfig.getPartMillisecondsSpentLimit());
         phaseConfigList = ConfigUtils.inheritMergeableListConfig(
                 phaseConfigList, inheritedConfig.getPhaseConfigList());
     }
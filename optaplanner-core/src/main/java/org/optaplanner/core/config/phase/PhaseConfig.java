@@ -21,6 +21,7 @@ import com.thoughtworks.xstream.annotations.XStreamInclude;
 import org.optaplanner.core.config.AbstractConfig;
 import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
 import org.optaplanner.core.config.exhaustivesearch.ExhaustiveSearchPhaseConfig;
+import org.optaplanner.core.config.islandsearch.IslandSearchPhaseConfig;
 import org.optaplanner.core.config.heuristic.policy.HeuristicConfigPolicy;
 import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
 import org.optaplanner.core.config.partitionedsearch.PartitionedSearchPhaseConfig;
@@ -38,7 +39,8 @@ import org.optaplanner.core.impl.solver.termination.Termination;
         ExhaustiveSearchPhaseConfig.class,
         ConstructionHeuristicPhaseConfig.class,
         LocalSearchPhaseConfig.class,
-        PartitionedSearchPhaseConfig.class
+        PartitionedSearchPhaseConfig.class,
+        IslandSearchPhaseConfig.class
 })
 public abstract class PhaseConfig<C extends PhaseConfig> extends AbstractConfig<C> {
 
@@ -17,15 +17,20 @@
 package org.optaplanner.core.config.score.director;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 import com.thoughtworks.xstream.annotations.XStreamConverter;
 import com.thoughtworks.xstream.annotations.XStreamImplicit;
 import com.thoughtworks.xstream.annotations.XStreamOmitField;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.kie.api.KieBase;
 import org.kie.api.KieBaseConfiguration;
@@ -39,6 +44,8 @@ import org.kie.api.io.KieResources;
 import org.kie.api.runtime.KieContainer;
 import org.kie.internal.builder.conf.PropertySpecificOption;
 import org.optaplanner.core.api.domain.solution.PlanningScore;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.holder.ScoreAccumulator;
 import org.optaplanner.core.api.solver.SolverFactory;
 import org.optaplanner.core.config.AbstractConfig;
 import org.optaplanner.core.config.SolverConfigContext;
@@ -65,6 +72,7 @@ import org.optaplanner.core.impl.score.definition.ScoreDefinition;
 import org.optaplanner.core.impl.score.director.AbstractScoreDirectorFactory;
 import org.optaplanner.core.impl.score.director.InnerScoreDirectorFactory;
 import org.optaplanner.core.impl.score.director.drools.DroolsScoreDirectorFactory;
+import org.optaplanner.core.impl.score.director.drools.KieBaseCache;
 import org.optaplanner.core.impl.score.director.drools.LegacyDroolsScoreDirectorFactory;
 import org.optaplanner.core.impl.score.director.drools.testgen.TestGenDroolsScoreDirectorFactory;
 import org.optaplanner.core.impl.score.director.drools.testgen.TestGenLegacyDroolsScoreDirectorFactory;
@@ -105,9 +113,15 @@ public class ScoreDirectorFactoryConfig extends AbstractConfig<ScoreDirectorFact
     @XStreamConverter(KeyAsElementMapConverter.class)
     protected Map<String, String> kieBaseConfigurationProperties = null;
     protected Boolean generateDroolsTestOnError = null;
+    protected Boolean kieBaseCacheEnabled = null;
+    protected File serializedKieBaseFile = null;
 
     protected String initializingScoreTrend = null;
 
+    protected Boolean segmentedAnchorSupplyEnabled = null;
+
+    protected Boolean scoreAccumulatorEnabled = null;
+
     @XStreamAlias("assertionScoreDirectorFactory")
     protected ScoreDirectorFactoryConfig assertionScoreDirectorFactory = null;
 
@@ -259,6 +273,32 @@ public class ScoreDirectorFactoryConfig extends AbstractConfig<ScoreDirectorFact
         this.kieBaseConfigurationProperties = kieBaseConfigurationProperties;
     }
 
+    public Boolean getKieBaseCacheEnabled() {
+        return kieBaseCacheEnabled;
+    }
+
+    /**
+     * @param kieBaseCacheEnabled sometimes null, true to share the {@link KieBase} compiled from the score DRLs
+     * with every other {@link SolverFactory} in the JVM that uses the same DRL content
+     * @see KieBaseCache
+     */
+    public void setKieBaseCacheEnabled(Boolean kieBaseCacheEnabled) {
+        this.kieBaseCacheEnabled = kieBaseCacheEnabled;
+    }
+
+    public File getSerializedKieBaseFile() {
+        return serializedKieBaseFile;
+    }
+
+    /**
+     * @param serializedKieBaseFile sometimes null, a file to read the {@link KieBase} from instead of compiling
+     * the score DRLs. If it doesn't exist or was built from different DRL content, the score DRLs are compiled
+     * and the file is (over)written.
+     */
+    public void setSerializedKieBaseFile(File serializedKieBaseFile) {
+        this.serializedKieBaseFile = serializedKieBaseFile;
+    }
+
     public String getInitializingScoreTrend() {
         return initializingScoreTrend;
     }
@@ -275,6 +315,31 @@ public class ScoreDirectorFactoryConfig extends AbstractConfig<ScoreDirectorFact
         this.assertionScoreDirectorFactory = assertionScoreDirectorFactory;
     }
 
+    public Boolean getSegmentedAnchorSupplyEnabled() {
+        return segmentedAnchorSupplyEnabled;
+    }
+
+    /**
+     * @param segmentedAnchorSupplyEnabled sometimes null, true to find the anchor of a chained entity
+     * without an anchor shadow variable in O(log n) instead of updating every trailing entity of its chain
+     */
+    public void setSegmentedAnchorSupplyEnabled(Boolean segmentedAnchorSupplyEnabled) {
+        this.segmentedAnchorSupplyEnabled = segmentedAnchorSupplyEnabled;
+    }
+
+    public Boolean getScoreAccumulatorEnabled() {
+        return scoreAccumulatorEnabled;
+    }
+
+    /**
+     * @param scoreAccumulatorEnabled sometimes null, true to let Local Search compare the score of each move
+     * through the {@link ScoreAccumulator} of the score calculation, without creating a {@link Score} instance
+     * @see ScoreAccumulator
+     */
+    public void setScoreAccumulatorEnabled(Boolean scoreAccumulatorEnabled) {
+        this.scoreAccumulatorEnabled = scoreAccumulatorEnabled;
+    }
+
     public Boolean isGenerateDroolsTestOnError() {
         return generateDroolsTestOnError;
     }
@@ -327,11 +392,31 @@ public class ScoreDirectorFactoryConfig extends AbstractConfig<ScoreDirectorFact
         return this;
     }
 
+    public ScoreDirectorFactoryConfig withKieBaseCacheEnabled(Boolean kieBaseCacheEnabled) {
+        this.kieBaseCacheEnabled = kieBaseCacheEnabled;
+        return this;
+    }
+
+    public ScoreDirectorFactoryConfig withSerializedKieBaseFile(File serializedKieBaseFile) {
+        this.serializedKieBaseFile = serializedKieBaseFile;
+        return this;
+    }
+
     public ScoreDirectorFactoryConfig withInitializingScoreTrend(String initializingScoreTrend) {
         this.initializingScoreTrend = initializingScoreTrend;
         return this;
     }
 
+    public ScoreDirectorFactoryConfig withSegmentedAnchorSupplyEnabled(Boolean segmentedAnchorSupplyEnabled) {
+        this.segmentedAnchorSupplyEnabled = segmentedAnchorSupplyEnabled;
+        return this;
+    }
+
+    public ScoreDirectorFactoryConfig withScoreAccumulatorEnabled(Boolean scoreAccumulatorEnabled) {
+        this.scoreAccumulatorEnabled = scoreAccumulatorEnabled;
+        return this;
+    }
+
     public ScoreDirectorFactoryConfig withAssertionScoreDirectorFactory(ScoreDirectorFactoryConfig assertionScoreDirectorFactory) {
         this.assertionScoreDirectorFactory = assertionScoreDirectorFactory;
         return this;
@@ -463,8 +548,11 @@ public class ScoreDirectorFactoryConfig extends AbstractConfig<ScoreDirectorFact
         scoreDirectorFactory.setInitializingScoreTrend(InitializingScoreTrend.parseTrend(
                 initializingScoreTrend == null ? InitializingScoreTrendLevel.ANY.name() : initializingScoreTrend,
                 solutionDescriptor.getScoreDefinition().getLevelsSize()));
+        scoreDirectorFactory.setSegmentedAnchorSupplyEnabled(BooleanUtils.isTrue(segmentedAnchorSupplyEnabled));
+        scoreDirectorFactory.setScoreAccumulatorEnabled(BooleanUtils.isTrue(scoreAccumulatorEnabled));
         if (environmentMode.isNonIntrusiveFullAsserted()) {
             scoreDirectorFactory.setAssertClonedSolution(true);
+            scoreDirectorFactory.setAssertSegmentedAnchorSupply(true);
         }
         return scoreDirectorFactory;
     }
@@ -537,6 +625,11 @@ public class ScoreDirectorFactoryConfig extends AbstractConfig<ScoreDirectorFact
                         + ") is not null, then the kieBaseConfigurationProperties ("
                         + kieBaseConfigurationProperties + ") must be null.");
             }
+            if (kieBaseCacheEnabled != null || serializedKieBaseFile != null) {
+                throw new IllegalArgumentException("If kieContainer or ksessionName (" + ksessionName
+                        + ") is not null, then the kieBaseCacheEnabled (" + kieBaseCacheEnabled
+                        + ") and the serializedKieBaseFile (" + serializedKieBaseFile + ") must be null.");
+            }
             if (BooleanUtils.isTrue(generateDroolsTestOnError)) {
                 return new TestGenDroolsScoreDirectorFactory<>(solutionDescriptor, kieContainer, ksessionName);
             } else {
@@ -551,72 +644,18 @@ public class ScoreDirectorFactoryConfig extends AbstractConfig<ScoreDirectorFact
                 throw new IllegalArgumentException("If kieBase is not null, then the kieBaseConfigurationProperties ("
                         + kieBaseConfigurationProperties + ") must be null.");
             }
+            if (kieBaseCacheEnabled != null || serializedKieBaseFile != null) {
+                throw new IllegalArgumentException("If kieBase is not null, then the kieBaseCacheEnabled ("
+                        + kieBaseCacheEnabled + ") and the serializedKieBaseFile ("
+                        + serializedKieBaseFile + ") must be null.");
+            }
             if (BooleanUtils.isTrue(generateDroolsTestOnError)) {
                 return new TestGenLegacyDroolsScoreDirectorFactory<>(solutionDescriptor, kieBase, null, null);
             } else {
                 return new LegacyDroolsScoreDirectorFactory<>(solutionDescriptor, kieBase);
             }
         } else if (!ConfigUtils.isEmptyCollection(scoreDrlList) || !ConfigUtils.isEmptyCollection(scoreDrlFileList)) {
-            KieServices kieServices = KieServices.Factory.get();
-            KieResources kieResources = kieServices.getResources();
-            KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
-            if (!ConfigUtils.isEmptyCollection(scoreDrlList)) {
-                ClassLoader actualClassLoader = configContext.determineActualClassLoader();
-                for (String scoreDrl : scoreDrlList) {
-                    if (scoreDrl == null) {
-                        throw new IllegalArgumentException("The scoreDrl (" + scoreDrl + ") cannot be null.");
-                    }
-                    URL scoreDrlURL = actualClassLoader.getResource(scoreDrl);
-                    if (scoreDrlURL == null) {
-                        String errorMessage = "The scoreDrl (" + scoreDrl + ") does not exist as a classpath resource"
-                                + " in the classLoader (" + actualClassLoader + ").";
-                        if (scoreDrl.startsWith("/")) {
-                            errorMessage += "\nAs from 6.1, a classpath resource should not start with a slash (/)."
-                                    + " A scoreDrl now adheres to ClassLoader.getResource(String)."
-                                    + " Remove the leading slash from the scoreDrl if you're upgrading from 6.0.";
-                        }
-                        throw new IllegalArgumentException(errorMessage);
-                    }
-                    kieFileSystem.write(kieResources.newClassPathResource(scoreDrl, "UTF-8", actualClassLoader));
-                }
-            }
-            if (!ConfigUtils.isEmptyCollection(scoreDrlFileList)) {
-                for (File scoreDrlFile : scoreDrlFileList) {
-                    if (scoreDrlFile == null) {
-                        throw new IllegalArgumentException("The scoreDrlFile (" + scoreDrlFile + ") cannot be null.");
-                    }
-                    if (!scoreDrlFile.exists()) {
-                        throw new IllegalArgumentException("The scoreDrlFile (" + scoreDrlFile
-                                + ") does not exist.");
-                    }
-                    kieFileSystem.write(kieResources.newFileSystemResource(scoreDrlFile, "UTF-8"));
-                }
-            }
-
-            // Can be overwritten by kieBaseConfigurationProperties
-            KieModuleModel kmodel = kieServices.newKieModuleModel()
-                    .setConfigurationProperty(PropertySpecificOption.PROPERTY_NAME,
-                            PropertySpecificOption.ALLOWED.toString());
-            kieFileSystem.writeKModuleXML(kmodel.toXML());
-
-            KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
-            kieBuilder.buildAll();
-            Results results = kieBuilder.getResults();
-            if (results.hasMessages(Message.Level.ERROR)) {
-                throw new IllegalStateException("There are errors in a score DRL:\n"
-                        + results.toString());
-            } else if (results.hasMessages(Message.Level.WARNING)) {
-                logger.warn("There are warning in a score DRL:\n{}", results);
-            }
-            kieContainer = kieServices.newKieContainer(kieBuilder.getKieModule().getReleaseId());
-
-            KieBaseConfiguration kieBaseConfiguration = kieServices.newKieBaseConfiguration();
-            if (kieBaseConfigurationProperties != null) {
-                for (Map.Entry<String, String> entry : kieBaseConfigurationProperties.entrySet()) {
-                    kieBaseConfiguration.setProperty(entry.getKey(), entry.getValue());
-                }
-            }
-            KieBase kieBase = kieContainer.newKieBase(kieBaseConfiguration);
+            KieBase kieBase = buildScoreDrlKieBase(configContext, solutionDescriptor);
             if (BooleanUtils.isTrue(generateDroolsTestOnError)) {
                 return new TestGenLegacyDroolsScoreDirectorFactory<>(solutionDescriptor, kieBase, scoreDrlList, scoreDrlFileList);
             } else {
@@ -629,10 +668,153 @@ public class ScoreDirectorFactoryConfig extends AbstractConfig<ScoreDirectorFact
                         + ") is not null, the scoreDrlList (" + scoreDrlList
                         + ") and the scoreDrlFileList (" + scoreDrlFileList + ") must not be empty.");
             }
+            if (kieBaseCacheEnabled != null || serializedKieBaseFile != null) {
+                throw new IllegalArgumentException("If kieBaseCacheEnabled (" + kieBaseCacheEnabled
+                        + ") or serializedKieBaseFile (" + serializedKieBaseFile
+                        + ") is not null, the scoreDrlList (" + scoreDrlList
+                        + ") and the scoreDrlFileList (" + scoreDrlFileList + ") must not be empty.");
+            }
             return null;
         }
     }
 
+    protected KieBase buildScoreDrlKieBase(SolverConfigContext configContext,
+            SolutionDescriptor<?> solutionDescriptor) {
+        ClassLoader actualClassLoader = configContext.determineActualClassLoader();
+        List<URL> scoreDrlUrlList = resolveScoreDrlUrlList(actualClassLoader);
+        boolean kieBaseCacheEnabled_ = BooleanUtils.isTrue(kieBaseCacheEnabled);
+        if (!kieBaseCacheEnabled_ && serializedKieBaseFile == null) {
+            return compileScoreDrlKieBase(actualClassLoader);
+        }
+        // Hashing the DRL content is cheap compared to compiling it
+        List<byte[]> drlContentList = new ArrayList<>(scoreDrlUrlList.size());
+        for (URL scoreDrlUrl : scoreDrlUrlList) {
+            try {
+                drlContentList.add(IOUtils.toByteArray(scoreDrlUrl));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("The score DRL (" + scoreDrlUrl + ") could not be read.", e);
+            }
+        }
+        String contentHash = KieBaseCache.hashContent(drlContentList, kieBaseConfigurationProperties,
+                KieBaseCache.extractDomainClassSet(solutionDescriptor));
+        Supplier<KieBase> kieBaseBuilder = serializedKieBaseFile == null
+                ? () -> compileScoreDrlKieBase(actualClassLoader)
+                : () -> readOrCompileSerializedKieBase(actualClassLoader, contentHash);
+        if (kieBaseCacheEnabled_) {
+            return KieBaseCache.getInstance().computeIfAbsent(actualClassLoader, contentHash, kieBaseBuilder);
+        }
+        return kieBaseBuilder.get();
+    }
+
+    /**
+     * Validates every scoreDrl and scoreDrlFile.
+     * @param actualClassLoader never null
+     * @return never null, the URL of every scoreDrl followed by the URL of every scoreDrlFile
+     */
+    protected List<URL> resolveScoreDrlUrlList(ClassLoader actualClassLoader) {
+        List<URL> scoreDrlUrlList = new ArrayList<>();
+        if (!ConfigUtils.isEmptyCollection(scoreDrlList)) {
+            for (String scoreDrl : scoreDrlList) {
+                if (scoreDrl == null) {
+                    throw new IllegalArgumentException("The scoreDrl (" + scoreDrl + ") cannot be null.");
+                }
+                URL scoreDrlURL = actualClassLoader.getResource(scoreDrl);
+                if (scoreDrlURL == null) {
+                    String errorMessage = "The scoreDrl (" + scoreDrl + ") does not exist as a classpath resource"
+                            + " in the classLoader (" + actualClassLoader + ").";
+                    if (scoreDrl.startsWith("/")) {
+                        errorMessage += "\nAs from 6.1, a classpath resource should not start with a slash (/)."
+                                + " A scoreDrl now adheres to ClassLoader.getResource(String)."
+                                + " Remove the leading slash from the scoreDrl if you're upgrading from 6.0.";
+                    }
+                    throw new IllegalArgumentException(errorMessage);
+                }
+                scoreDrlUrlList.add(scoreDrlURL);
+            }
+        }
+        if (!ConfigUtils.isEmptyCollection(scoreDrlFileList)) {
+            for (File scoreDrlFile : scoreDrlFileList) {
+                if (scoreDrlFile == null) {
+                    throw new IllegalArgumentException("The scoreDrlFile (" + scoreDrlFile + ") cannot be null.");
+                }
+                if (!scoreDrlFile.exists()) {
+                    throw new IllegalArgumentException("The scoreDrlFile (" + scoreDrlFile
+                            + ") does not exist.");
+                }
+                try {
+                    scoreDrlUrlList.add(scoreDrlFile.toURI().toURL());
+                } catch (MalformedURLException e) {
+                    throw new IllegalArgumentException("The scoreDrlFile (" + scoreDrlFile
+                            + ") cannot be converted to a URL.", e);
+                }
+            }
+        }
+        return scoreDrlUrlList;
+    }
+
+    protected KieBase compileScoreDrlKieBase(ClassLoader actualClassLoader) {
+        KieServices kieServices = KieServices.Factory.get();
+        KieResources kieResources = kieServices.getResources();
+        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        if (!ConfigUtils.isEmptyCollection(scoreDrlList)) {
+            for (String scoreDrl : scoreDrlList) {
+                kieFileSystem.write(kieResources.newClassPathResource(scoreDrl, "UTF-8", actualClassLoader));
+            }
+        }
+        if (!ConfigUtils.isEmptyCollection(scoreDrlFileList)) {
+            for (File scoreDrlFile : scoreDrlFileList) {
+                kieFileSystem.write(kieResources.newFileSystemResource(scoreDrlFile, "UTF-8"));
+            }
+        }
+
+        // Can be overwritten by kieBaseConfigurationProperties
+        KieModuleModel kmodel = kieServices.newKieModuleModel()
+                .setConfigurationProperty(PropertySpecificOption.PROPERTY_NAME,
+                        PropertySpecificOption.ALLOWED.toString());
+        kieFileSystem.writeKModuleXML(kmodel.toXML());
+
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
+        kieBuilder.buildAll();
+        Results results = kieBuilder.getResults();
+        if (results.hasMessages(Message.Level.ERROR)) {
+            throw new IllegalStateException("There are errors in a score DRL:\n"
+                    + results.toString());
+        } else if (results.hasMessages(Message.Level.WARNING)) {
+            logger.warn("There are warning in a score DRL:\n{}", results);
+        }
+        KieContainer kieContainer = kieServices.newKieContainer(kieBuilder.getKieModule().getReleaseId());
+
+        KieBaseConfiguration kieBaseConfiguration = kieServices.newKieBaseConfiguration();
+        if (kieBaseConfigurationProperties != null) {
+            for (Map.Entry<String, String> entry : kieBaseConfigurationProperties.entrySet()) {
+                kieBaseConfiguration.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+        return kieContainer.newKieBase(kieBaseConfiguration);
+    }
+
+    protected KieBase readOrCompileSerializedKieBase(ClassLoader actualClassLoader, String contentHash) {
+        try {
+            KieBase kieBase = KieBaseCache.readSerializedKieBase(serializedKieBaseFile, contentHash, actualClassLoader);
+            if (kieBase != null) {
+                logger.debug("Read the serializedKieBaseFile ({}) instead of compiling the score DRLs.",
+                        serializedKieBaseFile);
+                return kieBase;
+            }
+        } catch (IOException e) {
+            logger.warn("The serializedKieBaseFile ({}) could not be read, so the score DRLs are compiled instead.",
+                    serializedKieBaseFile, e);
+        }
+        KieBase kieBase = compileScoreDrlKieBase(actualClassLoader);
+        try {
+            KieBaseCache.writeSerializedKieBase(kieBase, contentHash, serializedKieBaseFile);
+            logger.info("Wrote the serializedKieBaseFile ({}) for the score DRLs.", serializedKieBaseFile);
+        } catch (IOException e) {
+            logger.warn("The serializedKieBaseFile ({}) could not be written.", serializedKieBaseFile, e);
+        }
+        return kieBase;
+    }
+
     @Override
     public void inherit(ScoreDirectorFactoryConfig inheritedConfig) {
         if (scoreDefinitionClass == null && scoreDefinitionType == null
@@ -662,11 +844,19 @@ public class ScoreDirectorFactoryConfig extends AbstractConfig<ScoreDirectorFact
                 kieBaseConfigurationProperties, inheritedConfig.getKieBaseConfigurationProperties());
         initializingScoreTrend = ConfigUtils.inheritOverwritableProperty(
                 initializingScoreTrend, inheritedConfig.getInitializingScoreTrend());
+        segmentedAnchorSupplyEnabled = ConfigUtils.inheritOverwritableProperty(
+                segmentedAnchorSupplyEnabled, inheritedConfig.getSegmentedAnchorSupplyEnabled());
+        scoreAccumulatorEnabled = ConfigUtils.inheritOverwritableProperty(
+                scoreAccumulatorEnabled, inheritedConfig.getScoreAccumulatorEnabled());
 
         assertionScoreDirectorFactory = ConfigUtils.inheritOverwritableProperty(
                 assertionScoreDirectorFactory, inheritedConfig.getAssertionScoreDirectorFactory());
         generateDroolsTestOnError = ConfigUtils.inheritOverwritableProperty(
                 generateDroolsTestOnError, inheritedConfig.isGenerateDroolsTestOnError());
+        kieBaseCacheEnabled = ConfigUtils.inheritOverwritableProperty(
+                kieBaseCacheEnabled, inheritedConfig.getKieBaseCacheEnabled());
+        serializedKieBaseFile = ConfigUtils.inheritOverwritableProperty(
+                serializedKieBaseFile, inheritedConfig.getSerializedKieBaseFile());
     }
 
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.config.solver;
+
+import com.thoughtworks.xstream.annotations.XStreamAlias;
+import org.optaplanner.core.config.AbstractConfig;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.heuristic.thread.MoveThreadController;
+
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
+/**
+ * Configures the runtime adaptation of the number of active move threads and the move thread buffer size
+ * of multithreaded Construction Heuristics and Local Search, within the configured bounds.
+ * The moveThreadCount is the maximum number of active move threads.
+ * <p>
+ * Adapting the move thread buffer size changes which moves are selected, so the solver is no longer reproducible.
+ * Therefore it requires an {@link EnvironmentMode} that isn't {@link EnvironmentMode#isReproducible() reproducible},
+ * such as {@link EnvironmentMode#NON_REPRODUCIBLE}.
+ * @see MoveThreadController
+ */
+@XStreamAlias("adaptiveMoveThreads")
+public class AdaptiveMoveThreadConfig extends AbstractConfig<AdaptiveMoveThreadConfig> {
+
+    protected Integer minimumMoveThreadCount = null;
+    protected Integer minimumMoveThreadBufferSize = null;
+    protected Integer maximumMoveThreadBufferSize = null;
+    protected Integer windowStepCount = null;
+
+    public Integer getMinimumMoveThreadCount() {
+        return minimumMoveThreadCount;
+    }
+
+    public void setMinimumMoveThreadCount(Integer minimumMoveThreadCount) {
+        this.minimumMoveThreadCount = minimumMoveThreadCount;
+    }
+
+    public Integer getMinimumMoveThreadBufferSize() {
+        return minimumMoveThreadBufferSize;
+    }
+
+    public void setMinimumMoveThreadBufferSize(Integer minimumMoveThreadBufferSize) {
+        this.minimumMoveThreadBufferSize = minimumMoveThreadBufferSize;
+    }
+
+    public Integer getMaximumMoveThreadBufferSize() {
+        return maximumMoveThreadBufferSize;
+    }
+
+    public void setMaximumMoveThreadBufferSize(Integer maximumMoveThreadBufferSize) {
+        this.maximumMoveThreadBufferSize = maximumMoveThreadBufferSize;
+    }
+
+    public Integer getWindowStepCount() {
+        return windowStepCount;
+    }
+
+    public void setWindowStepCount(Integer windowStepCount) {
+        this.windowStepCount = windowStepCount;
+    }
+
+    // ************************************************************************
+    // With methods
+    // ************************************************************************
+
+    public AdaptiveMoveThreadConfig withMinimumMoveThreadCount(Integer minimumMoveThreadCount) {
+        this.minimumMoveThreadCount = minimumMoveThreadCount;
+        return this;
+    }
+
+    public AdaptiveMoveThreadConfig withMinimumMoveThreadBufferSize(Integer minimumMoveThreadBufferSize) {
+        this.minimumMoveThreadBufferSize = minimumMoveThreadBufferSize;
+        return this;
+    }
+
+    public AdaptiveMoveThreadConfig withMaximumMoveThreadBufferSize(Integer maximumMoveThreadBufferSize) {
+        this.maximumMoveThreadBufferSize = maximumMoveThreadBufferSize;
+        return this;
+    }
+
+    public AdaptiveMoveThreadConfig withWindowStepCount(Integer windowStepCount) {
+        this.windowStepCount = windowStepCount;
+        return this;
+    }
+
+    // ************************************************************************
+    // Builder methods
+    // ************************************************************************
+
+    /**
+     * @param logIndentation never null
+     * @param moveThreadCount at least 1, the maximum number of active move threads
+     * @param moveThreadBufferSize at least 1, the starting move thread buffer size
+     * @return never null
+     */
+    public MoveThreadController buildMoveThreadController(String logIndentation,
+            int moveThreadCount, int moveThreadBufferSize) {
+        int minimumMoveThreadCount_ = defaultIfNull(minimumMoveThreadCount, 1);
+        int minimumMoveThreadBufferSize_ = defaultIfNull(minimumMoveThreadBufferSize, 1);
+        int maximumMoveThreadBufferSize_ = defaultIfNull(maximumMoveThreadBufferSize, moveThreadBufferSize * 4);
+        int windowStepCount_ = defaultIfNull(windowStepCount, 10);
+        int startingMoveThreadBufferSize = Math.max(minimumMoveThreadBufferSize_,
+                Math.min(maximumMoveThreadBufferSize_, moveThreadBufferSize));
+        return new MoveThreadController(logIndentation, minimumMoveThreadCount_, moveThreadCount,
+                minimumMoveThreadBufferSize_, maximumMoveThreadBufferSize_, startingMoveThreadBufferSize,
+                windowStepCount_);
+    }
+
+    @Override
+    public void inherit(AdaptiveMoveThreadConfig inheritedConfig) {
+        minimumMoveThreadCount = ConfigUtils.inheritOverwritableProperty(minimumMoveThreadCount,
+                inheritedConfig.getMinimumMoveThreadCount());
+        minimumMoveThreadBufferSize = ConfigUtils.inheritOverwritableProperty(minimumMoveThreadBufferSize,
+                inheritedConfig.getMinimumMoveThreadBufferSize());
+        maximumMoveThreadBufferSize = ConfigUtils.inheritOverwritableProperty(maximumMoveThreadBufferSize,
+                inheritedConfig.getMaximumMoveThreadBufferSize());
+        windowStepCount = ConfigUtils.inheritOverwritableProperty(windowStepCount,
+                inheritedConfig.getWindowStepCount());
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.config.solver;
+
+import com.thoughtworks.xstream.annotations.XStreamAlias;
+import org.optaplanner.core.config.AbstractConfig;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.solver.MergeableProblemFactChange;
+import org.optaplanner.core.impl.solver.ProblemFactChange;
+import org.optaplanner.core.impl.solver.termination.BasicPlumbingTermination;
+
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
+/**
+ * Configures how {@link ProblemFactChange}s are batched during real-time planning.
+ * If configured, the solver restarts at most once per minimumIntervalMillis (unless the maximumBatchSize is reached)
+ * and calculates the score only once per batch instead of once per change.
+ * Consecutive {@link MergeableProblemFactChange}s are merged regardless.
+ */
+@XStreamAlias("problemFactChangeBatch")
+public class ProblemFactChangeBatchConfig extends AbstractConfig<ProblemFactChangeBatchConfig> {
+
+    protected Long minimumIntervalMillis = null;
+    protected Integer maximumBatchSize = null;
+
+    public Long getMinimumIntervalMillis() {
+        return minimumIntervalMillis;
+    }
+
+    public void setMinimumIntervalMillis(Long minimumIntervalMillis) {
+        this.minimumIntervalMillis = minimumIntervalMillis;
+    }
+
+    public Integer getMaximumBatchSize() {
+        return maximumBatchSize;
+    }
+
+    public void setMaximumBatchSize(Integer maximumBatchSize) {
+        this.maximumBatchSize = maximumBatchSize;
+    }
+
+    // ************************************************************************
+    // With methods
+    // ************************************************************************
+
+    public ProblemFactChangeBatchConfig withMinimumIntervalMillis(Long minimumIntervalMillis) {
+        this.minimumIntervalMillis = minimumIntervalMillis;
+        return this;
+    }
+
+    public ProblemFactChangeBatchConfig withMaximumBatchSize(Integer maximumBatchSize) {
+        this.maximumBatchSize = maximumBatchSize;
+        return this;
+    }
+
+    // ************************************************************************
+    // Builder methods
+    // ************************************************************************
+
+    public BasicPlumbingTermination buildBasicPlumbingTermination(boolean daemon) {
+        long minimumIntervalMillis_ = defaultIfNull(minimumIntervalMillis, 0L);
+        if (minimumIntervalMillis_ < 0L) {
+            throw new IllegalArgumentException("The minimumIntervalMillis (" + minimumIntervalMillis
+                    + ") cannot be negative.");
+        }
+        int maximumBatchSize_ = defaultIfNull(maximumBatchSize, Integer.MAX_VALUE);
+        if (maximumBatchSize_ < 1) {
+            throw new IllegalArgumentException("The maximumBatchSize (" + maximumBatchSize
+                    + ") cannot be negative or zero.");
+        }
+        return new BasicPlumbingTermination(daemon, minimumIntervalMillis_, maximumBatchSize_);
+    }
+
+    @Override
+    public void inherit(ProblemFactChangeBatchConfig inheritedConfig) {
+        minimumIntervalMillis = ConfigUtils.inheritOverwritableProperty(minimumIntervalMillis,
+                inheritedConfig.getMinimumIntervalMillis());
+        maximumBatchSize = ConfigUtils.inheritOverwritableProperty(maximumBatchSize,
+                inheritedConfig.getMaximumBatchSize());
+    }
+
+}
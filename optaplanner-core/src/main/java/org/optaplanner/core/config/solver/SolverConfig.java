@@ -19,6 +19,7 @@ package org.optaplanner.core.config.solver;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 
 import com.thoughtworks.xstream.annotations.XStreamAlias;
@@ -29,11 +30,14 @@ import org.optaplanner.core.config.SolverConfigContext;
 import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
 import org.optaplanner.core.config.domain.ScanAnnotatedClassesConfig;
 import org.optaplanner.core.config.heuristic.policy.HeuristicConfigPolicy;
+import org.optaplanner.core.config.islandsearch.IslandSearchPhaseConfig;
 import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.partitionedsearch.PartitionedSearchPhaseConfig;
 import org.optaplanner.core.config.phase.PhaseConfig;
 import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
 import org.optaplanner.core.config.solver.random.RandomType;
 import org.optaplanner.core.config.solver.recaller.BestSolutionRecallerConfig;
+import org.optaplanner.core.config.solver.recaller.BestSolutionSnapshotMode;
 import org.optaplanner.core.config.solver.termination.TerminationConfig;
 import org.optaplanner.core.config.util.ConfigUtils;
 import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
@@ -72,6 +76,11 @@ public class SolverConfig extends AbstractConfig<SolverConfig> {
     protected String moveThreadCount = null;
     protected Integer moveThreadBufferSize = null;
     protected Class<? extends ThreadFactory> threadFactoryClass = null;
+    protected BestSolutionSnapshotMode bestSolutionSnapshotMode = null;
+    @XStreamAlias("adaptiveMoveThreads")
+    protected AdaptiveMoveThreadConfig adaptiveMoveThreadConfig = null;
+    @XStreamAlias("problemFactChangeBatch")
+    protected ProblemFactChangeBatchConfig problemFactChangeBatchConfig = null;
 
     @XStreamAlias("scanAnnotatedClasses")
     protected ScanAnnotatedClassesConfig scanAnnotatedClassesConfig = null;
@@ -166,6 +175,30 @@ public class SolverConfig extends AbstractConfig<SolverConfig> {
         this.threadFactoryClass = threadFactoryClass;
     }
 
+    public BestSolutionSnapshotMode getBestSolutionSnapshotMode() {
+        return bestSolutionSnapshotMode;
+    }
+
+    public void setBestSolutionSnapshotMode(BestSolutionSnapshotMode bestSolutionSnapshotMode) {
+        this.bestSolutionSnapshotMode = bestSolutionSnapshotMode;
+    }
+
+    public AdaptiveMoveThreadConfig getAdaptiveMoveThreadConfig() {
+        return adaptiveMoveThreadConfig;
+    }
+
+    public void setAdaptiveMoveThreadConfig(AdaptiveMoveThreadConfig adaptiveMoveThreadConfig) {
+        this.adaptiveMoveThreadConfig = adaptiveMoveThreadConfig;
+    }
+
+    public ProblemFactChangeBatchConfig getProblemFactChangeBatchConfig() {
+        return problemFactChangeBatchConfig;
+    }
+
+    public void setProblemFactChangeBatchConfig(ProblemFactChangeBatchConfig problemFactChangeBatchConfig) {
+        this.problemFactChangeBatchConfig = problemFactChangeBatchConfig;
+    }
+
     public ScanAnnotatedClassesConfig getScanAnnotatedClassesConfig() {
         return scanAnnotatedClassesConfig;
     }
@@ -258,6 +291,21 @@ public class SolverConfig extends AbstractConfig<SolverConfig> {
         return this;
     }
 
+    public SolverConfig withBestSolutionSnapshotMode(BestSolutionSnapshotMode bestSolutionSnapshotMode) {
+        this.bestSolutionSnapshotMode = bestSolutionSnapshotMode;
+        return this;
+    }
+
+    public SolverConfig withAdaptiveMoveThreadConfig(AdaptiveMoveThreadConfig adaptiveMoveThreadConfig) {
+        this.adaptiveMoveThreadConfig = adaptiveMoveThreadConfig;
+        return this;
+    }
+
+    public SolverConfig withProblemFactChangeBatchConfig(ProblemFactChangeBatchConfig problemFactChangeBatchConfig) {
+        this.problemFactChangeBatchConfig = problemFactChangeBatchConfig;
+        return this;
+    }
+
     public SolverConfig withSolutionClass(Class<?> solutionClass) {
         this.solutionClass = solutionClass;
         return this;
@@ -304,6 +352,37 @@ public class SolverConfig extends AbstractConfig<SolverConfig> {
         return defaultIfNull(environmentMode, EnvironmentMode.REPRODUCIBLE);
     }
 
+    /**
+     * Counts the solver thread, the move threads and the runnable part threads or island threads
+     * (with their move threads).
+     * Part threads that wait for a {@link PartitionedSearchPhaseConfig#getRunnablePartThreadLimit() runnable slot}
+     * don't count.
+     * @return at least 1, {@link Integer#MAX_VALUE} if the runnablePartThreadLimit is unlimited
+     */
+    public int determineRunnableThreadCount() {
+        Integer moveThreadCount_ = resolveMoveThreadCount();
+        int solverThreadCount = 1 + (moveThreadCount_ == null ? 0 : moveThreadCount_);
+        int runnableThreadCount = solverThreadCount;
+        if (phaseConfigList != null) {
+            for (PhaseConfig phaseConfig : phaseConfigList) {
+                if (phaseConfig instanceof PartitionedSearchPhaseConfig) {
+                    Integer runnablePartThreadLimit_
+                            = ((PartitionedSearchPhaseConfig) phaseConfig).resolvedActiveThreadCount();
+                    if (runnablePartThreadLimit_ == null) {
+                        return Integer.MAX_VALUE;
+                    }
+                    // The parent solver thread only waits while its part threads are solving
+                    runnableThreadCount = Math.max(runnableThreadCount,
+                            1 + runnablePartThreadLimit_ * solverThreadCount);
+                } else if (phaseConfig instanceof IslandSearchPhaseConfig) {
+                    int islandCount_ = ((IslandSearchPhaseConfig) phaseConfig).resolveIslandCount();
+                    runnableThreadCount = Math.max(runnableThreadCount, 1 + islandCount_ * solverThreadCount);
+                }
+            }
+        }
+        return runnableThreadCount;
+    }
+
     // ************************************************************************
     // Builder methods
     // ************************************************************************
@@ -321,12 +400,31 @@ public class SolverConfig extends AbstractConfig<SolverConfig> {
      * @return never null
      */
     public <Solution_> Solver<Solution_> buildSolver(SolverConfigContext configContext) {
+        return buildSolver(configContext, null);
+    }
+
+    /**
+     * @param configContext never null
+     * @param sharedExecutor sometimes null, if not null the move threads and part threads run on it,
+     * instead of on thread pools that are created for every phase
+     * @return never null
+     */
+    public <Solution_> Solver<Solution_> buildSolver(SolverConfigContext configContext,
+            ExecutorService sharedExecutor) {
         configContext.validate();
         EnvironmentMode environmentMode_ = determineEnvironmentMode();
         boolean daemon_ = defaultIfNull(daemon, false);
 
         RandomFactory randomFactory = buildRandomFactory(environmentMode_);
         Integer moveThreadCount_ = resolveMoveThreadCount();
+        if (adaptiveMoveThreadConfig != null && moveThreadCount_ != null && environmentMode_.isReproducible()) {
+            throw new IllegalArgumentException("The adaptiveMoveThreadConfig (" + adaptiveMoveThreadConfig
+                    + ") with moveThreadCount (" + moveThreadCount_
+                    + ") cannot be combined with the environmentMode (" + environmentMode_
+                    + ") because adapting the moveThreadBufferSize makes the solver non-reproducible.\n"
+                    + "Maybe use the environmentMode (" + EnvironmentMode.NON_REPRODUCIBLE
+                    + ") or remove the adaptiveMoveThreads element.");
+        }
         SolutionDescriptor<Solution_> solutionDescriptor = buildSolutionDescriptor(configContext);
         ScoreDirectorFactoryConfig scoreDirectorFactoryConfig_
                 = scoreDirectorFactoryConfig == null ? new ScoreDirectorFactoryConfig()
@@ -337,14 +435,19 @@ public class SolverConfig extends AbstractConfig<SolverConfig> {
         DefaultSolverScope<Solution_> solverScope = new DefaultSolverScope<>();
         solverScope.setScoreDirector(scoreDirectorFactory.buildScoreDirector(true, constraintMatchEnabledPreference));
 
-        BestSolutionRecaller<Solution_> bestSolutionRecaller = new BestSolutionRecallerConfig()
+        BestSolutionRecallerConfig bestSolutionRecallerConfig = new BestSolutionRecallerConfig();
+        bestSolutionRecallerConfig.setBestSolutionSnapshotMode(bestSolutionSnapshotMode);
+        BestSolutionRecaller<Solution_> bestSolutionRecaller = bestSolutionRecallerConfig
                 .buildBestSolutionRecaller(environmentMode_);
-        HeuristicConfigPolicy configPolicy = new HeuristicConfigPolicy(environmentMode_,
-                moveThreadCount_, moveThreadBufferSize, threadFactoryClass,
+        HeuristicConfigPolicy configPolicy = new HeuristicConfigPolicy(environmentMode_, "",
+                moveThreadCount_, moveThreadBufferSize, threadFactoryClass, sharedExecutor,
                 scoreDirectorFactory);
+        configPolicy.setAdaptiveMoveThreadConfig(adaptiveMoveThreadConfig);
         TerminationConfig terminationConfig_ = terminationConfig == null ? new TerminationConfig()
                 : terminationConfig;
-        BasicPlumbingTermination basicPlumbingTermination = new BasicPlumbingTermination(daemon_);
+        BasicPlumbingTermination basicPlumbingTermination = problemFactChangeBatchConfig == null
+                ? new BasicPlumbingTermination(daemon_)
+                : problemFactChangeBatchConfig.buildBasicPlumbingTermination(daemon_);
         Termination termination = terminationConfig_.buildTermination(configPolicy, basicPlumbingTermination);
         List<Phase<Solution_>> phaseList = buildPhaseList(configPolicy, bestSolutionRecaller, termination);
         return new DefaultSolver<>(environmentMode_, randomFactory,
@@ -465,6 +568,12 @@ public class SolverConfig extends AbstractConfig<SolverConfig> {
                 inheritedConfig.getMoveThreadBufferSize());
         threadFactoryClass = ConfigUtils.inheritOverwritableProperty(threadFactoryClass,
                 inheritedConfig.getThreadFactoryClass());
+        bestSolutionSnapshotMode = ConfigUtils.inheritOverwritableProperty(bestSolutionSnapshotMode,
+                inheritedConfig.getBestSolutionSnapshotMode());
+        adaptiveMoveThreadConfig = ConfigUtils.inheritConfig(adaptiveMoveThreadConfig,
+                inheritedConfig.getAdaptiveMoveThreadConfig());
+        problemFactChangeBatchConfig = ConfigUtils.inheritConfig(problemFactChangeBatchConfig,
+                inheritedConfig.getProblemFactChangeBatchConfig());
         scanAnnotatedClassesConfig = ConfigUtils.inheritConfig(scanAnnotatedClassesConfig, inheritedConfig.getScanAnnotatedClassesConfig());
         solutionClass = ConfigUtils.inheritOverwritableProperty(solutionClass, inheritedConfig.getSolutionClass());
         entityClassList = ConfigUtils.inheritMergeableListProperty(
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.config.solver;
+
+import java.util.concurrent.ThreadFactory;
+
+import com.thoughtworks.xstream.annotations.XStreamAlias;
+import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.config.AbstractConfig;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Configures a {@link SolverManager}.
+ */
+@XStreamAlias("solverManager")
+public class SolverManagerConfig extends AbstractConfig<SolverManagerConfig> {
+
+    public static final String THREAD_BUDGET_AUTO = "AUTO";
+
+    private static final Logger logger = LoggerFactory.getLogger(SolverManagerConfig.class);
+
+    /**
+     * The maximum number of threads that all solver jobs together use,
+     * counting the solver threads, move threads and part threads.
+     */
+    protected String threadBudget = null;
+    protected Class<? extends ThreadFactory> threadFactoryClass = null;
+
+    public String getThreadBudget() {
+        return threadBudget;
+    }
+
+    public void setThreadBudget(String threadBudget) {
+        this.threadBudget = threadBudget;
+    }
+
+    public Class<? extends ThreadFactory> getThreadFactoryClass() {
+        return threadFactoryClass;
+    }
+
+    public void setThreadFactoryClass(Class<? extends ThreadFactory> threadFactoryClass) {
+        this.threadFactoryClass = threadFactoryClass;
+    }
+
+    // ************************************************************************
+    // With methods
+    // ************************************************************************
+
+    public SolverManagerConfig withThreadBudget(String threadBudget) {
+        this.threadBudget = threadBudget;
+        return this;
+    }
+
+    public SolverManagerConfig withThreadFactoryClass(Class<? extends ThreadFactory> threadFactoryClass) {
+        this.threadFactoryClass = threadFactoryClass;
+        return this;
+    }
+
+    // ************************************************************************
+    // Builder methods
+    // ************************************************************************
+
+    /**
+     * @return at least 1
+     */
+    public int resolveThreadBudget() {
+        int availableProcessorCount = getAvailableProcessors();
+        int resolvedThreadBudget;
+        if (threadBudget == null || threadBudget.equals(THREAD_BUDGET_AUTO)) {
+            // Leave one for the Operating System, take the rest
+            resolvedThreadBudget = Math.max(1, availableProcessorCount - 1);
+        } else {
+            resolvedThreadBudget = ConfigUtils.resolveThreadPoolSizeScript(
+                    "threadBudget", threadBudget, THREAD_BUDGET_AUTO);
+        }
+        if (resolvedThreadBudget < 1) {
+            throw new IllegalArgumentException("The threadBudget (" + threadBudget
+                    + ") resulted in a resolvedThreadBudget (" + resolvedThreadBudget
+                    + ") that is lower than 1.");
+        }
+        if (resolvedThreadBudget > availableProcessorCount) {
+            logger.warn("The resolvedThreadBudget ({}) is higher "
+                    + "than the availableProcessorCount ({}), which is counter-efficient.",
+                    resolvedThreadBudget, availableProcessorCount);
+        }
+        return resolvedThreadBudget;
+    }
+
+    protected int getAvailableProcessors() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void inherit(SolverManagerConfig inheritedConfig) {
+        threadBudget = ConfigUtils.inheritOverwritableProperty(threadBudget,
+                inheritedConfig.getThreadBudget());
+        threadFactoryClass = ConfigUtils.inheritOverwritableProperty(threadFactoryClass,
+                inheritedConfig.getThreadFactoryClass());
+    }
+
+}
@@ -18,11 +18,25 @@ package org.optaplanner.core.config.solver.recaller;
 
 import org.optaplanner.core.config.AbstractConfig;
 import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.solver.recaller.BestSolutionJournal;
 import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
 
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
 // Currently not yet supported as being nested, so no XStreamAlias
 public class BestSolutionRecallerConfig extends AbstractConfig<BestSolutionRecallerConfig> {
 
+    protected BestSolutionSnapshotMode bestSolutionSnapshotMode = null;
+
+    public BestSolutionSnapshotMode getBestSolutionSnapshotMode() {
+        return bestSolutionSnapshotMode;
+    }
+
+    public void setBestSolutionSnapshotMode(BestSolutionSnapshotMode bestSolutionSnapshotMode) {
+        this.bestSolutionSnapshotMode = bestSolutionSnapshotMode;
+    }
+
     // ************************************************************************
     // Builder methods
     // ************************************************************************
@@ -34,11 +48,25 @@ public class BestSolutionRecallerConfig extends AbstractConfig<BestSolutionRecal
             bestSolutionRecaller.setAssertShadowVariablesAreNotStale(true);
             bestSolutionRecaller.setAssertBestScoreIsUnmodified(true);
         }
+        BestSolutionSnapshotMode bestSolutionSnapshotMode_ = defaultIfNull(bestSolutionSnapshotMode,
+                BestSolutionSnapshotMode.FULL_CLONE);
+        switch (bestSolutionSnapshotMode_) {
+            case FULL_CLONE:
+                break;
+            case VARIABLE_JOURNAL:
+                bestSolutionRecaller.setBestSolutionJournal(new BestSolutionJournal<>());
+                break;
+            default:
+                throw new IllegalStateException("The bestSolutionSnapshotMode (" + bestSolutionSnapshotMode_
+                        + ") is not implemented.");
+        }
         return bestSolutionRecaller;
     }
 
     @Override
     public void inherit(BestSolutionRecallerConfig inheritedConfig) {
+        bestSolutionSnapshotMode = ConfigUtils.inheritOverwritableProperty(bestSolutionSnapshotMode,
+                inheritedConfig.getBestSolutionSnapshotMode());
     }
 
 }
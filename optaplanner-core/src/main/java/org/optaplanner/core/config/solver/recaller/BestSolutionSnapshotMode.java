@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.config.solver.recaller;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+
+/**
+ * Determines how the {@link Solver} remembers the {@link PlanningSolution best solution}
+ * each time it improves during solving.
+ */
+public enum BestSolutionSnapshotMode {
+    /**
+     * Planning clone the working solution for every new best solution.
+     * <p>
+     * This is the default.
+     */
+    FULL_CLONE,
+    /**
+     * Only record the genuine planning variable values that changed since the previous best solution.
+     * The planning clone is created lazily, when {@link Solver#getBestSolution()}
+     * or {@link BestSolutionChangedEvent#getNewBestSolution()} is called, at the end of a phase
+     * or when the solver ends.
+     * <p>
+     * Useful if the best solution improves very frequently on a large dataset.
+     * In that case, {@link Solver#getBestSolution()} called from another thread during solving
+     * waits until the solver thread finishes its current step.
+     * {@link BestSolutionChangedEvent#getNewBestSolution()} never waits:
+     * call it during the event, because afterwards it fails fast if the solution hasn't been planning cloned.
+     */
+    VARIABLE_JOURNAL;
+}
@@ -16,13 +16,17 @@
 
 package org.optaplanner.core.impl.constructionheuristic.decider;
 
+import java.util.function.Consumer;
+
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.impl.constructionheuristic.decider.forager.ConstructionHeuristicForager;
 import org.optaplanner.core.impl.constructionheuristic.placer.Placement;
 import org.optaplanner.core.impl.constructionheuristic.scope.ConstructionHeuristicMoveScope;
 import org.optaplanner.core.impl.constructionheuristic.scope.ConstructionHeuristicPhaseScope;
 import org.optaplanner.core.impl.constructionheuristic.scope.ConstructionHeuristicStepScope;
 import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.move.MoveScoreDeltaCache;
 import org.optaplanner.core.impl.score.director.InnerScoreDirector;
 import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
 import org.optaplanner.core.impl.solver.termination.Termination;
@@ -40,8 +44,13 @@ public class ConstructionHeuristicDecider<Solution_> {
     protected final Termination termination;
     protected final ConstructionHeuristicForager forager;
 
+    protected boolean moveScoreDeltaCacheEnabled = false;
+    protected int moveScoreDeltaCacheCapacity = MoveScoreDeltaCache.DEFAULT_CAPACITY;
+    protected MoveScoreDeltaCache<Solution_> moveScoreDeltaCache = null;
+
     protected boolean assertMoveScoreFromScratch = false;
     protected boolean assertExpectedUndoMoveScore = false;
+    protected boolean assertMoveScoreDeltaCacheHits = false;
 
     public ConstructionHeuristicDecider(String logIndentation,
             Termination termination, ConstructionHeuristicForager forager) {
@@ -54,6 +63,14 @@ public class ConstructionHeuristicDecider<Solution_> {
         return forager;
     }
 
+    public void setMoveScoreDeltaCacheEnabled(boolean moveScoreDeltaCacheEnabled) {
+        this.moveScoreDeltaCacheEnabled = moveScoreDeltaCacheEnabled;
+    }
+
+    public void setMoveScoreDeltaCacheCapacity(int moveScoreDeltaCacheCapacity) {
+        this.moveScoreDeltaCacheCapacity = moveScoreDeltaCacheCapacity;
+    }
+
     public void setAssertMoveScoreFromScratch(boolean assertMoveScoreFromScratch) {
         this.assertMoveScoreFromScratch = assertMoveScoreFromScratch;
     }
@@ -62,6 +79,10 @@ public class ConstructionHeuristicDecider<Solution_> {
         this.assertExpectedUndoMoveScore = assertExpectedUndoMoveScore;
     }
 
+    public void setAssertMoveScoreDeltaCacheHits(boolean assertMoveScoreDeltaCacheHits) {
+        this.assertMoveScoreDeltaCacheHits = assertMoveScoreDeltaCacheHits;
+    }
+
     // ************************************************************************
     // Worker methods
     // ************************************************************************
@@ -72,6 +93,10 @@ public class ConstructionHeuristicDecider<Solution_> {
 
     public void phaseStarted(ConstructionHeuristicPhaseScope<Solution_> phaseScope) {
         forager.phaseStarted(phaseScope);
+        if (moveScoreDeltaCacheEnabled) {
+            moveScoreDeltaCache = MoveScoreDeltaCache.buildForPhase(phaseScope, moveScoreDeltaCacheCapacity,
+                    assertMoveScoreDeltaCacheHits);
+        }
     }
 
     public void stepStarted(ConstructionHeuristicStepScope<Solution_> stepScope) {
@@ -79,11 +104,18 @@ public class ConstructionHeuristicDecider<Solution_> {
     }
 
     public void stepEnded(ConstructionHeuristicStepScope<Solution_> stepScope) {
+        if (moveScoreDeltaCache != null) {
+            moveScoreDeltaCache.stepEnded(stepScope);
+        }
         forager.stepEnded(stepScope);
     }
 
     public void phaseEnded(ConstructionHeuristicPhaseScope<Solution_> phaseScope) {
         forager.phaseEnded(phaseScope);
+        if (moveScoreDeltaCache != null) {
+            moveScoreDeltaCache.phaseEnded(phaseScope, logIndentation);
+            moveScoreDeltaCache = null;
+        }
     }
 
     public void solvingEnded(DefaultSolverScope<Solution_> solverScope) {
@@ -114,6 +146,9 @@ public class ConstructionHeuristicDecider<Solution_> {
         if (pickedMoveScope != null) {
             Move<Solution_> step = pickedMoveScope.getMove();
             stepScope.setStep(step);
+            if (moveScoreDeltaCache != null) {
+                moveScoreDeltaCache.stepPicked(stepScope);
+            }
             if (logger.isDebugEnabled()) {
                 stepScope.setStepString(step.toString());
             }
@@ -123,10 +158,17 @@ public class ConstructionHeuristicDecider<Solution_> {
 
     protected void doMove(ConstructionHeuristicMoveScope<Solution_> moveScope) {
         InnerScoreDirector<Solution_> scoreDirector = moveScope.getScoreDirector();
-        scoreDirector.doAndProcessMove(moveScope.getMove(), assertMoveScoreFromScratch, score -> {
+        Consumer<Score> moveProcessor = score -> {
             moveScope.setScore(score);
             forager.addMove(moveScope);
-        });
+        };
+        if (moveScoreDeltaCache != null) {
+            // Lazy cheapest insertion: most moves of a Placement are the same as during the previous step
+            // and weren't affected by that step, so they don't need to be done again
+            moveScoreDeltaCache.doAndProcessMove(moveScope, assertMoveScoreFromScratch, moveProcessor);
+        } else {
+            scoreDirector.doAndProcessMove(moveScope.getMove(), assertMoveScoreFromScratch, moveProcessor);
+        }
         if (assertExpectedUndoMoveScore) {
             scoreDirector.assertExpectedUndoMoveScore(moveScope.getMove(),
                     moveScope.getStepScope().getPhaseScope().getLastCompletedStepScope().getScore());
@@ -23,9 +23,6 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.impl.constructionheuristic.decider.forager.ConstructionHeuristicForager;
@@ -34,15 +31,17 @@ import org.optaplanner.core.impl.constructionheuristic.scope.ConstructionHeurist
 import org.optaplanner.core.impl.constructionheuristic.scope.ConstructionHeuristicPhaseScope;
 import org.optaplanner.core.impl.constructionheuristic.scope.ConstructionHeuristicStepScope;
 import org.optaplanner.core.impl.heuristic.move.Move;
-import org.optaplanner.core.impl.heuristic.thread.ApplyStepOperation;
 import org.optaplanner.core.impl.heuristic.thread.DestroyOperation;
 import org.optaplanner.core.impl.heuristic.thread.MoveEvaluationOperation;
+import org.optaplanner.core.impl.heuristic.thread.MoveThreadController;
 import org.optaplanner.core.impl.heuristic.thread.MoveThreadOperation;
 import org.optaplanner.core.impl.heuristic.thread.MoveThreadRunner;
 import org.optaplanner.core.impl.heuristic.thread.OrderByMoveIndexBlockingQueue;
 import org.optaplanner.core.impl.heuristic.thread.SetupOperation;
+import org.optaplanner.core.impl.heuristic.thread.StepJournal;
 import org.optaplanner.core.impl.score.director.InnerScoreDirector;
 import org.optaplanner.core.impl.solver.termination.Termination;
+import org.optaplanner.core.impl.solver.thread.ChildThreadExecutorFactory;
 import org.optaplanner.core.impl.solver.thread.ThreadUtils;
 
 /**
@@ -50,29 +49,43 @@ import org.optaplanner.core.impl.solver.thread.ThreadUtils;
  */
 public class MultiThreadedConstructionHeuristicDecider<Solution_> extends ConstructionHeuristicDecider<Solution_> {
 
-    protected final ThreadFactory threadFactory;
+    protected final ChildThreadExecutorFactory childThreadExecutorFactory;
     protected final int moveThreadCount;
     protected final int selectedMoveBufferSize;
 
+    protected MoveThreadController moveThreadController = null;
+
     protected boolean assertStepScoreFromScratch = false;
     protected boolean assertExpectedStepScore = false;
     protected boolean assertShadowVariablesAreNotStaleAfterStep = false;
 
     protected BlockingQueue<MoveThreadOperation<Solution_>> operationQueue;
     protected OrderByMoveIndexBlockingQueue<Solution_> resultQueue;
+    protected StepJournal<Solution_> stepJournal;
     protected CyclicBarrier moveThreadBarrier;
     protected ExecutorService executor;
     protected List<MoveThreadRunner<Solution_>> moveThreadRunnerList;
 
     public MultiThreadedConstructionHeuristicDecider(String logIndentation, Termination termination,
             ConstructionHeuristicForager forager,
-            ThreadFactory threadFactory, int moveThreadCount, int selectedMoveBufferSize) {
+            ChildThreadExecutorFactory childThreadExecutorFactory, int moveThreadCount, int selectedMoveBufferSize) {
         super(logIndentation, termination, forager);
-        this.threadFactory = threadFactory;
+        this.childThreadExecutorFactory = childThreadExecutorFactory;
         this.moveThreadCount = moveThreadCount;
         this.selectedMoveBufferSize = selectedMoveBufferSize;
     }
 
+    public MoveThreadController getMoveThreadController() {
+        return moveThreadController;
+    }
+
+    /**
+     * @param moveThreadController null to keep the moveThreadCount and selectedMoveBufferSize fixed
+     */
+    public void setMoveThreadController(MoveThreadController moveThreadController) {
+        this.moveThreadController = moveThreadController;
+    }
+
     public void setAssertStepScoreFromScratch(boolean assertStepScoreFromScratch) {
         this.assertStepScoreFromScratch = assertStepScoreFromScratch;
     }
@@ -88,10 +101,17 @@ public class MultiThreadedConstructionHeuristicDecider<Solution_> extends Constr
     @Override
     public void phaseStarted(ConstructionHeuristicPhaseScope<Solution_> phaseScope) {
         super.phaseStarted(phaseScope);
-        // Capacity: number of moves in circulation + number of setup xor step operations + number of destroy operations
-        operationQueue = new ArrayBlockingQueue<>(selectedMoveBufferSize + moveThreadCount + moveThreadCount);
+        int maximumSelectedMoveBufferSize = selectedMoveBufferSize;
+        if (moveThreadController != null) {
+            moveThreadController.phaseStarted();
+            maximumSelectedMoveBufferSize = Math.max(maximumSelectedMoveBufferSize,
+                    moveThreadController.getMaximumSelectedMoveBufferSize());
+        }
+        // Capacity: number of moves in circulation + number of setup operations + number of destroy operations
+        operationQueue = new ArrayBlockingQueue<>(maximumSelectedMoveBufferSize + moveThreadCount + moveThreadCount);
         // Capacity: number of moves in circulation + number of exception handling results
-        resultQueue = new OrderByMoveIndexBlockingQueue<>(selectedMoveBufferSize + moveThreadCount);
+        resultQueue = new OrderByMoveIndexBlockingQueue<>(maximumSelectedMoveBufferSize + moveThreadCount);
+        stepJournal = new StepJournal<>(moveThreadCount);
         moveThreadBarrier = new CyclicBarrier(moveThreadCount);
         InnerScoreDirector<Solution_> scoreDirector = phaseScope.getScoreDirector();
         executor = createThreadPoolExecutor();
@@ -99,7 +119,7 @@ public class MultiThreadedConstructionHeuristicDecider<Solution_> extends Constr
         for (int moveThreadIndex = 0; moveThreadIndex < moveThreadCount; moveThreadIndex++) {
             MoveThreadRunner<Solution_> moveThreadRunner = new MoveThreadRunner<>(
                     logIndentation, moveThreadIndex, false,
-                    operationQueue, resultQueue, moveThreadBarrier,
+                    operationQueue, resultQueue, stepJournal, moveThreadController, moveThreadBarrier,
                     assertMoveScoreFromScratch, assertExpectedUndoMoveScore,
                     assertStepScoreFromScratch, assertExpectedStepScore, assertShadowVariablesAreNotStaleAfterStep);
             moveThreadRunnerList.add(moveThreadRunner);
@@ -111,6 +131,11 @@ public class MultiThreadedConstructionHeuristicDecider<Solution_> extends Constr
     @Override
     public void phaseEnded(ConstructionHeuristicPhaseScope<Solution_> phaseScope) {
         super.phaseEnded(phaseScope);
+        stepJournal.stopRecording();
+        if (moveThreadController != null) {
+            // Wake up the inactive move threads, so they take a DestroyOperation too
+            moveThreadController.phaseEnded();
+        }
         // Tell the move thread runners to stop
         DestroyOperation<Solution_> destroyOperation = new DestroyOperation<>();
         for (int i = 0; i < moveThreadCount; i++) {
@@ -123,26 +148,32 @@ public class MultiThreadedConstructionHeuristicDecider<Solution_> extends Constr
             childThreadsScoreCalculationCount += moveThreadRunner.getCalculationCount();
         }
         phaseScope.addChildThreadsScoreCalculationCount(childThreadsScoreCalculationCount);
+        if (logger.isDebugEnabled()) {
+            for (int moveThreadIndex = 0; moveThreadIndex < moveThreadCount; moveThreadIndex++) {
+                logger.debug("{}    Move thread ({}) step journal: batch count ({}), maximum step lag ({}),"
+                        + " final step lag ({}).",
+                        logIndentation, moveThreadIndex,
+                        stepJournal.getBatchCount(moveThreadIndex),
+                        stepJournal.getMaximumStepLag(moveThreadIndex),
+                        stepJournal.getStepLag(moveThreadIndex));
+            }
+        }
         operationQueue = null;
         resultQueue = null;
+        stepJournal = null;
         moveThreadRunnerList = null;
     }
 
     protected ExecutorService createThreadPoolExecutor() {
-        ThreadPoolExecutor threadPoolExecutor
-                = (ThreadPoolExecutor) Executors.newFixedThreadPool(moveThreadCount, threadFactory);
-        if (threadPoolExecutor.getMaximumPoolSize() < moveThreadCount) {
-            throw new IllegalStateException(
-                    "The threadPoolExecutor's maximumPoolSize (" + threadPoolExecutor.getMaximumPoolSize()
-                    + ") is less than the moveThreadCount (" + moveThreadCount + "), this is unsupported.");
-        }
-        return threadPoolExecutor;
+        return childThreadExecutorFactory.buildExecutor(moveThreadCount);
     }
 
     @Override
     public void decideNextStep(ConstructionHeuristicStepScope<Solution_> stepScope, Placement<Solution_> placement) {
         int stepIndex = stepScope.getStepIndex();
         resultQueue.startNextStep(stepIndex);
+        int selectedMoveBufferSize = moveThreadController == null ? this.selectedMoveBufferSize
+                : moveThreadController.getSelectedMoveBufferSize();
         int selectingMoveIndex = 0;
         int foragingMoveIndex = 0;
         Iterator<Move<Solution_>> moveIterator = placement.iterator();
@@ -167,22 +198,42 @@ public class MultiThreadedConstructionHeuristicDecider<Solution_> extends Constr
         // Do not evaluate the remaining selected moves for this step that haven't started evaluation yet
         operationQueue.clear();
         pickMove(stepScope);
-        // Start doing the step on every move thread. Don't wait for the stepEnded() event.
+        if (moveThreadController != null) {
+            moveThreadController.stepDecided(stepIndex, selectingMoveIndex, foragingMoveIndex);
+        }
         if (stepScope.getStep() != null) {
-            // Increase stepIndex by 1, because it's a preliminary action
-            ApplyStepOperation<Solution_> stepOperation = new ApplyStepOperation<>(
-                    stepIndex + 1, stepScope.getStep(), stepScope.getScore());
-            for (int i = 0; i < moveThreadCount; i++) {
-                operationQueue.add(stepOperation);
-            }
+            // The move threads don't do the step: they apply its variable assignments from the journal
+            stepJournal.startRecording(stepScope.getScoreDirector());
         }
-        // TODO latch barrier
+    }
+
+    @Override
+    public void stepEnded(ConstructionHeuristicStepScope<Solution_> stepScope) {
+        // Each move thread catches up when it takes its first move of the next step
+        stepJournal.publishStep(stepScope.getStepIndex(), stepScope.getScore());
+        super.stepEnded(stepScope);
+    }
+
+    /**
+     * This method is thread-safe.
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < moveThreadCount}
+     * @return at least 0, the number of steps that move thread still needs to apply
+     */
+    public int getMoveThreadStepLag(int moveThreadIndex) {
+        StepJournal<Solution_> stepJournal = this.stepJournal;
+        return stepJournal == null ? 0 : stepJournal.getStepLag(moveThreadIndex);
     }
 
     private boolean forageResult(ConstructionHeuristicStepScope<Solution_> stepScope, int stepIndex) {
         OrderByMoveIndexBlockingQueue.MoveResult<Solution_> result;
         try {
-            result = resultQueue.take();
+            if (moveThreadController == null) {
+                result = resultQueue.take();
+            } else {
+                long startNanos = System.nanoTime();
+                result = resultQueue.take();
+                moveThreadController.addResultWait(System.nanoTime() - startNanos);
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return true;
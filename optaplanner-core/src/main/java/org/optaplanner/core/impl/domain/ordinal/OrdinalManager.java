@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.domain.ordinal;
+
+import java.util.Collection;
+
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+
+/**
+ * Assigns a dense int ordinal to every working object (entity or problem fact) of 1 {@link ScoreDirector},
+ * so supplies can keep their state in plain arrays indexed by ordinal
+ * instead of each keeping its own identity map keyed by the working objects.
+ * <p>
+ * All supplies of the same {@link ScoreDirector} share the single identity index of this manager.
+ * The ordinal of a removed working object is not reused until {@link #resetWorkingObjects(Collection)},
+ * because a supply might still hold state at that index.
+ * <p>
+ * This class is not thread-safe.
+ * @see SolutionDescriptor#buildOrdinalManager(Object)
+ */
+public class OrdinalManager {
+
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final Object REMOVED_KEY = new Object();
+
+    // Open addressing with linear probing, the length is a power of 2
+    private Object[] keys;
+    private int[] ordinals;
+    private int usedSlotCount;
+    private int nextOrdinal;
+
+    public OrdinalManager() {
+        resetWorkingObjects(0);
+    }
+
+    /**
+     * Finds the {@link OrdinalManager} of the {@link InnerScoreDirector}
+     * or builds a private one if the scoreDirector doesn't have one.
+     * @param scoreDirector never null
+     * @param solutionDescriptor never null
+     * @return never null
+     */
+    public static OrdinalManager resolve(ScoreDirector scoreDirector, SolutionDescriptor solutionDescriptor) {
+        if (scoreDirector instanceof InnerScoreDirector) {
+            OrdinalManager ordinalManager = ((InnerScoreDirector<?>) scoreDirector).getOrdinalManager();
+            if (ordinalManager != null) {
+                return ordinalManager;
+            }
+        }
+        return solutionDescriptor.buildOrdinalManager(scoreDirector.getWorkingSolution());
+    }
+
+    public void resetWorkingObjects(Collection<Object> allFacts) {
+        resetWorkingObjects(allFacts.size());
+        for (Object fact : allFacts) {
+            addWorkingObject(fact);
+        }
+    }
+
+    private void resetWorkingObjects(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, MINIMUM_CAPACITY) * 2 - 1) << 1;
+        keys = new Object[capacity];
+        ordinals = new int[capacity];
+        usedSlotCount = 0;
+        nextOrdinal = 0;
+    }
+
+    public void addWorkingObject(Object workingObject) {
+        assignOrdinal(workingObject);
+    }
+
+    public void removeWorkingObject(Object workingObject) {
+        int slot = findSlot(workingObject);
+        if (slot >= 0) {
+            // Keep the probe chain intact
+            keys[slot] = REMOVED_KEY;
+        }
+    }
+
+    public void clearWorkingObjects() {
+        resetWorkingObjects(0);
+    }
+
+    /**
+     * @param workingObject never null
+     * @return {@code 0 <= ordinal < getOrdinalLimit()}, or -1 if it has no ordinal
+     */
+    public int getOrdinal(Object workingObject) {
+        int slot = findSlot(workingObject);
+        return slot < 0 ? -1 : ordinals[slot];
+    }
+
+    /**
+     * @param workingObject never null
+     * @return {@code 0 <= ordinal < getOrdinalLimit()}, a new ordinal if it didn't have one yet
+     */
+    public int assignOrdinal(Object workingObject) {
+        int mask = keys.length - 1;
+        int slot = hash(workingObject) & mask;
+        while (true) {
+            Object key = keys[slot];
+            if (key == workingObject) {
+                return ordinals[slot];
+            } else if (key == null) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int ordinal = nextOrdinal++;
+        keys[slot] = workingObject;
+        ordinals[slot] = ordinal;
+        usedSlotCount++;
+        if (usedSlotCount * 2 > keys.length) {
+            rehash();
+        }
+        return ordinal;
+    }
+
+    /**
+     * @return at least 0, higher than every ordinal assigned so far
+     */
+    public int getOrdinalLimit() {
+        return nextOrdinal;
+    }
+
+    private int findSlot(Object workingObject) {
+        int mask = keys.length - 1;
+        int slot = hash(workingObject) & mask;
+        while (true) {
+            Object key = keys[slot];
+            if (key == workingObject) {
+                return slot;
+            } else if (key == null) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void rehash() {
+        Object[] oldKeys = keys;
+        int[] oldOrdinals = ordinals;
+        int liveCount = 0;
+        for (Object key : oldKeys) {
+            if (key != null && key != REMOVED_KEY) {
+                liveCount++;
+            }
+        }
+        int capacity = Integer.highestOneBit(Math.max(liveCount, MINIMUM_CAPACITY) * 2 - 1) << 1;
+        keys = new Object[capacity];
+        ordinals = new int[capacity];
+        usedSlotCount = liveCount;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null && key != REMOVED_KEY) {
+                int slot = hash(key) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                ordinals[slot] = oldOrdinals[i];
+            }
+        }
+    }
+
+    private static int hash(Object workingObject) {
+        int h = System.identityHashCode(workingObject);
+        // Spread the high bits, because the mask only keeps the low bits
+        return h ^ (h >>> 16);
+    }
+
+}
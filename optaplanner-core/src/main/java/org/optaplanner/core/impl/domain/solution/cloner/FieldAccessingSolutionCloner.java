@@ -133,7 +133,7 @@ public class FieldAccessingSolutionCloner<Solution_> implements SolutionCloner<S
         return deepCloneDecision || retrieveDeepCloneDecisionForActualValueClass(actualValueClass);
     }
 
-    private boolean isFieldDeepCloned(Field field, Class<?> fieldInstanceClass) {
+    protected boolean isFieldDeepCloned(Field field, Class<?> fieldInstanceClass) {
         return isFieldAnEntityPropertyOnSolution(field, fieldInstanceClass)
                 || isFieldAnEntityOrSolution(field, fieldInstanceClass)
                 || isFieldADeepCloneProperty(field, fieldInstanceClass);
@@ -292,6 +292,11 @@ public class FieldAccessingSolutionCloner<Solution_> implements SolutionCloner<S
         }
 
         protected void process(Unprocessed unprocessed) {
+            Object cloneValue = cloneUnprocessedValue(unprocessed);
+            setFieldValue(unprocessed.bean, unprocessed.field, cloneValue);
+        }
+
+        protected Object cloneUnprocessedValue(Unprocessed unprocessed) {
             Object cloneValue;
             if (unprocessed.originalValue instanceof Collection) {
                 cloneValue = cloneCollection(unprocessed.field.getType(), (Collection<?>) unprocessed.originalValue);
@@ -302,7 +307,7 @@ public class FieldAccessingSolutionCloner<Solution_> implements SolutionCloner<S
             } else {
                 cloneValue = clone(unprocessed.originalValue);
             }
-            setFieldValue(unprocessed.bean, unprocessed.field, cloneValue);
+            return cloneValue;
         }
 
         protected Object cloneArray(Class<?> expectedType, Object originalArray) {
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.domain.solution.cloner;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.domain.solution.cloner.SolutionClonerType;
+import org.optaplanner.core.impl.domain.common.ConcurrentMemoization;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+
+/**
+ * A {@link FieldAccessingSolutionCloner} that decides how to copy each field only once per class,
+ * instead of once per field per cloned instance.
+ * <p>
+ * For every class it clones, it builds a {@link ClassCloningPlan}:
+ * a {@link MethodHandle} of the no-arg constructor and a flat array of the fields of the class
+ * and all of its superclasses, each with a {@link FieldCloningType} and a getter and setter {@link MethodHandle}.
+ * Those method handles are resolved once, so cloning an instance does no reflective {@link Field} access.
+ * Primitive fields are copied without boxing,
+ * fields that can never hold a deep cloned value are copied without any check
+ * and fields that are always deep cloned skip the deep clone decision entirely.
+ * The plans of the {@link PlanningSolution} class and the planning entity classes
+ * are built by {@link #precompile()} when the {@link SolutionDescriptor} is built.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ * @see SolutionClonerType#PRECOMPILED
+ */
+public class PrecompiledSolutionCloner<Solution_> extends FieldAccessingSolutionCloner<Solution_> {
+
+    protected final ConcurrentMap<Class<?>, ClassCloningPlan<?>> classCloningPlanMemoization
+            = new ConcurrentMemoization<>();
+
+    public PrecompiledSolutionCloner(SolutionDescriptor<Solution_> solutionDescriptor) {
+        super(solutionDescriptor);
+    }
+
+    /**
+     * Builds the {@link ClassCloningPlan} of the solution class and every entity class.
+     * Other classes (such as {@link org.optaplanner.core.api.domain.solution.cloner.DeepPlanningClone} classes
+     * or subclasses of entity classes) get their plan when they are first cloned.
+     */
+    public void precompile() {
+        retrieveCachedClassCloningPlan(solutionDescriptor.getSolutionClass());
+        for (Class<?> entityClass : solutionDescriptor.getEntityClassSet()) {
+            retrieveCachedClassCloningPlan(entityClass);
+        }
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    @Override
+    public Solution_ cloneSolution(Solution_ originalSolution) {
+        return new PrecompiledSolutionClonerRun().cloneSolution(originalSolution);
+    }
+
+    /**
+     * This method is thread-safe.
+     * @param clazz never null
+     * @param <C> type
+     * @return never null
+     */
+    @SuppressWarnings("unchecked")
+    protected <C> ClassCloningPlan<C> retrieveCachedClassCloningPlan(Class<C> clazz) {
+        return (ClassCloningPlan<C>) classCloningPlanMemoization.computeIfAbsent(clazz,
+                key -> buildClassCloningPlan(clazz));
+    }
+
+    protected <C> ClassCloningPlan<C> buildClassCloningPlan(Class<C> instanceClass) {
+        // An abstract class or an interface is never instantiated, but its plan documents its fields
+        MethodHandle constructorHandle = (instanceClass.isInterface() || Modifier.isAbstract(instanceClass.getModifiers()))
+                ? null : buildConstructorHandle(retrieveCachedConstructor(instanceClass));
+        List<FieldCloningPlan> fieldCloningPlanList = new ArrayList<>();
+        for (Class<?> lineageClass = instanceClass; lineageClass != null; lineageClass = lineageClass.getSuperclass()) {
+            for (Field field : retrieveCachedFields(lineageClass)) {
+                FieldCloningType fieldCloningType = decideFieldCloningType(field, instanceClass);
+                fieldCloningPlanList.add(new FieldCloningPlan(field, fieldCloningType,
+                        buildGetterHandle(field), buildSetterHandle(field)));
+            }
+        }
+        return new ClassCloningPlan<>(instanceClass, constructorHandle,
+                fieldCloningPlanList.toArray(new FieldCloningPlan[0]));
+    }
+
+    /**
+     * @param constructor never null, {@link Constructor#setAccessible(boolean) accessible}
+     * @return never null, of type {@code ()Object}
+     */
+    protected MethodHandle buildConstructorHandle(Constructor<?> constructor) {
+        try {
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("The class (" + constructor.getDeclaringClass()
+                    + ") should have an accessible no-arg constructor to create a planning clone.", e);
+        }
+    }
+
+    /**
+     * @param field never null, {@link Field#setAccessible(boolean) accessible}
+     * @return never null, of type {@code (Object)T} where T is the primitive type of the field or {@link Object}
+     */
+    protected MethodHandle buildGetterHandle(Field field) {
+        try {
+            return MethodHandles.lookup().unreflectGetter(field)
+                    .asType(MethodType.methodType(erasePrimitive(field.getType()), Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("The class (" + field.getDeclaringClass() + ") has a field (" + field
+                    + ") which can not be read to create a planning clone.", e);
+        }
+    }
+
+    /**
+     * @param field never null, {@link Field#setAccessible(boolean) accessible}
+     * @return never null, of type {@code (Object, T)void} where T is the primitive type of the field or {@link Object}
+     */
+    protected MethodHandle buildSetterHandle(Field field) {
+        MethodType setterType = MethodType.methodType(void.class, Object.class, erasePrimitive(field.getType()));
+        MethodHandle setterHandle;
+        try {
+            setterHandle = MethodHandles.lookup().unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            // Some JVMs refuse a setter method handle for a final field, but Field.set() still works
+            try {
+                setterHandle = MethodHandles.lookup()
+                        .findVirtual(Field.class, "set", MethodType.methodType(void.class, Object.class, Object.class))
+                        .bindTo(field);
+            } catch (ReflectiveOperationException e2) {
+                throw new IllegalStateException("The class (" + field.getDeclaringClass() + ") has a field (" + field
+                        + ") which can not be written to create a planning clone.", e2);
+            }
+        }
+        return setterHandle.asType(setterType);
+    }
+
+    private static Class<?> erasePrimitive(Class<?> type) {
+        return type.isPrimitive() ? type : Object.class;
+    }
+
+    protected FieldCloningType decideFieldCloningType(Field field, Class<?> fieldInstanceClass) {
+        Class<?> type = field.getType();
+        if (type.isPrimitive()) {
+            if (type == boolean.class) {
+                return FieldCloningType.BOOLEAN;
+            } else if (type == byte.class) {
+                return FieldCloningType.BYTE;
+            } else if (type == char.class) {
+                return FieldCloningType.CHAR;
+            } else if (type == short.class) {
+                return FieldCloningType.SHORT;
+            } else if (type == int.class) {
+                return FieldCloningType.INT;
+            } else if (type == long.class) {
+                return FieldCloningType.LONG;
+            } else if (type == float.class) {
+                return FieldCloningType.FLOAT;
+            } else if (type == double.class) {
+                return FieldCloningType.DOUBLE;
+            } else {
+                throw new IllegalStateException("The field (" + field
+                        + ") has an unsupported primitive type (" + type + ").");
+            }
+        }
+        if (isFieldDeepCloned(field, fieldInstanceClass)) {
+            return FieldCloningType.DEEP;
+        }
+        // The actual value class of a final type is always that type (arrays are final too)
+        if (Modifier.isFinal(type.getModifiers()) && !retrieveDeepCloneDecisionForActualValueClass(type)) {
+            return FieldCloningType.SHALLOW;
+        }
+        return FieldCloningType.DEPENDS_ON_ACTUAL_VALUE_CLASS;
+    }
+
+    protected class PrecompiledSolutionClonerRun extends FieldAccessingSolutionClonerRun {
+
+        @Override
+        protected <C> C clone(C original) {
+            if (original == null) {
+                return null;
+            }
+            C existingClone = (C) originalToCloneMap.get(original);
+            if (existingClone != null) {
+                return existingClone;
+            }
+            ClassCloningPlan<C> classCloningPlan = retrieveCachedClassCloningPlan((Class<C>) original.getClass());
+            C clone = classCloningPlan.newInstance();
+            originalToCloneMap.put(original, clone);
+            copyFields(classCloningPlan, original, clone);
+            return clone;
+        }
+
+        protected <C> void copyFields(ClassCloningPlan<C> classCloningPlan, C original, C clone) {
+            // The static types must match the method handle types exactly for invokeExact()
+            Object originalBean = original;
+            Object cloneBean = clone;
+            for (FieldCloningPlan fieldCloningPlan : classCloningPlan.fieldCloningPlans) {
+                MethodHandle getter = fieldCloningPlan.getter;
+                MethodHandle setter = fieldCloningPlan.setter;
+                try {
+                    switch (fieldCloningPlan.fieldCloningType) {
+                        case BOOLEAN:
+                            setter.invokeExact(cloneBean, (boolean) getter.invokeExact(originalBean));
+                            break;
+                        case BYTE:
+                            setter.invokeExact(cloneBean, (byte) getter.invokeExact(originalBean));
+                            break;
+                        case CHAR:
+                            setter.invokeExact(cloneBean, (char) getter.invokeExact(originalBean));
+                            break;
+                        case SHORT:
+                            setter.invokeExact(cloneBean, (short) getter.invokeExact(originalBean));
+                            break;
+                        case INT:
+                            setter.invokeExact(cloneBean, (int) getter.invokeExact(originalBean));
+                            break;
+                        case LONG:
+                            setter.invokeExact(cloneBean, (long) getter.invokeExact(originalBean));
+                            break;
+                        case FLOAT:
+                            setter.invokeExact(cloneBean, (float) getter.invokeExact(originalBean));
+                            break;
+                        case DOUBLE:
+                            setter.invokeExact(cloneBean, (double) getter.invokeExact(originalBean));
+                            break;
+                        case SHALLOW:
+                            setter.invokeExact(cloneBean, (Object) getter.invokeExact(originalBean));
+                            break;
+                        case DEEP: {
+                            Object originalValue = (Object) getter.invokeExact(originalBean);
+                            if (originalValue == null) {
+                                setter.invokeExact(cloneBean, (Object) null);
+                            } else {
+                                // Postpone filling in the fields
+                                unprocessedQueue.add(new PrecompiledUnprocessed(cloneBean, fieldCloningPlan, originalValue));
+                            }
+                            break;
+                        }
+                        case DEPENDS_ON_ACTUAL_VALUE_CLASS: {
+                            Object originalValue = (Object) getter.invokeExact(originalBean);
+                            if (originalValue != null
+                                    && retrieveDeepCloneDecisionForActualValueClass(originalValue.getClass())) {
+                                // Postpone filling in the fields
+                                unprocessedQueue.add(new PrecompiledUnprocessed(cloneBean, fieldCloningPlan, originalValue));
+                            } else {
+                                setter.invokeExact(cloneBean, originalValue);
+                            }
+                            break;
+                        }
+                        default:
+                            throw new IllegalStateException("The fieldCloningType ("
+                                    + fieldCloningPlan.fieldCloningType + ") is not implemented.");
+                    }
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException("The class (" + original.getClass()
+                            + ") has a field (" + fieldCloningPlan.field
+                            + ") which can not be copied to create a planning clone.", e);
+                }
+            }
+        }
+
+        @Override
+        protected void process(Unprocessed unprocessed) {
+            Object cloneValue = cloneUnprocessedValue(unprocessed);
+            FieldCloningPlan fieldCloningPlan = ((PrecompiledUnprocessed) unprocessed).fieldCloningPlan;
+            try {
+                fieldCloningPlan.setter.invokeExact(unprocessed.bean, cloneValue);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("The class (" + unprocessed.bean.getClass()
+                        + ") has a field (" + fieldCloningPlan.field + ") which can not be written with the value ("
+                        + cloneValue + ") to create a planning clone.", e);
+            }
+        }
+
+    }
+
+    protected static class PrecompiledUnprocessed extends Unprocessed {
+
+        protected final FieldCloningPlan fieldCloningPlan;
+
+        public PrecompiledUnprocessed(Object bean, FieldCloningPlan fieldCloningPlan, Object originalValue) {
+            super(bean, fieldCloningPlan.field, originalValue);
+            this.fieldCloningPlan = fieldCloningPlan;
+        }
+
+    }
+
+    protected enum FieldCloningType {
+        BOOLEAN,
+        BYTE,
+        CHAR,
+        SHORT,
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        /**
+         * The value is never deep cloned, regardless of its actual class.
+         */
+        SHALLOW,
+        /**
+         * The value is always deep cloned, unless it's null.
+         */
+        DEEP,
+        /**
+         * The value is deep cloned if its actual class is deep cloned.
+         */
+        DEPENDS_ON_ACTUAL_VALUE_CLASS;
+    }
+
+    protected static class FieldCloningPlan {
+
+        protected final Field field;
+        protected final FieldCloningType fieldCloningType;
+        protected final MethodHandle getter;
+        protected final MethodHandle setter;
+
+        public FieldCloningPlan(Field field, FieldCloningType fieldCloningType,
+                MethodHandle getter, MethodHandle setter) {
+            this.field = field;
+            this.fieldCloningType = fieldCloningType;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+    }
+
+    protected static class ClassCloningPlan<C> {
+
+        protected final Class<C> instanceClass;
+        protected final MethodHandle constructorHandle;
+        protected final FieldCloningPlan[] fieldCloningPlans;
+
+        public ClassCloningPlan(Class<C> instanceClass, MethodHandle constructorHandle,
+                FieldCloningPlan[] fieldCloningPlans) {
+            this.instanceClass = instanceClass;
+            this.constructorHandle = constructorHandle;
+            this.fieldCloningPlans = fieldCloningPlans;
+        }
+
+        @SuppressWarnings("unchecked")
+        public C newInstance() {
+            if (constructorHandle == null) {
+                throw new IllegalStateException("Impossible state: the class (" + instanceClass
+                        + ") is abstract, so it can not be instantiated to create a planning clone.");
+            }
+            try {
+                return (C) (Object) constructorHandle.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("The class (" + instanceClass
+                        + ") should have a no-arg constructor to create a planning clone.", e);
+            }
+        }
+
+    }
+
+}
@@ -48,6 +48,7 @@ import org.optaplanner.core.api.domain.solution.PlanningScore;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.domain.solution.Solution;
 import org.optaplanner.core.api.domain.solution.cloner.SolutionCloner;
+import org.optaplanner.core.api.domain.solution.cloner.SolutionClonerType;
 import org.optaplanner.core.api.domain.solution.drools.ProblemFactCollectionProperty;
 import org.optaplanner.core.api.domain.solution.drools.ProblemFactProperty;
 import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
@@ -76,9 +77,11 @@ import org.optaplanner.core.impl.domain.common.accessor.ReflectionFieldMemberAcc
 import org.optaplanner.core.impl.domain.constraintweight.descriptor.ConstraintConfigurationDescriptor;
 import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
 import org.optaplanner.core.impl.domain.lookup.LookUpStrategyResolver;
+import org.optaplanner.core.impl.domain.ordinal.OrdinalManager;
 import org.optaplanner.core.impl.domain.policy.DescriptorPolicy;
 import org.optaplanner.core.impl.domain.solution.AbstractSolution;
 import org.optaplanner.core.impl.domain.solution.cloner.FieldAccessingSolutionCloner;
+import org.optaplanner.core.impl.domain.solution.cloner.PrecompiledSolutionCloner;
 import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
 import org.optaplanner.core.impl.domain.variable.descriptor.ShadowVariableDescriptor;
 import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
@@ -330,7 +333,18 @@ public class SolutionDescriptor<Solution_> {
         if (solutionClonerClass != null) {
             solutionCloner = ConfigUtils.newInstance(this, "solutionClonerClass", solutionClonerClass);
         } else {
-            solutionCloner = new FieldAccessingSolutionCloner<>(this);
+            SolutionClonerType solutionClonerType = solutionAnnotation.solutionClonerType();
+            switch (solutionClonerType) {
+                case FIELD_ACCESSING:
+                    solutionCloner = new FieldAccessingSolutionCloner<>(this);
+                    break;
+                case PRECOMPILED:
+                    solutionCloner = new PrecompiledSolutionCloner<>(this);
+                    break;
+                default:
+                    throw new IllegalStateException("The solutionClonerType (" + solutionClonerType
+                            + ") is not implemented.");
+            }
         }
     }
 
@@ -719,6 +733,9 @@ public class SolutionDescriptor<Solution_> {
             entityDescriptor.linkVariableDescriptors(descriptorPolicy);
         }
         determineGlobalShadowOrder();
+        if (solutionCloner instanceof PrecompiledSolutionCloner) {
+            ((PrecompiledSolutionCloner<Solution_>) solutionCloner).precompile();
+        }
         if (logger.isTraceEnabled()) {
             logger.trace("    Model annotations parsed for solution {}:", solutionClass.getSimpleName());
             for (Map.Entry<Class<?>, EntityDescriptor<Solution_>> entry : entityDescriptorMap.entrySet()) {
@@ -956,6 +973,18 @@ public class SolutionDescriptor<Solution_> {
         return facts;
     }
 
+    /**
+     * @param solution sometimes null
+     * @return never null, with an ordinal for every entity and problem fact of the solution
+     */
+    public OrdinalManager buildOrdinalManager(Solution_ solution) {
+        OrdinalManager ordinalManager = new OrdinalManager();
+        if (solution != null) {
+            ordinalManager.resetWorkingObjects(getAllFacts(solution));
+        }
+        return ordinalManager;
+    }
+
     /**
      * @param solution never null
      * @return {@code >= 0}
@@ -21,6 +21,7 @@ import org.optaplanner.core.impl.domain.variable.inverserelation.SingletonInvers
 import org.optaplanner.core.impl.domain.variable.inverserelation.SingletonInverseVariableSupply;
 import org.optaplanner.core.impl.domain.variable.supply.Demand;
 import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.score.director.InnerScoreDirectorFactory;
 
 public class AnchorVariableDemand implements Demand<AnchorVariableSupply> {
 
@@ -42,6 +43,11 @@ public class AnchorVariableDemand implements Demand<AnchorVariableSupply> {
 
     @Override
     public AnchorVariableSupply createExternalizedSupply(InnerScoreDirector scoreDirector) {
+        InnerScoreDirectorFactory scoreDirectorFactory = scoreDirector.getScoreDirectorFactory();
+        if (scoreDirectorFactory.isSegmentedAnchorSupplyEnabled()) {
+            return new SegmentedAnchorVariableSupply(sourceVariableDescriptor,
+                    scoreDirectorFactory.isAssertSegmentedAnchorSupply());
+        }
         SingletonInverseVariableSupply inverseVariableSupply = scoreDirector.getSupplyManager()
                 .demand(new SingletonInverseVariableDemand(sourceVariableDescriptor));
         return new ExternalizedAnchorVariableSupply(sourceVariableDescriptor, inverseVariableSupply);
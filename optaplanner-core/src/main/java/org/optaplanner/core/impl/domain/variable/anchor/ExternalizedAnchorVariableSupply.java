@@ -16,11 +16,11 @@
 
 package org.optaplanner.core.impl.domain.variable.anchor;
 
-import java.util.IdentityHashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.ordinal.OrdinalManager;
 import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
 import org.optaplanner.core.impl.domain.variable.inverserelation.SingletonInverseVariableSupply;
 import org.optaplanner.core.impl.domain.variable.listener.StatefulVariableListener;
@@ -28,13 +28,16 @@ import org.optaplanner.core.impl.score.director.ScoreDirector;
 
 /**
  * Alternative to {@link AnchorVariableListener}.
+ * <p>
+ * The anchor of each entity is stored at the entity's ordinal of the {@link OrdinalManager}.
  */
 public class ExternalizedAnchorVariableSupply implements StatefulVariableListener<Object>, AnchorVariableSupply {
 
     protected final VariableDescriptor previousVariableDescriptor;
     protected final SingletonInverseVariableSupply nextVariableSupply;
 
-    protected Map<Object, Object> anchorMap = null;
+    protected OrdinalManager ordinalManager = null;
+    protected Object[] anchors = null;
 
     public ExternalizedAnchorVariableSupply(VariableDescriptor previousVariableDescriptor,
             SingletonInverseVariableSupply nextVariableSupply) {
@@ -51,7 +54,8 @@ public class ExternalizedAnchorVariableSupply implements StatefulVariableListene
     public void resetWorkingSolution(ScoreDirector scoreDirector) {
         EntityDescriptor entityDescriptor = previousVariableDescriptor.getEntityDescriptor();
         List<Object> entityList = entityDescriptor.extractEntities(scoreDirector.getWorkingSolution());
-        anchorMap = new IdentityHashMap<>(entityList.size());
+        ordinalManager = OrdinalManager.resolve(scoreDirector, entityDescriptor.getSolutionDescriptor());
+        anchors = new Object[ordinalManager.getOrdinalLimit()];
         for (Object entity : entityList) {
             insert(scoreDirector, entity);
         }
@@ -59,7 +63,8 @@ public class ExternalizedAnchorVariableSupply implements StatefulVariableListene
 
     @Override
     public void clearWorkingSolution(ScoreDirector scoreDirector) {
-        anchorMap = null;
+        ordinalManager = null;
+        anchors = null;
     }
 
     @Override
@@ -84,8 +89,11 @@ public class ExternalizedAnchorVariableSupply implements StatefulVariableListene
 
     @Override
     public void beforeEntityRemoved(ScoreDirector scoreDirector, Object entity) {
-        boolean removeSucceeded = anchorMap.remove(entity) != null;
-        if (!removeSucceeded) {
+        int ordinal = ordinalManager.getOrdinal(entity);
+        boolean removeSucceeded = ordinal >= 0 && ordinal < anchors.length && anchors[ordinal] != null;
+        if (removeSucceeded) {
+            anchors[ordinal] = null;
+        } else {
             throw new IllegalStateException("The supply (" + this + ") is corrupted,"
                     + " because the entity (" + entity
                     + ") for sourceVariable (" + previousVariableDescriptor.getVariableName()
@@ -107,18 +115,25 @@ public class ExternalizedAnchorVariableSupply implements StatefulVariableListene
         } else if (previousVariableDescriptor.isValuePotentialAnchor(previousEntity)) {
             anchor = previousEntity;
         } else {
-            anchor = anchorMap.get(previousEntity);
+            anchor = getAnchor(previousEntity);
         }
         Object nextEntity = entity;
-        while (nextEntity != null && anchorMap.get(nextEntity) != anchor) {
-            anchorMap.put(nextEntity, anchor);
+        while (nextEntity != null) {
+            int ordinal = ordinalManager.assignOrdinal(nextEntity);
+            if (ordinal >= anchors.length) {
+                anchors = Arrays.copyOf(anchors, Math.max(ordinal + 1, anchors.length * 2));
+            } else if (anchors[ordinal] == anchor) {
+                break;
+            }
+            anchors[ordinal] = anchor;
             nextEntity = nextVariableSupply.getInverseSingleton(nextEntity);
         }
     }
 
     @Override
     public Object getAnchor(Object entity) {
-        return anchorMap.get(entity);
+        int ordinal = ordinalManager.getOrdinal(entity);
+        return (ordinal < 0 || ordinal >= anchors.length) ? null : anchors[ordinal];
     }
 
     @Override
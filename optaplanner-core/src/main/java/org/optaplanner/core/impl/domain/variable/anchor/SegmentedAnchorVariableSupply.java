@@ -0,0 +1,344 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.domain.variable.anchor;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.ordinal.OrdinalManager;
+import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
+import org.optaplanner.core.impl.domain.variable.listener.StatefulVariableListener;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+
+/**
+ * Alternative to {@link ExternalizedAnchorVariableSupply} for long chains.
+ * <p>
+ * Each chain is a sequence of segments, each segment an implicit treap of its entities in chain order,
+ * with the anchor stored on the root.
+ * A changed previous variable cuts its entity from the treap before the change
+ * and joins it after its new previous entity after the change,
+ * so a move costs O(log n) per changed entity, instead of O(n) for all the trailing entities of the chain.
+ * {@link #getAnchor(Object)} walks up to the root, which is O(log n) too.
+ * <p>
+ * If asserted, every {@link #getAnchor(Object)} on a consistent working solution
+ * is compared to the anchor found by walking the previous variables, like {@link AnchorVariableListener} does.
+ */
+public class SegmentedAnchorVariableSupply implements StatefulVariableListener<Object>, AnchorVariableSupply {
+
+    protected final VariableDescriptor previousVariableDescriptor;
+    protected final boolean assertAnchor;
+
+    protected OrdinalManager ordinalManager = null;
+    protected Node[] nodes = null;
+    /**
+     * The number of before events without their after event yet.
+     */
+    protected int pendingEventCount = 0;
+
+    public SegmentedAnchorVariableSupply(VariableDescriptor previousVariableDescriptor, boolean assertAnchor) {
+        this.previousVariableDescriptor = previousVariableDescriptor;
+        this.assertAnchor = assertAnchor;
+    }
+
+    @Override
+    public VariableDescriptor getSourceVariableDescriptor() {
+        return previousVariableDescriptor;
+    }
+
+    public boolean isAssertAnchor() {
+        return assertAnchor;
+    }
+
+    @Override
+    public void resetWorkingSolution(ScoreDirector scoreDirector) {
+        EntityDescriptor entityDescriptor = previousVariableDescriptor.getEntityDescriptor();
+        List<Object> entityList = entityDescriptor.extractEntities(scoreDirector.getWorkingSolution());
+        ordinalManager = OrdinalManager.resolve(scoreDirector, entityDescriptor.getSolutionDescriptor());
+        nodes = new Node[ordinalManager.getOrdinalLimit()];
+        pendingEventCount = 0;
+        for (Object entity : entityList) {
+            getOrCreateNode(entity);
+        }
+        for (Object entity : entityList) {
+            link(entity);
+        }
+    }
+
+    @Override
+    public void clearWorkingSolution(ScoreDirector scoreDirector) {
+        ordinalManager = null;
+        nodes = null;
+        pendingEventCount = 0;
+    }
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector scoreDirector, Object entity) {
+        getOrCreateNode(entity);
+        pendingEventCount++;
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector scoreDirector, Object entity) {
+        link(entity);
+        pendingEventCount--;
+    }
+
+    @Override
+    public void beforeVariableChanged(ScoreDirector scoreDirector, Object entity) {
+        // The trailing entities stay in the same segment, so they follow the entity when it's joined again
+        cutBefore(getOrCreateNode(entity));
+        pendingEventCount++;
+    }
+
+    @Override
+    public void afterVariableChanged(ScoreDirector scoreDirector, Object entity) {
+        link(entity);
+        pendingEventCount--;
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector scoreDirector, Object entity) {
+        Node node = getNode(entity);
+        if (node == null) {
+            throw new IllegalStateException("The supply (" + this + ") is corrupted,"
+                    + " because the entity (" + entity
+                    + ") for sourceVariable (" + previousVariableDescriptor.getVariableName()
+                    + ") cannot be retracted: it was never inserted.");
+        }
+        cutBefore(node);
+        // No need to join the trailing entities because they will be removed too or change their previousVariable
+        cutAfter(node);
+        nodes[ordinalManager.getOrdinal(entity)] = null;
+        pendingEventCount++;
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector scoreDirector, Object entity) {
+        pendingEventCount--;
+    }
+
+    protected void link(Object entity) {
+        Node node = getOrCreateNode(entity);
+        cutBefore(node);
+        Object previousEntity = previousVariableDescriptor.getValue(entity);
+        if (previousEntity == null) {
+            findRoot(node).anchor = null;
+        } else if (previousVariableDescriptor.isValuePotentialAnchor(previousEntity)) {
+            findRoot(node).anchor = previousEntity;
+        } else {
+            Node previousNode = getOrCreateNode(previousEntity);
+            // Any former next entity of the previous entity changes its previousVariable too
+            cutAfter(previousNode);
+            Node root = findRoot(node);
+            Node previousRoot = findRoot(previousNode);
+            if (previousRoot == root) {
+                throw new IllegalStateException("The supply (" + this + ") is corrupted,"
+                        + " because the entity (" + entity
+                        + ") for sourceVariable (" + previousVariableDescriptor.getVariableName()
+                        + ") has a previous entity (" + previousEntity + ") that trails it in the same chain.");
+            }
+            Object anchor = previousRoot.anchor;
+            Node mergedRoot = merge(previousRoot, root);
+            mergedRoot.parent = null;
+            mergedRoot.anchor = anchor;
+        }
+    }
+
+    @Override
+    public Object getAnchor(Object entity) {
+        Node node = getNode(entity);
+        Object anchor = node == null ? null : findRoot(node).anchor;
+        if (assertAnchor && pendingEventCount == 0) {
+            Object expectedAnchor = walkToAnchor(entity);
+            if (anchor != expectedAnchor) {
+                throw new IllegalStateException("The supply (" + this + ") is corrupted,"
+                        + " because the entity (" + entity
+                        + ") for sourceVariable (" + previousVariableDescriptor.getVariableName()
+                        + ") has an anchor (" + anchor
+                        + ") that is not the anchor (" + expectedAnchor + ") of its chain.");
+            }
+        }
+        return anchor;
+    }
+
+    protected Object walkToAnchor(Object entity) {
+        Object previousEntity = previousVariableDescriptor.getValue(entity);
+        while (previousEntity != null && !previousVariableDescriptor.isValuePotentialAnchor(previousEntity)) {
+            previousEntity = previousVariableDescriptor.getValue(previousEntity);
+        }
+        return previousEntity;
+    }
+
+    // ************************************************************************
+    // Treap methods
+    // ************************************************************************
+
+    private Node getNode(Object entity) {
+        int ordinal = ordinalManager.getOrdinal(entity);
+        return (ordinal < 0 || ordinal >= nodes.length) ? null : nodes[ordinal];
+    }
+
+    private Node getOrCreateNode(Object entity) {
+        int ordinal = ordinalManager.assignOrdinal(entity);
+        if (ordinal >= nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(ordinal + 1, nodes.length * 2));
+        }
+        Node node = nodes[ordinal];
+        if (node == null) {
+            node = new Node(mix(ordinal));
+            nodes[ordinal] = node;
+        }
+        return node;
+    }
+
+    private static Node findRoot(Node node) {
+        while (node.parent != null) {
+            node = node.parent;
+        }
+        return node;
+    }
+
+    /**
+     * Splits the segment of the node into the part before the node and the part starting at the node.
+     * Both parts keep the anchor of the original segment until they are joined again.
+     * @param node never null
+     */
+    private static void cutBefore(Node node) {
+        Node left = node.left;
+        if (left != null) {
+            left.parent = null;
+            node.left = null;
+        }
+        Node right = node;
+        Node child = node;
+        Node parent = node.parent;
+        node.parent = null;
+        while (parent != null) {
+            Node grandParent = parent.parent;
+            parent.parent = null;
+            if (parent.right == child) {
+                parent.right = left;
+                if (left != null) {
+                    left.parent = parent;
+                }
+                left = parent;
+            } else {
+                parent.left = right;
+                right.parent = parent;
+                right = parent;
+            }
+            child = parent;
+            parent = grandParent;
+        }
+        // The last child is the root of the original segment
+        Object anchor = child.anchor;
+        if (left != null) {
+            left.anchor = anchor;
+        }
+        right.anchor = anchor;
+    }
+
+    /**
+     * Splits the segment of the node into the part ending at the node and the part after the node.
+     * Both parts keep the anchor of the original segment until they are joined again.
+     * @param node never null
+     */
+    private static void cutAfter(Node node) {
+        Node right = node.right;
+        if (right != null) {
+            right.parent = null;
+            node.right = null;
+        }
+        Node left = node;
+        Node child = node;
+        Node parent = node.parent;
+        node.parent = null;
+        while (parent != null) {
+            Node grandParent = parent.parent;
+            parent.parent = null;
+            if (parent.left == child) {
+                parent.left = right;
+                if (right != null) {
+                    right.parent = parent;
+                }
+                right = parent;
+            } else {
+                parent.right = left;
+                left.parent = parent;
+                left = parent;
+            }
+            child = parent;
+            parent = grandParent;
+        }
+        Object anchor = child.anchor;
+        left.anchor = anchor;
+        if (right != null) {
+            right.anchor = anchor;
+        }
+    }
+
+    /**
+     * @param left never null, the root of the segment that comes first
+     * @param right never null, the root of the segment that comes second
+     * @return never null, the root of the joined segment, with a stale parent and anchor
+     */
+    private static Node merge(Node left, Node right) {
+        if (left.priority > right.priority) {
+            left.right = left.right == null ? right : merge(left.right, right);
+            left.right.parent = left;
+            return left;
+        } else {
+            right.left = right.left == null ? left : merge(left, right.left);
+            right.left.parent = right;
+            return right;
+        }
+    }
+
+    /**
+     * The SplitMix64 finalizer, so the treap priorities are well spread but reproducible.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + previousVariableDescriptor.getVariableName() + ")";
+    }
+
+    private static final class Node {
+
+        private final long priority;
+
+        private Node parent = null;
+        private Node left = null;
+        private Node right = null;
+        /**
+         * Only relevant on the root of a segment.
+         */
+        private Object anchor = null;
+
+        private Node(long priority) {
+            this.priority = priority;
+        }
+
+    }
+
+}
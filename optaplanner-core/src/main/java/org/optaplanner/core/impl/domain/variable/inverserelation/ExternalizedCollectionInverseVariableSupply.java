@@ -16,26 +16,31 @@
 
 package org.optaplanner.core.impl.domain.variable.inverserelation;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.ordinal.OrdinalManager;
 import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
 import org.optaplanner.core.impl.domain.variable.listener.StatefulVariableListener;
 import org.optaplanner.core.impl.score.director.ScoreDirector;
 
 /**
  * Alternative to {@link CollectionInverseVariableListener}.
+ * <p>
+ * The inverse entity set of each value is stored at the value's ordinal of the {@link OrdinalManager}.
+ * An emptied set is kept for reuse.
  */
 public class ExternalizedCollectionInverseVariableSupply implements StatefulVariableListener<Object>, CollectionInverseVariableSupply {
 
     protected final VariableDescriptor sourceVariableDescriptor;
 
-    protected Map<Object, Set<Object>> inverseEntitySetMap = null;
+    protected OrdinalManager ordinalManager = null;
+    protected Set<Object>[] inverseEntitySets = null;
 
     public ExternalizedCollectionInverseVariableSupply(VariableDescriptor sourceVariableDescriptor) {
         this.sourceVariableDescriptor = sourceVariableDescriptor;
@@ -50,7 +55,8 @@ public class ExternalizedCollectionInverseVariableSupply implements StatefulVari
     public void resetWorkingSolution(ScoreDirector scoreDirector) {
         EntityDescriptor entityDescriptor = sourceVariableDescriptor.getEntityDescriptor();
         List<Object> entityList = entityDescriptor.extractEntities(scoreDirector.getWorkingSolution());
-        inverseEntitySetMap = new IdentityHashMap<>(entityList.size());
+        ordinalManager = OrdinalManager.resolve(scoreDirector, entityDescriptor.getSolutionDescriptor());
+        inverseEntitySets = new Set[ordinalManager.getOrdinalLimit()];
         for (Object entity : entityList) {
             insert(scoreDirector, entity);
         }
@@ -58,7 +64,8 @@ public class ExternalizedCollectionInverseVariableSupply implements StatefulVari
 
     @Override
     public void clearWorkingSolution(ScoreDirector scoreDirector) {
-        inverseEntitySetMap = null;
+        ordinalManager = null;
+        inverseEntitySets = null;
     }
 
     @Override
@@ -96,8 +103,15 @@ public class ExternalizedCollectionInverseVariableSupply implements StatefulVari
         if (value == null) {
             return;
         }
-        Set<Object> inverseEntitySet = inverseEntitySetMap.computeIfAbsent(value,
-                k -> Collections.newSetFromMap(new IdentityHashMap<>()));
+        int ordinal = ordinalManager.assignOrdinal(value);
+        if (ordinal >= inverseEntitySets.length) {
+            inverseEntitySets = Arrays.copyOf(inverseEntitySets, Math.max(ordinal + 1, inverseEntitySets.length * 2));
+        }
+        Set<Object> inverseEntitySet = inverseEntitySets[ordinal];
+        if (inverseEntitySet == null) {
+            inverseEntitySet = Collections.newSetFromMap(new IdentityHashMap<>());
+            inverseEntitySets[ordinal] = inverseEntitySet;
+        }
         boolean addSucceeded = inverseEntitySet.add(entity);
         if (!addSucceeded) {
             throw new IllegalStateException("The supply (" + this + ") is corrupted,"
@@ -112,28 +126,30 @@ public class ExternalizedCollectionInverseVariableSupply implements StatefulVari
         if (value == null) {
             return;
         }
-        Set<Object> inverseEntitySet = inverseEntitySetMap.get(value);
-        boolean removeSucceeded = inverseEntitySet.remove(entity);
+        Set<Object> inverseEntitySet = getInverseEntitySet(value);
+        boolean removeSucceeded = inverseEntitySet != null && inverseEntitySet.remove(entity);
         if (!removeSucceeded) {
             throw new IllegalStateException("The supply (" + this + ") is corrupted,"
                     + " because the entity (" + entity
                     + ") for sourceVariable (" + sourceVariableDescriptor.getVariableName()
                     + ") cannot be retracted: it was never inserted.");
         }
-        if (inverseEntitySet.isEmpty()) {
-            inverseEntitySetMap.put(value, null);
-        }
     }
 
     @Override
     public Collection<?> getInverseCollection(Object value) {
-        Set<Object> inverseEntitySet = inverseEntitySetMap.get(value);
-        if (inverseEntitySet == null) {
+        Set<Object> inverseEntitySet = getInverseEntitySet(value);
+        if (inverseEntitySet == null || inverseEntitySet.isEmpty()) {
             return Collections.emptySet();
         }
         return inverseEntitySet;
     }
 
+    private Set<Object> getInverseEntitySet(Object value) {
+        int ordinal = ordinalManager.getOrdinal(value);
+        return (ordinal < 0 || ordinal >= inverseEntitySets.length) ? null : inverseEntitySets[ordinal];
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "(" + sourceVariableDescriptor.getVariableName() + ")";
@@ -16,23 +16,26 @@
 
 package org.optaplanner.core.impl.domain.variable.inverserelation;
 
-import java.util.IdentityHashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.ordinal.OrdinalManager;
 import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
 import org.optaplanner.core.impl.domain.variable.listener.StatefulVariableListener;
 import org.optaplanner.core.impl.score.director.ScoreDirector;
 
 /**
  * Alternative to {@link SingletonInverseVariableListener}.
+ * <p>
+ * The inverse entity of each value is stored at the value's ordinal of the {@link OrdinalManager}.
  */
 public class ExternalizedSingletonInverseVariableSupply implements StatefulVariableListener<Object>, SingletonInverseVariableSupply {
 
     protected final VariableDescriptor sourceVariableDescriptor;
 
-    protected Map<Object, Object> inverseEntityMap = null;
+    protected OrdinalManager ordinalManager = null;
+    protected Object[] inverseEntities = null;
 
     public ExternalizedSingletonInverseVariableSupply(VariableDescriptor sourceVariableDescriptor) {
         this.sourceVariableDescriptor = sourceVariableDescriptor;
@@ -47,7 +50,8 @@ public class ExternalizedSingletonInverseVariableSupply implements StatefulVaria
     public void resetWorkingSolution(ScoreDirector scoreDirector) {
         EntityDescriptor entityDescriptor = sourceVariableDescriptor.getEntityDescriptor();
         List<Object> entityList = entityDescriptor.extractEntities(scoreDirector.getWorkingSolution());
-        inverseEntityMap = new IdentityHashMap<>(entityList.size());
+        ordinalManager = OrdinalManager.resolve(scoreDirector, entityDescriptor.getSolutionDescriptor());
+        inverseEntities = new Object[ordinalManager.getOrdinalLimit()];
         for (Object entity : entityList) {
             insert(scoreDirector, entity);
         }
@@ -55,7 +59,8 @@ public class ExternalizedSingletonInverseVariableSupply implements StatefulVaria
 
     @Override
     public void clearWorkingSolution(ScoreDirector scoreDirector) {
-        inverseEntityMap = null;
+        ordinalManager = null;
+        inverseEntities = null;
     }
 
     @Override
@@ -93,7 +98,12 @@ public class ExternalizedSingletonInverseVariableSupply implements StatefulVaria
         if (value == null) {
             return;
         }
-        Object oldInverseEntity = inverseEntityMap.put(value, entity);
+        int ordinal = ordinalManager.assignOrdinal(value);
+        if (ordinal >= inverseEntities.length) {
+            inverseEntities = Arrays.copyOf(inverseEntities, Math.max(ordinal + 1, inverseEntities.length * 2));
+        }
+        Object oldInverseEntity = inverseEntities[ordinal];
+        inverseEntities[ordinal] = entity;
         if (oldInverseEntity != null) {
             throw new IllegalStateException("The supply (" + this + ") is corrupted,"
                     + " because the entity (" + entity
@@ -108,18 +118,21 @@ public class ExternalizedSingletonInverseVariableSupply implements StatefulVaria
         if (value == null) {
             return;
         }
-        Object oldInverseEntity = inverseEntityMap.remove(value);
+        int ordinal = ordinalManager.getOrdinal(value);
+        Object oldInverseEntity = (ordinal < 0 || ordinal >= inverseEntities.length) ? null : inverseEntities[ordinal];
         if (oldInverseEntity != entity) {
             throw new IllegalStateException("The supply (" + this + ") is corrupted,"
                     + " because the entity (" + entity
                     + ") for sourceVariable (" + sourceVariableDescriptor.getVariableName()
                     + ") cannot be retracted: the entity was never inserted for that value (" + value + ").");
         }
+        inverseEntities[ordinal] = null;
     }
 
     @Override
     public Object getInverseSingleton(Object value) {
-        return inverseEntityMap.get(value);
+        int ordinal = ordinalManager.getOrdinal(value);
+        return (ordinal < 0 || ordinal >= inverseEntities.length) ? null : inverseEntities[ordinal];
     }
 
     @Override
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.domain.variable.listener.support;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
+
+/**
+ * Observes every change of the working solution that goes through the {@link VariableListenerSupport},
+ * including the shadow variable changes done by variable listeners.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ * @see VariableListenerSupport#setVariableChangeTracker(VariableChangeTracker)
+ */
+public interface VariableChangeTracker<Solution_> {
+
+    /**
+     * Called both before and after the variable changes,
+     * so the old value and the new value can be read from the entity.
+     * @param variableDescriptor never null
+     * @param entity never null
+     */
+    void variableTouched(VariableDescriptor<Solution_> variableDescriptor, Object entity);
+
+    /**
+     * Called after an entity is added and before an entity is removed.
+     * @param entityDescriptor never null
+     * @param entity never null
+     */
+    void entityTouched(EntityDescriptor<Solution_> entityDescriptor, Object entity);
+
+}
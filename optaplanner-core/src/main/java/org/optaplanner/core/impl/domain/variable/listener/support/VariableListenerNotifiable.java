@@ -16,9 +16,6 @@
 
 package org.optaplanner.core.impl.domain.variable.listener.support;
 
-import java.util.ArrayDeque;
-import java.util.Collection;
-
 import org.optaplanner.core.impl.domain.variable.listener.VariableListener;
 
 public class VariableListenerNotifiable implements Comparable<VariableListenerNotifiable> {
@@ -26,16 +23,14 @@ public class VariableListenerNotifiable implements Comparable<VariableListenerNo
     protected final VariableListener variableListener;
     protected final int globalOrder;
 
-    protected final Collection<VariableListenerNotification> notificationQueue;
+    protected final VariableListenerNotificationQueue notificationQueue;
+
+    protected long suppressedNotificationCount = 0L;
 
     public VariableListenerNotifiable(VariableListener variableListener, int globalOrder) {
         this.variableListener = variableListener;
         this.globalOrder = globalOrder;
-        if (variableListener.requiresUniqueEntityEvents()) {
-            notificationQueue = new SmallScalingOrderedSet<>();
-        } else {
-            notificationQueue = new ArrayDeque<>();
-        }
+        notificationQueue = new VariableListenerNotificationQueue(variableListener.requiresUniqueEntityEvents());
     }
 
     public VariableListener getVariableListener() {
@@ -46,10 +41,26 @@ public class VariableListenerNotifiable implements Comparable<VariableListenerNo
         return globalOrder;
     }
 
-    public Collection<VariableListenerNotification> getNotificationQueue() {
+    public VariableListenerNotificationQueue getNotificationQueue() {
         return notificationQueue;
     }
 
+    /**
+     * @return at least 0, the number of notifications this {@link VariableListener} didn't receive
+     * because the shadow variable it listens to was changed to an equal value
+     */
+    public long getSuppressedNotificationCount() {
+        return suppressedNotificationCount;
+    }
+
+    public void incrementSuppressedNotificationCount() {
+        suppressedNotificationCount++;
+    }
+
+    public void resetSuppressedNotificationCount() {
+        suppressedNotificationCount = 0L;
+    }
+
     @Override
     public int compareTo(VariableListenerNotifiable other) {
         if (globalOrder < other.globalOrder) {
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.domain.variable.listener.support;
+
+import java.util.Arrays;
+
+import org.optaplanner.core.impl.domain.variable.listener.VariableListener;
+
+/**
+ * The pending notifications of 1 {@link VariableListener}, in insertion order.
+ * <p>
+ * The entity and type of each notification are stored in parallel arrays, which are reused after {@link #clear()},
+ * so adding a notification doesn't allocate anything once the arrays are big enough.
+ * <p>
+ * If the {@link VariableListener#requiresUniqueEntityEvents()}, a notification for the same entity instance
+ * and the same type is added only once.
+ * Like {@link SmallScalingOrderedSet}, that check is a linear scan for a small {@link #size()},
+ * but above that it uses an open addressing identity index instead of a {@code LinkedHashSet}.
+ */
+public final class VariableListenerNotificationQueue {
+
+    protected static final int LINEAR_SCAN_THRESHOLD = 16;
+
+    private final boolean uniqueEntityEvents;
+
+    private Object[] entities;
+    private VariableListenerNotificationType[] types;
+    private int size = 0;
+
+    /**
+     * Each slot holds the index of a notification plus 1, 0 for an empty slot.
+     * The length is a power of 2. Only used if {@link #indexed}.
+     */
+    private int[] slots = null;
+    private boolean indexed = false;
+
+    public VariableListenerNotificationQueue(boolean uniqueEntityEvents) {
+        this.uniqueEntityEvents = uniqueEntityEvents;
+        entities = new Object[LINEAR_SCAN_THRESHOLD];
+        types = new VariableListenerNotificationType[LINEAR_SCAN_THRESHOLD];
+    }
+
+    public boolean isUniqueEntityEvents() {
+        return uniqueEntityEvents;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index {@code 0 <= index < size()}
+     * @return never null
+     */
+    public Object getEntity(int index) {
+        return entities[index];
+    }
+
+    /**
+     * @param index {@code 0 <= index < size()}
+     * @return never null
+     */
+    public VariableListenerNotificationType getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * @param entity never null
+     * @param type never null
+     * @return false if uniqueEntityEvents and that notification is already queued
+     */
+    public boolean add(Object entity, VariableListenerNotificationType type) {
+        if (uniqueEntityEvents) {
+            if (!indexed && size >= LINEAR_SCAN_THRESHOLD) {
+                buildIndex();
+            }
+            if (indexed) {
+                if (size * 2 >= slots.length) {
+                    buildIndex();
+                }
+                int mask = slots.length - 1;
+                int slotIndex = hash(entity, type) & mask;
+                while (slots[slotIndex] != 0) {
+                    int index = slots[slotIndex] - 1;
+                    if (entities[index] == entity && types[index] == type) {
+                        return false;
+                    }
+                    slotIndex = (slotIndex + 1) & mask;
+                }
+                slots[slotIndex] = size + 1;
+            } else {
+                for (int i = 0; i < size; i++) {
+                    if (entities[i] == entity && types[i] == type) {
+                        return false;
+                    }
+                }
+            }
+        }
+        if (size == entities.length) {
+            entities = Arrays.copyOf(entities, size * 2);
+            types = Arrays.copyOf(types, size * 2);
+        }
+        entities[size] = entity;
+        types[size] = type;
+        size++;
+        return true;
+    }
+
+    /**
+     * Keeps the arrays for reuse, but doesn't keep any entity reachable.
+     */
+    public void clear() {
+        Arrays.fill(entities, 0, size, null);
+        Arrays.fill(types, 0, size, null);
+        size = 0;
+        if (indexed) {
+            Arrays.fill(slots, 0);
+            indexed = false;
+        }
+    }
+
+    private void buildIndex() {
+        int capacity = Integer.highestOneBit(Math.max(size, LINEAR_SCAN_THRESHOLD) * 4);
+        if (slots == null || slots.length < capacity) {
+            slots = new int[capacity];
+        } else {
+            Arrays.fill(slots, 0);
+        }
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slotIndex = hash(entities[i], types[i]) & mask;
+            while (slots[slotIndex] != 0) {
+                slotIndex = (slotIndex + 1) & mask;
+            }
+            slots[slotIndex] = i + 1;
+        }
+        indexed = true;
+    }
+
+    private static int hash(Object entity, VariableListenerNotificationType type) {
+        int h = System.identityHashCode(entity) * 31 + type.ordinal();
+        // Spread the high bits, because the mask only keeps the low bits
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "Notification queue (" + size + ")";
+    }
+
+}
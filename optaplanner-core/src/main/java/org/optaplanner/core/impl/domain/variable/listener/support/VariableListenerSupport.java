@@ -17,7 +17,6 @@
 package org.optaplanner.core.impl.domain.variable.listener.support;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -52,6 +51,8 @@ public class VariableListenerSupport<Solution_> implements SupplyManager {
 
     protected boolean notificationQueuesAreEmpty;
 
+    protected VariableChangeTracker<Solution_> variableChangeTracker = null;
+
     public VariableListenerSupport(InnerScoreDirector<Solution_> scoreDirector) {
         this.scoreDirector = scoreDirector;
         notifiableList = new ArrayList<>();
@@ -93,6 +94,17 @@ public class VariableListenerSupport<Solution_> implements SupplyManager {
         Collections.sort(notifiableList);
     }
 
+    public VariableChangeTracker<Solution_> getVariableChangeTracker() {
+        return variableChangeTracker;
+    }
+
+    /**
+     * @param variableChangeTracker sometimes null, null to stop tracking
+     */
+    public void setVariableChangeTracker(VariableChangeTracker<Solution_> variableChangeTracker) {
+        this.variableChangeTracker = variableChangeTracker;
+    }
+
     @Override
     public <S extends Supply> S demand(Demand<S> demand) {
         S supply = (S) supplyMap.get(demand);
@@ -127,6 +139,7 @@ public class VariableListenerSupport<Solution_> implements SupplyManager {
 
     public void resetWorkingSolution() {
         for (VariableListenerNotifiable notifiable : notifiableList) {
+            notifiable.resetSuppressedNotificationCount();
             VariableListener variableListener = notifiable.getVariableListener();
             if (variableListener instanceof StatefulVariableListener) {
                 ((StatefulVariableListener) variableListener).resetWorkingSolution(scoreDirector);
@@ -146,9 +159,7 @@ public class VariableListenerSupport<Solution_> implements SupplyManager {
     public void beforeEntityAdded(EntityDescriptor<Solution_> entityDescriptor, Object entity) {
         List<VariableListenerNotifiable> notifiableList = sourceEntityToNotifiableMap.get(entityDescriptor);
         for (VariableListenerNotifiable notifiable : notifiableList) {
-            Collection<VariableListenerNotification> notificationQueue = notifiable.getNotificationQueue();
-            boolean added = notificationQueue.add(
-                    new VariableListenerNotification(entity, VariableListenerNotificationType.ENTITY_ADDED));
+            boolean added = notifiable.getNotificationQueue().add(entity, VariableListenerNotificationType.ENTITY_ADDED);
             if (added) {
                 notifiable.getVariableListener().beforeEntityAdded(scoreDirector, entity);
             }
@@ -158,14 +169,18 @@ public class VariableListenerSupport<Solution_> implements SupplyManager {
 
     public void afterEntityAdded(EntityDescriptor<Solution_> entityDescriptor, Object entity) {
         // beforeEntityAdded() has already added it to the notificationQueue
+        if (variableChangeTracker != null) {
+            variableChangeTracker.entityTouched(entityDescriptor, entity);
+        }
     }
 
     public void beforeVariableChanged(VariableDescriptor<Solution_> variableDescriptor, Object entity) {
+        if (variableChangeTracker != null) {
+            variableChangeTracker.variableTouched(variableDescriptor, entity);
+        }
         List<VariableListenerNotifiable> notifiableList = sourceVariableToNotifiableMap.get(variableDescriptor);
         for (VariableListenerNotifiable notifiable : notifiableList) {
-            Collection<VariableListenerNotification> notificationQueue = notifiable.getNotificationQueue();
-            boolean added = notificationQueue.add(
-                    new VariableListenerNotification(entity, VariableListenerNotificationType.VARIABLE_CHANGED));
+            boolean added = notifiable.getNotificationQueue().add(entity, VariableListenerNotificationType.VARIABLE_CHANGED);
             if (added) {
                 notifiable.getVariableListener().beforeVariableChanged(scoreDirector, entity);
             }
@@ -175,14 +190,18 @@ public class VariableListenerSupport<Solution_> implements SupplyManager {
 
     public void afterVariableChanged(VariableDescriptor<Solution_> variableDescriptor, Object entity) {
         // beforeVariableChanged() has already added it to the notificationQueue
+        if (variableChangeTracker != null) {
+            variableChangeTracker.variableTouched(variableDescriptor, entity);
+        }
     }
 
     public void beforeEntityRemoved(EntityDescriptor<Solution_> entityDescriptor, Object entity) {
+        if (variableChangeTracker != null) {
+            variableChangeTracker.entityTouched(entityDescriptor, entity);
+        }
         List<VariableListenerNotifiable> notifiableList = sourceEntityToNotifiableMap.get(entityDescriptor);
         for (VariableListenerNotifiable notifiable : notifiableList) {
-            Collection<VariableListenerNotification> notificationQueue = notifiable.getNotificationQueue();
-            boolean added = notificationQueue.add(
-                    new VariableListenerNotification(entity, VariableListenerNotificationType.ENTITY_REMOVED));
+            boolean added = notifiable.getNotificationQueue().add(entity, VariableListenerNotificationType.ENTITY_REMOVED);
             if (added) {
                 notifiable.getVariableListener().beforeEntityRemoved(scoreDirector, entity);
             }
@@ -194,14 +213,42 @@ public class VariableListenerSupport<Solution_> implements SupplyManager {
         // beforeEntityRemoved() has already added it to the notificationQueue
     }
 
+    /**
+     * Counts the notifications that an unchanged shadow variable didn't cascade to its downstream listeners.
+     * @param variableDescriptor never null, the shadow variable that didn't change
+     */
+    public void shadowVariableChangeSuppressed(VariableDescriptor<Solution_> variableDescriptor) {
+        List<VariableListenerNotifiable> notifiableList = sourceVariableToNotifiableMap.get(variableDescriptor);
+        for (VariableListenerNotifiable notifiable : notifiableList) {
+            notifiable.incrementSuppressedNotificationCount();
+        }
+    }
+
+    /**
+     * @return never null, the number of suppressed notifications per {@link VariableListener} class,
+     * in the order in which they are triggered
+     * @see #shadowVariableChangeSuppressed(VariableDescriptor)
+     */
+    public Map<Class<? extends VariableListener>, Long> getSuppressedNotificationCountMap() {
+        Map<Class<? extends VariableListener>, Long> suppressedNotificationCountMap = new LinkedHashMap<>();
+        for (VariableListenerNotifiable notifiable : notifiableList) {
+            suppressedNotificationCountMap.merge(notifiable.getVariableListener().getClass(),
+                    notifiable.getSuppressedNotificationCount(), Long::sum);
+        }
+        return suppressedNotificationCountMap;
+    }
+
     public void triggerVariableListenersInNotificationQueues() {
         for (VariableListenerNotifiable notifiable : notifiableList) {
-            Collection<VariableListenerNotification> notificationQueue = notifiable.getNotificationQueue();
+            VariableListenerNotificationQueue notificationQueue = notifiable.getNotificationQueue();
             int notifiedCount = 0;
             VariableListener variableListener = notifiable.getVariableListener();
-            for (VariableListenerNotification notification : notificationQueue) {
-                Object entity = notification.getEntity();
-                switch (notification.getType()) {
+            // A variable listener must not add to its own queue, so the size is read only once
+            int queueSize = notificationQueue.size();
+            for (int i = 0; i < queueSize; i++) {
+                Object entity = notificationQueue.getEntity(i);
+                VariableListenerNotificationType type = notificationQueue.getType(i);
+                switch (type) {
                     case ENTITY_ADDED:
                         variableListener.afterEntityAdded(scoreDirector, entity);
                         break;
@@ -213,7 +260,7 @@ public class VariableListenerSupport<Solution_> implements SupplyManager {
                         break;
                     default:
                         throw new IllegalStateException("The variableListenerNotificationType ("
-                                + notification.getType() + ") is not implemented.");
+                                + type + ") is not implemented.");
                 }
                 notifiedCount++;
             }
@@ -20,14 +20,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.impl.exhaustivesearch.decider.ExhaustiveSearchDecider;
 import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchLayer;
 import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNodeQueue;
 import org.optaplanner.core.impl.exhaustivesearch.node.bounder.ScoreBounder;
 import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchPhaseScope;
 import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchStepScope;
@@ -49,6 +48,7 @@ public class DefaultExhaustiveSearchPhase<Solution_> extends AbstractPhase<Solut
     protected Comparator<ExhaustiveSearchNode> nodeComparator;
     protected EntitySelector entitySelector;
     protected ExhaustiveSearchDecider<Solution_> decider;
+    protected int nodeQueueSizeLimit = Integer.MAX_VALUE;
 
     protected boolean assertWorkingSolutionScoreFromScratch = false;
     protected boolean assertExpectedWorkingSolutionScore = false;
@@ -82,6 +82,18 @@ public class DefaultExhaustiveSearchPhase<Solution_> extends AbstractPhase<Solut
         this.decider = decider;
     }
 
+    public int getNodeQueueSizeLimit() {
+        return nodeQueueSizeLimit;
+    }
+
+    /**
+     * @param nodeQueueSizeLimit at least 1, {@link Integer#MAX_VALUE} to never fall back to depth-first
+     * @see ExhaustiveSearchNodeQueue
+     */
+    public void setNodeQueueSizeLimit(int nodeQueueSizeLimit) {
+        this.nodeQueueSizeLimit = nodeQueueSizeLimit;
+    }
+
     public void setAssertWorkingSolutionScoreFromScratch(boolean assertWorkingSolutionScoreFromScratch) {
         this.assertWorkingSolutionScoreFromScratch = assertWorkingSolutionScoreFromScratch;
     }
@@ -101,15 +113,18 @@ public class DefaultExhaustiveSearchPhase<Solution_> extends AbstractPhase<Solut
 
     @Override
     public void solve(DefaultSolverScope<Solution_> solverScope) {
-        SortedSet<ExhaustiveSearchNode> expandableNodeQueue = new TreeSet<>(nodeComparator);
+        ExhaustiveSearchNodeQueue expandableNodeQueue = new ExhaustiveSearchNodeQueue(nodeComparator,
+                decider.isScoreBounderEnabled(), nodeQueueSizeLimit);
         ExhaustiveSearchPhaseScope<Solution_> phaseScope = new ExhaustiveSearchPhaseScope<>(solverScope);
         phaseScope.setExpandableNodeQueue(expandableNodeQueue);
         phaseStarted(phaseScope);
 
-        while (!expandableNodeQueue.isEmpty() && !termination.isPhaseTerminated(phaseScope)) {
+        while (!termination.isPhaseTerminated(phaseScope)) {
+            ExhaustiveSearchNode node = expandableNodeQueue.poll(phaseScope.getBestPessimisticBound());
+            if (node == null) {
+                break;
+            }
             ExhaustiveSearchStepScope<Solution_> stepScope = new ExhaustiveSearchStepScope<>(phaseScope);
-            ExhaustiveSearchNode node = expandableNodeQueue.last();
-            expandableNodeQueue.remove(node);
             stepScope.setExpandingNode(node);
             stepStarted(stepScope);
             restoreWorkingSolution(stepScope);
@@ -197,24 +212,29 @@ public class DefaultExhaustiveSearchPhase<Solution_> extends AbstractPhase<Solut
         ExhaustiveSearchNode oldNode = phaseScope.getLastCompletedStepScope().getExpandingNode();
         ExhaustiveSearchNode newNode = stepScope.getExpandingNode();
         List<Move<Solution_>> oldMoveList = new ArrayList<>(oldNode.getDepth());
-        List<Move<Solution_>> newMoveList = new ArrayList<>(newNode.getDepth());
+        List<ExhaustiveSearchNode> newNodeList = new ArrayList<>(newNode.getDepth());
         while (oldNode != newNode) {
             int oldDepth = oldNode.getDepth();
             int newDepth = newNode.getDepth();
             if (oldDepth < newDepth) {
-                newMoveList.add(newNode.getMove());
+                newNodeList.add(newNode);
                 newNode = newNode.getParent();
             } else {
                 oldMoveList.add(oldNode.getUndoMove());
                 oldNode = oldNode.getParent();
             }
         }
-        List<Move<Solution_>> restoreMoveList = new ArrayList<>(oldMoveList.size() + newMoveList.size());
+        List<Move<Solution_>> restoreMoveList = new ArrayList<>(oldMoveList.size() + newNodeList.size());
         restoreMoveList.addAll(oldMoveList);
-        Collections.reverse(newMoveList);
-        restoreMoveList.addAll(newMoveList);
+        Collections.reverse(newNodeList);
         InnerScoreDirector<Solution_> scoreDirector = phaseScope.getScoreDirector();
-        restoreMoveList.forEach(restoreMove -> restoreMove.doMove(scoreDirector));
+        oldMoveList.forEach(oldUndoMove -> oldUndoMove.doMove(scoreDirector));
+        for (ExhaustiveSearchNode restoreNode : newNodeList) {
+            Move<Solution_> restoreMove = restoreNode.getMove();
+            // The queued nodes don't hold an undo move, the node only needs it once it's on the working solution's path
+            restoreNode.setUndoMove(restoreMove.doMove(scoreDirector));
+            restoreMoveList.add(restoreMove);
+        }
         // There is no need to recalculate the score, but we still need to set it
         phaseScope.getSolutionDescriptor().setScore(phaseScope.getWorkingSolution(), stepScope.getStartingStepScore());
         if (assertWorkingSolutionScoreFromScratch) {
@@ -261,6 +281,12 @@ public class DefaultExhaustiveSearchPhase<Solution_> extends AbstractPhase<Solut
                 phaseScope.getBestScore(),
                 phaseScope.getPhaseScoreCalculationSpeed(),
                 phaseScope.getNextStepIndex());
+        long overflowCount = phaseScope.getExpandableNodeQueue().getOverflowCount();
+        if (overflowCount > 0L) {
+            logger.debug("{}    The node queue reached its size limit ({}),"
+                            + " so {} nodes have been explored depth-first instead.",
+                    logIndentation, nodeQueueSizeLimit, overflowCount);
+        }
     }
 
     @Override
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.exhaustivesearch.decider.ExhaustiveSearchDecider;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchLayer;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNodeQueue;
+import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchPhaseScope;
+import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchStepScope;
+import org.optaplanner.core.impl.exhaustivesearch.thread.ExhaustiveSearchWorker;
+import org.optaplanner.core.impl.exhaustivesearch.thread.ExpandNodeResult;
+import org.optaplanner.core.impl.exhaustivesearch.thread.NodePathRestorer;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.ChildThreadType;
+import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
+import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
+import org.optaplanner.core.impl.solver.termination.Termination;
+import org.optaplanner.core.impl.solver.thread.ChildThreadExecutorFactory;
+import org.optaplanner.core.impl.solver.thread.ThreadUtils;
+
+/**
+ * Parallel branch and bound: worker threads expand the best nodes of the search tree,
+ * each on its own child score director, and the solver thread merges their results into the search tree.
+ * <p>
+ * If deterministic, the nodes are expanded in rounds of {@link #workerThreadCount} nodes
+ * and the results of a round are merged in worker index order.
+ * Otherwise, an idle worker thread immediately gets the next best node
+ * and all worker threads share their best pessimistic bound to prune sooner.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class MultiThreadedExhaustiveSearchPhase<Solution_> extends DefaultExhaustiveSearchPhase<Solution_> {
+
+    protected final ChildThreadExecutorFactory childThreadExecutorFactory;
+    protected final int workerThreadCount;
+    protected final boolean deterministic;
+
+    protected List<ExhaustiveSearchDecider<Solution_>> workerDeciderList;
+
+    protected ExecutorService executor;
+    protected BlockingQueue<ExpandNodeResult<Solution_>> resultQueue;
+    protected List<ExhaustiveSearchWorker<Solution_>> workerList;
+    protected AtomicReference<Score> bestPessimisticBoundReference;
+    protected NodePathRestorer<Solution_> nodePathRestorer;
+
+    public MultiThreadedExhaustiveSearchPhase(int phaseIndex, String logIndentation,
+            BestSolutionRecaller<Solution_> bestSolutionRecaller, Termination termination,
+            ChildThreadExecutorFactory childThreadExecutorFactory, int workerThreadCount, boolean deterministic) {
+        super(phaseIndex, logIndentation, bestSolutionRecaller, termination);
+        this.childThreadExecutorFactory = childThreadExecutorFactory;
+        this.workerThreadCount = workerThreadCount;
+        this.deterministic = deterministic;
+    }
+
+    public int getWorkerThreadCount() {
+        return workerThreadCount;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    public List<ExhaustiveSearchDecider<Solution_>> getWorkerDeciderList() {
+        return workerDeciderList;
+    }
+
+    /**
+     * @param workerDeciderList never null, 1 decider per worker thread, each with its own selectors
+     */
+    public void setWorkerDeciderList(List<ExhaustiveSearchDecider<Solution_>> workerDeciderList) {
+        this.workerDeciderList = workerDeciderList;
+    }
+
+    @Override
+    public String getPhaseTypeString() {
+        return "Multithreaded Exhaustive Search";
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    @Override
+    public void solve(DefaultSolverScope<Solution_> solverScope) {
+        ExhaustiveSearchNodeQueue expandableNodeQueue = new ExhaustiveSearchNodeQueue(nodeComparator,
+                decider.isScoreBounderEnabled(), nodeQueueSizeLimit);
+        ExhaustiveSearchPhaseScope<Solution_> phaseScope = new ExhaustiveSearchPhaseScope<>(solverScope);
+        phaseScope.setExpandableNodeQueue(expandableNodeQueue);
+        phaseStarted(phaseScope);
+
+        Deque<ExhaustiveSearchWorker<Solution_>> idleWorkerDeque = new ArrayDeque<>(workerList);
+        List<ExpandNodeResult<Solution_>> roundResultList = new ArrayList<>(workerThreadCount);
+        int busyWorkerCount = 0;
+        boolean terminated = false;
+        while (true) {
+            if (!terminated) {
+                terminated = termination.isPhaseTerminated(phaseScope);
+            }
+            if (terminated) {
+                // Don't wait until the busy worker threads have expanded their node entirely
+                workerList.forEach(ExhaustiveSearchWorker::terminateEarly);
+            } else {
+                if (!deterministic && decider.isScoreBounderEnabled()) {
+                    phaseScope.registerPessimisticBound(bestPessimisticBoundReference.get());
+                }
+                // In deterministic mode, a new round only starts when every worker thread is idle
+                if (!deterministic || busyWorkerCount == 0) {
+                    while (!idleWorkerDeque.isEmpty()) {
+                        ExhaustiveSearchNode node = expandableNodeQueue.poll(phaseScope.getBestPessimisticBound());
+                        if (node == null) {
+                            break;
+                        }
+                        idleWorkerDeque.removeFirst().expandNodeLater(node, phaseScope.getBestPessimisticBound());
+                        busyWorkerCount++;
+                    }
+                }
+            }
+            if (busyWorkerCount == 0) {
+                break;
+            }
+            ExpandNodeResult<Solution_> result = takeResult();
+            if (result == null) {
+                // Interrupted
+                break;
+            }
+            busyWorkerCount--;
+            if (terminated) {
+                // Ignore the result, it might be incomplete
+                continue;
+            }
+            if (deterministic) {
+                roundResultList.add(result);
+                if (busyWorkerCount > 0) {
+                    continue;
+                }
+                roundResultList.sort((a, b) -> Integer.compare(a.getWorkerIndex(), b.getWorkerIndex()));
+                for (ExpandNodeResult<Solution_> roundResult : roundResultList) {
+                    idleWorkerDeque.addLast(workerList.get(roundResult.getWorkerIndex()));
+                    if (!terminated) {
+                        mergeResult(phaseScope, roundResult);
+                        terminated = termination.isPhaseTerminated(phaseScope);
+                    }
+                }
+                roundResultList.clear();
+            } else {
+                idleWorkerDeque.addLast(workerList.get(result.getWorkerIndex()));
+                mergeResult(phaseScope, result);
+            }
+        }
+        phaseEnded(phaseScope);
+    }
+
+    private ExpandNodeResult<Solution_> takeResult() {
+        ExpandNodeResult<Solution_> result;
+        try {
+            result = resultQueue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (result.hasThrownException()) {
+            throw new IllegalStateException("The worker thread with workerIndex ("
+                    + result.getWorkerIndex() + ") has thrown an exception."
+                    + " Relayed here in the parent thread.",
+                    result.getThrowable());
+        }
+        return result;
+    }
+
+    protected void mergeResult(ExhaustiveSearchPhaseScope<Solution_> phaseScope, ExpandNodeResult<Solution_> result) {
+        ExhaustiveSearchStepScope<Solution_> stepScope = new ExhaustiveSearchStepScope<>(phaseScope);
+        ExhaustiveSearchNode expandingNode = result.getExpandingNode();
+        stepScope.setExpandingNode(expandingNode);
+        stepStarted(stepScope);
+        stepScope.setBestScoreImproved(false);
+        boolean scoreBounderEnabled = decider.isScoreBounderEnabled();
+        if (result.getBestLeafMove() != null) {
+            Score leafScore = result.getBestLeafScore();
+            if (scoreBounderEnabled) {
+                // There is no point in bounding a fully initialized score
+                phaseScope.registerPessimisticBound(leafScore);
+            }
+            if (leafScore.compareTo(phaseScope.getBestScore()) > 0) {
+                processBestLeaf(stepScope, result.getBestLeafMove());
+            }
+        }
+        InnerScoreDirector<Solution_> scoreDirector = phaseScope.getScoreDirector();
+        ExhaustiveSearchLayer childLayer = phaseScope.getLayerList().get(expandingNode.getDepth() + 1);
+        for (ExpandNodeResult.ChildNode<Solution_> childNode : result.getChildNodeList()) {
+            // The bestPessimisticBound might have improved since the worker thread pruned
+            if (scoreBounderEnabled
+                    && childNode.getOptimisticBound().compareTo(phaseScope.getBestPessimisticBound()) <= 0) {
+                continue;
+            }
+            ExhaustiveSearchNode moveNode = new ExhaustiveSearchNode(childLayer, expandingNode);
+            moveNode.setMove(childNode.getMove().rebase(scoreDirector));
+            moveNode.setScore(childNode.getScore());
+            moveNode.setOptimisticBound(childNode.getOptimisticBound());
+            phaseScope.addExpandableNode(moveNode);
+            if (scoreBounderEnabled) {
+                phaseScope.registerPessimisticBound(childNode.getPessimisticBound());
+            }
+        }
+        stepScope.setSelectedMoveCount(result.getSelectedMoveCount());
+        phaseScope.getSolverScope().checkYielding();
+        stepEnded(stepScope);
+        phaseScope.setLastCompletedStepScope(stepScope);
+    }
+
+    /**
+     * Restores the working solution of the solver thread to the leaf,
+     * because the {@link BestSolutionRecaller} clones it.
+     * @param stepScope never null
+     * @param leafMove never null, belongs to a worker thread
+     */
+    protected void processBestLeaf(ExhaustiveSearchStepScope<Solution_> stepScope, Move<Solution_> leafMove) {
+        ExhaustiveSearchPhaseScope<Solution_> phaseScope = stepScope.getPhaseScope();
+        List<Move<Solution_>> restoreMoveList = nodePathRestorer.restore(stepScope.getExpandingNode());
+        if (assertWorkingSolutionScoreFromScratch) {
+            // In BRUTE_FORCE the stepScore can be null because it was not calculated
+            if (stepScope.getStartingStepScore() != null) {
+                phaseScope.assertPredictedScoreFromScratch(stepScope.getStartingStepScore(), restoreMoveList);
+            }
+        }
+        InnerScoreDirector<Solution_> scoreDirector = phaseScope.getScoreDirector();
+        Move<Solution_> move = leafMove.rebase(scoreDirector);
+        Move<Solution_> undoMove = move.doMove(scoreDirector);
+        Score score = phaseScope.calculateScore();
+        if (assertWorkingSolutionScoreFromScratch) {
+            phaseScope.assertWorkingScoreFromScratch(score, move);
+        }
+        bestSolutionRecaller.processWorkingSolutionDuringMove(score, stepScope);
+        undoMove.doMove(scoreDirector);
+    }
+
+    @Override
+    public void phaseStarted(ExhaustiveSearchPhaseScope<Solution_> phaseScope) {
+        super.phaseStarted(phaseScope);
+        bestPessimisticBoundReference = new AtomicReference<>(phaseScope.getBestPessimisticBound());
+        nodePathRestorer = new NodePathRestorer<>(phaseScope.getScoreDirector(), false);
+        // Capacity: 1 result per worker thread, because only idle worker threads get a node
+        resultQueue = new ArrayBlockingQueue<>(workerThreadCount);
+        executor = childThreadExecutorFactory.buildExecutor(workerThreadCount);
+        workerList = new ArrayList<>(workerThreadCount);
+        for (int workerIndex = 0; workerIndex < workerThreadCount; workerIndex++) {
+            // Clone the working solution now, while it still represents the start node
+            DefaultSolverScope<Solution_> workerSolverScope = phaseScope.getSolverScope()
+                    .createChildThreadSolverScope(ChildThreadType.MOVE_THREAD);
+            ExhaustiveSearchWorker<Solution_> worker = new ExhaustiveSearchWorker<>(logIndentation, workerIndex,
+                    workerDeciderList.get(workerIndex), workerSolverScope, phaseScope.getLayerList(),
+                    deterministic, bestPessimisticBoundReference, resultQueue);
+            workerList.add(worker);
+            executor.submit(worker);
+        }
+    }
+
+    @Override
+    public void phaseEnded(ExhaustiveSearchPhaseScope<Solution_> phaseScope) {
+        // Tell the worker threads to stop
+        workerList.forEach(ExhaustiveSearchWorker::destroy);
+        // TODO This should probably be in a finally that spawns at least the entire phase, maybe even the entire solve
+        ThreadUtils.shutdownAwaitOrKill(executor, logIndentation, "Multithreaded Exhaustive Search");
+        long childThreadsScoreCalculationCount = 0;
+        for (ExhaustiveSearchWorker<Solution_> worker : workerList) {
+            childThreadsScoreCalculationCount += worker.getCalculationCount();
+        }
+        phaseScope.addChildThreadsScoreCalculationCount(childThreadsScoreCalculationCount);
+        super.phaseEnded(phaseScope);
+        resultQueue = null;
+        workerList = null;
+        bestPessimisticBoundReference = null;
+        nodePathRestorer = null;
+    }
+
+}
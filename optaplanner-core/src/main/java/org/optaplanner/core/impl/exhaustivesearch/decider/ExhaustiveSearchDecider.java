@@ -20,6 +20,8 @@ import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.impl.exhaustivesearch.event.ExhaustiveSearchPhaseLifecycleListener;
 import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchLayer;
 import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+import org.optaplanner.core.impl.exhaustivesearch.node.SymmetryClassFactory;
+import org.optaplanner.core.impl.exhaustivesearch.node.TranspositionTable;
 import org.optaplanner.core.impl.exhaustivesearch.node.bounder.ScoreBounder;
 import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchPhaseScope;
 import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchStepScope;
@@ -45,9 +47,15 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
     protected final boolean scoreBounderEnabled;
     protected final ScoreBounder scoreBounder;
 
+    protected int transpositionTableCapacity = 0;
+    protected SymmetryClassFactory<Solution_, Object> entitySymmetryClassFactory = null;
+    protected SymmetryClassFactory<Solution_, Object> valueSymmetryClassFactory = null;
+
     protected boolean assertMoveScoreFromScratch = false;
     protected boolean assertExpectedUndoMoveScore = false;
 
+    protected TranspositionTable<Solution_> transpositionTable = null;
+
     public ExhaustiveSearchDecider(String logIndentation,
             BestSolutionRecaller<Solution_> bestSolutionRecaller, Termination termination,
             ManualEntityMimicRecorder manualEntityMimicRecorder, MoveSelector moveSelector,
@@ -77,10 +85,45 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
         return scoreBounder;
     }
 
+    public int getTranspositionTableCapacity() {
+        return transpositionTableCapacity;
+    }
+
+    /**
+     * @param transpositionTableCapacity 0 to disable the {@link TranspositionTable}
+     */
+    public void setTranspositionTableCapacity(int transpositionTableCapacity) {
+        this.transpositionTableCapacity = transpositionTableCapacity;
+    }
+
+    public SymmetryClassFactory<Solution_, Object> getEntitySymmetryClassFactory() {
+        return entitySymmetryClassFactory;
+    }
+
+    public void setEntitySymmetryClassFactory(SymmetryClassFactory<Solution_, Object> entitySymmetryClassFactory) {
+        this.entitySymmetryClassFactory = entitySymmetryClassFactory;
+    }
+
+    public SymmetryClassFactory<Solution_, Object> getValueSymmetryClassFactory() {
+        return valueSymmetryClassFactory;
+    }
+
+    public void setValueSymmetryClassFactory(SymmetryClassFactory<Solution_, Object> valueSymmetryClassFactory) {
+        this.valueSymmetryClassFactory = valueSymmetryClassFactory;
+    }
+
+    public boolean isAssertMoveScoreFromScratch() {
+        return assertMoveScoreFromScratch;
+    }
+
     public void setAssertMoveScoreFromScratch(boolean assertMoveScoreFromScratch) {
         this.assertMoveScoreFromScratch = assertMoveScoreFromScratch;
     }
 
+    public boolean isAssertExpectedUndoMoveScore() {
+        return assertExpectedUndoMoveScore;
+    }
+
     public void setAssertExpectedUndoMoveScore(boolean assertExpectedUndoMoveScore) {
         this.assertExpectedUndoMoveScore = assertExpectedUndoMoveScore;
     }
@@ -97,6 +140,11 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
     @Override
     public void phaseStarted(ExhaustiveSearchPhaseScope<Solution_> phaseScope) {
         moveSelector.phaseStarted(phaseScope);
+        if (transpositionTableCapacity > 0) {
+            transpositionTable = new TranspositionTable<>(transpositionTableCapacity,
+                    phaseScope.getSolutionDescriptor(), phaseScope.getWorkingSolution(),
+                    entitySymmetryClassFactory, valueSymmetryClassFactory);
+        }
     }
 
     @Override
@@ -112,6 +160,11 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
     @Override
     public void phaseEnded(ExhaustiveSearchPhaseScope<Solution_> phaseScope) {
         moveSelector.phaseEnded(phaseScope);
+        if (transpositionTable != null) {
+            logger.debug("{}    Transposition table skipped ({}) nodes.",
+                    logIndentation, transpositionTable.getTranspositionCount());
+            transpositionTable = null;
+        }
     }
 
     @Override
@@ -126,6 +179,10 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
 
         int moveIndex = 0;
         ExhaustiveSearchLayer moveLayer = stepScope.getPhaseScope().getLayerList().get(expandingNode.getDepth() + 1);
+        if (transpositionTable != null) {
+            // The moves only change the expanding node's entity, so the entities above it are canonicalized once
+            transpositionTable.expansionStarted(stepScope.getPhaseScope().getLayerList(), moveLayer.getDepth());
+        }
         for (Move<?> move : moveSelector) {
             ExhaustiveSearchNode moveNode = new ExhaustiveSearchNode(moveLayer, expandingNode);
             moveIndex++;
@@ -140,6 +197,9 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
                 break;
             }
         }
+        if (transpositionTable != null) {
+            transpositionTable.expansionEnded();
+        }
         stepScope.setSelectedMoveCount((long) moveIndex);
     }
 
@@ -147,8 +207,9 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
         InnerScoreDirector<Solution_> scoreDirector = stepScope.getScoreDirector();
         // TODO reuse scoreDirector.doAndProcessMove() unless it's an expandableNode
         Move<Solution_> move = moveNode.getMove();
+        // Don't keep the undoMove in the node: DefaultExhaustiveSearchPhase.restoreWorkingSolution() sets it
+        // if the node is ever expanded, which saves memory for the many nodes that get pruned
         Move<Solution_> undoMove = move.doMove(scoreDirector);
-        moveNode.setUndoMove(undoMove);
         processMove(stepScope, moveNode);
         undoMove.doMove(scoreDirector);
         if (assertExpectedUndoMoveScore) {
@@ -174,6 +235,9 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
                 }
                 bestSolutionRecaller.processWorkingSolutionDuringMove(score, stepScope);
             } else {
+                if (isTransposition(phaseScope, moveNode)) {
+                    return;
+                }
                 phaseScope.addExpandableNode(moveNode);
             }
         } else {
@@ -187,6 +251,9 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
                 phaseScope.registerPessimisticBound(score);
                 bestSolutionRecaller.processWorkingSolutionDuringMove(score, stepScope);
             } else {
+                if (isTransposition(phaseScope, moveNode)) {
+                    return;
+                }
                 InnerScoreDirector scoreDirector = phaseScope.getScoreDirector();
                 Score optimisticBound = scoreBounder.calculateOptimisticBound(scoreDirector, score);
                 moveNode.setOptimisticBound(optimisticBound);
@@ -200,4 +267,14 @@ public class ExhaustiveSearchDecider<Solution_> implements ExhaustiveSearchPhase
         }
     }
 
+    private boolean isTransposition(ExhaustiveSearchPhaseScope<Solution_> phaseScope, ExhaustiveSearchNode moveNode) {
+        if (transpositionTable == null
+                || !transpositionTable.isTransposition(phaseScope.getLayerList(), moveNode.getDepth())) {
+            return false;
+        }
+        logger.trace("{}        Move treeId ({}) is equivalent to an earlier node, so it isn't expanded.",
+                logIndentation, moveNode.getTreeId());
+        return true;
+    }
+
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.node;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+import org.optaplanner.core.api.score.Score;
+
+/**
+ * The expandable {@link ExhaustiveSearchNode}s, ordered by the node comparator of the node exploration type.
+ * <p>
+ * If the score bounder is enabled, the nodes are also indexed by their optimistic bound,
+ * so pruning only visits the nodes it removes, instead of every node in the queue.
+ * <p>
+ * Once the queue holds {@link #sizeLimit} nodes, new nodes are pushed on an overflow stack instead,
+ * which is always polled first: that dives depth-first into the subtrees of those nodes
+ * until the overflow stack is empty again, so the memory usage stays bounded.
+ * The overflow stack is pruned lazily, when a node is polled.
+ */
+public class ExhaustiveSearchNodeQueue {
+
+    protected final boolean scoreBounderEnabled;
+    protected final int sizeLimit;
+
+    protected final TreeSet<ExhaustiveSearchNode> nodeSet;
+    protected final TreeSet<ExhaustiveSearchNode> optimisticBoundIndex;
+    protected final Deque<ExhaustiveSearchNode> overflowStack = new ArrayDeque<>();
+
+    protected long overflowCount = 0L;
+
+    public ExhaustiveSearchNodeQueue(Comparator<ExhaustiveSearchNode> nodeComparator, boolean scoreBounderEnabled) {
+        this(nodeComparator, scoreBounderEnabled, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param nodeComparator never null, the best node is the greatest
+     * @param scoreBounderEnabled true if every node has an {@link ExhaustiveSearchNode#getOptimisticBound()}
+     * @param sizeLimit at least 1, {@link Integer#MAX_VALUE} to never fall back to depth-first
+     */
+    public ExhaustiveSearchNodeQueue(Comparator<ExhaustiveSearchNode> nodeComparator, boolean scoreBounderEnabled,
+            int sizeLimit) {
+        if (sizeLimit < 1) {
+            throw new IllegalArgumentException("The sizeLimit (" + sizeLimit + ") must be at least 1.");
+        }
+        this.scoreBounderEnabled = scoreBounderEnabled;
+        this.sizeLimit = sizeLimit;
+        nodeSet = new TreeSet<>(nodeComparator);
+        if (scoreBounderEnabled) {
+            // Break ties with the nodeComparator, so nodes with the same optimistic bound are distinct
+            Comparator<ExhaustiveSearchNode> optimisticBoundComparator = (a, b) -> {
+                int optimisticBoundComparison = a.getOptimisticBound().compareTo(b.getOptimisticBound());
+                return optimisticBoundComparison != 0 ? optimisticBoundComparison : nodeComparator.compare(a, b);
+            };
+            optimisticBoundIndex = new TreeSet<>(optimisticBoundComparator);
+        } else {
+            optimisticBoundIndex = null;
+        }
+    }
+
+    public int getSizeLimit() {
+        return sizeLimit;
+    }
+
+    /**
+     * @return at least 0, the number of nodes that have been pushed on the overflow stack so far
+     */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    public int size() {
+        return nodeSet.size() + overflowStack.size();
+    }
+
+    public boolean isEmpty() {
+        return nodeSet.isEmpty() && overflowStack.isEmpty();
+    }
+
+    /**
+     * @param node never null, must have its {@link ExhaustiveSearchNode#getOptimisticBound()} if the score bounder
+     * is enabled, because that's not allowed to change while it's in this queue
+     */
+    public void add(ExhaustiveSearchNode node) {
+        if (nodeSet.size() >= sizeLimit) {
+            overflowStack.push(node);
+            overflowCount++;
+            return;
+        }
+        nodeSet.add(node);
+        if (scoreBounderEnabled) {
+            optimisticBoundIndex.add(node);
+        }
+    }
+
+    /**
+     * Removes and returns the best node, which is the last pushed node of the overflow stack if it's not empty.
+     * @param bestPessimisticBound null if the score bounder is disabled
+     * @return null if empty
+     */
+    public ExhaustiveSearchNode poll(Score bestPessimisticBound) {
+        while (!overflowStack.isEmpty()) {
+            ExhaustiveSearchNode node = overflowStack.pop();
+            if (!scoreBounderEnabled || node.getOptimisticBound().compareTo(bestPessimisticBound) > 0) {
+                return node;
+            }
+        }
+        ExhaustiveSearchNode node = nodeSet.pollLast();
+        if (node != null && scoreBounderEnabled) {
+            optimisticBoundIndex.remove(node);
+        }
+        return node;
+    }
+
+    /**
+     * Removes every node of which the optimistic bound isn't better than the bestPessimisticBound,
+     * except those on the overflow stack.
+     * @param bestPessimisticBound never null
+     * @return at least 0, the number of removed nodes
+     */
+    public int prune(Score bestPessimisticBound) {
+        if (!scoreBounderEnabled) {
+            throw new IllegalStateException("Impossible situation: the queue can only prune nodes"
+                    + " if the scoreBounderEnabled (" + scoreBounderEnabled + ") is true.");
+        }
+        int prunedCount = 0;
+        Iterator<ExhaustiveSearchNode> it = optimisticBoundIndex.iterator();
+        while (it.hasNext()) {
+            ExhaustiveSearchNode node = it.next();
+            if (node.getOptimisticBound().compareTo(bestPessimisticBound) > 0) {
+                break;
+            }
+            it.remove();
+            nodeSet.remove(node);
+            prunedCount++;
+        }
+        return prunedCount;
+    }
+
+}
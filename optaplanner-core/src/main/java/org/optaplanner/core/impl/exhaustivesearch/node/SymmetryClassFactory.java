@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.node;
+
+import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+
+/**
+ * Groups interchangeable {@link PlanningEntity planning entities} or planning values into symmetry classes.
+ * Swapping 2 entities (or 2 values) of the same symmetry class in any solution must not change its score
+ * and must not change which values are in the value range of any entity.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ * @param <T> the selection type, a {@link PlanningEntity} or a planning value
+ * @see TranspositionTable
+ */
+public interface SymmetryClassFactory<Solution_, T> {
+
+    /**
+     * @param solution never null, the {@link PlanningSolution} to which the selection belongs
+     * @param selection never null, a {@link PlanningEntity} or a planning value
+     * @return never null, equal (by {@link Object#equals(Object)}) for interchangeable selections
+     */
+    Object createSymmetryClass(Solution_ solution, T selection);
+
+}
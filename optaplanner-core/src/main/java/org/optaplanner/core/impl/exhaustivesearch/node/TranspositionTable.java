@@ -0,0 +1,401 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.node;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+
+/**
+ * Detects {@link ExhaustiveSearchNode}s that reach a partial assignment
+ * which is equivalent, under symmetry, to the one of an earlier node of the same depth.
+ * Such a transposition has an equivalent subtree, so it doesn't need to be expanded again.
+ * <p>
+ * Each {@link ExhaustiveSearchLayer} assigns one fixed entity,
+ * so 2 nodes of the same depth only reach an equivalent assignment
+ * by swapping interchangeable entities or interchangeable values.
+ * Those are defined by the entity and value {@link SymmetryClassFactory}.
+ * The assignment is canonicalized before it's compared:
+ * <ul>
+ * <li>Each value is relabeled by the order in which it first appears among the values of its symmetry class.</li>
+ * <li>The assigned entities are sorted by their symmetry class and their relabeled values.</li>
+ * </ul>
+ * The canonical assignments are compared exactly (not by a hash), so there are no false transpositions.
+ * Some equivalent assignments that swap both entities and values aren't detected, which only costs pruning.
+ * <p>
+ * All child nodes of an expanding node share the assignment of the entities above that node,
+ * so between {@link #expansionStarted(List, int)} and {@link #expansionEnded()}
+ * that shared prefix is canonicalized (and sorted) only once, in {@code O(depth * log(depth))}.
+ * Each child node then only canonicalizes the entity that its move assigns
+ * and inserts it in the sorted prefix by binary search, in {@code O(variableCount + log(depth))}.
+ * The hash code of an assignment is the sum of the hash codes of its entity rows, so it's independent of their order
+ * and it doesn't need to visit the prefix again.
+ * Only a hash code match compares the entity rows, in {@code O(depth)}.
+ * Without an expansion, {@link #isTransposition(List, int)} canonicalizes the entire assignment.
+ * <p>
+ * Only the most recently used {@link #capacity} canonical assignments are remembered.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class TranspositionTable<Solution_> {
+
+    private static final int NULL_VALUE = -1;
+
+    protected final int capacity;
+    protected final SolutionDescriptor<Solution_> solutionDescriptor;
+    protected final Solution_ workingSolution;
+    protected final SymmetryClassFactory<Solution_, Object> entitySymmetryClassFactory;
+    protected final SymmetryClassFactory<Solution_, Object> valueSymmetryClassFactory;
+
+    protected final Map<Object, Integer> entitySymmetryClassIdMap = new IdentityHashMap<>();
+    protected final Map<Object, Integer> valueSymmetryClassIdMap = new IdentityHashMap<>();
+    protected final Map<Object, Integer> symmetryClassIdMap = new HashMap<>();
+
+    protected final LinkedHashMap<CanonicalAssignment, Boolean> assignmentMap;
+
+    /** Null if no expansion is ongoing, see {@link #expansionStarted(List, int)}. */
+    protected CanonicalPrefix expansionPrefix = null;
+    protected final Map<Object, Integer> expansionValueLabelMap = new IdentityHashMap<>();
+    protected final Map<Integer, Integer> expansionNextLabelMap = new HashMap<>();
+
+    protected long transpositionCount = 0L;
+
+    /**
+     * @param capacity at least 1
+     * @param solutionDescriptor never null
+     * @param workingSolution never null
+     * @param entitySymmetryClassFactory null if no 2 entities are interchangeable
+     * @param valueSymmetryClassFactory null if no 2 values are interchangeable
+     */
+    public TranspositionTable(int capacity, SolutionDescriptor<Solution_> solutionDescriptor,
+            Solution_ workingSolution,
+            SymmetryClassFactory<Solution_, Object> entitySymmetryClassFactory,
+            SymmetryClassFactory<Solution_, Object> valueSymmetryClassFactory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity (" + capacity + ") must be at least 1.");
+        }
+        this.capacity = capacity;
+        this.solutionDescriptor = solutionDescriptor;
+        this.workingSolution = workingSolution;
+        this.entitySymmetryClassFactory = entitySymmetryClassFactory;
+        this.valueSymmetryClassFactory = valueSymmetryClassFactory;
+        // Access ordered, so the least recently used assignment is evicted first
+        assignmentMap = new LinkedHashMap<CanonicalAssignment, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CanonicalAssignment, Boolean> eldest) {
+                return size() > TranspositionTable.this.capacity;
+            }
+        };
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return at least 0, the number of nodes detected as a transposition so far
+     */
+    public long getTranspositionCount() {
+        return transpositionCount;
+    }
+
+    public int size() {
+        return assignmentMap.size();
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    /**
+     * Canonicalizes the assignment of the entities above the layer of the expanding node once,
+     * for all the child nodes that {@link #isTransposition(List, int)} checks until {@link #expansionEnded()}.
+     * Those child nodes must only change the entity of the expanding node's layer.
+     * @param layerList never null
+     * @param childDepth at least 1, the depth of the child nodes of the expanding node
+     */
+    public void expansionStarted(List<ExhaustiveSearchLayer> layerList, int childDepth) {
+        expansionValueLabelMap.clear();
+        expansionNextLabelMap.clear();
+        expansionPrefix = buildPrefix(layerList, childDepth - 1, expansionValueLabelMap, expansionNextLabelMap);
+    }
+
+    public void expansionEnded() {
+        expansionPrefix = null;
+        expansionValueLabelMap.clear();
+        expansionNextLabelMap.clear();
+    }
+
+    /**
+     * Registers the current assignment of the entities of the layers above the given depth.
+     * @param layerList never null
+     * @param depth at least 1, the depth of the node that was just reached
+     * @return true if an equivalent assignment has already been registered at the same depth
+     */
+    public boolean isTransposition(List<ExhaustiveSearchLayer> layerList, int depth) {
+        CanonicalAssignment assignment = canonicalize(layerList, depth);
+        if (assignmentMap.get(assignment) != null) {
+            transpositionCount++;
+            return true;
+        }
+        assignmentMap.put(assignment, Boolean.TRUE);
+        return false;
+    }
+
+    protected CanonicalAssignment canonicalize(List<ExhaustiveSearchLayer> layerList, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The depth (" + depth + ") must be at least 1.");
+        }
+        int prefixDepth = depth - 1;
+        CanonicalPrefix prefix;
+        Map<Object, Integer> valueLabelMap;
+        Map<Integer, Integer> nextLabelMap;
+        if (expansionPrefix != null && expansionPrefix.depth == prefixDepth) {
+            prefix = expansionPrefix;
+            valueLabelMap = expansionValueLabelMap;
+            nextLabelMap = expansionNextLabelMap;
+        } else {
+            valueLabelMap = new IdentityHashMap<>();
+            nextLabelMap = new HashMap<>();
+            prefix = buildPrefix(layerList, prefixDepth, valueLabelMap, nextLabelMap);
+        }
+        // Doesn't write the labels of new values through, because the next child node of the expansion
+        // needs the labels of the prefix only
+        int[] lastRow = canonicalizeRow(layerList.get(prefixDepth).getEntity(),
+                new ValueLabeler(valueLabelMap, nextLabelMap, false));
+        return new CanonicalAssignment(prefix, lastRow);
+    }
+
+    private CanonicalPrefix buildPrefix(List<ExhaustiveSearchLayer> layerList, int prefixDepth,
+            Map<Object, Integer> valueLabelMap, Map<Integer, Integer> nextLabelMap) {
+        int[][] sortedRows = new int[prefixDepth][];
+        ValueLabeler labeler = new ValueLabeler(valueLabelMap, nextLabelMap, true);
+        for (int i = 0; i < prefixDepth; i++) {
+            sortedRows[i] = canonicalizeRow(layerList.get(i).getEntity(), labeler);
+        }
+        // The entity symmetry class comes first in a row, so interchangeable entities end up next to each other
+        // and the order of the entities doesn't matter
+        Arrays.sort(sortedRows, TranspositionTable::compareRows);
+        return new CanonicalPrefix(sortedRows);
+    }
+
+    /**
+     * @return never null, the entity symmetry class id,
+     * followed by the value symmetry class id and the value label of every genuine variable
+     */
+    private int[] canonicalizeRow(Object entity, ValueLabeler labeler) {
+        List<GenuineVariableDescriptor<Solution_>> variableDescriptorList = solutionDescriptor
+                .findEntityDescriptorOrFail(entity.getClass()).getGenuineVariableDescriptorList();
+        int[] entityRow = new int[1 + 2 * variableDescriptorList.size()];
+        entityRow[0] = entitySymmetryClassIdMap.computeIfAbsent(entity,
+                k -> symmetryClassId(entitySymmetryClassFactory, k));
+        int j = 1;
+        for (GenuineVariableDescriptor<Solution_> variableDescriptor : variableDescriptorList) {
+            Object value = variableDescriptor.getValue(entity);
+            if (value == null) {
+                entityRow[j++] = NULL_VALUE;
+                entityRow[j++] = NULL_VALUE;
+            } else {
+                int valueSymmetryClassId = valueSymmetryClassIdMap.computeIfAbsent(value,
+                        k -> symmetryClassId(valueSymmetryClassFactory, k));
+                entityRow[j++] = valueSymmetryClassId;
+                entityRow[j++] = labeler.label(value, valueSymmetryClassId);
+            }
+        }
+        return entityRow;
+    }
+
+    private int symmetryClassId(SymmetryClassFactory<Solution_, Object> symmetryClassFactory, Object selection) {
+        Object symmetryClass;
+        if (symmetryClassFactory == null) {
+            // Without a factory, every selection is its own symmetry class, by identity
+            symmetryClass = new IdentityKey(selection);
+        } else {
+            symmetryClass = symmetryClassFactory.createSymmetryClass(workingSolution, selection);
+            if (symmetryClass == null) {
+                throw new IllegalStateException("The symmetryClassFactory (" + symmetryClassFactory
+                        + ") returned a null symmetry class for the selection (" + selection + ").");
+            }
+        }
+        return symmetryClassIdMap.computeIfAbsent(symmetryClass, k -> symmetryClassIdMap.size());
+    }
+
+    private static int compareRows(int[] a, int[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int comparison = Integer.compare(a[i], b[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    /**
+     * Relabels each value by the order in which it first appears among the values of its symmetry class.
+     * Unless it writes through, a new label doesn't change the underlying maps,
+     * so they can be shared by all child nodes of an expansion.
+     */
+    private static final class ValueLabeler {
+
+        private final Map<Object, Integer> valueLabelMap;
+        private final Map<Integer, Integer> nextLabelMap;
+        private final boolean writeThrough;
+        private Map<Object, Integer> newValueLabelMap = null;
+        private Map<Integer, Integer> newNextLabelMap = null;
+
+        public ValueLabeler(Map<Object, Integer> valueLabelMap, Map<Integer, Integer> nextLabelMap,
+                boolean writeThrough) {
+            this.valueLabelMap = valueLabelMap;
+            this.nextLabelMap = nextLabelMap;
+            this.writeThrough = writeThrough;
+        }
+
+        public int label(Object value, int valueSymmetryClassId) {
+            if (writeThrough) {
+                return valueLabelMap.computeIfAbsent(value,
+                        k -> nextLabelMap.merge(valueSymmetryClassId, 1, Integer::sum) - 1);
+            }
+            Integer label = valueLabelMap.get(value);
+            if (label != null) {
+                return label;
+            }
+            if (newValueLabelMap == null) {
+                newValueLabelMap = new IdentityHashMap<>(4);
+                newNextLabelMap = new HashMap<>(4);
+            }
+            return newValueLabelMap.computeIfAbsent(value, k -> {
+                int nextLabel = newNextLabelMap.getOrDefault(valueSymmetryClassId,
+                        nextLabelMap.getOrDefault(valueSymmetryClassId, 0));
+                newNextLabelMap.put(valueSymmetryClassId, nextLabel + 1);
+                return nextLabel;
+            });
+        }
+
+    }
+
+    /**
+     * The sorted canonical entity rows above a layer, shared by the {@link CanonicalAssignment}s of its nodes.
+     */
+    protected static final class CanonicalPrefix {
+
+        private final int depth;
+        private final int[][] sortedRows;
+        private final int rowsHashCode;
+
+        public CanonicalPrefix(int[][] sortedRows) {
+            this.depth = sortedRows.length;
+            this.sortedRows = sortedRows;
+            int rowsHashCode = 0;
+            for (int[] row : sortedRows) {
+                rowsHashCode += Arrays.hashCode(row);
+            }
+            this.rowsHashCode = rowsHashCode;
+        }
+
+    }
+
+    /**
+     * The sorted canonical entity rows of a {@link CanonicalPrefix} with the last entity row inserted,
+     * without copying the prefix.
+     */
+    protected static final class CanonicalAssignment {
+
+        private final CanonicalPrefix prefix;
+        private final int[] lastRow;
+        private final int lastRowIndex;
+        private final int hashCode;
+
+        public CanonicalAssignment(CanonicalPrefix prefix, int[] lastRow) {
+            this.prefix = prefix;
+            this.lastRow = lastRow;
+            int insertionIndex = Arrays.binarySearch(prefix.sortedRows, lastRow, TranspositionTable::compareRows);
+            // An equal row may already be there, either position keeps the rows sorted
+            lastRowIndex = insertionIndex >= 0 ? insertionIndex : -insertionIndex - 1;
+            // A sum, so the hash code doesn't depend on the row order and doesn't visit the prefix rows again
+            hashCode = 31 * (prefix.depth + 1) + prefix.rowsHashCode + Arrays.hashCode(lastRow);
+        }
+
+        private int getDepth() {
+            return prefix.depth + 1;
+        }
+
+        private int[] getRow(int index) {
+            if (index < lastRowIndex) {
+                return prefix.sortedRows[index];
+            } else if (index == lastRowIndex) {
+                return lastRow;
+            } else {
+                return prefix.sortedRows[index - 1];
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o instanceof CanonicalAssignment) {
+                CanonicalAssignment other = (CanonicalAssignment) o;
+                int depth = getDepth();
+                if (depth != other.getDepth() || hashCode != other.hashCode) {
+                    return false;
+                }
+                for (int i = 0; i < depth; i++) {
+                    if (!Arrays.equals(getRow(i), other.getRow(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+    private static final class IdentityKey {
+
+        private final Object object;
+
+        public IdentityKey(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IdentityKey && ((IdentityKey) o).object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+
+    }
+
+}
@@ -17,12 +17,12 @@
 package org.optaplanner.core.impl.exhaustivesearch.scope;
 
 import java.util.List;
-import java.util.SortedSet;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchLayer;
 import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNodeQueue;
 import org.optaplanner.core.impl.phase.scope.AbstractPhaseScope;
 import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
 
@@ -32,7 +32,7 @@ import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
 public class ExhaustiveSearchPhaseScope<Solution_> extends AbstractPhaseScope<Solution_> {
 
     private List<ExhaustiveSearchLayer> layerList;
-    private SortedSet<ExhaustiveSearchNode> expandableNodeQueue;
+    private ExhaustiveSearchNodeQueue expandableNodeQueue;
     private Score bestPessimisticBound;
 
     private ExhaustiveSearchStepScope<Solution_> lastCompletedStepScope;
@@ -50,11 +50,11 @@ public class ExhaustiveSearchPhaseScope<Solution_> extends AbstractPhaseScope<So
         this.layerList = layerList;
     }
 
-    public SortedSet<ExhaustiveSearchNode> getExpandableNodeQueue() {
+    public ExhaustiveSearchNodeQueue getExpandableNodeQueue() {
         return expandableNodeQueue;
     }
 
-    public void setExpandableNodeQueue(SortedSet<ExhaustiveSearchNode> expandableNodeQueue) {
+    public void setExpandableNodeQueue(ExhaustiveSearchNodeQueue expandableNodeQueue) {
         this.expandableNodeQueue = expandableNodeQueue;
     }
 
@@ -88,8 +88,7 @@ public class ExhaustiveSearchPhaseScope<Solution_> extends AbstractPhaseScope<So
         if (pessimisticBound.compareTo(bestPessimisticBound) > 0) {
             bestPessimisticBound = pessimisticBound;
             // Prune the queue
-            // TODO optimize this because expandableNodeQueue is too long to iterate
-            expandableNodeQueue.removeIf(node -> node.getOptimisticBound().compareTo(bestPessimisticBound) <= 0);
+            expandableNodeQueue.prune(bestPessimisticBound);
         }
     }
 
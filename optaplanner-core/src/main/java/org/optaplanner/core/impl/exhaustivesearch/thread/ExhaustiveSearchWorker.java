@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.thread;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.exhaustivesearch.decider.ExhaustiveSearchDecider;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchLayer;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+import org.optaplanner.core.impl.exhaustivesearch.node.bounder.ScoreBounder;
+import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchPhaseScope;
+import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchStepScope;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Expands the {@link ExhaustiveSearchNode}s it receives on its own child score director.
+ * It never creates nodes itself: the solver thread merges every {@link ExpandNodeResult} into the search tree.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class ExhaustiveSearchWorker<Solution_> implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExhaustiveSearchWorker.class);
+
+    private final String logIndentation;
+    private final int workerIndex;
+    private final ExhaustiveSearchDecider<Solution_> decider;
+    private final DefaultSolverScope<Solution_> workerSolverScope;
+    private final List<ExhaustiveSearchLayer> layerList;
+    private final boolean deterministic;
+    /**
+     * Shared by all worker threads. Ignored if {@link #deterministic}.
+     */
+    private final AtomicReference<Score> bestPessimisticBoundReference;
+    private final BlockingQueue<ExpandNodeResult<Solution_>> resultQueue;
+
+    /**
+     * At most 1 expand operation at a time, because the solver thread only gives a node to an idle worker thread,
+     * and 1 destroy operation.
+     */
+    private final BlockingQueue<ExpandNodeOperation> operationQueue = new ArrayBlockingQueue<>(2);
+    private volatile boolean terminatedEarly = false;
+    private final AtomicLong calculationCount = new AtomicLong(-1L);
+
+    /**
+     * @param workerSolverScope never null, created with
+     * {@link DefaultSolverScope#createChildThreadSolverScope(org.optaplanner.core.impl.solver.ChildThreadType)}
+     * while the working solution of the solver thread represented the start node
+     */
+    public ExhaustiveSearchWorker(String logIndentation, int workerIndex,
+            ExhaustiveSearchDecider<Solution_> decider, DefaultSolverScope<Solution_> workerSolverScope,
+            List<ExhaustiveSearchLayer> layerList, boolean deterministic,
+            AtomicReference<Score> bestPessimisticBoundReference,
+            BlockingQueue<ExpandNodeResult<Solution_>> resultQueue) {
+        this.logIndentation = logIndentation;
+        this.workerIndex = workerIndex;
+        this.decider = decider;
+        this.workerSolverScope = workerSolverScope;
+        this.layerList = layerList;
+        this.deterministic = deterministic;
+        this.bestPessimisticBoundReference = bestPessimisticBoundReference;
+        this.resultQueue = resultQueue;
+    }
+
+    public int getWorkerIndex() {
+        return workerIndex;
+    }
+
+    /**
+     * This method is thread-safe.
+     * @param expandingNode never null
+     * @param bestPessimisticBound null if the score bounder is disabled
+     */
+    public void expandNodeLater(ExhaustiveSearchNode expandingNode, Score bestPessimisticBound) {
+        // Deliberately add to fail fast if the worker thread is still busy
+        operationQueue.add(new ExpandNodeOperation(expandingNode, bestPessimisticBound));
+    }
+
+    /**
+     * This method is thread-safe.
+     * The result of the node that is being expanded is still added to the result queue, but it's incomplete.
+     */
+    public void terminateEarly() {
+        terminatedEarly = true;
+    }
+
+    /**
+     * This method is thread-safe.
+     */
+    public void destroy() {
+        terminatedEarly = true;
+        operationQueue.add(new ExpandNodeOperation(null, null));
+    }
+
+    @Override
+    public void run() {
+        InnerScoreDirector<Solution_> scoreDirector = workerSolverScope.getScoreDirector();
+        try {
+            ExhaustiveSearchPhaseScope<Solution_> workerPhaseScope = new ExhaustiveSearchPhaseScope<>(workerSolverScope);
+            workerPhaseScope.setLayerList(layerList);
+            decider.solvingStarted(workerSolverScope);
+            decider.phaseStarted(workerPhaseScope);
+            NodePathRestorer<Solution_> nodePathRestorer = new NodePathRestorer<>(scoreDirector, true);
+            int stepIndex = 0;
+            while (true) {
+                ExpandNodeOperation operation;
+                try {
+                    operation = operationQueue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (operation.isDestroy()) {
+                    logger.trace("{}            Worker thread ({}) destroy: step index ({}).",
+                            logIndentation, workerIndex, stepIndex);
+                    break;
+                }
+                ExhaustiveSearchStepScope<Solution_> workerStepScope = new ExhaustiveSearchStepScope<>(
+                        workerPhaseScope, stepIndex);
+                workerStepScope.setExpandingNode(operation.getExpandingNode());
+                nodePathRestorer.restore(operation.getExpandingNode());
+                decider.stepStarted(workerStepScope);
+                ExpandNodeResult<Solution_> result = expandNode(workerStepScope, operation.getBestPessimisticBound());
+                decider.stepEnded(workerStepScope);
+                logger.trace("{}            Worker thread ({}) expanded: treeId ({}), expandable child count ({}).",
+                        logIndentation, workerIndex, result.getExpandingNode().getTreeId(),
+                        result.getChildNodeList().size());
+                // Deliberately add to fail fast if there is not enough capacity (which is impossible)
+                resultQueue.add(result);
+                stepIndex++;
+            }
+            decider.phaseEnded(workerPhaseScope);
+            decider.solvingEnded(workerSolverScope);
+            logger.trace("{}            Worker thread ({}) finished.", logIndentation, workerIndex);
+        } catch (RuntimeException | Error throwable) {
+            // Any Exception or even Error that happens here (on a worker thread) must be stored
+            // in the resultQueue in order to be propagated to the solver thread.
+            logger.trace("{}            Worker thread ({}) exception that will be propagated to the solver thread.",
+                    logIndentation, workerIndex, throwable);
+            resultQueue.add(new ExpandNodeResult<>(workerIndex, throwable));
+        } finally {
+            calculationCount.set(scoreDirector.getCalculationCount());
+            scoreDirector.close();
+        }
+    }
+
+    protected ExpandNodeResult<Solution_> expandNode(ExhaustiveSearchStepScope<Solution_> stepScope,
+            Score bestPessimisticBound) {
+        ExhaustiveSearchNode expandingNode = stepScope.getExpandingNode();
+        ExpandNodeResult<Solution_> result = new ExpandNodeResult<>(workerIndex, expandingNode);
+        InnerScoreDirector<Solution_> scoreDirector = stepScope.getScoreDirector();
+        decider.getManualEntityMimicRecorder().setRecordedEntity(
+                scoreDirector.lookUpWorkingObject(expandingNode.getEntity()));
+        boolean scoreBounderEnabled = decider.isScoreBounderEnabled();
+        ScoreBounder scoreBounder = decider.getScoreBounder();
+        boolean lastLayer = layerList.get(expandingNode.getDepth() + 1).isLastLayer();
+        Score startingScore = stepScope.getStartingStepScore();
+        long moveIndex = 0L;
+        for (Move<?> selectedMove : decider.getMoveSelector()) {
+            if (terminatedEarly) {
+                break;
+            }
+            Move<Solution_> move = (Move<Solution_>) selectedMove;
+            moveIndex++;
+            // Do not filter out pointless moves, because the original value of the entity(s) is irrelevant.
+            // If the original value is null and the variable is nullable, the move to null must be done too.
+            Move<Solution_> undoMove = move.doMove(scoreDirector);
+            if (!scoreBounderEnabled && !lastLayer) {
+                result.addChildNode(move, null, null, null);
+            } else {
+                Score score = scoreDirector.calculateScore();
+                if (decider.isAssertMoveScoreFromScratch()) {
+                    scoreDirector.assertWorkingScoreFromScratch(score, move);
+                }
+                if (lastLayer) {
+                    result.addLeaf(move, score);
+                    if (scoreBounderEnabled) {
+                        // There is no point in bounding a fully initialized score
+                        bestPessimisticBound = registerPessimisticBound(bestPessimisticBound, score);
+                    }
+                } else {
+                    if (!deterministic) {
+                        bestPessimisticBound = registerPessimisticBound(bestPessimisticBound,
+                                bestPessimisticBoundReference.get());
+                    }
+                    Score optimisticBound = scoreBounder.calculateOptimisticBound(scoreDirector, score);
+                    if (optimisticBound.compareTo(bestPessimisticBound) > 0) {
+                        // It's still worth investigating this node further (no need to prune it)
+                        Score pessimisticBound = scoreBounder.calculatePessimisticBound(scoreDirector, score);
+                        result.addChildNode(move, score, optimisticBound, pessimisticBound);
+                        bestPessimisticBound = registerPessimisticBound(bestPessimisticBound, pessimisticBound);
+                    }
+                }
+            }
+            undoMove.doMove(scoreDirector);
+            if (decider.isAssertExpectedUndoMoveScore()) {
+                // In BRUTE_FORCE a stepScore can be null because it was not calculated
+                if (startingScore != null) {
+                    scoreDirector.assertExpectedUndoMoveScore(move, startingScore);
+                }
+            }
+        }
+        result.setSelectedMoveCount(moveIndex);
+        return result;
+    }
+
+    private Score registerPessimisticBound(Score bestPessimisticBound, Score pessimisticBound) {
+        if (pessimisticBound.compareTo(bestPessimisticBound) <= 0) {
+            return bestPessimisticBound;
+        }
+        if (!deterministic) {
+            // Share it with the other worker threads, unless one of them already found a better bound
+            Score sharedBound = bestPessimisticBoundReference.get();
+            while (pessimisticBound.compareTo(sharedBound) > 0
+                    && !bestPessimisticBoundReference.compareAndSet(sharedBound, pessimisticBound)) {
+                sharedBound = bestPessimisticBoundReference.get();
+            }
+        }
+        return pessimisticBound;
+    }
+
+    /**
+     * This method is thread-safe.
+     * @return at least 0
+     */
+    public long getCalculationCount() {
+        long calculationCount = this.calculationCount.get();
+        if (calculationCount == -1L) {
+            logger.info("{}Score calculation speed will be too low"
+                    + " because worker thread ({})'s destroy wasn't processed soon enough.",
+                    logIndentation, workerIndex);
+            return 0L;
+        }
+        return calculationCount;
+    }
+
+}
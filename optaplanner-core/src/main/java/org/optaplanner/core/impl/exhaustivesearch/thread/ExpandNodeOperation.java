@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.thread;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+
+public class ExpandNodeOperation {
+
+    private final ExhaustiveSearchNode expandingNode;
+    private final Score bestPessimisticBound;
+
+    /**
+     * @param expandingNode null to destroy the worker thread
+     * @param bestPessimisticBound null if the score bounder is disabled
+     */
+    public ExpandNodeOperation(ExhaustiveSearchNode expandingNode, Score bestPessimisticBound) {
+        this.expandingNode = expandingNode;
+        this.bestPessimisticBound = bestPessimisticBound;
+    }
+
+    public ExhaustiveSearchNode getExpandingNode() {
+        return expandingNode;
+    }
+
+    public Score getBestPessimisticBound() {
+        return bestPessimisticBound;
+    }
+
+    public boolean isDestroy() {
+        return expandingNode == null;
+    }
+
+}
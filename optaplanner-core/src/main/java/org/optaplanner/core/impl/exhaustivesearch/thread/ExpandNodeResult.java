@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.thread;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+import org.optaplanner.core.impl.heuristic.move.Move;
+
+/**
+ * The children of an {@link ExhaustiveSearchNode}, as expanded by a worker thread.
+ * Their moves still belong to the worker thread's score director.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class ExpandNodeResult<Solution_> {
+
+    private final int workerIndex;
+    private final ExhaustiveSearchNode expandingNode;
+    private final Throwable throwable;
+
+    private final List<ChildNode<Solution_>> childNodeList;
+    private Move<Solution_> bestLeafMove = null;
+    private Score bestLeafScore = null;
+    private long selectedMoveCount = 0L;
+
+    public ExpandNodeResult(int workerIndex, ExhaustiveSearchNode expandingNode) {
+        this.workerIndex = workerIndex;
+        this.expandingNode = expandingNode;
+        this.throwable = null;
+        childNodeList = new ArrayList<>();
+    }
+
+    public ExpandNodeResult(int workerIndex, Throwable throwable) {
+        this.workerIndex = workerIndex;
+        this.expandingNode = null;
+        this.throwable = throwable;
+        childNodeList = null;
+    }
+
+    public int getWorkerIndex() {
+        return workerIndex;
+    }
+
+    public ExhaustiveSearchNode getExpandingNode() {
+        return expandingNode;
+    }
+
+    public boolean hasThrownException() {
+        return throwable != null;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * @return never null, the expandable children in the order they were selected
+     */
+    public List<ChildNode<Solution_>> getChildNodeList() {
+        return childNodeList;
+    }
+
+    /**
+     * Only the best leaf is kept, because the other leaves of the same parent can never become the best solution.
+     * @return null if the children aren't leaves
+     */
+    public Move<Solution_> getBestLeafMove() {
+        return bestLeafMove;
+    }
+
+    public Score getBestLeafScore() {
+        return bestLeafScore;
+    }
+
+    public long getSelectedMoveCount() {
+        return selectedMoveCount;
+    }
+
+    public void setSelectedMoveCount(long selectedMoveCount) {
+        this.selectedMoveCount = selectedMoveCount;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    public void addChildNode(Move<Solution_> move, Score score, Score optimisticBound, Score pessimisticBound) {
+        childNodeList.add(new ChildNode<>(move, score, optimisticBound, pessimisticBound));
+    }
+
+    public void addLeaf(Move<Solution_> move, Score score) {
+        if (bestLeafScore == null || score.compareTo(bestLeafScore) > 0) {
+            bestLeafMove = move;
+            bestLeafScore = score;
+        }
+    }
+
+    public static class ChildNode<Solution_> {
+
+        private final Move<Solution_> move;
+        private final Score score;
+        private final Score optimisticBound;
+        private final Score pessimisticBound;
+
+        public ChildNode(Move<Solution_> move, Score score, Score optimisticBound, Score pessimisticBound) {
+            this.move = move;
+            this.score = score;
+            this.optimisticBound = optimisticBound;
+            this.pessimisticBound = pessimisticBound;
+        }
+
+        public Move<Solution_> getMove() {
+            return move;
+        }
+
+        /**
+         * @return null if the score bounder is disabled
+         */
+        public Score getScore() {
+            return score;
+        }
+
+        public Score getOptimisticBound() {
+            return optimisticBound;
+        }
+
+        public Score getPessimisticBound() {
+            return pessimisticBound;
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.thread;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+
+/**
+ * Tracks which {@link ExhaustiveSearchNode} the working solution of a score director currently represents,
+ * so it can move to another node by only undoing and redoing the moves below their common ancestor.
+ * <p>
+ * Every worker thread has its own instance, because the nodes don't hold the undo moves of a child score director.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class NodePathRestorer<Solution_> {
+
+    protected final InnerScoreDirector<Solution_> scoreDirector;
+    protected final boolean rebaseMoves;
+
+    /**
+     * The node at index {@code i} has depth {@code i + 1}: the start node is never in this list.
+     */
+    protected final List<ExhaustiveSearchNode> pathNodeList = new ArrayList<>();
+    protected final List<Move<Solution_>> pathUndoMoveList = new ArrayList<>();
+
+    /**
+     * @param scoreDirector never null, its working solution must represent the start node
+     * @param rebaseMoves true if the moves of the nodes belong to another score director
+     */
+    public NodePathRestorer(InnerScoreDirector<Solution_> scoreDirector, boolean rebaseMoves) {
+        this.scoreDirector = scoreDirector;
+        this.rebaseMoves = rebaseMoves;
+    }
+
+    /**
+     * Does not calculate the score, but sets the {@link ExhaustiveSearchNode#getScore()}, if there is one.
+     * @param node never null
+     * @return never null, the moves that have been done, in order
+     */
+    public List<Move<Solution_>> restore(ExhaustiveSearchNode node) {
+        int depth = node.getDepth();
+        ExhaustiveSearchNode[] targetPath = new ExhaustiveSearchNode[depth];
+        ExhaustiveSearchNode ancestor = node;
+        for (int i = depth - 1; i >= 0; i--) {
+            targetPath[i] = ancestor;
+            ancestor = ancestor.getParent();
+        }
+        int commonDepth = 0;
+        int pathDepth = pathNodeList.size();
+        while (commonDepth < depth && commonDepth < pathDepth
+                && pathNodeList.get(commonDepth) == targetPath[commonDepth]) {
+            commonDepth++;
+        }
+        List<Move<Solution_>> restoreMoveList = new ArrayList<>((pathDepth - commonDepth) + (depth - commonDepth));
+        for (int i = pathDepth - 1; i >= commonDepth; i--) {
+            Move<Solution_> undoMove = pathUndoMoveList.remove(i);
+            pathNodeList.remove(i);
+            undoMove.doMove(scoreDirector);
+            restoreMoveList.add(undoMove);
+        }
+        for (int i = commonDepth; i < depth; i++) {
+            Move<Solution_> move = targetPath[i].getMove();
+            if (rebaseMoves) {
+                move = move.rebase(scoreDirector);
+            }
+            Move<Solution_> undoMove = move.doMove(scoreDirector);
+            pathNodeList.add(targetPath[i]);
+            pathUndoMoveList.add(undoMove);
+            restoreMoveList.add(move);
+        }
+        Score score = node.getScore();
+        if (score != null) {
+            // There is no need to recalculate the score, but we still need to set it
+            scoreDirector.getSolutionDescriptor().setScore(scoreDirector.getWorkingSolution(), score);
+        }
+        return restoreMoveList;
+    }
+
+}
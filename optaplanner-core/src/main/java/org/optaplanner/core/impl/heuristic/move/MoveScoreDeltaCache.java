@@ -0,0 +1,408 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.move;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
+import org.optaplanner.core.impl.domain.variable.listener.support.VariableChangeTracker;
+import org.optaplanner.core.impl.phase.scope.AbstractMoveScope;
+import org.optaplanner.core.impl.phase.scope.AbstractPhaseScope;
+import org.optaplanner.core.impl.phase.scope.AbstractStepScope;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.score.director.MoveLocalScoreCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the score difference of each evaluated {@link Move} across steps.
+ * A cached score difference is invalidated as soon as a step touches
+ * one of the planning entities or planning values that the move depends on,
+ * as reported through the {@link VariableChangeTracker} notifications of that step.
+ * Each cached score difference is indexed by its dependencies,
+ * so invalidation only visits the cached score differences that depend on a touched object.
+ * <p>
+ * The cache holds at most {@link #getCapacity()} score differences
+ * and evicts the least recently used one when it's full.
+ * <p>
+ * Only correct if the score calculator is a {@link MoveLocalScoreCalculator}
+ * and the moves implement {@link Object#equals(Object)}, {@link Move#getPlanningEntities()}
+ * and {@link Move#getPlanningValues()}.
+ * <p>
+ * A decider builds 1 cache per phase with {@link #buildForPhase(AbstractPhaseScope, int, boolean)},
+ * evaluates its moves through {@link #doAndProcessMove(AbstractMoveScope, boolean, Consumer)}
+ * and calls {@link #stepPicked(AbstractStepScope)}, {@link #stepEnded(AbstractStepScope)}
+ * and {@link #phaseEnded(AbstractPhaseScope, String)}.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class MoveScoreDeltaCache<Solution_> implements VariableChangeTracker<Solution_> {
+
+    public static final int DEFAULT_CAPACITY = 100_000;
+
+    /**
+     * Stale dependency references are only purged once there are at least this many
+     * and they outnumber the live ones, so purging stays amortized O(1) per cached score difference.
+     */
+    protected static final int COMPACTION_THRESHOLD = 1024;
+
+    /**
+     * The working solution can change between phases, so never reuse the cache of a previous phase.
+     * @param phaseScope never null
+     * @param capacity {@code >= 1}, the maximum number of cached score differences
+     * @param assertCacheHits true to evaluate the moves of cache hits anyway
+     * and fail fast if their score difference differs from the cached one
+     * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+     * @return never null
+     */
+    public static <Solution_> MoveScoreDeltaCache<Solution_> buildForPhase(AbstractPhaseScope<Solution_> phaseScope,
+            int capacity, boolean assertCacheHits) {
+        InnerScoreDirector<Solution_> scoreDirector = phaseScope.getScoreDirector();
+        if (!scoreDirector.supportsMoveScoreDeltaCache()) {
+            throw new IllegalStateException("The moveScoreDeltaCacheEnabled (true"
+                    + ") requires a score calculator that implements "
+                    + MoveLocalScoreCalculator.class.getSimpleName() + ".\n"
+                    + "Maybe disable the moveScoreDeltaCacheEnabled or use another scoreDirector.");
+        }
+        MoveScoreDeltaCache<Solution_> moveScoreDeltaCache
+                = new MoveScoreDeltaCache<>(scoreDirector.getSolutionDescriptor(), capacity);
+        moveScoreDeltaCache.setAssertCacheHits(assertCacheHits);
+        return moveScoreDeltaCache;
+    }
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    protected final SolutionDescriptor<Solution_> solutionDescriptor;
+    protected final int capacity;
+    protected boolean assertCacheHits = false;
+
+    /**
+     * In access order, so the eldest entry is the least recently used one.
+     */
+    protected final Map<Move<Solution_>, CachedScoreDelta> cachedScoreDeltaMap;
+    /**
+     * Maps each dependency to the cached score differences that depend on it.
+     * Entries that are no longer cached linger here until their dependency is touched or the map is compacted.
+     */
+    protected final Map<Object, List<CachedScoreDelta>> dependentListMap = new HashMap<>();
+    protected final Set<Object> touchedSet = new HashSet<>();
+    protected long dependentReferenceCount = 0L;
+    protected long staleReferenceCount = 0L;
+
+    protected long hitCount = 0L;
+    protected long missCount = 0L;
+    protected long invalidationCount = 0L;
+    protected long evictionCount = 0L;
+
+    public MoveScoreDeltaCache(SolutionDescriptor<Solution_> solutionDescriptor) {
+        this(solutionDescriptor, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param solutionDescriptor never null
+     * @param capacity {@code >= 1}, the maximum number of cached score differences
+     */
+    public MoveScoreDeltaCache(SolutionDescriptor<Solution_> solutionDescriptor, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity (" + capacity + ") must be at least 1.");
+        }
+        this.solutionDescriptor = solutionDescriptor;
+        this.capacity = capacity;
+        cachedScoreDeltaMap = new LinkedHashMap<Move<Solution_>, CachedScoreDelta>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Move<Solution_>, CachedScoreDelta> eldest) {
+                if (size() <= MoveScoreDeltaCache.this.capacity) {
+                    return false;
+                }
+                markStale(eldest.getValue());
+                evictionCount++;
+                return true;
+            }
+        };
+    }
+
+    public void setAssertCacheHits(boolean assertCacheHits) {
+        this.assertCacheHits = assertCacheHits;
+    }
+
+    /**
+     * @return {@code >= 1}
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return {@code >= 0}
+     */
+    public int size() {
+        return cachedScoreDeltaMap.size();
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    /**
+     * Like {@link InnerScoreDirector#doAndProcessMove(Move, boolean, Consumer)},
+     * but if the move's score difference is cached, the move isn't done:
+     * its score is the last step score plus that cached score difference.
+     * Otherwise, the move is done and its score difference is cached.
+     * @param moveScope never null
+     * @param assertMoveScoreFromScratch true will hurt performance
+     * @param moveProcessor never null, receives the score of the move
+     */
+    public void doAndProcessMove(AbstractMoveScope<Solution_> moveScope, boolean assertMoveScoreFromScratch,
+            Consumer<Score> moveProcessor) {
+        Move<Solution_> move = moveScope.getMove();
+        Score lastStepScore = moveScope.getStepScope().getPhaseScope().getLastCompletedStepScope().getScore();
+        Score cachedScoreDelta = getScoreDelta(move);
+        if (cachedScoreDelta != null && !assertCacheHits) {
+            moveProcessor.accept(lastStepScore.add(cachedScoreDelta));
+            return;
+        }
+        // Before the move is done, because the dependencies include the old planning values
+        Object[] dependencies = cachedScoreDelta == null ? buildDependencies(move) : null;
+        moveScope.getScoreDirector().doAndProcessMove(move, assertMoveScoreFromScratch, score -> {
+            Score scoreDelta = score.subtract(lastStepScore);
+            if (cachedScoreDelta == null) {
+                putScoreDelta(move, scoreDelta, dependencies);
+            } else if (!cachedScoreDelta.equals(scoreDelta)) {
+                throw new IllegalStateException("Move score delta cache corruption: the cached scoreDelta ("
+                        + cachedScoreDelta + ") is not the scoreDelta (" + scoreDelta
+                        + ") of the move (" + move + ") evaluated from the lastStepScore (" + lastStepScore + ").\n"
+                        + "  The score calculator implements " + MoveLocalScoreCalculator.class.getSimpleName()
+                        + ", but one of its constraints is not move local.\n"
+                        + "  Maybe remove that interface or disable the moveScoreDeltaCacheEnabled.");
+            }
+            moveProcessor.accept(score);
+        });
+    }
+
+    /**
+     * Tracks the picked step, which is done after this method, until {@link #stepEnded(AbstractStepScope)}.
+     * @param stepScope never null
+     */
+    public void stepPicked(AbstractStepScope<Solution_> stepScope) {
+        stepScope.getScoreDirector().getVariableListenerSupport().setVariableChangeTracker(this);
+    }
+
+    /**
+     * @param stepScope never null
+     */
+    public void stepEnded(AbstractStepScope<Solution_> stepScope) {
+        stepScope.getScoreDirector().getVariableListenerSupport().setVariableChangeTracker(null);
+        invalidateTouched();
+    }
+
+    /**
+     * @param phaseScope never null
+     * @param logIndentation never null
+     */
+    public void phaseEnded(AbstractPhaseScope<Solution_> phaseScope, String logIndentation) {
+        phaseScope.getScoreDirector().getVariableListenerSupport().setVariableChangeTracker(null);
+        logger.debug("{}    Move score delta cache: hit count ({}), miss count ({}), invalidation count ({}),"
+                + " eviction count ({}).",
+                logIndentation, hitCount, missCount, invalidationCount, evictionCount);
+    }
+
+    /**
+     * @param move never null
+     * @return null if the move's score difference isn't cached or has been invalidated
+     */
+    public Score getScoreDelta(Move<Solution_> move) {
+        CachedScoreDelta cachedScoreDelta = cachedScoreDeltaMap.get(move);
+        if (cachedScoreDelta == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return cachedScoreDelta.scoreDelta;
+    }
+
+    /**
+     * Must be called before the move is done, so the old planning values of its entities can be read.
+     * @param move never null
+     * @return never null, the entities and values that the move's score difference depends on
+     */
+    public Object[] buildDependencies(Move<Solution_> move) {
+        List<Object> dependencyList;
+        try {
+            dependencyList = new ArrayList<>(move.getPlanningValues());
+            for (Object entity : move.getPlanningEntities()) {
+                dependencyList.add(entity);
+                addGenuineValues(dependencyList, entity);
+            }
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalStateException("The move (" + move + ") of class (" + move.getClass()
+                    + ") must implement getPlanningEntities() and getPlanningValues()"
+                    + " to use the move score delta cache.", e);
+        }
+        return dependencyList.toArray();
+    }
+
+    /**
+     * @param move never null
+     * @param scoreDelta never null, the move score minus the last step score
+     * @param dependencies never null, see {@link #buildDependencies(Move)}
+     */
+    public void putScoreDelta(Move<Solution_> move, Score scoreDelta, Object[] dependencies) {
+        CachedScoreDelta cachedScoreDelta = new CachedScoreDelta(move, scoreDelta, dependencies);
+        CachedScoreDelta oldCachedScoreDelta = cachedScoreDeltaMap.put(move, cachedScoreDelta);
+        if (oldCachedScoreDelta != null) {
+            markStale(oldCachedScoreDelta);
+        }
+        for (Object dependency : dependencies) {
+            dependentListMap.computeIfAbsent(dependency, k -> new ArrayList<>()).add(cachedScoreDelta);
+        }
+        dependentReferenceCount += dependencies.length;
+        compactIfMostlyStale();
+    }
+
+    private void markStale(CachedScoreDelta cachedScoreDelta) {
+        cachedScoreDelta.cached = false;
+        staleReferenceCount += cachedScoreDelta.dependencies.length;
+    }
+
+    private void compactIfMostlyStale() {
+        if (staleReferenceCount < COMPACTION_THRESHOLD || staleReferenceCount * 2L < dependentReferenceCount) {
+            return;
+        }
+        for (Iterator<List<CachedScoreDelta>> it = dependentListMap.values().iterator(); it.hasNext(); ) {
+            List<CachedScoreDelta> dependentList = it.next();
+            dependentList.removeIf(cachedScoreDelta -> !cachedScoreDelta.cached);
+            if (dependentList.isEmpty()) {
+                it.remove();
+            }
+        }
+        dependentReferenceCount -= staleReferenceCount;
+        staleReferenceCount = 0L;
+    }
+
+    private void addGenuineValues(Collection<Object> objects, Object entity) {
+        EntityDescriptor<Solution_> entityDescriptor = solutionDescriptor.findEntityDescriptorOrFail(entity.getClass());
+        for (GenuineVariableDescriptor<Solution_> variableDescriptor : entityDescriptor.getGenuineVariableDescriptors()) {
+            Object value = variableDescriptor.getValue(entity);
+            if (value != null) {
+                objects.add(value);
+            }
+        }
+    }
+
+    @Override
+    public void variableTouched(VariableDescriptor<Solution_> variableDescriptor, Object entity) {
+        touchedSet.add(entity);
+        Object value = variableDescriptor.getValue(entity);
+        if (value != null) {
+            touchedSet.add(value);
+        }
+    }
+
+    @Override
+    public void entityTouched(EntityDescriptor<Solution_> entityDescriptor, Object entity) {
+        touchedSet.add(entity);
+        addGenuineValues(touchedSet, entity);
+    }
+
+    /**
+     * Removes every cached score difference that depends on an entity or value touched since the last call.
+     * Only visits the cached score differences that depend on a touched object.
+     */
+    public void invalidateTouched() {
+        if (touchedSet.isEmpty()) {
+            return;
+        }
+        for (Object touched : touchedSet) {
+            List<CachedScoreDelta> dependentList = dependentListMap.remove(touched);
+            if (dependentList == null) {
+                continue;
+            }
+            dependentReferenceCount -= dependentList.size();
+            for (CachedScoreDelta cachedScoreDelta : dependentList) {
+                if (cachedScoreDelta.cached) {
+                    cachedScoreDeltaMap.remove(cachedScoreDelta.move);
+                    markStale(cachedScoreDelta);
+                    invalidationCount++;
+                }
+                // This reference to it has just been removed
+                staleReferenceCount--;
+            }
+        }
+        touchedSet.clear();
+        compactIfMostlyStale();
+    }
+
+    public void clear() {
+        cachedScoreDeltaMap.clear();
+        dependentListMap.clear();
+        touchedSet.clear();
+        dependentReferenceCount = 0L;
+        staleReferenceCount = 0L;
+    }
+
+    public void resetStatistics() {
+        hitCount = 0L;
+        missCount = 0L;
+        invalidationCount = 0L;
+        evictionCount = 0L;
+    }
+
+    private static class CachedScoreDelta {
+
+        private final Object move;
+        private final Score scoreDelta;
+        private final Object[] dependencies;
+        private boolean cached = true;
+
+        private CachedScoreDelta(Object move, Score scoreDelta, Object[] dependencies) {
+            this.move = move;
+            this.scoreDelta = scoreDelta;
+            this.dependencies = dependencies;
+        }
+
+    }
+
+}
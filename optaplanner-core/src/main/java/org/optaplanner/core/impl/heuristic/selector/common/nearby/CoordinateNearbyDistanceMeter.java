@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.selector.common.nearby;
+
+/**
+ * A {@link NearbyDistanceMeter} for origins and destinations that have coordinates,
+ * such as a latitude and longitude.
+ * <p>
+ * Nearby selection indexes the destinations of this meter in a k-d tree
+ * instead of calculating a {@link NearbyDistanceMatrix},
+ * so it only uses memory linear to the number of destinations
+ * and finds the n nearest destinations of an origin in roughly {@code O(n + log(destinationSize))}.
+ * This only applies if every origin has the same destinations (so not for a value range on the entity).
+ * <p>
+ * The k-d tree ranks destinations by the Euclidean distance between their coordinates.
+ * Overriding {@link #getNearbyDistance(Object, Object)} does not change the nearby order,
+ * so only do that for a distance that is monotonic in the Euclidean distance (for example a multiple of it).
+ * @param <O> the origin type
+ * @param <D> the destination type
+ */
+public interface CoordinateNearbyDistanceMeter<O, D> extends NearbyDistanceMeter<O, D> {
+
+    /**
+     * @param origin never null
+     * @return never null, the same length for every origin and destination
+     */
+    double[] getOriginCoordinates(O origin);
+
+    /**
+     * Not called for the null value of a nullable planning variable,
+     * which is the farthest destination of every origin.
+     * @param destination never null
+     * @return never null, the same length for every origin and destination
+     */
+    double[] getDestinationCoordinates(D destination);
+
+    /**
+     * @param origin never null
+     * @param destination never null
+     * @return the Euclidean distance between their coordinates
+     */
+    @Override
+    default double getNearbyDistance(O origin, D destination) {
+        double[] originCoordinates = getOriginCoordinates(origin);
+        double[] destinationCoordinates = getDestinationCoordinates(destination);
+        double squaredDistance = 0.0;
+        for (int i = 0; i < originCoordinates.length; i++) {
+            double difference = destinationCoordinates[i] - originCoordinates[i];
+            squaredDistance += difference * difference;
+        }
+        return Math.sqrt(squaredDistance);
+    }
+
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.selector.common.nearby;
+
+import java.util.List;
+
+/**
+ * Finds the nearest destinations of an origin with a k-d tree over the destination coordinates,
+ * instead of precalculating them for every origin like {@link NearbyDistanceMatrix} does.
+ * <p>
+ * The tree is implicit: the destination indexes are permuted in a single {@code int[]}
+ * so the median of every subrange splits that subrange on one dimension.
+ * So the memory usage is linear to the number of destinations, regardless of the number of origins.
+ * <p>
+ * Destinations with the same distance are ordered by their index in the destination list,
+ * so the nearby order is the same as the one of {@link NearbyDistanceMatrix} for the same distances.
+ * <p>
+ * A null destination (the null value of a nullable planning variable) has no coordinates,
+ * so it's not in the tree: it's the farthest destination of every origin,
+ * after all non null destinations.
+ * <p>
+ * The nearest destinations of the last origin are remembered,
+ * because the original (non random) nearby iterators ask for the next nearbyIndex of the same origin.
+ * Therefore, this class is not thread-safe.
+ * @see CoordinateNearbyDistanceMeter
+ */
+public final class KdTreeNearbyDestinationLookup implements NearbyDestinationLookup {
+
+    /** Subranges of this size or smaller are not split further, but scanned linearly. */
+    private static final int LEAF_SIZE = 8;
+
+    private final CoordinateNearbyDistanceMeter nearbyDistanceMeter;
+    private final List<Object> destinationList;
+    private final int destinationCount;
+    private final int dimensionCount;
+    /** Indexed by {@code destinationIndex * dimensionCount + dimension}, unused for a null destination. */
+    private final double[] coordinates;
+    /** A permutation of the indexes of the non null destinations. */
+    private final int[] tree;
+    /** The indexes of the null destinations, which are nearer than no other destination. */
+    private final int[] nullDestinationIndexes;
+
+    private Object cachedOrigin = null;
+    private int[] cachedNearestIndexes = new int[0];
+    private int cachedNearestSize = 0;
+
+    // Max heap on (distance, destinationIndex) of the nearest destinations found so far during a search
+    private double[] heapDistances = new double[0];
+    private int[] heapIndexes = new int[0];
+    private int heapSize = 0;
+    private int heapCapacity = 0;
+
+    /**
+     * @param nearbyDistanceMeter never null
+     * @param destinationList never null, the destinations of every origin
+     */
+    public KdTreeNearbyDestinationLookup(CoordinateNearbyDistanceMeter nearbyDistanceMeter,
+            List<Object> destinationList) {
+        this.nearbyDistanceMeter = nearbyDistanceMeter;
+        this.destinationList = destinationList;
+        destinationCount = destinationList.size();
+        int treeSize = 0;
+        Object firstDestination = null;
+        for (Object destination : destinationList) {
+            if (destination != null) {
+                if (treeSize == 0) {
+                    firstDestination = destination;
+                }
+                treeSize++;
+            }
+        }
+        nullDestinationIndexes = new int[destinationCount - treeSize];
+        if (treeSize == 0) {
+            dimensionCount = 0;
+            coordinates = new double[0];
+            tree = new int[0];
+            for (int i = 0; i < destinationCount; i++) {
+                nullDestinationIndexes[i] = i;
+            }
+            return;
+        }
+        dimensionCount = nearbyDistanceMeter.getDestinationCoordinates(firstDestination).length;
+        coordinates = new double[destinationCount * dimensionCount];
+        tree = new int[treeSize];
+        int treeIndex = 0;
+        int nullIndex = 0;
+        for (int i = 0; i < destinationCount; i++) {
+            Object destination = destinationList.get(i);
+            if (destination == null) {
+                nullDestinationIndexes[nullIndex] = i;
+                nullIndex++;
+                continue;
+            }
+            double[] destinationCoordinates = nearbyDistanceMeter.getDestinationCoordinates(destination);
+            if (destinationCoordinates.length != dimensionCount) {
+                throw new IllegalStateException("The nearbyDistanceMeter (" + nearbyDistanceMeter
+                        + ") returns destinationCoordinates with a length (" + destinationCoordinates.length
+                        + ") for destination (" + destination
+                        + ") that differs from the dimensionCount (" + dimensionCount + ").");
+            }
+            System.arraycopy(destinationCoordinates, 0, coordinates, i * dimensionCount, dimensionCount);
+            tree[treeIndex] = i;
+            treeIndex++;
+        }
+        build(0, treeSize, 0);
+    }
+
+    /**
+     * @return at least 0, including the null destinations
+     */
+    public int getDestinationCount() {
+        return destinationCount;
+    }
+
+    // ************************************************************************
+    // Build methods
+    // ************************************************************************
+
+    private void build(int from, int to, int depth) {
+        while (to - from > LEAF_SIZE) {
+            int median = (from + to) >>> 1;
+            int dimension = depth % dimensionCount;
+            select(from, to - 1, median, dimension);
+            depth++;
+            // Recurse into the smaller half and loop on the other, to keep the stack shallow
+            if (median - from < to - median - 1) {
+                build(from, median, depth);
+                from = median + 1;
+            } else {
+                build(median + 1, to, depth);
+                to = median;
+            }
+        }
+    }
+
+    /**
+     * Quickselect: afterwards the tree element at medianIndex is the one that belongs there
+     * if [left, right] were sorted on that dimension, with every lower element before and higher element after it.
+     */
+    private void select(int left, int right, int medianIndex, int dimension) {
+        while (left < right) {
+            int pivotIndex = partition(left, right, (left + right) >>> 1, dimension);
+            if (pivotIndex == medianIndex) {
+                return;
+            } else if (medianIndex < pivotIndex) {
+                right = pivotIndex - 1;
+            } else {
+                left = pivotIndex + 1;
+            }
+        }
+    }
+
+    private int partition(int left, int right, int pivotIndex, int dimension) {
+        int pivot = tree[pivotIndex];
+        swap(pivotIndex, right);
+        int storeIndex = left;
+        for (int i = left; i < right; i++) {
+            if (compare(tree[i], pivot, dimension) < 0) {
+                swap(i, storeIndex);
+                storeIndex++;
+            }
+        }
+        swap(storeIndex, right);
+        return storeIndex;
+    }
+
+    private int compare(int destinationIndexA, int destinationIndexB, int dimension) {
+        int comparison = Double.compare(coordinates[destinationIndexA * dimensionCount + dimension],
+                coordinates[destinationIndexB * dimensionCount + dimension]);
+        return comparison != 0 ? comparison : Integer.compare(destinationIndexA, destinationIndexB);
+    }
+
+    private void swap(int i, int j) {
+        int tmp = tree[i];
+        tree[i] = tree[j];
+        tree[j] = tmp;
+    }
+
+    // ************************************************************************
+    // Search methods
+    // ************************************************************************
+
+    @Override
+    public Object getDestination(Object origin, int nearbyIndex) {
+        if (nearbyIndex < 0 || nearbyIndex >= destinationCount) {
+            throw new IllegalArgumentException("The nearbyIndex (" + nearbyIndex
+                    + ") must be at least 0 and lower than the destinationCount (" + destinationCount + ").");
+        }
+        if (nearbyIndex >= tree.length) {
+            return destinationList.get(nullDestinationIndexes[nearbyIndex - tree.length]);
+        }
+        if (origin != cachedOrigin || nearbyIndex >= cachedNearestSize) {
+            int nearestSize = nearbyIndex + 1;
+            if (origin == cachedOrigin) {
+                // Avoid a quadratic cost when the nearbyIndex of the same origin keeps increasing
+                nearestSize = Math.min(Math.max(nearestSize, cachedNearestSize * 2), tree.length);
+            }
+            findNearest(origin, nearestSize);
+        }
+        return destinationList.get(cachedNearestIndexes[nearbyIndex]);
+    }
+
+    private void findNearest(Object origin, int nearestSize) {
+        double[] originCoordinates = nearbyDistanceMeter.getOriginCoordinates(origin);
+        if (originCoordinates.length != dimensionCount) {
+            throw new IllegalStateException("The nearbyDistanceMeter (" + nearbyDistanceMeter
+                    + ") returns originCoordinates with a length (" + originCoordinates.length
+                    + ") for origin (" + origin
+                    + ") that differs from the dimensionCount (" + dimensionCount + ").");
+        }
+        if (heapDistances.length < nearestSize) {
+            heapDistances = new double[nearestSize];
+            heapIndexes = new int[nearestSize];
+        }
+        heapSize = 0;
+        heapCapacity = nearestSize;
+        search(originCoordinates, 0, tree.length, 0);
+        if (cachedNearestIndexes.length < nearestSize) {
+            cachedNearestIndexes = new int[nearestSize];
+        }
+        // Pop the max heap from the back, so the result is in ascending order
+        for (int i = heapSize - 1; i >= 0; i--) {
+            cachedNearestIndexes[i] = heapIndexes[0];
+            heapPoll();
+        }
+        cachedOrigin = origin;
+        cachedNearestSize = nearestSize;
+    }
+
+    private void search(double[] originCoordinates, int from, int to, int depth) {
+        int size = to - from;
+        if (size <= LEAF_SIZE) {
+            for (int i = from; i < to; i++) {
+                int destinationIndex = tree[i];
+                heapOffer(destinationIndex, calculateSquaredDistance(originCoordinates, destinationIndex));
+            }
+            return;
+        }
+        int median = (from + to) >>> 1;
+        int destinationIndex = tree[median];
+        int dimension = depth % dimensionCount;
+        double difference = originCoordinates[dimension] - coordinates[destinationIndex * dimensionCount + dimension];
+        double squaredDifference = difference * difference;
+        // Search the side of the origin first, so the far side is more likely to be pruned.
+        // Don't prune on equality, because a destination with the same distance and a lower index might be there.
+        if (difference < 0.0) {
+            search(originCoordinates, from, median, depth + 1);
+            if (heapSize < heapCapacity || squaredDifference <= heapDistances[0]) {
+                heapOffer(destinationIndex, calculateSquaredDistance(originCoordinates, destinationIndex));
+                search(originCoordinates, median + 1, to, depth + 1);
+            }
+        } else {
+            search(originCoordinates, median + 1, to, depth + 1);
+            if (heapSize < heapCapacity || squaredDifference <= heapDistances[0]) {
+                heapOffer(destinationIndex, calculateSquaredDistance(originCoordinates, destinationIndex));
+                search(originCoordinates, from, median, depth + 1);
+            }
+        }
+    }
+
+    private double calculateSquaredDistance(double[] originCoordinates, int destinationIndex) {
+        int offset = destinationIndex * dimensionCount;
+        double squaredDistance = 0.0;
+        for (int i = 0; i < dimensionCount; i++) {
+            double difference = coordinates[offset + i] - originCoordinates[i];
+            squaredDistance += difference * difference;
+        }
+        return squaredDistance;
+    }
+
+    private boolean isHeapHigher(int i, int j) {
+        return heapDistances[i] > heapDistances[j]
+                || (heapDistances[i] == heapDistances[j] && heapIndexes[i] > heapIndexes[j]);
+    }
+
+    private void heapOffer(int destinationIndex, double squaredDistance) {
+        if (heapSize < heapCapacity) {
+            heapDistances[heapSize] = squaredDistance;
+            heapIndexes[heapSize] = destinationIndex;
+            heapSize++;
+            siftUp(heapSize - 1);
+        } else if (squaredDistance < heapDistances[0]
+                || (squaredDistance == heapDistances[0] && destinationIndex < heapIndexes[0])) {
+            heapDistances[0] = squaredDistance;
+            heapIndexes[0] = destinationIndex;
+            siftDown(0);
+        }
+    }
+
+    private void heapPoll() {
+        heapSize--;
+        heapDistances[0] = heapDistances[heapSize];
+        heapIndexes[0] = heapIndexes[heapSize];
+        siftDown(0);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isHeapHigher(i, parent)) {
+                return;
+            }
+            heapSwap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= heapSize) {
+                return;
+            }
+            int highest = left;
+            int right = left + 1;
+            if (right < heapSize && isHeapHigher(right, left)) {
+                highest = right;
+            }
+            if (!isHeapHigher(highest, i)) {
+                return;
+            }
+            heapSwap(i, highest);
+            i = highest;
+        }
+    }
+
+    private void heapSwap(int i, int j) {
+        double tmpDistance = heapDistances[i];
+        heapDistances[i] = heapDistances[j];
+        heapDistances[j] = tmpDistance;
+        int tmpIndex = heapIndexes[i];
+        heapIndexes[i] = heapIndexes[j];
+        heapIndexes[j] = tmpIndex;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + destinationCount + " destinations in "
+                + dimensionCount + " dimensions)";
+    }
+
+}
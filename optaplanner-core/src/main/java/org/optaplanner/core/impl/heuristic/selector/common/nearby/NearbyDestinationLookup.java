@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.selector.common.nearby;
+
+/**
+ * Finds the n-th nearest destination of an origin, as used by nearby selection.
+ * The nearbyIndex is typically selected by a {@link NearbyRandom}.
+ * @see NearbyDistanceMatrix
+ * @see KdTreeNearbyDestinationLookup
+ */
+public interface NearbyDestinationLookup {
+
+    /**
+     * @param origin never null
+     * @param nearbyIndex {@code 0 <= nearbyIndex < destinationSize}, 0 is the nearest destination
+     * @return sometimes null (for example if the destination is a null value of a nullable variable)
+     */
+    Object getDestination(Object origin, int nearbyIndex);
+
+}
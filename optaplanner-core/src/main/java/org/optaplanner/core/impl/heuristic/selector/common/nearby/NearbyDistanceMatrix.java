@@ -16,46 +16,156 @@
 
 package org.optaplanner.core.impl.heuristic.selector.common.nearby;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.IntConsumer;
 
-public final class NearbyDistanceMatrix {
+import org.optaplanner.core.api.domain.lookup.PlanningId;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.domain.common.accessor.MemberAccessor;
+import org.optaplanner.core.impl.solver.thread.ThreadUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the nearest destinations of every origin, in ascending distance order.
+ * <p>
+ * Each destination is stored as an int index into a destination array shared by all origins,
+ * so every origin only costs an {@code int[]} of its nearest destinations.
+ * If the destinations are the same for every origin, the matrix can be built in parallel
+ * with {@link #addAllDestinations(List, List, int, int, ThreadFactory)}
+ * and saved to (or loaded from) a file with {@link #save(File, String)}
+ * and {@link #load(File, String, List, List)}.
+ */
+public final class NearbyDistanceMatrix implements NearbyDestinationLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearbyDistanceMatrix.class);
+
+    private static final int FILE_MAGIC_NUMBER = 0x4E424D32; // "NBM2"
+    private static final int DISTANCE_DIGEST_BUFFER_SIZE = 1024;
+    private static final long INITIAL_HASH = 0xCBF29CE484222325L;
 
     private final NearbyDistanceMeter nearbyDistanceMeter;
-    private final Map<Object, Object[]> originToDestinationsMap;
+    private final Map<Object, Integer> originToIndexMap;
+    private final List<int[]> originIndexToDestinationIndexesList;
+    private final Map<Object, Integer> destinationToIndexMap;
+    private final List<Object> destinationList;
+
+    /**
+     * Builds the matrix with {@link #addAllDestinations(List, List, int, int, ThreadFactory)},
+     * unless the cacheDirectory already has a matrix of the same problem.
+     * Checking that a cached matrix belongs to the same problem measures every distance once,
+     * so a cache hit only saves the selection of the nearest destinations, not the distance calculations.
+     * Without a cached matrix, the distances are digested while the matrix is built,
+     * so they are still only measured once.
+     * @param nearbyDistanceMeter never null
+     * @param originList never null
+     * @param sharedDestinationList never null, the destinations of every origin
+     * @param destinationSize the number of nearest destinations to keep per origin
+     * @param threadCount at least 1
+     * @param threadFactory never null if threadCount is higher than 1
+     * @param cacheDirectory null if the matrix should not be saved or loaded
+     * @return never null
+     */
+    public static NearbyDistanceMatrix buildWithSharedDestinations(NearbyDistanceMeter nearbyDistanceMeter,
+            List<Object> originList, List<Object> sharedDestinationList, int destinationSize,
+            int threadCount, ThreadFactory threadFactory, File cacheDirectory) {
+        NearbyDistanceMatrix nearbyDistanceMatrix = new NearbyDistanceMatrix(nearbyDistanceMeter, originList.size());
+        if (cacheDirectory == null) {
+            nearbyDistanceMatrix.addAllDestinations(originList, sharedDestinationList, destinationSize,
+                    threadCount, threadFactory);
+            return nearbyDistanceMatrix;
+        }
+        // Fails fast if an origin or destination has no stable identity, before any distance is measured
+        MessageDigest problemDigest = digestProblemIdentity(nearbyDistanceMeter, originList, sharedDestinationList,
+                destinationSize);
+        File cacheFile = buildCacheFile(cacheDirectory, nearbyDistanceMeter, originList, sharedDestinationList);
+        String problemHash;
+        if (cacheFile.exists()) {
+            problemHash = finishProblemHash(problemDigest, calculateDistanceDigests(nearbyDistanceMeter,
+                    originList, sharedDestinationList, threadCount, threadFactory));
+            try {
+                if (nearbyDistanceMatrix.load(cacheFile, problemHash, originList, sharedDestinationList)) {
+                    logger.debug("Loaded nearby distance matrix from file ({}).", cacheFile);
+                    return nearbyDistanceMatrix;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to load the nearby distance matrix from file ({}), so it will be recalculated.",
+                        cacheFile, e);
+            }
+            nearbyDistanceMatrix.addAllDestinations(originList, sharedDestinationList, destinationSize,
+                    threadCount, threadFactory);
+        } else {
+            byte[][] distanceDigests = nearbyDistanceMatrix.addAllDestinations(originList, sharedDestinationList,
+                    destinationSize, threadCount, threadFactory, true);
+            problemHash = finishProblemHash(problemDigest, distanceDigests);
+        }
+        try {
+            nearbyDistanceMatrix.save(cacheFile, problemHash);
+            logger.debug("Saved nearby distance matrix to file ({}).", cacheFile);
+        } catch (IOException e) {
+            logger.warn("Failed to save the nearby distance matrix to file ({}).", cacheFile, e);
+        }
+        return nearbyDistanceMatrix;
+    }
 
     public NearbyDistanceMatrix(NearbyDistanceMeter nearbyDistanceMeter, int originSize) {
         this.nearbyDistanceMeter = nearbyDistanceMeter;
-        originToDestinationsMap = new HashMap<>(originSize);
+        originToIndexMap = new HashMap<>(originSize);
+        originIndexToDestinationIndexesList = new ArrayList<>(originSize);
+        destinationToIndexMap = new HashMap<>();
+        destinationList = new ArrayList<>();
     }
 
+    /**
+     * Calculates the nearest destinations of a single origin.
+     * @param origin never null
+     * @param destinationIterator never null
+     * @param destinationSize the number of nearest destinations to keep, at most the size of the destinationIterator
+     */
     public void addAllDestinations(Object origin, Iterator<Object> destinationIterator, int destinationSize) {
-        Object[] destinations = new Object[destinationSize];
+        int[] destinationIndexes = new int[destinationSize];
         double[] distances = new double[destinationSize];
         int size = 0;
-        Double highestDistance = Double.MAX_VALUE;
+        double highestDistance = Double.MAX_VALUE;
         while (destinationIterator.hasNext()) {
             Object destination = destinationIterator.next();
             double distance = nearbyDistanceMeter.getNearbyDistance(origin, destination);
             if (distance < highestDistance || size < destinationSize) {
-                int insertIndex = Arrays.binarySearch(distances, 0, size, distance);
-                if (insertIndex < 0) {
-                    insertIndex = -insertIndex - 1;
-                } else {
-                    while (insertIndex < size && distances[insertIndex] == distance) {
-                        insertIndex++;
-                    }
-                }
+                int insertIndex = findInsertIndex(distances, size, distance);
                 if (size < destinationSize) {
                     size++;
                 }
-                System.arraycopy(destinations, insertIndex, destinations, insertIndex + 1,
+                System.arraycopy(destinationIndexes, insertIndex, destinationIndexes, insertIndex + 1,
                         size - insertIndex - 1);
                 System.arraycopy(distances, insertIndex, distances, insertIndex + 1,
                         size - insertIndex - 1);
-                destinations[insertIndex] = destination;
+                destinationIndexes[insertIndex] = indexDestination(destination);
                 distances[insertIndex] = distance;
                 highestDistance = distances[size - 1];
             }
@@ -64,12 +174,496 @@ public final class NearbyDistanceMatrix {
             throw new IllegalStateException("The destinationIterator's size (" + size
                     + ") differs from the expected destinationSize (" + destinationSize + ").");
         }
-        originToDestinationsMap.put(origin, destinations);
+        putDestinationIndexes(origin, destinationIndexes);
+    }
+
+    /**
+     * Calculates the nearest destinations of every origin, spread over multiple threads.
+     * Every origin has the same destinations.
+     * The {@link NearbyDistanceMeter} must be thread-safe if the threadCount is higher than 1.
+     * @param originList never null
+     * @param sharedDestinationList never null, the destinations of every origin
+     * @param destinationSize the number of nearest destinations to keep per origin,
+     * at most the size of the sharedDestinationList
+     * @param threadCount at least 1
+     * @param threadFactory never null if threadCount is higher than 1
+     */
+    public void addAllDestinations(List<Object> originList, List<Object> sharedDestinationList,
+            int destinationSize, int threadCount, ThreadFactory threadFactory) {
+        addAllDestinations(originList, sharedDestinationList, destinationSize, threadCount, threadFactory, false);
+    }
+
+    /**
+     * @return null if distanceDigestsNeeded is false, otherwise the distance digest of every origin,
+     * see {@link #calculateDistanceDigests(NearbyDistanceMeter, List, List, int, ThreadFactory)}
+     */
+    private byte[][] addAllDestinations(List<Object> originList, List<Object> sharedDestinationList,
+            int destinationSize, int threadCount, ThreadFactory threadFactory, boolean distanceDigestsNeeded) {
+        if (destinationSize > sharedDestinationList.size()) {
+            throw new IllegalStateException("The sharedDestinationList's size (" + sharedDestinationList.size()
+                    + ") is lower than the expected destinationSize (" + destinationSize + ").");
+        }
+        int[] sharedToDestinationIndexes = indexDestinations(sharedDestinationList);
+        int originSize = originList.size();
+        int[][] destinationIndexesArray = new int[originSize][];
+        byte[][] distanceDigests = distanceDigestsNeeded ? new byte[originSize][] : null;
+        forEachOriginIndex(originSize, threadCount, threadFactory, i -> {
+            double[] distances = calculateDistances(nearbyDistanceMeter, originList.get(i), sharedDestinationList);
+            if (distanceDigests != null) {
+                distanceDigests[i] = digestDistances(distances);
+            }
+            destinationIndexesArray[i] = selectNearestDestinationIndexes(distances, sharedToDestinationIndexes,
+                    destinationSize);
+        });
+        for (int i = 0; i < originSize; i++) {
+            putDestinationIndexes(originList.get(i), destinationIndexesArray[i]);
+        }
+        return distanceDigests;
+    }
+
+    /**
+     * Calls the originIndexConsumer for every origin index, spread over multiple threads.
+     * The originIndexConsumer must be thread-safe if the threadCount is higher than 1.
+     */
+    private static void forEachOriginIndex(int originSize, int threadCount, ThreadFactory threadFactory,
+            IntConsumer originIndexConsumer) {
+        if (threadCount <= 1 || originSize <= 1) {
+            for (int i = 0; i < originSize; i++) {
+                originIndexConsumer.accept(i);
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, threadFactory);
+        try {
+            List<Future<?>> futureList = new ArrayList<>(threadCount);
+            for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
+                final int firstOriginIndex = threadIndex;
+                futureList.add(executor.submit(() -> {
+                    // Interleave the origins, so every thread gets a fair share of the work
+                    for (int i = firstOriginIndex; i < originSize; i += threadCount) {
+                        originIndexConsumer.accept(i);
+                    }
+                }));
+            }
+            for (Future<?> future : futureList) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The nearby distance matrix calculation was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The nearby distance matrix calculation failed.", e.getCause());
+        } finally {
+            ThreadUtils.shutdownAwaitOrKill(executor, "", "Nearby distance matrix");
+        }
+    }
+
+    /**
+     * This method is thread-safe if the {@link NearbyDistanceMeter} is thread-safe.
+     */
+    private static double[] calculateDistances(NearbyDistanceMeter nearbyDistanceMeter, Object origin,
+            List<Object> sharedDestinationList) {
+        int sharedDestinationSize = sharedDestinationList.size();
+        double[] distances = new double[sharedDestinationSize];
+        for (int i = 0; i < sharedDestinationSize; i++) {
+            distances[i] = nearbyDistanceMeter.getNearbyDistance(origin, sharedDestinationList.get(i));
+        }
+        return distances;
+    }
+
+    private static int[] selectNearestDestinationIndexes(double[] allDistances, int[] sharedToDestinationIndexes,
+            int destinationSize) {
+        int sharedDestinationSize = allDistances.length;
+        int[] destinationIndexes;
+        if (destinationSize * 4L < sharedDestinationSize) {
+            // Few nearest destinations: a bounded insertion is cheaper than sorting all of them
+            destinationIndexes = new int[destinationSize];
+            double[] distances = new double[destinationSize];
+            int size = 0;
+            for (int i = 0; i < sharedDestinationSize; i++) {
+                double distance = allDistances[i];
+                if (size < destinationSize || distance < distances[size - 1]) {
+                    int insertIndex = findInsertIndex(distances, size, distance);
+                    if (size < destinationSize) {
+                        size++;
+                    }
+                    System.arraycopy(destinationIndexes, insertIndex, destinationIndexes, insertIndex + 1,
+                            size - insertIndex - 1);
+                    System.arraycopy(distances, insertIndex, distances, insertIndex + 1,
+                            size - insertIndex - 1);
+                    destinationIndexes[insertIndex] = i;
+                    distances[insertIndex] = distance;
+                }
+            }
+        } else {
+            int[] sortedIndexes = new int[sharedDestinationSize];
+            for (int i = 0; i < sharedDestinationSize; i++) {
+                sortedIndexes[i] = i;
+            }
+            stableSortByDistance(sortedIndexes, allDistances);
+            destinationIndexes = Arrays.copyOf(sortedIndexes, destinationSize);
+        }
+        for (int i = 0; i < destinationSize; i++) {
+            destinationIndexes[i] = sharedToDestinationIndexes[destinationIndexes[i]];
+        }
+        return destinationIndexes;
+    }
+
+    /**
+     * Destinations with the same distance keep their original order.
+     */
+    private static int findInsertIndex(double[] distances, int size, double distance) {
+        int insertIndex = Arrays.binarySearch(distances, 0, size, distance);
+        if (insertIndex < 0) {
+            insertIndex = -insertIndex - 1;
+        } else {
+            while (insertIndex < size && distances[insertIndex] == distance) {
+                insertIndex++;
+            }
+        }
+        return insertIndex;
+    }
+
+    /**
+     * Merge sort, because it's stable: destinations with the same distance keep their original order.
+     */
+    private static void stableSortByDistance(int[] indexes, double[] distances) {
+        int[] buffer = new int[indexes.length];
+        for (int width = 1; width < indexes.length; width *= 2) {
+            for (int low = 0; low < indexes.length - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, indexes.length);
+                int left = low;
+                int right = middle;
+                int target = low;
+                while (left < middle && right < high) {
+                    if (distances[indexes[right]] < distances[indexes[left]]) {
+                        buffer[target++] = indexes[right++];
+                    } else {
+                        buffer[target++] = indexes[left++];
+                    }
+                }
+                while (left < middle) {
+                    buffer[target++] = indexes[left++];
+                }
+                while (right < high) {
+                    buffer[target++] = indexes[right++];
+                }
+                System.arraycopy(buffer, low, indexes, low, high - low);
+            }
+        }
+    }
+
+    private int indexDestination(Object destination) {
+        Integer destinationIndex = destinationToIndexMap.get(destination);
+        if (destinationIndex == null) {
+            destinationIndex = destinationList.size();
+            destinationToIndexMap.put(destination, destinationIndex);
+            destinationList.add(destination);
+        }
+        return destinationIndex;
+    }
+
+    private int[] indexDestinations(List<Object> sharedDestinationList) {
+        int[] sharedToDestinationIndexes = new int[sharedDestinationList.size()];
+        for (int i = 0; i < sharedToDestinationIndexes.length; i++) {
+            sharedToDestinationIndexes[i] = indexDestination(sharedDestinationList.get(i));
+        }
+        return sharedToDestinationIndexes;
+    }
+
+    private void putDestinationIndexes(Object origin, int[] destinationIndexes) {
+        Integer originIndex = originToIndexMap.get(origin);
+        if (originIndex == null) {
+            originToIndexMap.put(origin, originIndexToDestinationIndexesList.size());
+            originIndexToDestinationIndexesList.add(destinationIndexes);
+        } else {
+            originIndexToDestinationIndexesList.set(originIndex, destinationIndexes);
+        }
     }
 
+    @Override
     public Object getDestination(Object origin, int nearbyIndex) {
-        Object[] destinations = originToDestinationsMap.get(origin);
-        return destinations[nearbyIndex];
+        int[] destinationIndexes = originIndexToDestinationIndexesList.get(originToIndexMap.get(origin));
+        return destinationList.get(destinationIndexes[nearbyIndex]);
+    }
+
+    // ************************************************************************
+    // Persistence methods
+    // ************************************************************************
+
+    /**
+     * Calculates a SHA-256 hash of the entire input of {@link #addAllDestinations(List, List, int, int, ThreadFactory)},
+     * so a saved matrix is only reused for the same problem.
+     * Every origin and destination is identified by its {@link PlanningId}
+     * (or its own value if it's a {@link String}, {@link Number}, {@link Character}, {@link Boolean} or {@link Enum}),
+     * which is stable across JVM restarts, unlike an identity {@link Object#hashCode()}.
+     * It also includes every distance, so changed locations with the same planning id are detected too.
+     * Measuring those distances is spread over multiple threads,
+     * so the {@link NearbyDistanceMeter} must be thread-safe if the threadCount is higher than 1.
+     * @param nearbyDistanceMeter never null
+     * @param originList never null
+     * @param sharedDestinationList never null
+     * @param destinationSize at least 0
+     * @param threadCount at least 1
+     * @param threadFactory never null if threadCount is higher than 1
+     * @return never null, a SHA-256 hex string
+     * @throws IllegalArgumentException if an origin or destination has no stable identity
+     */
+    public static String calculateProblemHash(NearbyDistanceMeter nearbyDistanceMeter,
+            List<Object> originList, List<Object> sharedDestinationList, int destinationSize,
+            int threadCount, ThreadFactory threadFactory) {
+        MessageDigest problemDigest = digestProblemIdentity(nearbyDistanceMeter, originList, sharedDestinationList,
+                destinationSize);
+        return finishProblemHash(problemDigest, calculateDistanceDigests(nearbyDistanceMeter,
+                originList, sharedDestinationList, threadCount, threadFactory));
+    }
+
+    private static MessageDigest digestProblemIdentity(NearbyDistanceMeter nearbyDistanceMeter,
+            List<Object> originList, List<Object> sharedDestinationList, int destinationSize) {
+        Map<Class<?>, Optional<MemberAccessor>> planningIdMemberAccessorMap = new HashMap<>();
+        MessageDigest digest = newSha256Digest();
+        updateWithString(digest, nearbyDistanceMeter.getClass().getName());
+        updateWithInt(digest, destinationSize);
+        updateWithInt(digest, originList.size());
+        updateWithInt(digest, sharedDestinationList.size());
+        for (Object destination : sharedDestinationList) {
+            updateWithStableIdentity(digest, destination, planningIdMemberAccessorMap);
+        }
+        for (Object origin : originList) {
+            updateWithStableIdentity(digest, origin, planningIdMemberAccessorMap);
+        }
+        return digest;
+    }
+
+    /**
+     * The distances of each origin are digested separately, so the origins can be digested in parallel.
+     * @return never null, the SHA-256 digest of the distances of every origin, in the order of the originList
+     */
+    private static byte[][] calculateDistanceDigests(NearbyDistanceMeter nearbyDistanceMeter,
+            List<Object> originList, List<Object> sharedDestinationList, int threadCount, ThreadFactory threadFactory) {
+        byte[][] distanceDigests = new byte[originList.size()][];
+        forEachOriginIndex(originList.size(), threadCount, threadFactory,
+                i -> distanceDigests[i] = digestDistances(
+                        calculateDistances(nearbyDistanceMeter, originList.get(i), sharedDestinationList)));
+        return distanceDigests;
+    }
+
+    private static byte[] digestDistances(double[] distances) {
+        MessageDigest digest = newSha256Digest();
+        ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES * DISTANCE_DIGEST_BUFFER_SIZE);
+        for (double distance : distances) {
+            if (!buffer.hasRemaining()) {
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putDouble(distance);
+        }
+        digest.update(buffer.array(), 0, buffer.position());
+        return digest.digest();
+    }
+
+    private static String finishProblemHash(MessageDigest problemDigest, byte[][] distanceDigests) {
+        for (byte[] distanceDigest : distanceDigests) {
+            problemDigest.update(distanceDigest);
+        }
+        StringBuilder hexBuilder = new StringBuilder(64);
+        for (byte b : problemDigest.digest()) {
+            hexBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hexBuilder.toString();
+    }
+
+    private static void updateWithStableIdentity(MessageDigest digest, Object object,
+            Map<Class<?>, Optional<MemberAccessor>> planningIdMemberAccessorMap) {
+        if (object == null) {
+            // The null value of a nullable variable, a negative length can't be mistaken for a string
+            updateWithInt(digest, -1);
+            return;
+        }
+        Class<?> objectClass = object.getClass();
+        updateWithString(digest, objectClass.getName());
+        Object stableIdentity;
+        if (object instanceof Enum) {
+            stableIdentity = ((Enum<?>) object).name();
+        } else if (object instanceof String || object instanceof Number
+                || object instanceof Character || object instanceof Boolean) {
+            stableIdentity = object;
+        } else {
+            MemberAccessor planningIdMemberAccessor = planningIdMemberAccessorMap.computeIfAbsent(objectClass,
+                    k -> Optional.ofNullable(ConfigUtils.findPlanningIdMemberAccessor(k))).orElse(null);
+            if (planningIdMemberAccessor == null) {
+                throw new IllegalArgumentException("The nearby distance matrix can't be cached,"
+                        + " because the class (" + objectClass + ") of the origin or destination (" + object
+                        + ") has no member with a " + PlanningId.class.getSimpleName() + " annotation.\n"
+                        + "Maybe add a " + PlanningId.class.getSimpleName() + " annotation"
+                        + " or remove the nearbyDistanceMatrixCacheDirectory.");
+            }
+            stableIdentity = planningIdMemberAccessor.executeGetter(object);
+            if (stableIdentity == null) {
+                throw new IllegalArgumentException("The nearby distance matrix can't be cached,"
+                        + " because the origin or destination (" + object
+                        + ") has a null " + PlanningId.class.getSimpleName() + ".");
+            }
+        }
+        updateWithString(digest, stableIdentity.toString());
+    }
+
+    private static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every JVM must support SHA-256.", e);
+        }
+    }
+
+    private static void updateWithString(MessageDigest digest, String value) {
+        // The length prefix separates consecutive strings, so "ab" + "c" differs from "a" + "bc"
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateWithInt(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void updateWithInt(MessageDigest digest, int value) {
+        digest.update(new byte[] {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+    }
+
+    private static long hashString(long hash, String value) {
+        hash = mixHash(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = mixHash(hash, value.charAt(i));
+        }
+        return hash;
+    }
+
+    private static long mixHash(long hash, long value) {
+        return (hash ^ value) * 0x100000001B3L;
+    }
+
+    /**
+     * The file name only depends on the {@link NearbyDistanceMeter} class and the origin and destination classes,
+     * not on the problem, so a changed problem overwrites its earlier matrix
+     * instead of adding another file to the cacheDirectory.
+     * The problem hash inside the file decides if it's reused.
+     * @param cacheDirectory never null
+     * @param nearbyDistanceMeter never null
+     * @param originList never null
+     * @param sharedDestinationList never null
+     * @return never null
+     */
+    public static File buildCacheFile(File cacheDirectory, NearbyDistanceMeter nearbyDistanceMeter,
+            List<Object> originList, List<Object> sharedDestinationList) {
+        String nearbyDistanceMeterClassName = nearbyDistanceMeter.getClass().getName();
+        long selectorHash = hashString(INITIAL_HASH, nearbyDistanceMeterClassName);
+        selectorHash = hashString(selectorHash, originList.isEmpty() ? ""
+                : originList.get(0).getClass().getName());
+        selectorHash = hashString(selectorHash, sharedDestinationList.isEmpty() ? ""
+                : sharedDestinationList.get(0).getClass().getName());
+        return new File(cacheDirectory, "nearbyDistanceMatrix-" + nearbyDistanceMeter.getClass().getSimpleName()
+                + "-" + Long.toHexString(selectorHash) + ".bin");
+    }
+
+    /**
+     * Only supported if the matrix was built by a single call
+     * of {@link #addAllDestinations(List, List, int, int, ThreadFactory)}.
+     * Writes to a temporary file first, which then atomically replaces the file,
+     * so another solver never loads a partially written file.
+     * The temporary file is closed before it replaces the file,
+     * because some operating systems (such as Windows) can't replace an open file.
+     * @param file never null
+     * @param problemHash never null, see
+     * {@link #calculateProblemHash(NearbyDistanceMeter, List, List, int, int, ThreadFactory)}
+     * @throws IOException if the file can not be written
+     */
+    public void save(File file, String problemHash) throws IOException {
+        File parentDirectory = file.getAbsoluteFile().getParentFile();
+        if (!parentDirectory.exists() && !parentDirectory.mkdirs()) {
+            throw new IOException("Failed to create the directory (" + parentDirectory + ").");
+        }
+        // In the same directory, so the move is a rename on the same file system
+        File temporaryFile = File.createTempFile(file.getName() + "-", ".tmp", parentDirectory);
+        try {
+            try (DataOutputStream dataOut = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+                dataOut.writeInt(FILE_MAGIC_NUMBER);
+                dataOut.writeUTF(problemHash);
+                dataOut.writeInt(originIndexToDestinationIndexesList.size());
+                dataOut.writeInt(destinationList.size());
+                for (int[] destinationIndexes : originIndexToDestinationIndexesList) {
+                    dataOut.writeInt(destinationIndexes.length);
+                    for (int destinationIndex : destinationIndexes) {
+                        dataOut.writeInt(destinationIndex);
+                    }
+                }
+            }
+            try {
+                Files.move(temporaryFile.toPath(), file.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            // Only exists if the write or the move failed
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Replaces {@link #addAllDestinations(List, List, int, int, ThreadFactory)}
+     * by reading a matrix that was {@link #save(File, String) saved} for the same problem.
+     * The file is closed when this method returns, so a later {@link #save(File, String)} can replace it.
+     * @param file never null
+     * @param problemHash never null, see
+     * {@link #calculateProblemHash(NearbyDistanceMeter, List, List, int, int, ThreadFactory)}
+     * @param originList never null, in the same order as when it was saved
+     * @param sharedDestinationList never null, in the same order as when it was saved
+     * @return false if the file does not exist or belongs to another problem, in which case nothing changed
+     * @throws IOException if the file can not be read
+     */
+    public boolean load(File file, String problemHash, List<Object> originList, List<Object> sharedDestinationList)
+            throws IOException {
+        if (!file.exists()) {
+            return false;
+        }
+        if (!originIndexToDestinationIndexesList.isEmpty() || !destinationList.isEmpty()) {
+            throw new IllegalStateException("The nearby distance matrix must be empty to load the file ("
+                    + file + ").");
+        }
+        int[][] destinationIndexesArray;
+        try (DataInputStream dataIn = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (dataIn.readInt() != FILE_MAGIC_NUMBER || !dataIn.readUTF().equals(problemHash)
+                    || dataIn.readInt() != originList.size() || dataIn.readInt() != sharedDestinationList.size()) {
+                return false;
+            }
+            destinationIndexesArray = new int[originList.size()][];
+            for (int i = 0; i < destinationIndexesArray.length; i++) {
+                int destinationSize = dataIn.readInt();
+                if (destinationSize < 0 || destinationSize > sharedDestinationList.size()) {
+                    throw new IllegalStateException("The file (" + file + ") has a destinationSize ("
+                            + destinationSize + ") that does not fit the sharedDestinationList's size ("
+                            + sharedDestinationList.size() + ").");
+                }
+                int[] destinationIndexes = new int[destinationSize];
+                for (int j = 0; j < destinationSize; j++) {
+                    destinationIndexes[j] = dataIn.readInt();
+                }
+                destinationIndexesArray[i] = destinationIndexes;
+            }
+        }
+        indexDestinations(sharedDestinationList);
+        for (int[] destinationIndexes : destinationIndexesArray) {
+            for (int destinationIndex : destinationIndexes) {
+                if (destinationIndex < 0 || destinationIndex >= destinationList.size()) {
+                    throw new IllegalStateException("The file (" + file + ") has a destinationIndex ("
+                            + destinationIndex + ") that does not exist for the sharedDestinationList's size ("
+                            + sharedDestinationList.size() + ").");
+                }
+            }
+        }
+        for (int i = 0; i < destinationIndexesArray.length; i++) {
+            putDestinationIndexes(originList.get(i), destinationIndexesArray[i]);
+        }
+        return true;
     }
 
 }
@@ -16,6 +16,12 @@
 
 package org.optaplanner.core.impl.heuristic.selector.common.nearby;
 
+/**
+ * Implementations must be thread-safe if the distance matrix is calculated by multiple threads,
+ * which only happens when the nearby selection has a nearbyDistanceMatrixThreadCount higher than 1.
+ * @param <O> the origin type
+ * @param <D> the destination type
+ */
 public interface NearbyDistanceMeter<O, D> {
 
     /**
@@ -16,11 +16,18 @@
 
 package org.optaplanner.core.impl.heuristic.selector.entity.nearby;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.ThreadFactory;
 
 import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
 import org.optaplanner.core.impl.heuristic.selector.common.iterator.SelectionIterator;
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.CoordinateNearbyDistanceMeter;
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.KdTreeNearbyDestinationLookup;
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDestinationLookup;
 import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDistanceMatrix;
 import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDistanceMeter;
 import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyRandom;
@@ -36,16 +43,40 @@ public class NearEntityNearbyEntitySelector extends AbstractEntitySelector {
     protected final NearbyRandom nearbyRandom;
     protected final boolean randomSelection;
     protected final boolean discardNearbyIndexZero = true; // TODO deactivate me when appropriate
+    protected final int distanceMatrixThreadCount;
+    protected final ThreadFactory distanceMatrixThreadFactory;
+    protected final File distanceMatrixCacheDirectory;
 
-    protected NearbyDistanceMatrix nearbyDistanceMatrix = null;
+    protected NearbyDestinationLookup nearbyDestinationLookup = null;
 
     public NearEntityNearbyEntitySelector(EntitySelector childEntitySelector, EntitySelector originEntitySelector,
             NearbyDistanceMeter nearbyDistanceMeter, NearbyRandom nearbyRandom, boolean randomSelection) {
+        this(childEntitySelector, originEntitySelector, nearbyDistanceMeter, nearbyRandom, randomSelection,
+                1, null, null);
+    }
+
+    /**
+     * @param childEntitySelector never null
+     * @param originEntitySelector never null
+     * @param nearbyDistanceMeter never null
+     * @param nearbyRandom never null if randomSelection is true
+     * @param randomSelection true if random
+     * @param distanceMatrixThreadCount at least 1, the number of threads that calculate the nearby distance matrix
+     * @param distanceMatrixThreadFactory never null if distanceMatrixThreadCount is higher than 1
+     * @param distanceMatrixCacheDirectory null if the nearby distance matrix is not saved to disk
+     */
+    public NearEntityNearbyEntitySelector(EntitySelector childEntitySelector, EntitySelector originEntitySelector,
+            NearbyDistanceMeter nearbyDistanceMeter, NearbyRandom nearbyRandom, boolean randomSelection,
+            int distanceMatrixThreadCount, ThreadFactory distanceMatrixThreadFactory,
+            File distanceMatrixCacheDirectory) {
         this.childEntitySelector = childEntitySelector;
         this.originEntitySelector = originEntitySelector;
         this.nearbyDistanceMeter = nearbyDistanceMeter;
         this.nearbyRandom = nearbyRandom;
         this.randomSelection = randomSelection;
+        this.distanceMatrixThreadCount = distanceMatrixThreadCount;
+        this.distanceMatrixThreadFactory = distanceMatrixThreadFactory;
+        this.distanceMatrixCacheDirectory = distanceMatrixCacheDirectory;
         if (randomSelection && nearbyRandom == null) {
             throw new IllegalArgumentException("The entitySelector (" + this
                     + ") with randomSelection (" + randomSelection + ") has no nearbyRandom (" + nearbyRandom + ").");
@@ -92,17 +123,24 @@ public class NearEntityNearbyEntitySelector extends AbstractEntitySelector {
                 destinationSize = overallSizeMaximum;
             }
         }
-        nearbyDistanceMatrix = new NearbyDistanceMatrix(nearbyDistanceMeter, (int) originSize);
-        for (Iterator originIt = originEntitySelector.endingIterator(); originIt.hasNext(); ) {
-            final Object origin =  originIt.next();
-            nearbyDistanceMatrix.addAllDestinations(origin, childEntitySelector.endingIterator(), destinationSize);
+        List<Object> destinationList = new ArrayList<>((int) childSize);
+        childEntitySelector.endingIterator().forEachRemaining(destinationList::add);
+        if (nearbyDistanceMeter instanceof CoordinateNearbyDistanceMeter) {
+            nearbyDestinationLookup = new KdTreeNearbyDestinationLookup(
+                    (CoordinateNearbyDistanceMeter) nearbyDistanceMeter, destinationList);
+        } else {
+            List<Object> originList = new ArrayList<>((int) originSize);
+            originEntitySelector.endingIterator().forEachRemaining(originList::add);
+            nearbyDestinationLookup = NearbyDistanceMatrix.buildWithSharedDestinations(nearbyDistanceMeter,
+                    originList, destinationList, destinationSize,
+                    distanceMatrixThreadCount, distanceMatrixThreadFactory, distanceMatrixCacheDirectory);
         }
     }
 
     @Override
     public void phaseEnded(AbstractPhaseScope phaseScope) {
         super.phaseEnded(phaseScope);
-        nearbyDistanceMatrix = null;
+        nearbyDestinationLookup = null;
     }
 
     @Override
@@ -173,7 +211,7 @@ public class NearEntityNearbyEntitySelector extends AbstractEntitySelector {
         @Override
         public Object next() {
             Object origin = originEntityIterator.next();
-            Object next = nearbyDistanceMatrix.getDestination(origin, nextNearbyIndex);
+            Object next = nearbyDestinationLookup.getDestination(origin, nextNearbyIndex);
             nextNearbyIndex++;
             return next;
         }
@@ -207,7 +245,7 @@ public class NearEntityNearbyEntitySelector extends AbstractEntitySelector {
             if (discardNearbyIndexZero) {
                 nearbyIndex++;
             }
-            return nearbyDistanceMatrix.getDestination(origin, nearbyIndex);
+            return nearbyDestinationLookup.getDestination(origin, nearbyIndex);
         }
 
     }
@@ -16,15 +16,23 @@
 
 package org.optaplanner.core.impl.heuristic.selector.value.nearby;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
 
 import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
 import org.optaplanner.core.impl.heuristic.selector.common.iterator.SelectionIterator;
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.CoordinateNearbyDistanceMeter;
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.KdTreeNearbyDestinationLookup;
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDestinationLookup;
 import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDistanceMatrix;
 import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDistanceMeter;
 import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyRandom;
 import org.optaplanner.core.impl.heuristic.selector.entity.EntitySelector;
 import org.optaplanner.core.impl.heuristic.selector.value.AbstractValueSelector;
+import org.optaplanner.core.impl.heuristic.selector.value.EntityIndependentValueSelector;
 import org.optaplanner.core.impl.heuristic.selector.value.ValueSelector;
 import org.optaplanner.core.impl.phase.scope.AbstractPhaseScope;
 
@@ -36,16 +44,40 @@ public class NearEntityNearbyValueSelector extends AbstractValueSelector {
     protected final NearbyRandom nearbyRandom;
     protected final boolean randomSelection;
     protected final boolean discardNearbyIndexZero;
+    protected final int distanceMatrixThreadCount;
+    protected final ThreadFactory distanceMatrixThreadFactory;
+    protected final File distanceMatrixCacheDirectory;
 
-    protected NearbyDistanceMatrix nearbyDistanceMatrix = null;
+    protected NearbyDestinationLookup nearbyDestinationLookup = null;
 
     public NearEntityNearbyValueSelector(ValueSelector childValueSelector, EntitySelector originEntitySelector,
             NearbyDistanceMeter nearbyDistanceMeter, NearbyRandom nearbyRandom, boolean randomSelection) {
+        this(childValueSelector, originEntitySelector, nearbyDistanceMeter, nearbyRandom, randomSelection,
+                1, null, null);
+    }
+
+    /**
+     * @param childValueSelector never null
+     * @param originEntitySelector never null
+     * @param nearbyDistanceMeter never null
+     * @param nearbyRandom never null if randomSelection is true
+     * @param randomSelection true if random
+     * @param distanceMatrixThreadCount at least 1, the number of threads that calculate the nearby distance matrix
+     * @param distanceMatrixThreadFactory never null if distanceMatrixThreadCount is higher than 1
+     * @param distanceMatrixCacheDirectory null if the nearby distance matrix is not saved to disk
+     */
+    public NearEntityNearbyValueSelector(ValueSelector childValueSelector, EntitySelector originEntitySelector,
+            NearbyDistanceMeter nearbyDistanceMeter, NearbyRandom nearbyRandom, boolean randomSelection,
+            int distanceMatrixThreadCount, ThreadFactory distanceMatrixThreadFactory,
+            File distanceMatrixCacheDirectory) {
         this.childValueSelector = childValueSelector;
         this.originEntitySelector = originEntitySelector;
         this.nearbyDistanceMeter = nearbyDistanceMeter;
         this.nearbyRandom = nearbyRandom;
         this.randomSelection = randomSelection;
+        this.distanceMatrixThreadCount = distanceMatrixThreadCount;
+        this.distanceMatrixThreadFactory = distanceMatrixThreadFactory;
+        this.distanceMatrixCacheDirectory = distanceMatrixCacheDirectory;
         if (randomSelection && nearbyRandom == null) {
             throw new IllegalArgumentException("The valueSelector (" + this
                     + ") with randomSelection (" + randomSelection + ") has no nearbyRandom (" + nearbyRandom + ").");
@@ -71,34 +103,58 @@ public class NearEntityNearbyValueSelector extends AbstractValueSelector {
                     + ") has an entitySize (" + originSize
                     + ") which is higher than Integer.MAX_VALUE.");
         }
-        nearbyDistanceMatrix = new NearbyDistanceMatrix(nearbyDistanceMeter, (int) originSize);
-        for (Iterator originIt = originEntitySelector.endingIterator(); originIt.hasNext(); ) {
-            final Object origin =  originIt.next();
-            long childSize = childValueSelector.getSize(origin);
-            if (childSize > (long) Integer.MAX_VALUE) {
-                throw new IllegalStateException("The childEntitySelector (" + childValueSelector
-                        + ") has an entitySize (" + childSize
-                        + ") which is higher than Integer.MAX_VALUE.");
+        if (childValueSelector instanceof EntityIndependentValueSelector) {
+            // Every origin has the same values, so the matrix can be calculated in parallel (and cached)
+            List<Object> originList = new ArrayList<>((int) originSize);
+            originEntitySelector.endingIterator().forEachRemaining(originList::add);
+            Object firstOrigin = originList.isEmpty() ? null : originList.get(0);
+            int destinationSize = calculateDestinationSize(firstOrigin);
+            List<Object> destinationList = new ArrayList<>(destinationSize);
+            childValueSelector.endingIterator(firstOrigin).forEachRemaining(destinationList::add);
+            if (nearbyDistanceMeter instanceof CoordinateNearbyDistanceMeter) {
+                nearbyDestinationLookup = new KdTreeNearbyDestinationLookup(
+                        (CoordinateNearbyDistanceMeter) nearbyDistanceMeter, destinationList);
+            } else {
+                nearbyDestinationLookup = NearbyDistanceMatrix.buildWithSharedDestinations(nearbyDistanceMeter,
+                        originList, destinationList, destinationSize,
+                        distanceMatrixThreadCount, distanceMatrixThreadFactory, distanceMatrixCacheDirectory);
+            }
+        } else {
+            NearbyDistanceMatrix nearbyDistanceMatrix = new NearbyDistanceMatrix(nearbyDistanceMeter, (int) originSize);
+            for (Iterator originIt = originEntitySelector.endingIterator(); originIt.hasNext(); ) {
+                final Object origin =  originIt.next();
+                int destinationSize = calculateDestinationSize(origin);
+                nearbyDistanceMatrix.addAllDestinations(origin, childValueSelector.endingIterator(origin), destinationSize);
+            }
+            nearbyDestinationLookup = nearbyDistanceMatrix;
+        }
+    }
+
+    private int calculateDestinationSize(Object origin) {
+        long childSize = childValueSelector.getSize(origin);
+        if (childSize > (long) Integer.MAX_VALUE) {
+            throw new IllegalStateException("The childEntitySelector (" + childValueSelector
+                    + ") has an entitySize (" + childSize
+                    + ") which is higher than Integer.MAX_VALUE.");
+        }
+        int destinationSize = (int) childSize;
+        if (randomSelection) {
+            // Reduce RAM memory usage by reducing destinationSize if nearbyRandom will never select a higher value
+            int overallSizeMaximum = nearbyRandom.getOverallSizeMaximum();
+            if (discardNearbyIndexZero && overallSizeMaximum < Integer.MAX_VALUE) {
+                overallSizeMaximum++;
             }
-            int destinationSize = (int) childSize;
-            if (randomSelection) {
-                // Reduce RAM memory usage by reducing destinationSize if nearbyRandom will never select a higher value
-                int overallSizeMaximum = nearbyRandom.getOverallSizeMaximum();
-                if (discardNearbyIndexZero && overallSizeMaximum < Integer.MAX_VALUE) {
-                    overallSizeMaximum++;
-                }
-                if (destinationSize > overallSizeMaximum) {
-                    destinationSize = overallSizeMaximum;
-                }
+            if (destinationSize > overallSizeMaximum) {
+                destinationSize = overallSizeMaximum;
             }
-            nearbyDistanceMatrix.addAllDestinations(origin, childValueSelector.endingIterator(origin), destinationSize);
         }
+        return destinationSize;
     }
 
     @Override
     public void phaseEnded(AbstractPhaseScope phaseScope) {
         super.phaseEnded(phaseScope);
-        nearbyDistanceMatrix = null;
+        nearbyDestinationLookup = null;
     }
 
     // ************************************************************************
@@ -173,7 +229,7 @@ public class NearEntityNearbyValueSelector extends AbstractValueSelector {
         @Override
         public Object next() {
             selectOrigin();
-            Object next = nearbyDistanceMatrix.getDestination(origin, nextNearbyIndex);
+            Object next = nearbyDestinationLookup.getDestination(origin, nextNearbyIndex);
             nextNearbyIndex++;
             return next;
         }
@@ -207,7 +263,7 @@ public class NearEntityNearbyValueSelector extends AbstractValueSelector {
             if (discardNearbyIndexZero) {
                 nearbyIndex++;
             }
-            return nearbyDistanceMatrix.getDestination(origin, nearbyIndex);
+            return nearbyDestinationLookup.getDestination(origin, nearbyIndex);
         }
 
     }
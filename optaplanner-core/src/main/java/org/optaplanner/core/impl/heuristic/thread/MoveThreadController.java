@@ -0,0 +1,292 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.thread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adapts the number of active move threads and the move thread buffer size while solving,
+ * within configured bounds, because their best values depend on the score calculation cost per move.
+ * <p>
+ * Every {@link #windowStepCount} steps, it measures the moves foraged per second,
+ * the ratio of time the solver thread waited on the result queue
+ * and the ratio of selected moves that were never foraged:
+ * <ul>
+ * <li>If the solver thread mostly waits, the move threads are the bottleneck:
+ * activate another move thread or, if all are active, grow the buffer.</li>
+ * <li>If the solver thread hardly waits, it is the bottleneck: deactivate a move thread.</li>
+ * <li>If most selected moves are never foraged, shrink the buffer.</li>
+ * </ul>
+ * If an activated move thread lowers the throughput, it is deactivated again
+ * and no move thread is activated for a few windows.
+ * <p>
+ * The window methods must be called on the solver thread, the activity methods are thread-safe.
+ * An inactive move thread blocks in {@link #awaitActive(int)} and doesn't apply any steps until it is activated.
+ */
+public class MoveThreadController {
+
+    protected static final double STARVING_WAIT_RATIO = 0.5;
+    protected static final double SATURATED_WAIT_RATIO = 0.1;
+    protected static final double WASTEFUL_UNFORAGED_RATIO = 0.5;
+    protected static final double THROUGHPUT_LOSS_TOLERANCE = 0.95;
+    protected static final int GROW_COOLDOWN_WINDOW_COUNT = 5;
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    protected final String logIndentation;
+    protected final int minimumMoveThreadCount;
+    protected final int maximumMoveThreadCount;
+    protected final int minimumMoveThreadBufferSize;
+    protected final int maximumMoveThreadBufferSize;
+    protected final int windowStepCount;
+
+    private volatile int activeMoveThreadCount;
+    private volatile boolean phaseEnding = false;
+    private final Object activityLock = new Object();
+
+    // Only used by the solver thread
+    private int moveThreadBufferSize;
+    private int windowStepIndex = 0;
+    private long windowStartNanos = -1L;
+    private long windowWaitNanos = 0L;
+    private long windowSelectedMoveCount = 0L;
+    private long windowForagedMoveCount = 0L;
+    private double previousThroughput = Double.NaN;
+    private boolean previousDecisionGrewMoveThreads = false;
+    private int growCooldownWindowCount = 0;
+
+    /**
+     * @param logIndentation never null
+     * @param minimumMoveThreadCount {@code 1 <= minimumMoveThreadCount <= maximumMoveThreadCount}
+     * @param maximumMoveThreadCount the number of move threads
+     * @param minimumMoveThreadBufferSize {@code 1 <= minimumMoveThreadBufferSize <= maximumMoveThreadBufferSize}
+     * @param maximumMoveThreadBufferSize at least 1
+     * @param moveThreadBufferSize the starting moveThreadBufferSize, within the bounds
+     * @param windowStepCount at least 1
+     */
+    public MoveThreadController(String logIndentation,
+            int minimumMoveThreadCount, int maximumMoveThreadCount,
+            int minimumMoveThreadBufferSize, int maximumMoveThreadBufferSize, int moveThreadBufferSize,
+            int windowStepCount) {
+        if (minimumMoveThreadCount < 1 || minimumMoveThreadCount > maximumMoveThreadCount) {
+            throw new IllegalArgumentException("The minimumMoveThreadCount (" + minimumMoveThreadCount
+                    + ") must be at least 1 and at most the moveThreadCount (" + maximumMoveThreadCount + ").");
+        }
+        if (minimumMoveThreadBufferSize < 1 || minimumMoveThreadBufferSize > maximumMoveThreadBufferSize) {
+            throw new IllegalArgumentException("The minimumMoveThreadBufferSize (" + minimumMoveThreadBufferSize
+                    + ") must be at least 1 and at most the maximumMoveThreadBufferSize ("
+                    + maximumMoveThreadBufferSize + ").");
+        }
+        if (moveThreadBufferSize < minimumMoveThreadBufferSize || moveThreadBufferSize > maximumMoveThreadBufferSize) {
+            throw new IllegalArgumentException("The moveThreadBufferSize (" + moveThreadBufferSize
+                    + ") must be at least the minimumMoveThreadBufferSize (" + minimumMoveThreadBufferSize
+                    + ") and at most the maximumMoveThreadBufferSize (" + maximumMoveThreadBufferSize + ").");
+        }
+        if (windowStepCount < 1) {
+            throw new IllegalArgumentException("The windowStepCount (" + windowStepCount
+                    + ") cannot be lower than 1.");
+        }
+        this.logIndentation = logIndentation;
+        this.minimumMoveThreadCount = minimumMoveThreadCount;
+        this.maximumMoveThreadCount = maximumMoveThreadCount;
+        this.minimumMoveThreadBufferSize = minimumMoveThreadBufferSize;
+        this.maximumMoveThreadBufferSize = maximumMoveThreadBufferSize;
+        this.moveThreadBufferSize = moveThreadBufferSize;
+        this.windowStepCount = windowStepCount;
+        activeMoveThreadCount = maximumMoveThreadCount;
+    }
+
+    public int getMaximumMoveThreadCount() {
+        return maximumMoveThreadCount;
+    }
+
+    /**
+     * @return the highest number of selected moves that can ever be in circulation
+     */
+    public int getMaximumSelectedMoveBufferSize() {
+        return maximumMoveThreadCount * maximumMoveThreadBufferSize;
+    }
+
+    /**
+     * @return the number of selected moves to keep in circulation during the next step
+     */
+    public int getSelectedMoveBufferSize() {
+        return activeMoveThreadCount * moveThreadBufferSize;
+    }
+
+    public int getMoveThreadBufferSize() {
+        return moveThreadBufferSize;
+    }
+
+    /**
+     * This method is thread-safe.
+     * @return {@code minimumMoveThreadCount <= activeMoveThreadCount <= maximumMoveThreadCount}
+     */
+    public int getActiveMoveThreadCount() {
+        return activeMoveThreadCount;
+    }
+
+    // ************************************************************************
+    // Move thread methods
+    // ************************************************************************
+
+    /**
+     * This method is thread-safe.
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < maximumMoveThreadCount}
+     * @return true if that move thread should take operations
+     */
+    public boolean isActive(int moveThreadIndex) {
+        return moveThreadIndex < activeMoveThreadCount;
+    }
+
+    /**
+     * Blocks until the move thread is activated or the phase ends.
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < maximumMoveThreadCount}
+     * @throws InterruptedException if the move thread is interrupted while waiting
+     */
+    public void awaitActive(int moveThreadIndex) throws InterruptedException {
+        synchronized (activityLock) {
+            while (!isActive(moveThreadIndex) && !phaseEnding) {
+                activityLock.wait();
+            }
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @return true if the move threads are about to be destroyed, so an activated move thread need not catch up
+     */
+    public boolean isPhaseEnding() {
+        return phaseEnding;
+    }
+
+    // ************************************************************************
+    // Solver thread methods
+    // ************************************************************************
+
+    public void phaseStarted() {
+        phaseEnding = false;
+        resetWindow();
+    }
+
+    /**
+     * Wakes up every inactive move thread, so it can take its destroy operation.
+     */
+    public void phaseEnded() {
+        synchronized (activityLock) {
+            phaseEnding = true;
+            activityLock.notifyAll();
+        }
+    }
+
+    /**
+     * @param waitNanos at least 0, the time the solver thread waited on a result
+     */
+    public void addResultWait(long waitNanos) {
+        windowWaitNanos += waitNanos;
+    }
+
+    /**
+     * @param stepIndex at least 0
+     * @param selectedMoveCount at least 0, the number of moves selected during the step
+     * @param foragedMoveCount at least 0, the number of those moves foraged during the step
+     */
+    public void stepDecided(int stepIndex, long selectedMoveCount, long foragedMoveCount) {
+        if (windowStartNanos < 0L) {
+            // The first step also pays for the setup of the move threads, so don't measure it
+            resetWindow();
+            return;
+        }
+        windowSelectedMoveCount += selectedMoveCount;
+        windowForagedMoveCount += foragedMoveCount;
+        windowStepIndex++;
+        if (windowStepIndex >= windowStepCount) {
+            adapt(stepIndex, System.nanoTime() - windowStartNanos,
+                    windowWaitNanos, windowSelectedMoveCount, windowForagedMoveCount);
+            resetWindow();
+        }
+    }
+
+    /**
+     * Decides the active move thread count and the move thread buffer size for the next window.
+     * @param stepIndex at least 0, the last step of the window
+     * @param windowNanos at least 0, the duration of the window
+     * @param waitNanos at least 0, the time the solver thread waited on results during the window
+     * @param selectedMoveCount at least 0
+     * @param foragedMoveCount at least 0
+     */
+    protected void adapt(int stepIndex, long windowNanos,
+            long waitNanos, long selectedMoveCount, long foragedMoveCount) {
+        if (windowNanos <= 0L) {
+            return;
+        }
+        double throughput = foragedMoveCount * 1_000_000_000.0 / windowNanos;
+        double waitRatio = ((double) waitNanos) / windowNanos;
+        double unforagedRatio = selectedMoveCount == 0L ? 0.0
+                : ((double) (selectedMoveCount - foragedMoveCount)) / selectedMoveCount;
+        int oldActiveMoveThreadCount = activeMoveThreadCount;
+        int newActiveMoveThreadCount = oldActiveMoveThreadCount;
+        int oldMoveThreadBufferSize = moveThreadBufferSize;
+        boolean grewMoveThreads = false;
+        if (growCooldownWindowCount > 0) {
+            growCooldownWindowCount--;
+        }
+        if (previousDecisionGrewMoveThreads && throughput < previousThroughput * THROUGHPUT_LOSS_TOLERANCE) {
+            // The extra move thread didn't pay off, probably because of memory bandwidth or hyperthreading
+            newActiveMoveThreadCount--;
+            growCooldownWindowCount = GROW_COOLDOWN_WINDOW_COUNT;
+        } else if (waitRatio > STARVING_WAIT_RATIO) {
+            if (oldActiveMoveThreadCount < maximumMoveThreadCount && growCooldownWindowCount == 0) {
+                newActiveMoveThreadCount++;
+                grewMoveThreads = true;
+            } else if (moveThreadBufferSize < maximumMoveThreadBufferSize) {
+                moveThreadBufferSize = Math.min(maximumMoveThreadBufferSize, moveThreadBufferSize * 2);
+            }
+        } else if (waitRatio < SATURATED_WAIT_RATIO && oldActiveMoveThreadCount > minimumMoveThreadCount) {
+            newActiveMoveThreadCount--;
+        } else if (unforagedRatio > WASTEFUL_UNFORAGED_RATIO && moveThreadBufferSize > minimumMoveThreadBufferSize) {
+            moveThreadBufferSize = Math.max(minimumMoveThreadBufferSize, moveThreadBufferSize / 2);
+        }
+        previousThroughput = throughput;
+        previousDecisionGrewMoveThreads = grewMoveThreads;
+        if (newActiveMoveThreadCount != oldActiveMoveThreadCount) {
+            synchronized (activityLock) {
+                activeMoveThreadCount = newActiveMoveThreadCount;
+                activityLock.notifyAll();
+            }
+        }
+        if (newActiveMoveThreadCount != oldActiveMoveThreadCount || moveThreadBufferSize != oldMoveThreadBufferSize) {
+            logger.debug("{}    Move thread controller at step index ({}): foraged move speed ({}/sec),"
+                    + " wait ratio ({}), unforaged ratio ({}),"
+                    + " active move thread count ({} -> {}), move thread buffer size ({} -> {}).",
+                    logIndentation, stepIndex, (long) throughput,
+                    String.format("%.2f", waitRatio), String.format("%.2f", unforagedRatio),
+                    oldActiveMoveThreadCount, newActiveMoveThreadCount,
+                    oldMoveThreadBufferSize, moveThreadBufferSize);
+        }
+    }
+
+    private void resetWindow() {
+        windowStepIndex = 0;
+        windowStartNanos = System.nanoTime();
+        windowWaitNanos = 0L;
+        windowSelectedMoveCount = 0L;
+        windowForagedMoveCount = 0L;
+    }
+
+}
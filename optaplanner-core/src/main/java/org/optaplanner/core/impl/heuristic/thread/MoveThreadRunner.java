@@ -16,12 +16,14 @@
 
 package org.optaplanner.core.impl.heuristic.thread;
 
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
 import org.optaplanner.core.impl.heuristic.move.Move;
 import org.optaplanner.core.impl.score.director.InnerScoreDirector;
 import org.optaplanner.core.impl.solver.ChildThreadType;
@@ -38,6 +40,8 @@ public class MoveThreadRunner<Solution_> implements Runnable {
 
     private final BlockingQueue<MoveThreadOperation<Solution_>> operationQueue;
     private final OrderByMoveIndexBlockingQueue<Solution_> resultQueue;
+    private final StepJournal<Solution_> stepJournal;
+    private final MoveThreadController moveThreadController;
     private final CyclicBarrier moveThreadBarrier;
 
     private final boolean assertMoveScoreFromScratch;
@@ -52,6 +56,7 @@ public class MoveThreadRunner<Solution_> implements Runnable {
     public MoveThreadRunner(String logIndentation, int moveThreadIndex, boolean evaluateDoable,
             BlockingQueue<MoveThreadOperation<Solution_>> operationQueue,
             OrderByMoveIndexBlockingQueue<Solution_> resultQueue,
+            StepJournal<Solution_> stepJournal, MoveThreadController moveThreadController,
             CyclicBarrier moveThreadBarrier,
             boolean assertMoveScoreFromScratch, boolean assertExpectedUndoMoveScore,
             boolean assertStepScoreFromScratch, boolean assertExpectedStepScore, boolean assertShadowVariablesAreNotStaleAfterStep) {
@@ -60,6 +65,8 @@ public class MoveThreadRunner<Solution_> implements Runnable {
         this.evaluateDoable = evaluateDoable;
         this.operationQueue = operationQueue;
         this.resultQueue = resultQueue;
+        this.stepJournal = stepJournal;
+        this.moveThreadController = moveThreadController;
         this.moveThreadBarrier = moveThreadBarrier;
         this.assertMoveScoreFromScratch = assertMoveScoreFromScratch;
         this.assertExpectedUndoMoveScore = assertExpectedUndoMoveScore;
@@ -76,6 +83,17 @@ public class MoveThreadRunner<Solution_> implements Runnable {
             while (true) {
                 MoveThreadOperation<Solution_> operation;
                 try {
+                    if (moveThreadController != null && scoreDirector != null
+                            && !moveThreadController.isActive(moveThreadIndex)) {
+                        StepJournal.Entry<Solution_> batch = awaitActive(stepIndex);
+                        if (batch != null) {
+                            stepIndex = batch.getStepIndex() + 1;
+                            lastStepScore = applyBatch(batch);
+                            logger.trace("{}            Move thread ({}) reactivated: step index ({}),"
+                                    + " assignments ({}), score ({}).",
+                                    logIndentation, moveThreadIndex, stepIndex, batch.size(), lastStepScore);
+                        }
+                    }
                     operation = operationQueue.take();
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -102,34 +120,14 @@ public class MoveThreadRunner<Solution_> implements Runnable {
                             logIndentation, moveThreadIndex, stepIndex);
                     calculationCount.set(scoreDirector.getCalculationCount());
                     break;
-                } else if (operation instanceof ApplyStepOperation) {
-                    // TODO Performance gain with specialized 2-phase cyclic barrier:
-                    // As soon as the last move thread has taken its ApplyStepOperation,
-                    // other move threads can already depart from the moveThreadStepBarrier: no need to wait until the step is done.
-                    ApplyStepOperation<Solution_> applyStepOperation = (ApplyStepOperation<Solution_>) operation;
-                    if (stepIndex + 1 != applyStepOperation.getStepIndex()) {
-                        throw new IllegalStateException("Impossible situation: the moveThread's stepIndex (" + stepIndex
-                                + ") is not followed by the operation's stepIndex ("
-                                + applyStepOperation.getStepIndex() + ").");
-                    }
-                    stepIndex = applyStepOperation.getStepIndex();
-                    Move<Solution_> step = applyStepOperation.getStep().rebase(scoreDirector);
-                    Score score = applyStepOperation.getScore();
-                    step.doMove(scoreDirector);
-                    predictWorkingStepScore(step, score);
-                    lastStepScore = score;
-                    logger.trace("{}            Move thread ({}) step: step index ({}), score ({}).",
-                            logIndentation, moveThreadIndex, stepIndex, lastStepScore);
-                    try {
-                        // Don't consume an MoveEvaluationOperation until every moveThread took this ApplyStepOperation
-                        moveThreadBarrier.await();
-                    } catch (InterruptedException | BrokenBarrierException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
                 } else if (operation instanceof MoveEvaluationOperation) {
                     MoveEvaluationOperation<Solution_> moveEvaluationOperation = (MoveEvaluationOperation<Solution_>) operation;
                     int moveIndex = moveEvaluationOperation.getMoveIndex();
+                    if (stepIndex < moveEvaluationOperation.getStepIndex()) {
+                        // The first move of a new step for this move thread
+                        lastStepScore = applyStepJournal(moveEvaluationOperation.getStepIndex());
+                        stepIndex = moveEvaluationOperation.getStepIndex();
+                    }
                     if (stepIndex != moveEvaluationOperation.getStepIndex()) {
                         throw new IllegalStateException("Impossible situation: the moveThread's stepIndex ("
                                 + stepIndex + ") differs from the operation's stepIndex ("
@@ -170,17 +168,68 @@ public class MoveThreadRunner<Solution_> implements Runnable {
         }
     }
 
-    protected void predictWorkingStepScore(Move<Solution_> step, Score score) {
+    /**
+     * Assigns the genuine variables of all steps up to the targetStepIndex,
+     * instead of rebasing and doing every step move.
+     * @param targetStepIndex higher than the current stepIndex
+     * @return never null, the score after the last applied step
+     */
+    protected Score applyStepJournal(int targetStepIndex) {
+        List<StepJournal.Entry<Solution_>> entryList = stepJournal.catchUp(moveThreadIndex, targetStepIndex);
+        StepJournal.Entry<Solution_> batch = StepJournal.mergeEntries(entryList);
+        Score score = applyBatch(batch);
+        logger.trace("{}            Move thread ({}) step journal: step index ({}), steps ({}), assignments ({}),"
+                + " score ({}).",
+                logIndentation, moveThreadIndex, targetStepIndex, entryList.size(), batch.size(), score);
+        return score;
+    }
+
+    /**
+     * Detaches from the {@link StepJournal} until the {@link MoveThreadController} activates this move thread again.
+     * @param stepIndex the current stepIndex
+     * @return null if there is nothing to catch up with,
+     * otherwise all steps done in the meantime, merged into 1 batch
+     * @throws InterruptedException if interrupted while inactive
+     */
+    protected StepJournal.Entry<Solution_> awaitActive(int stepIndex) throws InterruptedException {
+        stepJournal.detach(moveThreadIndex);
+        logger.trace("{}            Move thread ({}) deactivated: step index ({}).",
+                logIndentation, moveThreadIndex, stepIndex);
+        moveThreadController.awaitActive(moveThreadIndex);
+        if (moveThreadController.isPhaseEnding()) {
+            // The next operation is a DestroyOperation, so there's no need to catch up
+            return null;
+        }
+        return stepJournal.reattach(moveThreadIndex);
+    }
+
+    private Score applyBatch(StepJournal.Entry<Solution_> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            GenuineVariableDescriptor<Solution_> variableDescriptor = batch.getVariableDescriptor(i);
+            Object entity = scoreDirector.lookUpWorkingObject(batch.getEntity(i));
+            Object value = scoreDirector.lookUpWorkingObject(batch.getValue(i));
+            scoreDirector.beforeVariableChanged(variableDescriptor, entity);
+            variableDescriptor.setValue(entity, value);
+            scoreDirector.afterVariableChanged(variableDescriptor, entity);
+        }
+        // Once per batch, no matter how many steps it contains
+        scoreDirector.triggerVariableListeners();
+        Score score = batch.getScore();
+        predictWorkingStepScore(batch, score);
+        return score;
+    }
+
+    protected void predictWorkingStepScore(Object completedAction, Score score) {
         // There is no need to recalculate the score, but we still need to set it
         scoreDirector.getSolutionDescriptor().setScore(scoreDirector.getWorkingSolution(), score);
         if (assertStepScoreFromScratch) {
-            scoreDirector.assertPredictedScoreFromScratch(score, step);
+            scoreDirector.assertPredictedScoreFromScratch(score, completedAction);
         }
         if (assertExpectedStepScore) {
-            scoreDirector.assertExpectedWorkingScore(score, step);
+            scoreDirector.assertExpectedWorkingScore(score, completedAction);
         }
         if (assertShadowVariablesAreNotStaleAfterStep) {
-            scoreDirector.assertShadowVariablesAreNotStale(score, step);
+            scoreDirector.assertShadowVariablesAreNotStale(score, completedAction);
         }
     }
 
@@ -16,25 +16,47 @@
 
 package org.optaplanner.core.impl.heuristic.thread;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.impl.heuristic.move.Move;
 
+/**
+ * Lock-free ring buffer that returns the move results in moveIndex order, regardless of the order
+ * in which the move threads produce them.
+ * <p>
+ * Each moveIndex has a preallocated slot ({@code moveIndex % capacity}).
+ * The stepIndex and moveIndex of the {@link MoveResult} in a slot act as its sequence number:
+ * a slot is only consumed if its result has the expected stepIndex and moveIndex,
+ * and a result never overwrites a result with a higher sequence number.
+ * This is safe because the solver thread never has more than {@code capacity} moves in circulation.
+ * <p>
+ * There is one consumer (the solver thread) and many producers (the move threads).
+ */
 public class OrderByMoveIndexBlockingQueue<Solution_> {
 
-    private final BlockingQueue<MoveResult<Solution_>> innerQueue;
-    private final Map<Integer, MoveResult<Solution_>> backlog;
+    /**
+     * Number of times the consumer checks its slot before parking its thread.
+     */
+    private static final int SPIN_LIMIT = 128;
+
+    private final int capacity;
+    private final AtomicReferenceArray<MoveResult<Solution_>> slots;
+    private final AtomicReference<MoveResult<Solution_>> exceptionResult = new AtomicReference<>(null);
 
-    private int filterStepIndex = Integer.MIN_VALUE;
-    private int nextMoveIndex =  Integer.MIN_VALUE;
+    private volatile int filterStepIndex = Integer.MIN_VALUE;
+    private int nextMoveIndex = Integer.MIN_VALUE;
+
+    private volatile Thread waitingConsumerThread = null;
 
     public OrderByMoveIndexBlockingQueue(int capacity) {
-        innerQueue = new ArrayBlockingQueue<>(capacity);
-        backlog = new HashMap<>(capacity);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity (" + capacity + ") must be greater than 0.");
+        }
+        this.capacity = capacity;
+        slots = new AtomicReferenceArray<>(capacity);
     }
 
     /**
@@ -42,24 +64,14 @@ public class OrderByMoveIndexBlockingQueue<Solution_> {
      * @param stepIndex at least 0
      */
     public void startNextStep(int stepIndex) {
-        synchronized (this) {
-            if (filterStepIndex >= stepIndex) {
-                throw new IllegalStateException("The old filterStepIndex (" + filterStepIndex
-                        + ") must be less than the stepIndex (" + stepIndex + ")");
-            }
-            filterStepIndex = stepIndex;
-            MoveResult<Solution_> exceptionResult = innerQueue.stream().filter(MoveResult::hasThrownException)
-                    .findFirst().orElse(null);
-            if (exceptionResult != null) {
-                throw new IllegalStateException("The move thread with moveThreadIndex ("
-                        + exceptionResult.getMoveThreadIndex() + ") has thrown an exception."
-                        + " Relayed here in the parent thread.",
-                        exceptionResult.getThrowable());
-            }
-            innerQueue.clear();
+        if (filterStepIndex >= stepIndex) {
+            throw new IllegalStateException("The old filterStepIndex (" + filterStepIndex
+                    + ") must be less than the stepIndex (" + stepIndex + ")");
         }
+        throwIfExceptionThrown();
+        // Results of the previous step that are still in a slot are ignored by take() and overwritten by addMove()
+        filterStepIndex = stepIndex;
         nextMoveIndex = 0;
-        backlog.clear();
     }
 
     /**
@@ -68,17 +80,13 @@ public class OrderByMoveIndexBlockingQueue<Solution_> {
      * @param stepIndex at least 0
      * @param moveIndex at least 0
      * @param move never null
-     * @see BlockingQueue#add(Object)
      */
     public void addUndoableMove(int moveThreadIndex, int stepIndex, int moveIndex, Move<Solution_> move) {
-        MoveResult<Solution_> result = new MoveResult<>(moveThreadIndex, stepIndex, moveIndex, move, false, null);
-        synchronized (this) {
-            if (result.getStepIndex() != filterStepIndex) {
-                // Discard element from previous step
-                return;
-            }
-            innerQueue.add(result);
+        if (stepIndex != filterStepIndex) {
+            // Discard element from previous step
+            return;
         }
+        publish(new MoveResult<>(moveThreadIndex, stepIndex, moveIndex, move, false, null));
     }
 
     /**
@@ -88,17 +96,32 @@ public class OrderByMoveIndexBlockingQueue<Solution_> {
      * @param moveIndex at least 0
      * @param move never null
      * @param score never null
-     * @see BlockingQueue#add(Object)
      */
     public void addMove(int moveThreadIndex, int stepIndex, int moveIndex, Move<Solution_> move, Score score) {
-        MoveResult<Solution_> result = new MoveResult<>(moveThreadIndex, stepIndex, moveIndex, move, true, score);
-        synchronized (this) {
-            if (result.getStepIndex() != filterStepIndex) {
-                // Discard element from previous step
+        if (stepIndex != filterStepIndex) {
+            // Discard element from previous step
+            return;
+        }
+        publish(new MoveResult<>(moveThreadIndex, stepIndex, moveIndex, move, true, score));
+    }
+
+    private void publish(MoveResult<Solution_> result) {
+        if (exceptionResult.get() != null) {
+            // Results added after an exception are never returned, just like in a FIFO queue
+            return;
+        }
+        int slotIndex = result.getMoveIndex() % capacity;
+        while (true) {
+            MoveResult<Solution_> oldResult = slots.get(slotIndex);
+            if (oldResult != null && oldResult.isNewerOrEqualTo(result)) {
+                // A move thread that is behind can't overwrite the result of the current step
                 return;
             }
-            innerQueue.add(result);
+            if (slots.compareAndSet(slotIndex, oldResult, result)) {
+                break;
+            }
         }
+        signalConsumer();
     }
 
     /**
@@ -106,49 +129,72 @@ public class OrderByMoveIndexBlockingQueue<Solution_> {
      * Previous results (that haven't been consumed yet), will still be returned during iteration
      * before the iteration throws an exception,
      * unless there's a lower moveIndex that isn't in the queue yet.
+     * Results added after the exception are discarded.
      * @param moveThreadIndex {@code 0 <= moveThreadIndex < moveThreadCount}
      * @param throwable never null
      */
     public void addExceptionThrown(int moveThreadIndex, Throwable throwable) {
         MoveResult<Solution_> result = new MoveResult<>(moveThreadIndex, throwable);
-        synchronized (this) {
-            innerQueue.add(result);
+        // If 2 exceptions are added from different threads concurrently, either one could end up first.
+        // This is a known deviation from 100% reproducibility, that never occurs in a success scenario.
+        exceptionResult.compareAndSet(null, result);
+        signalConsumer();
+    }
+
+    private void signalConsumer() {
+        Thread consumerThread = waitingConsumerThread;
+        if (consumerThread != null) {
+            LockSupport.unpark(consumerThread);
         }
     }
 
     /**
      * Not thread-safe. Can only be called from the solver thread.
+     * Blocks until the result with the next moveIndex is available.
      * @return never null
      * @throws InterruptedException if interrupted
-     * @see BlockingQueue#take()
      */
     public MoveResult<Solution_> take() throws InterruptedException {
+        int stepIndex = filterStepIndex;
         int moveIndex = nextMoveIndex;
-        nextMoveIndex++;
-        if (!backlog.isEmpty()) {
-            MoveResult<Solution_> result = backlog.remove(moveIndex);
-            if (result != null) {
+        int slotIndex = moveIndex % capacity;
+        int spinCount = 0;
+        while (true) {
+            MoveResult<Solution_> result = slots.get(slotIndex);
+            if (result != null && result.getStepIndex() == stepIndex && result.getMoveIndex() == moveIndex) {
+                nextMoveIndex++;
                 return result;
             }
-        }
-        while (true) {
-            MoveResult<Solution_> result = innerQueue.take();
-            // If 2 exceptions are added from different threads concurrently, either one could end up first.
-            // This is a known deviation from 100% reproducibility, that never occurs in a success scenario.
-            if (result.hasThrownException()) {
-                throw new IllegalStateException("The move thread with moveThreadIndex ("
-                        + result.getMoveThreadIndex() + ") has thrown an exception."
-                        + " Relayed here in the parent thread.",
-                        result.getThrowable());
+            throwIfExceptionThrown();
+            if (Thread.interrupted()) {
+                throw new InterruptedException("The solver thread was interrupted while waiting for moveIndex ("
+                        + moveIndex + ").");
             }
-            if (result.getMoveIndex() == moveIndex) {
-                return result;
+            if (spinCount < SPIN_LIMIT) {
+                spinCount++;
             } else {
-                backlog.put(result.getMoveIndex(), result);
+                // Register before the last check to avoid a lost wake-up, because publish() signals after its CAS
+                waitingConsumerThread = Thread.currentThread();
+                result = slots.get(slotIndex);
+                if ((result == null || result.getStepIndex() != stepIndex || result.getMoveIndex() != moveIndex)
+                        && exceptionResult.get() == null) {
+                    LockSupport.park(this);
+                }
+                waitingConsumerThread = null;
             }
         }
     }
 
+    private void throwIfExceptionThrown() {
+        MoveResult<Solution_> result = exceptionResult.get();
+        if (result != null) {
+            throw new IllegalStateException("The move thread with moveThreadIndex ("
+                    + result.getMoveThreadIndex() + ") has thrown an exception."
+                    + " Relayed here in the parent thread.",
+                    result.getThrowable());
+        }
+    }
+
     public static class MoveResult<Solution_> {
 
         private final int moveThreadIndex;
@@ -179,8 +225,11 @@ public class OrderByMoveIndexBlockingQueue<Solution_> {
             this.throwable = throwable;
         }
 
-        private boolean hasThrownException() {
-            return throwable != null;
+        private boolean isNewerOrEqualTo(MoveResult<Solution_> other) {
+            if (stepIndex != other.stepIndex) {
+                return stepIndex > other.stepIndex;
+            }
+            return moveIndex >= other.moveIndex;
         }
 
         public int getMoveThreadIndex() {
@@ -0,0 +1,424 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.thread;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
+import org.optaplanner.core.impl.domain.variable.listener.support.VariableChangeTracker;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+
+/**
+ * Records the genuine variable assignments of every step on the solver thread,
+ * so the move threads can catch up with the working solution by assigning those variables,
+ * instead of rebasing and doing each step move again.
+ * <p>
+ * A move thread only catches up when it takes a {@link MoveEvaluationOperation} of a later step,
+ * so a move thread that has caught up doesn't wait for the others.
+ * A move thread that lags several steps behind applies all of them as 1 batch:
+ * only the last value of each variable is assigned and the variable listeners are triggered once.
+ * <p>
+ * A move thread that is deactivated by the {@link MoveThreadController} {@link #detach(int) detaches},
+ * so the steps it misses are folded into 1 batch instead of being kept until it is {@link #reattach(int) reattached}.
+ * <p>
+ * The recording methods must be called on the solver thread, all other methods are thread-safe.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class StepJournal<Solution_> implements VariableChangeTracker<Solution_> {
+
+    // Only used by the solver thread
+    private InnerScoreDirector<Solution_> recordingScoreDirector = null;
+    private final Map<VariableKey, Object> recordingOldValueMap = new LinkedHashMap<>();
+
+    // Guarded by this
+    private final List<Entry<Solution_>> entryList = new ArrayList<>();
+    /**
+     * The stepIndex of the first element of {@link #entryList}.
+     * Entries that every move thread has applied are removed.
+     */
+    private int firstEntryStepIndex = 0;
+    private final int[] moveThreadStepIndexes;
+    private final boolean[] detacheds;
+    /**
+     * The last value of every variable assigned by the trimmed entries that a detached move thread still needs.
+     * Null if no move thread is detached.
+     */
+    private Map<VariableKey, Object> detachedValueMap = null;
+    private Score detachedScore = null;
+    private final int[] maximumStepLags;
+    private final long[] batchCounts;
+
+    /**
+     * @param moveThreadCount at least 1
+     */
+    public StepJournal(int moveThreadCount) {
+        moveThreadStepIndexes = new int[moveThreadCount];
+        detacheds = new boolean[moveThreadCount];
+        maximumStepLags = new int[moveThreadCount];
+        batchCounts = new long[moveThreadCount];
+    }
+
+    // ************************************************************************
+    // Recording methods
+    // ************************************************************************
+
+    /**
+     * Starts recording the variable changes of the step that is about to be done.
+     * @param scoreDirector never null, the solver thread's score director
+     */
+    public void startRecording(InnerScoreDirector<Solution_> scoreDirector) {
+        recordingScoreDirector = scoreDirector;
+        scoreDirector.getVariableListenerSupport().setVariableChangeTracker(this);
+    }
+
+    @Override
+    public void variableTouched(VariableDescriptor<Solution_> variableDescriptor, Object entity) {
+        if (!(variableDescriptor instanceof GenuineVariableDescriptor)) {
+            // The variable listeners of the move threads recalculate the shadow variables
+            return;
+        }
+        VariableKey key = new VariableKey(entity, variableDescriptor);
+        // The first touch happens before the change
+        recordingOldValueMap.putIfAbsent(key, variableDescriptor.getValue(entity));
+    }
+
+    @Override
+    public void entityTouched(EntityDescriptor<Solution_> entityDescriptor, Object entity) {
+        throw new IllegalStateException("Impossible situation: a step added or removed an entity (" + entity
+                + "), but only a problem fact change can do that.");
+    }
+
+    /**
+     * Stops recording and makes the step available to the move threads.
+     * @param stepIndex at least 0, the stepIndex of the step that has been done
+     * @param score never null, the score of the working solution after the step
+     */
+    public void publishStep(int stepIndex, Score score) {
+        stopRecording();
+        List<Object> entityList = new ArrayList<>(recordingOldValueMap.size());
+        List<GenuineVariableDescriptor<Solution_>> variableDescriptorList = new ArrayList<>(recordingOldValueMap.size());
+        List<Object> valueList = new ArrayList<>(recordingOldValueMap.size());
+        for (Map.Entry<VariableKey, Object> oldValueEntry : recordingOldValueMap.entrySet()) {
+            VariableKey key = oldValueEntry.getKey();
+            Object value = key.variableDescriptor.getValue(key.entity);
+            // Skip a variable that was changed and changed back, for example by a best solution swap
+            if (value != oldValueEntry.getValue()) {
+                entityList.add(key.entity);
+                variableDescriptorList.add((GenuineVariableDescriptor<Solution_>) key.variableDescriptor);
+                valueList.add(value);
+            }
+        }
+        recordingOldValueMap.clear();
+        Entry<Solution_> entry = new Entry<>(stepIndex, entityList.toArray(),
+                variableDescriptorList.toArray(new GenuineVariableDescriptor[0]), valueList.toArray(), score);
+        synchronized (this) {
+            int expectedStepIndex = firstEntryStepIndex + entryList.size();
+            if (stepIndex != expectedStepIndex) {
+                throw new IllegalStateException("Impossible situation: the published stepIndex (" + stepIndex
+                        + ") is not the expected stepIndex (" + expectedStepIndex + ").");
+            }
+            entryList.add(entry);
+        }
+    }
+
+    public void stopRecording() {
+        if (recordingScoreDirector != null) {
+            recordingScoreDirector.getVariableListenerSupport().setVariableChangeTracker(null);
+            recordingScoreDirector = null;
+        }
+    }
+
+    // ************************************************************************
+    // Move thread methods
+    // ************************************************************************
+
+    /**
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < moveThreadCount}
+     * @param targetStepIndex higher than the move thread's current stepIndex
+     * @return never null, never empty, the steps the move thread still needs to apply, in order
+     */
+    public synchronized List<Entry<Solution_>> catchUp(int moveThreadIndex, int targetStepIndex) {
+        int moveThreadStepIndex = moveThreadStepIndexes[moveThreadIndex];
+        int publishedStepCount = firstEntryStepIndex + entryList.size();
+        if (targetStepIndex <= moveThreadStepIndex || targetStepIndex > publishedStepCount) {
+            throw new IllegalStateException("Impossible situation: the move thread (" + moveThreadIndex
+                    + ") with stepIndex (" + moveThreadStepIndex + ") cannot catch up to the targetStepIndex ("
+                    + targetStepIndex + ") with a published step count (" + publishedStepCount + ").");
+        }
+        List<Entry<Solution_>> catchUpList = new ArrayList<>(entryList.subList(
+                moveThreadStepIndex - firstEntryStepIndex, targetStepIndex - firstEntryStepIndex));
+        moveThreadStepIndexes[moveThreadIndex] = targetStepIndex;
+        maximumStepLags[moveThreadIndex] = Math.max(maximumStepLags[moveThreadIndex], catchUpList.size());
+        batchCounts[moveThreadIndex]++;
+        trim();
+        return catchUpList;
+    }
+
+    /**
+     * Stops keeping the steps for a move thread that won't take any operations until it is reattached.
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < moveThreadCount}
+     */
+    public synchronized void detach(int moveThreadIndex) {
+        if (detacheds[moveThreadIndex]) {
+            throw new IllegalStateException("Impossible situation: the move thread (" + moveThreadIndex
+                    + ") is already detached.");
+        }
+        detacheds[moveThreadIndex] = true;
+        if (detachedValueMap == null) {
+            detachedValueMap = new LinkedHashMap<>();
+        }
+        trim();
+    }
+
+    /**
+     * Catches up a detached move thread with all published steps.
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < moveThreadCount}
+     * @return null if the move thread hasn't missed any step,
+     * otherwise the merged steps, with the stepIndex of the last published step
+     */
+    public synchronized Entry<Solution_> reattach(int moveThreadIndex) {
+        if (!detacheds[moveThreadIndex]) {
+            throw new IllegalStateException("Impossible situation: the move thread (" + moveThreadIndex
+                    + ") is not detached.");
+        }
+        int moveThreadStepIndex = moveThreadStepIndexes[moveThreadIndex];
+        int publishedStepCount = firstEntryStepIndex + entryList.size();
+        Entry<Solution_> batch;
+        if (moveThreadStepIndex >= publishedStepCount) {
+            batch = null;
+        } else {
+            List<Entry<Solution_>> batchEntryList = new ArrayList<>(entryList.size() + 1);
+            if (moveThreadStepIndex < firstEntryStepIndex) {
+                // The folded assignments also contain steps this move thread already applied,
+                // but those are still current unless a later step overwrites them
+                batchEntryList.add(toEntry(firstEntryStepIndex - 1, detachedValueMap, detachedScore));
+                batchEntryList.addAll(entryList);
+            } else {
+                batchEntryList.addAll(entryList.subList(moveThreadStepIndex - firstEntryStepIndex, entryList.size()));
+            }
+            batch = mergeEntries(batchEntryList);
+            maximumStepLags[moveThreadIndex] = Math.max(maximumStepLags[moveThreadIndex],
+                    publishedStepCount - moveThreadStepIndex);
+            batchCounts[moveThreadIndex]++;
+        }
+        moveThreadStepIndexes[moveThreadIndex] = publishedStepCount;
+        detacheds[moveThreadIndex] = false;
+        boolean anyDetached = false;
+        for (boolean detached : detacheds) {
+            anyDetached |= detached;
+        }
+        if (!anyDetached) {
+            detachedValueMap = null;
+            detachedScore = null;
+        }
+        trim();
+        return batch;
+    }
+
+    /**
+     * Removes the entries that every attached move thread has applied.
+     * Those that a detached move thread still needs are folded into the {@link #detachedValueMap}.
+     */
+    private void trim() {
+        int minimumStepIndex = Integer.MAX_VALUE;
+        int minimumDetachedStepIndex = Integer.MAX_VALUE;
+        for (int i = 0; i < moveThreadStepIndexes.length; i++) {
+            if (detacheds[i]) {
+                minimumDetachedStepIndex = Math.min(minimumDetachedStepIndex, moveThreadStepIndexes[i]);
+            } else {
+                minimumStepIndex = Math.min(minimumStepIndex, moveThreadStepIndexes[i]);
+            }
+        }
+        minimumStepIndex = Math.min(minimumStepIndex, firstEntryStepIndex + entryList.size());
+        if (minimumStepIndex <= firstEntryStepIndex) {
+            return;
+        }
+        List<Entry<Solution_>> trimmedEntryList = entryList.subList(0, minimumStepIndex - firstEntryStepIndex);
+        for (Entry<Solution_> entry : trimmedEntryList) {
+            if (entry.stepIndex >= minimumDetachedStepIndex) {
+                for (int i = 0; i < entry.entities.length; i++) {
+                    detachedValueMap.put(new VariableKey(entry.entities[i], entry.variableDescriptors[i]),
+                            entry.values[i]);
+                }
+                detachedScore = entry.score;
+            }
+        }
+        trimmedEntryList.clear();
+        firstEntryStepIndex = minimumStepIndex;
+    }
+
+    /**
+     * Merges consecutive steps into 1 batch, so every variable is assigned only once, to its last value.
+     * @param entryList never null, never empty, in step order
+     * @return never null
+     */
+    public static <Solution_> Entry<Solution_> mergeEntries(List<Entry<Solution_>> entryList) {
+        Entry<Solution_> lastEntry = entryList.get(entryList.size() - 1);
+        if (entryList.size() == 1) {
+            return lastEntry;
+        }
+        Map<VariableKey, Object> valueMap = new LinkedHashMap<>();
+        for (Entry<Solution_> entry : entryList) {
+            for (int i = 0; i < entry.entities.length; i++) {
+                valueMap.put(new VariableKey(entry.entities[i], entry.variableDescriptors[i]), entry.values[i]);
+            }
+        }
+        return toEntry(lastEntry.stepIndex, valueMap, lastEntry.score);
+    }
+
+    private static <Solution_> Entry<Solution_> toEntry(int stepIndex, Map<VariableKey, Object> valueMap,
+            Score score) {
+        Object[] entities = new Object[valueMap.size()];
+        GenuineVariableDescriptor<Solution_>[] variableDescriptors = new GenuineVariableDescriptor[valueMap.size()];
+        Object[] values = new Object[valueMap.size()];
+        int i = 0;
+        for (Map.Entry<VariableKey, Object> valueEntry : valueMap.entrySet()) {
+            entities[i] = valueEntry.getKey().entity;
+            variableDescriptors[i] = (GenuineVariableDescriptor<Solution_>) valueEntry.getKey().variableDescriptor;
+            values[i] = valueEntry.getValue();
+            i++;
+        }
+        return new Entry<>(stepIndex, entities, variableDescriptors, values, score);
+    }
+
+    /**
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < moveThreadCount}
+     * @return at least 0, the number of published steps that move thread hasn't applied yet
+     */
+    public synchronized int getStepLag(int moveThreadIndex) {
+        return firstEntryStepIndex + entryList.size() - moveThreadStepIndexes[moveThreadIndex];
+    }
+
+    /**
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < moveThreadCount}
+     * @return true if that move thread is detached
+     */
+    public synchronized boolean isDetached(int moveThreadIndex) {
+        return detacheds[moveThreadIndex];
+    }
+
+    /**
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < moveThreadCount}
+     * @return at least 0, the highest number of steps that move thread applied as 1 batch
+     */
+    public synchronized int getMaximumStepLag(int moveThreadIndex) {
+        return maximumStepLags[moveThreadIndex];
+    }
+
+    /**
+     * @param moveThreadIndex {@code 0 <= moveThreadIndex < moveThreadCount}
+     * @return at least 0
+     */
+    public synchronized long getBatchCount(int moveThreadIndex) {
+        return batchCounts[moveThreadIndex];
+    }
+
+    public static class Entry<Solution_> {
+
+        private final int stepIndex;
+        // The objects of the solver thread's working solution
+        private final Object[] entities;
+        private final GenuineVariableDescriptor<Solution_>[] variableDescriptors;
+        private final Object[] values;
+        private final Score score;
+
+        public Entry(int stepIndex, Object[] entities, GenuineVariableDescriptor<Solution_>[] variableDescriptors,
+                Object[] values, Score score) {
+            this.stepIndex = stepIndex;
+            this.entities = entities;
+            this.variableDescriptors = variableDescriptors;
+            this.values = values;
+            this.score = score;
+        }
+
+        /**
+         * @return the stepIndex of the (last) step
+         */
+        public int getStepIndex() {
+            return stepIndex;
+        }
+
+        /**
+         * @return at least 0, the number of variable assignments
+         */
+        public int size() {
+            return entities.length;
+        }
+
+        public Object getEntity(int index) {
+            return entities[index];
+        }
+
+        public GenuineVariableDescriptor<Solution_> getVariableDescriptor(int index) {
+            return variableDescriptors[index];
+        }
+
+        public Object getValue(int index) {
+            return values[index];
+        }
+
+        /**
+         * @return never null, the score of the working solution after the (last) step
+         */
+        public Score getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return "Step journal (" + stepIndex + ") with " + entities.length + " assignments";
+        }
+
+    }
+
+    private static final class VariableKey {
+
+        private final Object entity;
+        private final VariableDescriptor<?> variableDescriptor;
+
+        private VariableKey(Object entity, VariableDescriptor<?> variableDescriptor) {
+            this.entity = entity;
+            this.variableDescriptor = variableDescriptor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o instanceof VariableKey) {
+                VariableKey other = (VariableKey) o;
+                return entity == other.entity && variableDescriptor == other.variableDescriptor;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(entity) * 31 + System.identityHashCode(variableDescriptor);
+        }
+
+    }
+
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.islandsearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.config.heuristic.policy.HeuristicConfigPolicy;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.AcceptorConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.recaller.BestSolutionRecallerConfig;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.islandsearch.event.IslandSearchPhaseLifecycleListener;
+import org.optaplanner.core.impl.islandsearch.migration.IslandMigrationBoard;
+import org.optaplanner.core.impl.islandsearch.migration.IslandMigrator;
+import org.optaplanner.core.impl.islandsearch.scope.IslandSearchPhaseScope;
+import org.optaplanner.core.impl.islandsearch.scope.IslandSearchStepScope;
+import org.optaplanner.core.impl.localsearch.DefaultLocalSearchPhase;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.Acceptor;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.paralleltempering.ParallelTemperingAcceptor;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.paralleltempering.ReplicaExchangeLadder;
+import org.optaplanner.core.impl.partitionedsearch.PartitionSolver;
+import org.optaplanner.core.impl.partitionedsearch.queue.PartitionQueue;
+import org.optaplanner.core.impl.partitionedsearch.scope.PartitionChangeMove;
+import org.optaplanner.core.impl.phase.AbstractPhase;
+import org.optaplanner.core.impl.phase.Phase;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.ChildThreadType;
+import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
+import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
+import org.optaplanner.core.impl.solver.termination.ChildThreadPlumbingTermination;
+import org.optaplanner.core.impl.solver.termination.OrCompositeTermination;
+import org.optaplanner.core.impl.solver.termination.Termination;
+import org.optaplanner.core.impl.solver.thread.ChildThreadExecutorFactory;
+import org.optaplanner.core.impl.solver.thread.ThreadUtils;
+
+/**
+ * Default implementation of {@link IslandSearchPhase}.
+ * <p>
+ * Every island is a child solver on its own thread, with its own score director, its own working random
+ * and optionally its own acceptor. The islands run until this phase terminates.
+ * Every island's new best solution that is better than those of all other islands
+ * becomes a step of this phase, so the parent {@link BestSolutionRecaller} sees it.
+ * <p>
+ * With a {@link ReplicaExchangeLadder}, the islands are the replicas of parallel tempering:
+ * they exchange temperatures instead of migrating solutions.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class DefaultIslandSearchPhase<Solution_> extends AbstractPhase<Solution_>
+        implements IslandSearchPhase<Solution_>, IslandSearchPhaseLifecycleListener<Solution_> {
+
+    protected final ChildThreadExecutorFactory childThreadExecutorFactory;
+    protected final int islandCount;
+    protected final int migrationIntervalStepCount;
+
+    protected List<PhaseConfig> phaseConfigList;
+    protected List<AcceptorConfig> islandAcceptorConfigList = null;
+    protected ReplicaExchangeLadder replicaExchangeLadder = null;
+    protected HeuristicConfigPolicy configPolicy;
+
+    public DefaultIslandSearchPhase(int phaseIndex, String logIndentation,
+            BestSolutionRecaller<Solution_> bestSolutionRecaller, Termination termination,
+            ChildThreadExecutorFactory childThreadExecutorFactory, int islandCount, int migrationIntervalStepCount) {
+        super(phaseIndex, logIndentation, bestSolutionRecaller, termination);
+        this.childThreadExecutorFactory = childThreadExecutorFactory;
+        this.islandCount = islandCount;
+        this.migrationIntervalStepCount = migrationIntervalStepCount;
+    }
+
+    public void setPhaseConfigList(List<PhaseConfig> phaseConfigList) {
+        this.phaseConfigList = phaseConfigList;
+    }
+
+    /**
+     * @param islandAcceptorConfigList null or empty to use the acceptor of the phase configs on every island,
+     * otherwise island {@code i} uses element {@code i % size}
+     */
+    public void setIslandAcceptorConfigList(List<AcceptorConfig> islandAcceptorConfigList) {
+        this.islandAcceptorConfigList = islandAcceptorConfigList;
+    }
+
+    /**
+     * @param replicaExchangeLadder null to migrate solutions between the islands,
+     * otherwise its replicaCount must be the islandCount
+     * and the {@link LocalSearchPhaseConfig}s of the islands must use a {@link ParallelTemperingAcceptor}
+     */
+    public void setReplicaExchangeLadder(ReplicaExchangeLadder replicaExchangeLadder) {
+        if (replicaExchangeLadder != null && replicaExchangeLadder.getReplicaCount() != islandCount) {
+            throw new IllegalArgumentException("The replicaExchangeLadder's replicaCount ("
+                    + replicaExchangeLadder.getReplicaCount() + ") must be the islandCount (" + islandCount + ").");
+        }
+        this.replicaExchangeLadder = replicaExchangeLadder;
+    }
+
+    public void setConfigPolicy(HeuristicConfigPolicy configPolicy) {
+        this.configPolicy = configPolicy;
+    }
+
+    @Override
+    public String getPhaseTypeString() {
+        return "Island Search";
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    @Override
+    public void solve(DefaultSolverScope<Solution_> solverScope) {
+        IslandSearchPhaseScope<Solution_> phaseScope = new IslandSearchPhaseScope<>(solverScope, islandCount);
+        phaseStarted(phaseScope);
+        InnerScoreDirector<Solution_> parentScoreDirector = solverScope.getScoreDirector();
+        IslandMigrationBoard<Solution_> migrationBoard = new IslandMigrationBoard<>(phaseScope.getBestScore());
+        PartitionQueue<Solution_> islandQueue = new PartitionQueue<>(islandCount);
+        ExecutorService executor = childThreadExecutorFactory.buildExecutor(islandCount);
+        ChildThreadPlumbingTermination childThreadPlumbingTermination = new ChildThreadPlumbingTermination();
+        try {
+            for (int i = 0; i < islandCount; i++) {
+                int islandIndex = i;
+                PartitionSolver<Solution_> islandSolver = buildIslandSolver(islandIndex,
+                        childThreadPlumbingTermination, migrationBoard, solverScope);
+                islandSolver.addEventListener(event -> {
+                    Score newBestScore = event.getNewBestScore();
+                    // Synchronized, so the parent receives the island best solutions in improving order
+                    synchronized (migrationBoard) {
+                        if (!migrationBoard.isBetter(newBestScore)) {
+                            return;
+                        }
+                        InnerScoreDirector<Solution_> islandScoreDirector = islandSolver.getSolverScope().getScoreDirector();
+                        PartitionChangeMove<Solution_> move = PartitionChangeMove.createMove(
+                                islandScoreDirector, islandIndex);
+                        migrationBoard.offer(islandIndex, newBestScore, move);
+                        islandQueue.addMove(islandIndex, move.rebase(parentScoreDirector));
+                    }
+                });
+                // Clone on the solver thread, because the parent working solution changes once an island improves
+                Solution_ islandSolution = parentScoreDirector.cloneWorkingSolution();
+                executor.submit(() -> {
+                    try {
+                        islandSolver.solve(islandSolution);
+                        long islandCalculationCount = islandSolver.getScoreCalculationCount();
+                        logger.debug("{}        IS island ({}) ended: best score ({}), score calculation count ({}).",
+                                logIndentation, islandIndex, islandSolver.getBestScore(), islandCalculationCount);
+                        islandQueue.addFinish(islandIndex, islandCalculationCount);
+                    } catch (Throwable throwable) {
+                        // Any Exception or even Error that happens here (on an island thread) must be stored
+                        // in the islandQueue in order to be propagated to the solver thread.
+                        logger.trace("{}            Island thread ({}) exception that will be propagated to the solver thread.",
+                                logIndentation, islandIndex, throwable);
+                        islandQueue.addExceptionThrown(islandIndex, throwable);
+                    }
+                });
+            }
+            for (PartitionChangeMove<Solution_> step : islandQueue) {
+                IslandSearchStepScope<Solution_> stepScope = new IslandSearchStepScope<>(phaseScope);
+                stepStarted(stepScope);
+                stepScope.setStep(step);
+                if (logger.isDebugEnabled()) {
+                    stepScope.setStepString(step.toString());
+                }
+                doStep(stepScope);
+                stepEnded(stepScope);
+                phaseScope.setLastCompletedStepScope(stepScope);
+            }
+            phaseScope.addChildThreadsScoreCalculationCount(islandQueue.getPartsCalculationCount());
+            phaseScope.setMigrationCount(migrationBoard.getMigrationCount());
+            if (replicaExchangeLadder != null) {
+                double[] replicaAcceptanceRates = new double[islandCount];
+                for (int rung = 0; rung < islandCount; rung++) {
+                    replicaAcceptanceRates[rung] = replicaExchangeLadder.getAcceptanceRate(rung);
+                }
+                phaseScope.setReplicaAcceptanceRates(replicaAcceptanceRates);
+                phaseScope.setReplicaExchangeAttemptCount(replicaExchangeLadder.getExchangeAttemptCount());
+                phaseScope.setReplicaExchangeCount(replicaExchangeLadder.getExchangeCount());
+            }
+        } finally {
+            // In case one of the island threads threw an Exception, it is propagated here
+            // but the other island threads are not aware of the failure and may continue solving for a long time,
+            // so we need to ask them to terminate. In case no exception was thrown, this does nothing.
+            childThreadPlumbingTermination.terminateChildren();
+            ThreadUtils.shutdownAwaitOrKill(executor, logIndentation, "Island Search");
+        }
+        phaseEnded(phaseScope);
+    }
+
+    public PartitionSolver<Solution_> buildIslandSolver(int islandIndex,
+            ChildThreadPlumbingTermination childThreadPlumbingTermination,
+            IslandMigrationBoard<Solution_> migrationBoard, DefaultSolverScope<Solution_> solverScope) {
+        BestSolutionRecaller<Solution_> islandBestSolutionRecaller = new BestSolutionRecallerConfig()
+                .buildBestSolutionRecaller(configPolicy.getEnvironmentMode());
+        // An island is a child solver just like a part of a Partitioned Search, so it reuses PART_THREAD
+        Termination islandTermination = new OrCompositeTermination(childThreadPlumbingTermination,
+                termination.createChildThreadTermination(solverScope, ChildThreadType.PART_THREAD));
+        List<PhaseConfig> islandPhaseConfigList = buildIslandPhaseConfigList(islandIndex);
+        List<Phase<Solution_>> phaseList = new ArrayList<>(islandPhaseConfigList.size());
+        int islandPhaseIndex = 0;
+        for (PhaseConfig phaseConfig : islandPhaseConfigList) {
+            phaseList.add(phaseConfig.buildPhase(islandPhaseIndex, configPolicy, islandBestSolutionRecaller,
+                    islandTermination));
+            islandPhaseIndex++;
+        }
+        // Every island gets its own working random, seeded by the parent's working random
+        DefaultSolverScope<Solution_> islandSolverScope
+                = solverScope.createChildThreadSolverScope(ChildThreadType.PART_THREAD);
+        PartitionSolver<Solution_> islandSolver = new PartitionSolver<>(islandBestSolutionRecaller,
+                islandTermination, phaseList, islandSolverScope);
+        if (replicaExchangeLadder == null) {
+            islandSolver.addPhaseLifecycleListener(new IslandMigrator<>(migrationBoard, islandIndex,
+                    migrationIntervalStepCount, islandBestSolutionRecaller));
+        } else {
+            // A migration would overwrite a replica's state regardless of its temperature
+            for (Phase<Solution_> phase : phaseList) {
+                if (phase instanceof DefaultLocalSearchPhase) {
+                    Acceptor acceptor = ((DefaultLocalSearchPhase<Solution_>) phase).getDecider().getAcceptor();
+                    if (acceptor instanceof ParallelTemperingAcceptor) {
+                        ((ParallelTemperingAcceptor) acceptor).setReplica(replicaExchangeLadder, islandIndex);
+                    }
+                }
+            }
+        }
+        return islandSolver;
+    }
+
+    protected List<PhaseConfig> buildIslandPhaseConfigList(int islandIndex) {
+        if (ConfigUtils.isEmptyCollection(islandAcceptorConfigList)) {
+            return phaseConfigList;
+        }
+        AcceptorConfig islandAcceptorConfig = islandAcceptorConfigList.get(
+                islandIndex % islandAcceptorConfigList.size());
+        List<PhaseConfig> islandPhaseConfigList = new ArrayList<>(phaseConfigList.size());
+        for (PhaseConfig phaseConfig : phaseConfigList) {
+            if (phaseConfig instanceof LocalSearchPhaseConfig) {
+                LocalSearchPhaseConfig islandPhaseConfig = new LocalSearchPhaseConfig();
+                islandPhaseConfig.inherit((LocalSearchPhaseConfig) phaseConfig);
+                islandPhaseConfig.setAcceptorConfig(islandAcceptorConfig);
+                islandPhaseConfigList.add(islandPhaseConfig);
+            } else {
+                islandPhaseConfigList.add(phaseConfig);
+            }
+        }
+        return islandPhaseConfigList;
+    }
+
+    protected void doStep(IslandSearchStepScope<Solution_> stepScope) {
+        Move<Solution_> nextStep = stepScope.getStep();
+        nextStep.doMove(stepScope.getScoreDirector());
+        calculateWorkingStepScore(stepScope, nextStep);
+        bestSolutionRecaller.processWorkingSolutionDuringStep(stepScope);
+    }
+
+    @Override
+    public void phaseStarted(IslandSearchPhaseScope<Solution_> phaseScope) {
+        super.phaseStarted(phaseScope);
+    }
+
+    @Override
+    public void stepStarted(IslandSearchStepScope<Solution_> stepScope) {
+        super.stepStarted(stepScope);
+    }
+
+    @Override
+    public void stepEnded(IslandSearchStepScope<Solution_> stepScope) {
+        super.stepEnded(stepScope);
+        IslandSearchPhaseScope<Solution_> phaseScope = stepScope.getPhaseScope();
+        if (logger.isDebugEnabled()) {
+            logger.debug("{}    IS step ({}), time spent ({}), score ({}), {} best score ({}), picked move ({}).",
+                    logIndentation,
+                    stepScope.getStepIndex(),
+                    phaseScope.calculateSolverTimeMillisSpentUpToNow(),
+                    stepScope.getScore(),
+                    (stepScope.getBestScoreImproved() ? "new" : "   "), phaseScope.getBestScore(),
+                    stepScope.getStepString());
+        }
+    }
+
+    @Override
+    public void phaseEnded(IslandSearchPhaseScope<Solution_> phaseScope) {
+        super.phaseEnded(phaseScope);
+        phaseScope.endingNow();
+        logger.info("{}Island Search phase ({}) ended: time spent ({}), best score ({}),"
+                + " score calculation speed ({}/sec), step total ({}), islandCount ({}), migration count ({}).",
+                logIndentation,
+                phaseIndex,
+                phaseScope.calculateSolverTimeMillisSpentUpToNow(),
+                phaseScope.getBestScore(),
+                phaseScope.getPhaseScoreCalculationSpeed(),
+                phaseScope.getNextStepIndex(),
+                phaseScope.getIslandCount(),
+                phaseScope.getMigrationCount());
+        double[] replicaAcceptanceRates = phaseScope.getReplicaAcceptanceRates();
+        if (replicaAcceptanceRates != null) {
+            for (int rung = 0; rung < replicaAcceptanceRates.length; rung++) {
+                logger.info("{}    Parallel tempering rung ({}): temperature ({}), acceptance rate ({}).",
+                        logIndentation,
+                        rung,
+                        Arrays.toString(replicaExchangeLadder.getRungTemperatureLevels(rung)),
+                        replicaAcceptanceRates[rung]);
+            }
+            logger.info("{}    Parallel tempering exchanged ({}) of ({}) attempts.",
+                    logIndentation,
+                    phaseScope.getReplicaExchangeCount(),
+                    phaseScope.getReplicaExchangeAttemptCount());
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.islandsearch.migration;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.partitionedsearch.scope.PartitionChangeMove;
+
+/**
+ * Remembers the best solution found by any island, as the planning variable values of that island,
+ * so other islands can migrate to it without cloning a whole solution.
+ * <p>
+ * This class is thread-safe.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class IslandMigrationBoard<Solution_> {
+
+    private Score bestScore;
+    private int bestIslandIndex = -1;
+    private PartitionChangeMove<Solution_> bestMove = null;
+
+    private long migrationCount = 0L;
+
+    /**
+     * @param startingBestScore never null, the best score before any island started
+     */
+    public IslandMigrationBoard(Score startingBestScore) {
+        this.bestScore = startingBestScore;
+    }
+
+    /**
+     * @param score never null
+     * @return true if the score is better than the best score of all islands
+     */
+    public synchronized boolean isBetter(Score score) {
+        return score.compareTo(bestScore) > 0;
+    }
+
+    /**
+     * @param islandIndex {@code 0 <= islandIndex < islandCount}
+     * @param score never null
+     * @param move never null, created on the island's own thread
+     * @return true if the move is the new best, false if another island already found a better or equal score
+     */
+    public synchronized boolean offer(int islandIndex, Score score, PartitionChangeMove<Solution_> move) {
+        if (!isBetter(score)) {
+            return false;
+        }
+        bestScore = score;
+        bestIslandIndex = islandIndex;
+        bestMove = move;
+        return true;
+    }
+
+    /**
+     * @param islandIndex {@code 0 <= islandIndex < islandCount}
+     * @param islandBestScore never null
+     * @return null if the island doesn't lag behind the best island,
+     * otherwise the move to migrate, which still needs to be rebased
+     */
+    public synchronized PartitionChangeMove<Solution_> pollMigrant(int islandIndex, Score islandBestScore) {
+        if (bestMove == null || bestIslandIndex == islandIndex || islandBestScore.compareTo(bestScore) >= 0) {
+            return null;
+        }
+        migrationCount++;
+        return bestMove;
+    }
+
+    public synchronized Score getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * @return at least 0
+     */
+    public synchronized long getMigrationCount() {
+        return migrationCount;
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.islandsearch.migration;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.partitionedsearch.scope.PartitionChangeMove;
+import org.optaplanner.core.impl.phase.event.PhaseLifecycleListenerAdapter;
+import org.optaplanner.core.impl.phase.scope.AbstractStepScope;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
+
+/**
+ * Listens to the steps of 1 island and, every {@link #migrationIntervalStepCount} steps,
+ * overwrites its working solution with the best solution of all islands if this island lags behind.
+ * The planning variables are transferred by a rebased {@link PartitionChangeMove}, so nothing is cloned.
+ * <p>
+ * The migrant becomes the score of the step, so the acceptor of the next step continues from it.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class IslandMigrator<Solution_> extends PhaseLifecycleListenerAdapter<Solution_> {
+
+    protected final IslandMigrationBoard<Solution_> migrationBoard;
+    protected final int islandIndex;
+    protected final int migrationIntervalStepCount;
+    protected final BestSolutionRecaller<Solution_> bestSolutionRecaller;
+
+    public IslandMigrator(IslandMigrationBoard<Solution_> migrationBoard, int islandIndex,
+            int migrationIntervalStepCount, BestSolutionRecaller<Solution_> bestSolutionRecaller) {
+        if (migrationIntervalStepCount < 1) {
+            throw new IllegalArgumentException("The migrationIntervalStepCount (" + migrationIntervalStepCount
+                    + ") cannot be lower than 1.");
+        }
+        this.migrationBoard = migrationBoard;
+        this.islandIndex = islandIndex;
+        this.migrationIntervalStepCount = migrationIntervalStepCount;
+        this.bestSolutionRecaller = bestSolutionRecaller;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    @Override
+    public void stepEnded(AbstractStepScope<Solution_> stepScope) {
+        if ((stepScope.getStepIndex() + 1) % migrationIntervalStepCount != 0) {
+            return;
+        }
+        Score stepScore = stepScope.getScore();
+        // Don't interfere with a Construction Heuristic that hasn't initialized every entity yet
+        if (stepScore == null || !stepScore.isSolutionInitialized()) {
+            return;
+        }
+        PartitionChangeMove<Solution_> migrant = migrationBoard.pollMigrant(islandIndex,
+                stepScope.getPhaseScope().getBestScore());
+        if (migrant == null) {
+            return;
+        }
+        InnerScoreDirector<Solution_> scoreDirector = stepScope.getScoreDirector();
+        migrant.rebase(scoreDirector).doMove(scoreDirector);
+        // A solution cloned earlier in this step no longer matches the working solution
+        stepScope.setClonedSolution(null);
+        stepScope.setScore(scoreDirector.calculateScore());
+        bestSolutionRecaller.processWorkingSolutionDuringStep(stepScope);
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.islandsearch.scope;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.impl.phase.scope.AbstractPhaseScope;
+import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
+
+/**
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class IslandSearchPhaseScope<Solution_> extends AbstractPhaseScope<Solution_> {
+
+    private final int islandCount;
+    private long migrationCount = 0L;
+    private double[] replicaAcceptanceRates = null;
+    private long replicaExchangeAttemptCount = 0L;
+    private long replicaExchangeCount = 0L;
+
+    private IslandSearchStepScope<Solution_> lastCompletedStepScope;
+
+    public IslandSearchPhaseScope(DefaultSolverScope<Solution_> solverScope, int islandCount) {
+        super(solverScope);
+        this.islandCount = islandCount;
+        lastCompletedStepScope = new IslandSearchStepScope<>(this, -1);
+    }
+
+    public int getIslandCount() {
+        return islandCount;
+    }
+
+    /**
+     * @return at least 0, the number of times an island received the best solution of another island
+     */
+    public long getMigrationCount() {
+        return migrationCount;
+    }
+
+    public void setMigrationCount(long migrationCount) {
+        this.migrationCount = migrationCount;
+    }
+
+    /**
+     * @return null without parallel tempering, otherwise the acceptance rate of each replica temperature,
+     * from cold to hot, {@link Double#NaN} for a temperature that never ran a step
+     */
+    public double[] getReplicaAcceptanceRates() {
+        return replicaAcceptanceRates;
+    }
+
+    public void setReplicaAcceptanceRates(double[] replicaAcceptanceRates) {
+        this.replicaAcceptanceRates = replicaAcceptanceRates;
+    }
+
+    /**
+     * @return at least 0
+     */
+    public long getReplicaExchangeAttemptCount() {
+        return replicaExchangeAttemptCount;
+    }
+
+    public void setReplicaExchangeAttemptCount(long replicaExchangeAttemptCount) {
+        this.replicaExchangeAttemptCount = replicaExchangeAttemptCount;
+    }
+
+    /**
+     * @return at least 0, the number of times 2 replicas exchanged their temperature
+     */
+    public long getReplicaExchangeCount() {
+        return replicaExchangeCount;
+    }
+
+    public void setReplicaExchangeCount(long replicaExchangeCount) {
+        this.replicaExchangeCount = replicaExchangeCount;
+    }
+
+    @Override
+    public IslandSearchStepScope<Solution_> getLastCompletedStepScope() {
+        return lastCompletedStepScope;
+    }
+
+    public void setLastCompletedStepScope(IslandSearchStepScope<Solution_> lastCompletedStepScope) {
+        this.lastCompletedStepScope = lastCompletedStepScope;
+    }
+
+    // ************************************************************************
+    // Calculated methods
+    // ************************************************************************
+
+}
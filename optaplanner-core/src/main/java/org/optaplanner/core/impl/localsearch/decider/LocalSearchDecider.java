@@ -17,7 +17,9 @@
 package org.optaplanner.core.impl.localsearch.decider;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.move.MoveScoreDeltaCache;
 import org.optaplanner.core.impl.heuristic.selector.move.MoveSelector;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.Acceptor;
 import org.optaplanner.core.impl.localsearch.decider.forager.LocalSearchForager;
@@ -43,8 +45,13 @@ public class LocalSearchDecider<Solution_> {
     protected final Acceptor acceptor;
     protected final LocalSearchForager forager;
 
+    protected boolean moveScoreDeltaCacheEnabled = false;
+    protected int moveScoreDeltaCacheCapacity = MoveScoreDeltaCache.DEFAULT_CAPACITY;
+    protected MoveScoreDeltaCache<Solution_> moveScoreDeltaCache = null;
+
     protected boolean assertMoveScoreFromScratch = false;
     protected boolean assertExpectedUndoMoveScore = false;
+    protected boolean assertMoveScoreDeltaCacheHits = false;
 
     public LocalSearchDecider(String logIndentation,
             Termination termination, MoveSelector moveSelector, Acceptor acceptor, LocalSearchForager forager) {
@@ -71,6 +78,14 @@ public class LocalSearchDecider<Solution_> {
         return forager;
     }
 
+    public void setMoveScoreDeltaCacheEnabled(boolean moveScoreDeltaCacheEnabled) {
+        this.moveScoreDeltaCacheEnabled = moveScoreDeltaCacheEnabled;
+    }
+
+    public void setMoveScoreDeltaCacheCapacity(int moveScoreDeltaCacheCapacity) {
+        this.moveScoreDeltaCacheCapacity = moveScoreDeltaCacheCapacity;
+    }
+
     public void setAssertMoveScoreFromScratch(boolean assertMoveScoreFromScratch) {
         this.assertMoveScoreFromScratch = assertMoveScoreFromScratch;
     }
@@ -79,6 +94,10 @@ public class LocalSearchDecider<Solution_> {
         this.assertExpectedUndoMoveScore = assertExpectedUndoMoveScore;
     }
 
+    public void setAssertMoveScoreDeltaCacheHits(boolean assertMoveScoreDeltaCacheHits) {
+        this.assertMoveScoreDeltaCacheHits = assertMoveScoreDeltaCacheHits;
+    }
+
     // ************************************************************************
     // Worker methods
     // ************************************************************************
@@ -93,6 +112,10 @@ public class LocalSearchDecider<Solution_> {
         moveSelector.phaseStarted(phaseScope);
         acceptor.phaseStarted(phaseScope);
         forager.phaseStarted(phaseScope);
+        if (moveScoreDeltaCacheEnabled) {
+            moveScoreDeltaCache = MoveScoreDeltaCache.buildForPhase(phaseScope, moveScoreDeltaCacheCapacity,
+                    assertMoveScoreDeltaCacheHits);
+        }
     }
 
     public void stepStarted(LocalSearchStepScope<Solution_> stepScope) {
@@ -129,20 +152,41 @@ public class LocalSearchDecider<Solution_> {
 
     protected void doMove(LocalSearchMoveScope<Solution_> moveScope) {
         InnerScoreDirector<Solution_> scoreDirector = moveScope.getScoreDirector();
-        scoreDirector.doAndProcessMove(moveScope.getMove(), assertMoveScoreFromScratch, score -> {
-                    moveScope.setScore(score);
-                    boolean accepted = acceptor.isAccepted(moveScope);
-                    moveScope.setAccepted(accepted);
-                    forager.addMove(moveScope);
-                });
+        if (moveScoreDeltaCache != null) {
+            moveScoreDeltaCache.doAndProcessMove(moveScope, assertMoveScoreFromScratch, score -> {
+                moveScope.setScore(score);
+                processMove(moveScope);
+            });
+        } else if (!assertMoveScoreFromScratch && scoreDirector.supportsScoreAccumulator()) {
+            // Avoid creating a Score instance for every move, most moves are thrown away
+            scoreDirector.doAndProcessMoveWithScoreAccumulator(moveScope.getMove(), (scoreAccumulator, initScore) -> {
+                moveScope.setScoreAccumulator(scoreAccumulator, initScore);
+                processMove(moveScope);
+                moveScope.detachScoreAccumulator();
+            });
+        } else {
+            scoreDirector.doAndProcessMove(moveScope.getMove(), assertMoveScoreFromScratch, score -> {
+                moveScope.setScore(score);
+                processMove(moveScope);
+            });
+        }
         if (assertExpectedUndoMoveScore) {
             scoreDirector.assertExpectedUndoMoveScore(moveScope.getMove(),
                     moveScope.getStepScope().getPhaseScope().getLastCompletedStepScope().getScore());
         }
-        logger.trace("{}        Move index ({}), score ({}), accepted ({}), move ({}).",
-                logIndentation,
-                moveScope.getMoveIndex(), moveScope.getScore(), moveScope.getAccepted(),
-                moveScope.getMove());
+    }
+
+    private void processMove(LocalSearchMoveScope<Solution_> moveScope) {
+        boolean accepted = acceptor.isAccepted(moveScope);
+        moveScope.setAccepted(accepted);
+        forager.addMove(moveScope);
+        if (logger.isTraceEnabled()) {
+            // Before the move is undone, because getScore() might need the ScoreAccumulator
+            logger.trace("{}        Move index ({}), score ({}), accepted ({}), move ({}).",
+                    logIndentation,
+                    moveScope.getMoveIndex(), moveScope.getScore(), moveScope.getAccepted(),
+                    moveScope.getMove());
+        }
     }
 
     protected void pickMove(LocalSearchStepScope<Solution_> stepScope) {
@@ -150,6 +194,9 @@ public class LocalSearchDecider<Solution_> {
         if (pickedMoveScope != null) {
             Move<Solution_> step = pickedMoveScope.getMove();
             stepScope.setStep(step);
+            if (moveScoreDeltaCache != null) {
+                moveScoreDeltaCache.stepPicked(stepScope);
+            }
             if (logger.isDebugEnabled()) {
                 stepScope.setStepString(step.toString());
             }
@@ -158,6 +205,9 @@ public class LocalSearchDecider<Solution_> {
     }
 
     public void stepEnded(LocalSearchStepScope<Solution_> stepScope) {
+        if (moveScoreDeltaCache != null) {
+            moveScoreDeltaCache.stepEnded(stepScope);
+        }
         moveSelector.stepEnded(stepScope);
         acceptor.stepEnded(stepScope);
         forager.stepEnded(stepScope);
@@ -167,6 +217,10 @@ public class LocalSearchDecider<Solution_> {
         moveSelector.phaseEnded(phaseScope);
         acceptor.phaseEnded(phaseScope);
         forager.phaseEnded(phaseScope);
+        if (moveScoreDeltaCache != null) {
+            moveScoreDeltaCache.phaseEnded(phaseScope, logIndentation);
+            moveScoreDeltaCache = null;
+        }
     }
 
     public void solvingEnded(DefaultSolverScope<Solution_> solverScope) {
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.localsearch.decider.acceptor.paralleltempering;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.AbstractAcceptor;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.simulatedannealing.SimulatedAnnealingAcceptor;
+import org.optaplanner.core.impl.localsearch.scope.LocalSearchMoveScope;
+import org.optaplanner.core.impl.localsearch.scope.LocalSearchPhaseScope;
+import org.optaplanner.core.impl.localsearch.scope.LocalSearchStepScope;
+import org.optaplanner.core.impl.score.ScoreUtils;
+
+/**
+ * 1 replica of parallel tempering: accepts like {@link SimulatedAnnealingAcceptor},
+ * but at the constant temperature of its rung on the {@link ReplicaExchangeLadder},
+ * instead of a cooling schedule.
+ * Every {@link ReplicaExchangeLadder#getExchangeIntervalStepCount()} steps,
+ * it tries to exchange its rung with an adjacent replica.
+ * <p>
+ * The replicas run concurrently, each in its own child solver with its own score director,
+ * so the ladder must be set before the phase starts.
+ * Another replica can exchange rungs with this one at any time,
+ * so the rung is read again from the ladder at the start of every step
+ * and the move counts of a step are credited to the rung that evaluated those moves.
+ */
+public class ParallelTemperingAcceptor extends AbstractAcceptor {
+
+    protected ReplicaExchangeLadder ladder = null;
+    protected int replicaIndex = -1;
+
+    protected int levelsLength = -1;
+    protected int rung = -1;
+    protected double[] temperatureLevels;
+    /**
+     * Evaluated on {@link #rung}, not yet registered on the ladder.
+     */
+    protected long acceptedMoveCount = 0L;
+    protected long selectedMoveCount = 0L;
+
+    /**
+     * @param ladder never null, shared by all replicas
+     * @param replicaIndex {@code 0 <= replicaIndex < ladder.getReplicaCount()}
+     */
+    public void setReplica(ReplicaExchangeLadder ladder, int replicaIndex) {
+        if (replicaIndex < 0 || replicaIndex >= ladder.getReplicaCount()) {
+            throw new IllegalArgumentException("The replicaIndex (" + replicaIndex
+                    + ") must be at least 0 and lower than the replicaCount (" + ladder.getReplicaCount() + ").");
+        }
+        this.ladder = ladder;
+        this.replicaIndex = replicaIndex;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    @Override
+    public void phaseStarted(LocalSearchPhaseScope phaseScope) {
+        super.phaseStarted(phaseScope);
+        if (ladder == null) {
+            throw new IllegalStateException("The " + getClass().getSimpleName()
+                    + " has no replica ladder: parallel tempering only works inside an islandSearch phase"
+                    + " with a parallelTempering configuration.");
+        }
+        rung = ladder.getRung(replicaIndex);
+        temperatureLevels = ladder.getRungTemperatureLevels(rung);
+        levelsLength = temperatureLevels.length;
+        acceptedMoveCount = 0L;
+        selectedMoveCount = 0L;
+    }
+
+    @Override
+    public void stepStarted(LocalSearchStepScope stepScope) {
+        super.stepStarted(stepScope);
+        // Another replica might have exchanged rungs with this one
+        int currentRung = ladder.getRung(replicaIndex);
+        if (currentRung != rung) {
+            registerMoveCounts();
+            rung = currentRung;
+            temperatureLevels = ladder.getRungTemperatureLevels(rung);
+        }
+    }
+
+    @Override
+    public boolean isAccepted(LocalSearchMoveScope moveScope) {
+        LocalSearchPhaseScope phaseScope = moveScope.getStepScope().getPhaseScope();
+        Score lastStepScore = phaseScope.getLastCompletedStepScope().getScore();
+        if (moveScope.compareScoreTo(lastStepScore) >= 0) {
+            return true;
+        }
+        Score moveScoreDifference = lastStepScore.subtract(moveScope.getScore());
+        double[] moveScoreDifferenceLevels = ScoreUtils.extractLevelDoubles(moveScoreDifference);
+        double acceptChance = 1.0;
+        for (int i = 0; i < levelsLength; i++) {
+            double moveScoreDifferenceLevel = moveScoreDifferenceLevels[i];
+            if (moveScoreDifferenceLevel > 0.0) {
+                acceptChance *= Math.exp(-moveScoreDifferenceLevel / temperatureLevels[i]);
+            }
+        }
+        return moveScope.getWorkingRandom().nextDouble() < acceptChance;
+    }
+
+    @Override
+    public void stepEnded(LocalSearchStepScope stepScope) {
+        super.stepEnded(stepScope);
+        acceptedMoveCount += stepScope.getAcceptedMoveCount();
+        selectedMoveCount += stepScope.getSelectedMoveCount();
+        if ((stepScope.getStepIndex() + 1) % ladder.getExchangeIntervalStepCount() != 0) {
+            return;
+        }
+        registerMoveCounts();
+        // The exchanged rung applies from the next step onwards, see stepStarted()
+        ladder.exchange(replicaIndex, stepScope.getScore(), stepScope.getWorkingRandom());
+    }
+
+    @Override
+    public void phaseEnded(LocalSearchPhaseScope phaseScope) {
+        super.phaseEnded(phaseScope);
+        registerMoveCounts();
+        rung = -1;
+        temperatureLevels = null;
+        levelsLength = -1;
+    }
+
+    private void registerMoveCounts() {
+        if (selectedMoveCount > 0L) {
+            ladder.registerMoveCounts(rung, acceptedMoveCount, selectedMoveCount);
+            acceptedMoveCount = 0L;
+            selectedMoveCount = 0L;
+        }
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.localsearch.decider.acceptor.paralleltempering;
+
+import java.util.Random;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.score.ScoreUtils;
+
+/**
+ * The temperature ladder of parallel tempering (also known as replica exchange):
+ * every replica runs a {@link ParallelTemperingAcceptor} at the constant temperature of its rung
+ * and the rungs are geometrically spaced between the minimum and the maximum temperature.
+ * <p>
+ * Periodically, a replica tries to exchange its rung with the replica on an adjacent rung,
+ * by the Metropolis criterion on their step scores.
+ * Exchanging the temperatures of 2 replicas is equivalent to exchanging their working solutions,
+ * but it doesn't need to transfer any planning variables between the threads.
+ * The other replica doesn't wait for the exchange, so its step score can be a few steps old,
+ * and it only notices its new rung when it starts its next step.
+ * <p>
+ * The acceptance rate per rung is tracked, as a statistic to tune the temperatures:
+ * a cold rung with an acceptance rate close to 0 or a hot rung with one close to 1 is a waste of a replica.
+ * <p>
+ * This class is thread-safe.
+ */
+public class ReplicaExchangeLadder {
+
+    protected final int replicaCount;
+    protected final int exchangeIntervalStepCount;
+    protected final int levelsLength;
+    /**
+     * Indexed by rung, from cold to hot.
+     */
+    protected final double[][] temperatureLevels;
+
+    private final int[] rungOfReplica;
+    private final int[] replicaOfRung;
+    private final double[][] stepScoreLevelsOfReplica;
+
+    private final long[] acceptedMoveCountOfRung;
+    private final long[] selectedMoveCountOfRung;
+    private long exchangeAttemptCount = 0L;
+    private long exchangeCount = 0L;
+
+    /**
+     * @param minimumTemperature never null, the temperature of the coldest rung, every level higher than 0
+     * @param maximumTemperature never null, the temperature of the hottest rung, every level at least as high
+     * as the same level of the minimumTemperature
+     * @param replicaCount at least 1
+     * @param exchangeIntervalStepCount at least 1
+     */
+    public ReplicaExchangeLadder(Score minimumTemperature, Score maximumTemperature,
+            int replicaCount, int exchangeIntervalStepCount) {
+        if (replicaCount < 1) {
+            throw new IllegalArgumentException("The replicaCount (" + replicaCount
+                    + ") cannot be lower than 1.");
+        }
+        if (exchangeIntervalStepCount < 1) {
+            throw new IllegalArgumentException("The exchangeIntervalStepCount (" + exchangeIntervalStepCount
+                    + ") cannot be lower than 1.");
+        }
+        this.replicaCount = replicaCount;
+        this.exchangeIntervalStepCount = exchangeIntervalStepCount;
+        double[] minimumLevels = ScoreUtils.extractLevelDoubles(minimumTemperature);
+        double[] maximumLevels = ScoreUtils.extractLevelDoubles(maximumTemperature);
+        levelsLength = minimumLevels.length;
+        for (int i = 0; i < levelsLength; i++) {
+            if (minimumLevels[i] <= 0.0) {
+                throw new IllegalArgumentException("The minimumTemperature (" + minimumTemperature
+                        + ") must have a level (" + minimumLevels[i] + ") higher than 0.");
+            }
+            if (maximumLevels[i] < minimumLevels[i]) {
+                throw new IllegalArgumentException("The maximumTemperature (" + maximumTemperature
+                        + ") cannot have a level (" + maximumLevels[i]
+                        + ") lower than the minimumTemperature (" + minimumTemperature + ").");
+            }
+        }
+        temperatureLevels = new double[replicaCount][levelsLength];
+        for (int rung = 0; rung < replicaCount; rung++) {
+            double exponent = replicaCount == 1 ? 0.0 : ((double) rung) / (replicaCount - 1);
+            for (int i = 0; i < levelsLength; i++) {
+                temperatureLevels[rung][i] = minimumLevels[i] * Math.pow(maximumLevels[i] / minimumLevels[i], exponent);
+            }
+        }
+        rungOfReplica = new int[replicaCount];
+        replicaOfRung = new int[replicaCount];
+        for (int i = 0; i < replicaCount; i++) {
+            rungOfReplica[i] = i;
+            replicaOfRung[i] = i;
+        }
+        stepScoreLevelsOfReplica = new double[replicaCount][];
+        acceptedMoveCountOfRung = new long[replicaCount];
+        selectedMoveCountOfRung = new long[replicaCount];
+    }
+
+    public int getReplicaCount() {
+        return replicaCount;
+    }
+
+    public int getExchangeIntervalStepCount() {
+        return exchangeIntervalStepCount;
+    }
+
+    /**
+     * @param rung {@code 0 <= rung < replicaCount}, 0 is the coldest
+     * @return never null, do not modify
+     */
+    public double[] getRungTemperatureLevels(int rung) {
+        return temperatureLevels[rung];
+    }
+
+    /**
+     * @param replicaIndex {@code 0 <= replicaIndex < replicaCount}
+     * @return never null, do not modify
+     */
+    public synchronized double[] getTemperatureLevels(int replicaIndex) {
+        return temperatureLevels[rungOfReplica[replicaIndex]];
+    }
+
+    /**
+     * @param replicaIndex {@code 0 <= replicaIndex < replicaCount}
+     * @return {@code 0 <= rung < replicaCount}, 0 is the coldest
+     */
+    public synchronized int getRung(int replicaIndex) {
+        return rungOfReplica[replicaIndex];
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    /**
+     * Registers the moves a replica evaluated at the temperature of a rung.
+     * The caller passes the rung it evaluated those moves on,
+     * because another replica can exchange rungs with it at any time.
+     * @param rung {@code 0 <= rung < replicaCount}, the rung the moves were evaluated on
+     * @param acceptedMoveCount at least 0
+     * @param selectedMoveCount at least 0
+     */
+    public synchronized void registerMoveCounts(int rung, long acceptedMoveCount, long selectedMoveCount) {
+        acceptedMoveCountOfRung[rung] += acceptedMoveCount;
+        selectedMoveCountOfRung[rung] += selectedMoveCount;
+    }
+
+    /**
+     * Tries to exchange the current rung of a replica with a random adjacent rung.
+     * The replica on the other rung doesn't take part: it notices its new rung
+     * through {@link #getRung(int)} when it starts its next step.
+     * @param replicaIndex {@code 0 <= replicaIndex < replicaCount}
+     * @param stepScore never null, the score of the replica's working solution
+     * @param workingRandom never null, the replica's own working random
+     * @return true if the replica moved to another rung
+     */
+    public synchronized boolean exchange(int replicaIndex, Score stepScore, Random workingRandom) {
+        int rung = rungOfReplica[replicaIndex];
+        stepScoreLevelsOfReplica[replicaIndex] = ScoreUtils.extractLevelDoubles(stepScore);
+        if (replicaCount == 1) {
+            return false;
+        }
+        int otherRung;
+        if (rung == 0) {
+            otherRung = 1;
+        } else if (rung == replicaCount - 1) {
+            otherRung = rung - 1;
+        } else {
+            otherRung = workingRandom.nextBoolean() ? rung + 1 : rung - 1;
+        }
+        int otherReplicaIndex = replicaOfRung[otherRung];
+        double[] otherStepScoreLevels = stepScoreLevelsOfReplica[otherReplicaIndex];
+        if (otherStepScoreLevels == null) {
+            // The other replica hasn't reached its first exchange yet
+            return false;
+        }
+        exchangeAttemptCount++;
+        double exchangeChance = calculateExchangeChance(
+                temperatureLevels[rung], stepScoreLevelsOfReplica[replicaIndex],
+                temperatureLevels[otherRung], otherStepScoreLevels);
+        if (workingRandom.nextDouble() >= exchangeChance) {
+            return false;
+        }
+        rungOfReplica[replicaIndex] = otherRung;
+        rungOfReplica[otherReplicaIndex] = rung;
+        replicaOfRung[rung] = otherReplicaIndex;
+        replicaOfRung[otherRung] = replicaIndex;
+        exchangeCount++;
+        return true;
+    }
+
+    /**
+     * The Metropolis criterion of replica exchange, {@code min(1, exp((1/T_a - 1/T_b) * (score_b - score_a)))},
+     * multiplied over the score levels, just like the accept chance of simulated annealing.
+     * The score is the negated energy.
+     * @return {@code 0.0 <= chance <= 1.0}
+     */
+    protected double calculateExchangeChance(double[] temperatureLevelsA, double[] scoreLevelsA,
+            double[] temperatureLevelsB, double[] scoreLevelsB) {
+        double exchangeChance = 1.0;
+        for (int i = 0; i < levelsLength; i++) {
+            double exponent = (1.0 / temperatureLevelsA[i] - 1.0 / temperatureLevelsB[i])
+                    * (scoreLevelsB[i] - scoreLevelsA[i]);
+            if (exponent < 0.0) {
+                exchangeChance *= Math.exp(exponent);
+            }
+        }
+        return exchangeChance;
+    }
+
+    /**
+     * @param rung {@code 0 <= rung < replicaCount}, 0 is the coldest
+     * @return {@code 0.0 <= rate <= 1.0}, the ratio of accepted moves to selected moves on that rung,
+     * {@link Double#NaN} if no moves have been registered for that rung yet
+     */
+    public synchronized double getAcceptanceRate(int rung) {
+        long selectedMoveCount = selectedMoveCountOfRung[rung];
+        return selectedMoveCount == 0L ? Double.NaN
+                : ((double) acceptedMoveCountOfRung[rung]) / selectedMoveCount;
+    }
+
+    /**
+     * @return at least 0
+     */
+    public synchronized long getExchangeAttemptCount() {
+        return exchangeAttemptCount;
+    }
+
+    /**
+     * @return at least 0, at most {@link #getExchangeAttemptCount()}
+     */
+    public synchronized long getExchangeCount() {
+        return exchangeCount;
+    }
+
+}
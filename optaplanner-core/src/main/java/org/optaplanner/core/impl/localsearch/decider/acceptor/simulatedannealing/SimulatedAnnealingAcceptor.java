@@ -71,10 +71,10 @@ public class SimulatedAnnealingAcceptor extends AbstractAcceptor {
     public boolean isAccepted(LocalSearchMoveScope moveScope) {
         LocalSearchPhaseScope phaseScope = moveScope.getStepScope().getPhaseScope();
         Score lastStepScore = phaseScope.getLastCompletedStepScope().getScore();
-        Score moveScore = moveScope.getScore();
-        if (moveScore.compareTo(lastStepScore) >= 0) {
+        if (moveScope.compareScoreTo(lastStepScore) >= 0) {
             return true;
         }
+        Score moveScore = moveScope.getScore();
         Score moveScoreDifference = lastStepScore.subtract(moveScore);
         double[] moveScoreDifferenceLevels = ScoreUtils.extractLevelDoubles(moveScoreDifference);
         double acceptChance = 1.0;
@@ -16,16 +16,15 @@
 
 package org.optaplanner.core.impl.localsearch.decider.acceptor.tabu;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
 
+import org.optaplanner.core.config.localsearch.decider.acceptor.tabu.TabuStoreType;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.AbstractAcceptor;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.Acceptor;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.size.TabuSizeStrategy;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.store.HashMapTabuStore;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.store.OpenAddressingTabuStore;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.store.TabuStore;
 import org.optaplanner.core.impl.localsearch.scope.LocalSearchMoveScope;
 import org.optaplanner.core.impl.localsearch.scope.LocalSearchPhaseScope;
 import org.optaplanner.core.impl.localsearch.scope.LocalSearchStepScope;
@@ -41,11 +40,11 @@ public abstract class AbstractTabuAcceptor extends AbstractAcceptor {
     protected TabuSizeStrategy tabuSizeStrategy = null;
     protected TabuSizeStrategy fadingTabuSizeStrategy = null;
     protected boolean aspirationEnabled = true;
+    protected TabuStoreType tabuStoreType = TabuStoreType.HASH_MAP;
 
     protected boolean assertTabuHashCodeCorrectness = false;
 
-    protected Map<Object, Integer> tabuToStepIndexMap;
-    protected Deque<Object> tabuSequenceDeque;
+    protected TabuStore tabuStore;
 
     protected int workingTabuSize = -1;
     protected int workingFadingTabuSize = -1;
@@ -66,6 +65,10 @@ public abstract class AbstractTabuAcceptor extends AbstractAcceptor {
         this.aspirationEnabled = aspirationEnabled;
     }
 
+    public void setTabuStoreType(TabuStoreType tabuStoreType) {
+        this.tabuStoreType = tabuStoreType;
+    }
+
     public void setAssertTabuHashCodeCorrectness(boolean assertTabuHashCodeCorrectness) {
         this.assertTabuHashCodeCorrectness = assertTabuHashCodeCorrectness;
     }
@@ -82,15 +85,32 @@ public abstract class AbstractTabuAcceptor extends AbstractAcceptor {
         workingTabuSize = tabuSizeStrategy == null ? 0 : tabuSizeStrategy.determineTabuSize(lastCompletedStepScope);
         workingFadingTabuSize = fadingTabuSizeStrategy == null ? 0 : fadingTabuSizeStrategy.determineTabuSize(lastCompletedStepScope);
         int totalTabuListSize = workingTabuSize + workingFadingTabuSize; // is at least 1
-        tabuToStepIndexMap = new HashMap<>(totalTabuListSize);
-        tabuSequenceDeque = new ArrayDeque<>();
+        tabuStore = buildTabuStore(totalTabuListSize);
+    }
+
+    protected TabuStore buildTabuStore(int initialCapacity) {
+        switch (tabuStoreType) {
+            case HASH_MAP:
+                return new HashMapTabuStore(initialCapacity);
+            case OPEN_ADDRESSING:
+                return new OpenAddressingTabuStore(isTabuIdentityBased(), initialCapacity);
+            default:
+                throw new IllegalStateException("The tabuStoreType (" + tabuStoreType + ") is not implemented.");
+        }
+    }
+
+    /**
+     * Only used by {@link TabuStoreType#OPEN_ADDRESSING}.
+     * @return true if 2 tabus are only the same tabu if they are the same instance
+     */
+    protected boolean isTabuIdentityBased() {
+        return false;
     }
 
     @Override
     public void phaseEnded(LocalSearchPhaseScope phaseScope) {
         super.phaseEnded(phaseScope);
-        tabuToStepIndexMap = null;
-        tabuSequenceDeque = null;
+        tabuStore = null;
         workingTabuSize = -1;
         workingFadingTabuSize = -1;
     }
@@ -107,30 +127,10 @@ public abstract class AbstractTabuAcceptor extends AbstractAcceptor {
     protected void adjustTabuList(int tabuStepIndex, Collection<? extends Object> tabus) {
         int totalTabuListSize = workingTabuSize + workingFadingTabuSize; // is at least 1
         // Remove the oldest tabu(s)
-        for (Iterator<Object> it = tabuSequenceDeque.iterator(); it.hasNext();) {
-            Object oldTabu = it.next();
-            Integer oldTabuStepIndexInteger = tabuToStepIndexMap.get(oldTabu);
-            if (oldTabuStepIndexInteger == null) {
-                throw new IllegalStateException("HashCode stability violation: the hashCode() of tabu ("
-                        + oldTabu + ") of class (" + oldTabu.getClass()
-                        + ") changed during planning, since it was inserted in the tabu Map or Set.");
-            }
-            int oldTabuStepCount = tabuStepIndex - oldTabuStepIndexInteger; // at least 1
-            if (oldTabuStepCount < totalTabuListSize) {
-                break;
-            }
-            it.remove();
-            tabuToStepIndexMap.remove(oldTabu);
-        }
+        tabuStore.expireTabus(tabuStepIndex, totalTabuListSize);
         // Add the new tabu(s)
         for (Object tabu : tabus) {
-            // Push tabu to the end of the line
-            if (tabuToStepIndexMap.containsKey(tabu)) {
-                tabuToStepIndexMap.remove(tabu);
-                tabuSequenceDeque.remove(tabu);
-            }
-            tabuToStepIndexMap.put(tabu, tabuStepIndex);
-            tabuSequenceDeque.add(tabu);
+            tabuStore.addTabu(tabu, tabuStepIndex);
         }
     }
 
@@ -143,8 +143,7 @@ public abstract class AbstractTabuAcceptor extends AbstractAcceptor {
         }
         if (aspirationEnabled) {
             // Natural comparison because shifting penalties don't apply
-            if (moveScope.getScore().compareTo(
-                    moveScope.getStepScope().getPhaseScope().getBestScore()) > 0) {
+            if (moveScope.compareScoreTo(moveScope.getStepScope().getPhaseScope().getBestScore()) > 0) {
                 logger.trace("{}        Proposed move ({}) is tabu, but is accepted anyway due to aspiration.",
                         logIndentation,
                         moveScope.getMove());
@@ -175,32 +174,47 @@ public abstract class AbstractTabuAcceptor extends AbstractAcceptor {
         Collection<? extends Object> checkingTabus = findTabu(moveScope);
         int maximumTabuStepIndex = -1;
         for (Object checkingTabu : checkingTabus) {
-            Integer tabuStepIndexInteger = tabuToStepIndexMap.get(checkingTabu);
-            if (tabuStepIndexInteger != null) {
-                maximumTabuStepIndex = Math.max(tabuStepIndexInteger, maximumTabuStepIndex);
+            int tabuStepIndex = tabuStore.getTabuStepIndex(checkingTabu);
+            if (tabuStepIndex > maximumTabuStepIndex) {
+                maximumTabuStepIndex = tabuStepIndex;
             }
             if (assertTabuHashCodeCorrectness) {
-                for (Object tabu : tabuSequenceDeque) {
-                    // tabu and checkingTabu can be null with a nullable planning variable
-                    if (tabu != null && tabu.equals(checkingTabu)) {
-                        if (tabu.hashCode() != checkingTabu.hashCode()) {
-                            throw new IllegalStateException("HashCode/equals contract violation: tabu (" + tabu
-                                    + ") of class (" + tabu.getClass()
-                                    + ") and checkingTabu (" + checkingTabu
-                                    + ") are equals() but have a different hashCode().");
-                        }
-                        if (tabuStepIndexInteger == null) {
-                            throw new IllegalStateException("HashCode stability violation: the hashCode() of tabu ("
-                                    + tabu + ") of class (" + tabu.getClass()
-                                    + ") changed during planning, since it was inserted in the tabu Map or Set.");
-                        }
-                    }
-                }
+                assertTabuHashCodeCorrectness(checkingTabu, tabuStepIndex);
             }
         }
         return maximumTabuStepIndex;
     }
 
+    private void assertTabuHashCodeCorrectness(Object checkingTabu, int tabuStepIndex) {
+        if (tabuStore instanceof OpenAddressingTabuStore && ((OpenAddressingTabuStore) tabuStore).isIdentityBased()) {
+            // The tabu store ignores equals() and hashCode(), so only the same instance is the same tabu
+            for (Object tabu : tabuStore.getTabus()) {
+                if (tabu != null && tabu == checkingTabu && tabuStepIndex < 0) {
+                    throw new IllegalStateException("Tabu store corruption: the tabu (" + tabu
+                            + ") of class (" + tabu.getClass()
+                            + ") is in the tabu store, but it isn't found there.");
+                }
+            }
+            return;
+        }
+        for (Object tabu : tabuStore.getTabus()) {
+            // tabu and checkingTabu can be null with a nullable planning variable
+            if (tabu != null && tabu.equals(checkingTabu)) {
+                if (tabu.hashCode() != checkingTabu.hashCode()) {
+                    throw new IllegalStateException("HashCode/equals contract violation: tabu (" + tabu
+                            + ") of class (" + tabu.getClass()
+                            + ") and checkingTabu (" + checkingTabu
+                            + ") are equals() but have a different hashCode().");
+                }
+                if (tabuStepIndex < 0) {
+                    throw new IllegalStateException("HashCode stability violation: the hashCode() of tabu ("
+                            + tabu + ") of class (" + tabu.getClass()
+                            + ") changed during planning, since it was inserted in the tabu Map or Set.");
+                }
+            }
+        }
+    }
+
     /**
      * @param fadingTabuStepCount {@code 0 < fadingTabuStepCount <= fadingTabuSize}
      * @return {@code 0.0 < acceptChance < 1.0}
@@ -31,6 +31,12 @@ public class EntityTabuAcceptor extends AbstractTabuAcceptor {
     // Worker methods
     // ************************************************************************
 
+    @Override
+    protected boolean isTabuIdentityBased() {
+        // The planning entities of the working solution are never cloned during solving
+        return true;
+    }
+
     @Override
     protected Collection<? extends Object> findTabu(LocalSearchMoveScope moveScope) {
         return moveScope.getMove().getPlanningEntities();
@@ -51,8 +51,7 @@ public class SolutionTabuAcceptor extends AbstractTabuAcceptor {
         super.phaseStarted(phaseScope);
         // Add the starting solution to the tabu list
         Object tabu = phaseScope.getScoreDirector().cloneWorkingSolution();
-        tabuToStepIndexMap.put(tabu, 0); // TODO should -1 when AbstractTabuAcceptor can handle that
-        tabuSequenceDeque.add(tabu);
+        tabuStore.addTabu(tabu, 0); // TODO should -1 when AbstractTabuAcceptor can handle that
     }
 
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.store;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.optaplanner.core.config.localsearch.decider.acceptor.tabu.TabuStoreType;
+
+/**
+ * Relies on {@link Object#hashCode()} and {@link Object#equals(Object)} of the tabus.
+ * @see TabuStoreType#HASH_MAP
+ */
+public class HashMapTabuStore implements TabuStore {
+
+    protected final Map<Object, Integer> tabuToStepIndexMap;
+    protected final Deque<Object> tabuSequenceDeque;
+
+    public HashMapTabuStore(int initialCapacity) {
+        tabuToStepIndexMap = new HashMap<>(initialCapacity);
+        tabuSequenceDeque = new ArrayDeque<>();
+    }
+
+    @Override
+    public int getTabuStepIndex(Object tabu) {
+        Integer tabuStepIndexInteger = tabuToStepIndexMap.get(tabu);
+        return tabuStepIndexInteger == null ? -1 : tabuStepIndexInteger;
+    }
+
+    @Override
+    public void expireTabus(int stepIndex, int totalTabuSize) {
+        for (Iterator<Object> it = tabuSequenceDeque.iterator(); it.hasNext();) {
+            Object oldTabu = it.next();
+            Integer oldTabuStepIndexInteger = tabuToStepIndexMap.get(oldTabu);
+            if (oldTabuStepIndexInteger == null) {
+                throw new IllegalStateException("HashCode stability violation: the hashCode() of tabu ("
+                        + oldTabu + ") of class (" + oldTabu.getClass()
+                        + ") changed during planning, since it was inserted in the tabu Map or Set.");
+            }
+            int oldTabuStepCount = stepIndex - oldTabuStepIndexInteger; // at least 1
+            if (oldTabuStepCount < totalTabuSize) {
+                break;
+            }
+            it.remove();
+            tabuToStepIndexMap.remove(oldTabu);
+        }
+    }
+
+    @Override
+    public void addTabu(Object tabu, int stepIndex) {
+        // Push tabu to the end of the line
+        if (tabuToStepIndexMap.containsKey(tabu)) {
+            tabuToStepIndexMap.remove(tabu);
+            tabuSequenceDeque.remove(tabu);
+        }
+        tabuToStepIndexMap.put(tabu, stepIndex);
+        tabuSequenceDeque.add(tabu);
+    }
+
+    @Override
+    public Iterable<Object> getTabus() {
+        return tabuSequenceDeque;
+    }
+
+}
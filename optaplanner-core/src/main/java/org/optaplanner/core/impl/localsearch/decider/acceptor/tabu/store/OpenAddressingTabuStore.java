@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.store;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.optaplanner.core.config.localsearch.decider.acceptor.tabu.TabuStoreType;
+
+/**
+ * An open addressing hash table (with linear probing) of tabus with their primitive step index,
+ * combined with a ring buffer that holds the tabus in the order they became tabu,
+ * so expiring the oldest tabus doesn't allocate and checking a tabu doesn't box.
+ * <p>
+ * When a tabu is added again, its old ring buffer slot is cleared instead of removed,
+ * so the ring buffer can temporarily hold more slots than there are tabus.
+ * @see TabuStoreType#OPEN_ADDRESSING
+ */
+public class OpenAddressingTabuStore implements TabuStore {
+
+    protected static final int MINIMUM_CAPACITY = 16;
+    /**
+     * Replaces a null tabu (for example a null planning value), because null marks an empty slot.
+     */
+    protected static final Object NULL_TABU = new Object();
+
+    protected final boolean identityBased;
+
+    protected Object[] tableTabus;
+    protected int[] tableStepIndexes;
+    /**
+     * The ring sequence number of each tabu: its ring buffer slot is {@code ringSequence & ringMask}.
+     */
+    protected int[] tableRingSequences;
+    protected int tableMask;
+    protected int tableSize;
+
+    protected Object[] ringTabus;
+    protected int[] ringStepIndexes;
+    protected int ringMask;
+    protected int ringHeadSequence;
+    protected int ringTailSequence;
+
+    /**
+     * @param identityBased true if 2 tabus are only equal if they are the same instance,
+     * false to rely on {@link Object#hashCode()} and {@link Object#equals(Object)}
+     * @param initialCapacity {@code >= 0}
+     */
+    public OpenAddressingTabuStore(boolean identityBased, int initialCapacity) {
+        this.identityBased = identityBased;
+        int tableCapacity = powerOfTwoCapacity(initialCapacity * 2);
+        tableTabus = new Object[tableCapacity];
+        tableStepIndexes = new int[tableCapacity];
+        tableRingSequences = new int[tableCapacity];
+        tableMask = tableCapacity - 1;
+        tableSize = 0;
+        int ringCapacity = powerOfTwoCapacity(initialCapacity);
+        ringTabus = new Object[ringCapacity];
+        ringStepIndexes = new int[ringCapacity];
+        ringMask = ringCapacity - 1;
+        ringHeadSequence = 0;
+        ringTailSequence = 0;
+    }
+
+    private static int powerOfTwoCapacity(int minimumCapacity) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < minimumCapacity) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    public boolean isIdentityBased() {
+        return identityBased;
+    }
+
+    /**
+     * @return {@code >= 0}
+     */
+    public int getTabuCount() {
+        return tableSize;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    @Override
+    public int getTabuStepIndex(Object tabu) {
+        int tableIndex = findTableIndex(tabu == null ? NULL_TABU : tabu);
+        return tableIndex < 0 ? -1 : tableStepIndexes[tableIndex];
+    }
+
+    @Override
+    public void expireTabus(int stepIndex, int totalTabuSize) {
+        while (ringHeadSequence != ringTailSequence) {
+            int ringIndex = ringHeadSequence & ringMask;
+            Object oldTabu = ringTabus[ringIndex];
+            if (oldTabu != null) {
+                int oldTabuStepCount = stepIndex - ringStepIndexes[ringIndex]; // at least 1
+                if (oldTabuStepCount < totalTabuSize) {
+                    break;
+                }
+                int tableIndex = findTableIndex(oldTabu);
+                if (tableIndex < 0) {
+                    throw new IllegalStateException("HashCode stability violation: the hashCode() of tabu ("
+                            + oldTabu + ") of class (" + oldTabu.getClass()
+                            + ") changed during planning, since it was inserted in the tabu store.");
+                }
+                removeTableIndex(tableIndex);
+                ringTabus[ringIndex] = null;
+            }
+            ringHeadSequence++;
+        }
+    }
+
+    @Override
+    public void addTabu(Object tabu, int stepIndex) {
+        Object key = tabu == null ? NULL_TABU : tabu;
+        int tableIndex = findTableIndex(key);
+        if (tableIndex >= 0) {
+            // Push tabu to the end of the line
+            ringTabus[tableRingSequences[tableIndex] & ringMask] = null;
+        } else {
+            if ((tableSize + 1) * 2 > tableTabus.length) {
+                resizeTable(tableTabus.length * 2);
+                tableIndex = findTableIndex(key);
+            }
+            tableIndex = -tableIndex - 1;
+            tableTabus[tableIndex] = key;
+            tableSize++;
+        }
+        if (ringTailSequence - ringHeadSequence == ringTabus.length) {
+            resizeRing(ringTabus.length * 2);
+        }
+        int ringSequence = ringTailSequence;
+        int ringIndex = ringSequence & ringMask;
+        ringTabus[ringIndex] = key;
+        ringStepIndexes[ringIndex] = stepIndex;
+        ringTailSequence++;
+        tableStepIndexes[tableIndex] = stepIndex;
+        tableRingSequences[tableIndex] = ringSequence;
+    }
+
+    @Override
+    public Iterable<Object> getTabus() {
+        List<Object> tabuList = new ArrayList<>(tableSize);
+        for (int ringSequence = ringHeadSequence; ringSequence != ringTailSequence; ringSequence++) {
+            Object tabu = ringTabus[ringSequence & ringMask];
+            if (tabu != null) {
+                tabuList.add(tabu == NULL_TABU ? null : tabu);
+            }
+        }
+        return tabuList;
+    }
+
+    // ************************************************************************
+    // Hash table methods
+    // ************************************************************************
+
+    private int hash(Object key) {
+        int h = identityBased ? System.identityHashCode(key) : key.hashCode();
+        // Spread the high bits, because the table index only uses the low bits
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean matches(Object key, Object tableKey) {
+        return key == tableKey || (!identityBased && key.equals(tableKey));
+    }
+
+    /**
+     * @param key never null
+     * @return {@code >= 0} if found, otherwise {@code -(insertionIndex + 1)}
+     */
+    private int findTableIndex(Object key) {
+        int tableIndex = hash(key) & tableMask;
+        while (true) {
+            Object tableKey = tableTabus[tableIndex];
+            if (tableKey == null) {
+                return -tableIndex - 1;
+            }
+            if (matches(key, tableKey)) {
+                return tableIndex;
+            }
+            tableIndex = (tableIndex + 1) & tableMask;
+        }
+    }
+
+    /**
+     * Backward shift deletion: moves the next entries of the probe sequence into the gap,
+     * so lookups never need tombstones.
+     * @param tableIndex {@code >= 0}
+     */
+    private void removeTableIndex(int tableIndex) {
+        int gapIndex = tableIndex;
+        int nextIndex = (gapIndex + 1) & tableMask;
+        while (tableTabus[nextIndex] != null) {
+            int idealIndex = hash(tableTabus[nextIndex]) & tableMask;
+            // Only move the entry if the gap lies between its ideal index and its current index
+            if (((nextIndex - idealIndex) & tableMask) >= ((nextIndex - gapIndex) & tableMask)) {
+                tableTabus[gapIndex] = tableTabus[nextIndex];
+                tableStepIndexes[gapIndex] = tableStepIndexes[nextIndex];
+                tableRingSequences[gapIndex] = tableRingSequences[nextIndex];
+                gapIndex = nextIndex;
+            }
+            nextIndex = (nextIndex + 1) & tableMask;
+        }
+        tableTabus[gapIndex] = null;
+        tableSize--;
+    }
+
+    private void resizeTable(int newCapacity) {
+        Object[] oldTabus = tableTabus;
+        int[] oldStepIndexes = tableStepIndexes;
+        int[] oldRingSequences = tableRingSequences;
+        tableTabus = new Object[newCapacity];
+        tableStepIndexes = new int[newCapacity];
+        tableRingSequences = new int[newCapacity];
+        tableMask = newCapacity - 1;
+        for (int i = 0; i < oldTabus.length; i++) {
+            Object key = oldTabus[i];
+            if (key != null) {
+                int tableIndex = -findTableIndex(key) - 1;
+                tableTabus[tableIndex] = key;
+                tableStepIndexes[tableIndex] = oldStepIndexes[i];
+                tableRingSequences[tableIndex] = oldRingSequences[i];
+            }
+        }
+    }
+
+    private void resizeRing(int newCapacity) {
+        Object[] oldTabus = ringTabus;
+        int[] oldStepIndexes = ringStepIndexes;
+        int oldMask = ringMask;
+        ringTabus = new Object[newCapacity];
+        ringStepIndexes = new int[newCapacity];
+        ringMask = newCapacity - 1;
+        // The ring sequences don't change, so the table's ring sequences remain valid
+        for (int ringSequence = ringHeadSequence; ringSequence != ringTailSequence; ringSequence++) {
+            ringTabus[ringSequence & ringMask] = oldTabus[ringSequence & oldMask];
+            ringStepIndexes[ringSequence & ringMask] = oldStepIndexes[ringSequence & oldMask];
+        }
+    }
+
+}
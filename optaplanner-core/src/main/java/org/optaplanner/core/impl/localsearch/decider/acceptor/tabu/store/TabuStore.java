@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.store;
+
+import org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.AbstractTabuAcceptor;
+
+/**
+ * Remembers at which step index each tabu became tabu, in the order they became tabu.
+ * @see AbstractTabuAcceptor
+ */
+public interface TabuStore {
+
+    /**
+     * @param tabu sometimes null
+     * @return {@code >= 0} the step index at which the tabu was last added, or -1 if it isn't tabu
+     */
+    int getTabuStepIndex(Object tabu);
+
+    /**
+     * Removes every tabu that was added at least {@code totalTabuSize} steps before the step index.
+     * @param stepIndex {@code >= 0}
+     * @param totalTabuSize {@code >= 0}
+     */
+    void expireTabus(int stepIndex, int totalTabuSize);
+
+    /**
+     * Adds the tabu as the youngest tabu.
+     * If it is already tabu, it's removed from its old position first.
+     * @param tabu sometimes null
+     * @param stepIndex {@code >= 0}
+     */
+    void addTabu(Object tabu, int stepIndex);
+
+    /**
+     * For assertions only: it's not optimized.
+     * @return never null, from the oldest to the youngest tabu
+     */
+    Iterable<Object> getTabus();
+
+}
@@ -102,20 +102,24 @@ public class AcceptedLocalSearchForager extends AbstractLocalSearchForager {
                 break;
             case FIRST_BEST_SCORE_IMPROVING:
                 Score bestScore = moveScope.getStepScope().getPhaseScope().getBestScore();
-                if (moveScope.getScore().compareTo(bestScore) > 0) {
+                if (moveScope.compareScoreTo(bestScore) > 0) {
                     earlyPickedMoveScope = moveScope;
                 }
                 break;
             case FIRST_LAST_STEP_SCORE_IMPROVING:
                 Score lastStepScore = moveScope.getStepScope().getPhaseScope()
                         .getLastCompletedStepScope().getScore();
-                if (moveScope.getScore().compareTo(lastStepScore) > 0) {
+                if (moveScope.compareScoreTo(lastStepScore) > 0) {
                     earlyPickedMoveScope = moveScope;
                 }
                 break;
             default:
                 throw new IllegalStateException("The pickEarlyType (" + pickEarlyType + ") is not implemented.");
         }
+        if (earlyPickedMoveScope == moveScope) {
+            // Creates the Score if it's backed by a ScoreAccumulator, because the picked move outlives the move
+            moveScope.getScore();
+        }
     }
 
     @Override
@@ -17,6 +17,8 @@
 package org.optaplanner.core.impl.localsearch.scope;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.holder.ScoreAccumulator;
 import org.optaplanner.core.impl.heuristic.move.Move;
 import org.optaplanner.core.impl.phase.scope.AbstractMoveScope;
 
@@ -29,6 +31,9 @@ public class LocalSearchMoveScope<Solution_> extends AbstractMoveScope<Solution_
 
     private Boolean accepted = null;
 
+    private ScoreAccumulator scoreAccumulator = null;
+    private int scoreAccumulatorInitScore = 0;
+
     public LocalSearchMoveScope(LocalSearchStepScope<Solution_> stepScope, int moveIndex, Move<Solution_> move) {
         super(moveIndex, move);
         this.stepScope = stepScope;
@@ -47,6 +52,48 @@ public class LocalSearchMoveScope<Solution_> extends AbstractMoveScope<Solution_
         this.accepted = accepted;
     }
 
+    /**
+     * Lets {@link #getScore()} and {@link #compareScoreTo(Score)} use the mutable {@link ScoreAccumulator}
+     * until {@link #detachScoreAccumulator()} is called,
+     * so the {@link Score} is only created if the acceptor or forager keeps this move.
+     * @param scoreAccumulator never null
+     * @param initScore {@code <= 0}
+     */
+    public void setScoreAccumulator(ScoreAccumulator scoreAccumulator, int initScore) {
+        this.scoreAccumulator = scoreAccumulator;
+        scoreAccumulatorInitScore = initScore;
+        score = null;
+    }
+
+    /**
+     * Called before the move is undone. Afterwards, {@link #getScore()} returns null
+     * unless it has been called before this method.
+     */
+    public void detachScoreAccumulator() {
+        scoreAccumulator = null;
+    }
+
+    @Override
+    public Score getScore() {
+        if (score == null && scoreAccumulator != null) {
+            score = scoreAccumulator.extractScore(scoreAccumulatorInitScore);
+        }
+        return score;
+    }
+
+    /**
+     * Equal to {@code getScore().compareTo(otherScore)},
+     * but does not create the {@link Score} if it's backed by a {@link ScoreAccumulator}.
+     * @param otherScore never null
+     * @return negative, zero or positive, as defined by {@link Comparable#compareTo(Object)}
+     */
+    public int compareScoreTo(Score otherScore) {
+        if (score == null && scoreAccumulator != null) {
+            return scoreAccumulator.compareToScore(scoreAccumulatorInitScore, otherScore);
+        }
+        return score.compareTo(otherScore);
+    }
+
     // ************************************************************************
     // Calculated methods
     // ************************************************************************
@@ -20,12 +20,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.config.heuristic.policy.HeuristicConfigPolicy;
 import org.optaplanner.core.config.phase.PhaseConfig;
 import org.optaplanner.core.config.solver.recaller.BestSolutionRecallerConfig;
@@ -43,8 +42,10 @@ import org.optaplanner.core.impl.solver.ChildThreadType;
 import org.optaplanner.core.impl.solver.recaller.BestSolutionRecaller;
 import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
 import org.optaplanner.core.impl.solver.termination.ChildThreadPlumbingTermination;
+import org.optaplanner.core.impl.solver.termination.ChildThreadTimeMillisSpentTermination;
 import org.optaplanner.core.impl.solver.termination.OrCompositeTermination;
 import org.optaplanner.core.impl.solver.termination.Termination;
+import org.optaplanner.core.impl.solver.thread.ChildThreadExecutorFactory;
 import org.optaplanner.core.impl.solver.thread.ThreadUtils;
 
 /**
@@ -55,22 +56,35 @@ public class DefaultPartitionedSearchPhase<Solution_> extends AbstractPhase<Solu
         implements PartitionedSearchPhase<Solution_>, PartitionedSearchPhaseLifecycleListener<Solution_> {
 
     protected final SolutionPartitioner<Solution_> solutionPartitioner;
-    protected final ThreadFactory threadFactory;
+    protected final ChildThreadExecutorFactory childThreadExecutorFactory;
     protected final Integer runnablePartThreadLimit;
 
+    protected Long partTimeMillisSpentLimit = null;
+
     protected List<PhaseConfig> phaseConfigList;
     protected HeuristicConfigPolicy configPolicy;
 
     public DefaultPartitionedSearchPhase(int phaseIndex, String logIndentation,
             BestSolutionRecaller<Solution_> bestSolutionRecaller, Termination termination,
-            SolutionPartitioner<Solution_> solutionPartitioner, ThreadFactory threadFactory,
+            SolutionPartitioner<Solution_> solutionPartitioner, ChildThreadExecutorFactory childThreadExecutorFactory,
             Integer runnablePartThreadLimit) {
         super(phaseIndex, logIndentation, bestSolutionRecaller, termination);
         this.solutionPartitioner = solutionPartitioner;
-        this.threadFactory = threadFactory;
+        this.childThreadExecutorFactory = childThreadExecutorFactory;
         this.runnablePartThreadLimit = runnablePartThreadLimit;
     }
 
+    public Long getPartTimeMillisSpentLimit() {
+        return partTimeMillisSpentLimit;
+    }
+
+    /**
+     * @param partTimeMillisSpentLimit null to solve every part only once, until the phase terminates
+     */
+    public void setPartTimeMillisSpentLimit(Long partTimeMillisSpentLimit) {
+        this.partTimeMillisSpentLimit = partTimeMillisSpentLimit;
+    }
+
     public void setPhaseConfigList(List<PhaseConfig> phaseConfigList) {
         this.phaseConfigList = phaseConfigList;
     }
@@ -96,50 +110,41 @@ public class DefaultPartitionedSearchPhase<Solution_> extends AbstractPhase<Solu
         int partCount = partList.size();
         phaseScope.setPartCount(partCount);
         phaseStarted(phaseScope);
-        ExecutorService executor = createThreadPoolExecutor(partCount);
+        ExecutorService executor;
+        Semaphore runnablePartThreadSemaphore;
+        if (partTimeMillisSpentLimit == null) {
+            executor = createThreadPoolExecutor(partCount);
+            runnablePartThreadSemaphore
+                    = runnablePartThreadLimit == null ? null : new Semaphore(runnablePartThreadLimit, true);
+        } else {
+            // Every part ends within the partTimeMillisSpentLimit, so a part that hasn't started yet
+            // waits for the first thread that is done with its part, instead of for a runnable thread permit
+            executor = childThreadExecutorFactory.buildExecutor(resolvePartThreadCount());
+            runnablePartThreadSemaphore = null;
+        }
         ChildThreadPlumbingTermination childThreadPlumbingTermination = new ChildThreadPlumbingTermination();
-        PartitionQueue<Solution_> partitionQueue = new PartitionQueue<>(partCount);
-        Semaphore runnablePartThreadSemaphore
-                = runnablePartThreadLimit == null ? null : new Semaphore(runnablePartThreadLimit, true);
         try {
-            for (ListIterator<Solution_> it = partList.listIterator(); it.hasNext();) {
-                int partIndex = it.nextIndex();
-                Solution_ part = it.next();
-                PartitionSolver<Solution_> partitionSolver = buildPartitionSolver(
-                        childThreadPlumbingTermination, runnablePartThreadSemaphore, solverScope);
-                partitionSolver.addEventListener(event -> {
-                    InnerScoreDirector<Solution_> childScoreDirector = partitionSolver.solverScope.getScoreDirector();
-                    PartitionChangeMove<Solution_> move = PartitionChangeMove.createMove(childScoreDirector, partIndex);
-                    InnerScoreDirector<Solution_> parentScoreDirector = solverScope.getScoreDirector();
-                    move = move.rebase(parentScoreDirector);
-                    partitionQueue.addMove(partIndex, move);
-                });
-                executor.submit(() -> {
-                    try {
-                        partitionSolver.solve(part);
-                        long partCalculationCount = partitionSolver.getScoreCalculationCount();
-                        partitionQueue.addFinish(partIndex, partCalculationCount);
-                    } catch (Throwable throwable) {
-                        // Any Exception or even Error that happens here (on a partition thread) must be stored
-                        // in the partitionQueue in order to be propagated to the solver thread.
-                        logger.trace("{}            Part thread ({}) exception that will be propagated to the solver thread.",
-                                logIndentation, partIndex, throwable);
-                        partitionQueue.addExceptionThrown(partIndex, throwable);
-                    }
-                });
-            }
-            for (PartitionChangeMove<Solution_> step : partitionQueue) {
-                PartitionedSearchStepScope<Solution_> stepScope = new PartitionedSearchStepScope<>(phaseScope);
-                stepStarted(stepScope);
-                stepScope.setStep(step);
-                if (logger.isDebugEnabled()) {
-                    stepScope.setStepString(step.toString());
+            while (true) {
+                Score roundStartingBestScore = phaseScope.getBestScore();
+                solveParts(phaseScope, partList, executor, childThreadPlumbingTermination, runnablePartThreadSemaphore);
+                if (partTimeMillisSpentLimit == null || termination.isPhaseTerminated(phaseScope)) {
+                    break;
+                }
+                if (!solutionPartitioner.isRepartitioningSupported()) {
+                    logger.debug("{}    PS round ({}) ended and the solutionPartitioner ({}) doesn't repartition.",
+                            logIndentation, phaseScope.getRoundCount() - 1,
+                            solutionPartitioner.getClass().getSimpleName());
+                    break;
+                }
+                if (phaseScope.getBestScore().compareTo(roundStartingBestScore) <= 0) {
+                    logger.debug("{}    PS round ({}) didn't improve the best score ({}), so it doesn't repartition.",
+                            logIndentation, phaseScope.getRoundCount() - 1, phaseScope.getBestScore());
+                    break;
                 }
-                doStep(stepScope);
-                stepEnded(stepScope);
-                phaseScope.setLastCompletedStepScope(stepScope);
+                partList = solutionPartitioner.splitWorkingSolution(
+                        solverScope.getScoreDirector(), runnablePartThreadLimit, phaseScope.getRoundCount());
+                phaseScope.setPartCount(partList.size());
             }
-            phaseScope.addChildThreadsScoreCalculationCount(partitionQueue.getPartsCalculationCount());
         } finally {
             // In case one of the partition threads threw an Exception, it is propagated here
             // but the other partition threads are not aware of the failure and may continue solving for a long time,
@@ -150,18 +155,70 @@ public class DefaultPartitionedSearchPhase<Solution_> extends AbstractPhase<Solu
         phaseEnded(phaseScope);
     }
 
-    private ExecutorService createThreadPoolExecutor(int partCount) {
-        ThreadPoolExecutor threadPoolExecutor
-                = (ThreadPoolExecutor) Executors.newFixedThreadPool(partCount, threadFactory);
-        if (threadPoolExecutor.getMaximumPoolSize() < partCount) {
-            throw new IllegalStateException(
-                    "The threadPoolExecutor's maximumPoolSize (" + threadPoolExecutor.getMaximumPoolSize()
-                    + ") is less than the partCount (" + partCount + "), so some partitions will starve.\n"
-                    + "Normally this is impossible because the threadPoolExecutor should be unbounded."
-                    + " Use runnablePartThreadLimit (" + runnablePartThreadLimit
-                    + ") instead to avoid CPU hogging and live locks.");
+    private void solveParts(PartitionedSearchPhaseScope<Solution_> phaseScope, List<Solution_> partList,
+            ExecutorService executor, ChildThreadPlumbingTermination childThreadPlumbingTermination,
+            Semaphore runnablePartThreadSemaphore) {
+        DefaultSolverScope<Solution_> solverScope = phaseScope.getSolverScope();
+        int roundIndex = phaseScope.getRoundCount();
+        PartitionQueue<Solution_> partitionQueue = new PartitionQueue<>(partList.size());
+        AtomicLong partsTimeMillisSpent = new AtomicLong(0L);
+        for (ListIterator<Solution_> it = partList.listIterator(); it.hasNext();) {
+            int partIndex = it.nextIndex();
+            Solution_ part = it.next();
+            PartitionSolver<Solution_> partitionSolver = buildPartitionSolver(
+                    childThreadPlumbingTermination, runnablePartThreadSemaphore, solverScope);
+            partitionSolver.addEventListener(event -> {
+                InnerScoreDirector<Solution_> childScoreDirector = partitionSolver.solverScope.getScoreDirector();
+                PartitionChangeMove<Solution_> move = PartitionChangeMove.createMove(childScoreDirector, partIndex);
+                InnerScoreDirector<Solution_> parentScoreDirector = solverScope.getScoreDirector();
+                move = move.rebase(parentScoreDirector);
+                partitionQueue.addMove(partIndex, move);
+            });
+            executor.submit(() -> {
+                try {
+                    long partStartingTimeMillis = System.currentTimeMillis();
+                    partitionSolver.solve(part);
+                    long partTimeMillisSpent = System.currentTimeMillis() - partStartingTimeMillis;
+                    partsTimeMillisSpent.addAndGet(partTimeMillisSpent);
+                    long partCalculationCount = partitionSolver.getScoreCalculationCount();
+                    logger.debug("{}        PS round ({}) part ({}) ended: time spent ({}), best score ({}),"
+                            + " score calculation count ({}).",
+                            logIndentation, roundIndex, partIndex, partTimeMillisSpent,
+                            partitionSolver.getBestScore(), partCalculationCount);
+                    partitionQueue.addFinish(partIndex, partCalculationCount);
+                } catch (Throwable throwable) {
+                    // Any Exception or even Error that happens here (on a partition thread) must be stored
+                    // in the partitionQueue in order to be propagated to the solver thread.
+                    logger.trace("{}            Part thread ({}) exception that will be propagated to the solver thread.",
+                            logIndentation, partIndex, throwable);
+                    partitionQueue.addExceptionThrown(partIndex, throwable);
+                }
+            });
         }
-        return threadPoolExecutor;
+        for (PartitionChangeMove<Solution_> step : partitionQueue) {
+            PartitionedSearchStepScope<Solution_> stepScope = new PartitionedSearchStepScope<>(phaseScope);
+            stepStarted(stepScope);
+            stepScope.setStep(step);
+            if (logger.isDebugEnabled()) {
+                stepScope.setStepString(step.toString());
+            }
+            doStep(stepScope);
+            stepEnded(stepScope);
+            phaseScope.setLastCompletedStepScope(stepScope);
+        }
+        phaseScope.addChildThreadsScoreCalculationCount(partitionQueue.getPartsCalculationCount());
+        // All parts have finished, so no part thread still writes to partsTimeMillisSpent
+        phaseScope.addPartsTimeMillisSpent(partsTimeMillisSpent.get());
+        phaseScope.setRoundCount(roundIndex + 1);
+    }
+
+    private ExecutorService createThreadPoolExecutor(int partCount) {
+        // Every part thread must be able to start, even if runnablePartThreadLimit limits how many run at the same time
+        return childThreadExecutorFactory.buildExecutor(partCount);
+    }
+
+    private int resolvePartThreadCount() {
+        return runnablePartThreadLimit != null ? runnablePartThreadLimit : Runtime.getRuntime().availableProcessors();
     }
 
     public PartitionSolver<Solution_> buildPartitionSolver(
@@ -171,6 +228,10 @@ public class DefaultPartitionedSearchPhase<Solution_> extends AbstractPhase<Solu
                 .buildBestSolutionRecaller(configPolicy.getEnvironmentMode());
         Termination partTermination = new OrCompositeTermination(childThreadPlumbingTermination,
                 termination.createChildThreadTermination(solverScope, ChildThreadType.PART_THREAD));
+        if (partTimeMillisSpentLimit != null) {
+            partTermination = new OrCompositeTermination(partTermination,
+                    new ChildThreadTimeMillisSpentTermination(partTimeMillisSpentLimit));
+        }
         List<Phase<Solution_>> phaseList = new ArrayList<>(phaseConfigList.size());
         int partPhaseIndex = 0;
         for (PhaseConfig phaseConfig : phaseConfigList) {
@@ -230,6 +291,17 @@ public class DefaultPartitionedSearchPhase<Solution_> extends AbstractPhase<Solu
                 phaseScope.getNextStepIndex(),
                 phaseScope.getPartCount(),
                 runnablePartThreadLimit);
+        if (partTimeMillisSpentLimit != null) {
+            int partThreadCount = resolvePartThreadCount();
+            long phaseTimeMillisSpent = Math.max(1L, phaseScope.calculatePhaseTimeMillisSpentUpToNow());
+            logger.info("{}Partitioned Search phase ({}) repartitioned: round count ({}),"
+                    + " part thread count ({}), part thread utilization ({}%).",
+                    logIndentation,
+                    phaseIndex,
+                    phaseScope.getRoundCount(),
+                    partThreadCount,
+                    phaseScope.getPartsTimeMillisSpent() * 100L / (partThreadCount * phaseTimeMillisSpent));
+        }
     }
 
 }
@@ -45,6 +45,10 @@ public class PartitionSolver<Solution_> extends AbstractSolver<Solution_> {
         this.solverScope = solverScope;
     }
 
+    public DefaultSolverScope<Solution_> getSolverScope() {
+        return solverScope;
+    }
+
     @Override
     public InnerScoreDirectorFactory<Solution_> getScoreDirectorFactory() {
         return solverScope.getScoreDirector().getScoreDirectorFactory();
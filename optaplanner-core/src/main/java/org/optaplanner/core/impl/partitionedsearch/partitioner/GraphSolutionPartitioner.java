@@ -0,0 +1,463 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.partitionedsearch.partitioner;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.impl.domain.common.accessor.MemberAccessor;
+import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.MultilevelGraphPartitioner.Graph;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.MultilevelGraphPartitioner.GraphBuilder;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The default {@link SolutionPartitioner}, used if no solutionPartitionerClass is configured.
+ * <p>
+ * It builds a coupling graph of the planning entities:
+ * 2 entities are coupled if they're assigned to the same planning value,
+ * if they reference the same problem fact (directly or in a {@link Collection} field)
+ * or if one references the other.
+ * That graph is split by a {@link MultilevelGraphPartitioner} into balanced parts
+ * with as few couplings between different parts as possible.
+ * A problem fact or value that couples more entities than fit in 1 part can't be kept in 1 part anyway,
+ * so it's ignored, which keeps the graph sparse.
+ * <p>
+ * Every part is a solution clone with only its own planning entities in the entity collections.
+ * The problem facts and planning values are shared by all parts, they're not partitioned.
+ * The working solution is never changed: the parts are cloned from a planning clone of it.
+ * Chained planning variables are not supported.
+ * <p>
+ * Custom properties: {@code partCount}, {@code partCountPerRunnableThread}, {@code minimumPartSize},
+ * {@code imbalance} and {@code randomSeed}.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ */
+public class GraphSolutionPartitioner<Solution_> implements SolutionPartitioner<Solution_> {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    protected Integer partCount = null;
+    protected int partCountPerRunnableThread = 2;
+    protected int minimumPartSize = 25;
+    protected double imbalance = 0.05;
+    protected long randomSeed = 0L;
+
+    protected final Map<Class<?>, List<Field>> couplingFieldListMap = new HashMap<>();
+
+    public Integer getPartCount() {
+        return partCount;
+    }
+
+    /**
+     * @param partCount null to use a multiple of the runnablePartThreadLimit
+     * (see {@link #setPartCountPerRunnableThread(int)}) or else the number of available processors
+     */
+    public void setPartCount(Integer partCount) {
+        this.partCount = partCount;
+    }
+
+    public int getPartCountPerRunnableThread() {
+        return partCountPerRunnableThread;
+    }
+
+    /**
+     * More parts than runnable threads keep every thread busy,
+     * even if some parts converge sooner than others.
+     * @param partCountPerRunnableThread at least 1, ignored if the partCount is set
+     * or if the runnablePartThreadLimit is unlimited
+     */
+    public void setPartCountPerRunnableThread(int partCountPerRunnableThread) {
+        this.partCountPerRunnableThread = partCountPerRunnableThread;
+    }
+
+    public int getMinimumPartSize() {
+        return minimumPartSize;
+    }
+
+    /**
+     * @param minimumPartSize at least 1, lowers the number of parts if there are few planning entities
+     */
+    public void setMinimumPartSize(int minimumPartSize) {
+        this.minimumPartSize = minimumPartSize;
+    }
+
+    public double getImbalance() {
+        return imbalance;
+    }
+
+    /**
+     * @param imbalance at least 0.0, the fraction by which a part may have more entities than the average part
+     */
+    public void setImbalance(double imbalance) {
+        this.imbalance = imbalance;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    @Override
+    public List<Solution_> splitWorkingSolution(ScoreDirector<Solution_> scoreDirector,
+            Integer runnablePartThreadLimit) {
+        return splitWorkingSolution(scoreDirector, runnablePartThreadLimit, 0);
+    }
+
+    @Override
+    public boolean isRepartitioningSupported() {
+        return true;
+    }
+
+    @Override
+    public List<Solution_> splitWorkingSolution(ScoreDirector<Solution_> scoreDirector,
+            Integer runnablePartThreadLimit, int roundIndex) {
+        SolutionDescriptor<Solution_> solutionDescriptor
+                = ((InnerScoreDirector<Solution_>) scoreDirector).getSolutionDescriptor();
+        for (EntityDescriptor<Solution_> entityDescriptor : solutionDescriptor.getGenuineEntityDescriptors()) {
+            if (entityDescriptor.hasAnyChainedGenuineVariables()) {
+                throw new IllegalStateException("The solutionPartitioner (" + getClass().getSimpleName()
+                        + ") does not support the chained planning variables of the entityClass ("
+                        + entityDescriptor.getEntityClass() + ").\n"
+                        + "Maybe configure a custom solutionPartitionerClass.");
+            }
+        }
+        // A planning clone, so the entity members can be replaced without the score director knowing
+        Solution_ partitionSolution = solutionDescriptor.getSolutionCloner()
+                .cloneSolution(scoreDirector.getWorkingSolution());
+        List<Object> entityList = solutionDescriptor.getEntityList(partitionSolution);
+        int resolvedPartCount = resolvePartCount(entityList.size(), runnablePartThreadLimit);
+        if (resolvedPartCount == 1) {
+            List<Solution_> partList = new ArrayList<>(1);
+            partList.add(partitionSolution);
+            return partList;
+        }
+        // Different boundaries in every round, so the entities near an old boundary can move between parts
+        Random random = new Random(randomSeed + roundIndex);
+        Graph graph = buildCouplingGraph(solutionDescriptor, partitionSolution, entityList, resolvedPartCount);
+        int[] parts = new MultilevelGraphPartitioner(resolvedPartCount, imbalance, random).partition(graph);
+        logger.debug("    Partitioned ({}) entities into ({}) parts with an edge cut ({}) in round ({}).",
+                entityList.size(), resolvedPartCount, graph.calculateEdgeCut(parts), roundIndex);
+        int[] entityParts = Arrays.copyOf(parts, entityList.size());
+        resolvedPartCount = compactParts(entityParts, resolvedPartCount);
+        return clonePartSolutions(solutionDescriptor, partitionSolution, entityList, entityParts, resolvedPartCount);
+    }
+
+    protected int resolvePartCount(int entityCount, Integer runnablePartThreadLimit) {
+        int resolvedPartCount;
+        if (partCount != null) {
+            if (partCount < 1) {
+                throw new IllegalStateException("The partCount (" + partCount + ") cannot be lower than 1.");
+            }
+            resolvedPartCount = partCount;
+        } else if (runnablePartThreadLimit != null) {
+            if (partCountPerRunnableThread < 1) {
+                throw new IllegalStateException("The partCountPerRunnableThread (" + partCountPerRunnableThread
+                        + ") cannot be lower than 1.");
+            }
+            resolvedPartCount = Math.max(1, runnablePartThreadLimit) * partCountPerRunnableThread;
+        } else {
+            resolvedPartCount = Runtime.getRuntime().availableProcessors();
+        }
+        if (minimumPartSize < 1) {
+            throw new IllegalStateException("The minimumPartSize (" + minimumPartSize
+                    + ") cannot be lower than 1.");
+        }
+        return Math.max(1, Math.min(resolvedPartCount, entityCount / minimumPartSize));
+    }
+
+    /**
+     * The first nodes are the entities (with weight 1), in the order of the entityList.
+     * The other nodes are the coupling problem facts and planning values (with weight 0).
+     */
+    protected Graph buildCouplingGraph(SolutionDescriptor<Solution_> solutionDescriptor, Solution_ partitionSolution,
+            List<Object> entityList, int partCount) {
+        int entityCount = entityList.size();
+        Map<Object, Integer> entityIndexMap = new IdentityHashMap<>(entityCount);
+        for (int i = 0; i < entityCount; i++) {
+            entityIndexMap.put(entityList.get(i), i);
+        }
+        Set<Object> factSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object fact : solutionDescriptor.getAllFacts(partitionSolution)) {
+            if (!entityIndexMap.containsKey(fact)) {
+                factSet.add(fact);
+            }
+        }
+        // Planning values are compared by equals(), so equal values that aren't the same instance still couple
+        Map<Object, Integer> couplingIndexMap = new HashMap<>();
+        IntPairList couplingPairList = new IntPairList();
+        IntPairList entityPairList = new IntPairList();
+        for (int i = 0; i < entityCount; i++) {
+            Object entity = entityList.get(i);
+            EntityDescriptor<Solution_> entityDescriptor = solutionDescriptor.findEntityDescriptorOrFail(
+                    entity.getClass());
+            for (GenuineVariableDescriptor<Solution_> variableDescriptor
+                    : entityDescriptor.getGenuineVariableDescriptors()) {
+                Object value = variableDescriptor.getValue(entity);
+                if (value != null) {
+                    addCoupling(i, value, entityIndexMap, couplingIndexMap, couplingPairList, entityPairList);
+                }
+            }
+            for (Field field : getCouplingFieldList(entityDescriptor)) {
+                Object fieldValue;
+                try {
+                    fieldValue = field.get(entity);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("The field (" + field + ") of the entity (" + entity
+                            + ") cannot be read to partition the solution.", e);
+                }
+                if (fieldValue instanceof Collection) {
+                    for (Object element : (Collection<?>) fieldValue) {
+                        addFactCoupling(i, element, entityIndexMap, factSet,
+                                couplingIndexMap, couplingPairList, entityPairList);
+                    }
+                } else if (fieldValue != null) {
+                    addFactCoupling(i, fieldValue, entityIndexMap, factSet,
+                            couplingIndexMap, couplingPairList, entityPairList);
+                }
+            }
+        }
+        int couplingCount = couplingIndexMap.size();
+        int[] couplingDegrees = new int[couplingCount];
+        for (int i = 0; i < couplingPairList.size; i++) {
+            couplingDegrees[couplingPairList.seconds[i]]++;
+        }
+        int maximumCouplingDegree = Math.max(2, entityCount / partCount);
+        GraphBuilder builder = new GraphBuilder(entityCount + couplingCount);
+        for (int i = 0; i < entityCount; i++) {
+            builder.addNodeWeight(i, 1);
+        }
+        for (int i = 0; i < couplingPairList.size; i++) {
+            int couplingDegree = couplingDegrees[couplingPairList.seconds[i]];
+            if (couplingDegree >= 2 && couplingDegree <= maximumCouplingDegree) {
+                builder.addEdge(couplingPairList.firsts[i], entityCount + couplingPairList.seconds[i], 1);
+            }
+        }
+        for (int i = 0; i < entityPairList.size; i++) {
+            builder.addEdge(entityPairList.firsts[i], entityPairList.seconds[i], 1);
+        }
+        return builder.build();
+    }
+
+    private void addFactCoupling(int entityIndex, Object object, Map<Object, Integer> entityIndexMap,
+            Set<Object> factSet, Map<Object, Integer> couplingIndexMap,
+            IntPairList couplingPairList, IntPairList entityPairList) {
+        if (entityIndexMap.containsKey(object) || factSet.contains(object)) {
+            addCoupling(entityIndex, object, entityIndexMap, couplingIndexMap, couplingPairList, entityPairList);
+        }
+    }
+
+    private void addCoupling(int entityIndex, Object object, Map<Object, Integer> entityIndexMap,
+            Map<Object, Integer> couplingIndexMap, IntPairList couplingPairList, IntPairList entityPairList) {
+        Integer otherEntityIndex = entityIndexMap.get(object);
+        if (otherEntityIndex != null) {
+            entityPairList.add(entityIndex, otherEntityIndex);
+        } else {
+            Integer couplingIndex = couplingIndexMap.computeIfAbsent(object, k -> couplingIndexMap.size());
+            couplingPairList.add(entityIndex, couplingIndex);
+        }
+    }
+
+    /**
+     * @return never null, the non static fields of the entity class and its superclasses,
+     * except for the planning variables, which are coupled by their value
+     */
+    protected List<Field> getCouplingFieldList(EntityDescriptor<Solution_> entityDescriptor) {
+        return couplingFieldListMap.computeIfAbsent(entityDescriptor.getEntityClass(), entityClass -> {
+            List<Field> fieldList = new ArrayList<>();
+            for (Class<?> clazz = entityClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()
+                            || entityDescriptor.hasVariableDescriptor(field.getName())
+                            || field.getType().isPrimitive()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    fieldList.add(field);
+                }
+            }
+            return fieldList;
+        });
+    }
+
+    /**
+     * Removes empty parts, which happen if the graph is too small or too coupled.
+     * @return at least 1, the number of parts that remain
+     */
+    private int compactParts(int[] entityParts, int partCount) {
+        int[] partMap = new int[partCount];
+        Arrays.fill(partMap, -1);
+        int compactPartCount = 0;
+        for (int i = 0; i < entityParts.length; i++) {
+            int part = entityParts[i];
+            if (partMap[part] < 0) {
+                partMap[part] = compactPartCount++;
+            }
+            entityParts[i] = partMap[part];
+        }
+        return Math.max(1, compactPartCount);
+    }
+
+    /**
+     * @param solutionDescriptor never null
+     * @param partitionSolution never null, a planning clone of the working solution,
+     * its entity members are replaced by those of the last part
+     * @param entityList never null, the entities of the partitionSolution
+     * @param entityParts never null, the part of every entity in the entityList
+     * @param partCount at least 1
+     * @return never null, a planning clone of the partitionSolution per part
+     */
+    protected List<Solution_> clonePartSolutions(SolutionDescriptor<Solution_> solutionDescriptor,
+            Solution_ partitionSolution, List<Object> entityList, int[] entityParts, int partCount) {
+        Map<Object, Integer> entityPartMap = new IdentityHashMap<>(entityList.size());
+        for (int i = 0; i < entityList.size(); i++) {
+            entityPartMap.put(entityList.get(i), entityParts[i]);
+        }
+        Map<MemberAccessor, Object> originalMemberMap = new LinkedHashMap<>();
+        for (MemberAccessor memberAccessor : solutionDescriptor.getEntityMemberAccessorMap().values()) {
+            originalMemberMap.put(memberAccessor, memberAccessor.executeGetter(partitionSolution));
+        }
+        for (MemberAccessor memberAccessor : solutionDescriptor.getEntityCollectionMemberAccessorMap().values()) {
+            originalMemberMap.put(memberAccessor, memberAccessor.executeGetter(partitionSolution));
+        }
+        for (MemberAccessor memberAccessor : originalMemberMap.keySet()) {
+            if (!memberAccessor.supportSetter()) {
+                throw new IllegalStateException("The solutionPartitioner (" + getClass().getSimpleName()
+                        + ") needs a setter for the entity member (" + memberAccessor.getName()
+                        + ") on the solutionClass (" + solutionDescriptor.getSolutionClass() + ").\n"
+                        + "Maybe add a setter or configure a custom solutionPartitionerClass.");
+            }
+        }
+        List<Solution_> partList = new ArrayList<>(partCount);
+        // Replace the entity members of the partitionSolution by those of 1 part
+        // and let the solution cloner do the rest
+        for (int part = 0; part < partCount; part++) {
+            for (Map.Entry<MemberAccessor, Object> entry : originalMemberMap.entrySet()) {
+                MemberAccessor memberAccessor = entry.getKey();
+                Object original = entry.getValue();
+                Object partMember;
+                if (original == null) {
+                    partMember = null;
+                } else if (solutionDescriptor.getEntityMemberAccessorMap().containsValue(memberAccessor)) {
+                    partMember = isInPart(memberAccessor, original, entityPartMap, part) ? original : null;
+                } else {
+                    partMember = filterEntityCollection(memberAccessor, original, entityPartMap, part);
+                }
+                memberAccessor.executeSetter(partitionSolution, partMember);
+            }
+            partList.add(solutionDescriptor.getSolutionCloner().cloneSolution(partitionSolution));
+        }
+        return partList;
+    }
+
+    private Object filterEntityCollection(MemberAccessor memberAccessor, Object original,
+            Map<Object, Integer> entityPartMap, int part) {
+        Class<?> type = memberAccessor.getType();
+        if (type.isArray()) {
+            int length = Array.getLength(original);
+            List<Object> partEntityList = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                Object entity = Array.get(original, i);
+                if (isInPart(memberAccessor, entity, entityPartMap, part)) {
+                    partEntityList.add(entity);
+                }
+            }
+            Object partArray = Array.newInstance(type.getComponentType(), partEntityList.size());
+            for (int i = 0; i < partEntityList.size(); i++) {
+                Array.set(partArray, i, partEntityList.get(i));
+            }
+            return partArray;
+        }
+        Collection<Object> partCollection;
+        if (type.isAssignableFrom(ArrayList.class)) {
+            partCollection = new ArrayList<>();
+        } else if (type.isAssignableFrom(LinkedHashSet.class)) {
+            partCollection = new LinkedHashSet<>();
+        } else {
+            throw new IllegalStateException("The solutionPartitioner (" + getClass().getSimpleName()
+                    + ") does not support the type (" + type + ") of the entity collection member ("
+                    + memberAccessor.getName() + ").\n"
+                    + "Maybe use a " + List.class.getSimpleName() + " or configure a custom solutionPartitionerClass.");
+        }
+        for (Object entity : (Collection<?>) original) {
+            if (isInPart(memberAccessor, entity, entityPartMap, part)) {
+                partCollection.add(entity);
+            }
+        }
+        return partCollection;
+    }
+
+    private boolean isInPart(MemberAccessor memberAccessor, Object entity,
+            Map<Object, Integer> entityPartMap, int part) {
+        Integer entityPart = entityPartMap.get(entity);
+        if (entityPart == null) {
+            throw new IllegalStateException("The solutionPartitioner (" + getClass().getSimpleName()
+                    + ") has not assigned the entity (" + entity + ") of the entity member ("
+                    + memberAccessor.getName() + ") to a part.\n"
+                    + "Maybe that entity member contains a null element or an entity that is"
+                    + " not returned by the solution's entity members.");
+        }
+        return entityPart == part;
+    }
+
+    /**
+     * A growable list of int pairs, to avoid boxing millions of them.
+     */
+    private static final class IntPairList {
+
+        private int[] firsts = new int[16];
+        private int[] seconds = new int[16];
+        private int size = 0;
+
+        private void add(int first, int second) {
+            if (size == firsts.length) {
+                firsts = Arrays.copyOf(firsts, size * 2);
+                seconds = Arrays.copyOf(seconds, size * 2);
+            }
+            firsts[size] = first;
+            seconds[size] = second;
+            size++;
+        }
+
+    }
+
+}
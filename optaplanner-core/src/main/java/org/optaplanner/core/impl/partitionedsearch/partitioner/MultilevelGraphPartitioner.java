@@ -0,0 +1,450 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.partitionedsearch.partitioner;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Splits a weighted undirected graph into balanced parts with a small weighted edge cut,
+ * with a multilevel heuristic in near-linear time:
+ * <ol>
+ * <li>Coarsening: repeatedly contract a heavy edge matching, until the graph is small.</li>
+ * <li>Initial partitioning: grow the parts in breadth first order on the coarsest graph, several times.</li>
+ * <li>Uncoarsening: project the parts back to every finer graph
+ * and refine them by greedily moving boundary nodes to the part they're most connected to.</li>
+ * </ol>
+ * The graph is stored in compressed sparse row format, so millions of nodes don't create millions of objects.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class MultilevelGraphPartitioner {
+
+    protected static final int COARSEST_NODE_COUNT_PER_PART = 30;
+    protected static final double MINIMUM_COARSENING_RATIO = 0.9;
+    protected static final int INITIAL_PARTITION_TRY_COUNT = 8;
+    protected static final int REFINEMENT_PASS_LIMIT = 4;
+
+    protected final int partCount;
+    protected final double imbalance;
+    protected final Random random;
+
+    /**
+     * @param partCount at least 1
+     * @param imbalance at least 0.0, the fraction by which a part's weight may exceed the average part weight
+     * @param random never null
+     */
+    public MultilevelGraphPartitioner(int partCount, double imbalance, Random random) {
+        if (partCount < 1) {
+            throw new IllegalArgumentException("The partCount (" + partCount + ") cannot be lower than 1.");
+        }
+        if (imbalance < 0.0) {
+            throw new IllegalArgumentException("The imbalance (" + imbalance + ") cannot be negative.");
+        }
+        this.partCount = partCount;
+        this.imbalance = imbalance;
+        this.random = random;
+    }
+
+    public int getPartCount() {
+        return partCount;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    /**
+     * @param graph never null
+     * @return never null, the part index of every node, {@code 0 <= partIndex < partCount}
+     */
+    public int[] partition(Graph graph) {
+        if (partCount == 1 || graph.getNodeCount() == 0) {
+            return new int[graph.getNodeCount()];
+        }
+        long totalWeight = graph.getTotalNodeWeight();
+        int maximumPartWeight = (int) Math.min(Integer.MAX_VALUE,
+                (long) Math.ceil((1.0 + imbalance) * totalWeight / partCount));
+        // Don't contract nodes beyond a fraction of a part, or the parts can't be balanced
+        int maximumCoarseNodeWeight = (int) Math.max(1L, totalWeight / (partCount * 4L));
+        int coarsestNodeCount = partCount * COARSEST_NODE_COUNT_PER_PART;
+        Graph[] levels = new Graph[32];
+        int[][] coarseMaps = new int[32][];
+        levels[0] = graph;
+        int levelCount = 1;
+        while (levelCount < levels.length && levels[levelCount - 1].getNodeCount() > coarsestNodeCount) {
+            Graph fineGraph = levels[levelCount - 1];
+            int[] coarseMap = new int[fineGraph.getNodeCount()];
+            Graph coarseGraph = coarsen(fineGraph, maximumCoarseNodeWeight, coarseMap);
+            if (coarseGraph.getNodeCount() > fineGraph.getNodeCount() * MINIMUM_COARSENING_RATIO) {
+                break;
+            }
+            coarseMaps[levelCount - 1] = coarseMap;
+            levels[levelCount] = coarseGraph;
+            levelCount++;
+        }
+        // The coarsest graph is small, so try several initial partitions and keep the best one
+        Graph coarsestGraph = levels[levelCount - 1];
+        int[] parts = null;
+        long bestEdgeCut = Long.MAX_VALUE;
+        for (int i = 0; i < INITIAL_PARTITION_TRY_COUNT; i++) {
+            int[] triedParts = growInitialParts(coarsestGraph, totalWeight);
+            refine(coarsestGraph, triedParts, maximumPartWeight);
+            long edgeCut = coarsestGraph.calculateEdgeCut(triedParts);
+            if (edgeCut < bestEdgeCut) {
+                parts = triedParts;
+                bestEdgeCut = edgeCut;
+            }
+        }
+        for (int level = levelCount - 2; level >= 0; level--) {
+            int[] coarseMap = coarseMaps[level];
+            int[] fineParts = new int[levels[level].getNodeCount()];
+            for (int node = 0; node < fineParts.length; node++) {
+                fineParts[node] = parts[coarseMap[node]];
+            }
+            parts = fineParts;
+            refine(levels[level], parts, maximumPartWeight);
+        }
+        return parts;
+    }
+
+    /**
+     * Contracts a heavy edge matching: every node is matched with the unmatched neighbor
+     * that it shares the heaviest edge with.
+     * @param graph never null
+     * @param maximumCoarseNodeWeight at least 1
+     * @param coarseMap never null, filled in with the coarse node of every node
+     * @return never null
+     */
+    protected Graph coarsen(Graph graph, int maximumCoarseNodeWeight, int[] coarseMap) {
+        int nodeCount = graph.getNodeCount();
+        int[] match = new int[nodeCount];
+        Arrays.fill(match, -1);
+        for (int node : shuffledNodes(nodeCount)) {
+            if (match[node] >= 0) {
+                continue;
+            }
+            int bestNeighbor = -1;
+            int bestEdgeWeight = 0;
+            for (int i = graph.edgeStarts[node]; i < graph.edgeStarts[node + 1]; i++) {
+                int neighbor = graph.edgeTargets[i];
+                if (match[neighbor] < 0 && neighbor != node
+                        && graph.nodeWeights[node] + graph.nodeWeights[neighbor] <= maximumCoarseNodeWeight
+                        && graph.edgeWeights[i] > bestEdgeWeight) {
+                    bestNeighbor = neighbor;
+                    bestEdgeWeight = graph.edgeWeights[i];
+                }
+            }
+            if (bestNeighbor >= 0) {
+                match[node] = bestNeighbor;
+                match[bestNeighbor] = node;
+            } else {
+                match[node] = node;
+            }
+        }
+        Arrays.fill(coarseMap, -1);
+        int coarseNodeCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (coarseMap[node] < 0) {
+                coarseMap[node] = coarseNodeCount;
+                coarseMap[match[node]] = coarseNodeCount;
+                coarseNodeCount++;
+            }
+        }
+        GraphBuilder builder = new GraphBuilder(coarseNodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            int coarseNode = coarseMap[node];
+            builder.addNodeWeight(coarseNode, graph.nodeWeights[node]);
+            for (int i = graph.edgeStarts[node]; i < graph.edgeStarts[node + 1]; i++) {
+                int coarseNeighbor = coarseMap[graph.edgeTargets[i]];
+                // Every undirected edge is stored twice, so only add it from its lowest node
+                if (coarseNode < coarseNeighbor) {
+                    builder.addEdge(coarseNode, coarseNeighbor, graph.edgeWeights[i]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Grows the parts one by one in breadth first order from a random seed node,
+     * until each part reaches its share of the remaining weight, so every part is a connected region where possible.
+     * @param graph never null
+     * @param totalWeight at least 0
+     * @return never null
+     */
+    protected int[] growInitialParts(Graph graph, long totalWeight) {
+        int nodeCount = graph.getNodeCount();
+        int[] parts = new int[nodeCount];
+        Arrays.fill(parts, -1);
+        int[] seeds = shuffledNodes(nodeCount);
+        int seedIndex = 0;
+        int[] queue = new int[nodeCount];
+        long remainingWeight = totalWeight;
+        for (int part = 0; part < partCount - 1; part++) {
+            long targetWeight = remainingWeight / (partCount - part);
+            long partWeight = 0L;
+            int queueHead = 0;
+            int queueTail = 0;
+            while (partWeight < targetWeight) {
+                if (queueHead == queueTail) {
+                    // Start from a new seed if the region is enclosed
+                    while (seedIndex < nodeCount && parts[seeds[seedIndex]] >= 0) {
+                        seedIndex++;
+                    }
+                    if (seedIndex == nodeCount) {
+                        break;
+                    }
+                    int seed = seeds[seedIndex];
+                    parts[seed] = part;
+                    queue[queueTail++] = seed;
+                }
+                int node = queue[queueHead++];
+                partWeight += graph.nodeWeights[node];
+                for (int i = graph.edgeStarts[node]; i < graph.edgeStarts[node + 1]; i++) {
+                    int neighbor = graph.edgeTargets[i];
+                    if (parts[neighbor] < 0) {
+                        parts[neighbor] = part;
+                        queue[queueTail++] = neighbor;
+                    }
+                }
+            }
+            // Release the nodes that were discovered but not reached
+            for (int i = queueHead; i < queueTail; i++) {
+                parts[queue[i]] = -1;
+            }
+            remainingWeight -= partWeight;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            if (parts[node] < 0) {
+                parts[node] = partCount - 1;
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Greedily moves every node to the neighboring part that it has the most edge weight to,
+     * if that reduces the edge cut and doesn't exceed the maximum part weight.
+     * @param graph never null
+     * @param parts never null, modified in place
+     * @param maximumPartWeight at least 1
+     */
+    protected void refine(Graph graph, int[] parts, int maximumPartWeight) {
+        int nodeCount = graph.getNodeCount();
+        long[] partWeights = new long[partCount];
+        for (int node = 0; node < nodeCount; node++) {
+            partWeights[parts[node]] += graph.nodeWeights[node];
+        }
+        int[] connections = new int[partCount];
+        int[] touchedParts = new int[partCount];
+        for (int pass = 0; pass < REFINEMENT_PASS_LIMIT; pass++) {
+            int movedCount = 0;
+            for (int node : shuffledNodes(nodeCount)) {
+                int fromPart = parts[node];
+                int touchedPartCount = 0;
+                for (int i = graph.edgeStarts[node]; i < graph.edgeStarts[node + 1]; i++) {
+                    int part = parts[graph.edgeTargets[i]];
+                    if (connections[part] == 0) {
+                        touchedParts[touchedPartCount++] = part;
+                    }
+                    connections[part] += graph.edgeWeights[i];
+                }
+                int nodeWeight = graph.nodeWeights[node];
+                int bestPart = fromPart;
+                int bestGain = 0;
+                for (int j = 0; j < touchedPartCount; j++) {
+                    int part = touchedParts[j];
+                    int gain = connections[part] - connections[fromPart];
+                    if (part != fromPart && gain > bestGain && partWeights[part] + nodeWeight <= maximumPartWeight) {
+                        bestPart = part;
+                        bestGain = gain;
+                    }
+                }
+                for (int j = 0; j < touchedPartCount; j++) {
+                    connections[touchedParts[j]] = 0;
+                }
+                if (bestPart != fromPart) {
+                    parts[node] = bestPart;
+                    partWeights[fromPart] -= nodeWeight;
+                    partWeights[bestPart] += nodeWeight;
+                    movedCount++;
+                }
+            }
+            if (movedCount == 0) {
+                break;
+            }
+        }
+    }
+
+    private int[] shuffledNodes(int nodeCount) {
+        int[] nodes = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = i;
+        }
+        for (int i = nodeCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = swap;
+        }
+        return nodes;
+    }
+
+    /**
+     * A weighted undirected graph in compressed sparse row format:
+     * the edges of node {@code n} are at the indexes {@code edgeStarts[n]} (inclusive)
+     * to {@code edgeStarts[n + 1]} (exclusive).
+     * Every undirected edge is stored in both directions.
+     */
+    public static final class Graph {
+
+        private final int[] nodeWeights;
+        private final int[] edgeStarts;
+        private final int[] edgeTargets;
+        private final int[] edgeWeights;
+
+        private Graph(int[] nodeWeights, int[] edgeStarts, int[] edgeTargets, int[] edgeWeights) {
+            this.nodeWeights = nodeWeights;
+            this.edgeStarts = edgeStarts;
+            this.edgeTargets = edgeTargets;
+            this.edgeWeights = edgeWeights;
+        }
+
+        public int getNodeCount() {
+            return nodeWeights.length;
+        }
+
+        public int getNodeWeight(int node) {
+            return nodeWeights[node];
+        }
+
+        public long getTotalNodeWeight() {
+            long totalWeight = 0L;
+            for (int nodeWeight : nodeWeights) {
+                totalWeight += nodeWeight;
+            }
+            return totalWeight;
+        }
+
+        /**
+         * @param parts never null, the part index of every node
+         * @return at least 0, the sum of the weights of the edges between 2 different parts
+         */
+        public long calculateEdgeCut(int[] parts) {
+            long edgeCut = 0L;
+            for (int node = 0; node < nodeWeights.length; node++) {
+                for (int i = edgeStarts[node]; i < edgeStarts[node + 1]; i++) {
+                    if (parts[node] != parts[edgeTargets[i]]) {
+                        edgeCut += edgeWeights[i];
+                    }
+                }
+            }
+            // Every undirected edge is stored twice
+            return edgeCut / 2L;
+        }
+
+    }
+
+    /**
+     * Builds a {@link Graph}: duplicate edges are merged by adding up their weights and self loops are ignored.
+     */
+    public static final class GraphBuilder {
+
+        private final int[] nodeWeights;
+        private int[] edgeSources = new int[16];
+        private int[] edgeTargets = new int[16];
+        private int[] edgeWeights = new int[16];
+        private int edgeCount = 0;
+
+        /**
+         * @param nodeCount at least 0
+         */
+        public GraphBuilder(int nodeCount) {
+            nodeWeights = new int[nodeCount];
+        }
+
+        public void addNodeWeight(int node, int weight) {
+            nodeWeights[node] += weight;
+        }
+
+        public void addEdge(int node, int otherNode, int weight) {
+            if (node == otherNode) {
+                return;
+            }
+            if (edgeCount == edgeSources.length) {
+                int newCapacity = edgeSources.length * 2;
+                edgeSources = Arrays.copyOf(edgeSources, newCapacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, newCapacity);
+                edgeWeights = Arrays.copyOf(edgeWeights, newCapacity);
+            }
+            edgeSources[edgeCount] = node;
+            edgeTargets[edgeCount] = otherNode;
+            edgeWeights[edgeCount] = weight;
+            edgeCount++;
+        }
+
+        public Graph build() {
+            int nodeCount = nodeWeights.length;
+            // Counting sort of both directions of every edge by source node
+            int[] starts = new int[nodeCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                starts[edgeSources[i] + 1]++;
+                starts[edgeTargets[i] + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                starts[node + 1] += starts[node];
+            }
+            int[] positions = Arrays.copyOf(starts, nodeCount);
+            int[] targets = new int[edgeCount * 2];
+            int[] weights = new int[edgeCount * 2];
+            for (int i = 0; i < edgeCount; i++) {
+                int position = positions[edgeSources[i]]++;
+                targets[position] = edgeTargets[i];
+                weights[position] = edgeWeights[i];
+                position = positions[edgeTargets[i]]++;
+                targets[position] = edgeSources[i];
+                weights[position] = edgeWeights[i];
+            }
+            // Merge duplicate edges in linear time with a last seen position per target node
+            int[] mergedStarts = new int[nodeCount + 1];
+            int[] lastPositions = new int[nodeCount];
+            Arrays.fill(lastPositions, -1);
+            int mergedCount = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                mergedStarts[node] = mergedCount;
+                for (int i = starts[node]; i < starts[node + 1]; i++) {
+                    int target = targets[i];
+                    int lastPosition = lastPositions[target];
+                    if (lastPosition >= mergedStarts[node]) {
+                        weights[lastPosition] += weights[i];
+                    } else {
+                        lastPositions[target] = mergedCount;
+                        targets[mergedCount] = target;
+                        weights[mergedCount] = weights[i];
+                        mergedCount++;
+                    }
+                }
+            }
+            mergedStarts[nodeCount] = mergedCount;
+            return new Graph(nodeWeights.clone(), mergedStarts,
+                    Arrays.copyOf(targets, mergedCount), Arrays.copyOf(weights, mergedCount));
+        }
+
+    }
+
+}
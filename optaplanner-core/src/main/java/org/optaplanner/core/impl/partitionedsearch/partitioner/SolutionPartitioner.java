@@ -47,4 +47,36 @@ public interface SolutionPartitioner<Solution_> {
      */
     List<Solution_> splitWorkingSolution(ScoreDirector<Solution_> scoreDirector, Integer runnablePartThreadLimit);
 
+    /**
+     * Like {@link #splitWorkingSolution(ScoreDirector, Integer)},
+     * but called again for every repartitioning round after the first one,
+     * if the partitioned search phase repartitions.
+     * Implementations should split along different boundaries than in the previous round,
+     * so planning entities near an old border can move between parts.
+     * <p>
+     * Only called if {@link #isRepartitioningSupported()} returns true.
+     * Defaults to splitting the same way as {@link #splitWorkingSolution(ScoreDirector, Integer)},
+     * which would just solve the same parts again.
+     * @param scoreDirector never null, the {@link ScoreDirector}
+     * which has the {@link ScoreDirector#getWorkingSolution()} that needs to be split up
+     * @param runnablePartThreadLimit null if unlimited, never negative
+     * @param roundIndex at least 0, the first round is 0
+     * @return never null, {@link List#size()} of at least 1.
+     */
+    default List<Solution_> splitWorkingSolution(ScoreDirector<Solution_> scoreDirector,
+            Integer runnablePartThreadLimit, int roundIndex) {
+        return splitWorkingSolution(scoreDirector, runnablePartThreadLimit);
+    }
+
+    /**
+     * Opt-in for repartitioning rounds: an implementation that overrides
+     * {@link #splitWorkingSolution(ScoreDirector, Integer, int)} to split differently per round
+     * must also override this method to return true.
+     * Otherwise, the partitioned search phase solves every part only once.
+     * @return true if {@link #splitWorkingSolution(ScoreDirector, Integer, int)} splits differently per round
+     */
+    default boolean isRepartitioningSupported() {
+        return false;
+    }
+
 }
@@ -35,6 +35,7 @@ import org.optaplanner.core.impl.score.director.ScoreDirector;
 
 /**
  * Applies a new best solution from a partition child solver into the global working solution of the parent solver.
+ * Also used to migrate the best solution from one island to another in an island search.
  * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
  */
 public final class PartitionChangeMove<Solution_> extends AbstractMove<Solution_> {
@@ -84,7 +85,10 @@ public final class PartitionChangeMove<Solution_> extends AbstractMove<Solution_
             for (Pair<Object, Object> pair : entry.getValue()) {
                 Object entity = pair.getKey();
                 Object value = pair.getValue();
-                scoreDirector.changeVariableFacade(variableDescriptor, entity, value);
+                // Skip the unchanged variables, to avoid needless variable listener and score director work
+                if (variableDescriptor.getValue(entity) != value) {
+                    scoreDirector.changeVariableFacade(variableDescriptor, entity, value);
+                }
             }
         }
     }
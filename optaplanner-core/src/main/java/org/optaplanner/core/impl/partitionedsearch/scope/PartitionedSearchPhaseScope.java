@@ -26,6 +26,8 @@ import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
 public class PartitionedSearchPhaseScope<Solution_> extends AbstractPhaseScope<Solution_> {
 
     private Integer partCount;
+    private int roundCount = 0;
+    private long partsTimeMillisSpent = 0L;
 
     private PartitionedSearchStepScope<Solution_> lastCompletedStepScope;
 
@@ -42,6 +44,28 @@ public class PartitionedSearchPhaseScope<Solution_> extends AbstractPhaseScope<S
         this.partCount = partCount;
     }
 
+    /**
+     * @return at least 0, the number of times the working solution has been split into parts
+     */
+    public int getRoundCount() {
+        return roundCount;
+    }
+
+    public void setRoundCount(int roundCount) {
+        this.roundCount = roundCount;
+    }
+
+    /**
+     * @return at least 0, the sum of the time spent by every part solver
+     */
+    public long getPartsTimeMillisSpent() {
+        return partsTimeMillisSpent;
+    }
+
+    public void addPartsTimeMillisSpent(long addition) {
+        partsTimeMillisSpent += addition;
+    }
+
     @Override
     public PartitionedSearchStepScope<Solution_> getLastCompletedStepScope() {
         return lastCompletedStepScope;
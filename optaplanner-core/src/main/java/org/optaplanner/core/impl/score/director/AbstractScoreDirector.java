@@ -30,6 +30,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 import org.optaplanner.core.api.domain.solution.cloner.SolutionCloner;
 import org.optaplanner.core.api.score.Score;
@@ -37,10 +38,12 @@ import org.optaplanner.core.api.score.constraint.ConstraintMatch;
 import org.optaplanner.core.api.score.constraint.ConstraintMatchScoreComparator;
 import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
 import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaplanner.core.api.score.holder.ScoreAccumulator;
 import org.optaplanner.core.config.solver.EnvironmentMode;
 import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
 import org.optaplanner.core.impl.domain.lookup.ClassAndPlanningIdComparator;
 import org.optaplanner.core.impl.domain.lookup.LookUpManager;
+import org.optaplanner.core.impl.domain.ordinal.OrdinalManager;
 import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
 import org.optaplanner.core.impl.domain.variable.descriptor.ShadowVariableDescriptor;
 import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
@@ -73,6 +76,10 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
     protected final LookUpManager lookUpManager;
     protected boolean constraintMatchEnabledPreference;
     protected final VariableListenerSupport<Solution_> variableListenerSupport;
+    /**
+     * Built lazily by {@link #getOrdinalManager()}, because only some supplies need ordinals.
+     */
+    protected OrdinalManager ordinalManager = null;
 
     protected Solution_ workingSolution;
     protected long workingEntityListRevision = 0L;
@@ -155,6 +162,19 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
         return variableListenerSupport;
     }
 
+    @Override
+    public VariableListenerSupport<Solution_> getVariableListenerSupport() {
+        return variableListenerSupport;
+    }
+
+    @Override
+    public OrdinalManager getOrdinalManager() {
+        if (ordinalManager == null) {
+            ordinalManager = getSolutionDescriptor().buildOrdinalManager(workingSolution);
+        }
+        return ordinalManager;
+    }
+
     // ************************************************************************
     // Complex methods
     // ************************************************************************
@@ -167,6 +187,8 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
         if (lookUpEnabled) {
             lookUpManager.resetWorkingObjects(solutionDescriptor.getAllFacts(workingSolution));
         }
+        // Before the variable listeners, so a supply that asks for ordinals gets them for the new working solution
+        ordinalManager = null;
         variableListenerSupport.resetWorkingSolution();
         setWorkingEntityListDirty();
     }
@@ -193,6 +215,46 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
         undoMove.doMove(this);
     }
 
+    /**
+     * Only true if the score calculation can be a {@link ScoreAccumulator}
+     * and {@link InnerScoreDirectorFactory#isScoreAccumulatorEnabled()} is true.
+     * @return true if {@link #calculateScoreAccumulator()} does not return null
+     */
+    @Override
+    public boolean supportsScoreAccumulator() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsMoveScoreDeltaCache() {
+        return false;
+    }
+
+    @Override
+    public void doAndProcessMoveWithScoreAccumulator(Move<Solution_> move,
+            ObjIntConsumer<ScoreAccumulator> moveProcessor) {
+        if (!supportsScoreAccumulator()) {
+            throw new IllegalStateException("Impossible state: the scoreDirector (" + getClass().getSimpleName()
+                    + ") does not support a " + ScoreAccumulator.class.getSimpleName()
+                    + ", so the caller should have checked supportsScoreAccumulator() first.");
+        }
+        Move<Solution_> undoMove = move.doMove(this);
+        ScoreAccumulator scoreAccumulator = calculateScoreAccumulator();
+        moveProcessor.accept(scoreAccumulator, workingInitScore);
+        undoMove.doMove(this);
+    }
+
+    /**
+     * Like {@link #calculateScore()}, but does not create a {@link Score} instance
+     * nor update the working solution's score.
+     * Only called if {@link #supportsScoreAccumulator()} returns true.
+     * @return null if {@link #supportsScoreAccumulator()} returns false,
+     * otherwise only valid until the working solution changes
+     */
+    protected ScoreAccumulator calculateScoreAccumulator() {
+        return null;
+    }
+
     @Override
     public boolean isWorkingEntityListDirty(long expectedWorkingEntityListRevision) {
         return workingEntityListRevision != expectedWorkingEntityListRevision;
@@ -367,6 +429,7 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
             lookUpManager.clearWorkingObjects();
         }
         variableListenerSupport.clearWorkingSolution();
+        ordinalManager = null;
     }
 
     // ************************************************************************
@@ -397,6 +460,30 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
         afterVariableChanged(variableDescriptor, entity);
     }
 
+    /**
+     * Unlike the default implementation, it uses the {@link VariableDescriptor} instead of reflection,
+     * fails fast on a genuine variable and counts the suppressed notifications.
+     */
+    @Override
+    public boolean changeShadowVariableIfDifferent(Object entity, String variableName, Object newValue) {
+        VariableDescriptor<Solution_> variableDescriptor = getSolutionDescriptor()
+                .findVariableDescriptorOrFail(entity, variableName);
+        if (!(variableDescriptor instanceof ShadowVariableDescriptor)) {
+            throw new IllegalArgumentException("The variableName (" + variableName
+                    + ") of the entity (" + entity + ") is not a shadow variable.\n"
+                    + "Maybe use changeShadowVariableIfDifferent() only from a "
+                    + VariableListener.class.getSimpleName() + ".");
+        }
+        if (Objects.equals(variableDescriptor.getValue(entity), newValue)) {
+            variableListenerSupport.shadowVariableChangeSuppressed(variableDescriptor);
+            return false;
+        }
+        beforeVariableChanged(variableDescriptor, entity);
+        variableDescriptor.setValue(entity, newValue);
+        afterVariableChanged(variableDescriptor, entity);
+        return true;
+    }
+
     @Override
     public final void beforeEntityRemoved(Object entity) {
         beforeEntityRemoved(getSolutionDescriptor().findEntityDescriptorOrFail(entity.getClass()), entity);
@@ -416,6 +503,9 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
         if (lookUpEnabled) {
             lookUpManager.addWorkingObject(entity);
         }
+        if (ordinalManager != null) {
+            ordinalManager.addWorkingObject(entity);
+        }
         variableListenerSupport.afterEntityAdded(entityDescriptor, entity);
         if (!allChangesWillBeUndoneBeforeStepEnds) {
             setWorkingEntityListDirty();
@@ -454,6 +544,9 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
         if (lookUpEnabled) {
             lookUpManager.removeWorkingObject(entity);
         }
+        if (ordinalManager != null) {
+            ordinalManager.removeWorkingObject(entity);
+        }
         variableListenerSupport.afterEntityRemoved(entityDescriptor, entity);
         if (!allChangesWillBeUndoneBeforeStepEnds) {
             setWorkingEntityListDirty();
@@ -474,6 +567,9 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
         if (lookUpEnabled) {
             lookUpManager.addWorkingObject(problemFact);
         }
+        if (ordinalManager != null) {
+            ordinalManager.addWorkingObject(problemFact);
+        }
         variableListenerSupport.resetWorkingSolution(); // TODO do not nuke it
     }
 
@@ -497,6 +593,9 @@ public abstract class AbstractScoreDirector<Solution_, Factory_ extends Abstract
         if (lookUpEnabled) {
             lookUpManager.removeWorkingObject(problemFact);
         }
+        if (ordinalManager != null) {
+            ordinalManager.removeWorkingObject(problemFact);
+        }
         variableListenerSupport.resetWorkingSolution(); // TODO do not nuke it
     }
 
@@ -41,6 +41,11 @@ public abstract class AbstractScoreDirectorFactory<Solution_> implements InnerSc
 
     protected boolean assertClonedSolution = false;
 
+    protected boolean segmentedAnchorSupplyEnabled = false;
+    protected boolean assertSegmentedAnchorSupply = false;
+
+    protected boolean scoreAccumulatorEnabled = false;
+
     public AbstractScoreDirectorFactory(SolutionDescriptor<Solution_> solutionDescriptor) {
         this.solutionDescriptor = solutionDescriptor;
     }
@@ -80,6 +85,33 @@ public abstract class AbstractScoreDirectorFactory<Solution_> implements InnerSc
         this.assertClonedSolution = assertClonedSolution;
     }
 
+    @Override
+    public boolean isSegmentedAnchorSupplyEnabled() {
+        return segmentedAnchorSupplyEnabled;
+    }
+
+    public void setSegmentedAnchorSupplyEnabled(boolean segmentedAnchorSupplyEnabled) {
+        this.segmentedAnchorSupplyEnabled = segmentedAnchorSupplyEnabled;
+    }
+
+    @Override
+    public boolean isAssertSegmentedAnchorSupply() {
+        return assertSegmentedAnchorSupply;
+    }
+
+    public void setAssertSegmentedAnchorSupply(boolean assertSegmentedAnchorSupply) {
+        this.assertSegmentedAnchorSupply = assertSegmentedAnchorSupply;
+    }
+
+    @Override
+    public boolean isScoreAccumulatorEnabled() {
+        return scoreAccumulatorEnabled;
+    }
+
+    public void setScoreAccumulatorEnabled(boolean scoreAccumulatorEnabled) {
+        this.scoreAccumulatorEnabled = scoreAccumulatorEnabled;
+    }
+
     // ************************************************************************
     // Complex methods
     // ************************************************************************
@@ -18,12 +18,16 @@ package org.optaplanner.core.impl.score.director;
 
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.api.score.constraint.ConstraintMatch;
+import org.optaplanner.core.api.score.holder.ScoreAccumulator;
+import org.optaplanner.core.impl.domain.ordinal.OrdinalManager;
 import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
 import org.optaplanner.core.impl.domain.variable.listener.VariableListener;
+import org.optaplanner.core.impl.domain.variable.listener.support.VariableListenerSupport;
 import org.optaplanner.core.impl.domain.variable.supply.SupplyManager;
 import org.optaplanner.core.impl.heuristic.move.Move;
 import org.optaplanner.core.impl.score.definition.ScoreDefinition;
@@ -59,6 +63,25 @@ public interface InnerScoreDirector<Solution_> extends ScoreDirector<Solution_>
      */
     void doAndProcessMove(Move<Solution_> move, boolean assertMoveScoreFromScratch, Consumer<Score> moveProcessor);
 
+    /**
+     * @return true if {@link #doAndProcessMoveWithScoreAccumulator(Move, ObjIntConsumer)} is supported,
+     * because the score calculation is a {@link ScoreAccumulator}
+     * and {@link InnerScoreDirectorFactory#isScoreAccumulatorEnabled()} is true
+     */
+    boolean supportsScoreAccumulator();
+
+    /**
+     * Like {@link #doAndProcessMove(Move, boolean, Consumer)},
+     * but does not create a {@link Score} instance for the move.
+     * Instead, the moveProcessor receives the mutable {@link ScoreAccumulator} and the working init score,
+     * which are only valid until the moveProcessor returns, because the move is undone afterwards.
+     * The working solution's score is not updated.
+     * @param move never null
+     * @param moveProcessor never null, receives the {@link ScoreAccumulator} and the init score
+     * @throws IllegalStateException if {@link #supportsScoreAccumulator()} returns false
+     */
+    void doAndProcessMoveWithScoreAccumulator(Move<Solution_> move, ObjIntConsumer<ScoreAccumulator> moveProcessor);
+
     /**
      * @param expectedWorkingEntityListRevision an
      * @return true if the entityList might have a different set of instances now
@@ -122,6 +145,24 @@ public interface InnerScoreDirector<Solution_> extends ScoreDirector<Solution_>
      */
     SupplyManager getSupplyManager();
 
+    /**
+     * @return never null
+     */
+    VariableListenerSupport<Solution_> getVariableListenerSupport();
+
+    /**
+     * Built on the first call after {@link #setWorkingSolution(Object)},
+     * so a working solution that no supply needs ordinals for doesn't pay for them.
+     * @return never null, the ordinals of the working entities and problem facts
+     */
+    OrdinalManager getOrdinalManager();
+
+    /**
+     * @return true if the score calculator is a {@link MoveLocalScoreCalculator},
+     * so the score difference of a move can be cached across steps
+     */
+    boolean supportsMoveScoreDeltaCache();
+
     /**
      * Clones this {@link ScoreDirector} and its {@link PlanningSolution working solution}.
      * Use {@link #getWorkingSolution()} to retrieve the {@link PlanningSolution working solution} of that clone.
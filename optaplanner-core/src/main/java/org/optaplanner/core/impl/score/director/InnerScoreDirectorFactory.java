@@ -19,7 +19,11 @@ package org.optaplanner.core.impl.score.director;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.api.score.constraint.ConstraintMatch;
+import org.optaplanner.core.api.score.holder.ScoreAccumulator;
 import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.domain.variable.anchor.AnchorVariableSupply;
+import org.optaplanner.core.impl.domain.variable.anchor.ExternalizedAnchorVariableSupply;
+import org.optaplanner.core.impl.domain.variable.anchor.SegmentedAnchorVariableSupply;
 import org.optaplanner.core.impl.score.definition.ScoreDefinition;
 import org.optaplanner.core.impl.score.trend.InitializingScoreTrend;
 
@@ -59,6 +63,24 @@ public interface InnerScoreDirectorFactory<Solution_> extends ScoreDirectorFacto
      */
     InitializingScoreTrend getInitializingScoreTrend();
 
+    /**
+     * @return true if an externalized {@link AnchorVariableSupply} should use
+     * a {@link SegmentedAnchorVariableSupply} instead of an {@link ExternalizedAnchorVariableSupply}
+     */
+    boolean isSegmentedAnchorSupplyEnabled();
+
+    /**
+     * @return true if a {@link SegmentedAnchorVariableSupply} should compare every anchor
+     * to the anchor found by walking the chain
+     */
+    boolean isAssertSegmentedAnchorSupply();
+
+    /**
+     * @return true if a {@link InnerScoreDirector} may use the {@link ScoreAccumulator} of its score calculation
+     * to compare move scores, see {@link InnerScoreDirector#supportsScoreAccumulator()}
+     */
+    boolean isScoreAccumulatorEnabled();
+
     /**
      * Asserts that if the {@link Score} is calculated for the parameter solution,
      * it would be equal to the score of that parameter.
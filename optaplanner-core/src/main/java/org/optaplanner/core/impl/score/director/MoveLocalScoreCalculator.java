@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.score.director;
+
+import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.score.director.easy.EasyScoreCalculator;
+import org.optaplanner.core.impl.score.director.incremental.IncrementalScoreCalculator;
+
+/**
+ * Implemented by an {@link EasyScoreCalculator} or an {@link IncrementalScoreCalculator}
+ * to declare that all of its constraints are move local:
+ * the {@link Score} difference caused by a {@link Move} only depends on
+ * the {@link PlanningEntity planning entities} that the move changes,
+ * the old and new planning values of those entities
+ * and the other planning entities that have one of those planning values.
+ * <p>
+ * For example, a hard constraint that a computer's capacity must not be exceeded by its processes is move local,
+ * but a soft constraint that penalizes the difference between the most and least used computer is not.
+ * <p>
+ * This allows local search and construction heuristics
+ * to reuse the score difference of a move evaluated during an earlier step,
+ * if no step since then touched any of those entities and values.
+ * Declaring it for constraints that aren't move local corrupts the score:
+ * use {@link org.optaplanner.core.config.solver.EnvironmentMode#FAST_ASSERT} to detect that.
+ * @see org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig#getMoveScoreDeltaCacheEnabled()
+ * @see org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig#getMoveScoreDeltaCacheEnabled()
+ */
+public interface MoveLocalScoreCalculator {
+
+}
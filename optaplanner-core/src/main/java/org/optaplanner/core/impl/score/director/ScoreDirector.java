@@ -16,8 +16,11 @@
 
 package org.optaplanner.core.impl.score.director;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Objects;
 
 import org.optaplanner.core.api.domain.lookup.LookUpStrategyType;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
@@ -29,7 +32,12 @@ import org.optaplanner.core.api.score.constraint.ConstraintMatch;
 import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
 import org.optaplanner.core.api.score.constraint.Indictment;
 import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.impl.domain.common.ReflectionHelper;
+import org.optaplanner.core.impl.domain.common.accessor.MemberAccessor;
+import org.optaplanner.core.impl.domain.common.accessor.ReflectionBeanPropertyMemberAccessor;
+import org.optaplanner.core.impl.domain.common.accessor.ReflectionFieldMemberAccessor;
 import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
+import org.optaplanner.core.impl.domain.variable.listener.VariableListener;
 import org.optaplanner.core.impl.heuristic.move.Move;
 import org.optaplanner.core.impl.solver.ProblemFactChange;
 
@@ -132,6 +140,53 @@ public interface ScoreDirector<Solution_> extends AutoCloseable {
 
     void afterVariableChanged(Object entity, String variableName);
 
+    /**
+     * Changes a shadow variable from a {@link VariableListener},
+     * but only if the new value is not {@link Objects#equals(Object, Object) equal} to the current value.
+     * <p>
+     * If it's equal, neither the downstream {@link VariableListener}s nor the score calculation are notified,
+     * so an unchanged shadow variable doesn't cascade through the rest of the shadow variable graph.
+     * Otherwise it's the same as calling {@link #beforeVariableChanged(Object, String)},
+     * the setter and {@link #afterVariableChanged(Object, String)}.
+     * <p>
+     * The default implementation reads and writes the variable reflectively,
+     * through its getter and setter or else through its field.
+     * @param entity never null
+     * @param variableName never null, the name of a shadow variable
+     * @param newValue sometimes null
+     * @return true if the shadow variable changed
+     */
+    default boolean changeShadowVariableIfDifferent(Object entity, String variableName, Object newValue) {
+        MemberAccessor memberAccessor;
+        Method getterMethod = ReflectionHelper.getGetterMethod(entity.getClass(), variableName);
+        if (getterMethod != null
+                && ReflectionHelper.getSetterMethod(entity.getClass(), getterMethod.getReturnType(), variableName) != null) {
+            memberAccessor = new ReflectionBeanPropertyMemberAccessor(getterMethod);
+        } else {
+            Field field = null;
+            for (Class<?> clazz = entity.getClass(); field == null && clazz != null; clazz = clazz.getSuperclass()) {
+                try {
+                    field = clazz.getDeclaredField(variableName);
+                } catch (NoSuchFieldException e) {
+                    // Try the superclass
+                }
+            }
+            if (field == null) {
+                throw new IllegalArgumentException("The variableName (" + variableName
+                        + ") of the entity (" + entity + ") has no getter and setter or field on its class ("
+                        + entity.getClass() + ").");
+            }
+            memberAccessor = new ReflectionFieldMemberAccessor(field);
+        }
+        if (Objects.equals(memberAccessor.executeGetter(entity), newValue)) {
+            return false;
+        }
+        beforeVariableChanged(entity, variableName);
+        memberAccessor.executeSetter(entity, newValue);
+        afterVariableChanged(entity, variableName);
+        return true;
+    }
+
     // TODO VariableDescriptor is not likely to go to public API
 
     void beforeVariableChanged(VariableDescriptor variableDescriptor, Object entity);
@@ -34,6 +34,7 @@ import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
 import org.optaplanner.core.api.score.constraint.Indictment;
 import org.optaplanner.core.api.score.holder.AbstractScoreHolder.ConstraintActivationUnMatchListener;
+import org.optaplanner.core.api.score.holder.ScoreAccumulator;
 import org.optaplanner.core.api.score.holder.ScoreHolder;
 import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
 import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
@@ -174,6 +175,20 @@ public class DroolsScoreDirector<Solution_>
         return score;
     }
 
+    @Override
+    public boolean supportsScoreAccumulator() {
+        // Every ScoreHolder is a ScoreAccumulator
+        return scoreDirectorFactory.isScoreAccumulatorEnabled();
+    }
+
+    @Override
+    protected ScoreAccumulator calculateScoreAccumulator() {
+        variableListenerSupport.assertNotificationQueuesAreEmpty();
+        kieSession.fireAllRules();
+        calculationCount++;
+        return workingScoreHolder;
+    }
+
     @Override
     public boolean isConstraintMatchEnabled() {
         return workingScoreHolder.isConstraintMatchEnabled();
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.score.director.drools;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import org.apache.commons.io.IOUtils;
+import org.drools.core.util.DroolsStreamUtils;
+import org.kie.api.KieBase;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.domain.common.accessor.MemberAccessor;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+
+/**
+ * Shares a compiled {@link KieBase} across all {@link DroolsScoreDirectorFactory} instances of the JVM
+ * that are built from the same score DRL content, kieBaseConfigurationProperties and domain classes,
+ * so those DRLs are only compiled once.
+ * A {@link KieBase} is thread-safe, every score director creates its own {@link org.kie.api.runtime.KieSession}.
+ * <p>
+ * The cache is split per {@link ClassLoader}, which it only references weakly.
+ * A cached {@link KieBase} is softly referenced, because it refers to its {@link ClassLoader} through the domain
+ * classes: under memory pressure, a {@link KieBase} that is no longer used is evicted,
+ * after which its {@link ClassLoader} (for example of a redeployed application) can be garbage collected.
+ * Use {@link #evict(ClassLoader)} to release a {@link ClassLoader} immediately.
+ * <p>
+ * This class is thread-safe.
+ */
+public class KieBaseCache {
+
+    private static final KieBaseCache INSTANCE = new KieBaseCache();
+
+    /**
+     * @return never null, the cache shared by the entire JVM
+     */
+    public static KieBaseCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Per content hash, a {@link FutureTask} instead of a {@link KieBase},
+     * so a slow compilation doesn't lock out other keys,
+     * but concurrent requests for the same key still wait for that single compilation.
+     */
+    protected final Map<ClassLoader, ConcurrentMap<String, SoftReference<FutureTask<KieBase>>>> classLoaderCacheMap
+            = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param classLoader never null, the {@link ClassLoader} the {@link KieBase} is built with
+     * @param contentHash never null, see {@link #hashContent(List, Map, Collection)}
+     * @param kieBaseBuilder never null, only called if the {@link KieBase} isn't cached yet
+     * @return never null
+     */
+    public KieBase computeIfAbsent(ClassLoader classLoader, String contentHash, Supplier<KieBase> kieBaseBuilder) {
+        ConcurrentMap<String, SoftReference<FutureTask<KieBase>>> kieBaseTaskMap
+                = classLoaderCacheMap.computeIfAbsent(classLoader, key -> new ConcurrentHashMap<>());
+        FutureTask<KieBase> newKieBaseTask = new FutureTask<>(kieBaseBuilder::get);
+        // Holds the task strongly, so it can't be garbage collected before it's returned
+        Object[] kieBaseTaskHolder = new Object[1];
+        kieBaseTaskMap.compute(contentHash, (key, oldReference) -> {
+            FutureTask<KieBase> oldKieBaseTask = (oldReference == null) ? null : oldReference.get();
+            if (oldKieBaseTask != null) {
+                kieBaseTaskHolder[0] = oldKieBaseTask;
+                return oldReference;
+            }
+            kieBaseTaskHolder[0] = newKieBaseTask;
+            return new SoftReference<>(newKieBaseTask);
+        });
+        @SuppressWarnings("unchecked")
+        FutureTask<KieBase> kieBaseTask = (FutureTask<KieBase>) kieBaseTaskHolder[0];
+        if (kieBaseTask == newKieBaseTask) {
+            kieBaseTask.run();
+        }
+        try {
+            return kieBaseTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The kieBase (" + contentHash
+                    + ") build was interrupted.", e);
+        } catch (ExecutionException e) {
+            // Don't cache a failure, so a later build can try again
+            kieBaseTaskMap.computeIfPresent(contentHash,
+                    (key, reference) -> reference.get() == kieBaseTask ? null : reference);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("The kieBase (" + contentHash + ") build failed.", cause);
+        }
+    }
+
+    /**
+     * @return at least 0, the number of cached {@link KieBase}s that haven't been evicted
+     */
+    public int size() {
+        synchronized (classLoaderCacheMap) {
+            int size = 0;
+            for (ConcurrentMap<String, SoftReference<FutureTask<KieBase>>> kieBaseTaskMap
+                    : classLoaderCacheMap.values()) {
+                for (SoftReference<FutureTask<KieBase>> reference : kieBaseTaskMap.values()) {
+                    if (reference.get() != null) {
+                        size++;
+                    }
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Removes every {@link KieBase} built with that {@link ClassLoader}.
+     * @param classLoader never null
+     */
+    public void evict(ClassLoader classLoader) {
+        classLoaderCacheMap.remove(classLoader);
+    }
+
+    public void clear() {
+        classLoaderCacheMap.clear();
+    }
+
+    // ************************************************************************
+    // Static methods
+    // ************************************************************************
+
+    /**
+     * The classes a score DRL most likely refers to:
+     * the solution class, the entity classes, the problem fact (collection element) classes
+     * and their superclasses.
+     * @param solutionDescriptor never null
+     * @return never null
+     */
+    public static Set<Class<?>> extractDomainClassSet(SolutionDescriptor<?> solutionDescriptor) {
+        Set<Class<?>> domainClassSet = new LinkedHashSet<>();
+        addWithSuperclasses(domainClassSet, solutionDescriptor.getSolutionClass());
+        for (Class<?> entityClass : solutionDescriptor.getEntityClassSet()) {
+            addWithSuperclasses(domainClassSet, entityClass);
+        }
+        for (MemberAccessor memberAccessor : solutionDescriptor.getProblemFactMemberAccessorMap().values()) {
+            addWithSuperclasses(domainClassSet, memberAccessor.getType());
+        }
+        for (MemberAccessor memberAccessor
+                : solutionDescriptor.getProblemFactCollectionMemberAccessorMap().values()) {
+            Type genericType = memberAccessor.getGenericType();
+            if (Collection.class.isAssignableFrom(memberAccessor.getType())) {
+                Class<?> elementClass;
+                try {
+                    elementClass = ConfigUtils.extractCollectionGenericTypeParameter(
+                            "solutionClass", solutionDescriptor.getSolutionClass(),
+                            memberAccessor.getType(), genericType, null, memberAccessor.getName());
+                } catch (IllegalArgumentException e) {
+                    // A raw or wildcard collection, so its element class is unknown
+                    continue;
+                }
+                addWithSuperclasses(domainClassSet, elementClass);
+            } else if (memberAccessor.getType().isArray()) {
+                addWithSuperclasses(domainClassSet, memberAccessor.getType().getComponentType());
+            }
+        }
+        return domainClassSet;
+    }
+
+    private static void addWithSuperclasses(Set<Class<?>> domainClassSet, Class<?> domainClass) {
+        for (Class<?> lineageClass = domainClass; lineageClass != null && !lineageClass.isPrimitive()
+                && !lineageClass.getName().startsWith("java."); lineageClass = lineageClass.getSuperclass()) {
+            if (!domainClassSet.add(lineageClass)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param drlContentList never null, the content of each score DRL, in order
+     * @param kieBaseConfigurationProperties sometimes null
+     * @param domainClasses never null, see {@link #extractDomainClassSet(SolutionDescriptor)},
+     * their bytecode is part of the hash, so a changed domain class doesn't reuse a stale {@link KieBase}
+     * @return never null, a SHA-256 hex string, which also covers the Drools version
+     */
+    public static String hashContent(List<byte[]> drlContentList, Map<String, String> kieBaseConfigurationProperties,
+            Collection<Class<?>> domainClasses) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every JVM must support SHA-256.", e);
+        }
+        // A KieBase serialized by one Drools version can't be read by another
+        updateWithLength(digest, String.valueOf(determineDroolsVersion()).getBytes(StandardCharsets.UTF_8));
+        for (byte[] drlContent : drlContentList) {
+            updateWithLength(digest, drlContent);
+        }
+        if (kieBaseConfigurationProperties != null) {
+            // Sorted, so the order of the properties doesn't matter
+            for (Map.Entry<String, String> entry : new TreeMap<>(kieBaseConfigurationProperties).entrySet()) {
+                updateWithLength(digest, entry.getKey().getBytes(StandardCharsets.UTF_8));
+                updateWithLength(digest, String.valueOf(entry.getValue()).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        Class<?>[] sortedDomainClasses = domainClasses.toArray(new Class<?>[0]);
+        Arrays.sort(sortedDomainClasses, Comparator.comparing(Class::getName));
+        for (Class<?> domainClass : sortedDomainClasses) {
+            updateWithLength(digest, domainClass.getName().getBytes(StandardCharsets.UTF_8));
+            updateWithLength(digest, readBytecode(domainClass));
+        }
+        StringBuilder hexBuilder = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hexBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hexBuilder.toString();
+    }
+
+    /**
+     * @return sometimes null, for example when Drools isn't loaded from a jar
+     */
+    protected static String determineDroolsVersion() {
+        return DroolsStreamUtils.class.getPackage().getImplementationVersion();
+    }
+
+    private static byte[] readBytecode(Class<?> domainClass) {
+        String resourceName = "/" + domainClass.getName().replace('.', '/') + ".class";
+        try (InputStream in = domainClass.getResourceAsStream(resourceName)) {
+            // A generated class has no class file, so only its name is hashed
+            return in == null ? new byte[0] : IOUtils.toByteArray(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("The domain class (" + domainClass
+                    + ")'s bytecode could not be read.", e);
+        }
+    }
+
+    private static void updateWithLength(MessageDigest digest, byte[] bytes) {
+        // The length prefix separates consecutive contents, so "ab" + "c" differs from "a" + "bc"
+        int length = bytes.length;
+        digest.update(new byte[] {(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+        digest.update(bytes);
+    }
+
+    /**
+     * Writes a {@link KieBase} with the content hash it was built from,
+     * so {@link #readSerializedKieBase(File, String, ClassLoader)} can detect a stale file.
+     * The {@link KieBase} is written to a temporary file first, which then atomically replaces the file,
+     * so another JVM never reads a partially written file.
+     * @param kieBase never null
+     * @param contentHash never null, see {@link #hashContent(List, Map, Collection)}
+     * @param serializedKieBaseFile never null
+     * @throws IOException if the file can't be written
+     */
+    public static void writeSerializedKieBase(KieBase kieBase, String contentHash, File serializedKieBaseFile)
+            throws IOException {
+        File parentFile = serializedKieBaseFile.getAbsoluteFile().getParentFile();
+        if (parentFile != null && !parentFile.exists() && !parentFile.mkdirs()) {
+            throw new IOException("The serializedKieBaseFile (" + serializedKieBaseFile
+                    + ")'s directory could not be created.");
+        }
+        // In the same directory, so the move is a rename on the same file system
+        File temporaryFile = File.createTempFile(serializedKieBaseFile.getName() + "-", ".tmp", parentFile);
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temporaryFile));
+                    DataOutputStream dataOut = new DataOutputStream(out)) {
+                dataOut.writeUTF(contentHash);
+                dataOut.flush();
+                DroolsStreamUtils.streamOut(out, kieBase);
+            }
+            try {
+                Files.move(temporaryFile.toPath(), serializedKieBaseFile.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), serializedKieBaseFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            // Only exists if the write or the move failed
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * @param serializedKieBaseFile never null
+     * @param contentHash never null, see {@link #hashContent(List, Map, Collection)}
+     * @param classLoader never null, the {@link ClassLoader} to resolve the domain classes with
+     * @return null if the file doesn't exist or if it was built from different content
+     * @throws IOException if the file can't be read
+     */
+    public static KieBase readSerializedKieBase(File serializedKieBaseFile, String contentHash,
+            ClassLoader classLoader) throws IOException {
+        if (!serializedKieBaseFile.exists()) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(serializedKieBaseFile));
+                DataInputStream dataIn = new DataInputStream(in)) {
+            String fileContentHash = dataIn.readUTF();
+            if (!Objects.equals(fileContentHash, contentHash)) {
+                return null;
+            }
+            return (KieBase) DroolsStreamUtils.streamIn(in, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("The serializedKieBaseFile (" + serializedKieBaseFile
+                    + ") refers to a class that the classLoader (" + classLoader + ") cannot load.", e);
+        }
+    }
+
+}
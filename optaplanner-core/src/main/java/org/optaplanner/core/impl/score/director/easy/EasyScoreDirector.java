@@ -25,6 +25,7 @@ import org.optaplanner.core.api.score.constraint.ConstraintMatch;
 import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
 import org.optaplanner.core.api.score.constraint.Indictment;
 import org.optaplanner.core.impl.score.director.AbstractScoreDirector;
+import org.optaplanner.core.impl.score.director.MoveLocalScoreCalculator;
 import org.optaplanner.core.impl.score.director.ScoreDirector;
 
 /**
@@ -69,6 +70,11 @@ public class EasyScoreDirector<Solution_>
         return score;
     }
 
+    @Override
+    public boolean supportsMoveScoreDeltaCache() {
+        return easyScoreCalculator instanceof MoveLocalScoreCalculator;
+    }
+
     /**
      * Always false, {@link ConstraintMatchTotal}s are not supported by this {@link ScoreDirector} implementation.
      * @return false
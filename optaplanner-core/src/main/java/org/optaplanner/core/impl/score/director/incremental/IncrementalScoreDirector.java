@@ -25,9 +25,11 @@ import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.api.score.constraint.ConstraintMatch;
 import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
 import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaplanner.core.api.score.holder.ScoreAccumulator;
 import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
 import org.optaplanner.core.impl.domain.variable.descriptor.VariableDescriptor;
 import org.optaplanner.core.impl.score.director.AbstractScoreDirector;
+import org.optaplanner.core.impl.score.director.MoveLocalScoreCalculator;
 import org.optaplanner.core.impl.score.director.ScoreDirector;
 
 /**
@@ -83,6 +85,29 @@ public class IncrementalScoreDirector<Solution_>
         return score;
     }
 
+    @Override
+    public boolean supportsScoreAccumulator() {
+        return scoreDirectorFactory.isScoreAccumulatorEnabled()
+                && incrementalScoreCalculator instanceof ScoreAccumulator;
+    }
+
+    @Override
+    public boolean supportsMoveScoreDeltaCache() {
+        return incrementalScoreCalculator instanceof MoveLocalScoreCalculator;
+    }
+
+    /**
+     * Unlike {@link #calculateScore()}, this does not call {@link IncrementalScoreCalculator#calculateScore()}:
+     * the {@link ScoreAccumulator} must already be up to date after the after*() notifications.
+     * @return never null
+     */
+    @Override
+    protected ScoreAccumulator calculateScoreAccumulator() {
+        variableListenerSupport.assertNotificationQueuesAreEmpty();
+        calculationCount++;
+        return (ScoreAccumulator) incrementalScoreCalculator;
+    }
+
     @Override
     public boolean isConstraintMatchEnabled() {
         return constraintMatchEnabledPreference
@@ -16,15 +16,21 @@
 
 package org.optaplanner.core.impl.solver;
 
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDistanceMatrix;
+import org.optaplanner.core.impl.islandsearch.IslandSearchPhase;
 import org.optaplanner.core.impl.partitionedsearch.PartitionedSearchPhase;
 
 public enum ChildThreadType {
     /**
-     * Used by {@link PartitionedSearchPhase}.
+     * Used by {@link PartitionedSearchPhase} and {@link IslandSearchPhase}.
      */
     PART_THREAD,
     /**
      * Used by multithreaded incremental solving.
      */
-    MOVE_THREAD;
+    MOVE_THREAD,
+    /**
+     * Used by {@link NearbyDistanceMatrix} to calculate the nearest destinations of the origins in parallel.
+     */
+    NEARBY_DISTANCE_MATRIX_THREAD;
 }
@@ -17,7 +17,6 @@
 package org.optaplanner.core.impl.solver;
 
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
@@ -94,13 +93,17 @@ public class DefaultSolver<Solution_> extends AbstractSolver<Solution_> {
         return solverScope;
     }
 
+    public BasicPlumbingTermination getBasicPlumbingTermination() {
+        return basicPlumbingTermination;
+    }
+
     // ************************************************************************
     // Complex getters
     // ************************************************************************
 
     @Override
     public Solution_ getBestSolution() {
-        return solverScope.getBestSolution();
+        return bestSolutionRecaller.getBestSolution(solverScope);
     }
 
     @Override
@@ -242,21 +245,33 @@ public class DefaultSolver<Solution_> extends AbstractSolver<Solution_> {
         if (!restartSolver) {
             return false;
         } else {
-            BlockingQueue<ProblemFactChange> problemFactChangeQueue
-                    = basicPlumbingTermination.startProblemFactChangesProcessing();
+            basicPlumbingTermination.startProblemFactChangesProcessing();
             solverScope.setWorkingSolutionFromBestSolution();
+            boolean batching = basicPlumbingTermination.isProblemFactChangeBatchingEnabled();
             Score score = null;
             int stepIndex = 0;
-            ProblemFactChange<Solution_> problemFactChange = problemFactChangeQueue.poll();
+            ProblemFactChange<Solution_> problemFactChange = basicPlumbingTermination.pollProblemFactChange();
             while (problemFactChange != null) {
-                score = doProblemFactChange(problemFactChange, stepIndex);
+                if (batching) {
+                    problemFactChange.doChange(solverScope.getScoreDirector());
+                } else {
+                    score = doProblemFactChange(problemFactChange, stepIndex);
+                }
                 stepIndex++;
-                problemFactChange = problemFactChangeQueue.poll();
+                problemFactChange = basicPlumbingTermination.pollProblemFactChange();
+            }
+            if (batching) {
+                // Calculate the score once for the entire batch
+                solverScope.getScoreDirector().triggerVariableListeners();
+                score = solverScope.calculateScore();
             }
             basicPlumbingTermination.endProblemFactChangesProcessing();
             bestSolutionRecaller.updateBestSolution(solverScope);
-            logger.info("Real-time problem fact changes done: step total ({}), new best score ({}).",
-                    stepIndex, score);
+            logger.info("Real-time problem fact changes done: step total ({}), new best score ({}),"
+                            + " merged total ({}), average queue latency ({}).",
+                    stepIndex, score,
+                    basicPlumbingTermination.getProblemFactChangeMergeCount(),
+                    basicPlumbingTermination.getAverageProblemFactChangeLatencyMillis());
             return true;
         }
     }
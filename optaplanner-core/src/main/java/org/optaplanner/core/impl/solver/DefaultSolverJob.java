@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverJob;
+import org.optaplanner.core.api.solver.SolverStatus;
+import org.optaplanner.core.impl.phase.event.PhaseLifecycleListenerAdapter;
+import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ * @param <ProblemId_> the ID type of a submitted problem, such as {@link Long} or {@link java.util.UUID}
+ * @see DefaultSolverManager
+ */
+public class DefaultSolverJob<Solution_, ProblemId_> implements SolverJob<Solution_, ProblemId_> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultSolverJob.class);
+
+    protected final DefaultSolverManager<Solution_, ProblemId_> solverManager;
+    protected final ProblemId_ problemId;
+    protected final Solution_ problem;
+    protected final int priority;
+    protected final long submissionSequence;
+    protected final Consumer<? super Solution_> bestSolutionConsumer;
+
+    protected final CompletableFuture<Solution_> finalBestSolutionFuture = new CompletableFuture<>();
+    protected volatile SolverStatus solverStatus = SolverStatus.SOLVING_SCHEDULED;
+    protected volatile boolean terminatedEarly = false;
+    // Guarded by this
+    protected Solver<Solution_> solver = null;
+
+    public DefaultSolverJob(DefaultSolverManager<Solution_, ProblemId_> solverManager,
+            ProblemId_ problemId, Solution_ problem, int priority, long submissionSequence,
+            Consumer<? super Solution_> bestSolutionConsumer) {
+        this.solverManager = solverManager;
+        this.problemId = problemId;
+        this.problem = problem;
+        this.priority = priority;
+        this.submissionSequence = submissionSequence;
+        this.bestSolutionConsumer = bestSolutionConsumer;
+    }
+
+    @Override
+    public ProblemId_ getProblemId() {
+        return problemId;
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    public long getSubmissionSequence() {
+        return submissionSequence;
+    }
+
+    @Override
+    public SolverStatus getSolverStatus() {
+        return solverStatus;
+    }
+
+    protected void setSolverStatus(SolverStatus solverStatus) {
+        this.solverStatus = solverStatus;
+    }
+
+    @Override
+    public boolean isTerminatedEarly() {
+        return terminatedEarly;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    /**
+     * Runs on a thread of the {@link DefaultSolverManager}'s executor.
+     */
+    protected void solve() {
+        Solution_ finalBestSolution = null;
+        Throwable solvingThrowable = null;
+        try {
+            AbstractSolver<Solution_> newSolver = (AbstractSolver<Solution_>) solverManager.buildSolver();
+            if (bestSolutionConsumer != null) {
+                newSolver.addEventListener(event -> {
+                    if (event.isEveryProblemFactChangeProcessed()) {
+                        bestSolutionConsumer.accept(event.getNewBestSolution());
+                    }
+                });
+            }
+            newSolver.addPhaseLifecycleListener(new PhaseLifecycleListenerAdapter<Solution_>() {
+                @Override
+                public void solvingStarted(DefaultSolverScope<Solution_> solverScope) {
+                    // Solver.solve() resets an earlier Solver.terminateEarly() call, so repeat it
+                    if (terminatedEarly) {
+                        newSolver.terminateEarly();
+                    }
+                }
+            });
+            synchronized (this) {
+                solver = newSolver;
+            }
+            finalBestSolution = newSolver.solve(problem);
+        } catch (Throwable throwable) {
+            // Any Exception or even Error must be propagated to the client that waits for the final best solution
+            logger.error("Solving failed for problemId ({}).", problemId, throwable);
+            solvingThrowable = throwable;
+        }
+        solverStatus = SolverStatus.NOT_SOLVING;
+        // Release the threads before completing the future, so a client that waits for it sees the next job start
+        solverManager.solverJobEnded(this);
+        if (solvingThrowable == null) {
+            finalBestSolutionFuture.complete(finalBestSolution);
+        } else {
+            finalBestSolutionFuture.completeExceptionally(solvingThrowable);
+        }
+    }
+
+    /**
+     * Only for a job that never started.
+     */
+    protected void cancel() {
+        solverStatus = SolverStatus.NOT_SOLVING;
+        finalBestSolutionFuture.cancel(false);
+    }
+
+    @Override
+    public void terminateEarly() {
+        terminatedEarly = true;
+        if (solverManager.cancelScheduledJob(this)) {
+            return;
+        }
+        synchronized (this) {
+            if (solver != null) {
+                solver.terminateEarly();
+            }
+        }
+    }
+
+    @Override
+    public Solution_ getFinalBestSolution() throws InterruptedException, ExecutionException {
+        return finalBestSolutionFuture.get();
+    }
+
+    @Override
+    public CompletableFuture<Solution_> getFinalBestSolutionFuture() {
+        // A dependent future, so the client can't complete the job's future
+        return finalBestSolutionFuture.thenApply(Function.identity());
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + problemId + ")";
+    }
+
+}
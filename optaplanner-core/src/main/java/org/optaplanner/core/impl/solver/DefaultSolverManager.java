@@ -0,0 +1,238 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.api.solver.SolverJob;
+import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.api.solver.SolverStatus;
+import org.optaplanner.core.config.SolverConfigContext;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.SolverManagerConfig;
+import org.optaplanner.core.config.util.ConfigUtils;
+import org.optaplanner.core.impl.solver.thread.DefaultSolverThreadFactory;
+import org.optaplanner.core.impl.solver.thread.SharedChildThreadExecutor;
+import org.optaplanner.core.impl.solver.thread.ThreadUtils;
+
+/**
+ * Default implementation of {@link SolverManager}.
+ * <p>
+ * Every solver thread, move thread and part thread runs on 1 shared {@link ThreadPoolExecutor}
+ * with at most threadBudget threads.
+ * Those threads block until their phase or solver ends (so queueing them could deadlock), therefore a solver job
+ * only starts if its runnable threads (see {@link SolverConfig#determineRunnableThreadCount()}) fit in the
+ * thread budget, and its child threads are limited to that reservation (see {@link SharedChildThreadExecutor}).
+ * A solver that needs more child threads fails, instead of exceeding the thread budget.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ * @param <ProblemId_> the ID type of a submitted problem, such as {@link Long} or {@link java.util.UUID}
+ */
+public class DefaultSolverManager<Solution_, ProblemId_> implements SolverManager<Solution_, ProblemId_> {
+
+    protected final SolverConfig solverConfig;
+    protected final SolverConfigContext solverConfigContext;
+    protected final int threadBudget;
+    protected final int jobThreadCount;
+    protected final ThreadPoolExecutor executor;
+
+    protected final Object lock = new Object();
+    // The fields below are guarded by the lock
+    protected final PriorityQueue<DefaultSolverJob<Solution_, ProblemId_>> scheduledJobQueue;
+    protected final Map<ProblemId_, DefaultSolverJob<Solution_, ProblemId_>> problemIdToSolverJobMap;
+    protected int reservedThreadCount = 0;
+    protected long submissionSequence = 0L;
+    protected boolean closed = false;
+
+    public DefaultSolverManager(SolverFactory<Solution_> solverFactory, SolverManagerConfig solverManagerConfig) {
+        if (!(solverFactory instanceof AbstractSolverFactory)) {
+            throw new IllegalArgumentException("The solverFactory (" + solverFactory
+                    + ") must be an instance of " + AbstractSolverFactory.class.getSimpleName() + ".");
+        }
+        AbstractSolverFactory<Solution_> abstractSolverFactory = (AbstractSolverFactory<Solution_>) solverFactory;
+        // Copy the solverConfig, so changing the solverFactory's config doesn't affect the scheduled jobs
+        solverConfig = new SolverConfig(abstractSolverFactory.getSolverConfig());
+        solverConfigContext = abstractSolverFactory.getSolverConfigContext();
+        threadBudget = solverManagerConfig.resolveThreadBudget();
+        int runnableThreadCount = solverConfig.determineRunnableThreadCount();
+        if (runnableThreadCount > threadBudget) {
+            throw new IllegalArgumentException("The runnableThreadCount ("
+                    + (runnableThreadCount == Integer.MAX_VALUE ? "unlimited" : runnableThreadCount)
+                    + ") of a solver is higher than the threadBudget (" + threadBudget + ").\n"
+                    + "Maybe increase the threadBudget, decrease the moveThreadCount"
+                    + " or limit the runnablePartThreadLimit.");
+        }
+        jobThreadCount = runnableThreadCount;
+        Class<? extends ThreadFactory> threadFactoryClass = solverManagerConfig.getThreadFactoryClass();
+        ThreadFactory threadFactory = threadFactoryClass != null
+                ? ConfigUtils.newInstance(solverManagerConfig, "threadFactoryClass", threadFactoryClass)
+                : new DefaultSolverThreadFactory();
+        // The queue only holds a task until the thread of a task that just ended is idle again:
+        // the admission control never lets more than threadBudget tasks be queued or running
+        executor = new ThreadPoolExecutor(threadBudget, threadBudget, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threadBudget), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        scheduledJobQueue = new PriorityQueue<>((a, b) -> {
+            if (a.getPriority() != b.getPriority()) {
+                return a.getPriority() > b.getPriority() ? -1 : 1;
+            }
+            return Long.compare(a.getSubmissionSequence(), b.getSubmissionSequence());
+        });
+        problemIdToSolverJobMap = new HashMap<>();
+    }
+
+    @Override
+    public int getThreadBudget() {
+        return threadBudget;
+    }
+
+    /**
+     * @return {@code 1 <= jobThreadCount <= threadBudget}, the number of threads reserved for each active job
+     */
+    public int getJobThreadCount() {
+        return jobThreadCount;
+    }
+
+    // ************************************************************************
+    // Worker methods
+    // ************************************************************************
+
+    @Override
+    public SolverJob<Solution_, ProblemId_> solveAndListen(ProblemId_ problemId, Solution_ problem, int priority,
+            Consumer<? super Solution_> bestSolutionConsumer) {
+        if (problemId == null) {
+            throw new IllegalArgumentException("The problemId (" + problemId + ") must not be null.");
+        }
+        if (problem == null) {
+            throw new IllegalArgumentException("The problem (" + problem + ") of problemId (" + problemId
+                    + ") must not be null.");
+        }
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("The solverManager is closed,"
+                        + " so it cannot solve the problemId (" + problemId + ").");
+            }
+            DefaultSolverJob<Solution_, ProblemId_> existingSolverJob = problemIdToSolverJobMap.get(problemId);
+            if (existingSolverJob != null) {
+                throw new IllegalStateException("The problemId (" + problemId
+                        + ") is already submitted and has solverStatus (" + existingSolverJob.getSolverStatus()
+                        + ").\nMaybe wait for that solver job to end, or terminate it early first.");
+            }
+            DefaultSolverJob<Solution_, ProblemId_> solverJob = new DefaultSolverJob<>(this,
+                    problemId, problem, priority, submissionSequence++, bestSolutionConsumer);
+            problemIdToSolverJobMap.put(problemId, solverJob);
+            scheduledJobQueue.add(solverJob);
+            startScheduledJobs();
+            return solverJob;
+        }
+    }
+
+    /**
+     * Must be called while holding the lock.
+     */
+    private void startScheduledJobs() {
+        // Strictly in priority order: a job never overtakes a higher priority job that doesn't fit yet
+        while (!scheduledJobQueue.isEmpty() && reservedThreadCount + jobThreadCount <= threadBudget) {
+            DefaultSolverJob<Solution_, ProblemId_> solverJob = scheduledJobQueue.poll();
+            reservedThreadCount += jobThreadCount;
+            solverJob.setSolverStatus(SolverStatus.SOLVING_ACTIVE);
+            executor.execute(solverJob::solve);
+        }
+    }
+
+    protected Solver<Solution_> buildSolver() {
+        // The solver thread itself is part of the jobThreadCount
+        return solverConfig.buildSolver(solverConfigContext,
+                new SharedChildThreadExecutor(executor, jobThreadCount - 1));
+    }
+
+    protected boolean cancelScheduledJob(DefaultSolverJob<Solution_, ProblemId_> solverJob) {
+        synchronized (lock) {
+            if (!scheduledJobQueue.remove(solverJob)) {
+                return false;
+            }
+            problemIdToSolverJobMap.remove(solverJob.getProblemId(), solverJob);
+        }
+        solverJob.cancel();
+        return true;
+    }
+
+    protected void solverJobEnded(DefaultSolverJob<Solution_, ProblemId_> solverJob) {
+        synchronized (lock) {
+            reservedThreadCount -= jobThreadCount;
+            problemIdToSolverJobMap.remove(solverJob.getProblemId(), solverJob);
+            if (!closed) {
+                startScheduledJobs();
+            }
+        }
+    }
+
+    @Override
+    public SolverStatus getSolverStatus(ProblemId_ problemId) {
+        synchronized (lock) {
+            DefaultSolverJob<Solution_, ProblemId_> solverJob = problemIdToSolverJobMap.get(problemId);
+            return solverJob == null ? SolverStatus.NOT_SOLVING : solverJob.getSolverStatus();
+        }
+    }
+
+    @Override
+    public void terminateEarly(ProblemId_ problemId) {
+        DefaultSolverJob<Solution_, ProblemId_> solverJob;
+        synchronized (lock) {
+            solverJob = problemIdToSolverJobMap.get(problemId);
+        }
+        if (solverJob != null) {
+            solverJob.terminateEarly();
+        }
+    }
+
+    @Override
+    public void close() {
+        List<DefaultSolverJob<Solution_, ProblemId_>> scheduledJobList;
+        List<DefaultSolverJob<Solution_, ProblemId_>> activeJobList = new ArrayList<>();
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            scheduledJobList = new ArrayList<>(scheduledJobQueue);
+            scheduledJobQueue.clear();
+            for (DefaultSolverJob<Solution_, ProblemId_> solverJob : scheduledJobList) {
+                problemIdToSolverJobMap.remove(solverJob.getProblemId(), solverJob);
+            }
+            activeJobList.addAll(problemIdToSolverJobMap.values());
+        }
+        for (DefaultSolverJob<Solution_, ProblemId_> solverJob : scheduledJobList) {
+            solverJob.cancel();
+        }
+        for (DefaultSolverJob<Solution_, ProblemId_> solverJob : activeJobList) {
+            solverJob.terminateEarly();
+        }
+        ThreadUtils.shutdownAwaitOrKill(executor, "", "Solver manager");
+    }
+
+}
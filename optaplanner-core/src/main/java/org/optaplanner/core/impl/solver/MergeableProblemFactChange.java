@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver;
+
+import org.optaplanner.core.api.solver.Solver;
+
+/**
+ * A {@link ProblemFactChange} that can be merged with a later {@link ProblemFactChange} with the same merge key,
+ * if that later change is added to the {@link Solver} directly after it (before it's processed).
+ * For example, 2 consecutive updates of the capacity of the same computer can be replaced by the last one.
+ * <p>
+ * Merging avoids applying (and notifying the score director about) intermediate states
+ * that are overwritten anyway.
+ * @param <Solution_> the solution type, the class with the {@link org.optaplanner.core.api.domain.solution.PlanningSolution} annotation
+ */
+public interface MergeableProblemFactChange<Solution_> extends ProblemFactChange<Solution_> {
+
+    /**
+     * Consecutive changes are only merged if their merge keys are {@link Object#equals(Object) equal}.
+     * @return null if this change must never be merged
+     */
+    Object getMergeKey();
+
+    /**
+     * Called while the {@link Solver} is solving, by the thread that adds the later change,
+     * so it must not touch the working solution.
+     * @param laterChange never null, has the same {@link #getMergeKey()}, added after this change
+     * @return never null, the change that does the same as doing this change followed by the later change
+     */
+    ProblemFactChange<Solution_> merge(MergeableProblemFactChange<Solution_> laterChange);
+
+}
@@ -17,6 +17,7 @@
 package org.optaplanner.core.impl.solver.event;
 
 import java.util.Iterator;
+import java.util.function.Supplier;
 
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.score.Score;
@@ -50,4 +51,24 @@ public class SolverEventSupport<Solution_> extends AbstractEventSupport<SolverEv
         }
     }
 
+    /**
+     * Like {@link #fireBestSolutionChanged(DefaultSolverScope, Object)},
+     * but the new best solution is only planning cloned if a listener asks for it.
+     * @param solverScope never null
+     * @param newBestSolutionSupplier never null
+     */
+    public void fireBestSolutionChanged(DefaultSolverScope<Solution_> solverScope,
+            Supplier<Solution_> newBestSolutionSupplier) {
+        final Iterator<SolverEventListener<Solution_>> it = eventListenerSet.iterator();
+        long timeMillisSpent = solverScope.getBestSolutionTimeMillisSpent();
+        Score bestScore = solverScope.getBestScore();
+        if (it.hasNext()) {
+            final BestSolutionChangedEvent<Solution_> event = new BestSolutionChangedEvent<>(solver,
+                    timeMillisSpent, newBestSolutionSupplier, bestScore);
+            do {
+                it.next().bestSolutionChanged(event);
+            } while (it.hasNext());
+        }
+    }
+
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver.recaller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.config.solver.recaller.BestSolutionSnapshotMode;
+import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+
+/**
+ * Remembers the genuine planning variable values of the {@link PlanningSolution best solution}
+ * in the working solution's entities, instead of planning cloning the working solution.
+ * <p>
+ * Every genuine variable of every working entity has a slot in flat arrays:
+ * recording a new best solution only writes the slots of which the value changed
+ * and creating the planning clone is delayed until it's actually needed.
+ * @param <Solution_> the solution type, the class with the {@link PlanningSolution} annotation
+ * @see BestSolutionSnapshotMode#VARIABLE_JOURNAL
+ */
+public class BestSolutionJournal<Solution_> {
+
+    protected Solution_ workingSolution = null;
+    protected int entityCount = -1;
+
+    protected Object[] slotEntities;
+    protected GenuineVariableDescriptor<Solution_>[] slotVariableDescriptors;
+    protected Object[] slotValues;
+
+    /**
+     * Records every genuine variable value of the working solution, regardless of what was recorded before.
+     * @param scoreDirector never null
+     */
+    public void reset(InnerScoreDirector<Solution_> scoreDirector) {
+        SolutionDescriptor<Solution_> solutionDescriptor = scoreDirector.getSolutionDescriptor();
+        workingSolution = scoreDirector.getWorkingSolution();
+        List<Object> entityList = solutionDescriptor.getEntityList(workingSolution);
+        entityCount = entityList.size();
+        List<Object> slotEntityList = new ArrayList<>(entityCount);
+        List<GenuineVariableDescriptor<Solution_>> slotVariableDescriptorList = new ArrayList<>(entityCount);
+        for (Object entity : entityList) {
+            EntityDescriptor<Solution_> entityDescriptor = solutionDescriptor.findEntityDescriptorOrFail(
+                    entity.getClass());
+            for (GenuineVariableDescriptor<Solution_> variableDescriptor
+                    : entityDescriptor.getGenuineVariableDescriptorList()) {
+                slotEntityList.add(entity);
+                slotVariableDescriptorList.add(variableDescriptor);
+            }
+        }
+        int slotCount = slotEntityList.size();
+        slotEntities = slotEntityList.toArray();
+        slotVariableDescriptors = slotVariableDescriptorList.toArray(new GenuineVariableDescriptor[slotCount]);
+        slotValues = new Object[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slotValues[i] = slotVariableDescriptors[i].getValue(slotEntities[i]);
+        }
+    }
+
+    /**
+     * Records the genuine variable values of the working solution that changed since the last recording.
+     * Falls back to {@link #reset(InnerScoreDirector)} if the working solution or its entities were replaced.
+     * @param scoreDirector never null
+     * @return {@code >= 0}, the number of genuine variable values that changed
+     */
+    public int record(InnerScoreDirector<Solution_> scoreDirector) {
+        if (workingSolution != scoreDirector.getWorkingSolution()
+                || entityCount != scoreDirector.getWorkingEntityCount()) {
+            reset(scoreDirector);
+            return slotValues.length;
+        }
+        int changedCount = 0;
+        for (int i = 0; i < slotValues.length; i++) {
+            Object value = slotVariableDescriptors[i].getValue(slotEntities[i]);
+            if (value != slotValues[i]) {
+                slotValues[i] = value;
+                changedCount++;
+            }
+        }
+        return changedCount;
+    }
+
+    /**
+     * Planning clones the recorded best solution.
+     * <p>
+     * If the working solution has changed since the last recording,
+     * it temporarily reverts those changes through the {@link InnerScoreDirector}
+     * (so the shadow variables of the clone are correct too) and then redoes them again.
+     * The {@link org.optaplanner.core.api.score.Score} of the clone must be set by the caller.
+     * @param scoreDirector never null
+     * @return never null
+     */
+    public Solution_ cloneRecordedSolution(InnerScoreDirector<Solution_> scoreDirector) {
+        if (workingSolution != scoreDirector.getWorkingSolution()) {
+            throw new IllegalStateException("Impossible state: the workingSolution (" + scoreDirector.getWorkingSolution()
+                    + ") is not the recorded workingSolution (" + workingSolution + ").");
+        }
+        if (!swapWorkingValues(scoreDirector)) {
+            return scoreDirector.cloneWorkingSolution();
+        }
+        try {
+            return scoreDirector.cloneWorkingSolution();
+        } finally {
+            swapWorkingValues(scoreDirector);
+        }
+    }
+
+    /**
+     * Exchanges every working value that differs from its recorded value.
+     * Calling it twice restores both the working solution and the recorded values.
+     * @param scoreDirector never null
+     * @return true if at least one value differed
+     */
+    private boolean swapWorkingValues(InnerScoreDirector<Solution_> scoreDirector) {
+        boolean changed = false;
+        for (int i = 0; i < slotValues.length; i++) {
+            GenuineVariableDescriptor<Solution_> variableDescriptor = slotVariableDescriptors[i];
+            Object entity = slotEntities[i];
+            Object workingValue = variableDescriptor.getValue(entity);
+            Object recordedValue = slotValues[i];
+            if (workingValue != recordedValue) {
+                scoreDirector.changeVariableFacade(variableDescriptor, entity, recordedValue);
+                slotValues[i] = workingValue;
+                changed = true;
+            }
+        }
+        if (changed) {
+            scoreDirector.triggerVariableListeners();
+        }
+        return changed;
+    }
+
+}
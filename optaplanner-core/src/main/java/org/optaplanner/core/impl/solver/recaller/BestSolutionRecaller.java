@@ -19,6 +19,8 @@ package org.optaplanner.core.impl.solver.recaller;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+import org.optaplanner.core.config.solver.recaller.BestSolutionSnapshotMode;
 import org.optaplanner.core.impl.phase.event.PhaseLifecycleListenerAdapter;
 import org.optaplanner.core.impl.phase.scope.AbstractPhaseScope;
 import org.optaplanner.core.impl.phase.scope.AbstractStepScope;
@@ -40,8 +42,25 @@ public class BestSolutionRecaller<Solution_> extends PhaseLifecycleListenerAdapt
     protected boolean assertShadowVariablesAreNotStale = false;
     protected boolean assertBestScoreIsUnmodified = false;
 
+    protected BestSolutionJournal<Solution_> bestSolutionJournal = null;
+
     protected SolverEventSupport<Solution_> solverEventSupport;
 
+    protected final Object bestSolutionLock = new Object();
+    protected volatile Thread solverThread = null;
+    /**
+     * True if {@link DefaultSolverScope#getBestSolution()} is older than {@link DefaultSolverScope#getBestScore()}
+     * because the new best solution has only been recorded in the {@link #bestSolutionJournal}.
+     */
+    protected volatile boolean bestSolutionStale = false;
+    protected volatile boolean bestSolutionRequested = false;
+    /**
+     * Incremented for every new best solution, so a {@link BestSolutionChangedEvent} can detect
+     * that the {@link #bestSolutionJournal} no longer holds the best solution it was fired for.
+     * Guarded by {@link #bestSolutionLock}.
+     */
+    protected long bestSolutionVersion = 0L;
+
     public void setAssertInitialScoreFromScratch(boolean assertInitialScoreFromScratch) {
         this.assertInitialScoreFromScratch = assertInitialScoreFromScratch;
     }
@@ -54,6 +73,13 @@ public class BestSolutionRecaller<Solution_> extends PhaseLifecycleListenerAdapt
         this.assertBestScoreIsUnmodified = assertBestScoreIsUnmodified;
     }
 
+    /**
+     * @param bestSolutionJournal null if every new best solution should be planning cloned immediately
+     */
+    public void setBestSolutionJournal(BestSolutionJournal<Solution_> bestSolutionJournal) {
+        this.bestSolutionJournal = bestSolutionJournal;
+    }
+
     public void setSolverEventSupport(SolverEventSupport<Solution_> solverEventSupport) {
         this.solverEventSupport = solverEventSupport;
     }
@@ -82,6 +108,10 @@ public class BestSolutionRecaller<Solution_> extends PhaseLifecycleListenerAdapt
         if (assertShadowVariablesAreNotStale) {
             scoreDirector.assertShadowVariablesAreNotStale(score, "Initial score calculated");
         }
+        if (bestSolutionJournal != null) {
+            bestSolutionJournal.reset(scoreDirector);
+            solverThread = Thread.currentThread();
+        }
     }
 
     public void processWorkingSolutionDuringStep(AbstractStepScope<Solution_> stepScope) {
@@ -92,8 +122,12 @@ public class BestSolutionRecaller<Solution_> extends PhaseLifecycleListenerAdapt
         stepScope.setBestScoreImproved(bestScoreImproved);
         if (bestScoreImproved) {
             phaseScope.setBestSolutionStepIndex(stepScope.getStepIndex());
-            Solution_ newBestSolution = stepScope.createOrGetClonedSolution();
-            updateBestSolution(solverScope, score, newBestSolution);
+            if (bestSolutionJournal != null && stepScope.getClonedSolution() == null) {
+                recordBestSolution(solverScope, score);
+            } else {
+                Solution_ newBestSolution = stepScope.createOrGetClonedSolution();
+                updateBestSolution(solverScope, score, newBestSolution);
+            }
         } else if (assertBestScoreIsUnmodified) {
             solverScope.assertScoreFromScratch(solverScope.getBestSolution());
         }
@@ -110,8 +144,12 @@ public class BestSolutionRecaller<Solution_> extends PhaseLifecycleListenerAdapt
         }
         if (bestScoreImproved) {
             phaseScope.setBestSolutionStepIndex(stepScope.getStepIndex());
-            Solution_ newBestSolution = solverScope.getScoreDirector().cloneWorkingSolution();
-            updateBestSolution(solverScope, score, newBestSolution);
+            if (bestSolutionJournal != null) {
+                recordBestSolution(solverScope, score);
+            } else {
+                Solution_ newBestSolution = solverScope.getScoreDirector().cloneWorkingSolution();
+                updateBestSolution(solverScope, score, newBestSolution);
+            }
         } else if (assertBestScoreIsUnmodified) {
             solverScope.assertScoreFromScratch(solverScope.getBestSolution());
         }
@@ -125,15 +163,158 @@ public class BestSolutionRecaller<Solution_> extends PhaseLifecycleListenerAdapt
 
     protected void updateBestSolution(DefaultSolverScope<Solution_> solverScope, Score bestScore,
             Solution_ bestSolution) {
-        if (bestScore.isSolutionInitialized()) {
-            if (!solverScope.isBestSolutionInitialized()) {
-                solverScope.setStartingInitializedScore(bestScore);
+        updateStartingInitializedScore(solverScope, bestScore);
+        if (bestSolutionJournal != null) {
+            // The bestSolution is a clone of the working solution
+            bestSolutionJournal.record(solverScope.getScoreDirector());
+            synchronized (bestSolutionLock) {
+                bestSolutionVersion++;
+                solverScope.setBestSolution(bestSolution);
+                markBestSolutionUpToDate();
             }
+        } else {
+            solverScope.setBestSolution(bestSolution);
         }
-        solverScope.setBestSolution(bestSolution);
         solverScope.setBestScore(bestScore);
         solverScope.setBestSolutionTimeMillis(System.currentTimeMillis());
         solverEventSupport.fireBestSolutionChanged(solverScope, bestSolution);
     }
 
+    /**
+     * Like {@link #updateBestSolution(DefaultSolverScope, Score, Object)},
+     * but only records the changed planning variables instead of planning cloning the working solution.
+     * @param solverScope never null
+     * @param bestScore never null
+     */
+    protected void recordBestSolution(DefaultSolverScope<Solution_> solverScope, Score bestScore) {
+        updateStartingInitializedScore(solverScope, bestScore);
+        bestSolutionJournal.record(solverScope.getScoreDirector());
+        long recordedBestSolutionVersion;
+        synchronized (bestSolutionLock) {
+            recordedBestSolutionVersion = ++bestSolutionVersion;
+            bestSolutionStale = true;
+        }
+        solverScope.setBestScore(bestScore);
+        solverScope.setBestSolutionTimeMillis(System.currentTimeMillis());
+        solverEventSupport.fireBestSolutionChanged(solverScope,
+                () -> getRecordedBestSolution(solverScope, recordedBestSolutionVersion));
+    }
+
+    /**
+     * Only returns the best solution of that version, never a later one, and never waits for the solver thread.
+     * @param solverScope never null
+     * @param recordedBestSolutionVersion the {@link #bestSolutionVersion} of the event
+     * @return never null
+     * @throws IllegalStateException if that best solution hasn't been planning cloned
+     * and the {@link #bestSolutionJournal} no longer holds it or can't be cloned in this thread
+     */
+    protected Solution_ getRecordedBestSolution(DefaultSolverScope<Solution_> solverScope,
+            long recordedBestSolutionVersion) {
+        if (Thread.currentThread() == solverThread && bestSolutionStale
+                && recordedBestSolutionVersion == bestSolutionVersion) {
+            materializeBestSolution(solverScope);
+        }
+        synchronized (bestSolutionLock) {
+            if (recordedBestSolutionVersion == bestSolutionVersion && !bestSolutionStale) {
+                return solverScope.getBestSolution();
+            }
+        }
+        throw new IllegalStateException("The newBestSolution of this " + BestSolutionChangedEvent.class.getSimpleName()
+                + " is not available in the thread (" + Thread.currentThread().getName() + "),"
+                + " because the bestSolutionSnapshotMode (" + BestSolutionSnapshotMode.VARIABLE_JOURNAL
+                + ") only planning clones it on the solver thread, before that finds the next best solution.\n"
+                + "Maybe call getNewBestSolution() during bestSolutionChanged()"
+                + " or use the bestSolutionSnapshotMode (" + BestSolutionSnapshotMode.FULL_CLONE + ").");
+    }
+
+    private void updateStartingInitializedScore(DefaultSolverScope<Solution_> solverScope, Score bestScore) {
+        if (bestScore.isSolutionInitialized()) {
+            if (!solverScope.isBestSolutionInitialized()) {
+                solverScope.setStartingInitializedScore(bestScore);
+            }
+        }
+    }
+
+    /**
+     * Thread-safe.
+     * <p>
+     * If the best solution has only been recorded in the {@link BestSolutionJournal},
+     * it planning clones it first. If called by another thread than the solver thread,
+     * that waits until the solver thread has finished its current step.
+     * @param solverScope never null
+     * @return sometimes null, if solving hasn't started yet
+     * @see BestSolutionChangedEvent#getNewBestSolution()
+     */
+    public Solution_ getBestSolution(DefaultSolverScope<Solution_> solverScope) {
+        if (!bestSolutionStale) {
+            return solverScope.getBestSolution();
+        }
+        if (Thread.currentThread() == solverThread) {
+            materializeBestSolution(solverScope);
+            return solverScope.getBestSolution();
+        }
+        synchronized (bestSolutionLock) {
+            bestSolutionRequested = true;
+            while (bestSolutionStale && solverThread != null) {
+                try {
+                    bestSolutionLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("The thread (" + Thread.currentThread().getName()
+                            + ") was interrupted while waiting for the solver thread to clone the best solution.", e);
+                }
+            }
+        }
+        return solverScope.getBestSolution();
+    }
+
+    @Override
+    public void stepEnded(AbstractStepScope<Solution_> stepScope) {
+        super.stepEnded(stepScope);
+        if (bestSolutionRequested && bestSolutionStale) {
+            materializeBestSolution(stepScope.getPhaseScope().getSolverScope());
+        }
+    }
+
+    @Override
+    public void phaseEnded(AbstractPhaseScope<Solution_> phaseScope) {
+        super.phaseEnded(phaseScope);
+        // Don't let a journaled best solution outlive its phase:
+        // the next phase, such as a custom phase, might change the working solution without moves
+        if (bestSolutionStale) {
+            materializeBestSolution(phaseScope.getSolverScope());
+        }
+    }
+
+    @Override
+    public void solvingEnded(DefaultSolverScope<Solution_> solverScope) {
+        super.solvingEnded(solverScope);
+        if (bestSolutionJournal != null) {
+            if (bestSolutionStale) {
+                materializeBestSolution(solverScope);
+            }
+            synchronized (bestSolutionLock) {
+                solverThread = null;
+                bestSolutionLock.notifyAll();
+            }
+        }
+    }
+
+    protected void materializeBestSolution(DefaultSolverScope<Solution_> solverScope) {
+        Solution_ bestSolution = bestSolutionJournal.cloneRecordedSolution(solverScope.getScoreDirector());
+        solverScope.getSolutionDescriptor().setScore(bestSolution, solverScope.getBestScore());
+        synchronized (bestSolutionLock) {
+            solverScope.setBestSolution(bestSolution);
+            markBestSolutionUpToDate();
+        }
+    }
+
+    private void markBestSolutionUpToDate() {
+        synchronized (bestSolutionLock) {
+            bestSolutionStale = false;
+            bestSolutionRequested = false;
+            bestSolutionLock.notifyAll();
+        }
+    }
+
 }
@@ -16,31 +16,80 @@
 
 package org.optaplanner.core.impl.solver.termination;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import org.optaplanner.core.impl.phase.scope.AbstractPhaseScope;
 import org.optaplanner.core.impl.solver.ChildThreadType;
+import org.optaplanner.core.impl.solver.MergeableProblemFactChange;
 import org.optaplanner.core.impl.solver.ProblemFactChange;
 import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
 
 /**
  * Concurrency notes:
  * Condition predicate on ({@link #problemFactChangeQueue} is not empty or {@link #terminatedEarly} is true).
+ * <p>
+ * If problem fact change batching is enabled,
+ * pending {@link ProblemFactChange}s only terminate the solver (to restart it)
+ * once the minimumIntervalMillis has passed since the last batch or once the maximumBatchSize is reached,
+ * so more changes are processed per restart.
  */
 public class BasicPlumbingTermination extends AbstractTermination {
 
     protected final boolean daemon;
+    protected final boolean problemFactChangeBatchingEnabled;
+    protected final long minimumIntervalMillis;
+    protected final int maximumBatchSize;
 
     protected boolean terminatedEarly = false;
-    protected BlockingQueue<ProblemFactChange> problemFactChangeQueue = new LinkedBlockingQueue<>();
+    protected final Deque<QueuedProblemFactChange> problemFactChangeQueue = new ArrayDeque<>();
 
     protected boolean problemFactChangesBeingProcessed = false;
+    protected int batchProcessedCount = 0;
+    protected long lastBatchEndedTimeMillis = 0L;
+
+    // Statistics
+    protected long problemFactChangeMergeCount = 0L;
+    protected long processedProblemFactChangeCount = 0L;
+    protected long problemFactChangeBatchCount = 0L;
+    protected long problemFactChangeLatencyMillisTotal = 0L;
+    protected long problemFactChangeLatencyMillisMaximum = 0L;
 
     public BasicPlumbingTermination(boolean daemon) {
         this.daemon = daemon;
+        problemFactChangeBatchingEnabled = false;
+        minimumIntervalMillis = 0L;
+        maximumBatchSize = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Enables problem fact change batching.
+     * @param daemon see {@link org.optaplanner.core.config.solver.SolverConfig#getDaemon()}
+     * @param minimumIntervalMillis {@code >= 0}
+     * @param maximumBatchSize {@code >= 1}
+     */
+    public BasicPlumbingTermination(boolean daemon, long minimumIntervalMillis, int maximumBatchSize) {
+        this.daemon = daemon;
+        problemFactChangeBatchingEnabled = true;
+        if (minimumIntervalMillis < 0L) {
+            throw new IllegalArgumentException("The minimumIntervalMillis (" + minimumIntervalMillis
+                    + ") cannot be negative.");
+        }
+        this.minimumIntervalMillis = minimumIntervalMillis;
+        if (maximumBatchSize < 1) {
+            throw new IllegalArgumentException("The maximumBatchSize (" + maximumBatchSize
+                    + ") cannot be negative or zero.");
+        }
+        this.maximumBatchSize = maximumBatchSize;
+    }
+
+    /**
+     * @return true if a batch of {@link ProblemFactChange}s is applied with a single score calculation
+     */
+    public boolean isProblemFactChangeBatchingEnabled() {
+        return problemFactChangeBatchingEnabled;
     }
 
     // ************************************************************************
@@ -78,33 +127,57 @@ public class BasicPlumbingTermination extends AbstractTermination {
      * If this returns true, then the problemFactChangeQueue is definitely not empty.
      * <p>
      * Concurrency note: Blocks until {@link #problemFactChangeQueue} is not empty or {@link #terminatedEarly} is true.
+     * If problem fact change batching is enabled, it also blocks until the minimumIntervalMillis has passed
+     * or the maximumBatchSize is reached.
      * @return true if the solver needs to be restarted
      */
     public synchronized boolean waitForRestartSolverDecision() {
         if (!daemon) {
             return !problemFactChangeQueue.isEmpty() && !terminatedEarly;
         } else {
-            while (problemFactChangeQueue.isEmpty() && !terminatedEarly) {
-                try {
-                    wait();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new IllegalStateException("Solver thread was interrupted during Object.wait().", e);
+            while (!terminatedEarly) {
+                if (problemFactChangeQueue.isEmpty()) {
+                    doWait(0L);
+                } else {
+                    long remainingMillis = calculateBatchRemainingMillis();
+                    if (remainingMillis <= 0L) {
+                        break;
+                    }
+                    doWait(remainingMillis);
                 }
             }
             return !terminatedEarly;
         }
     }
 
+    private void doWait(long timeoutMillis) {
+        try {
+            wait(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Solver thread was interrupted during Object.wait().", e);
+        }
+    }
+
+    /**
+     * @return {@code <= 0} if the pending problem fact changes must be processed now
+     */
+    private long calculateBatchRemainingMillis() {
+        if (!problemFactChangeBatchingEnabled || problemFactChangeQueue.size() >= maximumBatchSize) {
+            return 0L;
+        }
+        return lastBatchEndedTimeMillis + minimumIntervalMillis - System.currentTimeMillis();
+    }
+
     /**
      * Concurrency note: unblocks {@link #waitForRestartSolverDecision()}.
      * @param problemFactChange never null
      * @return as specified by {@link Collection#add}
      */
     public synchronized <Solution_> boolean addProblemFactChange(ProblemFactChange<Solution_> problemFactChange) {
-        boolean added = problemFactChangeQueue.add(problemFactChange);
+        enqueueProblemFactChange(problemFactChange, System.currentTimeMillis());
         notifyAll();
-        return added;
+        return true;
     }
 
     /**
@@ -113,24 +186,115 @@ public class BasicPlumbingTermination extends AbstractTermination {
      * @return as specified by {@link Collection#add}
      */
     public synchronized <Solution_> boolean addProblemFactChanges(List<ProblemFactChange<Solution_>> problemFactChangeList) {
-        boolean added = problemFactChangeQueue.addAll(problemFactChangeList);
+        long addedTimeMillis = System.currentTimeMillis();
+        for (ProblemFactChange<Solution_> problemFactChange : problemFactChangeList) {
+            enqueueProblemFactChange(problemFactChange, addedTimeMillis);
+        }
         notifyAll();
-        return added;
+        return !problemFactChangeList.isEmpty();
     }
 
-    public synchronized BlockingQueue<ProblemFactChange> startProblemFactChangesProcessing() {
+    private void enqueueProblemFactChange(ProblemFactChange problemFactChange, long addedTimeMillis) {
+        QueuedProblemFactChange last = problemFactChangeQueue.peekLast();
+        if (last != null && last.problemFactChange instanceof MergeableProblemFactChange
+                && problemFactChange instanceof MergeableProblemFactChange) {
+            MergeableProblemFactChange lastChange = (MergeableProblemFactChange) last.problemFactChange;
+            MergeableProblemFactChange newChange = (MergeableProblemFactChange) problemFactChange;
+            Object mergeKey = lastChange.getMergeKey();
+            if (mergeKey != null && mergeKey.equals(newChange.getMergeKey())) {
+                ProblemFactChange mergedChange = lastChange.merge(newChange);
+                if (mergedChange == null) {
+                    throw new IllegalStateException("The problemFactChange (" + lastChange
+                            + ")'s merge() method returned null for the later problemFactChange (" + newChange
+                            + ") with the same mergeKey (" + mergeKey + ").");
+                }
+                // Keep the added time of the oldest change, because that's the latency the client experiences
+                last.problemFactChange = mergedChange;
+                problemFactChangeMergeCount++;
+                return;
+            }
+        }
+        problemFactChangeQueue.addLast(new QueuedProblemFactChange(problemFactChange, addedTimeMillis));
+    }
+
+    public synchronized void startProblemFactChangesProcessing() {
         problemFactChangesBeingProcessed = true;
-        return problemFactChangeQueue;
+        batchProcessedCount = 0;
+    }
+
+    /**
+     * Only called between {@link #startProblemFactChangesProcessing()}
+     * and {@link #endProblemFactChangesProcessing()}.
+     * @return null if the queue is empty or the maximumBatchSize is reached
+     */
+    public synchronized ProblemFactChange pollProblemFactChange() {
+        if (batchProcessedCount >= maximumBatchSize) {
+            return null;
+        }
+        QueuedProblemFactChange queued = problemFactChangeQueue.pollFirst();
+        if (queued == null) {
+            return null;
+        }
+        batchProcessedCount++;
+        long latencyMillis = System.currentTimeMillis() - queued.addedTimeMillis;
+        processedProblemFactChangeCount++;
+        problemFactChangeLatencyMillisTotal += latencyMillis;
+        problemFactChangeLatencyMillisMaximum = Math.max(problemFactChangeLatencyMillisMaximum, latencyMillis);
+        return queued.problemFactChange;
     }
 
     public synchronized void endProblemFactChangesProcessing() {
         problemFactChangesBeingProcessed = false;
+        problemFactChangeBatchCount++;
+        lastBatchEndedTimeMillis = System.currentTimeMillis();
     }
 
     public synchronized boolean isEveryProblemFactChangeProcessed() {
         return problemFactChangeQueue.isEmpty() && !problemFactChangesBeingProcessed;
     }
 
+    // ************************************************************************
+    // Statistics
+    // ************************************************************************
+
+    /**
+     * @return {@code >= 0}, the number of {@link MergeableProblemFactChange}s merged into an earlier change
+     */
+    public synchronized long getProblemFactChangeMergeCount() {
+        return problemFactChangeMergeCount;
+    }
+
+    /**
+     * @return {@code >= 0}, the number of (possibly merged) {@link ProblemFactChange}s taken from the queue
+     */
+    public synchronized long getProcessedProblemFactChangeCount() {
+        return processedProblemFactChangeCount;
+    }
+
+    /**
+     * @return {@code >= 0}, the number of times the solver restarted to process problem fact changes
+     */
+    public synchronized long getProblemFactChangeBatchCount() {
+        return problemFactChangeBatchCount;
+    }
+
+    /**
+     * The queue latency is the time between adding a {@link ProblemFactChange} and taking it from the queue.
+     * @return {@code >= 0}, 0 if no {@link ProblemFactChange} has been processed yet
+     */
+    public synchronized long getAverageProblemFactChangeLatencyMillis() {
+        return processedProblemFactChangeCount == 0L ? 0L
+                : problemFactChangeLatencyMillisTotal / processedProblemFactChangeCount;
+    }
+
+    /**
+     * @return {@code >= 0}
+     * @see #getAverageProblemFactChangeLatencyMillis()
+     */
+    public synchronized long getMaximumProblemFactChangeLatencyMillis() {
+        return problemFactChangeLatencyMillisMaximum;
+    }
+
     // ************************************************************************
     // Termination worker methods
     // ************************************************************************
@@ -147,7 +311,8 @@ public class BasicPlumbingTermination extends AbstractTermination {
             logger.info("The solver thread got interrupted, so this solver is terminating early.");
             terminatedEarly = true;
         }
-        return terminatedEarly || !problemFactChangeQueue.isEmpty();
+        return terminatedEarly
+                || (!problemFactChangeQueue.isEmpty() && calculateBatchRemainingMillis() <= 0L);
     }
 
     @Override
@@ -183,4 +348,16 @@ public class BasicPlumbingTermination extends AbstractTermination {
         return "BasicPlumbing()";
     }
 
+    protected static class QueuedProblemFactChange {
+
+        protected ProblemFactChange problemFactChange;
+        protected final long addedTimeMillis;
+
+        public QueuedProblemFactChange(ProblemFactChange problemFactChange, long addedTimeMillis) {
+            this.problemFactChange = problemFactChange;
+            this.addedTimeMillis = addedTimeMillis;
+        }
+
+    }
+
 }
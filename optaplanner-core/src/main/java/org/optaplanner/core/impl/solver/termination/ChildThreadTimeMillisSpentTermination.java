@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver.termination;
+
+import org.optaplanner.core.impl.phase.scope.AbstractPhaseScope;
+import org.optaplanner.core.impl.solver.ChildThreadType;
+import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
+
+/**
+ * Terminates a child thread solver (such as a partition solver) after it has been solving for a time limit,
+ * measured from its own {@link #solvingStarted(DefaultSolverScope)},
+ * unlike {@link TimeMillisSpentTermination} which measures from the start of the parent solver.
+ * <p>
+ * It doesn't contribute to the time gradient, so the time gradient remains relative to the parent solver.
+ */
+public class ChildThreadTimeMillisSpentTermination extends AbstractTermination {
+
+    private final long timeMillisSpentLimit;
+
+    private volatile long startingSystemTimeMillis = -1L;
+
+    public ChildThreadTimeMillisSpentTermination(long timeMillisSpentLimit) {
+        this.timeMillisSpentLimit = timeMillisSpentLimit;
+        if (timeMillisSpentLimit < 0L) {
+            throw new IllegalArgumentException("The timeMillisSpentLimit (" + timeMillisSpentLimit
+                    + ") cannot be negative.");
+        }
+    }
+
+    public long getTimeMillisSpentLimit() {
+        return timeMillisSpentLimit;
+    }
+
+    // ************************************************************************
+    // Lifecycle methods
+    // ************************************************************************
+
+    @Override
+    public void solvingStarted(DefaultSolverScope solverScope) {
+        startingSystemTimeMillis = System.currentTimeMillis();
+    }
+
+    // ************************************************************************
+    // Terminated methods
+    // ************************************************************************
+
+    @Override
+    public boolean isSolverTerminated(DefaultSolverScope solverScope) {
+        if (startingSystemTimeMillis < 0L) {
+            // Solving hasn't started yet
+            return false;
+        }
+        return System.currentTimeMillis() - startingSystemTimeMillis >= timeMillisSpentLimit;
+    }
+
+    @Override
+    public boolean isPhaseTerminated(AbstractPhaseScope phaseScope) {
+        throw new IllegalStateException(ChildThreadTimeMillisSpentTermination.class.getSimpleName()
+                + " configured only as solver termination."
+                + " It is always bridged to phase termination.");
+    }
+
+    // ************************************************************************
+    // Time gradient methods
+    // ************************************************************************
+
+    @Override
+    public double calculateSolverTimeGradient(DefaultSolverScope solverScope) {
+        return -1.0; // Not supported
+    }
+
+    @Override
+    public double calculatePhaseTimeGradient(AbstractPhaseScope phaseScope) {
+        throw new IllegalStateException(ChildThreadTimeMillisSpentTermination.class.getSimpleName()
+                + " configured only as solver termination."
+                + " It is always bridged to phase termination.");
+    }
+
+    // ************************************************************************
+    // Other methods
+    // ************************************************************************
+
+    @Override
+    public Termination createChildThreadTermination(DefaultSolverScope solverScope, ChildThreadType childThreadType) {
+        return new ChildThreadTimeMillisSpentTermination(timeMillisSpentLimit);
+    }
+
+    @Override
+    public String toString() {
+        return "ChildThreadTimeMillisSpent(" + timeMillisSpentLimit + ")";
+    }
+
+}
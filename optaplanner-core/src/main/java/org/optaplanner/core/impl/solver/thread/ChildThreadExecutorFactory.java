@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver.thread;
+
+import java.util.concurrent.ExecutorService;
+
+import org.optaplanner.core.impl.solver.ChildThreadType;
+
+/**
+ * Builds the {@link ExecutorService} that runs the child threads (see {@link ChildThreadType})
+ * of a single phase, such as the move threads or the part threads.
+ * <p>
+ * The caller is responsible for shutting down the returned {@link ExecutorService},
+ * usually through {@link ThreadUtils#shutdownAwaitOrKill(ExecutorService, String, String)}.
+ */
+public interface ChildThreadExecutorFactory {
+
+    /**
+     * @param threadCount {@code >= 1}, the number of tasks that will be submitted,
+     * each of them blocks a thread until the phase ends
+     * @return never null, runs every submitted task on its own thread concurrently
+     */
+    ExecutorService buildExecutor(int threadCount);
+
+}
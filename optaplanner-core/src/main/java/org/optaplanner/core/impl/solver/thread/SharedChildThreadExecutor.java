@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver.thread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A view on a shared {@link ExecutorService}, used by 1 phase of 1 solver.
+ * <p>
+ * Shutting down this view doesn't shut down the shared {@link ExecutorService}:
+ * {@link #shutdown()} only rejects new tasks
+ * and {@link #shutdownNow()} only interrupts the tasks submitted through this view.
+ * {@link #awaitTermination(long, TimeUnit)} waits until those tasks are done,
+ * after which their threads are reused by the shared {@link ExecutorService}.
+ * <p>
+ * A view can limit the number of tasks that are queued or running,
+ * together with its {@link #createChildView() child views}.
+ * Beyond that threadLimit, {@link #execute(Runnable)} throws a {@link RejectedExecutionException},
+ * regardless of how busy the shared {@link ExecutorService} is:
+ * the child threads block until their phase ends, so they can't wait for each other.
+ */
+public class SharedChildThreadExecutor extends AbstractExecutorService {
+
+    protected final ExecutorService sharedExecutor;
+    protected final int threadLimit;
+    /**
+     * Shared with the child views, null if the threadLimit is unlimited.
+     */
+    protected final Semaphore threadPermits;
+
+    protected final Set<ChildTask> childTaskSet = ConcurrentHashMap.newKeySet();
+    protected volatile boolean shutdown = false;
+
+    public SharedChildThreadExecutor(ExecutorService sharedExecutor) {
+        this(sharedExecutor, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * @param sharedExecutor never null
+     * @param threadLimit {@code >= 0}, the maximum number of tasks that this view and its child views
+     * have queued or running at the same time
+     */
+    public SharedChildThreadExecutor(ExecutorService sharedExecutor, int threadLimit) {
+        this(sharedExecutor, threadLimit, new Semaphore(threadLimit));
+        if (threadLimit < 0) {
+            throw new IllegalArgumentException("The threadLimit (" + threadLimit + ") cannot be negative.");
+        }
+    }
+
+    protected SharedChildThreadExecutor(ExecutorService sharedExecutor, int threadLimit, Semaphore threadPermits) {
+        this.sharedExecutor = sharedExecutor;
+        this.threadLimit = threadLimit;
+        this.threadPermits = threadPermits;
+    }
+
+    /**
+     * @return never null, a new view on the same shared {@link ExecutorService}, that shares the threadLimit
+     */
+    public SharedChildThreadExecutor createChildView() {
+        return new SharedChildThreadExecutor(sharedExecutor, threadLimit, threadPermits);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("The executor is shut down.");
+        }
+        if (threadPermits != null && !threadPermits.tryAcquire()) {
+            throw new RejectedExecutionException("The solver needs more child threads than its threadLimit ("
+                    + threadLimit + ").\n"
+                    + "Maybe increase the threadBudget, decrease the moveThreadCount or the runnablePartThreadLimit,"
+                    + " or set a partMillisecondsSpentLimit, so the parts take turns on the runnable part threads.");
+        }
+        ChildTask childTask = new ChildTask(command);
+        childTaskSet.add(childTask);
+        try {
+            sharedExecutor.execute(childTask);
+        } catch (RejectedExecutionException e) {
+            childTaskSet.remove(childTask);
+            releaseThreadPermit();
+            throw e;
+        }
+    }
+
+    private void releaseThreadPermit() {
+        if (threadPermits != null) {
+            threadPermits.release();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> neverStartedList = new ArrayList<>();
+        for (ChildTask childTask : new ArrayList<>(childTaskSet)) {
+            if (!childTask.started && childTask.cancel(false)) {
+                neverStartedList.add(childTask.command);
+            } else {
+                childTask.cancel(true);
+            }
+        }
+        return neverStartedList;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && childTaskSet.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (childTaskSet) {
+            while (!isTerminated()) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0L) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(childTaskSet, remainingNanos);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return {@code >= 0}, the number of tasks that are queued or running
+     */
+    public int getChildTaskCount() {
+        return childTaskSet.size();
+    }
+
+    protected class ChildTask extends FutureTask<Void> {
+
+        private final Runnable command;
+        private volatile boolean started = false;
+
+        public ChildTask(Runnable command) {
+            super(command, null);
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            started = true;
+            try {
+                super.run();
+            } finally {
+                // Not in done(), because a cancelled task can still be running until it notices the interrupt
+                // Release before the removal, so the next phase can reuse the permit once awaitTermination() returns
+                releaseThreadPermit();
+                childTaskSet.remove(this);
+                synchronized (childTaskSet) {
+                    childTaskSet.notifyAll();
+                }
+            }
+        }
+
+    }
+
+}
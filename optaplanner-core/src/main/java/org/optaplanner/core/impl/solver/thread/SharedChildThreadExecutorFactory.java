@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver.thread;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs the child threads on an {@link ExecutorService} that is shared with other solvers,
+ * such as the one of a {@link org.optaplanner.core.api.solver.SolverManager}.
+ * @see SharedChildThreadExecutor
+ */
+public class SharedChildThreadExecutorFactory implements ChildThreadExecutorFactory {
+
+    protected final ExecutorService sharedExecutor;
+
+    /**
+     * @param sharedExecutor never null, must not queue tasks for longer than it takes a thread to become idle,
+     * because every task blocks its thread until the phase ends.
+     * If it is a {@link SharedChildThreadExecutor}, its threadLimit applies to every executor built by this factory.
+     */
+    public SharedChildThreadExecutorFactory(ExecutorService sharedExecutor) {
+        this.sharedExecutor = sharedExecutor;
+    }
+
+    @Override
+    public ExecutorService buildExecutor(int threadCount) {
+        if (sharedExecutor instanceof SharedChildThreadExecutor) {
+            return ((SharedChildThreadExecutor) sharedExecutor).createChildView();
+        }
+        return new SharedChildThreadExecutor(sharedExecutor);
+    }
+
+}
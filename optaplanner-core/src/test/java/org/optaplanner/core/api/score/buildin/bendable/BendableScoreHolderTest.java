@@ -35,6 +35,17 @@ public class BendableScoreHolderTest extends AbstractScoreHolderTest {
         addConstraintMatch(false);
     }
 
+    @Test
+    public void compareToScore() {
+        BendableScoreHolder scoreHolder = new BendableScoreHolder(false, 1, 2);
+        scoreHolder.addHardConstraintMatch(mockRuleContext("hard1"), 0, -1);
+        scoreHolder.addSoftConstraintMatch(mockRuleContext("soft1"), 1, -30);
+        assertEquals(0, scoreHolder.compareToScore(0, BendableScore.of(new int[]{-1}, new int[]{0, -30})));
+        assertTrue(scoreHolder.compareToScore(0, BendableScore.of(new int[]{-1}, new int[]{-1, -30})) > 0);
+        assertTrue(scoreHolder.compareToScore(0, BendableScore.of(new int[]{0}, new int[]{-5, -50})) < 0);
+        assertTrue(scoreHolder.compareToScore(-2, BendableScore.of(new int[]{-1}, new int[]{0, -30})) < 0);
+    }
+
     public void addConstraintMatch(boolean constraintMatchEnabled) {
         BendableScoreHolder scoreHolder = new BendableScoreHolder(constraintMatchEnabled, 1, 2);
 
@@ -35,6 +35,17 @@ public class HardSoftScoreHolderTest extends AbstractScoreHolderTest {
         addConstraintMatch(false);
     }
 
+    @Test
+    public void compareToScore() {
+        HardSoftScoreHolder scoreHolder = new HardSoftScoreHolder(false);
+        scoreHolder.addMultiConstraintMatch(mockRuleContext("multi1"), -10, -200);
+        assertEquals(0, scoreHolder.compareToScore(0, HardSoftScore.of(-10, -200)));
+        assertTrue(scoreHolder.compareToScore(0, HardSoftScore.of(-10, -199)) < 0);
+        assertTrue(scoreHolder.compareToScore(0, HardSoftScore.of(-11, 0)) > 0);
+        assertTrue(scoreHolder.compareToScore(-1, HardSoftScore.of(-10, -200)) < 0);
+        assertTrue(scoreHolder.compareToScore(0, HardSoftScore.ofUninitialized(-1, 0, 0)) > 0);
+    }
+
     public void addConstraintMatch(boolean constraintMatchEnabled) {
         HardSoftScoreHolder scoreHolder = new HardSoftScoreHolder(constraintMatchEnabled);
 
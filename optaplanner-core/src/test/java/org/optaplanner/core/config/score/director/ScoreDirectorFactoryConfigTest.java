@@ -16,9 +16,13 @@
 
 package org.optaplanner.core.config.score.director;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
 import org.optaplanner.core.config.SolverConfigContext;
 import org.optaplanner.core.config.score.definition.ScoreDefinitionType;
@@ -26,6 +30,8 @@ import org.optaplanner.core.config.solver.EnvironmentMode;
 import org.optaplanner.core.impl.score.buildin.bendable.BendableScoreDefinition;
 import org.optaplanner.core.impl.score.buildin.simple.SimpleScoreDefinition;
 import org.optaplanner.core.impl.score.definition.ScoreDefinition;
+import org.optaplanner.core.impl.score.director.drools.KieBaseCache;
+import org.optaplanner.core.impl.score.director.drools.LegacyDroolsScoreDirectorFactory;
 import org.optaplanner.core.impl.score.director.easy.EasyScoreCalculator;
 import org.optaplanner.core.impl.score.director.easy.EasyScoreDirector;
 import org.optaplanner.core.impl.score.director.incremental.IncrementalScoreCalculator;
@@ -34,12 +40,18 @@ import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.optaplanner.core.impl.testdata.util.PlannerAssert.*;
 
 public class ScoreDirectorFactoryConfigTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void buildSimpleScoreDefinition() {
         ScoreDirectorFactoryConfig config = new ScoreDirectorFactoryConfig();
@@ -193,4 +205,56 @@ public class ScoreDirectorFactoryConfigTest {
         assertNull(config.isGenerateDroolsTestOnError());
     }
 
+    @Test
+    public void kieBaseCacheEnabled() {
+        KieBaseCache.getInstance().clear();
+        try {
+            LegacyDroolsScoreDirectorFactory<TestdataSolution> scoreDirectorFactory1
+                    = buildKieBaseCacheScoreDirectorFactory();
+            LegacyDroolsScoreDirectorFactory<TestdataSolution> scoreDirectorFactory2
+                    = buildKieBaseCacheScoreDirectorFactory();
+            assertNotSame(scoreDirectorFactory1, scoreDirectorFactory2);
+            assertSame(scoreDirectorFactory1.getKieBase(), scoreDirectorFactory2.getKieBase());
+        } finally {
+            KieBaseCache.getInstance().clear();
+        }
+    }
+
+    private LegacyDroolsScoreDirectorFactory<TestdataSolution> buildKieBaseCacheScoreDirectorFactory() {
+        ScoreDirectorFactoryConfig config = new ScoreDirectorFactoryConfig()
+                .withScoreDrls("org/optaplanner/core/api/solver/testdataScoreRules.drl")
+                .withKieBaseCacheEnabled(true);
+        return (LegacyDroolsScoreDirectorFactory<TestdataSolution>) config.buildScoreDirectorFactory(
+                new SolverConfigContext(), EnvironmentMode.REPRODUCIBLE, TestdataSolution.buildSolutionDescriptor());
+    }
+
+    @Test
+    public void serializedKieBaseFile() throws IOException {
+        File serializedKieBaseFile = new File(temporaryFolder.getRoot(), "testdataScoreRules.kiebase");
+        ScoreDirectorFactoryConfig config = new ScoreDirectorFactoryConfig()
+                .withScoreDrls("org/optaplanner/core/api/solver/testdataScoreRules.drl")
+                .withSerializedKieBaseFile(serializedKieBaseFile);
+        config.buildScoreDirectorFactory(new SolverConfigContext(), EnvironmentMode.REPRODUCIBLE,
+                TestdataSolution.buildSolutionDescriptor());
+        assertTrue(serializedKieBaseFile.exists());
+        // The temporary file has been renamed to the serializedKieBaseFile
+        assertArrayEquals(new File[] {serializedKieBaseFile}, temporaryFolder.getRoot().listFiles());
+        long lastModified = serializedKieBaseFile.lastModified();
+        // Read instead of compiled, so the file is not written again
+        LegacyDroolsScoreDirectorFactory<TestdataSolution> scoreDirectorFactory
+                = (LegacyDroolsScoreDirectorFactory<TestdataSolution>) config.buildScoreDirectorFactory(
+                new SolverConfigContext(), EnvironmentMode.REPRODUCIBLE, TestdataSolution.buildSolutionDescriptor());
+        assertNotNull(scoreDirectorFactory.getKieBase());
+        assertEquals(lastModified, serializedKieBaseFile.lastModified());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void kieBaseCacheEnabledWithoutScoreDrl() {
+        ScoreDirectorFactoryConfig config = new ScoreDirectorFactoryConfig()
+                .withEasyScoreCalculatorClass(TestCustomPropertiesEasyScoreCalculator.class)
+                .withKieBaseCacheEnabled(true);
+        config.buildScoreDirectorFactory(new SolverConfigContext(), EnvironmentMode.REPRODUCIBLE,
+                TestdataSolution.buildSolutionDescriptor());
+    }
+
 }
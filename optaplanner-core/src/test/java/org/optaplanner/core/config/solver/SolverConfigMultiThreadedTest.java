@@ -130,6 +130,24 @@ public class SolverConfigMultiThreadedTest {
         assertTrue(solution.getScore().isSolutionInitialized());
     }
 
+    @Test
+    public void adaptiveMoveThreadsThrowsExceptionWhenReproducible() {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        SolverConfig solverConfig = solverFactory.getSolverConfig();
+        solverConfig.setMoveThreadCount("2");
+        solverConfig.setAdaptiveMoveThreadConfig(new AdaptiveMoveThreadConfig());
+        solverConfig.setEnvironmentMode(EnvironmentMode.REPRODUCIBLE);
+        try {
+            solverFactory.buildSolver();
+            fail("IllegalArgumentException should have been thrown.");
+        } catch (IllegalArgumentException expectedException) {
+            //expected
+        }
+        solverConfig.setEnvironmentMode(EnvironmentMode.NON_REPRODUCIBLE);
+        assertNotNull(solverFactory.buildSolver());
+    }
+
     @Test(timeout = 5000L)
     public void customThreadFactoryClassIsUsed() {
         SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.domain.ordinal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
+
+import static org.junit.Assert.*;
+
+public class OrdinalManagerTest {
+
+    @Test
+    public void buildOrdinalManager() {
+        SolutionDescriptor<TestdataSolution> solutionDescriptor = TestdataSolution.buildSolutionDescriptor();
+        TestdataValue v1 = new TestdataValue("v1");
+        TestdataValue v2 = new TestdataValue("v2");
+        TestdataEntity e1 = new TestdataEntity("e1", v1);
+        TestdataSolution solution = new TestdataSolution("solution");
+        solution.setValueList(Arrays.asList(v1, v2));
+        solution.setEntityList(Arrays.asList(e1));
+
+        OrdinalManager ordinalManager = solutionDescriptor.buildOrdinalManager(solution);
+        assertEquals(3, ordinalManager.getOrdinalLimit());
+        int e1Ordinal = ordinalManager.getOrdinal(e1);
+        int v1Ordinal = ordinalManager.getOrdinal(v1);
+        int v2Ordinal = ordinalManager.getOrdinal(v2);
+        assertTrue(e1Ordinal >= 0 && v1Ordinal >= 0 && v2Ordinal >= 0);
+        assertNotEquals(e1Ordinal, v1Ordinal);
+        assertNotEquals(v1Ordinal, v2Ordinal);
+        assertNotEquals(e1Ordinal, v2Ordinal);
+        assertEquals(-1, ordinalManager.getOrdinal(new TestdataValue("v1")));
+    }
+
+    @Test
+    public void addAndRemove() {
+        OrdinalManager ordinalManager = new OrdinalManager();
+        List<Object> objectList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Object object = new Object();
+            objectList.add(object);
+            assertEquals(i, ordinalManager.assignOrdinal(object));
+        }
+        assertEquals(1000, ordinalManager.getOrdinalLimit());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, ordinalManager.getOrdinal(objectList.get(i)));
+            assertEquals(i, ordinalManager.assignOrdinal(objectList.get(i)));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            ordinalManager.removeWorkingObject(objectList.get(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i, ordinalManager.getOrdinal(objectList.get(i)));
+        }
+        // A removed ordinal isn't reused
+        Object added = new Object();
+        ordinalManager.addWorkingObject(added);
+        assertEquals(1000, ordinalManager.getOrdinal(added));
+        assertEquals(1001, ordinalManager.getOrdinalLimit());
+
+        ordinalManager.resetWorkingObjects(Arrays.asList(objectList.get(1), added));
+        assertEquals(2, ordinalManager.getOrdinalLimit());
+        assertEquals(0, ordinalManager.getOrdinal(objectList.get(1)));
+        assertEquals(1, ordinalManager.getOrdinal(added));
+        assertEquals(-1, ordinalManager.getOrdinal(objectList.get(3)));
+    }
+
+}
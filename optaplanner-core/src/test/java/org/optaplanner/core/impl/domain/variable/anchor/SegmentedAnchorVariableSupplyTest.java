@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.domain.variable.anchor;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.core.impl.testdata.domain.chained.TestdataChainedAnchor;
+import org.optaplanner.core.impl.testdata.domain.chained.TestdataChainedEntity;
+import org.optaplanner.core.impl.testdata.domain.chained.TestdataChainedObject;
+import org.optaplanner.core.impl.testdata.domain.chained.TestdataChainedSolution;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SegmentedAnchorVariableSupplyTest {
+
+    @Test
+    public void chainedEntity() {
+        GenuineVariableDescriptor variableDescriptor = TestdataChainedEntity.buildVariableDescriptorForChainedObject();
+        ScoreDirector scoreDirector = mock(ScoreDirector.class);
+        SegmentedAnchorVariableSupply supply = new SegmentedAnchorVariableSupply(variableDescriptor, true);
+
+        TestdataChainedAnchor a0 = new TestdataChainedAnchor("a0");
+        TestdataChainedEntity a1 = new TestdataChainedEntity("a1", a0);
+        TestdataChainedEntity a2 = new TestdataChainedEntity("a2", a1);
+        TestdataChainedEntity a3 = new TestdataChainedEntity("a3", a2);
+
+        TestdataChainedAnchor b0 = new TestdataChainedAnchor("b0");
+        TestdataChainedEntity b1 = new TestdataChainedEntity("b1", b0);
+
+        TestdataChainedSolution solution = new TestdataChainedSolution("solution");
+        solution.setChainedAnchorList(Arrays.asList(a0, b0));
+        solution.setChainedEntityList(Arrays.asList(a3, a2, b1, a1));
+
+        when(scoreDirector.getWorkingSolution()).thenReturn(solution);
+        supply.resetWorkingSolution(scoreDirector);
+
+        assertSame(a0, supply.getAnchor(a1));
+        assertSame(a0, supply.getAnchor(a2));
+        assertSame(a0, supply.getAnchor(a3));
+        assertSame(b0, supply.getAnchor(b1));
+
+        supply.beforeVariableChanged(scoreDirector, a3);
+        a3.setChainedObject(b1);
+        supply.afterVariableChanged(scoreDirector, a3);
+
+        assertSame(a0, supply.getAnchor(a1));
+        assertSame(a0, supply.getAnchor(a2));
+        assertSame(b0, supply.getAnchor(a3));
+        assertSame(b0, supply.getAnchor(b1));
+
+        supply.clearWorkingSolution(scoreDirector);
+    }
+
+    @Test
+    public void tailChainSwap() {
+        GenuineVariableDescriptor variableDescriptor = TestdataChainedEntity.buildVariableDescriptorForChainedObject();
+        ScoreDirector scoreDirector = mock(ScoreDirector.class);
+        SegmentedAnchorVariableSupply supply = new SegmentedAnchorVariableSupply(variableDescriptor, true);
+
+        TestdataChainedAnchor a0 = new TestdataChainedAnchor("a0");
+        TestdataChainedEntity[] aEntities = new TestdataChainedEntity[100];
+        TestdataChainedObject previous = a0;
+        for (int i = 0; i < aEntities.length; i++) {
+            aEntities[i] = new TestdataChainedEntity("a" + (i + 1), previous);
+            previous = aEntities[i];
+        }
+        TestdataChainedAnchor b0 = new TestdataChainedAnchor("b0");
+        TestdataChainedEntity b1 = new TestdataChainedEntity("b1", b0);
+        TestdataChainedEntity b2 = new TestdataChainedEntity("b2", b1);
+
+        TestdataChainedSolution solution = new TestdataChainedSolution("solution");
+        solution.setChainedAnchorList(Arrays.asList(a0, b0));
+        TestdataChainedEntity[] entities = Arrays.copyOf(aEntities, aEntities.length + 2);
+        entities[aEntities.length] = b1;
+        entities[aEntities.length + 1] = b2;
+        solution.setChainedEntityList(Arrays.asList(entities));
+
+        when(scoreDirector.getWorkingSolution()).thenReturn(solution);
+        supply.resetWorkingSolution(scoreDirector);
+        for (TestdataChainedEntity aEntity : aEntities) {
+            assertSame(a0, supply.getAnchor(aEntity));
+        }
+
+        // Swap the tail a51..a100 with the tail b2, the after events in a different order than the before events
+        TestdataChainedEntity a50 = aEntities[49];
+        TestdataChainedEntity a51 = aEntities[50];
+        supply.beforeVariableChanged(scoreDirector, a51);
+        a51.setChainedObject(b1);
+        supply.beforeVariableChanged(scoreDirector, b2);
+        b2.setChainedObject(a50);
+        supply.afterVariableChanged(scoreDirector, b2);
+        supply.afterVariableChanged(scoreDirector, a51);
+
+        for (int i = 0; i < 50; i++) {
+            assertSame(a0, supply.getAnchor(aEntities[i]));
+        }
+        for (int i = 50; i < aEntities.length; i++) {
+            assertSame(b0, supply.getAnchor(aEntities[i]));
+        }
+        assertSame(b0, supply.getAnchor(b1));
+        assertSame(a0, supply.getAnchor(b2));
+
+        supply.clearWorkingSolution(scoreDirector);
+    }
+
+    @Test
+    public void entityRemoved() {
+        GenuineVariableDescriptor variableDescriptor = TestdataChainedEntity.buildVariableDescriptorForChainedObject();
+        ScoreDirector scoreDirector = mock(ScoreDirector.class);
+        SegmentedAnchorVariableSupply supply = new SegmentedAnchorVariableSupply(variableDescriptor, true);
+
+        TestdataChainedAnchor a0 = new TestdataChainedAnchor("a0");
+        TestdataChainedEntity a1 = new TestdataChainedEntity("a1", a0);
+        TestdataChainedEntity a2 = new TestdataChainedEntity("a2", a1);
+        TestdataChainedEntity a3 = new TestdataChainedEntity("a3", a2);
+
+        TestdataChainedSolution solution = new TestdataChainedSolution("solution");
+        solution.setChainedAnchorList(Arrays.asList(a0));
+        solution.setChainedEntityList(Arrays.asList(a1, a2, a3));
+
+        when(scoreDirector.getWorkingSolution()).thenReturn(solution);
+        supply.resetWorkingSolution(scoreDirector);
+
+        supply.beforeVariableChanged(scoreDirector, a3);
+        a3.setChainedObject(a1);
+        supply.beforeEntityRemoved(scoreDirector, a2);
+        supply.afterVariableChanged(scoreDirector, a3);
+        supply.afterEntityRemoved(scoreDirector, a2);
+
+        assertSame(a0, supply.getAnchor(a1));
+        assertSame(a0, supply.getAnchor(a3));
+
+        supply.clearWorkingSolution(scoreDirector);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void assertAnchorWithoutNotification() {
+        GenuineVariableDescriptor variableDescriptor = TestdataChainedEntity.buildVariableDescriptorForChainedObject();
+        ScoreDirector scoreDirector = mock(ScoreDirector.class);
+        SegmentedAnchorVariableSupply supply = new SegmentedAnchorVariableSupply(variableDescriptor, true);
+
+        TestdataChainedAnchor a0 = new TestdataChainedAnchor("a0");
+        TestdataChainedEntity a1 = new TestdataChainedEntity("a1", a0);
+        TestdataChainedAnchor b0 = new TestdataChainedAnchor("b0");
+
+        TestdataChainedSolution solution = new TestdataChainedSolution("solution");
+        solution.setChainedAnchorList(Arrays.asList(a0, b0));
+        solution.setChainedEntityList(Arrays.asList(a1));
+
+        when(scoreDirector.getWorkingSolution()).thenReturn(solution);
+        supply.resetWorkingSolution(scoreDirector);
+
+        a1.setChainedObject(b0);
+        supply.getAnchor(a1);
+    }
+
+}
@@ -17,12 +17,16 @@
 package org.optaplanner.core.impl.domain.variable.custom;
 
 import java.util.Arrays;
+import java.util.Map;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
 import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
 import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.domain.variable.listener.VariableListener;
 import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
 import org.optaplanner.core.impl.testdata.domain.TestdataValue;
 import org.optaplanner.core.impl.testdata.domain.shadow.cyclic.TestdataSevenNonCyclicShadowedSolution;
 import org.optaplanner.core.impl.testdata.domain.shadow.cyclic.invalid.TestdataCyclicReferencedShadowedSolution;
@@ -35,6 +39,7 @@ import org.optaplanner.core.impl.testdata.domain.shadow.manytomany.TestdataManyT
 import org.optaplanner.core.impl.testdata.util.PlannerTestUtils;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 public class CustomVariableListenerTest {
 
@@ -102,6 +107,73 @@ public class CustomVariableListenerTest {
         assertEquals("3/firstShadow/secondShadow/thirdShadow", c.getThirdShadow());
     }
 
+    @Test
+    public void changeShadowVariableIfDifferent() {
+        GenuineVariableDescriptor variableDescriptor = TestdataExtendedShadowedParentEntity.buildVariableDescriptorForValue();
+        InnerScoreDirector scoreDirector = PlannerTestUtils.mockScoreDirector(
+                variableDescriptor.getEntityDescriptor().getSolutionDescriptor());
+
+        TestdataValue val1 = new TestdataValue("1");
+        TestdataExtendedShadowedChildEntity c = new TestdataExtendedShadowedChildEntity("c", null);
+
+        TestdataExtendedShadowedSolution solution = new TestdataExtendedShadowedSolution("solution");
+        solution.setEntityList(Arrays.asList(c));
+        solution.setValueList(Arrays.asList(val1));
+        scoreDirector.setWorkingSolution(solution);
+
+        scoreDirector.changeVariableFacade(variableDescriptor, c, val1);
+        scoreDirector.triggerVariableListeners();
+        assertEquals("1/firstShadow/secondShadow", c.getSecondShadow());
+
+        assertFalse(scoreDirector.changeShadowVariableIfDifferent(c, "firstShadow", "1/firstShadow"));
+        scoreDirector.triggerVariableListeners();
+        Map<Class<? extends VariableListener>, Long> suppressedNotificationCountMap
+                = scoreDirector.getVariableListenerSupport().getSuppressedNotificationCountMap();
+        assertEquals(1L, suppressedNotificationCountMap.get(
+                TestdataExtendedShadowedChildEntity.SecondShadowUpdatingVariableListener.class).longValue());
+        assertEquals(0L, suppressedNotificationCountMap.get(
+                TestdataExtendedShadowedParentEntity.ThirdShadowUpdatingVariableListener.class).longValue());
+
+        assertTrue(scoreDirector.changeShadowVariableIfDifferent(c, "firstShadow", "2/firstShadow"));
+        scoreDirector.triggerVariableListeners();
+        assertEquals("2/firstShadow/secondShadow", c.getSecondShadow());
+        assertEquals("2/firstShadow/secondShadow/thirdShadow", c.getThirdShadow());
+    }
+
+    @Test
+    public void changeShadowVariableIfDifferentDefaultImplementation() {
+        ScoreDirector scoreDirector = mock(ScoreDirector.class);
+        when(scoreDirector.changeShadowVariableIfDifferent(any(), anyString(), any())).thenCallRealMethod();
+        TestdataExtendedShadowedChildEntity c = new TestdataExtendedShadowedChildEntity("c", null);
+        c.setFirstShadow("1/firstShadow");
+
+        assertFalse(scoreDirector.changeShadowVariableIfDifferent(c, "firstShadow", "1/firstShadow"));
+        verify(scoreDirector, never()).beforeVariableChanged(c, "firstShadow");
+        verify(scoreDirector, never()).afterVariableChanged(c, "firstShadow");
+
+        assertTrue(scoreDirector.changeShadowVariableIfDifferent(c, "firstShadow", "2/firstShadow"));
+        assertEquals("2/firstShadow", c.getFirstShadow());
+        InOrder inOrder = inOrder(scoreDirector);
+        inOrder.verify(scoreDirector).beforeVariableChanged(c, "firstShadow");
+        inOrder.verify(scoreDirector).afterVariableChanged(c, "firstShadow");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void changeShadowVariableIfDifferentWithGenuineVariable() {
+        GenuineVariableDescriptor variableDescriptor = TestdataExtendedShadowedParentEntity.buildVariableDescriptorForValue();
+        InnerScoreDirector scoreDirector = PlannerTestUtils.mockScoreDirector(
+                variableDescriptor.getEntityDescriptor().getSolutionDescriptor());
+
+        TestdataValue val1 = new TestdataValue("1");
+        TestdataExtendedShadowedParentEntity a = new TestdataExtendedShadowedParentEntity("a", null);
+        TestdataExtendedShadowedSolution solution = new TestdataExtendedShadowedSolution("solution");
+        solution.setEntityList(Arrays.asList(a));
+        solution.setValueList(Arrays.asList(val1));
+        scoreDirector.setWorkingSolution(solution);
+
+        scoreDirector.changeShadowVariableIfDifferent(a, "value", val1);
+    }
+
     @Test
     public void manyToMany() {
         EntityDescriptor entityDescriptor = TestdataManyToManyShadowedEntity.buildEntityDescriptor();
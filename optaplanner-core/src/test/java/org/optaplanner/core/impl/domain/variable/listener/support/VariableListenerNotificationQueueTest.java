@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.domain.variable.listener.support;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.optaplanner.core.impl.domain.variable.listener.support.VariableListenerNotificationType.*;
+
+public class VariableListenerNotificationQueueTest {
+
+    @Test
+    public void addUniqueAroundThreshold() {
+        VariableListenerNotificationQueue queue = new VariableListenerNotificationQueue(true);
+        // Equal but not the same instance
+        String e1 = new String("e");
+        String e2 = new String("e");
+        assertTrue(queue.add(e1, VARIABLE_CHANGED));
+        assertFalse(queue.add(e1, VARIABLE_CHANGED));
+        assertTrue(queue.add(e2, VARIABLE_CHANGED));
+        assertTrue(queue.add(e1, ENTITY_ADDED));
+        assertEquals(3, queue.size());
+
+        int fillerCount = VariableListenerNotificationQueue.LINEAR_SCAN_THRESHOLD * 3;
+        Object[] fillers = new Object[fillerCount];
+        for (int i = 0; i < fillerCount; i++) {
+            fillers[i] = new Object();
+            assertTrue(queue.add(fillers[i], VARIABLE_CHANGED));
+        }
+        assertFalse(queue.add(e1, VARIABLE_CHANGED));
+        assertFalse(queue.add(e2, VARIABLE_CHANGED));
+        assertFalse(queue.add(e1, ENTITY_ADDED));
+        assertTrue(queue.add(e1, ENTITY_REMOVED));
+        for (int i = 0; i < fillerCount; i++) {
+            assertFalse(queue.add(fillers[i], VARIABLE_CHANGED));
+        }
+        assertEquals(fillerCount + 4, queue.size());
+
+        // Insertion order
+        assertSame(e1, queue.getEntity(0));
+        assertSame(VARIABLE_CHANGED, queue.getType(0));
+        assertSame(e2, queue.getEntity(1));
+        assertSame(e1, queue.getEntity(2));
+        assertSame(ENTITY_ADDED, queue.getType(2));
+        assertSame(fillers[0], queue.getEntity(3));
+        assertSame(e1, queue.getEntity(fillerCount + 3));
+        assertSame(ENTITY_REMOVED, queue.getType(fillerCount + 3));
+    }
+
+    @Test
+    public void clearAndReuse() {
+        VariableListenerNotificationQueue queue = new VariableListenerNotificationQueue(true);
+        Object e1 = new Object();
+        for (int i = 0; i < VariableListenerNotificationQueue.LINEAR_SCAN_THRESHOLD * 2; i++) {
+            queue.add(new Object(), VARIABLE_CHANGED);
+        }
+        queue.add(e1, VARIABLE_CHANGED);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.add(e1, VARIABLE_CHANGED));
+        assertFalse(queue.add(e1, VARIABLE_CHANGED));
+        assertEquals(1, queue.size());
+        assertSame(e1, queue.getEntity(0));
+    }
+
+    @Test
+    public void addNonUnique() {
+        VariableListenerNotificationQueue queue = new VariableListenerNotificationQueue(false);
+        Object e1 = new Object();
+        assertTrue(queue.add(e1, VARIABLE_CHANGED));
+        assertTrue(queue.add(e1, VARIABLE_CHANGED));
+        assertEquals(2, queue.size());
+    }
+
+}
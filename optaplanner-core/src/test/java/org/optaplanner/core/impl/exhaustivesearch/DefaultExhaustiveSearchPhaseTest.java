@@ -18,22 +18,27 @@ package org.optaplanner.core.impl.exhaustivesearch;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.Test;
 import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
 import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.SolverFactory;
 import org.optaplanner.core.config.exhaustivesearch.ExhaustiveSearchPhaseConfig;
+import org.optaplanner.core.config.exhaustivesearch.ExhaustiveSearchType;
 import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
 import org.optaplanner.core.impl.exhaustivesearch.decider.ExhaustiveSearchDecider;
 import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchLayer;
 import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+import org.optaplanner.core.impl.exhaustivesearch.node.SymmetryClassFactory;
 import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchPhaseScope;
 import org.optaplanner.core.impl.exhaustivesearch.scope.ExhaustiveSearchStepScope;
 import org.optaplanner.core.impl.heuristic.move.Move;
 import org.optaplanner.core.impl.heuristic.selector.entity.EntitySelector;
 import org.optaplanner.core.impl.score.director.InnerScoreDirector;
 import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.core.impl.score.director.easy.EasyScoreCalculator;
+import org.optaplanner.core.impl.solver.DefaultSolver;
 import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
 import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
 import org.optaplanner.core.impl.testdata.domain.TestdataValue;
@@ -45,6 +50,7 @@ import org.optaplanner.core.impl.testdata.util.PlannerTestUtils;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.optaplanner.core.impl.testdata.util.PlannerAssert.*;
 
@@ -92,6 +98,10 @@ public class DefaultExhaustiveSearchPhaseTest {
         node4B.setMove(mock(Move.class));
         node4B.setUndoMove(mock(Move.class));
         node4B.setScore(SimpleScore.ofUninitialized(-96, 7));
+        // The undo moves of the new path are set by restoreWorkingSolution()
+        when(node2B.getMove().doMove(scoreDirector)).thenReturn(node2B.getUndoMove());
+        when(node3B.getMove().doMove(scoreDirector)).thenReturn(node3B.getUndoMove());
+        when(node4B.getMove().doMove(scoreDirector)).thenReturn(node4B.getUndoMove());
         when(lastCompletedStepScope.getExpandingNode()).thenReturn(node3A);
         when(stepScope.getExpandingNode()).thenReturn(node4B);
 
@@ -238,4 +248,68 @@ public class DefaultExhaustiveSearchPhaseTest {
         assertEquals(-1, solution.getScore().getInitScore());
     }
 
+    @Test
+    public void solveWithTranspositionTable() {
+        DefaultSolver<TestdataSolution> solver = solveWithSymmetricScore(new ExhaustiveSearchPhaseConfig());
+        assertEquals(SimpleScore.of(0), solver.getBestScore());
+        long scoreCalculationCount = solver.getSolverScope().getScoreCalculationCount();
+
+        DefaultSolver<TestdataSolution> transpositionSolver = solveWithSymmetricScore(new ExhaustiveSearchPhaseConfig()
+                .withTranspositionTableCapacity(1000)
+                .withEntitySymmetryClassFactoryClass(SingleSymmetryClassFactory.class)
+                .withValueSymmetryClassFactoryClass(SingleSymmetryClassFactory.class));
+        assertEquals(SimpleScore.of(0), transpositionSolver.getBestScore());
+        // Equivalent nodes aren't expanded, so fewer leaves are calculated
+        long transpositionScoreCalculationCount = transpositionSolver.getSolverScope().getScoreCalculationCount();
+        assertTrue(transpositionScoreCalculationCount + " < " + scoreCalculationCount,
+                transpositionScoreCalculationCount < scoreCalculationCount);
+    }
+
+    private DefaultSolver<TestdataSolution> solveWithSymmetricScore(ExhaustiveSearchPhaseConfig phaseConfig) {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        solverFactory.getSolverConfig().getScoreDirectorFactoryConfig()
+                .setEasyScoreCalculatorClass(SharedValueEasyScoreCalculator.class);
+        phaseConfig.setExhaustiveSearchType(ExhaustiveSearchType.BRUTE_FORCE);
+        solverFactory.getSolverConfig().setPhaseConfigList(Collections.singletonList(phaseConfig));
+        DefaultSolver<TestdataSolution> solver = (DefaultSolver<TestdataSolution>) solverFactory.buildSolver();
+
+        TestdataSolution solution = new TestdataSolution("s1");
+        solution.setValueList(Arrays.asList(
+                new TestdataValue("v1"), new TestdataValue("v2"), new TestdataValue("v3")));
+        solution.setEntityList(Arrays.asList(
+                new TestdataEntity("e1"), new TestdataEntity("e2"), new TestdataEntity("e3")));
+        solver.solve(solution);
+        return solver;
+    }
+
+    public static class SharedValueEasyScoreCalculator implements EasyScoreCalculator<TestdataSolution> {
+
+        @Override
+        public SimpleScore calculateScore(TestdataSolution solution) {
+            // Symmetric: swapping 2 entities or 2 values never changes the score
+            List<TestdataEntity> entityList = solution.getEntityList();
+            int score = 0;
+            for (int i = 0; i < entityList.size(); i++) {
+                for (int j = i + 1; j < entityList.size(); j++) {
+                    TestdataValue value = entityList.get(i).getValue();
+                    if (value != null && value == entityList.get(j).getValue()) {
+                        score--;
+                    }
+                }
+            }
+            return SimpleScore.of(score);
+        }
+
+    }
+
+    public static class SingleSymmetryClassFactory implements SymmetryClassFactory<TestdataSolution, Object> {
+
+        @Override
+        public Object createSymmetryClass(TestdataSolution solution, Object selection) {
+            return "all";
+        }
+
+    }
+
 }
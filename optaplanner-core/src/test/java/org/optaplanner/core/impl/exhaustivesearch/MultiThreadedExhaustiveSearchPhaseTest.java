@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.exhaustivesearch.ExhaustiveSearchPhaseConfig;
+import org.optaplanner.core.config.exhaustivesearch.ExhaustiveSearchType;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
+import org.optaplanner.core.impl.testdata.util.PlannerTestUtils;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class MultiThreadedExhaustiveSearchPhaseTest {
+
+    @Test(timeout = 5000L)
+    public void solveDeterministic() {
+        ExhaustiveSearchPhaseConfig phaseConfig = new ExhaustiveSearchPhaseConfig()
+                .withWorkerThreadCount("2")
+                .withDeterministicWorkerThreads(true);
+        assertSolved(solve(phaseConfig, EnvironmentMode.REPRODUCIBLE, 4, 3));
+    }
+
+    @Test(timeout = 5000L)
+    public void solveNonDeterministic() {
+        ExhaustiveSearchPhaseConfig phaseConfig = new ExhaustiveSearchPhaseConfig()
+                .withWorkerThreadCount("3")
+                .withDeterministicWorkerThreads(false);
+        assertSolved(solve(phaseConfig, EnvironmentMode.REPRODUCIBLE, 4, 3));
+    }
+
+    @Test(timeout = 5000L)
+    public void solveBruteForceFullAssert() {
+        ExhaustiveSearchPhaseConfig phaseConfig = new ExhaustiveSearchPhaseConfig()
+                .withWorkerThreadCount("2");
+        phaseConfig.setExhaustiveSearchType(ExhaustiveSearchType.BRUTE_FORCE);
+        assertSolved(solve(phaseConfig, EnvironmentMode.FULL_ASSERT, 3, 2));
+    }
+
+    @Test(timeout = 5000L)
+    public void solveWithMoreWorkerThreadsThanNodes() {
+        ExhaustiveSearchPhaseConfig phaseConfig = new ExhaustiveSearchPhaseConfig()
+                .withWorkerThreadCount("8");
+        assertSolved(solve(phaseConfig, EnvironmentMode.FAST_ASSERT, 1, 2));
+    }
+
+    private TestdataSolution solve(ExhaustiveSearchPhaseConfig phaseConfig, EnvironmentMode environmentMode,
+            int entityCount, int valueCount) {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        solverFactory.getSolverConfig().setEnvironmentMode(environmentMode);
+        solverFactory.getSolverConfig().setPhaseConfigList(singletonList(phaseConfig));
+        Solver<TestdataSolution> solver = solverFactory.buildSolver();
+
+        TestdataSolution solution = new TestdataSolution("s1");
+        List<TestdataValue> valueList = IntStream.range(0, valueCount)
+                .mapToObj(i -> new TestdataValue("v" + i))
+                .collect(Collectors.toList());
+        List<TestdataEntity> entityList = IntStream.range(0, entityCount)
+                .mapToObj(i -> new TestdataEntity("e" + i))
+                .collect(Collectors.toList());
+        solution.setValueList(valueList);
+        solution.setEntityList(entityList);
+        return solver.solve(solution);
+    }
+
+    private void assertSolved(TestdataSolution solution) {
+        assertNotNull(solution);
+        for (TestdataEntity entity : solution.getEntityList()) {
+            assertNotNull(entity.getValue());
+        }
+        assertEquals(0, solution.getScore().getInitScore());
+    }
+
+}
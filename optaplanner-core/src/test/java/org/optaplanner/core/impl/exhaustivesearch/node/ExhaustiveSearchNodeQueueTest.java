@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.node;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.impl.exhaustivesearch.node.comparator.AbstractNodeComparatorTest;
+import org.optaplanner.core.impl.exhaustivesearch.node.comparator.DepthFirstNodeComparator;
+import org.optaplanner.core.impl.exhaustivesearch.node.comparator.OptimisticBoundFirstNodeComparator;
+
+import static org.junit.Assert.*;
+
+public class ExhaustiveSearchNodeQueueTest extends AbstractNodeComparatorTest {
+
+    @Test
+    public void pollBestFirst() {
+        ExhaustiveSearchNodeQueue queue = new ExhaustiveSearchNodeQueue(
+                new OptimisticBoundFirstNodeComparator(true), true);
+        ExhaustiveSearchNode a = buildNode(1, "-1", 5, 0, 0);
+        ExhaustiveSearchNode b = buildNode(1, "-1", 7, 0, 1);
+        ExhaustiveSearchNode c = buildNode(1, "-1", 6, 0, 2);
+        queue.add(a);
+        queue.add(b);
+        queue.add(c);
+        assertEquals(3, queue.size());
+        assertSame(b, queue.poll(SimpleScore.of(0)));
+        assertSame(c, queue.poll(SimpleScore.of(0)));
+        assertSame(a, queue.poll(SimpleScore.of(0)));
+        assertNull(queue.poll(SimpleScore.of(0)));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void prune() {
+        ExhaustiveSearchNodeQueue queue = new ExhaustiveSearchNodeQueue(new DepthFirstNodeComparator(true), true);
+        ExhaustiveSearchNode a = buildNode(1, "-1", 5, 0, 0);
+        ExhaustiveSearchNode b = buildNode(1, "-1", 5, 0, 1);
+        ExhaustiveSearchNode c = buildNode(2, "-1", 6, 0, 0);
+        ExhaustiveSearchNode d = buildNode(2, "-1", 8, 0, 1);
+        queue.add(a);
+        queue.add(b);
+        queue.add(c);
+        queue.add(d);
+        assertEquals(0, queue.prune(SimpleScore.of(4)));
+        // Nodes with the same optimistic bound are all pruned
+        assertEquals(2, queue.prune(SimpleScore.of(5)));
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.prune(SimpleScore.of(6)));
+        assertSame(d, queue.poll(SimpleScore.of(6)));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void sizeLimitFallsBackToDepthFirst() {
+        ExhaustiveSearchNodeQueue queue = new ExhaustiveSearchNodeQueue(
+                new OptimisticBoundFirstNodeComparator(true), true, 2);
+        ExhaustiveSearchNode a = buildNode(1, "-1", 9, 0, 0);
+        ExhaustiveSearchNode b = buildNode(1, "-1", 8, 0, 1);
+        ExhaustiveSearchNode c = buildNode(2, "-1", 3, 0, 0);
+        ExhaustiveSearchNode d = buildNode(2, "-1", 4, 0, 1);
+        queue.add(a);
+        queue.add(b);
+        queue.add(c);
+        queue.add(d);
+        assertEquals(4, queue.size());
+        assertEquals(2L, queue.getOverflowCount());
+        // The overflow stack is pruned lazily and polled first, last in first out
+        queue.prune(SimpleScore.of(3));
+        assertEquals(4, queue.size());
+        assertSame(d, queue.poll(SimpleScore.of(3)));
+        assertSame(a, queue.poll(SimpleScore.of(3)));
+        assertSame(b, queue.poll(SimpleScore.of(3)));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sizeLimitZero() {
+        new ExhaustiveSearchNodeQueue(new DepthFirstNodeComparator(true), true, 0);
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.node;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+
+    private final TestdataValue v1 = new TestdataValue("v1");
+    private final TestdataValue v2 = new TestdataValue("v2");
+    private final TestdataEntity a = new TestdataEntity("a", null);
+    private final TestdataEntity b = new TestdataEntity("b", null);
+    private final List<ExhaustiveSearchLayer> layerList = Arrays.asList(
+            new ExhaustiveSearchLayer(0, a), new ExhaustiveSearchLayer(1, b), new ExhaustiveSearchLayer(2, null));
+
+    @Test
+    public void interchangeableEntities() {
+        TranspositionTable<TestdataSolution> table = buildTable(10, (solution, entity) -> "entity", null);
+        assign(v1, v2);
+        assertFalse(table.isTransposition(layerList, 2));
+        assign(v2, v1);
+        assertTrue(table.isTransposition(layerList, 2));
+        assign(v1, v1);
+        assertFalse(table.isTransposition(layerList, 2));
+        assign(v2, v2);
+        assertFalse(table.isTransposition(layerList, 2));
+        assertEquals(1L, table.getTranspositionCount());
+    }
+
+    @Test
+    public void interchangeableValues() {
+        TranspositionTable<TestdataSolution> table = buildTable(10, null, (solution, value) -> "value");
+        assign(v1, null);
+        assertFalse(table.isTransposition(layerList, 1));
+        assign(v2, null);
+        assertTrue(table.isTransposition(layerList, 1));
+        assign(v1, v1);
+        assertFalse(table.isTransposition(layerList, 2));
+        assign(v1, v2);
+        assertFalse(table.isTransposition(layerList, 2));
+        assign(v2, v1);
+        assertTrue(table.isTransposition(layerList, 2));
+        assign(v2, v2);
+        assertTrue(table.isTransposition(layerList, 2));
+        assertEquals(3L, table.getTranspositionCount());
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    public void differentSymmetryClassIsNoTransposition() {
+        TranspositionTable<TestdataSolution> table = buildTable(10, (solution, entity) -> entity.getCode(),
+                (solution, value) -> value.getCode());
+        assign(v1, v2);
+        assertFalse(table.isTransposition(layerList, 2));
+        assign(v2, v1);
+        assertFalse(table.isTransposition(layerList, 2));
+        assign(v1, v2);
+        assertTrue(table.isTransposition(layerList, 2));
+    }
+
+    @Test
+    public void expansionSharesCanonicalPrefix() {
+        TranspositionTable<TestdataSolution> table = buildTable(10, (solution, entity) -> "entity",
+                (solution, value) -> "value");
+        assign(v1, null);
+        table.expansionStarted(layerList, 2);
+        b.setValue(v1);
+        assertFalse(table.isTransposition(layerList, 2));
+        b.setValue(v2);
+        assertFalse(table.isTransposition(layerList, 2));
+        // A new value in an earlier child node doesn't relabel the values of a later child node
+        b.setValue(v2);
+        assertTrue(table.isTransposition(layerList, 2));
+        table.expansionEnded();
+
+        assign(v2, null);
+        table.expansionStarted(layerList, 2);
+        b.setValue(v2);
+        assertTrue(table.isTransposition(layerList, 2));
+        b.setValue(v1);
+        assertTrue(table.isTransposition(layerList, 2));
+        table.expansionEnded();
+
+        // Without an expansion, the entire assignment is canonicalized into the same canonical assignment
+        assign(v2, v2);
+        assertTrue(table.isTransposition(layerList, 2));
+        assertEquals(4L, table.getTranspositionCount());
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        TranspositionTable<TestdataSolution> table = buildTable(2, null, (solution, value) -> value.getCode());
+        assign(v1, null);
+        assertFalse(table.isTransposition(layerList, 1));
+        assign(v2, null);
+        assertFalse(table.isTransposition(layerList, 1));
+        assign(v1, null);
+        assertTrue(table.isTransposition(layerList, 1));
+        assign(v1, v1);
+        assertFalse(table.isTransposition(layerList, 2));
+        assertEquals(2, table.size());
+        // a to v2 was the least recently used, so it was evicted
+        assign(v2, null);
+        assertFalse(table.isTransposition(layerList, 1));
+        assign(v1, v1);
+        assertTrue(table.isTransposition(layerList, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityTooLow() {
+        buildTable(0, null, null);
+    }
+
+    private TranspositionTable<TestdataSolution> buildTable(int capacity,
+            SymmetryClassFactory<TestdataSolution, TestdataEntity> entitySymmetryClassFactory,
+            SymmetryClassFactory<TestdataSolution, TestdataValue> valueSymmetryClassFactory) {
+        return new TranspositionTable<>(capacity, TestdataSolution.buildSolutionDescriptor(),
+                new TestdataSolution("solution"),
+                (SymmetryClassFactory) entitySymmetryClassFactory, (SymmetryClassFactory) valueSymmetryClassFactory);
+    }
+
+    private void assign(TestdataValue aValue, TestdataValue bValue) {
+        a.setValue(aValue);
+        b.setValue(bValue);
+    }
+
+}
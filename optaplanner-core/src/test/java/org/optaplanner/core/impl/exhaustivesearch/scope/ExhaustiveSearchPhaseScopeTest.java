@@ -15,10 +15,9 @@
  */
 package org.optaplanner.core.impl.exhaustivesearch.scope;
 
-import java.util.TreeSet;
-
 import org.junit.Test;
 import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNodeQueue;
 import org.optaplanner.core.impl.exhaustivesearch.node.comparator.AbstractNodeComparatorTest;
 import org.optaplanner.core.impl.exhaustivesearch.node.comparator.ScoreFirstNodeComparator;
 import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
@@ -32,7 +31,7 @@ public class ExhaustiveSearchPhaseScopeTest extends AbstractNodeComparatorTest {
     public void testNodePruning() {
         ExhaustiveSearchPhaseScope<TestdataSolution> phase
                 = new ExhaustiveSearchPhaseScope<>(new DefaultSolverScope<>());
-        phase.setExpandableNodeQueue(new TreeSet<>(new ScoreFirstNodeComparator(true)));
+        phase.setExpandableNodeQueue(new ExhaustiveSearchNodeQueue(new ScoreFirstNodeComparator(true), true));
         phase.addExpandableNode(buildNode(0, "0", 0, 0));
         phase.addExpandableNode(buildNode(0, "1", 0, 0));
         phase.addExpandableNode(buildNode(0, "2", 0, 0));
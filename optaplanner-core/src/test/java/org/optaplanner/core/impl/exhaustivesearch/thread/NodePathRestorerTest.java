@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.exhaustivesearch.thread;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchLayer;
+import org.optaplanner.core.impl.exhaustivesearch.node.ExhaustiveSearchNode;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class NodePathRestorerTest {
+
+    @Test
+    public void restore() {
+        InnerScoreDirector<TestdataSolution> scoreDirector = mock(InnerScoreDirector.class);
+        TestdataSolution workingSolution = new TestdataSolution();
+        when(scoreDirector.getWorkingSolution()).thenReturn(workingSolution);
+        SolutionDescriptor<TestdataSolution> solutionDescriptor = TestdataSolution.buildSolutionDescriptor();
+        when(scoreDirector.getSolutionDescriptor()).thenReturn(solutionDescriptor);
+
+        ExhaustiveSearchLayer layer0 = new ExhaustiveSearchLayer(0, mock(Object.class));
+        ExhaustiveSearchLayer layer1 = new ExhaustiveSearchLayer(1, mock(Object.class));
+        ExhaustiveSearchLayer layer2 = new ExhaustiveSearchLayer(2, mock(Object.class));
+        ExhaustiveSearchNode node0 = new ExhaustiveSearchNode(layer0, null);
+        ExhaustiveSearchNode node1 = buildNode(scoreDirector, layer1, node0);
+        ExhaustiveSearchNode node2A = buildNode(scoreDirector, layer2, node1);
+        ExhaustiveSearchNode node2B = buildNode(scoreDirector, layer2, node1);
+        node2B.setScore(SimpleScore.of(-7));
+
+        NodePathRestorer<TestdataSolution> nodePathRestorer = new NodePathRestorer<>(scoreDirector, false);
+        assertEquals(2, nodePathRestorer.restore(node2A).size());
+        verify(node1.getMove(), times(1)).doMove(scoreDirector);
+        verify(node2A.getMove(), times(1)).doMove(scoreDirector);
+
+        // Only the moves below the common ancestor node1 are undone and redone
+        assertEquals(2, nodePathRestorer.restore(node2B).size());
+        verify(node1.getMove(), times(1)).doMove(scoreDirector);
+        verify(node2A.getUndoMove(), times(1)).doMove(scoreDirector);
+        verify(node2B.getMove(), times(1)).doMove(scoreDirector);
+        assertEquals(SimpleScore.of(-7), workingSolution.getScore());
+
+        assertEquals(2, nodePathRestorer.restore(node0).size());
+        verify(node2B.getUndoMove(), times(1)).doMove(scoreDirector);
+        verify(node1.getUndoMove(), times(1)).doMove(scoreDirector);
+    }
+
+    private ExhaustiveSearchNode buildNode(InnerScoreDirector<TestdataSolution> scoreDirector,
+            ExhaustiveSearchLayer layer, ExhaustiveSearchNode parent) {
+        ExhaustiveSearchNode node = new ExhaustiveSearchNode(layer, parent);
+        Move<TestdataSolution> move = mock(Move.class);
+        Move<TestdataSolution> undoMove = mock(Move.class);
+        when(move.doMove(any(ScoreDirector.class))).thenReturn(undoMove);
+        node.setMove(move);
+        // The NodePathRestorer never uses the undo move of the node, but the one its own doMove() returned
+        node.setUndoMove(undoMove);
+        return node;
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.move;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.ChangeMove;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
+
+import static org.junit.Assert.*;
+
+public class MoveScoreDeltaCacheTest {
+
+    @Test
+    public void invalidateTouchedEntitiesAndValues() {
+        SolutionDescriptor<TestdataSolution> solutionDescriptor = TestdataSolution.buildSolutionDescriptor();
+        GenuineVariableDescriptor<TestdataSolution> variableDescriptor = solutionDescriptor
+                .findEntityDescriptorOrFail(TestdataEntity.class).getGenuineVariableDescriptor("value");
+        TestdataValue v1 = new TestdataValue("v1");
+        TestdataValue v2 = new TestdataValue("v2");
+        TestdataValue v3 = new TestdataValue("v3");
+        TestdataValue v4 = new TestdataValue("v4");
+        TestdataEntity a = new TestdataEntity("a", v1);
+        TestdataEntity b = new TestdataEntity("b", v3);
+        TestdataEntity c = new TestdataEntity("c", v4);
+
+        MoveScoreDeltaCache<TestdataSolution> cache = new MoveScoreDeltaCache<>(solutionDescriptor);
+        Move<TestdataSolution> aToV2 = new ChangeMove<>(a, variableDescriptor, v2);
+        Move<TestdataSolution> bToV4 = new ChangeMove<>(b, variableDescriptor, v4);
+        cache.putScoreDelta(aToV2, SimpleScore.of(-1), cache.buildDependencies(aToV2));
+        cache.putScoreDelta(bToV4, SimpleScore.of(-2), cache.buildDependencies(bToV4));
+        assertEquals(SimpleScore.of(-1), cache.getScoreDelta(new ChangeMove<>(a, variableDescriptor, v2)));
+        assertNull(cache.getScoreDelta(new ChangeMove<>(a, variableDescriptor, v3)));
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+
+        // A step that moves entity c from v4 to v3 touches the values of both cached moves
+        cache.variableTouched(variableDescriptor, c);
+        c.setValue(v3);
+        cache.variableTouched(variableDescriptor, c);
+        cache.invalidateTouched();
+        assertEquals(SimpleScore.of(-1), cache.getScoreDelta(aToV2));
+        assertNull(cache.getScoreDelta(bToV4));
+        assertEquals(1L, cache.getInvalidationCount());
+
+        // A step that moves entity a away from its old value v1
+        cache.variableTouched(variableDescriptor, a);
+        a.setValue(v3);
+        cache.variableTouched(variableDescriptor, a);
+        cache.invalidateTouched();
+        assertNull(cache.getScoreDelta(aToV2));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedWhenFull() {
+        SolutionDescriptor<TestdataSolution> solutionDescriptor = TestdataSolution.buildSolutionDescriptor();
+        GenuineVariableDescriptor<TestdataSolution> variableDescriptor = solutionDescriptor
+                .findEntityDescriptorOrFail(TestdataEntity.class).getGenuineVariableDescriptor("value");
+        TestdataValue v1 = new TestdataValue("v1");
+        TestdataValue v2 = new TestdataValue("v2");
+        TestdataValue v3 = new TestdataValue("v3");
+        TestdataValue v4 = new TestdataValue("v4");
+        TestdataEntity a = new TestdataEntity("a", v1);
+        TestdataEntity b = new TestdataEntity("b", v3);
+        TestdataEntity c = new TestdataEntity("c", v4);
+
+        MoveScoreDeltaCache<TestdataSolution> cache = new MoveScoreDeltaCache<>(solutionDescriptor, 2);
+        assertEquals(2, cache.getCapacity());
+        Move<TestdataSolution> aToV2 = new ChangeMove<>(a, variableDescriptor, v2);
+        Move<TestdataSolution> bToV2 = new ChangeMove<>(b, variableDescriptor, v2);
+        Move<TestdataSolution> cToV2 = new ChangeMove<>(c, variableDescriptor, v2);
+        cache.putScoreDelta(aToV2, SimpleScore.of(-1), cache.buildDependencies(aToV2));
+        cache.putScoreDelta(bToV2, SimpleScore.of(-2), cache.buildDependencies(bToV2));
+        // Makes bToV2 the least recently used one
+        assertEquals(SimpleScore.of(-1), cache.getScoreDelta(aToV2));
+        cache.putScoreDelta(cToV2, SimpleScore.of(-3), cache.buildDependencies(cToV2));
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.getEvictionCount());
+        assertNull(cache.getScoreDelta(bToV2));
+        assertEquals(SimpleScore.of(-1), cache.getScoreDelta(aToV2));
+        assertEquals(SimpleScore.of(-3), cache.getScoreDelta(cToV2));
+
+        // An evicted score difference doesn't count as invalidated
+        cache.variableTouched(variableDescriptor, b);
+        cache.invalidateTouched();
+        assertEquals(0L, cache.getInvalidationCount());
+        assertEquals(2, cache.size());
+
+        // A re-cached score difference is invalidated only once
+        cache.putScoreDelta(aToV2, SimpleScore.of(-4), cache.buildDependencies(aToV2));
+        cache.variableTouched(variableDescriptor, a);
+        cache.invalidateTouched();
+        assertEquals(1L, cache.getInvalidationCount());
+        assertNull(cache.getScoreDelta(aToV2));
+        assertEquals(SimpleScore.of(-3), cache.getScoreDelta(cToV2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePositive() {
+        new MoveScoreDeltaCache<>(TestdataSolution.buildSolutionDescriptor(), 0);
+    }
+
+    @Test
+    public void clear() {
+        SolutionDescriptor<TestdataSolution> solutionDescriptor = TestdataSolution.buildSolutionDescriptor();
+        GenuineVariableDescriptor<TestdataSolution> variableDescriptor = solutionDescriptor
+                .findEntityDescriptorOrFail(TestdataEntity.class).getGenuineVariableDescriptor("value");
+        TestdataEntity a = new TestdataEntity("a", new TestdataValue("v1"));
+        MoveScoreDeltaCache<TestdataSolution> cache = new MoveScoreDeltaCache<>(solutionDescriptor);
+        Move<TestdataSolution> move = new ChangeMove<>(a, variableDescriptor, new TestdataValue("v2"));
+        cache.putScoreDelta(move, SimpleScore.of(0), cache.buildDependencies(move));
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.getScoreDelta(move));
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.selector.common.nearby;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.optaplanner.core.impl.testdata.domain.TestdataObject;
+
+import static org.junit.Assert.*;
+
+public class KdTreeNearbyDestinationLookupTest {
+
+    @Test
+    public void getDestination() {
+        PointTestdataObject a = new PointTestdataObject("a", 0.0, 0.0);
+        PointTestdataObject b = new PointTestdataObject("b", 4.0, 0.0);
+        PointTestdataObject c = new PointTestdataObject("c", 0.0, 2.0);
+        PointTestdataObject d = new PointTestdataObject("d", 6.0, 6.0);
+        List<Object> pointList = Arrays.asList(a, b, c, d);
+
+        KdTreeNearbyDestinationLookup lookup = new KdTreeNearbyDestinationLookup(new PointNearbyDistanceMeter(), pointList);
+        assertEquals(4, lookup.getDestinationCount());
+        assertSame(a, lookup.getDestination(a, 0));
+        assertSame(c, lookup.getDestination(a, 1));
+        assertSame(b, lookup.getDestination(a, 2));
+        assertSame(d, lookup.getDestination(a, 3));
+        assertSame(d, lookup.getDestination(d, 0));
+        assertSame(b, lookup.getDestination(d, 1));
+        assertSame(c, lookup.getDestination(d, 2));
+        assertSame(a, lookup.getDestination(d, 3));
+        // Random access for a previous origin
+        assertSame(c, lookup.getDestination(a, 1));
+    }
+
+    @Test
+    public void getDestinationWithSameDistance() {
+        PointTestdataObject a = new PointTestdataObject("a", 0.0, 0.0);
+        PointTestdataObject b = new PointTestdataObject("b", 1.0, 0.0);
+        PointTestdataObject c = new PointTestdataObject("c", -1.0, 0.0);
+        PointTestdataObject d = new PointTestdataObject("d", 0.0, 1.0);
+        List<Object> pointList = Arrays.asList(a, b, c, d);
+
+        KdTreeNearbyDestinationLookup lookup = new KdTreeNearbyDestinationLookup(new PointNearbyDistanceMeter(), pointList);
+        assertSame(a, lookup.getDestination(a, 0));
+        assertSame(b, lookup.getDestination(a, 1));
+        assertSame(c, lookup.getDestination(a, 2));
+        assertSame(d, lookup.getDestination(a, 3));
+    }
+
+    @Test
+    public void getDestinationWithNullDestination() {
+        PointTestdataObject a = new PointTestdataObject("a", 0.0, 0.0);
+        PointTestdataObject b = new PointTestdataObject("b", 4.0, 0.0);
+        PointTestdataObject c = new PointTestdataObject("c", 0.0, 2.0);
+        // The null value of a nullable variable comes first in its value range
+        List<Object> valueList = Arrays.asList(null, a, b, c);
+
+        KdTreeNearbyDestinationLookup lookup = new KdTreeNearbyDestinationLookup(new PointNearbyDistanceMeter(), valueList);
+        assertEquals(4, lookup.getDestinationCount());
+        assertSame(a, lookup.getDestination(a, 0));
+        assertSame(c, lookup.getDestination(a, 1));
+        assertSame(b, lookup.getDestination(a, 2));
+        assertNull(lookup.getDestination(a, 3));
+        assertSame(b, lookup.getDestination(b, 0));
+        assertNull(lookup.getDestination(b, 3));
+        // Random access after the null destination
+        assertSame(a, lookup.getDestination(b, 1));
+    }
+
+    @Test
+    public void getDestinationWithOnlyNullDestination() {
+        PointTestdataObject a = new PointTestdataObject("a", 0.0, 0.0);
+        KdTreeNearbyDestinationLookup lookup = new KdTreeNearbyDestinationLookup(new PointNearbyDistanceMeter(),
+                Collections.singletonList(null));
+        assertEquals(1, lookup.getDestinationCount());
+        assertNull(lookup.getDestination(a, 0));
+    }
+
+    @Test
+    public void sameOrderAsNearbyDistanceMatrix() {
+        Random random = new Random(37);
+        PointNearbyDistanceMeter meter = new PointNearbyDistanceMeter();
+        List<Object> pointList = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // Integer coordinates to have many points with the same distance
+            pointList.add(new PointTestdataObject("p" + i, random.nextInt(10), random.nextInt(10)));
+        }
+        NearbyDistanceMatrix matrix = new NearbyDistanceMatrix(meter, pointList.size());
+        matrix.addAllDestinations(pointList, pointList, pointList.size(), 1, null);
+        KdTreeNearbyDestinationLookup lookup = new KdTreeNearbyDestinationLookup(meter, pointList);
+        List<Object> shuffledOriginList = new ArrayList<>(pointList);
+        Collections.shuffle(shuffledOriginList, random);
+        for (Object origin : shuffledOriginList) {
+            for (int i = 0; i < pointList.size(); i++) {
+                assertSame(matrix.getDestination(origin, i), lookup.getDestination(origin, i));
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            Object origin = pointList.get(random.nextInt(pointList.size()));
+            int nearbyIndex = random.nextInt(20);
+            assertSame(matrix.getDestination(origin, nearbyIndex), lookup.getDestination(origin, nearbyIndex));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void differentDimensionCount() {
+        PointNearbyDistanceMeter meter = new PointNearbyDistanceMeter();
+        PointTestdataObject a = new PointTestdataObject("a", 0.0, 0.0);
+        KdTreeNearbyDestinationLookup lookup = new KdTreeNearbyDestinationLookup(meter, Arrays.asList(a));
+        lookup.getDestination(new PointTestdataObject("b", new double[]{0.0, 0.0, 0.0}), 0);
+    }
+
+    private static class PointNearbyDistanceMeter
+            implements CoordinateNearbyDistanceMeter<PointTestdataObject, PointTestdataObject> {
+
+        @Override
+        public double[] getOriginCoordinates(PointTestdataObject origin) {
+            return origin.coordinates;
+        }
+
+        @Override
+        public double[] getDestinationCoordinates(PointTestdataObject destination) {
+            return destination.coordinates;
+        }
+
+    }
+
+    private static class PointTestdataObject extends TestdataObject {
+
+        private final double[] coordinates;
+
+        public PointTestdataObject(String code, double x, double y) {
+            this(code, new double[]{x, y});
+        }
+
+        public PointTestdataObject(String code, double[] coordinates) {
+            super(code);
+            this.coordinates = coordinates;
+        }
+
+    }
+
+}
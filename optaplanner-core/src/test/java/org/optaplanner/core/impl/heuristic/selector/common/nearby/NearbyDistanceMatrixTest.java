@@ -16,16 +16,25 @@
 
 package org.optaplanner.core.impl.heuristic.selector.common.nearby;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executors;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.optaplanner.core.impl.testdata.domain.TestdataObject;
 
 import static org.junit.Assert.*;
 
 public class NearbyDistanceMatrixTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void addAllDestinations() {
         final MatrixTestdataObject a = new MatrixTestdataObject("a", 0, new double[]{0.0, 4.0, 2.0, 6.0});
@@ -94,6 +103,163 @@ public class NearbyDistanceMatrixTest {
         assertSame(c, nearbyDistanceMatrix.getDestination(d, 3));
     }
 
+    @Test
+    public void addAllDestinationsInParallel() {
+        List<Object> entityList = buildEntityList();
+        NearbyDistanceMeter<MatrixTestdataObject, MatrixTestdataObject> meter
+                = (origin, destination) -> origin.distances[destination.index];
+
+        NearbyDistanceMatrix sequentialMatrix = new NearbyDistanceMatrix(meter, 4);
+        for (Object origin : entityList) {
+            sequentialMatrix.addAllDestinations(origin, entityList.iterator(), 4);
+        }
+        NearbyDistanceMatrix parallelMatrix = new NearbyDistanceMatrix(meter, 4);
+        parallelMatrix.addAllDestinations(entityList, entityList, 4, 3, Executors.defaultThreadFactory());
+
+        assertSameDestinations(entityList, sequentialMatrix, parallelMatrix);
+    }
+
+    @Test
+    public void addAllDestinationsWithSmallerDestinationSize() {
+        List<Object> entityList = buildEntityList();
+        NearbyDistanceMeter<MatrixTestdataObject, MatrixTestdataObject> meter
+                = (origin, destination) -> origin.distances[destination.index];
+
+        NearbyDistanceMatrix nearbyDistanceMatrix = new NearbyDistanceMatrix(meter, 4);
+        nearbyDistanceMatrix.addAllDestinations(entityList, entityList, 2, 1, null);
+        Object a = entityList.get(0);
+        Object c = entityList.get(2);
+        assertSame(a, nearbyDistanceMatrix.getDestination(a, 0));
+        assertSame(c, nearbyDistanceMatrix.getDestination(a, 1));
+    }
+
+    @Test
+    public void saveAndLoad() throws IOException {
+        List<Object> entityList = buildEntityList();
+        NearbyDistanceMeter<MatrixTestdataObject, MatrixTestdataObject> meter
+                = (origin, destination) -> origin.distances[destination.index];
+        String problemHash = NearbyDistanceMatrix.calculateProblemHash(meter, entityList, entityList, 4, 1, null);
+        File file = NearbyDistanceMatrix.buildCacheFile(temporaryFolder.getRoot(), meter, entityList, entityList);
+
+        NearbyDistanceMatrix savedMatrix = new NearbyDistanceMatrix(meter, 4);
+        savedMatrix.addAllDestinations(entityList, entityList, 4, 1, null);
+        savedMatrix.save(file, problemHash);
+        assertTrue(file.exists());
+
+        NearbyDistanceMatrix loadedMatrix = new NearbyDistanceMatrix(meter, 4);
+        assertTrue(loadedMatrix.load(file, problemHash, entityList, entityList));
+        assertSameDestinations(entityList, savedMatrix, loadedMatrix);
+
+        NearbyDistanceMatrix otherProblemMatrix = new NearbyDistanceMatrix(meter, 4);
+        assertFalse(otherProblemMatrix.load(file, problemHash + "x", entityList, entityList));
+
+        // The loaded file is closed, so it can be replaced
+        loadedMatrix.save(file, problemHash);
+        assertEquals(1, temporaryFolder.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void buildWithSharedDestinationsReusesCacheFile() {
+        List<Object> entityList = buildEntityList();
+        CountingMatrixMeter meter = new CountingMatrixMeter();
+        File cacheDirectory = temporaryFolder.getRoot();
+
+        NearbyDistanceMatrix builtMatrix = NearbyDistanceMatrix.buildWithSharedDestinations(meter,
+                entityList, entityList, 4, 1, null, cacheDirectory);
+        // The distances are digested while the matrix is built, so every distance is measured only once
+        assertEquals(entityList.size() * entityList.size(), meter.count);
+        assertTrue(NearbyDistanceMatrix.buildCacheFile(cacheDirectory, meter, entityList, entityList).exists());
+
+        meter.count = 0;
+        NearbyDistanceMatrix loadedMatrix = NearbyDistanceMatrix.buildWithSharedDestinations(meter,
+                entityList, entityList, 4, 1, null, cacheDirectory);
+        // Only the problem hash measures every distance, the nearest destinations are not selected again
+        assertEquals(entityList.size() * entityList.size(), meter.count);
+        assertSameDestinations(entityList, builtMatrix, loadedMatrix);
+    }
+
+    @Test
+    public void calculateProblemHashIsStable() {
+        CountingMatrixMeter meter = new CountingMatrixMeter();
+        // Other instances with the same planning ids, like after a JVM restart
+        String problemHash = NearbyDistanceMatrix.calculateProblemHash(meter,
+                buildEntityList(), buildEntityList(), 4, 1, null);
+        assertEquals(problemHash, NearbyDistanceMatrix.calculateProblemHash(meter,
+                buildEntityList(), buildEntityList(), 4, 1, null));
+        assertEquals(problemHash, NearbyDistanceMatrix.calculateProblemHash(meter,
+                buildEntityList(), buildEntityList(), 4, 2, Executors.defaultThreadFactory()));
+        // Every distance is part of the hash, not just a sample per origin
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                List<Object> changedEntityList = buildEntityList();
+                ((MatrixTestdataObject) changedEntityList.get(i)).distances[j] += 0.5;
+                assertNotEquals(problemHash, NearbyDistanceMatrix.calculateProblemHash(meter,
+                        changedEntityList, changedEntityList, 4, 1, null));
+            }
+        }
+    }
+
+    @Test
+    public void calculateProblemHashWithNullDestination() {
+        List<Object> entityList = buildEntityList();
+        List<Object> valueList = new ArrayList<>();
+        // The null value of a nullable variable
+        valueList.add(null);
+        valueList.addAll(entityList);
+        NearbyDistanceMeter<MatrixTestdataObject, MatrixTestdataObject> meter
+                = (origin, destination) -> destination == null ? 100.0 : origin.distances[destination.index];
+        String problemHash = NearbyDistanceMatrix.calculateProblemHash(meter, entityList, valueList, 5, 1, null);
+        assertNotEquals(problemHash,
+                NearbyDistanceMatrix.calculateProblemHash(meter, entityList, entityList, 4, 1, null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void calculateProblemHashWithoutPlanningId() {
+        List<Object> objectList = Arrays.asList(new Object(), new Object());
+        NearbyDistanceMatrix.calculateProblemHash((origin, destination) -> 0.0, objectList, objectList, 2, 1, null);
+    }
+
+    @Test
+    public void buildWithSharedDestinationsOverwritesCacheFile() {
+        CountingMatrixMeter meter = new CountingMatrixMeter();
+        File cacheDirectory = temporaryFolder.getRoot();
+        List<Object> entityList = buildEntityList();
+        NearbyDistanceMatrix.buildWithSharedDestinations(meter, entityList, entityList, 4, 1, null, cacheDirectory);
+        List<Object> changedEntityList = buildEntityList();
+        ((MatrixTestdataObject) changedEntityList.get(1)).distances[0] = 3.0;
+        NearbyDistanceMatrix.buildWithSharedDestinations(meter,
+                changedEntityList, changedEntityList, 4, 1, null, cacheDirectory);
+        assertEquals(1, cacheDirectory.listFiles().length);
+    }
+
+    private List<Object> buildEntityList() {
+        MatrixTestdataObject a = new MatrixTestdataObject("a", 0, new double[]{0.0, 4.0, 2.0, 6.0});
+        MatrixTestdataObject b = new MatrixTestdataObject("b", 1, new double[]{4.0, 0.0, 5.0, 10.0});
+        MatrixTestdataObject c = new MatrixTestdataObject("c", 2, new double[]{2.0, 5.0, 0.0, 7.0});
+        MatrixTestdataObject d = new MatrixTestdataObject("d", 3, new double[]{6.0, 10.0, 7.0, 0.0});
+        return Arrays.asList(a, b, c, d);
+    }
+
+    private void assertSameDestinations(List<Object> originList,
+            NearbyDistanceMatrix expectedMatrix, NearbyDistanceMatrix actualMatrix) {
+        for (Object origin : originList) {
+            for (int i = 0; i < originList.size(); i++) {
+                assertSame(expectedMatrix.getDestination(origin, i), actualMatrix.getDestination(origin, i));
+            }
+        }
+    }
+
+    private static class CountingMatrixMeter implements NearbyDistanceMeter<MatrixTestdataObject, MatrixTestdataObject> {
+        private int count = 0;
+
+        @Override
+        public double getNearbyDistance(MatrixTestdataObject origin, MatrixTestdataObject destination) {
+            count++;
+            return origin.distances[destination.index];
+        }
+
+    }
+
     private static class MatrixTestdataObject extends TestdataObject {
         private int index;
         private double[] distances;
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.thread;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoveThreadControllerTest {
+
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    @Test
+    public void adapt() {
+        MoveThreadController controller = new MoveThreadController("", 1, 4, 1, 8, 2, 1);
+        assertEquals(4, controller.getActiveMoveThreadCount());
+        assertEquals(8, controller.getSelectedMoveBufferSize());
+        assertEquals(32, controller.getMaximumSelectedMoveBufferSize());
+
+        // Starving, but all move threads are already active
+        controller.adapt(0, SECOND_NANOS, 800_000_000L, 100L, 100L);
+        assertEquals(4, controller.getActiveMoveThreadCount());
+        assertEquals(4, controller.getMoveThreadBufferSize());
+        // Saturated
+        controller.adapt(1, SECOND_NANOS, 50_000_000L, 100L, 100L);
+        assertEquals(3, controller.getActiveMoveThreadCount());
+        assertFalse(controller.isActive(3));
+        assertTrue(controller.isActive(2));
+        // Starving
+        controller.adapt(2, SECOND_NANOS, 800_000_000L, 100L, 100L);
+        assertEquals(4, controller.getActiveMoveThreadCount());
+        // The extra move thread lowered the throughput
+        controller.adapt(3, SECOND_NANOS, 300_000_000L, 100L, 50L);
+        assertEquals(3, controller.getActiveMoveThreadCount());
+        // Starving during the cooldown
+        controller.adapt(4, SECOND_NANOS, 800_000_000L, 100L, 100L);
+        assertEquals(3, controller.getActiveMoveThreadCount());
+        assertEquals(8, controller.getMoveThreadBufferSize());
+        // Wasteful
+        controller.adapt(5, SECOND_NANOS, 300_000_000L, 100L, 20L);
+        assertEquals(3, controller.getActiveMoveThreadCount());
+        assertEquals(4, controller.getMoveThreadBufferSize());
+        assertEquals(12, controller.getSelectedMoveBufferSize());
+    }
+
+    @Test
+    public void adaptWithinBounds() {
+        MoveThreadController controller = new MoveThreadController("", 2, 2, 3, 3, 3, 1);
+        controller.adapt(0, SECOND_NANOS, 800_000_000L, 100L, 100L);
+        controller.adapt(1, SECOND_NANOS, 0L, 100L, 100L);
+        controller.adapt(2, SECOND_NANOS, 300_000_000L, 100L, 10L);
+        assertEquals(2, controller.getActiveMoveThreadCount());
+        assertEquals(3, controller.getMoveThreadBufferSize());
+    }
+
+    @Test(timeout = 10000L)
+    public void phaseEndedWakesUpInactiveMoveThreads() throws InterruptedException {
+        MoveThreadController controller = new MoveThreadController("", 1, 2, 1, 1, 1, 1);
+        controller.adapt(0, SECOND_NANOS, 0L, 100L, 100L);
+        assertFalse(controller.isActive(1));
+        Thread moveThread = new Thread(() -> {
+            try {
+                controller.awaitActive(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        moveThread.start();
+        controller.phaseEnded();
+        moveThread.join();
+        assertTrue(controller.isPhaseEnding());
+        controller.phaseStarted();
+        assertFalse(controller.isPhaseEnding());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minimumMoveThreadCountAboveMoveThreadCount() {
+        new MoveThreadController("", 3, 2, 1, 1, 1, 1);
+    }
+
+}
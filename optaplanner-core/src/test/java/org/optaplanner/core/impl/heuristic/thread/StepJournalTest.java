@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.heuristic.thread;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.testdata.domain.shadow.inverserelation.TestdataInverseRelationEntity;
+import org.optaplanner.core.impl.testdata.domain.shadow.inverserelation.TestdataInverseRelationSolution;
+import org.optaplanner.core.impl.testdata.domain.shadow.inverserelation.TestdataInverseRelationValue;
+import org.optaplanner.core.impl.testdata.util.PlannerTestUtils;
+
+import static org.junit.Assert.*;
+
+public class StepJournalTest {
+
+    @Test
+    public void publishCatchUpAndMerge() {
+        SolutionDescriptor<TestdataInverseRelationSolution> solutionDescriptor
+                = TestdataInverseRelationSolution.buildSolutionDescriptor();
+        InnerScoreDirector<TestdataInverseRelationSolution> scoreDirector
+                = PlannerTestUtils.mockScoreDirector(solutionDescriptor);
+        GenuineVariableDescriptor<TestdataInverseRelationSolution> variableDescriptor = solutionDescriptor
+                .findEntityDescriptorOrFail(TestdataInverseRelationEntity.class).getGenuineVariableDescriptor("value");
+
+        TestdataInverseRelationValue val1 = new TestdataInverseRelationValue("1");
+        TestdataInverseRelationValue val2 = new TestdataInverseRelationValue("2");
+        TestdataInverseRelationValue val3 = new TestdataInverseRelationValue("3");
+        TestdataInverseRelationEntity a = new TestdataInverseRelationEntity("a", val1);
+        TestdataInverseRelationEntity b = new TestdataInverseRelationEntity("b", val1);
+        TestdataInverseRelationSolution solution = new TestdataInverseRelationSolution("solution");
+        solution.setEntityList(Arrays.asList(a, b));
+        solution.setValueList(Arrays.asList(val1, val2, val3));
+        scoreDirector.setWorkingSolution(solution);
+
+        StepJournal<TestdataInverseRelationSolution> journal = new StepJournal<>(2);
+        // Step 0 changes a and changes b back and forth
+        journal.startRecording(scoreDirector);
+        scoreDirector.changeVariableFacade(variableDescriptor, a, val2);
+        scoreDirector.changeVariableFacade(variableDescriptor, b, val3);
+        scoreDirector.changeVariableFacade(variableDescriptor, b, val1);
+        scoreDirector.triggerVariableListeners();
+        journal.publishStep(0, SimpleScore.of(-2));
+        assertNull(scoreDirector.getVariableListenerSupport().getVariableChangeTracker());
+        // Step 1 changes a again and b
+        journal.startRecording(scoreDirector);
+        scoreDirector.changeVariableFacade(variableDescriptor, a, val3);
+        scoreDirector.changeVariableFacade(variableDescriptor, b, val2);
+        scoreDirector.triggerVariableListeners();
+        journal.publishStep(1, SimpleScore.of(-1));
+        assertEquals(2, journal.getStepLag(0));
+        assertEquals(2, journal.getStepLag(1));
+
+        // Move thread 0 catches up step by step
+        List<StepJournal.Entry<TestdataInverseRelationSolution>> entryList = journal.catchUp(0, 1);
+        assertEquals(1, entryList.size());
+        StepJournal.Entry<TestdataInverseRelationSolution> step0 = entryList.get(0);
+        assertEquals(1, step0.size());
+        assertSame(a, step0.getEntity(0));
+        assertSame(val2, step0.getValue(0));
+        assertEquals(SimpleScore.of(-2), step0.getScore());
+        assertEquals(1, journal.catchUp(0, 2).size());
+        assertEquals(0, journal.getStepLag(0));
+
+        // Move thread 1 lags behind and catches up with 1 batch
+        entryList = journal.catchUp(1, 2);
+        assertEquals(2, entryList.size());
+        StepJournal.Entry<TestdataInverseRelationSolution> batch = StepJournal.mergeEntries(entryList);
+        assertEquals(2, batch.size());
+        assertSame(a, batch.getEntity(0));
+        assertSame(val3, batch.getValue(0));
+        assertSame(b, batch.getEntity(1));
+        assertSame(val2, batch.getValue(1));
+        assertEquals(SimpleScore.of(-1), batch.getScore());
+        assertEquals(0, journal.getStepLag(1));
+        assertEquals(1, journal.getMaximumStepLag(0));
+        assertEquals(2, journal.getMaximumStepLag(1));
+        assertEquals(2L, journal.getBatchCount(0));
+        assertEquals(1L, journal.getBatchCount(1));
+    }
+
+    @Test
+    public void detachAndReattach() {
+        SolutionDescriptor<TestdataInverseRelationSolution> solutionDescriptor
+                = TestdataInverseRelationSolution.buildSolutionDescriptor();
+        InnerScoreDirector<TestdataInverseRelationSolution> scoreDirector
+                = PlannerTestUtils.mockScoreDirector(solutionDescriptor);
+        GenuineVariableDescriptor<TestdataInverseRelationSolution> variableDescriptor = solutionDescriptor
+                .findEntityDescriptorOrFail(TestdataInverseRelationEntity.class).getGenuineVariableDescriptor("value");
+
+        TestdataInverseRelationValue val1 = new TestdataInverseRelationValue("1");
+        TestdataInverseRelationValue val2 = new TestdataInverseRelationValue("2");
+        TestdataInverseRelationValue val3 = new TestdataInverseRelationValue("3");
+        TestdataInverseRelationEntity a = new TestdataInverseRelationEntity("a", val1);
+        TestdataInverseRelationEntity b = new TestdataInverseRelationEntity("b", val1);
+        TestdataInverseRelationSolution solution = new TestdataInverseRelationSolution("solution");
+        solution.setEntityList(Arrays.asList(a, b));
+        solution.setValueList(Arrays.asList(val1, val2, val3));
+        scoreDirector.setWorkingSolution(solution);
+
+        StepJournal<TestdataInverseRelationSolution> journal = new StepJournal<>(2);
+        journal.detach(1);
+        assertTrue(journal.isDetached(1));
+        // Nothing has been published yet
+        assertNull(journal.reattach(1));
+        journal.detach(1);
+
+        journal.startRecording(scoreDirector);
+        scoreDirector.changeVariableFacade(variableDescriptor, a, val2);
+        scoreDirector.triggerVariableListeners();
+        journal.publishStep(0, SimpleScore.of(-2));
+        journal.startRecording(scoreDirector);
+        scoreDirector.changeVariableFacade(variableDescriptor, a, val3);
+        scoreDirector.changeVariableFacade(variableDescriptor, b, val2);
+        scoreDirector.triggerVariableListeners();
+        journal.publishStep(1, SimpleScore.of(-1));
+        // The detached move thread doesn't hold back the trimming of the steps that move thread 0 applied
+        journal.catchUp(0, 2);
+        journal.startRecording(scoreDirector);
+        scoreDirector.changeVariableFacade(variableDescriptor, b, val3);
+        scoreDirector.triggerVariableListeners();
+        journal.publishStep(2, SimpleScore.of(0));
+
+        StepJournal.Entry<TestdataInverseRelationSolution> batch = journal.reattach(1);
+        assertFalse(journal.isDetached(1));
+        assertEquals(2, batch.getStepIndex());
+        assertEquals(2, batch.size());
+        assertSame(a, batch.getEntity(0));
+        assertSame(val3, batch.getValue(0));
+        assertSame(b, batch.getEntity(1));
+        assertSame(val3, batch.getValue(1));
+        assertEquals(SimpleScore.of(0), batch.getScore());
+        assertEquals(0, journal.getStepLag(1));
+        assertEquals(3, journal.getMaximumStepLag(1));
+        // Move thread 0 still catches up normally
+        assertEquals(1, journal.catchUp(0, 3).size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void reattachWithoutDetach() {
+        StepJournal<TestdataInverseRelationSolution> journal = new StepJournal<>(1);
+        journal.reattach(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void catchUpBeyondPublishedSteps() {
+        StepJournal<TestdataInverseRelationSolution> journal = new StepJournal<>(1);
+        journal.catchUp(0, 1);
+    }
+
+}
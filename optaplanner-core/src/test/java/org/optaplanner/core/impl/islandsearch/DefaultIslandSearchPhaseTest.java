@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.islandsearch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.islandsearch.IslandSearchPhaseConfig;
+import org.optaplanner.core.config.islandsearch.ParallelTemperingConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.AcceptorConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.AcceptorType;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.islandsearch.scope.IslandSearchPhaseScope;
+import org.optaplanner.core.impl.phase.event.PhaseLifecycleListenerAdapter;
+import org.optaplanner.core.impl.phase.scope.AbstractPhaseScope;
+import org.optaplanner.core.impl.solver.DefaultSolver;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
+import org.optaplanner.core.impl.testdata.util.PlannerTestUtils;
+
+import static org.junit.Assert.*;
+
+public class DefaultIslandSearchPhaseTest {
+
+    @Test(timeout = 5000)
+    public void solveWithIslands() {
+        solveWithIslands(false);
+    }
+
+    @Test(timeout = 5000)
+    public void solveWithIslandAcceptors() {
+        solveWithIslands(true);
+    }
+
+    @Test(timeout = 5000)
+    public void solveWithParallelTempering() {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils
+                .buildSolverFactory(TestdataSolution.class, TestdataEntity.class);
+        SolverConfig solverConfig = solverFactory.getSolverConfig();
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig();
+        localSearchPhaseConfig.setTerminationConfig(new TerminationConfig().withStepCountLimit(10));
+        IslandSearchPhaseConfig islandSearchPhaseConfig = new IslandSearchPhaseConfig()
+                .withIslandCount("3")
+                .withParallelTemperingConfig(new ParallelTemperingConfig()
+                        .withMinimumTemperature("1")
+                        .withMaximumTemperature("100")
+                        .withExchangeIntervalStepCount(2))
+                .withPhaseConfigList(Arrays.asList(new ConstructionHeuristicPhaseConfig(), localSearchPhaseConfig));
+        solverConfig.setPhaseConfigList(Collections.singletonList(islandSearchPhaseConfig));
+        DefaultSolver<TestdataSolution> solver = (DefaultSolver<TestdataSolution>) solverFactory.buildSolver();
+        IslandSearchPhase<TestdataSolution> phase = (IslandSearchPhase<TestdataSolution>) solver.getPhaseList().get(0);
+        AtomicReference<double[]> replicaAcceptanceRates = new AtomicReference<>();
+        phase.addPhaseLifecycleListener(new PhaseLifecycleListenerAdapter<TestdataSolution>() {
+            @Override
+            public void phaseEnded(AbstractPhaseScope<TestdataSolution> phaseScope) {
+                replicaAcceptanceRates.set(((IslandSearchPhaseScope) phaseScope).getReplicaAcceptanceRates());
+            }
+        });
+        TestdataSolution solution = solver.solve(buildSolution());
+        assertEquals(3, replicaAcceptanceRates.get().length);
+        for (double replicaAcceptanceRate : replicaAcceptanceRates.get()) {
+            // NaN if the replica never visited that temperature
+            assertFalse(replicaAcceptanceRate < 0.0 || replicaAcceptanceRate > 1.0);
+        }
+        assertTrue(solution.getScore().isSolutionInitialized());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void parallelTemperingAcceptorOutsideIslandSearch() {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils
+                .buildSolverFactory(TestdataSolution.class, TestdataEntity.class);
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig();
+        localSearchPhaseConfig.setAcceptorConfig(new AcceptorConfig()
+                .withAcceptorTypeList(Collections.singletonList(AcceptorType.PARALLEL_TEMPERING)));
+        localSearchPhaseConfig.setTerminationConfig(new TerminationConfig().withStepCountLimit(10));
+        solverFactory.getSolverConfig().setPhaseConfigList(
+                Arrays.asList(new ConstructionHeuristicPhaseConfig(), localSearchPhaseConfig));
+        solverFactory.buildSolver().solve(buildSolution());
+    }
+
+    private void solveWithIslands(boolean islandAcceptors) {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils
+                .buildSolverFactory(TestdataSolution.class, TestdataEntity.class);
+        SolverConfig solverConfig = solverFactory.getSolverConfig();
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig();
+        localSearchPhaseConfig.setTerminationConfig(new TerminationConfig().withStepCountLimit(10));
+        IslandSearchPhaseConfig islandSearchPhaseConfig = new IslandSearchPhaseConfig()
+                .withIslandCount("3")
+                .withMigrationIntervalStepCount(2)
+                .withPhaseConfigList(Arrays.asList(new ConstructionHeuristicPhaseConfig(), localSearchPhaseConfig));
+        if (islandAcceptors) {
+            islandSearchPhaseConfig.setIslandAcceptorConfigList(Arrays.asList(
+                    new AcceptorConfig().withLateAcceptanceSize(10),
+                    new AcceptorConfig().withEntityTabuSize(1)));
+        }
+        solverConfig.setPhaseConfigList(Collections.singletonList(islandSearchPhaseConfig));
+        DefaultSolver<TestdataSolution> solver = (DefaultSolver<TestdataSolution>) solverFactory.buildSolver();
+        IslandSearchPhase<TestdataSolution> phase = (IslandSearchPhase<TestdataSolution>) solver.getPhaseList().get(0);
+        AtomicInteger islandCount = new AtomicInteger(-1);
+        phase.addPhaseLifecycleListener(new PhaseLifecycleListenerAdapter<TestdataSolution>() {
+            @Override
+            public void phaseEnded(AbstractPhaseScope<TestdataSolution> phaseScope) {
+                islandCount.set(((IslandSearchPhaseScope) phaseScope).getIslandCount());
+            }
+        });
+        TestdataSolution solution = solver.solve(buildSolution());
+        assertEquals(3, islandCount.get());
+        // An island's initialized solution is better than the uninitialized starting solution
+        assertTrue(solution.getScore().isSolutionInitialized());
+        for (TestdataEntity entity : solution.getEntityList()) {
+            assertNotNull(entity.getValue());
+        }
+    }
+
+    private TestdataSolution buildSolution() {
+        TestdataSolution solution = new TestdataSolution("s1");
+        solution.setEntityList(IntStream.range(0, 6)
+                .mapToObj(i -> new TestdataEntity("e" + i))
+                .collect(Collectors.toList()));
+        solution.setValueList(IntStream.range(0, 2)
+                .mapToObj(i -> new TestdataValue("v" + i))
+                .collect(Collectors.toList()));
+        return solution;
+    }
+
+}
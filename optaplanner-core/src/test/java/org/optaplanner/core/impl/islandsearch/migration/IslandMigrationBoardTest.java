@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.islandsearch.migration;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.impl.partitionedsearch.scope.PartitionChangeMove;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+
+import static org.junit.Assert.*;
+
+public class IslandMigrationBoardTest {
+
+    @Test
+    public void offerAndPollMigrant() {
+        IslandMigrationBoard<TestdataSolution> migrationBoard = new IslandMigrationBoard<>(SimpleScore.of(-10));
+        assertNull(migrationBoard.pollMigrant(0, SimpleScore.of(-20)));
+
+        PartitionChangeMove<TestdataSolution> move = new PartitionChangeMove<>(Collections.emptyMap(), 1);
+        assertFalse(migrationBoard.offer(1, SimpleScore.of(-10), move));
+        assertTrue(migrationBoard.offer(1, SimpleScore.of(-5), move));
+        assertFalse(migrationBoard.isBetter(SimpleScore.of(-5)));
+        assertTrue(migrationBoard.isBetter(SimpleScore.of(-4)));
+        assertEquals(SimpleScore.of(-5), migrationBoard.getBestScore());
+
+        // The island that found it and islands that don't lag behind don't migrate
+        assertNull(migrationBoard.pollMigrant(1, SimpleScore.of(-20)));
+        assertNull(migrationBoard.pollMigrant(0, SimpleScore.of(-5)));
+        assertSame(move, migrationBoard.pollMigrant(0, SimpleScore.of(-7)));
+        assertSame(move, migrationBoard.pollMigrant(2, SimpleScore.of(-7)));
+        assertEquals(2L, migrationBoard.getMigrationCount());
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.optaplanner.core.impl.localsearch.decider.acceptor.paralleltempering;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.impl.localsearch.decider.acceptor.AbstractAcceptorTest;
+import org.optaplanner.core.impl.localsearch.scope.LocalSearchPhaseScope;
+import org.optaplanner.core.impl.localsearch.scope.LocalSearchStepScope;
+import org.optaplanner.core.impl.solver.scope.DefaultSolverScope;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ParallelTemperingAcceptorTest extends AbstractAcceptorTest {
+
+    @Test
+    public void exchangeStartedByPartner() {
+        ReplicaExchangeLadder ladder = new ReplicaExchangeLadder(SimpleScore.of(1), SimpleScore.of(10), 2, 2);
+        ParallelTemperingAcceptor coldAcceptor = new ParallelTemperingAcceptor();
+        coldAcceptor.setReplica(ladder, 0);
+        LocalSearchPhaseScope<TestdataSolution> coldPhaseScope = buildPhaseScope(-1000);
+        coldAcceptor.phaseStarted(coldPhaseScope);
+        ParallelTemperingAcceptor hotAcceptor = new ParallelTemperingAcceptor();
+        hotAcceptor.setReplica(ladder, 1);
+        LocalSearchPhaseScope<TestdataSolution> hotPhaseScope = buildPhaseScope(-50);
+        hotAcceptor.phaseStarted(hotPhaseScope);
+
+        // The cold replica publishes its score, but the hot replica hasn't yet, so there's no exchange
+        LocalSearchStepScope<TestdataSolution> coldStepScope = startStep(coldAcceptor, coldPhaseScope);
+        // exp(-1 / 1) is lower than 0.5
+        assertFalse(coldAcceptor.isAccepted(buildMoveScope(coldStepScope, -1001)));
+        endStep(coldAcceptor, coldPhaseScope, coldStepScope, -1000, 1L, 4L);
+        endStep(coldAcceptor, coldPhaseScope, startStep(coldAcceptor, coldPhaseScope), -1000, 1L, 4L);
+        assertEquals(0L, ladder.getExchangeAttemptCount());
+
+        // The hot replica starts the exchange and takes the cold rung, because its score is better
+        endStep(hotAcceptor, hotPhaseScope, startStep(hotAcceptor, hotPhaseScope), -50, 5L, 10L);
+        endStep(hotAcceptor, hotPhaseScope, startStep(hotAcceptor, hotPhaseScope), -50, 5L, 10L);
+        assertEquals(1L, ladder.getExchangeCount());
+        assertEquals(1, ladder.getRung(0));
+
+        // The cold replica notices its new hot rung at its next step, without an exchange of its own
+        coldStepScope = startStep(coldAcceptor, coldPhaseScope);
+        assertEquals(10.0, coldAcceptor.temperatureLevels[0], 1e-9);
+        // exp(-1 / 10) is higher than 0.5
+        assertTrue(coldAcceptor.isAccepted(buildMoveScope(coldStepScope, -1001)));
+        endStep(coldAcceptor, coldPhaseScope, coldStepScope, -1001, 3L, 4L);
+        coldAcceptor.phaseEnded(coldPhaseScope);
+        hotAcceptor.phaseEnded(hotPhaseScope);
+
+        // Every move is credited to the rung it was evaluated on
+        assertEquals(2.0 / 8.0, ladder.getAcceptanceRate(0), 1e-9);
+        assertEquals(13.0 / 24.0, ladder.getAcceptanceRate(1), 1e-9);
+    }
+
+    private LocalSearchPhaseScope<TestdataSolution> buildPhaseScope(int score) {
+        DefaultSolverScope<TestdataSolution> solverScope = new DefaultSolverScope<>();
+        solverScope.setBestScore(SimpleScore.of(score));
+        Random workingRandom = mock(Random.class);
+        when(workingRandom.nextDouble()).thenReturn(0.5);
+        solverScope.setWorkingRandom(workingRandom);
+        LocalSearchPhaseScope<TestdataSolution> phaseScope = new LocalSearchPhaseScope<>(solverScope);
+        LocalSearchStepScope<TestdataSolution> lastCompletedStepScope = new LocalSearchStepScope<>(phaseScope, -1);
+        lastCompletedStepScope.setScore(SimpleScore.of(score));
+        phaseScope.setLastCompletedStepScope(lastCompletedStepScope);
+        return phaseScope;
+    }
+
+    private LocalSearchStepScope<TestdataSolution> startStep(ParallelTemperingAcceptor acceptor,
+            LocalSearchPhaseScope<TestdataSolution> phaseScope) {
+        LocalSearchStepScope<TestdataSolution> stepScope = new LocalSearchStepScope<>(phaseScope);
+        acceptor.stepStarted(stepScope);
+        return stepScope;
+    }
+
+    private void endStep(ParallelTemperingAcceptor acceptor, LocalSearchPhaseScope<TestdataSolution> phaseScope,
+            LocalSearchStepScope<TestdataSolution> stepScope, int score,
+            long acceptedMoveCount, long selectedMoveCount) {
+        stepScope.setScore(SimpleScore.of(score));
+        stepScope.setAcceptedMoveCount(acceptedMoveCount);
+        stepScope.setSelectedMoveCount(selectedMoveCount);
+        acceptor.stepEnded(stepScope);
+        phaseScope.setLastCompletedStepScope(stepScope);
+    }
+
+}
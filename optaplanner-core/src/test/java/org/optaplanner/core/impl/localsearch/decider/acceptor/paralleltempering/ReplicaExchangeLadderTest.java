@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.localsearch.decider.acceptor.paralleltempering;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaExchangeLadderTest {
+
+    @Test
+    public void geometricTemperatures() {
+        ReplicaExchangeLadder ladder = new ReplicaExchangeLadder(SimpleScore.of(1), SimpleScore.of(100), 3, 10);
+        assertEquals(1.0, ladder.getRungTemperatureLevels(0)[0], 1e-9);
+        assertEquals(10.0, ladder.getRungTemperatureLevels(1)[0], 1e-9);
+        assertEquals(100.0, ladder.getRungTemperatureLevels(2)[0], 1e-9);
+        assertEquals(10.0, ladder.getTemperatureLevels(1)[0], 1e-9);
+    }
+
+    @Test
+    public void singleReplica() {
+        ReplicaExchangeLadder ladder = new ReplicaExchangeLadder(SimpleScore.of(5), SimpleScore.of(100), 1, 10);
+        assertEquals(5.0, ladder.getTemperatureLevels(0)[0], 1e-9);
+        ladder.registerMoveCounts(0, 3L, 4L);
+        assertFalse(ladder.exchange(0, SimpleScore.of(-10), new Random(37)));
+        assertEquals(0.75, ladder.getAcceptanceRate(0), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroMinimumTemperature() {
+        new ReplicaExchangeLadder(SimpleScore.of(0), SimpleScore.of(100), 2, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maximumTemperatureLowerThanMinimum() {
+        new ReplicaExchangeLadder(SimpleScore.of(10), SimpleScore.of(1), 2, 10);
+    }
+
+    @Test
+    public void exchange() {
+        ReplicaExchangeLadder ladder = new ReplicaExchangeLadder(SimpleScore.of(1), SimpleScore.of(10), 2, 10);
+        Random workingRandom = mock(Random.class);
+        when(workingRandom.nextDouble()).thenReturn(0.5);
+        // The other replica hasn't published a score yet
+        ladder.registerMoveCounts(0, 1L, 10L);
+        assertFalse(ladder.exchange(0, SimpleScore.of(-100), workingRandom));
+        assertEquals(0L, ladder.getExchangeAttemptCount());
+        // The hot replica has a better score, so it always goes to the cold rung
+        ladder.registerMoveCounts(1, 5L, 10L);
+        assertTrue(ladder.exchange(1, SimpleScore.of(-50), workingRandom));
+        assertEquals(0, ladder.getRung(1));
+        assertEquals(1, ladder.getRung(0));
+        assertEquals(1.0, ladder.getTemperatureLevels(1)[0], 1e-9);
+        assertEquals(10.0, ladder.getTemperatureLevels(0)[0], 1e-9);
+        assertEquals(1L, ladder.getExchangeAttemptCount());
+        assertEquals(1L, ladder.getExchangeCount());
+        // The acceptance rates are registered on the rung the moves were evaluated on
+        assertEquals(0.1, ladder.getAcceptanceRate(0), 1e-9);
+        assertEquals(0.5, ladder.getAcceptanceRate(1), 1e-9);
+        // Now the cold replica has a much better score: exp((1/10 - 1/1) * (-50 - -100)) is almost 0
+        assertFalse(ladder.exchange(0, SimpleScore.of(-100), workingRandom));
+        assertEquals(1, ladder.getRung(0));
+        assertEquals(2L, ladder.getExchangeAttemptCount());
+        assertEquals(1L, ladder.getExchangeCount());
+    }
+
+    @Test
+    public void exchangeChance() {
+        ReplicaExchangeLadder ladder = new ReplicaExchangeLadder(SimpleScore.of(1), SimpleScore.of(2), 2, 10);
+        // exp((1/1 - 1/2) * (-2 - 0)) = exp(-1)
+        assertEquals(Math.exp(-1.0), ladder.calculateExchangeChance(
+                new double[]{1.0}, new double[]{0.0}, new double[]{2.0}, new double[]{-2.0}), 1e-9);
+        assertEquals(1.0, ladder.calculateExchangeChance(
+                new double[]{1.0}, new double[]{-2.0}, new double[]{2.0}, new double[]{0.0}), 1e-9);
+    }
+
+}
@@ -21,6 +21,7 @@ import java.util.Collection;
 
 import org.junit.Test;
 import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.config.localsearch.decider.acceptor.tabu.TabuStoreType;
 import org.optaplanner.core.impl.heuristic.move.Move;
 import org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.size.FixedTabuSizeStrategy;
 import org.optaplanner.core.impl.localsearch.scope.LocalSearchMoveScope;
@@ -248,6 +249,36 @@ public class EntityTabuAcceptorTest {
         acceptor.phaseEnded(phaseScope);
     }
 
+    @Test
+    public void openAddressingWithAssertTabuHashCodeCorrectness() {
+        EntityTabuAcceptor acceptor = new EntityTabuAcceptor("");
+        acceptor.setTabuSizeStrategy(new FixedTabuSizeStrategy(2));
+        acceptor.setTabuStoreType(TabuStoreType.OPEN_ADDRESSING);
+        acceptor.setAssertTabuHashCodeCorrectness(true);
+
+        TestdataEntity e0 = new CodeEqualsTestdataEntity("e0");
+        TestdataEntity e1 = new CodeEqualsTestdataEntity("e1");
+        // Equal to e1, but another instance, so it's not the same tabu
+        TestdataEntity e1Copy = new CodeEqualsTestdataEntity("e1");
+
+        DefaultSolverScope<TestdataSolution> solverScope = new DefaultSolverScope<>();
+        solverScope.setBestScore(SimpleScore.of(0));
+        LocalSearchPhaseScope<TestdataSolution> phaseScope = new LocalSearchPhaseScope<>(solverScope);
+        acceptor.phaseStarted(phaseScope);
+
+        LocalSearchStepScope<TestdataSolution> stepScope0 = new LocalSearchStepScope<>(phaseScope);
+        stepScope0.setStep(buildMoveScope(stepScope0, e1).getMove());
+        acceptor.stepEnded(stepScope0);
+        phaseScope.setLastCompletedStepScope(stepScope0);
+
+        LocalSearchStepScope<TestdataSolution> stepScope1 = new LocalSearchStepScope<>(phaseScope);
+        assertEquals(true, acceptor.isAccepted(buildMoveScope(stepScope1, e0)));
+        assertEquals(false, acceptor.isAccepted(buildMoveScope(stepScope1, e1)));
+        assertEquals(true, acceptor.isAccepted(buildMoveScope(stepScope1, e1Copy)));
+
+        acceptor.phaseEnded(phaseScope);
+    }
+
     private <Solution_> LocalSearchMoveScope<Solution_> buildMoveScope(
             LocalSearchStepScope<Solution_> stepScope, TestdataEntity... entities) {
         return buildMoveScope(stepScope, 0, entities);
@@ -262,4 +293,22 @@ public class EntityTabuAcceptorTest {
         return moveScope;
     }
 
+    private static class CodeEqualsTestdataEntity extends TestdataEntity {
+
+        public CodeEqualsTestdataEntity(String code) {
+            super(code);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CodeEqualsTestdataEntity && getCode().equals(((CodeEqualsTestdataEntity) o).getCode());
+        }
+
+        @Override
+        public int hashCode() {
+            return getCode().hashCode();
+        }
+
+    }
+
 }
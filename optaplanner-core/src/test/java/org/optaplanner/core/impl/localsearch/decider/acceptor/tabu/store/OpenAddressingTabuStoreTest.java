@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.localsearch.decider.acceptor.tabu.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OpenAddressingTabuStoreTest {
+
+    @Test
+    public void identityBased() {
+        OpenAddressingTabuStore tabuStore = new OpenAddressingTabuStore(true, 4);
+        String a = new String("a");
+        String aCopy = new String("a");
+        tabuStore.addTabu(a, 0);
+        assertEquals(0, tabuStore.getTabuStepIndex(a));
+        assertEquals(-1, tabuStore.getTabuStepIndex(aCopy));
+    }
+
+    @Test
+    public void equalsBased() {
+        OpenAddressingTabuStore tabuStore = new OpenAddressingTabuStore(false, 4);
+        tabuStore.addTabu(new String("a"), 0);
+        tabuStore.addTabu(1000, 1);
+        assertEquals(0, tabuStore.getTabuStepIndex(new String("a")));
+        assertEquals(1, tabuStore.getTabuStepIndex(1000));
+        assertEquals(-1, tabuStore.getTabuStepIndex(1001));
+    }
+
+    @Test
+    public void nullTabu() {
+        OpenAddressingTabuStore tabuStore = new OpenAddressingTabuStore(false, 4);
+        assertEquals(-1, tabuStore.getTabuStepIndex(null));
+        tabuStore.addTabu(null, 0);
+        assertEquals(0, tabuStore.getTabuStepIndex(null));
+        List<Object> tabuList = toList(tabuStore.getTabus());
+        assertEquals(1, tabuList.size());
+        assertNull(tabuList.get(0));
+        tabuStore.expireTabus(1, 1);
+        assertEquals(-1, tabuStore.getTabuStepIndex(null));
+    }
+
+    @Test
+    public void expireTabus() {
+        OpenAddressingTabuStore tabuStore = new OpenAddressingTabuStore(false, 4);
+        tabuStore.addTabu("a", 0);
+        tabuStore.addTabu("b", 1);
+        tabuStore.addTabu("c", 2);
+        tabuStore.expireTabus(3, 2);
+        assertEquals(-1, tabuStore.getTabuStepIndex("a"));
+        assertEquals(-1, tabuStore.getTabuStepIndex("b"));
+        assertEquals(2, tabuStore.getTabuStepIndex("c"));
+        assertEquals(1, tabuStore.getTabuCount());
+    }
+
+    @Test
+    public void addTabuAgainPushesItToTheEndOfTheLine() {
+        OpenAddressingTabuStore tabuStore = new OpenAddressingTabuStore(false, 4);
+        tabuStore.addTabu("a", 0);
+        tabuStore.addTabu("b", 1);
+        tabuStore.addTabu("a", 2);
+        assertEquals(2, tabuStore.getTabuCount());
+        assertEquals(2, tabuStore.getTabuStepIndex("a"));
+        List<Object> tabuList = toList(tabuStore.getTabus());
+        assertEquals(2, tabuList.size());
+        assertEquals("b", tabuList.get(0));
+        assertEquals("a", tabuList.get(1));
+        tabuStore.expireTabus(3, 2);
+        assertEquals(-1, tabuStore.getTabuStepIndex("b"));
+        assertEquals(2, tabuStore.getTabuStepIndex("a"));
+    }
+
+    @Test
+    public void growBeyondInitialCapacity() {
+        OpenAddressingTabuStore tabuStore = new OpenAddressingTabuStore(true, 0);
+        List<Object> tabuList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Object tabu = new Object();
+            tabuList.add(tabu);
+            tabuStore.addTabu(tabu, i);
+        }
+        assertEquals(1000, tabuStore.getTabuCount());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, tabuStore.getTabuStepIndex(tabuList.get(i)));
+        }
+        assertEquals(tabuList, toList(tabuStore.getTabus()));
+    }
+
+    @Test
+    public void sameBehaviorAsHashMapTabuStore() {
+        Random random = new Random(37);
+        OpenAddressingTabuStore openAddressingTabuStore = new OpenAddressingTabuStore(false, 8);
+        HashMapTabuStore hashMapTabuStore = new HashMapTabuStore(8);
+        int tabuSize = 7;
+        for (int stepIndex = 0; stepIndex < 10000; stepIndex++) {
+            openAddressingTabuStore.expireTabus(stepIndex, tabuSize);
+            hashMapTabuStore.expireTabus(stepIndex, tabuSize);
+            int tabuCount = random.nextInt(3);
+            for (int i = 0; i < tabuCount; i++) {
+                Integer tabu = random.nextInt(50);
+                openAddressingTabuStore.addTabu(tabu, stepIndex);
+                hashMapTabuStore.addTabu(tabu, stepIndex);
+            }
+            for (int tabu = 0; tabu < 50; tabu++) {
+                assertEquals(hashMapTabuStore.getTabuStepIndex(tabu), openAddressingTabuStore.getTabuStepIndex(tabu));
+            }
+            assertEquals(toList(hashMapTabuStore.getTabus()), toList(openAddressingTabuStore.getTabus()));
+        }
+    }
+
+    private static List<Object> toList(Iterable<Object> tabus) {
+        List<Object> tabuList = new ArrayList<>();
+        tabus.forEach(tabuList::add);
+        return tabuList;
+    }
+
+}
@@ -21,6 +21,7 @@ import java.util.Random;
 import org.junit.Test;
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.api.score.holder.ScoreAccumulator;
 import org.optaplanner.core.config.localsearch.decider.forager.LocalSearchPickEarlyType;
 import org.optaplanner.core.impl.heuristic.move.DummyMove;
 import org.optaplanner.core.impl.localsearch.decider.forager.finalist.HighestScoreFinalistPodium;
@@ -69,6 +70,67 @@ public class AcceptedLocalSearchForagerTest {
         forager.phaseEnded(phaseScope);
     }
 
+    @Test
+    public void pickMoveMaxScoreAcceptedWithScoreAccumulator() {
+        // Setup
+        LocalSearchForager forager = new AcceptedLocalSearchForager(new HighestScoreFinalistPodium(),
+                LocalSearchPickEarlyType.NEVER, Integer.MAX_VALUE, true);
+        LocalSearchPhaseScope<TestdataSolution> phaseScope = createPhaseScope();
+        forager.phaseStarted(phaseScope);
+        LocalSearchStepScope<TestdataSolution> stepScope = new LocalSearchStepScope<>(phaseScope);
+        forager.stepStarted(stepScope);
+        // The same mutable accumulator is reused for every move, like the score director does
+        SimpleTestScoreAccumulator scoreAccumulator = new SimpleTestScoreAccumulator();
+        // Do stuff
+        LocalSearchMoveScope<TestdataSolution> a = addMoveWithScoreAccumulator(forager, stepScope, scoreAccumulator, -20, true);
+        addMoveWithScoreAccumulator(forager, stepScope, scoreAccumulator, -1, false);
+        addMoveWithScoreAccumulator(forager, stepScope, scoreAccumulator, -20, false);
+        LocalSearchMoveScope<TestdataSolution> d = addMoveWithScoreAccumulator(forager, stepScope, scoreAccumulator, -2, true);
+        LocalSearchMoveScope<TestdataSolution> e = addMoveWithScoreAccumulator(forager, stepScope, scoreAccumulator, -300, true);
+        LocalSearchMoveScope pickedScope = forager.pickMove(stepScope);
+        // Post conditions
+        assertSame(d, pickedScope);
+        assertEquals(SimpleScore.of(-2), pickedScope.getScore());
+        assertEquals(SimpleScore.of(-20), a.getScore());
+        // Only the moves that became a finalist created a Score
+        assertNull(e.getScore());
+        assertEquals(2, scoreAccumulator.extractCount);
+        forager.phaseEnded(phaseScope);
+    }
+
+    private LocalSearchMoveScope<TestdataSolution> addMoveWithScoreAccumulator(LocalSearchForager forager,
+            LocalSearchStepScope<TestdataSolution> stepScope, SimpleTestScoreAccumulator scoreAccumulator,
+            int score, boolean accepted) {
+        LocalSearchMoveScope<TestdataSolution> moveScope = new LocalSearchMoveScope<>(stepScope, 0, new DummyMove());
+        scoreAccumulator.score = score;
+        moveScope.setScoreAccumulator(scoreAccumulator, 0);
+        moveScope.setAccepted(accepted);
+        forager.addMove(moveScope);
+        moveScope.detachScoreAccumulator();
+        return moveScope;
+    }
+
+    private static class SimpleTestScoreAccumulator implements ScoreAccumulator<SimpleScore> {
+
+        private int score = 0;
+        private int extractCount = 0;
+
+        @Override
+        public SimpleScore extractScore(int initScore) {
+            extractCount++;
+            return SimpleScore.ofUninitialized(initScore, score);
+        }
+
+        @Override
+        public int compareToScore(int initScore, SimpleScore other) {
+            if (initScore != other.getInitScore()) {
+                return initScore < other.getInitScore() ? -1 : 1;
+            }
+            return Integer.compare(score, other.getScore());
+        }
+
+    }
+
     @Test
     public void pickMoveMaxScoreUnaccepted() {
         // Setup
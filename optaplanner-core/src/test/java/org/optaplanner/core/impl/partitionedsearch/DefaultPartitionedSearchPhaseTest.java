@@ -24,6 +24,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -78,6 +79,59 @@ public class DefaultPartitionedSearchPhaseTest {
         solver.solve(createSolution(partCount * partSize, 2));
     }
 
+    @Test(timeout = 5000)
+    public void repartitionWithMorePartsThanThreads() {
+        final int partSize = 2;
+        final int partCount = 4;
+        SolverFactory<TestdataSolution> solverFactory = createSolverFactory(true, SolverConfig.MOVE_THREAD_COUNT_NONE);
+        SolverConfig solverConfig = solverFactory.getSolverConfig();
+        setPartSize(solverConfig, partSize);
+        PartitionedSearchPhaseConfig phaseConfig = (PartitionedSearchPhaseConfig) solverConfig.getPhaseConfigList().get(0);
+        phaseConfig.getSolutionPartitionerCustomProperties().put("repartitioning", "true");
+        phaseConfig.setRunnablePartThreadLimit("2");
+        phaseConfig.setPartMillisecondsSpentLimit(20L);
+        DefaultSolver<TestdataSolution> solver = (DefaultSolver<TestdataSolution>) solverFactory.buildSolver();
+        PartitionedSearchPhase<TestdataSolution> phase
+                = (PartitionedSearchPhase<TestdataSolution>) solver.getPhaseList().get(0);
+        AtomicInteger roundCount = new AtomicInteger(-1);
+        phase.addPhaseLifecycleListener(new PhaseLifecycleListenerAdapter<TestdataSolution>() {
+            @Override
+            public void phaseEnded(AbstractPhaseScope<TestdataSolution> phaseScope) {
+                roundCount.set(((PartitionedSearchPhaseScope) phaseScope).getRoundCount());
+            }
+        });
+        TestdataSolution solution = solver.solve(createSolution(partCount * partSize, 2));
+        assertTrue(solution.getScore().isSolutionInitialized());
+        // The first round initializes the solution, the second round can't improve a score that is always zero
+        assertEquals(2, roundCount.get());
+    }
+
+    @Test(timeout = 5000)
+    public void noRepartitionWithoutSupport() {
+        final int partSize = 2;
+        final int partCount = 4;
+        SolverFactory<TestdataSolution> solverFactory = createSolverFactory(true, SolverConfig.MOVE_THREAD_COUNT_NONE);
+        SolverConfig solverConfig = solverFactory.getSolverConfig();
+        setPartSize(solverConfig, partSize);
+        PartitionedSearchPhaseConfig phaseConfig = (PartitionedSearchPhaseConfig) solverConfig.getPhaseConfigList().get(0);
+        phaseConfig.setRunnablePartThreadLimit("2");
+        phaseConfig.setPartMillisecondsSpentLimit(20L);
+        DefaultSolver<TestdataSolution> solver = (DefaultSolver<TestdataSolution>) solverFactory.buildSolver();
+        PartitionedSearchPhase<TestdataSolution> phase
+                = (PartitionedSearchPhase<TestdataSolution>) solver.getPhaseList().get(0);
+        AtomicInteger roundCount = new AtomicInteger(-1);
+        phase.addPhaseLifecycleListener(new PhaseLifecycleListenerAdapter<TestdataSolution>() {
+            @Override
+            public void phaseEnded(AbstractPhaseScope<TestdataSolution> phaseScope) {
+                roundCount.set(((PartitionedSearchPhaseScope) phaseScope).getRoundCount());
+            }
+        });
+        TestdataSolution solution = solver.solve(createSolution(partCount * partSize, 2));
+        assertTrue(solution.getScore().isSolutionInitialized());
+        // The partitioner would split the same way again, so it doesn't repartition
+        assertEquals(1, roundCount.get());
+    }
+
     private static SolverFactory<TestdataSolution> createSolverFactory(boolean infinite, String moveThreadCount) {
         SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils
                 .buildSolverFactory(TestdataSolution.class, TestdataEntity.class);
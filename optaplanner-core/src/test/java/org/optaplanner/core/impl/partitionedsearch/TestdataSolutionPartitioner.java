@@ -16,6 +16,7 @@
 package org.optaplanner.core.impl.partitionedsearch;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.optaplanner.core.impl.partitionedsearch.partitioner.SolutionPartitioner;
@@ -29,16 +30,37 @@ public class TestdataSolutionPartitioner implements SolutionPartitioner<Testdata
      * {@link PartitionedSearchPhaseConfig#solutionPartitionerCustomProperties Custom property}.
      */
     private int partSize = 1;
+    /**
+     * {@link PartitionedSearchPhaseConfig#solutionPartitionerCustomProperties Custom property}.
+     */
+    private boolean repartitioning = false;
 
     public void setPartSize(int partSize) {
         this.partSize = partSize;
     }
 
+    public void setRepartitioning(boolean repartitioning) {
+        this.repartitioning = repartitioning;
+    }
+
+    @Override
+    public boolean isRepartitioningSupported() {
+        return repartitioning;
+    }
+
     @Override
     public List<TestdataSolution> splitWorkingSolution(ScoreDirector<TestdataSolution> scoreDirector,
             Integer runnablePartThreadLimit) {
+        return splitWorkingSolution(scoreDirector, runnablePartThreadLimit, 0);
+    }
+
+    @Override
+    public List<TestdataSolution> splitWorkingSolution(ScoreDirector<TestdataSolution> scoreDirector,
+            Integer runnablePartThreadLimit, int roundIndex) {
         TestdataSolution workingSolution = scoreDirector.getWorkingSolution();
-        List<TestdataEntity> allEntities = workingSolution.getEntityList();
+        List<TestdataEntity> allEntities = new ArrayList<>(workingSolution.getEntityList());
+        // Shift the borders of the parts every round
+        Collections.rotate(allEntities, roundIndex);
         if (allEntities.size() % partSize > 0) {
             throw new IllegalStateException("This partitioner can only make equally sized partitions."
                     + " This is impossible because number of allEntities (" + allEntities.size()
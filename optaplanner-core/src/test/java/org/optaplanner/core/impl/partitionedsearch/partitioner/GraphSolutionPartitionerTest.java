@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.partitionedsearch.partitioner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
+import org.optaplanner.core.impl.testdata.domain.chained.TestdataChainedSolution;
+import org.optaplanner.core.impl.testdata.util.PlannerTestUtils;
+
+import static org.junit.Assert.*;
+
+public class GraphSolutionPartitionerTest {
+
+    @Test
+    public void splitWorkingSolutionByValue() {
+        SolutionDescriptor<TestdataSolution> solutionDescriptor = TestdataSolution.buildSolutionDescriptor();
+        InnerScoreDirector<TestdataSolution> scoreDirector = PlannerTestUtils.mockScoreDirector(solutionDescriptor);
+        int valueCount = 4;
+        int entityCountPerValue = 25;
+        List<TestdataValue> valueList = new ArrayList<>(valueCount);
+        for (int i = 0; i < valueCount; i++) {
+            valueList.add(new TestdataValue("v" + i));
+        }
+        List<TestdataEntity> entityList = new ArrayList<>(valueCount * entityCountPerValue);
+        for (int i = 0; i < valueCount * entityCountPerValue; i++) {
+            // Interleaved, so the order of the entity list doesn't give the partitioning away
+            entityList.add(new TestdataEntity("e" + i, valueList.get(i % valueCount)));
+        }
+        TestdataSolution solution = new TestdataSolution("s1");
+        solution.setValueList(valueList);
+        solution.setEntityList(entityList);
+        scoreDirector.setWorkingSolution(solution);
+
+        GraphSolutionPartitioner<TestdataSolution> partitioner = new GraphSolutionPartitioner<>();
+        partitioner.setPartCount(valueCount);
+        partitioner.setMinimumPartSize(1);
+        List<TestdataSolution> partList = partitioner.splitWorkingSolution(scoreDirector, null);
+        assertEquals(valueCount, partList.size());
+        Set<String> partEntityCodeSet = new HashSet<>();
+        Set<TestdataValue> partValueSet = new HashSet<>();
+        for (TestdataSolution part : partList) {
+            assertEquals(entityCountPerValue, part.getEntityList().size());
+            TestdataValue partValue = part.getEntityList().get(0).getValue();
+            for (TestdataEntity partEntity : part.getEntityList()) {
+                assertSame(partValue, partEntity.getValue());
+                assertFalse(entityList.contains(partEntity));
+                partEntityCodeSet.add(partEntity.getCode());
+            }
+            assertTrue(partValueSet.add(partValue));
+            assertTrue(valueList.contains(partValue));
+        }
+        assertEquals(entityList.size(), partEntityCodeSet.size());
+        // The working solution is never changed
+        assertSame(entityList, solution.getEntityList());
+        assertEquals(valueCount * entityCountPerValue, entityList.size());
+    }
+
+    @Test
+    public void splitSmallWorkingSolutionInOnePart() {
+        SolutionDescriptor<TestdataSolution> solutionDescriptor = TestdataSolution.buildSolutionDescriptor();
+        InnerScoreDirector<TestdataSolution> scoreDirector = PlannerTestUtils.mockScoreDirector(solutionDescriptor);
+        TestdataValue v1 = new TestdataValue("v1");
+        List<TestdataEntity> entityList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            entityList.add(new TestdataEntity("e" + i, v1));
+        }
+        TestdataSolution solution = new TestdataSolution("s1");
+        solution.setValueList(new ArrayList<>(Collections.singletonList(v1)));
+        solution.setEntityList(entityList);
+        scoreDirector.setWorkingSolution(solution);
+
+        GraphSolutionPartitioner<TestdataSolution> partitioner = new GraphSolutionPartitioner<>();
+        partitioner.setPartCount(4);
+        List<TestdataSolution> partList = partitioner.splitWorkingSolution(scoreDirector, null);
+        assertEquals(1, partList.size());
+        assertEquals(10, partList.get(0).getEntityList().size());
+    }
+
+    @Test
+    public void resolvePartCount() {
+        GraphSolutionPartitioner<TestdataSolution> partitioner = new GraphSolutionPartitioner<>();
+        partitioner.setMinimumPartSize(1);
+        // A multiple of the runnablePartThreadLimit, so a thread that finishes a part early can take another one
+        assertEquals(8, partitioner.resolvePartCount(1000, 4));
+        partitioner.setPartCountPerRunnableThread(3);
+        assertEquals(12, partitioner.resolvePartCount(1000, 4));
+        // The minimumPartSize still lowers it
+        partitioner.setMinimumPartSize(100);
+        assertEquals(10, partitioner.resolvePartCount(1000, 4));
+        partitioner.setPartCount(5);
+        assertEquals(5, partitioner.resolvePartCount(1000, 4));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void clonePartSolutionsWithUnassignedEntity() {
+        SolutionDescriptor<TestdataSolution> solutionDescriptor = TestdataSolution.buildSolutionDescriptor();
+        TestdataValue v1 = new TestdataValue("v1");
+        TestdataEntity e1 = new TestdataEntity("e1", v1);
+        TestdataEntity e2 = new TestdataEntity("e2", v1);
+        TestdataSolution solution = new TestdataSolution("s1");
+        solution.setValueList(new ArrayList<>(Collections.singletonList(v1)));
+        solution.setEntityList(new ArrayList<>(Arrays.asList(e1, e2)));
+        // e2 has no part
+        new GraphSolutionPartitioner<TestdataSolution>().clonePartSolutions(solutionDescriptor, solution,
+                Collections.singletonList(e1), new int[]{0}, 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void chainedVariablesAreNotSupported() {
+        SolutionDescriptor<TestdataChainedSolution> solutionDescriptor
+                = TestdataChainedSolution.buildSolutionDescriptor();
+        InnerScoreDirector<TestdataChainedSolution> scoreDirector
+                = PlannerTestUtils.mockScoreDirector(solutionDescriptor);
+        new GraphSolutionPartitioner<TestdataChainedSolution>().splitWorkingSolution(scoreDirector, null);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.partitionedsearch.partitioner;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.MultilevelGraphPartitioner.Graph;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.MultilevelGraphPartitioner.GraphBuilder;
+
+import static org.junit.Assert.*;
+
+public class MultilevelGraphPartitionerTest {
+
+    @Test
+    public void buildMergesDuplicateEdges() {
+        GraphBuilder builder = new GraphBuilder(3);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(1, 0, 2);
+        builder.addEdge(1, 2, 1);
+        builder.addEdge(2, 2, 5);
+        Graph graph = builder.build();
+        assertEquals(3, graph.getNodeCount());
+        assertEquals(3L, graph.calculateEdgeCut(new int[]{0, 1, 1}));
+        assertEquals(1L, graph.calculateEdgeCut(new int[]{0, 0, 1}));
+        assertEquals(0L, graph.calculateEdgeCut(new int[]{0, 0, 0}));
+    }
+
+    @Test
+    public void partitionTwoCliquesAlongTheBridge() {
+        int cliqueSize = 50;
+        GraphBuilder builder = new GraphBuilder(cliqueSize * 2);
+        for (int clique = 0; clique < 2; clique++) {
+            for (int i = 0; i < cliqueSize; i++) {
+                builder.addNodeWeight(clique * cliqueSize + i, 1);
+                for (int j = i + 1; j < cliqueSize; j++) {
+                    builder.addEdge(clique * cliqueSize + i, clique * cliqueSize + j, 1);
+                }
+            }
+        }
+        builder.addEdge(cliqueSize - 1, cliqueSize, 1);
+        Graph graph = builder.build();
+        for (long seed = 0L; seed < 10L; seed++) {
+            int[] parts = new MultilevelGraphPartitioner(2, 0.05, new Random(seed)).partition(graph);
+            assertEquals(1L, graph.calculateEdgeCut(parts));
+            for (int i = 1; i < cliqueSize; i++) {
+                assertEquals(parts[0], parts[i]);
+                assertEquals(parts[cliqueSize], parts[cliqueSize + i]);
+            }
+            assertNotEquals(parts[0], parts[cliqueSize]);
+        }
+    }
+
+    @Test
+    public void partitionIsBalanced() {
+        int side = 40;
+        GraphBuilder builder = new GraphBuilder(side * side);
+        for (int node = 0; node < side * side; node++) {
+            builder.addNodeWeight(node, 1);
+            if (node % side + 1 < side) {
+                builder.addEdge(node, node + 1, 1);
+            }
+            if (node + side < side * side) {
+                builder.addEdge(node, node + side, 1);
+            }
+        }
+        Graph graph = builder.build();
+        int partCount = 4;
+        int[] parts = new MultilevelGraphPartitioner(partCount, 0.05, new Random(0L)).partition(graph);
+        int[] partSizes = new int[partCount];
+        for (int part : parts) {
+            partSizes[part]++;
+        }
+        int maximumPartSize = (int) Math.ceil(1.05 * side * side / partCount);
+        for (int partSize : partSizes) {
+            assertTrue(partSize > 0);
+            assertTrue(partSize <= maximumPartSize);
+        }
+        // Cutting the grid in 4 strips costs 3 * side, a good partition does at least as well
+        assertTrue(graph.calculateEdgeCut(parts) <= 3L * side);
+    }
+
+    @Test
+    public void partitionInOnePart() {
+        GraphBuilder builder = new GraphBuilder(2);
+        builder.addEdge(0, 1, 1);
+        int[] parts = new MultilevelGraphPartitioner(1, 0.05, new Random(0L)).partition(builder.build());
+        assertArrayEquals(new int[]{0, 0}, parts);
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.optaplanner.core.impl.score.director;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.impl.domain.ordinal.OrdinalManager;
+import org.optaplanner.core.impl.score.director.easy.EasyScoreCalculator;
+import org.optaplanner.core.impl.score.director.easy.EasyScoreDirector;
+import org.optaplanner.core.impl.score.director.easy.EasyScoreDirectorFactory;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
+
+import static org.junit.Assert.*;
+
+public class AbstractScoreDirectorTest {
+
+    @Test
+    public void ordinalManagerIsBuiltLazily() {
+        EasyScoreDirectorFactory<TestdataSolution> scoreDirectorFactory = new EasyScoreDirectorFactory<>(
+                TestdataSolution.buildSolutionDescriptor(),
+                (EasyScoreCalculator<TestdataSolution>) (solution_) -> SimpleScore.of(0));
+        EasyScoreDirector<TestdataSolution> scoreDirector = scoreDirectorFactory.buildScoreDirector(false, false);
+
+        TestdataSolution solution = new TestdataSolution("s1");
+        TestdataValue v1 = new TestdataValue("v1");
+        solution.setValueList(Arrays.asList(v1));
+        TestdataEntity e1 = new TestdataEntity("e1", v1);
+        solution.setEntityList(new ArrayList<>(Arrays.asList(e1)));
+        scoreDirector.setWorkingSolution(solution);
+        // No supply of this domain needs ordinals
+        assertNull(scoreDirector.ordinalManager);
+
+        TestdataEntity e2 = new TestdataEntity("e2", v1);
+        scoreDirector.beforeEntityAdded(e2);
+        solution.getEntityList().add(e2);
+        scoreDirector.afterEntityAdded(e2);
+        assertNull(scoreDirector.ordinalManager);
+
+        OrdinalManager ordinalManager = scoreDirector.getOrdinalManager();
+        assertSame(ordinalManager, scoreDirector.getOrdinalManager());
+        assertEquals(3, ordinalManager.getOrdinalLimit());
+        assertTrue(ordinalManager.getOrdinal(e2) >= 0);
+
+        TestdataEntity e3 = new TestdataEntity("e3", v1);
+        scoreDirector.beforeEntityAdded(e3);
+        solution.getEntityList().add(e3);
+        scoreDirector.afterEntityAdded(e3);
+        assertEquals(3, ordinalManager.getOrdinal(e3));
+
+        scoreDirector.setWorkingSolution(solution);
+        assertNull(scoreDirector.ordinalManager);
+        scoreDirector.close();
+    }
+
+}
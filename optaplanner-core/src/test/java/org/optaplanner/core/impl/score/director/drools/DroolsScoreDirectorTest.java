@@ -15,13 +15,25 @@
  */
 package org.optaplanner.core.impl.score.director.drools;
 
+import java.util.Arrays;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.kie.api.runtime.KieSession;
 import org.kie.internal.event.rule.RuleEventManager;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import org.optaplanner.core.config.SolverConfigContext;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
 import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.ChangeMove;
 import org.optaplanner.core.impl.score.buildin.simple.SimpleScoreDefinition;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -54,6 +66,52 @@ public class DroolsScoreDirectorTest {
         assertNotNull(director.getIndictmentMap());
     }
 
+    @Test
+    public void scoreAccumulatorDisabledByDefault() {
+        InnerScoreDirector<TestdataSolution> scoreDirector = buildTestdataScoreDirector(null);
+        assertFalse(scoreDirector.supportsScoreAccumulator());
+    }
+
+    @Test
+    public void scoreAccumulatorMatchesCalculateScore() {
+        InnerScoreDirector<TestdataSolution> scoreDirector = buildTestdataScoreDirector(true);
+        assertTrue(scoreDirector.supportsScoreAccumulator());
+        TestdataValue v1 = new TestdataValue("v1");
+        TestdataValue v2 = new TestdataValue("v2");
+        TestdataEntity a = new TestdataEntity("a", v1);
+        TestdataEntity b = new TestdataEntity("b", v1);
+        TestdataEntity c = new TestdataEntity("c", v2);
+        TestdataSolution solution = new TestdataSolution("solution");
+        solution.setValueList(Arrays.asList(v1, v2));
+        solution.setEntityList(Arrays.asList(a, b, c));
+        scoreDirector.setWorkingSolution(solution);
+        scoreDirector.calculateScore();
+
+        for (ChangeMove<TestdataSolution> move : Arrays.asList(
+                new ChangeMove<>(c, TestdataEntity.buildVariableDescriptorForValue(), v1),
+                new ChangeMove<>(b, TestdataEntity.buildVariableDescriptorForValue(), v2),
+                new ChangeMove<>(a, TestdataEntity.buildVariableDescriptorForValue(), null))) {
+            Score[] expectedScore = new Score[1];
+            scoreDirector.doAndProcessMove(move, false, score -> expectedScore[0] = score);
+            scoreDirector.doAndProcessMoveWithScoreAccumulator(move, (scoreAccumulator, initScore) -> {
+                assertEquals(expectedScore[0], scoreAccumulator.extractScore(initScore));
+                assertEquals(0, scoreAccumulator.compareToScore(initScore, expectedScore[0]));
+                assertTrue(scoreAccumulator.compareToScore(initScore,
+                        ((SimpleScore) expectedScore[0]).add(SimpleScore.of(1))) < 0);
+            });
+        }
+        // Every move was undone
+        assertEquals(SimpleScore.of(-5), scoreDirector.calculateScore());
+    }
+
+    private InnerScoreDirector<TestdataSolution> buildTestdataScoreDirector(Boolean scoreAccumulatorEnabled) {
+        ScoreDirectorFactoryConfig config = new ScoreDirectorFactoryConfig()
+                .withScoreDrls("org/optaplanner/core/api/solver/testdataScoreRules.drl")
+                .withScoreAccumulatorEnabled(scoreAccumulatorEnabled);
+        return config.<TestdataSolution>buildScoreDirectorFactory(new SolverConfigContext(),
+                EnvironmentMode.REPRODUCIBLE, TestdataSolution.buildSolutionDescriptor()).buildScoreDirector();
+    }
+
     @SuppressWarnings("unchecked")
     private DroolsScoreDirectorFactory<Object> mockDroolsScoreDirectorFactory() {
         DroolsScoreDirectorFactory<Object> factory = mock(DroolsScoreDirectorFactory.class);
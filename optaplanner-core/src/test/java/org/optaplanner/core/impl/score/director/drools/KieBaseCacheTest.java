@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.score.director.drools;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataObject;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class KieBaseCacheTest {
+
+    @Test
+    public void computeIfAbsent() {
+        KieBaseCache kieBaseCache = new KieBaseCache();
+        ClassLoader classLoader = getClass().getClassLoader();
+        AtomicInteger buildCount = new AtomicInteger(0);
+        KieBase kieBase = kieBaseCache.computeIfAbsent(classLoader, "a", () -> {
+            buildCount.incrementAndGet();
+            return mock(KieBase.class);
+        });
+        assertSame(kieBase, kieBaseCache.computeIfAbsent(classLoader, "a", () -> {
+            buildCount.incrementAndGet();
+            return mock(KieBase.class);
+        }));
+        assertEquals(1, buildCount.get());
+        assertNotSame(kieBase, kieBaseCache.computeIfAbsent(classLoader, "b", () -> mock(KieBase.class)));
+        ClassLoader otherClassLoader = new ClassLoader(classLoader) {
+        };
+        assertNotSame(kieBase, kieBaseCache.computeIfAbsent(otherClassLoader, "a", () -> mock(KieBase.class)));
+        assertEquals(3, kieBaseCache.size());
+        kieBaseCache.clear();
+        assertEquals(0, kieBaseCache.size());
+    }
+
+    @Test
+    public void evict() {
+        KieBaseCache kieBaseCache = new KieBaseCache();
+        ClassLoader classLoader = getClass().getClassLoader();
+        ClassLoader otherClassLoader = new ClassLoader(classLoader) {
+        };
+        KieBase kieBase = kieBaseCache.computeIfAbsent(classLoader, "a", () -> mock(KieBase.class));
+        kieBaseCache.computeIfAbsent(otherClassLoader, "a", () -> mock(KieBase.class));
+        assertEquals(2, kieBaseCache.size());
+        kieBaseCache.evict(otherClassLoader);
+        assertEquals(1, kieBaseCache.size());
+        assertSame(kieBase, kieBaseCache.computeIfAbsent(classLoader, "a", () -> mock(KieBase.class)));
+    }
+
+    @Test
+    public void computeIfAbsentDoesNotCacheFailure() {
+        KieBaseCache kieBaseCache = new KieBaseCache();
+        ClassLoader classLoader = getClass().getClassLoader();
+        try {
+            kieBaseCache.computeIfAbsent(classLoader, "a", () -> {
+                throw new IllegalStateException("There are errors in a score DRL.");
+            });
+            fail("The build should have failed.");
+        } catch (IllegalStateException e) {
+            assertEquals("There are errors in a score DRL.", e.getMessage());
+        }
+        assertEquals(0, kieBaseCache.size());
+        KieBase kieBase = mock(KieBase.class);
+        assertSame(kieBase, kieBaseCache.computeIfAbsent(classLoader, "a", () -> kieBase));
+    }
+
+    @Test
+    public void hashContent() {
+        byte[] ab = "ab".getBytes(StandardCharsets.UTF_8);
+        byte[] a = "a".getBytes(StandardCharsets.UTF_8);
+        byte[] b = "b".getBytes(StandardCharsets.UTF_8);
+        String hash = KieBaseCache.hashContent(Collections.singletonList(ab), null, Collections.emptySet());
+        assertEquals(64, hash.length());
+        assertEquals(hash, KieBaseCache.hashContent(Collections.singletonList(ab.clone()), null, Collections.emptySet()));
+        assertNotEquals(hash, KieBaseCache.hashContent(Arrays.asList(a, b), null, Collections.emptySet()));
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("drools.equalityBehavior", "equality");
+        properties.put("drools.sequential", "false");
+        Map<String, String> reversedProperties = new LinkedHashMap<>();
+        reversedProperties.put("drools.sequential", "false");
+        reversedProperties.put("drools.equalityBehavior", "equality");
+        String propertiesHash = KieBaseCache.hashContent(Collections.singletonList(ab), properties,
+                Collections.emptySet());
+        assertNotEquals(hash, propertiesHash);
+        assertEquals(propertiesHash, KieBaseCache.hashContent(Collections.singletonList(ab), reversedProperties,
+                Collections.emptySet()));
+    }
+
+    @Test
+    public void hashContentWithDomainClasses() {
+        List<byte[]> drlContentList = Collections.singletonList("ab".getBytes(StandardCharsets.UTF_8));
+        Set<Class<?>> domainClassSet = KieBaseCache.extractDomainClassSet(TestdataSolution.buildSolutionDescriptor());
+        assertEquals(new HashSet<>(Arrays.asList(TestdataSolution.class, TestdataEntity.class, TestdataValue.class,
+                TestdataObject.class)), domainClassSet);
+        String hash = KieBaseCache.hashContent(drlContentList, null, domainClassSet);
+        assertNotEquals(KieBaseCache.hashContent(drlContentList, null, Collections.emptySet()), hash);
+        List<Class<?>> reversedDomainClassList = new ArrayList<>(domainClassSet);
+        Collections.reverse(reversedDomainClassList);
+        assertEquals(hash, KieBaseCache.hashContent(drlContentList, null, reversedDomainClassList));
+        assertNotEquals(hash, KieBaseCache.hashContent(drlContentList, null,
+                Arrays.asList(TestdataSolution.class, TestdataEntity.class, TestdataObject.class)));
+    }
+
+}
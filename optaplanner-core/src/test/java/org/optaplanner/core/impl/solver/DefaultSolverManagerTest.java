@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.api.solver.SolverJob;
+import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.api.solver.SolverStatus;
+import org.optaplanner.core.config.solver.SolverManagerConfig;
+import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
+import org.optaplanner.core.impl.testdata.domain.TestdataSolution;
+import org.optaplanner.core.impl.testdata.domain.TestdataValue;
+import org.optaplanner.core.impl.testdata.util.PlannerTestUtils;
+
+import static org.junit.Assert.*;
+
+public class DefaultSolverManagerTest {
+
+    @Test(timeout = 10000L)
+    public void solveAndListen() throws Exception {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        try (SolverManager<TestdataSolution, Long> solverManager = SolverManager.create(solverFactory)) {
+            AtomicInteger bestSolutionCount = new AtomicInteger(0);
+            SolverJob<TestdataSolution, Long> solverJob1 = solverManager.solveAndListen(1L, buildProblem("s1"),
+                    bestSolution -> bestSolutionCount.incrementAndGet());
+            SolverJob<TestdataSolution, Long> solverJob2 = solverManager.solve(2L, buildProblem("s2"));
+            TestdataSolution solution1 = solverJob1.getFinalBestSolution();
+            TestdataSolution solution2 = solverJob2.getFinalBestSolutionFuture().get();
+            assertEquals(true, solution1.getScore().isSolutionInitialized());
+            assertEquals(true, solution2.getScore().isSolutionInitialized());
+            assertTrue(bestSolutionCount.get() > 0);
+            assertEquals(SolverStatus.NOT_SOLVING, solverJob1.getSolverStatus());
+            assertEquals(SolverStatus.NOT_SOLVING, solverManager.getSolverStatus(2L));
+        }
+    }
+
+    @Test(timeout = 10000L)
+    public void solveWithMoveThreads() throws Exception {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        solverFactory.getSolverConfig().setMoveThreadCount("2");
+        try (SolverManager<TestdataSolution, Long> solverManager = SolverManager.create(solverFactory,
+                new SolverManagerConfig().withThreadBudget("3"))) {
+            assertEquals(3, ((DefaultSolverManager<TestdataSolution, Long>) solverManager).getJobThreadCount());
+            SolverJob<TestdataSolution, Long> solverJob1 = solverManager.solve(1L, buildProblem("s1"));
+            SolverJob<TestdataSolution, Long> solverJob2 = solverManager.solve(2L, buildProblem("s2"));
+            assertEquals(true, solverJob1.getFinalBestSolution().getScore().isSolutionInitialized());
+            assertEquals(true, solverJob2.getFinalBestSolution().getScore().isSolutionInitialized());
+        }
+    }
+
+    @Test(timeout = 10000L)
+    public void threadBudgetIsNeverExceeded() throws Exception {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        solverFactory.getSolverConfig().setMoveThreadCount("2");
+        try (SolverManager<TestdataSolution, Long> solverManager = SolverManager.create(solverFactory,
+                new SolverManagerConfig().withThreadBudget("5"))) {
+            DefaultSolverManager<TestdataSolution, Long> defaultSolverManager
+                    = (DefaultSolverManager<TestdataSolution, Long>) solverManager;
+            List<SolverJob<TestdataSolution, Long>> solverJobList = new ArrayList<>();
+            for (long problemId = 0L; problemId < 6L; problemId++) {
+                solverJobList.add(solverManager.solve(problemId, buildProblem("s" + problemId)));
+            }
+            for (SolverJob<TestdataSolution, Long> solverJob : solverJobList) {
+                assertEquals(true, solverJob.getFinalBestSolution().getScore().isSolutionInitialized());
+            }
+            // Only 1 job of 3 threads fits in the threadBudget at a time
+            assertTrue(defaultSolverManager.executor.getLargestPoolSize() <= 5);
+            assertEquals(5, defaultSolverManager.executor.getMaximumPoolSize());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void runnableThreadCountHigherThanThreadBudget() {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        solverFactory.getSolverConfig().setMoveThreadCount("4");
+        SolverManager.create(solverFactory, new SolverManagerConfig().withThreadBudget("3"));
+    }
+
+    @Test(timeout = 10000L)
+    public void scheduledJobsStartByPriority() throws Exception {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        // A daemon solver keeps solving until it's terminated early
+        solverFactory.getSolverConfig().setDaemon(true);
+        try (SolverManager<TestdataSolution, Long> solverManager = SolverManager.create(solverFactory,
+                new SolverManagerConfig().withThreadBudget("1"))) {
+            SolverJob<TestdataSolution, Long> solverJob1 = solverManager.solve(1L, buildProblem("s1"));
+            SolverJob<TestdataSolution, Long> solverJob2 = solverManager.solve(2L, buildProblem("s2"), 0);
+            SolverJob<TestdataSolution, Long> solverJob3 = solverManager.solve(3L, buildProblem("s3"), 5);
+            assertEquals(SolverStatus.SOLVING_ACTIVE, solverJob1.getSolverStatus());
+            assertEquals(SolverStatus.SOLVING_SCHEDULED, solverJob2.getSolverStatus());
+            assertEquals(SolverStatus.SOLVING_SCHEDULED, solverJob3.getSolverStatus());
+
+            solverJob1.terminateEarly();
+            assertNotNull(solverJob1.getFinalBestSolution());
+            assertEquals(SolverStatus.SOLVING_SCHEDULED, solverJob2.getSolverStatus());
+            assertEquals(SolverStatus.SOLVING_ACTIVE, solverJob3.getSolverStatus());
+
+            solverManager.terminateEarly(2L);
+            assertEquals(SolverStatus.NOT_SOLVING, solverJob2.getSolverStatus());
+            try {
+                solverJob2.getFinalBestSolution();
+                fail("The solverJob2 was cancelled before it started solving.");
+            } catch (CancellationException e) {
+                // Expected
+            }
+            solverJob3.terminateEarly();
+            assertNotNull(solverJob3.getFinalBestSolution());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void solveSameProblemIdTwice() {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        solverFactory.getSolverConfig().setDaemon(true);
+        try (SolverManager<TestdataSolution, Long> solverManager = SolverManager.create(solverFactory)) {
+            solverManager.solve(1L, buildProblem("s1"));
+            solverManager.solve(1L, buildProblem("s1"));
+        }
+    }
+
+    private static TestdataSolution buildProblem(String code) {
+        TestdataSolution solution = new TestdataSolution(code);
+        solution.setValueList(Arrays.asList(new TestdataValue("v1"), new TestdataValue("v2")));
+        solution.setEntityList(Arrays.asList(new TestdataEntity("e1"), new TestdataEntity("e2"),
+                new TestdataEntity("e3")));
+        return solution;
+    }
+
+}
@@ -16,16 +16,21 @@
 
 package org.optaplanner.core.impl.solver;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
 import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
 import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
 import org.optaplanner.core.config.phase.custom.CustomPhaseConfig;
 import org.optaplanner.core.config.score.definition.ScoreDefinitionType;
+import org.optaplanner.core.config.solver.recaller.BestSolutionSnapshotMode;
 import org.optaplanner.core.config.solver.termination.TerminationConfig;
 import org.optaplanner.core.impl.phase.custom.NoChangeCustomPhaseCommand;
 import org.optaplanner.core.impl.testdata.domain.TestdataEntity;
@@ -57,6 +62,70 @@ public class DefaultSolverTest {
         assertSame(solution, solver.getBestSolution());
     }
 
+    @Test
+    public void solveWithVariableJournal() {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        solverFactory.getSolverConfig().setBestSolutionSnapshotMode(BestSolutionSnapshotMode.VARIABLE_JOURNAL);
+        Solver<TestdataSolution> solver = solverFactory.buildSolver();
+        AtomicInteger eventCount = new AtomicInteger(0);
+        solver.addEventListener(event -> {
+            assertNotNull(event.getNewBestSolution());
+            assertSame(event.getNewBestScore(), event.getNewBestSolution().getScore());
+            eventCount.incrementAndGet();
+        });
+
+        TestdataSolution solution = new TestdataSolution("s1");
+        solution.setValueList(Arrays.asList(new TestdataValue("v1"), new TestdataValue("v2")));
+        solution.setEntityList(Arrays.asList(new TestdataEntity("e1"), new TestdataEntity("e2")));
+
+        solution = solver.solve(solution);
+        assertNotNull(solution);
+        assertEquals(true, solution.getScore().isSolutionInitialized());
+        assertNotNull(solution.getEntityList().get(0).getValue());
+        assertNotNull(solution.getEntityList().get(1).getValue());
+        assertSame(solution, solver.getBestSolution());
+        assertTrue(eventCount.get() > 0);
+    }
+
+    @Test
+    public void solveWithVariableJournalPinsNewBestSolutionPerEvent() {
+        SolverFactory<TestdataSolution> solverFactory = PlannerTestUtils.buildSolverFactory(
+                TestdataSolution.class, TestdataEntity.class);
+        solverFactory.getSolverConfig().setBestSolutionSnapshotMode(BestSolutionSnapshotMode.VARIABLE_JOURNAL);
+        Solver<TestdataSolution> solver = solverFactory.buildSolver();
+        List<BestSolutionChangedEvent<TestdataSolution>> eventList = new ArrayList<>();
+        List<TestdataSolution> requestedSolutionList = new ArrayList<>();
+        solver.addEventListener(event -> {
+            eventList.add(event);
+            // Only the first event's solution is requested during the event
+            if (eventList.size() == 1) {
+                requestedSolutionList.add(event.getNewBestSolution());
+            }
+        });
+
+        TestdataSolution solution = new TestdataSolution("s1");
+        solution.setValueList(Arrays.asList(new TestdataValue("v1"), new TestdataValue("v2")));
+        solution.setEntityList(Arrays.asList(new TestdataEntity("e1"), new TestdataEntity("e2"),
+                new TestdataEntity("e3")));
+
+        solution = solver.solve(solution);
+        assertEquals(3, eventList.size());
+        TestdataSolution firstSolution = eventList.get(0).getNewBestSolution();
+        assertSame(requestedSolutionList.get(0), firstSolution);
+        assertNotSame(solution, firstSolution);
+        assertEquals(-2, firstSolution.getScore().getInitScore());
+        // The last event's solution was planning cloned when the phase ended
+        assertSame(solution, eventList.get(2).getNewBestSolution());
+        // Never the solution of a later event
+        try {
+            eventList.get(1).getNewBestSolution();
+            fail("IllegalStateException wasn't thrown.");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains(BestSolutionSnapshotMode.VARIABLE_JOURNAL.name()));
+        }
+    }
+
     @Test
     public void solveLegacy() {
         SolverFactory<TestdataLegacySolution> solverFactory = PlannerTestUtils.buildSolverFactory(
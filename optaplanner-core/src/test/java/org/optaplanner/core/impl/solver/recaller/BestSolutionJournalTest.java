@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.core.impl.solver.recaller;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.testdata.domain.shadow.inverserelation.TestdataInverseRelationEntity;
+import org.optaplanner.core.impl.testdata.domain.shadow.inverserelation.TestdataInverseRelationSolution;
+import org.optaplanner.core.impl.testdata.domain.shadow.inverserelation.TestdataInverseRelationValue;
+import org.optaplanner.core.impl.testdata.util.PlannerTestUtils;
+
+import static org.junit.Assert.*;
+import static org.optaplanner.core.impl.testdata.util.PlannerAssert.*;
+
+public class BestSolutionJournalTest {
+
+    @Test
+    public void recordAndCloneRecordedSolution() {
+        SolutionDescriptor<TestdataInverseRelationSolution> solutionDescriptor
+                = TestdataInverseRelationSolution.buildSolutionDescriptor();
+        InnerScoreDirector<TestdataInverseRelationSolution> scoreDirector
+                = PlannerTestUtils.mockScoreDirector(solutionDescriptor);
+        GenuineVariableDescriptor<TestdataInverseRelationSolution> variableDescriptor = solutionDescriptor
+                .findEntityDescriptorOrFail(TestdataInverseRelationEntity.class).getGenuineVariableDescriptor("value");
+
+        TestdataInverseRelationValue val1 = new TestdataInverseRelationValue("1");
+        TestdataInverseRelationValue val2 = new TestdataInverseRelationValue("2");
+        TestdataInverseRelationValue val3 = new TestdataInverseRelationValue("3");
+        TestdataInverseRelationEntity a = new TestdataInverseRelationEntity("a", val1);
+        TestdataInverseRelationEntity b = new TestdataInverseRelationEntity("b", val1);
+        TestdataInverseRelationEntity c = new TestdataInverseRelationEntity("c", val3);
+        TestdataInverseRelationSolution solution = new TestdataInverseRelationSolution("solution");
+        solution.setEntityList(Arrays.asList(a, b, c));
+        solution.setValueList(Arrays.asList(val1, val2, val3));
+        scoreDirector.setWorkingSolution(solution);
+
+        BestSolutionJournal<TestdataInverseRelationSolution> journal = new BestSolutionJournal<>();
+        journal.reset(scoreDirector);
+        scoreDirector.changeVariableFacade(variableDescriptor, a, val2);
+        scoreDirector.triggerVariableListeners();
+        assertEquals(1, journal.record(scoreDirector));
+        assertEquals(0, journal.record(scoreDirector));
+
+        // The working solution moves away from the recorded best solution
+        scoreDirector.changeVariableFacade(variableDescriptor, b, val3);
+        scoreDirector.triggerVariableListeners();
+
+        TestdataInverseRelationSolution clone = journal.cloneRecordedSolution(scoreDirector);
+        assertNotSame(solution, clone);
+        TestdataInverseRelationEntity cloneA = clone.getEntityList().get(0);
+        TestdataInverseRelationEntity cloneB = clone.getEntityList().get(1);
+        TestdataInverseRelationEntity cloneC = clone.getEntityList().get(2);
+        assertCode("2", cloneA.getValue());
+        assertCode("1", cloneB.getValue());
+        assertCode("3", cloneC.getValue());
+        assertCollectionContainsExactly(cloneB.getValue().getEntities(), cloneB);
+        assertCollectionContainsExactly(cloneA.getValue().getEntities(), cloneA);
+        assertCollectionContainsExactly(cloneC.getValue().getEntities(), cloneC);
+
+        // The working solution is restored
+        assertSame(val2, a.getValue());
+        assertSame(val3, b.getValue());
+        assertSame(val3, c.getValue());
+        assertCollectionContainsExactly(val1.getEntities());
+        assertCollectionContainsExactly(val2.getEntities(), a);
+        assertCollectionContainsExactly(val3.getEntities(), c, b);
+        assertEquals(1, journal.record(scoreDirector));
+    }
+
+    @Test
+    public void recordResetsAfterWorkingSolutionChange() {
+        SolutionDescriptor<TestdataInverseRelationSolution> solutionDescriptor
+                = TestdataInverseRelationSolution.buildSolutionDescriptor();
+        InnerScoreDirector<TestdataInverseRelationSolution> scoreDirector
+                = PlannerTestUtils.mockScoreDirector(solutionDescriptor);
+
+        TestdataInverseRelationValue val1 = new TestdataInverseRelationValue("1");
+        TestdataInverseRelationSolution solution = new TestdataInverseRelationSolution("solution");
+        solution.setEntityList(Arrays.asList(new TestdataInverseRelationEntity("a", val1),
+                new TestdataInverseRelationEntity("b", val1)));
+        solution.setValueList(Arrays.asList(val1));
+        scoreDirector.setWorkingSolution(solution);
+
+        BestSolutionJournal<TestdataInverseRelationSolution> journal = new BestSolutionJournal<>();
+        journal.reset(scoreDirector);
+        assertEquals(0, journal.record(scoreDirector));
+        scoreDirector.setWorkingSolution(scoreDirector.cloneWorkingSolution());
+        assertEquals(2, journal.record(scoreDirector));
+        assertEquals(0, journal.record(scoreDirector));
+    }
+
+}
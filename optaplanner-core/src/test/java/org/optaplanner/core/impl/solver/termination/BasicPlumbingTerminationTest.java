@@ -20,6 +20,9 @@ import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.core.impl.solver.MergeableProblemFactChange;
+import org.optaplanner.core.impl.solver.ProblemFactChange;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -34,10 +37,7 @@ public class BasicPlumbingTerminationTest {
         basicPlumbingTermination.addProblemFactChange(scoreDirector -> count.getAndIncrement());
         assertEquals(true, basicPlumbingTermination.waitForRestartSolverDecision());
         assertEquals(0, count.get());
-        basicPlumbingTermination.startProblemFactChangesProcessing().removeIf(problemFactChange -> {
-            problemFactChange.doChange(null);
-            return true;
-        });
+        processProblemFactChanges(basicPlumbingTermination);
         assertEquals(false, basicPlumbingTermination.waitForRestartSolverDecision());
         assertEquals(1, count.get());
     }
@@ -53,12 +53,108 @@ public class BasicPlumbingTerminationTest {
         ));
         assertEquals(true, basicPlumbingTermination.waitForRestartSolverDecision());
         assertEquals(0, count.get());
-        basicPlumbingTermination.startProblemFactChangesProcessing().removeIf(problemFactChange -> {
-            problemFactChange.doChange(null);
-            return true;
-        });
+        processProblemFactChanges(basicPlumbingTermination);
         assertEquals(false, basicPlumbingTermination.waitForRestartSolverDecision());
         assertEquals(21, count.get());
     }
 
+    @Test
+    public void mergeConsecutiveProblemFactChanges() {
+        AtomicInteger count = new AtomicInteger(0);
+        BasicPlumbingTermination basicPlumbingTermination = new BasicPlumbingTermination(false);
+        basicPlumbingTermination.addProblemFactChange(new SetCountChange(count, "a", 1));
+        basicPlumbingTermination.addProblemFactChange(new SetCountChange(count, "a", 2));
+        basicPlumbingTermination.addProblemFactChange(new SetCountChange(count, "b", 3));
+        basicPlumbingTermination.addProblemFactChange(new SetCountChange(count, "a", 4));
+        basicPlumbingTermination.addProblemFactChange(new SetCountChange(count, null, 5));
+        basicPlumbingTermination.addProblemFactChange(new SetCountChange(count, null, 6));
+        assertEquals(1L, basicPlumbingTermination.getProblemFactChangeMergeCount());
+        assertEquals(5, processProblemFactChanges(basicPlumbingTermination));
+        assertEquals(6, count.get());
+        assertEquals(5L, basicPlumbingTermination.getProcessedProblemFactChangeCount());
+        assertEquals(1L, basicPlumbingTermination.getProblemFactChangeBatchCount());
+    }
+
+    @Test
+    public void maximumBatchSize() {
+        AtomicInteger count = new AtomicInteger(0);
+        BasicPlumbingTermination basicPlumbingTermination = new BasicPlumbingTermination(false, 0L, 2);
+        basicPlumbingTermination.addProblemFactChanges(Arrays.asList(
+                scoreDirector -> count.getAndIncrement(),
+                scoreDirector -> count.getAndIncrement(),
+                scoreDirector -> count.getAndIncrement()
+        ));
+        assertEquals(true, basicPlumbingTermination.isSolverTerminated(null));
+        assertEquals(2, processProblemFactChanges(basicPlumbingTermination));
+        assertEquals(true, basicPlumbingTermination.waitForRestartSolverDecision());
+        assertEquals(1, processProblemFactChanges(basicPlumbingTermination));
+        assertEquals(false, basicPlumbingTermination.waitForRestartSolverDecision());
+        assertEquals(3, count.get());
+        assertEquals(2L, basicPlumbingTermination.getProblemFactChangeBatchCount());
+    }
+
+    @Test
+    public void minimumIntervalMillisDelaysSolverTermination() {
+        BasicPlumbingTermination basicPlumbingTermination = new BasicPlumbingTermination(false, 60_000L, 3);
+        assertEquals(false, basicPlumbingTermination.isSolverTerminated(null));
+        // The first batch is never delayed
+        basicPlumbingTermination.addProblemFactChange(scoreDirector -> {});
+        assertEquals(true, basicPlumbingTermination.isSolverTerminated(null));
+        processProblemFactChanges(basicPlumbingTermination);
+        basicPlumbingTermination.addProblemFactChange(scoreDirector -> {});
+        basicPlumbingTermination.addProblemFactChange(scoreDirector -> {});
+        assertEquals(false, basicPlumbingTermination.isSolverTerminated(null));
+        basicPlumbingTermination.addProblemFactChange(scoreDirector -> {});
+        assertEquals(true, basicPlumbingTermination.isSolverTerminated(null));
+        basicPlumbingTermination.terminateEarly();
+        assertEquals(true, basicPlumbingTermination.isSolverTerminated(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maximumBatchSizeZero() {
+        new BasicPlumbingTermination(false, 0L, 0);
+    }
+
+    private static int processProblemFactChanges(BasicPlumbingTermination basicPlumbingTermination) {
+        basicPlumbingTermination.startProblemFactChangesProcessing();
+        int processedCount = 0;
+        ProblemFactChange problemFactChange = basicPlumbingTermination.pollProblemFactChange();
+        while (problemFactChange != null) {
+            problemFactChange.doChange(null);
+            processedCount++;
+            problemFactChange = basicPlumbingTermination.pollProblemFactChange();
+        }
+        basicPlumbingTermination.endProblemFactChangesProcessing();
+        return processedCount;
+    }
+
+    private static class SetCountChange implements MergeableProblemFactChange<Object> {
+
+        private final AtomicInteger count;
+        private final String mergeKey;
+        private final int value;
+
+        public SetCountChange(AtomicInteger count, String mergeKey, int value) {
+            this.count = count;
+            this.mergeKey = mergeKey;
+            this.value = value;
+        }
+
+        @Override
+        public Object getMergeKey() {
+            return mergeKey;
+        }
+
+        @Override
+        public ProblemFactChange<Object> merge(MergeableProblemFactChange<Object> laterChange) {
+            return laterChange;
+        }
+
+        @Override
+        public void doChange(ScoreDirector<Object> scoreDirector) {
+            count.set(value);
+        }
+
+    }
+
 }
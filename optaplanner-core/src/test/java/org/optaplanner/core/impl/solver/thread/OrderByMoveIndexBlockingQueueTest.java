@@ -53,7 +53,7 @@ public class OrderByMoveIndexBlockingQueueTest {
 
     @Test
     public void addMove() throws InterruptedException {
-        // Capacity: 4 moves in circulation + 2 exception handling results
+        // Capacity: up to 6 moves in circulation, an exception result never takes a slot
         OrderByMoveIndexBlockingQueue<TestdataSolution> queue = new OrderByMoveIndexBlockingQueue<>(4 + 2);
 
         queue.startNextStep(0);
@@ -97,7 +97,7 @@ public class OrderByMoveIndexBlockingQueueTest {
 
     @Test
     public void addUndoableMove() throws InterruptedException {
-        // Capacity: 4 moves in circulation + 2 exception handling results
+        // Capacity: up to 6 moves in circulation, an exception result never takes a slot
         OrderByMoveIndexBlockingQueue<TestdataSolution> queue = new OrderByMoveIndexBlockingQueue<>(4 + 2);
 
         queue.startNextStep(0);
@@ -117,9 +117,26 @@ public class OrderByMoveIndexBlockingQueueTest {
         assertResult("b1", -1, queue.take());
     }
 
+    @Test
+    public void addMoveOfPreviousStepDoesNotOverwriteSlot() throws InterruptedException, ExecutionException {
+        // Capacity: up to 6 moves in circulation, an exception result never takes a slot
+        OrderByMoveIndexBlockingQueue<TestdataSolution> queue = new OrderByMoveIndexBlockingQueue<>(4 + 2);
+
+        queue.startNextStep(0);
+        executorService.submit(() -> queue.addMove(0, 0, 0, new DummyMove("a0"), SimpleScore.of(0))).get();
+        assertResult("a0", 0, queue.take());
+
+        queue.startNextStep(1);
+        executorService.submit(() -> queue.addMove(0, 1, 1, new DummyMove("b1"), SimpleScore.of(-1))).get();
+        executorService.submit(() -> queue.addMove(1, 0, 7, new DummyMove("a7"), SimpleScore.of(-7))).get();
+        executorService.submit(() -> queue.addMove(0, 1, 0, new DummyMove("b0"), SimpleScore.of(0))).get();
+        assertResult("b0", 0, queue.take());
+        assertResult("b1", -1, queue.take());
+    }
+
     @Test
     public void addExceptionThrown() throws InterruptedException, ExecutionException {
-        // Capacity: 4 moves in circulation + 2 exception handling results
+        // Capacity: up to 6 moves in circulation, an exception result never takes a slot
         OrderByMoveIndexBlockingQueue<TestdataSolution> queue = new OrderByMoveIndexBlockingQueue<>(4 + 2);
 
         queue.startNextStep(0);
@@ -151,7 +168,7 @@ public class OrderByMoveIndexBlockingQueueTest {
 
     @Test
     public void addExceptionIsNotEatenIfNextStepStartsBeforeTaken() throws InterruptedException, ExecutionException {
-        // Capacity: 4 moves in circulation + 2 exception handling results
+        // Capacity: up to 6 moves in circulation, an exception result never takes a slot
         OrderByMoveIndexBlockingQueue<TestdataSolution> queue = new OrderByMoveIndexBlockingQueue<>(4 + 2);
 
         queue.startNextStep(0);
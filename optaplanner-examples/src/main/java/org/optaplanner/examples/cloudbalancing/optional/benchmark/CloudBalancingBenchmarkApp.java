@@ -32,6 +32,14 @@ public class CloudBalancingBenchmarkApp extends CommonBenchmarkApp {
                         "org/optaplanner/examples/cloudbalancing/optional/benchmark/cloudBalancingStepLimitBenchmarkConfig.xml"),
                 new ArgOption("scoreDirector",
                         "org/optaplanner/examples/cloudbalancing/optional/benchmark/cloudBalancingScoreDirectorBenchmarkConfig.xml"),
+                new ArgOption("moveThreadCount",
+                        "org/optaplanner/examples/cloudbalancing/optional/benchmark/cloudBalancingMoveThreadCountBenchmarkConfig.xml"),
+                new ArgOption("tabuStore",
+                        "org/optaplanner/examples/cloudbalancing/optional/benchmark/cloudBalancingTabuStoreBenchmarkConfig.xml"),
+                new ArgOption("moveScoreDeltaCache",
+                        "org/optaplanner/examples/cloudbalancing/optional/benchmark/cloudBalancingMoveScoreDeltaCacheBenchmarkConfig.xml"),
+                new ArgOption("cheapestInsertion",
+                        "org/optaplanner/examples/cloudbalancing/optional/benchmark/cloudBalancingCheapestInsertionBenchmarkConfig.xml"),
                 new ArgOption("template",
                         "org/optaplanner/examples/cloudbalancing/optional/benchmark/cloudBalancingBenchmarkConfigTemplate.xml.ftl", true)
         );
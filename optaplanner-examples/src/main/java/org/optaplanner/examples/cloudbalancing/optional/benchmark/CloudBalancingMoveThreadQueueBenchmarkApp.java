@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.cloudbalancing.optional.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.thread.OrderByMoveIndexBlockingQueue;
+import org.optaplanner.core.impl.heuristic.thread.OrderByMoveIndexBlockingQueue.MoveResult;
+import org.optaplanner.examples.cloudbalancing.domain.CloudBalance;
+import org.optaplanner.examples.cloudbalancing.domain.CloudComputer;
+import org.optaplanner.examples.cloudbalancing.domain.CloudProcess;
+import org.optaplanner.examples.cloudbalancing.optional.move.CloudComputerChangeMove;
+import org.optaplanner.examples.cloudbalancing.persistence.CloudBalancingGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the lock-free {@link OrderByMoveIndexBlockingQueue} with the synchronized implementation it replaced,
+ * by passing the move results of many steps from move threads to the solver thread,
+ * the same way as a multithreaded Local Search does.
+ * <p>
+ * The move threads don't evaluate the moves, so this is a micro benchmark of the queue overhead:
+ * use the {@link CloudBalancingBenchmarkApp} with a moveThreadCount to measure the impact on an entire solver run.
+ */
+public class CloudBalancingMoveThreadQueueBenchmarkApp {
+
+    private static final int MOVE_COUNT_PER_STEP = 1_000;
+    private static final int WARM_UP_STEP_COUNT = 2_000;
+    private static final int MEASURED_STEP_COUNT = 10_000;
+    private static final Score MOVE_SCORE = HardSoftScore.ZERO;
+
+    protected static final Logger logger = LoggerFactory.getLogger(CloudBalancingMoveThreadQueueBenchmarkApp.class);
+
+    public static void main(String[] args) throws InterruptedException {
+        int moveThreadCount = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int selectedMoveBufferSize = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        CloudBalance cloudBalance = new CloudBalancingGenerator(true).createCloudBalance(100, 300);
+        List<CloudComputer> computerList = cloudBalance.getComputerList();
+        List<CloudProcess> processList = cloudBalance.getProcessList();
+        List<Move<CloudBalance>> moveList = new ArrayList<>(MOVE_COUNT_PER_STEP);
+        for (int i = 0; i < MOVE_COUNT_PER_STEP; i++) {
+            moveList.add(new CloudComputerChangeMove(processList.get(i % processList.size()),
+                    computerList.get(i % computerList.size())));
+        }
+        // Same capacity as the MultiThreadedLocalSearchDecider
+        int capacity = selectedMoveBufferSize + moveThreadCount;
+
+        // Alternate the runs so JIT warm up and GC pressure don't favor one queue
+        for (int i = 0; i < 2; i++) {
+            benchmark("SYNCHRONIZED", new SynchronizedResultQueue(capacity),
+                    moveList, moveThreadCount, selectedMoveBufferSize);
+            benchmark("LOCK_FREE", new LockFreeResultQueue(capacity),
+                    moveList, moveThreadCount, selectedMoveBufferSize);
+        }
+    }
+
+    private static void benchmark(String queueName, ResultQueue resultQueue, List<Move<CloudBalance>> moveList,
+            int moveThreadCount, int selectedMoveBufferSize) throws InterruptedException {
+        BlockingQueue<int[]> operationQueue = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(moveThreadCount);
+        for (int moveThreadIndex = 0; moveThreadIndex < moveThreadCount; moveThreadIndex++) {
+            int moveThreadIndex_ = moveThreadIndex;
+            executor.submit(() -> {
+                try {
+                    while (true) {
+                        int[] operation = operationQueue.take();
+                        int stepIndex = operation[0];
+                        if (stepIndex < 0) {
+                            return;
+                        }
+                        int moveIndex = operation[1];
+                        resultQueue.addMove(moveThreadIndex_, stepIndex, moveIndex, moveList.get(moveIndex),
+                                MOVE_SCORE);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            solveSteps(resultQueue, operationQueue, moveList, selectedMoveBufferSize, 0, WARM_UP_STEP_COUNT);
+            long startNanos = System.nanoTime();
+            long checksum = solveSteps(resultQueue, operationQueue, moveList, selectedMoveBufferSize,
+                    WARM_UP_STEP_COUNT, WARM_UP_STEP_COUNT + MEASURED_STEP_COUNT);
+            long nanosPerMove = (System.nanoTime() - startNanos) / ((long) MEASURED_STEP_COUNT * moveList.size());
+            logger.info("{} queue: {} ns per move result with moveThreadCount ({}) and selectedMoveBufferSize ({})"
+                    + " (checksum {}).", queueName, nanosPerMove, moveThreadCount, selectedMoveBufferSize, checksum);
+        } finally {
+            for (int i = 0; i < moveThreadCount; i++) {
+                operationQueue.add(new int[]{-1, -1});
+            }
+            executor.shutdown();
+            executor.awaitTermination(1L, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Like the solver thread of the MultiThreadedLocalSearchDecider,
+     * it never has more than selectedMoveBufferSize moves in circulation.
+     */
+    private static long solveSteps(ResultQueue resultQueue, BlockingQueue<int[]> operationQueue,
+            List<Move<CloudBalance>> moveList, int selectedMoveBufferSize, int fromStepIndex, int toStepIndex)
+            throws InterruptedException {
+        int moveCount = moveList.size();
+        long checksum = 0L;
+        for (int stepIndex = fromStepIndex; stepIndex < toStepIndex; stepIndex++) {
+            resultQueue.startNextStep(stepIndex);
+            int selectedMoveIndex = 0;
+            while (selectedMoveIndex < Math.min(selectedMoveBufferSize, moveCount)) {
+                operationQueue.add(new int[]{stepIndex, selectedMoveIndex});
+                selectedMoveIndex++;
+            }
+            for (int moveIndex = 0; moveIndex < moveCount; moveIndex++) {
+                MoveResult<CloudBalance> result = resultQueue.take();
+                checksum += result.getMoveIndex();
+                if (selectedMoveIndex < moveCount) {
+                    operationQueue.add(new int[]{stepIndex, selectedMoveIndex});
+                    selectedMoveIndex++;
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private interface ResultQueue {
+
+        void startNextStep(int stepIndex);
+
+        void addMove(int moveThreadIndex, int stepIndex, int moveIndex, Move<CloudBalance> move, Score score);
+
+        MoveResult<CloudBalance> take() throws InterruptedException;
+
+    }
+
+    private static class LockFreeResultQueue implements ResultQueue {
+
+        private final OrderByMoveIndexBlockingQueue<CloudBalance> queue;
+
+        private LockFreeResultQueue(int capacity) {
+            queue = new OrderByMoveIndexBlockingQueue<>(capacity);
+        }
+
+        @Override
+        public void startNextStep(int stepIndex) {
+            queue.startNextStep(stepIndex);
+        }
+
+        @Override
+        public void addMove(int moveThreadIndex, int stepIndex, int moveIndex, Move<CloudBalance> move, Score score) {
+            queue.addMove(moveThreadIndex, stepIndex, moveIndex, move, score);
+        }
+
+        @Override
+        public MoveResult<CloudBalance> take() throws InterruptedException {
+            return queue.take();
+        }
+
+    }
+
+    /**
+     * The previous implementation of the {@link OrderByMoveIndexBlockingQueue}, without its exception handling:
+     * an {@link ArrayBlockingQueue} guarded by a lock, with a backlog for the results that arrive out of order.
+     */
+    private static class SynchronizedResultQueue implements ResultQueue {
+
+        private final BlockingQueue<MoveResult<CloudBalance>> innerQueue;
+        private final Map<Integer, MoveResult<CloudBalance>> backlog;
+
+        private int filterStepIndex = Integer.MIN_VALUE;
+        private int nextMoveIndex = Integer.MIN_VALUE;
+
+        private SynchronizedResultQueue(int capacity) {
+            innerQueue = new ArrayBlockingQueue<>(capacity);
+            backlog = new HashMap<>(capacity);
+        }
+
+        @Override
+        public void startNextStep(int stepIndex) {
+            synchronized (this) {
+                filterStepIndex = stepIndex;
+                innerQueue.clear();
+            }
+            nextMoveIndex = 0;
+            backlog.clear();
+        }
+
+        @Override
+        public void addMove(int moveThreadIndex, int stepIndex, int moveIndex, Move<CloudBalance> move, Score score) {
+            MoveResult<CloudBalance> result = new MoveResult<>(moveThreadIndex, stepIndex, moveIndex, move, true, score);
+            synchronized (this) {
+                if (result.getStepIndex() != filterStepIndex) {
+                    // Discard element from previous step
+                    return;
+                }
+                innerQueue.add(result);
+            }
+        }
+
+        @Override
+        public MoveResult<CloudBalance> take() throws InterruptedException {
+            int moveIndex = nextMoveIndex;
+            nextMoveIndex++;
+            if (!backlog.isEmpty()) {
+                MoveResult<CloudBalance> result = backlog.remove(moveIndex);
+                if (result != null) {
+                    return result;
+                }
+            }
+            while (true) {
+                MoveResult<CloudBalance> result = innerQueue.take();
+                if (result.getMoveIndex() == moveIndex) {
+                    return result;
+                } else {
+                    backlog.put(result.getMoveIndex(), result);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.optaplanner.examples.cloudbalancing.optional.benchmark;
+
+import org.optaplanner.core.impl.domain.ordinal.OrdinalManager;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.score.director.incremental.IncrementalScoreDirectorFactory;
+import org.optaplanner.examples.cloudbalancing.domain.CloudBalance;
+import org.optaplanner.examples.cloudbalancing.domain.CloudProcess;
+import org.optaplanner.examples.cloudbalancing.optional.score.CloudBalancingIncrementalScoreCalculator;
+import org.optaplanner.examples.cloudbalancing.persistence.CloudBalancingGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures {@link InnerScoreDirector#setWorkingSolution(Object)} with a lazily built {@link OrdinalManager}
+ * against building it eagerly, as the score director did before.
+ * Cloud balancing has no supply that needs ordinals, so the lazy run never builds it.
+ * <p>
+ * The working solution is set at the start of every phase, every partition and every move thread,
+ * so this is a micro benchmark: use the {@link CloudBalancingBenchmarkApp} to measure the impact on an entire solver run.
+ */
+public class CloudBalancingOrdinalManagerBenchmarkApp {
+
+    private static final int WARM_UP_RESET_COUNT = 2_000;
+    private static final int MEASURED_RESET_COUNT = 10_000;
+
+    protected static final Logger logger = LoggerFactory.getLogger(CloudBalancingOrdinalManagerBenchmarkApp.class);
+
+    public static void main(String[] args) {
+        int computerListSize = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int processListSize = args.length > 1 ? Integer.parseInt(args[1]) : 1200;
+        CloudBalance cloudBalance = new CloudBalancingGenerator(true)
+                .createCloudBalance(computerListSize, processListSize);
+        SolutionDescriptor<CloudBalance> solutionDescriptor = SolutionDescriptor.buildSolutionDescriptor(
+                CloudBalance.class, CloudProcess.class);
+        IncrementalScoreDirectorFactory<CloudBalance> scoreDirectorFactory = new IncrementalScoreDirectorFactory<>(
+                solutionDescriptor, CloudBalancingIncrementalScoreCalculator.class, null);
+
+        // Alternate the runs so JIT warm up and GC pressure don't favor one mode
+        for (int i = 0; i < 2; i++) {
+            benchmark("EAGER", true, scoreDirectorFactory, cloudBalance);
+            benchmark("LAZY", false, scoreDirectorFactory, cloudBalance);
+        }
+    }
+
+    private static void benchmark(String modeName, boolean eager,
+            IncrementalScoreDirectorFactory<CloudBalance> scoreDirectorFactory, CloudBalance cloudBalance) {
+        try (InnerScoreDirector<CloudBalance> scoreDirector = scoreDirectorFactory.buildScoreDirector(false, false)) {
+            long checksum = 0L;
+            for (int i = 0; i < WARM_UP_RESET_COUNT; i++) {
+                checksum += reset(scoreDirector, eager, cloudBalance);
+            }
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < MEASURED_RESET_COUNT; i++) {
+                checksum += reset(scoreDirector, eager, cloudBalance);
+            }
+            long nanosPerReset = (System.nanoTime() - startNanos) / MEASURED_RESET_COUNT;
+            logger.info("{} ordinal manager: {} µs per setWorkingSolution() (checksum {}).",
+                    modeName, nanosPerReset / 1000.0, checksum);
+        }
+    }
+
+    private static long reset(InnerScoreDirector<CloudBalance> scoreDirector, boolean eager,
+            CloudBalance cloudBalance) {
+        scoreDirector.setWorkingSolution(cloudBalance);
+        long checksum = scoreDirector.calculateScore().hashCode();
+        if (eager) {
+            checksum += scoreDirector.getOrdinalManager().getOrdinalLimit();
+        }
+        return checksum;
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.optaplanner.examples.cloudbalancing.optional.benchmark;
+
+import org.optaplanner.core.api.domain.solution.cloner.SolutionCloner;
+import org.optaplanner.core.impl.domain.solution.cloner.FieldAccessingSolutionCloner;
+import org.optaplanner.core.impl.domain.solution.cloner.PrecompiledSolutionCloner;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.examples.cloudbalancing.domain.CloudBalance;
+import org.optaplanner.examples.cloudbalancing.domain.CloudProcess;
+import org.optaplanner.examples.cloudbalancing.persistence.CloudBalancingGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the {@link FieldAccessingSolutionCloner} with the {@link PrecompiledSolutionCloner}
+ * by planning cloning the same {@link CloudBalance} repeatedly.
+ * <p>
+ * A planning clone is made for every new best solution, so this is a micro benchmark:
+ * use the {@link CloudBalancingBenchmarkApp} to measure the impact on an entire solver run.
+ */
+public class CloudBalancingSolutionClonerBenchmarkApp {
+
+    private static final int WARM_UP_CLONE_COUNT = 2_000;
+    private static final int MEASURED_CLONE_COUNT = 10_000;
+
+    protected static final Logger logger = LoggerFactory.getLogger(CloudBalancingSolutionClonerBenchmarkApp.class);
+
+    public static void main(String[] args) {
+        int computerListSize = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int processListSize = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        CloudBalance cloudBalance = new CloudBalancingGenerator(true)
+                .createCloudBalance(computerListSize, processListSize);
+        SolutionDescriptor<CloudBalance> solutionDescriptor = SolutionDescriptor.buildSolutionDescriptor(
+                CloudBalance.class, CloudProcess.class);
+
+        FieldAccessingSolutionCloner<CloudBalance> fieldAccessingCloner
+                = new FieldAccessingSolutionCloner<>(solutionDescriptor);
+        PrecompiledSolutionCloner<CloudBalance> precompiledCloner = new PrecompiledSolutionCloner<>(solutionDescriptor);
+        precompiledCloner.precompile();
+
+        // Alternate the runs so JIT warm up and GC pressure don't favor one cloner
+        for (int i = 0; i < 2; i++) {
+            benchmark("FIELD_ACCESSING", fieldAccessingCloner, cloudBalance);
+            benchmark("PRECOMPILED", precompiledCloner, cloudBalance);
+        }
+    }
+
+    private static void benchmark(String clonerName, SolutionCloner<CloudBalance> cloner, CloudBalance cloudBalance) {
+        int checksum = 0;
+        for (int i = 0; i < WARM_UP_CLONE_COUNT; i++) {
+            checksum += cloner.cloneSolution(cloudBalance).getProcessList().size();
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURED_CLONE_COUNT; i++) {
+            checksum += cloner.cloneSolution(cloudBalance).getProcessList().size();
+        }
+        long nanosPerClone = (System.nanoTime() - startNanos) / MEASURED_CLONE_COUNT;
+        logger.info("{} cloner: {} µs per clone (checksum {}).", clonerName, nanosPerClone / 1000.0, checksum);
+    }
+
+}
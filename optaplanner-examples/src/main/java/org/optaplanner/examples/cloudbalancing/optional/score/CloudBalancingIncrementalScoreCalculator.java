@@ -20,12 +20,15 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.holder.ScoreAccumulator;
+import org.optaplanner.core.impl.score.director.MoveLocalScoreCalculator;
 import org.optaplanner.core.impl.score.director.incremental.AbstractIncrementalScoreCalculator;
 import org.optaplanner.examples.cloudbalancing.domain.CloudBalance;
 import org.optaplanner.examples.cloudbalancing.domain.CloudComputer;
 import org.optaplanner.examples.cloudbalancing.domain.CloudProcess;
 
-public class CloudBalancingIncrementalScoreCalculator extends AbstractIncrementalScoreCalculator<CloudBalance> {
+public class CloudBalancingIncrementalScoreCalculator extends AbstractIncrementalScoreCalculator<CloudBalance>
+        implements ScoreAccumulator<HardSoftScore>, MoveLocalScoreCalculator {
 
     private Map<CloudComputer, Integer> cpuPowerUsageMap;
     private Map<CloudComputer, Integer> memoryUsageMap;
@@ -164,4 +167,14 @@ public class CloudBalancingIncrementalScoreCalculator extends AbstractIncrementa
         return HardSoftScore.of(hardScore, softScore);
     }
 
+    @Override
+    public HardSoftScore extractScore(int initScore) {
+        return HardSoftScore.ofUninitialized(initScore, hardScore, softScore);
+    }
+
+    @Override
+    public int compareToScore(int initScore, HardSoftScore other) {
+        return HardSoftScore.compare(initScore, hardScore, softScore, other);
+    }
+
 }
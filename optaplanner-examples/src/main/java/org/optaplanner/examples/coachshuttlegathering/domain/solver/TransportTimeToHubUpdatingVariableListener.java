@@ -106,9 +106,7 @@ public class TransportTimeToHubUpdatingVariableListener implements VariableListe
         for (BusOrStop busOrStop = sourceStop.getPreviousBusOrStop(); busOrStop instanceof BusStop;) {
             BusStop stop = (BusStop) busOrStop;
             transportTimeToHub = addTransportTime(transportTimeToHub, stop, toStop);
-            scoreDirector.beforeVariableChanged(stop, "transportTimeToHub");
-            stop.setTransportTimeToHub(transportTimeToHub);
-            scoreDirector.afterVariableChanged(stop, "transportTimeToHub");
+            scoreDirector.changeShadowVariableIfDifferent(stop, "transportTimeToHub", transportTimeToHub);
             updateTransportTimeForTransferShuttleList(scoreDirector, stop, bus);
             toStop = stop;
             busOrStop = stop.getPreviousBusOrStop();
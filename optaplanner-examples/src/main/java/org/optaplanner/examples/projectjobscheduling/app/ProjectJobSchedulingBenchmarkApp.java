@@ -27,7 +27,9 @@ public class ProjectJobSchedulingBenchmarkApp extends CommonBenchmarkApp {
     public ProjectJobSchedulingBenchmarkApp() {
         super(
                 new ArgOption("template",
-                        "org/optaplanner/examples/projectjobscheduling/benchmark/projectJobSchedulingBenchmarkConfigTemplate.xml.ftl", true)
+                        "org/optaplanner/examples/projectjobscheduling/benchmark/projectJobSchedulingBenchmarkConfigTemplate.xml.ftl", true),
+                new ArgOption("stepLimit",
+                        "org/optaplanner/examples/projectjobscheduling/benchmark/projectJobSchedulingStepLimitBenchmarkConfig.xml")
         );
     }
 
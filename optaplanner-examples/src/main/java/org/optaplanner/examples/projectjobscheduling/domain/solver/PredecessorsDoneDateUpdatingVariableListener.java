@@ -17,7 +17,6 @@
 package org.optaplanner.examples.projectjobscheduling.domain.solver;
 
 import java.util.ArrayDeque;
-import java.util.Objects;
 import java.util.Queue;
 
 import org.optaplanner.core.impl.domain.variable.listener.VariableListener;
@@ -80,13 +79,7 @@ public class PredecessorsDoneDateUpdatingVariableListener implements VariableLis
             int endDate = predecessorAllocation.getEndDate();
             doneDate = Math.max(doneDate, endDate);
         }
-        if (Objects.equals(doneDate, allocation.getPredecessorsDoneDate())) {
-            return false;
-        }
-        scoreDirector.beforeVariableChanged(allocation, "predecessorsDoneDate");
-        allocation.setPredecessorsDoneDate(doneDate);
-        scoreDirector.afterVariableChanged(allocation, "predecessorsDoneDate");
-        return true;
+        return scoreDirector.changeShadowVariableIfDifferent(allocation, "predecessorsDoneDate", doneDate);
     }
 
 }